@@ -0,0 +1,32 @@
+package rogo.sketch.backend.headless;
+
+import rogo.sketch.core.backend.BackendBootstrap;
+import rogo.sketch.core.backend.BackendBootstrapContext;
+import rogo.sketch.core.backend.BackendKind;
+import rogo.sketch.core.backend.BackendRuntime;
+
+/**
+ * Headless backend bootstrap entry. Needs no window or driver, so it can be
+ * registered on any machine, including CI runners without a GPU.
+ */
+public final class HeadlessBackendBootstrap implements BackendBootstrap {
+    @Override
+    public BackendKind kind() {
+        return BackendKind.HEADLESS;
+    }
+
+    @Override
+    public BackendRuntime bootstrap(BackendBootstrapContext context) {
+        return new HeadlessBackendRuntime();
+    }
+
+    /**
+     * Bootstrap context backed by a {@link HeadlessWindowService} of the given
+     * framebuffer size.
+     */
+    public static BackendBootstrapContext context(String entryPoint, int width, int height) {
+        HeadlessWindowService windowService = new HeadlessWindowService(width, height);
+        return new BackendBootstrapContext(entryPoint, 0L, windowService, (newWidth, newHeight) -> {
+        });
+    }
+}
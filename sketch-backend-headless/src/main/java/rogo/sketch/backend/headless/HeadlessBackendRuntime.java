@@ -0,0 +1,79 @@
+package rogo.sketch.backend.headless;
+
+import rogo.sketch.core.backend.BackendCapabilities;
+import rogo.sketch.core.backend.BackendKind;
+import rogo.sketch.core.backend.BackendPacketHandlerRegistry;
+import rogo.sketch.core.backend.BackendRuntime;
+import rogo.sketch.core.backend.RenderDevice;
+import rogo.sketch.core.backend.ResourceAllocator;
+import rogo.sketch.core.backend.SubmissionScheduler;
+
+/**
+ * In-process backend runtime for benchmarks and GPU-less CI. Resources live
+ * in native memory, uploads are real copies and every packet the frame
+ * executor receives ends up in {@link #commandLog()}.
+ */
+public final class HeadlessBackendRuntime implements BackendRuntime {
+    private final HeadlessCommandLog commandLog;
+    private final HeadlessResourceAllocator resourceAllocator;
+    private final HeadlessRenderDevice renderDevice;
+    private final HeadlessSubmissionScheduler submissionScheduler;
+
+    public HeadlessBackendRuntime() {
+        this(new HeadlessCommandLog());
+    }
+
+    public HeadlessBackendRuntime(HeadlessCommandLog commandLog) {
+        this.commandLog = commandLog;
+        this.resourceAllocator = new HeadlessResourceAllocator(commandLog);
+        this.renderDevice = new HeadlessRenderDevice(commandLog, resourceAllocator);
+        this.submissionScheduler = new HeadlessSubmissionScheduler(commandLog);
+    }
+
+    @Override
+    public String backendName() {
+        return "headless";
+    }
+
+    @Override
+    public BackendKind kind() {
+        return BackendKind.HEADLESS;
+    }
+
+    @Override
+    public BackendCapabilities capabilities() {
+        return renderDevice.capabilities();
+    }
+
+    @Override
+    public RenderDevice renderDevice() {
+        return renderDevice;
+    }
+
+    @Override
+    public ResourceAllocator resourceAllocator() {
+        return resourceAllocator;
+    }
+
+    @Override
+    public SubmissionScheduler submissionScheduler() {
+        return submissionScheduler;
+    }
+
+    public HeadlessCommandLog commandLog() {
+        return commandLog;
+    }
+
+    public HeadlessCommandStats stats() {
+        return commandLog.stats();
+    }
+
+    public BackendPacketHandlerRegistry<HeadlessPacketHandler> packetHandlerRegistry() {
+        return renderDevice.frameExecutor().packetHandlerRegistry();
+    }
+
+    @Override
+    public void shutdown() {
+        resourceAllocator.shutdown();
+    }
+}
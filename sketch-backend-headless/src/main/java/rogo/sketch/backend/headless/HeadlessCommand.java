@@ -0,0 +1,93 @@
+package rogo.sketch.backend.headless;
+
+/**
+ * Opcodes recorded by {@link HeadlessCommandLog}. The argument words of each
+ * entry are documented per opcode, and a fourth word not listed is 0; resource arguments are the
+ * allocation-order handles handed out by {@link HeadlessResourceAllocator},
+ * id arguments are {@code KeyId} hashes, so a log is stable across runs.
+ */
+public enum HeadlessCommand {
+    /** stage count, 0, 0 */
+    BEGIN_SCOPE(Category.FRAME),
+    /** 0, 0, 0 */
+    END_SCOPE(Category.FRAME),
+    /** frame index, 0, 0 */
+    END_FRAME(Category.FRAME),
+
+    /** 0, 0, 0 */
+    PIPELINE_RASTER_STATE(Category.STATE_CHANGE),
+    /** 0, 0, 0 */
+    DYNAMIC_STATE(Category.STATE_CHANGE),
+    /** shader id, 0, 0 */
+    BIND_SHADER(Category.STATE_CHANGE),
+    /** render target handle, render target id, 0 */
+    BIND_RENDER_TARGET(Category.STATE_CHANGE),
+
+    /** resource handle, resource type id, binding */
+    BIND_RESOURCE(Category.BIND),
+    /** indirect buffer handle, 0, 0 */
+    BIND_INDIRECT(Category.BIND),
+
+    /** vertex count, instance count, first vertex */
+    DRAW(Category.DRAW),
+    /** index count, instance count, base vertex, first index */
+    DRAW_INDEXED(Category.DRAW),
+    /** draw count, indirect offset, indexed ? 1 : 0 */
+    DRAW_INDIRECT(Category.DRAW),
+    /** groups x, groups y, groups z */
+    DISPATCH(Category.DISPATCH),
+
+    /** render target id, color ? 1 : 0, depth ? 1 : 0 */
+    CLEAR(Category.TRANSFER),
+    /** source texture id, destination texture id, width * height */
+    COPY_TEXTURE(Category.TRANSFER),
+    /** texture id, 0, 0 */
+    GENERATE_MIPMAP(Category.TRANSFER),
+    /** resource handle, destination offset, byte count */
+    UPLOAD(Category.TRANSFER),
+    /** source handle, target handle, byte count */
+    COPY_BUFFER(Category.TRANSFER),
+    /** resource handle, byte count, clear value */
+    CLEAR_BUFFER(Category.TRANSFER),
+
+    /** 0 for buffers, 1 for images, 0 */
+    BARRIER(Category.SYNC),
+    /** source stage bits, destination stage bits, image hazard ? 1 : 0 (see {@code ResourceHazardTracker}) */
+    HAZARD_BARRIER(Category.SYNC),
+    /** 0, 0, 0 */
+    SUBMIT(Category.SYNC),
+
+    /** packet type id, 0, 0 */
+    CUSTOM(Category.OTHER);
+
+    private static final HeadlessCommand[] VALUES = values();
+
+    private final Category category;
+
+    HeadlessCommand(Category category) {
+        this.category = category;
+    }
+
+    public Category category() {
+        return category;
+    }
+
+    static HeadlessCommand byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    static int count() {
+        return VALUES.length;
+    }
+
+    public enum Category {
+        FRAME,
+        STATE_CHANGE,
+        BIND,
+        DRAW,
+        DISPATCH,
+        TRANSFER,
+        SYNC,
+        OTHER
+    }
+}
@@ -0,0 +1,101 @@
+package rogo.sketch.backend.headless;
+
+import org.lwjgl.system.MemoryUtil;
+import rogo.sketch.core.backend.BackendCounterBuffer;
+import rogo.sketch.core.backend.BackendInstalledBuffer;
+import rogo.sketch.core.backend.BackendInstalledTexture;
+import rogo.sketch.core.backend.CommandEncoder;
+
+/**
+ * Command encoder that performs copies and clears directly on headless
+ * device memory and logs each operation.
+ */
+final class HeadlessCommandEncoder implements CommandEncoder {
+    private final HeadlessCommandLog log;
+
+    HeadlessCommandEncoder(HeadlessCommandLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public void copyBuffer(
+            BackendInstalledBuffer source,
+            long sourceOffsetBytes,
+            BackendInstalledBuffer target,
+            long targetOffsetBytes,
+            long byteCount) {
+        if (!(source instanceof HeadlessDeviceResource from) || !(target instanceof HeadlessDeviceResource to) || byteCount <= 0L) {
+            return;
+        }
+        HeadlessDeviceMemory src = from.device();
+        HeadlessDeviceMemory dst = to.device();
+        if (sourceOffsetBytes < 0L || sourceOffsetBytes + byteCount > src.sizeBytes()) {
+            return;
+        }
+        dst.ensureSize(targetOffsetBytes + byteCount);
+        MemoryUtil.memCopy(src.address() + sourceOffsetBytes, dst.address() + targetOffsetBytes, byteCount);
+        log.record(HeadlessCommand.COPY_BUFFER, src.handle(), dst.handle(), byteCount);
+    }
+
+    @Override
+    public void clearCounter(BackendCounterBuffer counterBuffer, int value) {
+        if (counterBuffer instanceof HeadlessCounterBuffer counter) {
+            counter.fill(value);
+            log.record(HeadlessCommand.CLEAR_BUFFER, counter.device().handle(), counter.counterCount() * Integer.BYTES, value);
+        }
+    }
+
+    @Override
+    public void clearBuffer(BackendInstalledBuffer buffer, long offsetBytes, long byteCount, int clearValue) {
+        if (!(buffer instanceof HeadlessDeviceResource resource)) {
+            return;
+        }
+        HeadlessDeviceMemory memory = resource.device();
+        long end = Math.min(memory.sizeBytes(), offsetBytes + byteCount);
+        for (long offset = Math.max(0L, offsetBytes); offset + Integer.BYTES <= end; offset += Integer.BYTES) {
+            MemoryUtil.memPutInt(memory.address() + offset, clearValue);
+        }
+        log.record(HeadlessCommand.CLEAR_BUFFER, memory.handle(), byteCount, clearValue);
+    }
+
+    @Override
+    public void bufferBarrier() {
+        log.record(HeadlessCommand.BARRIER);
+    }
+
+    @Override
+    public void imageBarrier() {
+        log.record(HeadlessCommand.BARRIER, 1L, 0L, 0L);
+    }
+
+    @Override
+    public void writeToTexture(BackendInstalledTexture destination, long sourceAddress, int width, int height, int mipLevel) {
+        if (destination instanceof HeadlessTexture texture && mipLevel == 0) {
+            long bytesPerPixel = texture.device().sizeBytes() / Math.max(1L, (long) texture.getCurrentWidth() * texture.getCurrentHeight());
+            texture.device().upload(sourceAddress, 0L, (long) width * height * Math.max(1L, bytesPerPixel));
+        }
+    }
+
+    @Override
+    public void copyTextureToBuffer(BackendInstalledTexture source, BackendInstalledBuffer destination, long offsetBytes, int mipLevel) {
+        if (source instanceof HeadlessTexture texture && destination instanceof HeadlessDeviceResource target) {
+            HeadlessDeviceMemory src = texture.device();
+            HeadlessDeviceMemory dst = target.device();
+            long bytes = Math.min(src.sizeBytes(), Math.max(0L, dst.sizeBytes() - offsetBytes));
+            if (bytes > 0L) {
+                MemoryUtil.memCopy(src.address(), dst.address() + offsetBytes, bytes);
+                log.record(HeadlessCommand.COPY_BUFFER, src.handle(), dst.handle(), bytes);
+            }
+        }
+    }
+
+    @Override
+    public void dispatch(int groupCountX, int groupCountY, int groupCountZ) {
+        log.record(HeadlessCommand.DISPATCH, groupCountX, groupCountY, groupCountZ);
+    }
+
+    @Override
+    public void submit() {
+        log.record(HeadlessCommand.SUBMIT);
+    }
+}
@@ -0,0 +1,144 @@
+package rogo.sketch.backend.headless;
+
+import java.util.Arrays;
+
+/**
+ * Append-only command log of the headless backend.
+ * <p>
+ * Entries are five longs (opcode, four arguments) in one flat array, so
+ * recording a packet costs a bounds check and five stores. Per-opcode
+ * counters, uploaded bytes and a running fingerprint are kept next to the
+ * log; two runs that issue the same commands in the same order end with the
+ * same fingerprint, which is what CI regression checks compare.
+ * </p>
+ * <p>
+ * Recording is synchronized because uploads may come from worker threads;
+ * the frame executor itself only records from the render thread.
+ * </p>
+ */
+public final class HeadlessCommandLog {
+    private static final int ENTRY_WORDS = 5;
+    private static final int INITIAL_ENTRIES = 1024;
+    private static final long FINGERPRINT_PRIME = 0x100000001b3L;
+
+    private long[] entries = new long[INITIAL_ENTRIES * ENTRY_WORDS];
+    private int size;
+    private final long[] counts = new long[HeadlessCommand.count()];
+    private long bytesUploaded;
+    private long fingerprint;
+    private boolean recording = true;
+
+    /**
+     * Stop or resume recording entries. Counters keep running either way, so
+     * long benchmark loops can run with a bounded log.
+     */
+    public synchronized void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    public synchronized boolean isRecording() {
+        return recording;
+    }
+
+    public void record(HeadlessCommand command) {
+        record(command, 0L, 0L, 0L, 0L);
+    }
+
+    public void record(HeadlessCommand command, long a, long b, long c) {
+        record(command, a, b, c, 0L);
+    }
+
+    public synchronized void record(HeadlessCommand command, long a, long b, long c, long d) {
+        int opcode = command.ordinal();
+        counts[opcode]++;
+        if (command == HeadlessCommand.UPLOAD) {
+            bytesUploaded += c;
+        }
+        fingerprint = mix(mix(mix(mix(mix(fingerprint, opcode), a), b), c), d);
+        if (!recording) {
+            return;
+        }
+        int base = size * ENTRY_WORDS;
+        if (base + ENTRY_WORDS > entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[base] = opcode;
+        entries[base + 1] = a;
+        entries[base + 2] = b;
+        entries[base + 3] = c;
+        entries[base + 4] = d;
+        size++;
+    }
+
+    /**
+     * Number of recorded entries, which can be lower than
+     * {@link HeadlessCommandStats#commands()} while recording is off.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long count(HeadlessCommand command) {
+        return counts[command.ordinal()];
+    }
+
+    public synchronized HeadlessCommandStats stats() {
+        long[] categories = new long[HeadlessCommand.Category.values().length];
+        long total = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            categories[HeadlessCommand.byOrdinal(i).category().ordinal()] += counts[i];
+            total += counts[i];
+        }
+        return new HeadlessCommandStats(
+                counts[HeadlessCommand.END_FRAME.ordinal()],
+                total,
+                categories[HeadlessCommand.Category.STATE_CHANGE.ordinal()],
+                categories[HeadlessCommand.Category.BIND.ordinal()],
+                categories[HeadlessCommand.Category.DRAW.ordinal()],
+                categories[HeadlessCommand.Category.DISPATCH.ordinal()],
+                categories[HeadlessCommand.Category.TRANSFER.ordinal()],
+                bytesUploaded,
+                fingerprint);
+    }
+
+    /**
+     * Feed every recorded entry to {@code visitor} in recording order. The
+     * entries are copied first, so the visitor may record into this log.
+     */
+    public void replay(Visitor visitor) {
+        long[] copy;
+        int count;
+        synchronized (this) {
+            count = size;
+            copy = Arrays.copyOf(entries, count * ENTRY_WORDS);
+        }
+        for (int i = 0; i < count; i++) {
+            int base = i * ENTRY_WORDS;
+            visitor.command(HeadlessCommand.byOrdinal((int) copy[base]), copy[base + 1], copy[base + 2], copy[base + 3], copy[base + 4]);
+        }
+    }
+
+    /**
+     * Re-record every entry into {@code target}. Replaying a complete log into
+     * an empty one reproduces the same {@link HeadlessCommandStats}.
+     */
+    public void replayInto(HeadlessCommandLog target) {
+        replay(target::record);
+    }
+
+    public synchronized void clear() {
+        size = 0;
+        Arrays.fill(counts, 0L);
+        bytesUploaded = 0L;
+        fingerprint = 0L;
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * FINGERPRINT_PRIME;
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void command(HeadlessCommand command, long a, long b, long c, long d);
+    }
+}
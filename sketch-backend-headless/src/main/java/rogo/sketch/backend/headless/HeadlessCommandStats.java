@@ -0,0 +1,28 @@
+package rogo.sketch.backend.headless;
+
+/**
+ * Counter snapshot of a {@link HeadlessCommandLog}.
+ *
+ * @param frames        END_FRAME markers seen
+ * @param commands      total recorded entries
+ * @param stateChanges  raster/dynamic/shader/render-target changes
+ * @param binds         resource and indirect-buffer binds
+ * @param draws         draw calls of any submission kind
+ * @param dispatches    compute dispatches
+ * @param transfers     clears, copies, mip generation and uploads
+ * @param bytesUploaded bytes actually copied into device memory
+ * @param fingerprint   hash over every entry in order
+ */
+public record HeadlessCommandStats(
+        long frames,
+        long commands,
+        long stateChanges,
+        long binds,
+        long draws,
+        long dispatches,
+        long transfers,
+        long bytesUploaded,
+        long fingerprint
+) {
+    public static final HeadlessCommandStats EMPTY = new HeadlessCommandStats(0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L);
+}
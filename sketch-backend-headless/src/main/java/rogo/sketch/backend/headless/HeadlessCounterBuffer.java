@@ -0,0 +1,76 @@
+package rogo.sketch.backend.headless;
+
+import org.lwjgl.system.MemoryUtil;
+import rogo.sketch.core.backend.BackendCounterBuffer;
+import rogo.sketch.core.memory.MemoryDomain;
+import rogo.sketch.core.util.KeyId;
+
+final class HeadlessCounterBuffer implements BackendCounterBuffer, HeadlessDeviceResource {
+    private final HeadlessCommandLog log;
+    private final HeadlessDeviceMemory device;
+    private final long counterCount;
+    private boolean disposed;
+
+    HeadlessCounterBuffer(long handle, HeadlessCommandLog log, long counterCount) {
+        this.log = log;
+        this.counterCount = Math.max(1L, counterCount);
+        this.device = new HeadlessDeviceMemory(
+                handle,
+                log,
+                MemoryDomain.GPU_PERSISTENT_MAPPED,
+                "headless-counter-buffer/" + handle,
+                this.counterCount * Integer.BYTES);
+    }
+
+    @Override
+    public int handle() {
+        return (int) device.handle();
+    }
+
+    @Override
+    public long counterCount() {
+        return counterCount;
+    }
+
+    @Override
+    public long strideBytes() {
+        return Integer.BYTES;
+    }
+
+    int value(int index) {
+        return index >= 0 && index < counterCount ? MemoryUtil.memGetInt(device.address() + (long) index * Integer.BYTES) : 0;
+    }
+
+    void fill(int value) {
+        for (long i = 0; i < counterCount; i++) {
+            MemoryUtil.memPutInt(device.address() + i * Integer.BYTES, value);
+        }
+    }
+
+    @Override
+    public HeadlessDeviceMemory device() {
+        return device;
+    }
+
+    @Override
+    public void bind(KeyId resourceType, int binding) {
+        if (disposed) {
+            return;
+        }
+        log.record(HeadlessCommand.BIND_RESOURCE, device.handle(), resourceType != null ? resourceType.hashCode() : 0L, binding);
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        device.free();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+}
@@ -0,0 +1,92 @@
+package rogo.sketch.backend.headless;
+
+import org.lwjgl.system.MemoryUtil;
+import rogo.sketch.core.memory.MemoryDomain;
+import rogo.sketch.core.memory.MemoryLease;
+import rogo.sketch.core.memory.UnifiedMemoryFabric;
+
+/**
+ * Native allocation standing in for a GPU-side buffer or image. Uploads are
+ * plain {@code memCopy} calls into it and are recorded as
+ * {@link HeadlessCommand#UPLOAD}, so frame-build cost includes the real copy
+ * bandwidth a driver would pay.
+ */
+final class HeadlessDeviceMemory {
+    private final long handle;
+    private final HeadlessCommandLog log;
+    private final MemoryLease lease;
+    private long address;
+    private long sizeBytes;
+    private long liveBytes;
+
+    HeadlessDeviceMemory(long handle, HeadlessCommandLog log, MemoryDomain domain, String ownerId, long sizeBytes) {
+        this.handle = handle;
+        this.log = log;
+        this.sizeBytes = Math.max(1L, sizeBytes);
+        this.address = MemoryUtil.nmemCalloc(1L, this.sizeBytes);
+        this.lease = UnifiedMemoryFabric.get()
+                .openLease(domain, ownerId)
+                .bindSuppliers(this::trackedReservedBytes, this::trackedLiveBytes);
+    }
+
+    long handle() {
+        return handle;
+    }
+
+    long address() {
+        return address;
+    }
+
+    long sizeBytes() {
+        return sizeBytes;
+    }
+
+    /**
+     * Grow to at least {@code requiredBytes}, keeping the current contents.
+     */
+    void ensureSize(long requiredBytes) {
+        if (requiredBytes <= sizeBytes || address == MemoryUtil.NULL) {
+            return;
+        }
+        long resized = MemoryUtil.nmemRealloc(address, requiredBytes);
+        if (resized == MemoryUtil.NULL) {
+            throw new OutOfMemoryError("Headless device allocation failed: " + requiredBytes + " bytes");
+        }
+        MemoryUtil.memSet(resized + sizeBytes, 0, requiredBytes - sizeBytes);
+        address = resized;
+        sizeBytes = requiredBytes;
+    }
+
+    void upload(long sourceAddress, long offsetBytes, long byteCount) {
+        if (sourceAddress == MemoryUtil.NULL || byteCount <= 0L || address == MemoryUtil.NULL) {
+            return;
+        }
+        ensureSize(offsetBytes + byteCount);
+        MemoryUtil.memCopy(sourceAddress, address + offsetBytes, byteCount);
+        liveBytes = Math.max(liveBytes, offsetBytes + byteCount);
+        log.record(HeadlessCommand.UPLOAD, handle, offsetBytes, byteCount);
+    }
+
+    void free() {
+        if (address == MemoryUtil.NULL) {
+            return;
+        }
+        lease.close();
+        MemoryUtil.nmemFree(address);
+        address = MemoryUtil.NULL;
+        sizeBytes = 0L;
+        liveBytes = 0L;
+    }
+
+    boolean isFreed() {
+        return address == MemoryUtil.NULL;
+    }
+
+    private long trackedReservedBytes() {
+        return sizeBytes;
+    }
+
+    private long trackedLiveBytes() {
+        return Math.min(liveBytes, sizeBytes);
+    }
+}
@@ -0,0 +1,9 @@
+package rogo.sketch.backend.headless;
+
+/**
+ * Headless resource with a {@link HeadlessDeviceMemory} that encoder copies
+ * and clears operate on.
+ */
+interface HeadlessDeviceResource {
+    HeadlessDeviceMemory device();
+}
@@ -0,0 +1,251 @@
+package rogo.sketch.backend.headless;
+
+import rogo.sketch.core.api.graphics.ComputeDispatchContext;
+import rogo.sketch.core.backend.BackendFrameExecutor;
+import rogo.sketch.core.backend.BackendPacketHandlerRegistry;
+import rogo.sketch.core.backend.BackendStageScope;
+import rogo.sketch.core.backend.ResourceHazardTracker;
+import rogo.sketch.core.driver.state.snapshot.SnapshotScope;
+import rogo.sketch.core.graphics.ecs.GraphicsUniformSubject;
+import rogo.sketch.core.packet.ClearPacket;
+import rogo.sketch.core.packet.CopyTexturePacket;
+import rogo.sketch.core.packet.DispatchPacket;
+import rogo.sketch.core.packet.DrawPacket;
+import rogo.sketch.core.packet.DrawPlan;
+import rogo.sketch.core.packet.ExecutionKey;
+import rogo.sketch.core.packet.GenerateMipmapPacket;
+import rogo.sketch.core.packet.RenderPacket;
+import rogo.sketch.core.packet.RenderPacketQueue;
+import rogo.sketch.core.packet.RenderPacketType;
+import rogo.sketch.core.packet.ResourceBindingPlan;
+import rogo.sketch.core.packet.draw.PackedDrawCommands;
+import rogo.sketch.core.pipeline.GraphicsPipeline;
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.RenderStateManager;
+import rogo.sketch.core.pipeline.module.diagnostic.RenderTraceRecorder;
+import rogo.sketch.core.resource.ResourceBinding;
+import rogo.sketch.core.shader.ShaderProgramHandle;
+import rogo.sketch.core.shader.uniform.UniformHookGroup;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.List;
+
+/**
+ * Executes packets by recording them into the {@link HeadlessCommandLog}.
+ * State keys still go through {@link RenderStateManager} and resource
+ * bindings through the logical registry, so the CPU work in front of the
+ * backend is the same as on a real device; only the API calls are replaced.
+ */
+public final class HeadlessFrameExecutor implements BackendFrameExecutor {
+    private final HeadlessCommandLog log;
+    private final BackendPacketHandlerRegistry<HeadlessPacketHandler> packetHandlers = new BackendPacketHandlerRegistry<>();
+    private final ResourceHazardTracker hazardTracker = new ResourceHazardTracker();
+
+    HeadlessFrameExecutor(HeadlessCommandLog log) {
+        this.log = log;
+        registerBuiltInPacketHandlers();
+    }
+
+    public BackendPacketHandlerRegistry<HeadlessPacketHandler> packetHandlerRegistry() {
+        return packetHandlers;
+    }
+
+    public HeadlessCommandLog commandLog() {
+        return log;
+    }
+
+    @Override
+    public <C extends RenderContext> BackendStageScope beginExecutionScope(
+            GraphicsPipeline<C> pipeline,
+            RenderPacketQueue<C> queue,
+            List<KeyId> stageIds,
+            SnapshotScope snapshotScope,
+            C context) {
+        log.record(HeadlessCommand.BEGIN_SCOPE, stageIds != null ? stageIds.size() : 0L, 0L, 0L);
+        hazardTracker.reset();
+        return () -> log.record(HeadlessCommand.END_SCOPE);
+    }
+
+    @Override
+    public <C extends RenderContext> void executePacketGroup(
+            GraphicsPipeline<C> pipeline,
+            ExecutionKey stateKey,
+            List<RenderPacket> packets,
+            RenderStateManager manager,
+            C context) {
+        if (packets == null || packets.isEmpty()) {
+            return;
+        }
+        if (stateKey.renderParameter() != null && stateKey.renderParameter().isInvalid()) {
+            return;
+        }
+        manager.accept(stateKey, context);
+        for (RenderPacket packet : packets) {
+            executePacket(pipeline, packet, context);
+        }
+    }
+
+    @Override
+    public <C extends RenderContext> void executeImmediate(
+            GraphicsPipeline<C> pipeline,
+            RenderPacket packet,
+            RenderStateManager manager,
+            C context) {
+        if (packet == null) {
+            return;
+        }
+        if (packet.stateKey().renderParameter() != null && packet.stateKey().renderParameter().isInvalid()) {
+            return;
+        }
+        manager.accept(packet.stateKey(), context);
+        executePacket(pipeline, packet, context);
+    }
+
+    private void executePacket(GraphicsPipeline<? extends RenderContext> pipeline, RenderPacket packet, RenderContext context) {
+        ResourceHazardTracker.Barrier hazardBarrier = hazardTracker.beforePacket(packet);
+        if (!hazardBarrier.isEmpty()) {
+            log.record(HeadlessCommand.HAZARD_BARRIER, hazardBarrier.srcStages(), hazardBarrier.dstStages(), hazardBarrier.imageHazard() ? 1L : 0L);
+        }
+        if (packet.bindingPlan() != packet.stateKey().bindingPlan()) {
+            applyResourceBinding(packet.bindingPlan(), context);
+        }
+        HeadlessPacketHandler handler = packetHandlers.handlerFor(packet);
+        if (handler != null) {
+            handler.execute(pipeline, packet, context, this);
+        } else {
+            // Custom packet types without a headless handler are counted, not rejected
+            log.record(HeadlessCommand.CUSTOM, packet.packetType().id().hashCode(), 0L, 0L);
+        }
+        context.set(RenderContext.RENDERED, true);
+    }
+
+    private void registerBuiltInPacketHandlers() {
+        packetHandlers.register(RenderPacketType.DRAW, (pipeline, packet, context, executor) ->
+                executor.executeDrawPacket(pipeline, (DrawPacket) packet));
+        packetHandlers.register(RenderPacketType.DISPATCH, (pipeline, packet, context, executor) ->
+                executor.executeDispatchPacket((DispatchPacket) packet, context));
+        packetHandlers.register(RenderPacketType.CLEAR, (pipeline, packet, context, executor) -> {
+            ClearPacket clear = (ClearPacket) packet;
+            executor.log.record(
+                    HeadlessCommand.CLEAR,
+                    hash(clear.renderTargetId()),
+                    clear.clearColor() ? 1L : 0L,
+                    clear.clearDepth() ? 1L : 0L);
+        });
+        packetHandlers.register(RenderPacketType.COPY_TEXTURE, (pipeline, packet, context, executor) -> {
+            CopyTexturePacket copy = (CopyTexturePacket) packet;
+            executor.log.record(
+                    HeadlessCommand.COPY_TEXTURE,
+                    hash(copy.sourceTextureId()),
+                    hash(copy.destinationTextureId()),
+                    (long) copy.width() * copy.height());
+        });
+        packetHandlers.register(RenderPacketType.GENERATE_MIPMAP, (pipeline, packet, context, executor) ->
+                executor.log.record(HeadlessCommand.GENERATE_MIPMAP, hash(((GenerateMipmapPacket) packet).textureId()), 0L, 0L));
+    }
+
+    private void executeDrawPacket(GraphicsPipeline<? extends RenderContext> pipeline, DrawPacket packet) {
+        DrawPlan drawPlan = packet.drawPlan();
+        if (drawPlan == null) {
+            return;
+        }
+        if (drawPlan.isIndirect()) {
+            log.record(HeadlessCommand.DRAW_INDIRECT, drawPlan.drawCount(), drawPlan.indirectOffset(), drawPlan.indexed() ? 1L : 0L);
+        } else {
+            PackedDrawCommands commands = drawPlan.directCommands();
+            for (int i = 0; i < commands.size(); i++) {
+                if (commands.indexed(i)) {
+                    log.record(HeadlessCommand.DRAW_INDEXED,
+                            commands.elementCount(i), commands.instanceCount(i), commands.baseVertex(i), commands.firstIndex(i));
+                } else {
+                    log.record(HeadlessCommand.DRAW, commands.elementCount(i), commands.instanceCount(i), commands.firstVertex(i));
+                }
+            }
+        }
+        RenderTraceRecorder renderTraceRecorder = pipeline.renderTraceRecorder();
+        if (renderTraceRecorder != null && packet.completionSubjects() != null) {
+            for (GraphicsUniformSubject subject : packet.completionSubjects()) {
+                if (subject != null) {
+                    renderTraceRecorder.recordBackendExecuted(packet.stageId(), subject);
+                }
+            }
+        }
+    }
+
+    private void executeDispatchPacket(DispatchPacket packet, RenderContext context) {
+        ComputeDispatchContext dispatchContext = new RecordingDispatchContext(context);
+        if (packet.dispatchCommand() != null) {
+            packet.dispatchCommand().dispatch(dispatchContext);
+        } else if (packet.computeInfo() != null) {
+            packet.computeInfo().dispatch(dispatchContext);
+        } else {
+            dispatchContext.dispatch(packet.workGroupsX(), packet.workGroupsY(), packet.workGroupsZ());
+        }
+    }
+
+    private void applyResourceBinding(ResourceBindingPlan bindingPlan, RenderContext context) {
+        if (bindingPlan == null) {
+            return;
+        }
+        ResourceBinding binding = bindingPlan.binding();
+        if (binding != null) {
+            binding.bind(context);
+        }
+    }
+
+    private static long hash(KeyId id) {
+        return id != null ? id.hashCode() : 0L;
+    }
+
+    /**
+     * Dispatch context that lets packet-provided dispatch callbacks run their
+     * CPU side while the device calls are logged.
+     */
+    private final class RecordingDispatchContext implements ComputeDispatchContext {
+        private final RenderContext renderContext;
+        private UniformHookGroup uniformHookGroup;
+
+        private RecordingDispatchContext(RenderContext renderContext) {
+            this.renderContext = renderContext;
+        }
+
+        @Override
+        public RenderContext renderContext() {
+            return renderContext;
+        }
+
+        @Override
+        public ShaderProgramHandle programHandle() {
+            return renderContext != null ? renderContext.shaderProgramHandle() : null;
+        }
+
+        @Override
+        public UniformHookGroup uniformHookGroup() {
+            if (uniformHookGroup == null) {
+                ShaderProgramHandle programHandle = programHandle();
+                uniformHookGroup = programHandle != null ? programHandle.uniformHooks() : new UniformHookGroup();
+            }
+            return uniformHookGroup;
+        }
+
+        @Override
+        public void dispatch(int numGroupsX, int numGroupsY, int numGroupsZ) {
+            log.record(HeadlessCommand.DISPATCH, numGroupsX, numGroupsY, numGroupsZ);
+        }
+
+        @Override
+        public void memoryBarrier(int barriers) {
+            log.record(HeadlessCommand.BARRIER, 0L, barriers, 0L);
+        }
+
+        @Override
+        public void shaderStorageBarrier() {
+            log.record(HeadlessCommand.BARRIER);
+        }
+
+        @Override
+        public void allBarriers() {
+            log.record(HeadlessCommand.BARRIER, 1L, 0L, 0L);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package rogo.sketch.backend.headless;
+
+import org.lwjgl.system.MemoryUtil;
+import rogo.sketch.core.backend.BackendMutableGeometryBinding;
+import rogo.sketch.core.data.IndexType;
+import rogo.sketch.core.data.MeshIndexMode;
+import rogo.sketch.core.data.PrimitiveType;
+import rogo.sketch.core.data.format.ComponentSpec;
+import rogo.sketch.core.data.layout.StructLayout;
+import rogo.sketch.core.memory.MemoryDomain;
+import rogo.sketch.core.util.KeyId;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Geometry binding backed by one {@link HeadlessDeviceMemory} per owned vertex
+ * component plus an optional index allocation. Uploads are copies into that
+ * memory, logged as {@link HeadlessCommand#UPLOAD}, so geometry traffic shows
+ * up in {@link HeadlessCommandStats#bytesUploaded()}. Components shared from a
+ * source binding are referenced, not copied or owned.
+ */
+final class HeadlessGeometryBinding implements BackendMutableGeometryBinding {
+    private final HeadlessCommandLog log;
+    private final LongSupplier handles;
+    private final PrimitiveType primitiveType;
+    private final MeshIndexMode indexMode;
+    private final Map<KeyId, Component> components = new LinkedHashMap<>();
+    private HeadlessDeviceMemory indexMemory;
+    private int indexCount;
+    private boolean sharedIndices;
+    private boolean disposed;
+
+    HeadlessGeometryBinding(HeadlessCommandLog log, LongSupplier handles, PrimitiveType primitiveType, MeshIndexMode indexMode) {
+        this.log = log;
+        this.handles = handles;
+        this.primitiveType = primitiveType;
+        this.indexMode = indexMode != null ? indexMode : MeshIndexMode.NONE;
+        if (this.indexMode.usesIndexBuffer()) {
+            this.indexMemory = newIndexMemory(1L);
+        }
+    }
+
+    void attachComponent(ComponentSpec spec) {
+        components.put(spec.getId(), new Component(spec, new HeadlessDeviceMemory(
+                handles.getAsLong(),
+                log,
+                MemoryDomain.GPU_PERSISTENT_MAPPED,
+                "headless-geometry/" + spec.getId(),
+                1L), true));
+    }
+
+    void shareComponentsFrom(HeadlessGeometryBinding source) {
+        for (Component component : source.components.values()) {
+            components.put(component.spec().getId(), new Component(component.spec(), component.memory(), false));
+        }
+        if (source.indexMemory != null && source.indexCount > 0) {
+            releaseIndexMemory();
+            indexMemory = source.indexMemory;
+            indexCount = source.indexCount;
+            sharedIndices = true;
+        }
+    }
+
+    boolean hasComponent(KeyId componentId) {
+        return components.containsKey(componentId);
+    }
+
+    /**
+     * Device handle of the component at binding point 0, or 0 when none is attached.
+     */
+    long vertexHandle() {
+        for (Component component : components.values()) {
+            if (component.spec().getBindingPoint() == 0) {
+                return component.memory().handle();
+            }
+        }
+        return 0L;
+    }
+
+    long indexHandle() {
+        return indexMemory != null ? indexMemory.handle() : 0L;
+    }
+
+    HeadlessDeviceMemory componentMemory(KeyId componentId) {
+        Component component = components.get(componentId);
+        return component != null ? component.memory() : null;
+    }
+
+    HeadlessDeviceMemory indexMemory() {
+        return indexMemory;
+    }
+
+    int indexCount() {
+        return indexCount;
+    }
+
+    @Override
+    public void uploadVertexComponent(KeyId componentId, byte[] data) {
+        checkDisposed();
+        if (data == null || data.length == 0) {
+            return;
+        }
+        Component component = components.get(componentId);
+        if (component == null || !component.owned()) {
+            return;
+        }
+        ByteBuffer staging = MemoryUtil.memAlloc(data.length);
+        try {
+            staging.put(data).flip();
+            component.memory().upload(MemoryUtil.memAddress(staging), 0L, data.length);
+        } finally {
+            MemoryUtil.memFree(staging);
+        }
+    }
+
+    @Override
+    public void uploadIndices(int[] indices) {
+        checkDisposed();
+        if (indices == null || indices.length == 0 || !indexMode.usesIndexBuffer()) {
+            return;
+        }
+        if (indexMemory == null || sharedIndices) {
+            indexMemory = newIndexMemory((long) indices.length * Integer.BYTES);
+            sharedIndices = false;
+        }
+        ByteBuffer staging = MemoryUtil.memAlloc(indices.length * Integer.BYTES);
+        try {
+            staging.asIntBuffer().put(indices);
+            indexMemory.upload(MemoryUtil.memAddress(staging), 0L, staging.remaining());
+        } finally {
+            MemoryUtil.memFree(staging);
+        }
+        indexCount = indices.length;
+    }
+
+    /**
+     * Whether this binding has index storage, so uploads may write indices.
+     */
+    @Override
+    public boolean hasIndices() {
+        return indexMemory != null;
+    }
+
+    @Override
+    public IndexType indexType() {
+        return IndexType.U_INT;
+    }
+
+    @Override
+    public PrimitiveType primitiveType() {
+        return primitiveType;
+    }
+
+    @Override
+    public StructLayout vertexFormat() {
+        for (Component component : components.values()) {
+            if (component.spec().getBindingPoint() == 0) {
+                return component.spec().getFormat();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public long residentBytes() {
+        long bytes = 0L;
+        for (Component component : components.values()) {
+            if (component.owned()) {
+                bytes += component.memory().sizeBytes();
+            }
+        }
+        if (indexMemory != null && !sharedIndices) {
+            bytes += indexMemory.sizeBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        for (Component component : components.values()) {
+            if (component.owned()) {
+                component.memory().free();
+            }
+        }
+        components.clear();
+        releaseIndexMemory();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    private HeadlessDeviceMemory newIndexMemory(long sizeBytes) {
+        return new HeadlessDeviceMemory(
+                handles.getAsLong(),
+                log,
+                MemoryDomain.GPU_PERSISTENT_MAPPED,
+                "headless-geometry/indices",
+                sizeBytes);
+    }
+
+    private void releaseIndexMemory() {
+        if (indexMemory != null && !sharedIndices) {
+            indexMemory.free();
+        }
+        indexMemory = null;
+        indexCount = 0;
+        sharedIndices = false;
+    }
+
+    private void checkDisposed() {
+        if (disposed) {
+            throw new IllegalStateException("Geometry binding has been disposed");
+        }
+    }
+
+    private record Component(ComponentSpec spec, HeadlessDeviceMemory memory, boolean owned) {
+    }
+}
@@ -0,0 +1,266 @@
+package rogo.sketch.backend.headless;
+
+import rogo.sketch.core.api.model.BakedTypeMesh;
+import rogo.sketch.core.api.model.SharedGeometrySourceSnapshot;
+import rogo.sketch.core.backend.BackendGeometryBinding;
+import rogo.sketch.core.backend.BackendIndirectBuffer;
+import rogo.sketch.core.data.MeshIndexMode;
+import rogo.sketch.core.data.format.ComponentSpec;
+import rogo.sketch.core.data.format.VertexBufferKey;
+import rogo.sketch.core.packet.GeometryHandleKey;
+import rogo.sketch.core.pipeline.GraphicsPipeline;
+import rogo.sketch.core.pipeline.PipelineType;
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.data.FrameDataDomain;
+import rogo.sketch.core.pipeline.data.GeometryFrameData;
+import rogo.sketch.core.pipeline.data.GeometryFrameData.BufferSlice;
+import rogo.sketch.core.pipeline.data.GeometryFrameData.IndirectSlice;
+import rogo.sketch.core.pipeline.flow.RenderFlowType;
+import rogo.sketch.core.pipeline.flow.RenderPostProcessors;
+import rogo.sketch.core.pipeline.flow.impl.RasterizationPostProcessor;
+import rogo.sketch.core.pipeline.kernel.FrameExecutionPlan;
+import rogo.sketch.core.pipeline.parmeter.RasterizationParameter;
+import rogo.sketch.core.vertex.MeshResidencyPool;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Headless counterpart of the OpenGL geometry materializer: the same
+ * residency, install-version and frame-data bookkeeping, with
+ * {@link HeadlessGeometryBinding}s in place of VBOs, so geometry uploads are
+ * real copies that show up in the command log.
+ */
+final class HeadlessGeometryMaterializer {
+    private final HeadlessCommandLog log;
+    private final LongSupplier handles;
+    private final Map<Long, HeadlessGeometryBinding> sharedSourceBindings = new ConcurrentHashMap<>();
+    private final Map<InstallBindingKey, Integer> installedGeometryVersions = new ConcurrentHashMap<>();
+
+    HeadlessGeometryMaterializer(HeadlessCommandLog log, LongSupplier handles) {
+        this.log = log;
+        this.handles = handles;
+    }
+
+    <C extends RenderContext> void materializePendingGeometryResources(GraphicsPipeline<C> pipeline) {
+        if (pipeline == null) {
+            return;
+        }
+        for (PipelineType pipelineType : pipeline.getPipelineTypes()) {
+            MeshResidencyPool residencyPool = pipeline.getMeshResidencyPool(pipelineType);
+            residencyPool.beginFrame();
+            for (MeshResidencyPool.PendingResidencyRequest request : residencyPool.drainPendingMaterializationRequests()) {
+                if (request == null || request.vertexBufferKey() == null || residencyPool.isResident(request.vertexBufferKey())) {
+                    continue;
+                }
+                HeadlessGeometryBinding sourceBinding = request.sourceProvider() instanceof HeadlessGeometryBinding headlessGeometryBinding
+                        ? headlessGeometryBinding
+                        : null;
+                HeadlessGeometryBinding geometryBinding = materialize(request.vertexBufferKey(), sourceBinding);
+                if (geometryBinding != null) {
+                    residencyPool.registerInstalledBinding(request.vertexBufferKey(), geometryBinding);
+                }
+            }
+        }
+    }
+
+    <C extends RenderContext> void installImmediateGeometryBindings(
+            GraphicsPipeline<C> pipeline,
+            PipelineType pipelineType,
+            RenderPostProcessors postProcessors) {
+        if (pipeline == null || postProcessors == null) {
+            return;
+        }
+        RasterizationPostProcessor rasterizationPostProcessor = postProcessors.get(RenderFlowType.RASTERIZATION);
+        if (rasterizationPostProcessor == null || rasterizationPostProcessor.geometryUploadPlans().isEmpty()) {
+            return;
+        }
+        GeometryFrameData geometryFrameData = pipeline.getPipelineDataStore(pipelineType, FrameDataDomain.SYNC_READ)
+                .get(GeometryFrameData.KEY);
+        if (geometryFrameData == null) {
+            return;
+        }
+
+        for (FrameExecutionPlan.GeometryUploadPlan geometryUploadPlan : rasterizationPostProcessor.geometryUploadPlans()) {
+            if (geometryUploadPlan == null || geometryUploadPlan.geometryHandle() == null) {
+                continue;
+            }
+            try {
+                HeadlessGeometryBinding geometryBinding = resolveOrCreateBinding(
+                        pipeline.getMeshResidencyPool(pipelineType),
+                        geometryUploadPlan);
+                if (geometryBinding == null) {
+                    continue;
+                }
+                geometryUploadPlan.uploadTo(geometryBinding);
+                geometryUploadPlan.uploadIndirect();
+                register(geometryFrameData, geometryUploadPlan, geometryBinding);
+            } finally {
+                geometryUploadPlan.releaseBuilderSnapshots();
+            }
+        }
+    }
+
+    /**
+     * Install the plan's geometry for every raster consumer, uploading only
+     * bindings whose install version changed or that were (re)materialized.
+     */
+    <C extends RenderContext> void installExecutionGeometryBindings(
+            GraphicsPipeline<C> pipeline,
+            FrameExecutionPlan executionPlan,
+            boolean uploadGeometryData) {
+        if (pipeline == null || executionPlan == null || executionPlan.geometryUploadPlans().isEmpty()) {
+            return;
+        }
+
+        Map<GeometryHandleKey, Set<PipelineType>> consumersByHandle = executionPlan.geometryConsumers();
+        for (FrameExecutionPlan.GeometryUploadPlan geometryUploadPlan : executionPlan.geometryUploadPlans()) {
+            if (geometryUploadPlan == null || geometryUploadPlan.geometryHandle() == null) {
+                continue;
+            }
+            Set<PipelineType> consumers = consumersByHandle.get(geometryUploadPlan.geometryHandle());
+            if (consumers == null || consumers.isEmpty()) {
+                geometryUploadPlan.releaseBuilderSnapshots();
+                continue;
+            }
+
+            boolean indirectUploaded = false;
+            try {
+                for (PipelineType pipelineType : consumers) {
+                    if (pipelineType != PipelineType.RASTERIZATION && pipelineType != PipelineType.TRANSLUCENT) {
+                        continue;
+                    }
+                    MeshResidencyPool residencyPool = pipeline.getMeshResidencyPool(pipelineType);
+                    boolean resident = residencyPool.isResident(geometryUploadPlan.geometryHandle().vertexBufferKey());
+                    HeadlessGeometryBinding geometryBinding = resolveOrCreateBinding(residencyPool, geometryUploadPlan);
+                    if (geometryBinding == null) {
+                        continue;
+                    }
+                    InstallBindingKey installBindingKey = new InstallBindingKey(pipelineType, geometryUploadPlan.geometryHandle());
+                    Integer installedVersion = installedGeometryVersions.get(installBindingKey);
+                    // A binding re-materialized after eviction starts empty regardless of the recorded version
+                    boolean versionChanged = !resident
+                            || installedVersion == null
+                            || installedVersion != geometryUploadPlan.installVersion();
+                    if (uploadGeometryData && versionChanged) {
+                        geometryUploadPlan.uploadTo(geometryBinding);
+                        installedGeometryVersions.put(installBindingKey, geometryUploadPlan.installVersion());
+                        if (!indirectUploaded) {
+                            geometryUploadPlan.uploadIndirect();
+                            indirectUploaded = true;
+                        }
+                    }
+                    GeometryFrameData geometryFrameData = pipeline
+                            .getPipelineDataStore(pipelineType, FrameDataDomain.ASYNC_BUILD)
+                            .get(GeometryFrameData.KEY);
+                    if (geometryFrameData != null) {
+                        register(geometryFrameData, geometryUploadPlan, geometryBinding);
+                    }
+                }
+            } finally {
+                geometryUploadPlan.releaseBuilderSnapshots();
+            }
+        }
+    }
+
+    void shutdown() {
+        sharedSourceBindings.values().forEach(HeadlessGeometryBinding::dispose);
+        sharedSourceBindings.clear();
+        installedGeometryVersions.clear();
+    }
+
+    private HeadlessGeometryBinding materialize(VertexBufferKey key, HeadlessGeometryBinding sourceProvider) {
+        if (key == null) {
+            return null;
+        }
+        RasterizationParameter parameter = key.renderParameter();
+        MeshIndexMode indexMode = parameter.indexMode() != null ? parameter.indexMode() : MeshIndexMode.NONE;
+        HeadlessGeometryBinding geometryBinding = new HeadlessGeometryBinding(log, handles, parameter.primitiveType(), indexMode);
+        if (key.sourceResourceID() > 0L && sourceProvider != null) {
+            geometryBinding.shareComponentsFrom(sourceProvider);
+        }
+        for (ComponentSpec spec : key.components()) {
+            if (!geometryBinding.hasComponent(spec.getId())) {
+                geometryBinding.attachComponent(spec);
+            }
+        }
+        return geometryBinding;
+    }
+
+    private HeadlessGeometryBinding resolveOrCreateBinding(
+            MeshResidencyPool residencyPool,
+            FrameExecutionPlan.GeometryUploadPlan geometryUploadPlan) {
+        if (residencyPool == null || geometryUploadPlan == null || geometryUploadPlan.geometryHandle() == null) {
+            return null;
+        }
+        BackendGeometryBinding existing = residencyPool.getIfPresent(geometryUploadPlan.geometryHandle().vertexBufferKey());
+        if (existing instanceof HeadlessGeometryBinding headlessGeometryBinding) {
+            return headlessGeometryBinding;
+        }
+        HeadlessGeometryBinding sourceBinding = geometryUploadPlan.sourceGeometryBinding() instanceof HeadlessGeometryBinding headlessGeometryBinding
+                ? headlessGeometryBinding
+                : resolveOrCreateSharedSourceBinding(geometryUploadPlan.optionalSharedSourceSnapshot());
+        HeadlessGeometryBinding geometryBinding = materialize(
+                geometryUploadPlan.geometryHandle().vertexBufferKey(),
+                sourceBinding);
+        if (geometryBinding != null) {
+            residencyPool.registerInstalledBinding(geometryUploadPlan.geometryHandle().vertexBufferKey(), geometryBinding);
+        }
+        return geometryBinding;
+    }
+
+    private HeadlessGeometryBinding resolveOrCreateSharedSourceBinding(SharedGeometrySourceSnapshot snapshot) {
+        if (snapshot == null || snapshot.sharedSourceRef() <= 0L || !snapshot.hasVertexData()) {
+            return null;
+        }
+        return sharedSourceBindings.computeIfAbsent(snapshot.sharedSourceRef(), ignored -> createSharedSourceBinding(snapshot));
+    }
+
+    private HeadlessGeometryBinding createSharedSourceBinding(SharedGeometrySourceSnapshot snapshot) {
+        HeadlessGeometryBinding geometryBinding = new HeadlessGeometryBinding(
+                log,
+                handles,
+                snapshot.primitiveType(),
+                snapshot.hasIndexData() ? MeshIndexMode.EXPLICIT_LOCAL : MeshIndexMode.NONE);
+        geometryBinding.attachComponent(ComponentSpec.immutable(BakedTypeMesh.BAKED_MESH, 0, snapshot.format(), false));
+        geometryBinding.uploadVertexComponent(BakedTypeMesh.BAKED_MESH, snapshot.vertexData());
+        if (snapshot.hasIndexData()) {
+            geometryBinding.uploadIndices(decodeIndices(snapshot.indexData()));
+        }
+        return geometryBinding;
+    }
+
+    private static void register(
+            GeometryFrameData geometryFrameData,
+            FrameExecutionPlan.GeometryUploadPlan geometryUploadPlan,
+            HeadlessGeometryBinding geometryBinding) {
+        geometryFrameData.registerNeutral(
+                geometryUploadPlan.geometryHandle(),
+                new BufferSlice(geometryBinding.vertexHandle(), 0L, 0L, 0),
+                geometryBinding.hasIndices()
+                        ? new BufferSlice(geometryBinding.indexHandle(), 0L, 0L, 0)
+                        : null,
+                geometryUploadPlan.indirectBuffer() instanceof BackendIndirectBuffer indirectBuffer
+                        ? new IndirectSlice(0L, 0L, indirectBuffer.commandCount(), (int) indirectBuffer.strideBytes())
+                        : null,
+                geometryUploadPlan.sharedSourceRef() > 0L
+                        ? GeometryFrameData.SourceKind.SHARED_SOURCE
+                        : GeometryFrameData.SourceKind.BACKEND_NATIVE,
+                geometryBinding,
+                geometryUploadPlan.indirectBuffer());
+    }
+
+    private static int[] decodeIndices(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        int[] indices = new int[data.length / Integer.BYTES];
+        buffer.asIntBuffer().get(indices);
+        return indices;
+    }
+
+    private record InstallBindingKey(PipelineType pipelineType, GeometryHandleKey geometryHandle) {
+    }
+}
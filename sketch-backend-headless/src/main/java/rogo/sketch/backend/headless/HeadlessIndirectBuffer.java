@@ -0,0 +1,198 @@
+package rogo.sketch.backend.headless;
+
+import org.lwjgl.system.MemoryUtil;
+import rogo.sketch.core.backend.BackendIndirectBuffer;
+import rogo.sketch.core.memory.MemoryDomain;
+import rogo.sketch.core.memory.MemoryLease;
+import rogo.sketch.core.memory.UnifiedMemoryFabric;
+import rogo.sketch.core.util.KeyId;
+
+/**
+ * Indirect command buffer with host-side command writing and a dirty range
+ * that {@link #upload()} copies into device memory.
+ */
+final class HeadlessIndirectBuffer implements BackendIndirectBuffer, HeadlessDeviceResource {
+    private static final int COMMAND_SIZE = (int) COMMAND_STRIDE_BYTES;
+
+    private final HeadlessCommandLog log;
+    private final HeadlessDeviceMemory device;
+    private final MemoryLease hostLease;
+    private long hostAddress;
+    private long capacityBytes;
+    private int commandCount;
+    private long position;
+    private long dirtyStart = Long.MAX_VALUE;
+    private long dirtyEnd;
+    private boolean disposed;
+
+    HeadlessIndirectBuffer(long handle, HeadlessCommandLog log, long commandCapacity) {
+        this.log = log;
+        this.capacityBytes = Math.max(1L, commandCapacity) * COMMAND_SIZE;
+        this.hostAddress = MemoryUtil.nmemCalloc(1L, capacityBytes);
+        this.hostLease = UnifiedMemoryFabric.get()
+                .openLease(MemoryDomain.CPU_INDIRECT_STAGING, "headless-indirect-buffer/cpu-staging")
+                .bindSuppliers(this::trackedReservedBytes, this::trackedLiveBytes);
+        this.device = new HeadlessDeviceMemory(
+                handle,
+                log,
+                MemoryDomain.GPU_INDIRECT_BUFFER,
+                "headless-indirect-buffer/device",
+                capacityBytes);
+    }
+
+    @Override
+    public long strideBytes() {
+        return COMMAND_SIZE;
+    }
+
+    @Override
+    public int commandCount() {
+        return commandCount;
+    }
+
+    @Override
+    public long writePositionBytes() {
+        return position;
+    }
+
+    @Override
+    public long memoryAddress() {
+        return hostAddress;
+    }
+
+    @Override
+    public void ensureCommandCapacity(int requiredCommandCount) {
+        long requiredBytes = (long) requiredCommandCount * COMMAND_SIZE;
+        if (requiredBytes <= capacityBytes) {
+            return;
+        }
+        long resized = MemoryUtil.nmemRealloc(hostAddress, requiredBytes);
+        if (resized == MemoryUtil.NULL) {
+            throw new OutOfMemoryError("Headless indirect buffer growth failed: " + requiredBytes + " bytes");
+        }
+        MemoryUtil.memSet(resized + capacityBytes, 0, requiredBytes - capacityBytes);
+        hostAddress = resized;
+        capacityBytes = requiredBytes;
+        device.ensureSize(requiredBytes);
+    }
+
+    @Override
+    public void uploadRange(long byteOffset, long byteCount) {
+        if (byteCount <= 0L) {
+            return;
+        }
+        markDirtyRange(byteOffset, byteOffset + byteCount);
+    }
+
+    @Override
+    public void setCommandCount(int commandCount) {
+        this.commandCount = Math.max(commandCount, 0);
+    }
+
+    @Override
+    public void setWritePositionBytes(long byteCount) {
+        this.position = Math.max(byteCount, 0L);
+    }
+
+    @Override
+    public void clear() {
+        position = 0L;
+        commandCount = 0;
+        clearDirtyRange();
+    }
+
+    @Override
+    public void bind() {
+        log.record(HeadlessCommand.BIND_INDIRECT, device.handle(), 0L, 0L);
+    }
+
+    @Override
+    public void bind(KeyId resourceType, int binding) {
+        log.record(HeadlessCommand.BIND_RESOURCE, device.handle(), resourceType != null ? resourceType.hashCode() : 0L, binding);
+    }
+
+    @Override
+    public void unbind() {
+    }
+
+    @Override
+    public void upload() {
+        long offset = dirtyStart != Long.MAX_VALUE ? dirtyStart : 0L;
+        long size = dirtyStart != Long.MAX_VALUE ? Math.max(0L, dirtyEnd - dirtyStart) : position;
+        size = Math.min(size, capacityBytes - offset);
+        if (size > 0L) {
+            device.upload(hostAddress + offset, offset, size);
+        }
+        clearDirtyRange();
+    }
+
+    @Override
+    public void addDrawArraysCommand(int count, int instanceCount, int first, int baseInstance) {
+        long offset = reserveCommand();
+        MemoryUtil.memPutInt(hostAddress + offset, count);
+        MemoryUtil.memPutInt(hostAddress + offset + 4, instanceCount);
+        MemoryUtil.memPutInt(hostAddress + offset + 8, first);
+        MemoryUtil.memPutInt(hostAddress + offset + 12, baseInstance);
+    }
+
+    @Override
+    public void addDrawElementsCommand(int count, int instanceCount, int firstIndex, int baseVertex, int baseInstance) {
+        long offset = reserveCommand();
+        MemoryUtil.memPutInt(hostAddress + offset, count);
+        MemoryUtil.memPutInt(hostAddress + offset + 4, instanceCount);
+        MemoryUtil.memPutInt(hostAddress + offset + 8, firstIndex);
+        MemoryUtil.memPutInt(hostAddress + offset + 12, baseVertex);
+        MemoryUtil.memPutInt(hostAddress + offset + 16, baseInstance);
+    }
+
+    @Override
+    public HeadlessDeviceMemory device() {
+        return device;
+    }
+
+    private long reserveCommand() {
+        if (position + COMMAND_SIZE > capacityBytes) {
+            ensureCommandCapacity((int) Math.max(capacityBytes / COMMAND_SIZE * 2L, 1L));
+        }
+        long offset = position;
+        position += COMMAND_SIZE;
+        commandCount++;
+        markDirtyRange(offset, position);
+        return offset;
+    }
+
+    private void markDirtyRange(long start, long end) {
+        dirtyStart = Math.min(dirtyStart, Math.max(0L, start));
+        dirtyEnd = Math.max(dirtyEnd, Math.max(start, end));
+    }
+
+    private void clearDirtyRange() {
+        dirtyStart = Long.MAX_VALUE;
+        dirtyEnd = 0L;
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        hostLease.close();
+        MemoryUtil.nmemFree(hostAddress);
+        hostAddress = MemoryUtil.NULL;
+        device.free();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    private long trackedReservedBytes() {
+        return disposed ? 0L : capacityBytes;
+    }
+
+    private long trackedLiveBytes() {
+        return disposed ? 0L : position;
+    }
+}
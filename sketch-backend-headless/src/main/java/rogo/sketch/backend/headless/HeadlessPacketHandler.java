@@ -0,0 +1,14 @@
+package rogo.sketch.backend.headless;
+
+import rogo.sketch.core.packet.RenderPacket;
+import rogo.sketch.core.pipeline.GraphicsPipeline;
+import rogo.sketch.core.pipeline.RenderContext;
+
+@FunctionalInterface
+public interface HeadlessPacketHandler {
+    void execute(
+            GraphicsPipeline<? extends RenderContext> pipeline,
+            RenderPacket packet,
+            RenderContext context,
+            HeadlessFrameExecutor executor);
+}
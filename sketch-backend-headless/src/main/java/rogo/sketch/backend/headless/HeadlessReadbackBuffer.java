@@ -0,0 +1,110 @@
+package rogo.sketch.backend.headless;
+
+import org.lwjgl.system.MemoryUtil;
+import rogo.sketch.core.backend.BackendReadbackBuffer;
+import rogo.sketch.core.memory.MemoryDomain;
+import rogo.sketch.core.util.KeyId;
+
+/**
+ * Host-readable buffer; device writes land in it through
+ * {@link HeadlessCommandEncoder#copyBuffer} so readback consumers see the
+ * copied bytes.
+ */
+final class HeadlessReadbackBuffer implements BackendReadbackBuffer, HeadlessDeviceResource {
+    private final HeadlessCommandLog log;
+    private final HeadlessDeviceMemory device;
+    private final long stride;
+    private long dataCount;
+    private boolean disposed;
+
+    HeadlessReadbackBuffer(long handle, HeadlessCommandLog log, long dataCount, long stride) {
+        this.log = log;
+        this.stride = Math.max(1L, stride);
+        this.dataCount = Math.max(1L, dataCount);
+        this.device = new HeadlessDeviceMemory(
+                handle,
+                log,
+                MemoryDomain.GPU_PERSISTENT_MAPPED,
+                "headless-readback-buffer/" + handle,
+                this.dataCount * this.stride);
+    }
+
+    @Override
+    public void ensureCapacity(int requiredCount, boolean force) {
+        if (requiredCount <= dataCount && !force) {
+            return;
+        }
+        dataCount = Math.max(dataCount, requiredCount);
+        device.ensureSize(dataCount * stride);
+    }
+
+    @Override
+    public int getInt(long index) {
+        long offset = index * Integer.BYTES;
+        return offset >= 0L && offset + Integer.BYTES <= device.sizeBytes()
+                ? MemoryUtil.memGetInt(device.address() + offset)
+                : 0;
+    }
+
+    @Override
+    public int getUnsignedByte(long index) {
+        return getByte(index) & 0xFF;
+    }
+
+    @Override
+    public byte getByte(long index) {
+        return index >= 0L && index < device.sizeBytes() ? MemoryUtil.memGetByte(device.address() + index) : 0;
+    }
+
+    @Override
+    public int getHandle() {
+        return (int) device.handle();
+    }
+
+    @Override
+    public long getDataCount() {
+        return dataCount;
+    }
+
+    @Override
+    public long getCapacity() {
+        return device.sizeBytes();
+    }
+
+    @Override
+    public long getStride() {
+        return stride;
+    }
+
+    @Override
+    public long getMemoryAddress() {
+        return device.address();
+    }
+
+    @Override
+    public HeadlessDeviceMemory device() {
+        return device;
+    }
+
+    @Override
+    public void bind(KeyId resourceType, int binding) {
+        if (disposed) {
+            return;
+        }
+        log.record(HeadlessCommand.BIND_RESOURCE, device.handle(), resourceType != null ? resourceType.hashCode() : 0L, binding);
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        device.free();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+}
@@ -0,0 +1,78 @@
+package rogo.sketch.backend.headless;
+
+import rogo.sketch.core.backend.BackendCapabilities;
+import rogo.sketch.core.backend.BackendFrameExecutor;
+import rogo.sketch.core.backend.BackendResourceRegistry;
+import rogo.sketch.core.backend.BackendShaderProgramCache;
+import rogo.sketch.core.backend.BackendStateApplier;
+import rogo.sketch.core.backend.CommandEncoderFactory;
+import rogo.sketch.core.backend.RenderDevice;
+import rogo.sketch.core.pipeline.GraphicsPipeline;
+import rogo.sketch.core.pipeline.PipelineType;
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.flow.RenderPostProcessors;
+
+final class HeadlessRenderDevice implements RenderDevice {
+    private final HeadlessFrameExecutor frameExecutor;
+    private final HeadlessResourceAllocator resourceAllocator;
+    private final HeadlessStateApplier stateApplier;
+    private final HeadlessShaderProgramCache shaderProgramCache = new HeadlessShaderProgramCache();
+    private final CommandEncoderFactory commandEncoderFactory;
+
+    HeadlessRenderDevice(HeadlessCommandLog log, HeadlessResourceAllocator resourceAllocator) {
+        this.frameExecutor = new HeadlessFrameExecutor(log);
+        this.resourceAllocator = resourceAllocator;
+        this.stateApplier = new HeadlessStateApplier(log, resourceAllocator);
+        HeadlessCommandEncoder encoder = new HeadlessCommandEncoder(log);
+        this.commandEncoderFactory = label -> encoder;
+    }
+
+    @Override
+    public BackendCapabilities capabilities() {
+        return BackendCapabilities.NONE;
+    }
+
+    @Override
+    public HeadlessFrameExecutor frameExecutor() {
+        return frameExecutor;
+    }
+
+    @Override
+    public BackendShaderProgramCache shaderProgramCache() {
+        return shaderProgramCache;
+    }
+
+    @Override
+    public BackendResourceRegistry resourceRegistry() {
+        return resourceAllocator;
+    }
+
+    @Override
+    public BackendStateApplier stateApplier() {
+        return stateApplier;
+    }
+
+    @Override
+    public CommandEncoderFactory commandEncoderFactory() {
+        return commandEncoderFactory;
+    }
+
+    @Override
+    public boolean supportsGeometryMaterialization() {
+        return true;
+    }
+
+    @Override
+    public <C extends RenderContext> boolean installImmediateGeometryBindings(
+            GraphicsPipeline<C> pipeline,
+            PipelineType pipelineType,
+            RenderPostProcessors postProcessors) {
+        resourceAllocator.geometryMaterializer().installImmediateGeometryBindings(pipeline, pipelineType, postProcessors);
+        return true;
+    }
+
+    @Override
+    public <C extends RenderContext> void materializePendingGeometryResources(GraphicsPipeline<C> pipeline) {
+        resourceAllocator.geometryMaterializer().materializePendingGeometryResources(pipeline);
+    }
+}
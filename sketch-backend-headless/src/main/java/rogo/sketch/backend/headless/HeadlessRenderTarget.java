@@ -0,0 +1,27 @@
+package rogo.sketch.backend.headless;
+
+import rogo.sketch.core.backend.BackendInstalledRenderTarget;
+import rogo.sketch.core.backend.GpuHandle;
+import rogo.sketch.core.resource.descriptor.ResolvedRenderTargetSpec;
+import rogo.sketch.core.resource.vision.StandardRenderTarget;
+import rogo.sketch.core.util.KeyId;
+
+/**
+ * Render target bookkeeping only; attachments are {@link HeadlessTexture}s
+ * owned by the logical resource registry.
+ */
+final class HeadlessRenderTarget extends StandardRenderTarget implements BackendInstalledRenderTarget {
+    private final HeadlessCommandLog log;
+    private final long handle;
+
+    HeadlessRenderTarget(long handle, HeadlessCommandLog log, KeyId resourceId, ResolvedRenderTargetSpec descriptor) {
+        super(GpuHandle.of(handle), resourceId, descriptor, null);
+        this.log = log;
+        this.handle = handle;
+    }
+
+    @Override
+    public void bind() {
+        log.record(HeadlessCommand.BIND_RENDER_TARGET, handle, getIdentifier().hashCode(), 0L);
+    }
+}
@@ -0,0 +1,211 @@
+package rogo.sketch.backend.headless;
+
+import org.jetbrains.annotations.Nullable;
+import rogo.sketch.core.api.ResourceObject;
+import rogo.sketch.core.backend.BackendCounterBuffer;
+import rogo.sketch.core.backend.BackendIndirectBuffer;
+import rogo.sketch.core.backend.BackendInstalledBindableResource;
+import rogo.sketch.core.backend.BackendInstalledBuffer;
+import rogo.sketch.core.backend.BackendInstalledRenderTarget;
+import rogo.sketch.core.backend.BackendInstalledTexture;
+import rogo.sketch.core.backend.BackendReadbackBuffer;
+import rogo.sketch.core.backend.BackendStorageBuffer;
+import rogo.sketch.core.backend.BackendUniformBuffer;
+import rogo.sketch.core.backend.LogicalResourceRegistryBinder;
+import rogo.sketch.core.backend.ResourceAllocator;
+import rogo.sketch.core.memory.TrackedTransientAllocation;
+import rogo.sketch.core.pipeline.GraphicsPipeline;
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.kernel.FrameExecutionPlan;
+import rogo.sketch.core.resource.GraphicsResourceManager;
+import rogo.sketch.core.resource.ResourceTypes;
+import rogo.sketch.core.resource.descriptor.ResolvedBufferResource;
+import rogo.sketch.core.resource.descriptor.ResolvedImageResource;
+import rogo.sketch.core.resource.descriptor.ResolvedRenderTargetSpec;
+import rogo.sketch.core.resource.vision.RenderTarget;
+import rogo.sketch.core.resource.vision.Texture;
+import rogo.sketch.core.util.KeyId;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates headless resources in native memory. Handles are issued in
+ * allocation order starting at 1, so the same scene setup produces the same
+ * handles and therefore the same command log.
+ */
+final class HeadlessResourceAllocator implements ResourceAllocator, LogicalResourceRegistryBinder {
+    private final HeadlessCommandLog log;
+    private final AtomicLong nextHandle = new AtomicLong(1L);
+    private final HeadlessGeometryMaterializer geometryMaterializer;
+    private final HeadlessTransientTargetAliasing transientTargetAliasing;
+    private volatile GraphicsResourceManager resourceManager;
+
+    HeadlessResourceAllocator(HeadlessCommandLog log) {
+        this.log = log;
+        this.geometryMaterializer = new HeadlessGeometryMaterializer(log, this::nextHandle);
+        this.transientTargetAliasing = new HeadlessTransientTargetAliasing(log, this::nextHandle);
+    }
+
+    HeadlessGeometryMaterializer geometryMaterializer() {
+        return geometryMaterializer;
+    }
+
+    @Override
+    public Texture installTexture(
+            KeyId resourceId,
+            ResolvedImageResource descriptor,
+            @Nullable String imagePath,
+            @Nullable ByteBuffer imageData) {
+        HeadlessTexture texture = new HeadlessTexture(nextHandle(), log, resourceId, descriptor, imagePath);
+        texture.updateCurrentSize(descriptor.width(), descriptor.height());
+        texture.upload(imageData);
+        return texture;
+    }
+
+    @Override
+    public RenderTarget installRenderTarget(KeyId resourceId, ResolvedRenderTargetSpec descriptor) {
+        return new HeadlessRenderTarget(nextHandle(), log, resourceId, descriptor);
+    }
+
+    @Override
+    public BackendUniformBuffer installUniformBuffer(
+            KeyId resourceId,
+            ResolvedBufferResource descriptor,
+            @Nullable ByteBuffer initialData) {
+        HeadlessUniformBuffer buffer = new HeadlessUniformBuffer(nextHandle(), log, descriptor);
+        buffer.update(initialData);
+        return buffer;
+    }
+
+    @Override
+    public BackendStorageBuffer installStorageBuffer(
+            KeyId resourceId,
+            ResolvedBufferResource descriptor,
+            @Nullable ByteBuffer initialData) {
+        HeadlessStorageBuffer buffer = new HeadlessStorageBuffer(nextHandle(), log, descriptor);
+        if (initialData != null && initialData.remaining() > 0) {
+            try (TrackedTransientAllocation copy = allocateTransient(
+                    "headless-storage-buffer-init/" + resourceId,
+                    initialData.remaining())) {
+                copy.buffer().put(initialData.slice()).flip();
+                buffer.upload(copy.address(), copy.buffer().remaining());
+            }
+        }
+        return buffer;
+    }
+
+    @Override
+    public BackendCounterBuffer installCounterBuffer(
+            KeyId resourceId,
+            ResolvedBufferResource descriptor,
+            @Nullable ByteBuffer initialData) {
+        HeadlessCounterBuffer buffer = new HeadlessCounterBuffer(nextHandle(), log, descriptor.elementCount());
+        if (initialData != null && initialData.remaining() >= Integer.BYTES) {
+            buffer.fill(initialData.slice().getInt(0));
+        }
+        return buffer;
+    }
+
+    @Override
+    public BackendIndirectBuffer installIndirectBuffer(
+            KeyId resourceId,
+            ResolvedBufferResource descriptor,
+            long commandCapacity) {
+        long capacity = commandCapacity > 0L
+                ? commandCapacity
+                : Math.max(1L, descriptor.capacityBytes() / Math.max(1L, descriptor.strideBytes()));
+        return new HeadlessIndirectBuffer(nextHandle(), log, capacity);
+    }
+
+    @Override
+    public BackendReadbackBuffer installReadbackBuffer(
+            KeyId resourceId,
+            ResolvedBufferResource descriptor,
+            int initialElementCapacity) {
+        long elementCount = descriptor != null ? Math.max(1L, descriptor.elementCount()) : 1L;
+        long strideBytes = descriptor != null ? Math.max(1L, descriptor.strideBytes()) : Integer.BYTES;
+        return new HeadlessReadbackBuffer(nextHandle(), log, Math.max(elementCount, initialElementCapacity), strideBytes);
+    }
+
+    @Override
+    public <C extends RenderContext> boolean installExecutionPlan(
+            GraphicsPipeline<C> pipeline,
+            FrameExecutionPlan plan,
+            long frameEpoch,
+            int framesInFlight,
+            boolean uploadGeometryData) {
+        geometryMaterializer.installExecutionGeometryBindings(pipeline, plan, uploadGeometryData);
+        transientTargetAliasing.install(plan, resourceManager);
+        return true;
+    }
+
+    @Override
+    public void shutdown() {
+        geometryMaterializer.shutdown();
+        transientTargetAliasing.shutdown();
+    }
+
+    @Override
+    public void bindLogicalResourceRegistry(GraphicsResourceManager resourceManager) {
+        this.resourceManager = resourceManager;
+    }
+
+    @Override
+    public BackendInstalledBindableResource resolveBindableResource(KeyId resourceType, KeyId resourceId) {
+        KeyId normalizedType = ResourceTypes.normalize(resourceType);
+        if (ResourceTypes.TEXTURE.equals(normalizedType) || ResourceTypes.IMAGE.equals(normalizedType)) {
+            BackendInstalledTexture texture = resolveTexture(resourceId);
+            return texture instanceof BackendInstalledBindableResource bindable ? bindable : null;
+        }
+        BackendInstalledBuffer buffer = resolveBuffer(normalizedType, resourceId);
+        return buffer instanceof BackendInstalledBindableResource bindable ? bindable : null;
+    }
+
+    @Override
+    public BackendInstalledTexture resolveTexture(KeyId resourceId) {
+        return resolve(ResourceTypes.TEXTURE, resourceId, BackendInstalledTexture.class);
+    }
+
+    @Override
+    public BackendInstalledRenderTarget resolveRenderTarget(KeyId renderTargetId) {
+        return resolve(ResourceTypes.RENDER_TARGET, renderTargetId, BackendInstalledRenderTarget.class);
+    }
+
+    @Override
+    public BackendInstalledBuffer resolveBuffer(KeyId resourceType, KeyId resourceId) {
+        return resolve(resourceType, resourceId, BackendInstalledBuffer.class);
+    }
+
+    @Override
+    public ResourceObject resolveLogicalResource(KeyId resourceType, KeyId resourceId) {
+        GraphicsResourceManager manager = resourceManager;
+        return manager != null && resourceId != null ? manager.getResource(resourceType, resourceId) : null;
+    }
+
+    @Override
+    public ResourceObject resolveLogicalResourceExact(KeyId resourceType, KeyId resourceId) {
+        GraphicsResourceManager manager = resourceManager;
+        return manager != null && resourceId != null ? manager.getResourceExact(resourceType, resourceId) : null;
+    }
+
+    private <T> T resolve(KeyId resourceType, KeyId resourceId, Class<T> expectedType) {
+        GraphicsResourceManager manager = resourceManager;
+        if (manager == null || resourceId == null) {
+            return null;
+        }
+        ResourceObject exact = manager.getResourceExact(resourceType, resourceId);
+        if (expectedType.isInstance(exact)) {
+            return expectedType.cast(exact);
+        }
+        ResourceObject inherited = manager.getResource(resourceType, resourceId);
+        if (expectedType.isInstance(inherited)) {
+            return expectedType.cast(inherited);
+        }
+        return null;
+    }
+
+    private long nextHandle() {
+        return nextHandle.getAndIncrement();
+    }
+}
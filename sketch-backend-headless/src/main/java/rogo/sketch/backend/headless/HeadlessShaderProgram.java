@@ -0,0 +1,87 @@
+package rogo.sketch.backend.headless;
+
+import rogo.sketch.core.api.ShaderResource;
+import rogo.sketch.core.backend.BackendInstalledShaderProgram;
+import rogo.sketch.core.shader.uniform.UniformHookGroup;
+import rogo.sketch.core.shader.uniform.UniformHookRegistry;
+import rogo.sketch.core.shader.variant.ShaderProgramInterfaceSpec;
+import rogo.sketch.core.shader.variant.ShaderUniformSpec;
+import rogo.sketch.core.shader.variant.ShaderVariantKey;
+import rogo.sketch.core.shader.variant.ShaderVariantSpec;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shader program variant with no device program behind it. Its uniform hooks
+ * come from the standalone uniforms of the variant's reflected schema, so
+ * uniform capture and packet uniform groups behave as they do on a real
+ * backend; uploads of those uniforms are dropped.
+ */
+final class HeadlessShaderProgram implements BackendInstalledShaderProgram {
+    private final int handle;
+    private final KeyId identifier;
+    private final ShaderVariantSpec variantSpec;
+    private final UniformHookGroup uniformHooks = new UniformHookGroup();
+    private boolean disposed;
+
+    HeadlessShaderProgram(int handle, KeyId identifier, ShaderVariantSpec variantSpec) {
+        this.handle = handle;
+        this.identifier = identifier;
+        this.variantSpec = variantSpec;
+        Map<String, ShaderResource<?>> uniforms = new LinkedHashMap<>();
+        for (ShaderUniformSpec uniform : variantSpec.interfaceSpec().uniformSchema().uniforms()) {
+            if (uniform.standaloneUniform()) {
+                uniforms.put(uniform.name(), new DiscardingUniform<>(KeyId.of(uniform.name())));
+            }
+        }
+        UniformHookRegistry.getInstance().initializeHooksFromMap(handle, uniforms, uniformHooks);
+    }
+
+    @Override
+    public KeyId templateId() {
+        return variantSpec.templateId();
+    }
+
+    @Override
+    public ShaderVariantKey variantKey() {
+        return variantSpec.variantKey();
+    }
+
+    @Override
+    public ShaderProgramInterfaceSpec interfaceSpec() {
+        return variantSpec.interfaceSpec();
+    }
+
+    @Override
+    public UniformHookGroup uniformHooks() {
+        return uniformHooks;
+    }
+
+    @Override
+    public int getHandle() {
+        return handle;
+    }
+
+    @Override
+    public KeyId getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    private record DiscardingUniform<T>(KeyId id) implements ShaderResource<T> {
+        @Override
+        public void set(T value) {
+        }
+    }
+}
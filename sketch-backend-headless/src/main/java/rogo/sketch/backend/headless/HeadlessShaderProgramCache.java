@@ -0,0 +1,74 @@
+package rogo.sketch.backend.headless;
+
+import rogo.sketch.core.backend.BackendShaderProgramCache;
+import rogo.sketch.core.shader.ShaderProgramHandle;
+import rogo.sketch.core.shader.variant.ShaderTemplate;
+import rogo.sketch.core.shader.variant.ShaderVariantKey;
+import rogo.sketch.core.shader.variant.ShaderVariantSpec;
+import rogo.sketch.core.util.KeyId;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Headless program cache keyed like the OpenGL one: a variant is resolved
+ * through the template's preprocessor once per variant epoch, and the stale
+ * epoch's program is dropped when the template is invalidated. A reloaded
+ * template is a new instance whose epoch restarts, so entries also remember
+ * the template they were resolved from.
+ */
+final class HeadlessShaderProgramCache implements BackendShaderProgramCache {
+    private final Map<CacheKey, CachedProgram> programCache = new ConcurrentHashMap<>();
+    private int nextHandle = 1;
+
+    @Override
+    public ShaderProgramHandle resolveProgram(ShaderTemplate template, ShaderVariantKey variantKey) throws IOException {
+        if (template == null) {
+            return null;
+        }
+        ShaderVariantKey normalizedVariantKey = variantKey != null ? variantKey : ShaderVariantKey.EMPTY;
+        long variantEpoch = template.variantEpoch();
+        CacheKey cacheKey = new CacheKey(template.getTemplateId(), normalizedVariantKey, variantEpoch);
+
+        CachedProgram cached = programCache.get(cacheKey);
+        if (cached != null && cached.isCurrentFor(template)) {
+            return cached.program();
+        }
+
+        synchronized (programCache) {
+            cached = programCache.get(cacheKey);
+            if (cached != null && cached.isCurrentFor(template)) {
+                return cached.program();
+            }
+
+            ShaderVariantSpec variantSpec = template.resolveVariantSpec(normalizedVariantKey);
+            HeadlessShaderProgram program = new HeadlessShaderProgram(
+                    nextHandle++,
+                    variantId(template.getTemplateId(), normalizedVariantKey),
+                    variantSpec);
+            programCache.entrySet().removeIf(entry ->
+                    entry.getKey().templateId().equals(template.getTemplateId())
+                            && entry.getKey().variantKey().equals(normalizedVariantKey)
+                            && entry.getKey().epoch() != variantEpoch);
+            programCache.put(cacheKey, new CachedProgram(template, program));
+            return program;
+        }
+    }
+
+    private static KeyId variantId(KeyId templateId, ShaderVariantKey variantKey) {
+        if (variantKey.isEmpty()) {
+            return templateId;
+        }
+        return KeyId.of(templateId + "#" + variantKey.toCompactString());
+    }
+
+    private record CacheKey(KeyId templateId, ShaderVariantKey variantKey, long epoch) {
+    }
+
+    private record CachedProgram(ShaderTemplate template, HeadlessShaderProgram program) {
+        boolean isCurrentFor(ShaderTemplate requested) {
+            return template == requested && !program.isDisposed();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package rogo.sketch.backend.headless;
+
+import rogo.sketch.core.backend.BackendInstalledRenderTarget;
+import rogo.sketch.core.backend.BackendResourceRegistry;
+import rogo.sketch.core.backend.BackendStateApplier;
+import rogo.sketch.core.driver.state.AttachmentBindingState;
+import rogo.sketch.core.driver.state.DynamicRenderState;
+import rogo.sketch.core.driver.state.PassBindingState;
+import rogo.sketch.core.driver.state.PipelineRasterState;
+import rogo.sketch.core.driver.state.ShaderBindingState;
+import rogo.sketch.core.driver.state.component.RenderTargetState;
+import rogo.sketch.core.driver.state.component.ShaderState;
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.util.KeyId;
+
+/**
+ * Records state application instead of touching a device. Render targets go
+ * through the resource registry so installed targets log their own bind.
+ */
+final class HeadlessStateApplier implements BackendStateApplier {
+    private final HeadlessCommandLog log;
+    private final BackendResourceRegistry resourceRegistry;
+
+    HeadlessStateApplier(HeadlessCommandLog log, BackendResourceRegistry resourceRegistry) {
+        this.log = log;
+        this.resourceRegistry = resourceRegistry;
+    }
+
+    @Override
+    public void applyPipelineRasterState(PipelineRasterState state, RenderContext context) {
+        if (state != null) {
+            log.record(HeadlessCommand.PIPELINE_RASTER_STATE);
+        }
+    }
+
+    @Override
+    public void applyDynamicRenderState(DynamicRenderState state, RenderContext context) {
+        if (state != null) {
+            log.record(HeadlessCommand.DYNAMIC_STATE);
+        }
+    }
+
+    @Override
+    public void applyPassBindingState(PassBindingState state, RenderContext context) {
+        if (state == null) {
+            return;
+        }
+        applyRenderTarget(state.renderTargetState());
+        applyShader(state.shaderState());
+    }
+
+    @Override
+    public void applyAttachmentBindingState(AttachmentBindingState state, RenderContext context) {
+        if (state != null) {
+            applyRenderTarget(state.renderTargetState());
+        }
+    }
+
+    @Override
+    public void applyShaderBindingState(ShaderBindingState state, RenderContext context) {
+        if (state != null) {
+            applyShader(state.shaderState());
+        }
+    }
+
+    private void applyRenderTarget(RenderTargetState state) {
+        if (state == null) {
+            return;
+        }
+        KeyId renderTargetId = state.renderTargetId();
+        BackendInstalledRenderTarget installed = resourceRegistry.resolveRenderTarget(renderTargetId);
+        if (installed != null && !installed.isDisposed()) {
+            installed.bind();
+        } else {
+            log.record(HeadlessCommand.BIND_RENDER_TARGET, 0L, renderTargetId != null ? renderTargetId.hashCode() : 0L, 0L);
+        }
+    }
+
+    private void applyShader(ShaderState state) {
+        if (state == null) {
+            return;
+        }
+        KeyId shaderId = state.getShaderId();
+        log.record(HeadlessCommand.BIND_SHADER, shaderId != null ? shaderId.hashCode() : 0L, 0L, 0L);
+    }
+}
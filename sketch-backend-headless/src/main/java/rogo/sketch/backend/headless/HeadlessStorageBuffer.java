@@ -0,0 +1,243 @@
+package rogo.sketch.backend.headless;
+
+import org.lwjgl.system.MemoryUtil;
+import rogo.sketch.core.api.DataResourceObject;
+import rogo.sketch.core.backend.BackendStorageBuffer;
+import rogo.sketch.core.memory.MemoryDomain;
+import rogo.sketch.core.memory.MemoryLease;
+import rogo.sketch.core.memory.UnifiedMemoryFabric;
+import rogo.sketch.core.resource.descriptor.BufferUpdatePolicy;
+import rogo.sketch.core.resource.descriptor.ResolvedBufferResource;
+import rogo.sketch.core.util.KeyId;
+
+/**
+ * Storage buffer with a host staging copy at {@link #memoryAddress()} and a
+ * native "device" copy. Uploads copy from staging into device memory, the
+ * same split the OpenGL storage buffer has between client memory and the
+ * GL buffer object.
+ */
+final class HeadlessStorageBuffer implements BackendStorageBuffer, DataResourceObject, HeadlessDeviceResource {
+    private final ResolvedBufferResource descriptor;
+    private final HeadlessCommandLog log;
+    private final HeadlessDeviceMemory device;
+    private final MemoryLease hostLease;
+    private long hostAddress;
+    private long capacity;
+    private long dataCount;
+    private final long stride;
+    private long position;
+    private boolean disposed;
+
+    HeadlessStorageBuffer(long handle, HeadlessCommandLog log, ResolvedBufferResource descriptor) {
+        this.descriptor = descriptor;
+        this.log = log;
+        this.dataCount = Math.max(1L, descriptor.elementCount());
+        this.stride = Math.max(1L, descriptor.strideBytes());
+        this.capacity = dataCount * stride;
+        this.hostAddress = MemoryUtil.nmemCalloc(dataCount, stride);
+        this.hostLease = UnifiedMemoryFabric.get()
+                .openLease(MemoryDomain.CPU_NATIVE, "headless-storage-buffer/" + descriptor.identifier())
+                .bindSuppliers(this::trackedReservedBytes, this::trackedLiveBytes);
+        this.device = new HeadlessDeviceMemory(
+                handle,
+                log,
+                MemoryDomain.GPU_PERSISTENT_MAPPED,
+                "headless-storage-buffer/device/" + descriptor.identifier(),
+                capacity);
+    }
+
+    @Override
+    public int getHandle() {
+        return (int) device.handle();
+    }
+
+    @Override
+    public ResolvedBufferResource descriptor() {
+        return descriptor;
+    }
+
+    @Override
+    public long dataCount() {
+        return dataCount;
+    }
+
+    @Override
+    public long getDataCount() {
+        return dataCount;
+    }
+
+    @Override
+    public long capacityBytes() {
+        return capacity;
+    }
+
+    @Override
+    public long getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public long strideBytes() {
+        return stride;
+    }
+
+    @Override
+    public long getStride() {
+        return stride;
+    }
+
+    @Override
+    public long memoryAddress() {
+        return hostAddress;
+    }
+
+    @Override
+    public long getMemoryAddress() {
+        return hostAddress;
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public void position(long newPosition) {
+        this.position = newPosition;
+    }
+
+    @Override
+    public void upload() {
+        checkDisposed();
+        device.upload(hostAddress, 0L, Math.min(position, capacity));
+    }
+
+    @Override
+    public void upload(long sourceAddress, long byteCount) {
+        checkDisposed();
+        device.upload(sourceAddress, 0L, byteCount);
+    }
+
+    @Override
+    public void uploadRange(long sourceAddress, long destinationOffset, long byteCount) {
+        checkDisposed();
+        if (destinationOffset < 0L || destinationOffset + byteCount > capacity) {
+            return;
+        }
+        device.upload(sourceAddress, destinationOffset, byteCount);
+    }
+
+    @Override
+    public void upload(long elementIndex) {
+        upload(elementIndex, (int) stride);
+    }
+
+    @Override
+    public void upload(long elementIndex, int byteCount) {
+        checkDisposed();
+        long offset = elementIndex * byteCount;
+        if (offset < 0L || offset + byteCount > capacity) {
+            return;
+        }
+        device.upload(hostAddress + offset, offset, byteCount);
+    }
+
+    @Override
+    public void resetUpload(BufferUpdatePolicy updatePolicy) {
+        checkDisposed();
+        device.ensureSize(capacity);
+        device.upload(hostAddress, 0L, capacity);
+    }
+
+    @Override
+    public void ensureCapacity(int requiredCount, boolean copy) {
+        ensureCapacity(requiredCount, copy, false);
+    }
+
+    @Override
+    public void ensureCapacity(int requiredCount, boolean copy, boolean force) {
+        checkDisposed();
+        if (requiredCount * stride <= capacity && !force) {
+            return;
+        }
+        long newAddress = MemoryUtil.nmemCalloc(requiredCount, stride);
+        long previousCapacity = capacity;
+        capacity = requiredCount * stride;
+        if (copy) {
+            MemoryUtil.memCopy(hostAddress, newAddress, Math.min(capacity, previousCapacity));
+        }
+        MemoryUtil.nmemFree(hostAddress);
+        hostAddress = newAddress;
+        dataCount = requiredCount;
+        resetUpload(descriptor.updatePolicy());
+    }
+
+    @Override
+    public long resize(long newCapacity) {
+        checkDisposed();
+        if (newCapacity <= capacity) {
+            return hostAddress;
+        }
+        long newAddress = MemoryUtil.nmemCalloc(newCapacity, 1L);
+        MemoryUtil.memCopy(hostAddress, newAddress, capacity);
+        MemoryUtil.nmemFree(hostAddress);
+        hostAddress = newAddress;
+        capacity = newCapacity;
+        resetUpload(descriptor.updatePolicy());
+        return hostAddress;
+    }
+
+    @Override
+    public void setBufferPointer(long bufferPointer) {
+        checkDisposed();
+        this.hostAddress = bufferPointer;
+    }
+
+    @Override
+    public void setCapacity(long capacityBytes) {
+        checkDisposed();
+        this.capacity = capacityBytes;
+    }
+
+    @Override
+    public void bind(KeyId resourceType, int binding) {
+        checkDisposed();
+        log.record(HeadlessCommand.BIND_RESOURCE, device.handle(), resourceType != null ? resourceType.hashCode() : 0L, binding);
+    }
+
+    @Override
+    public HeadlessDeviceMemory device() {
+        return device;
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        hostLease.close();
+        MemoryUtil.nmemFree(hostAddress);
+        hostAddress = MemoryUtil.NULL;
+        device.free();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    private void checkDisposed() {
+        if (disposed) {
+            throw new IllegalStateException("Buffer has been disposed");
+        }
+    }
+
+    private long trackedReservedBytes() {
+        return disposed ? 0L : capacity;
+    }
+
+    private long trackedLiveBytes() {
+        return disposed ? 0L : Math.min(capacity, Math.max(position, 0L));
+    }
+}
@@ -0,0 +1,34 @@
+package rogo.sketch.backend.headless;
+
+import rogo.sketch.core.backend.SubmissionScheduler;
+import rogo.sketch.core.pipeline.kernel.FrameExecutionPlan;
+
+/**
+ * Single-slot scheduler; {@link #drawFrame()} closes the frame in the
+ * command log so per-frame counters can be derived from END_FRAME markers.
+ */
+final class HeadlessSubmissionScheduler implements SubmissionScheduler {
+    private final HeadlessCommandLog log;
+    private volatile FrameExecutionPlan installedPlan = FrameExecutionPlan.empty();
+    private long frameIndex;
+
+    HeadlessSubmissionScheduler(HeadlessCommandLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public void installExecutionPlan(FrameExecutionPlan plan) {
+        installedPlan = plan != null ? plan : FrameExecutionPlan.empty();
+    }
+
+    @Override
+    public FrameExecutionPlan installedExecutionPlan() {
+        return installedPlan;
+    }
+
+    @Override
+    public boolean drawFrame() {
+        log.record(HeadlessCommand.END_FRAME, frameIndex++, 0L, 0L);
+        return true;
+    }
+}
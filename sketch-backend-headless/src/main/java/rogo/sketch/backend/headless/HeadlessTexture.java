@@ -0,0 +1,122 @@
+package rogo.sketch.backend.headless;
+
+import org.jetbrains.annotations.Nullable;
+import org.lwjgl.system.MemoryUtil;
+import rogo.sketch.core.backend.BackendInstalledBindableResource;
+import rogo.sketch.core.backend.BackendInstalledTexture;
+import rogo.sketch.core.backend.GpuHandle;
+import rogo.sketch.core.memory.ImageMemoryEstimator;
+import rogo.sketch.core.memory.MemoryDomain;
+import rogo.sketch.core.resource.descriptor.ResolvedImageResource;
+import rogo.sketch.core.resource.vision.StandardTexture;
+import rogo.sketch.core.util.KeyId;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Texture whose image storage is a native allocation sized like the real
+ * image (all mip levels), so resize and upload costs stay realistic.
+ */
+final class HeadlessTexture extends StandardTexture implements BackendInstalledTexture, BackendInstalledBindableResource, HeadlessDeviceResource {
+    private final HeadlessCommandLog log;
+    private HeadlessDeviceMemory device;
+    private boolean aliased;
+
+    HeadlessTexture(
+            long handle,
+            HeadlessCommandLog log,
+            KeyId resourceId,
+            ResolvedImageResource descriptor,
+            @Nullable String imagePath) {
+        super(GpuHandle.of(handle), resourceId, descriptor, imagePath);
+        this.log = log;
+        this.device = new HeadlessDeviceMemory(
+                handle,
+                log,
+                MemoryDomain.GPU_TEXTURE,
+                "headless-texture/" + resourceId,
+                ImageMemoryEstimator.estimateBytes(descriptor));
+    }
+
+    void upload(@Nullable ByteBuffer imageData) {
+        if (imageData == null || !imageData.hasRemaining()) {
+            return;
+        }
+        if (imageData.isDirect()) {
+            device.upload(MemoryUtil.memAddress(imageData), 0L, imageData.remaining());
+            return;
+        }
+        ByteBuffer direct = MemoryUtil.memAlloc(imageData.remaining());
+        try {
+            direct.put(imageData.duplicate()).flip();
+            device.upload(MemoryUtil.memAddress(direct), 0L, direct.remaining());
+        } finally {
+            MemoryUtil.memFree(direct);
+        }
+    }
+
+    @Override
+    public HeadlessDeviceMemory device() {
+        return device;
+    }
+
+    /**
+     * Move this texture onto a transient slot's shared storage, freeing its
+     * own, or with {@code null} give it dedicated storage again.
+     */
+    void aliasStorage(@Nullable HeadlessDeviceMemory sharedStorage) {
+        if (isDisposed() || sharedStorage == device) {
+            return;
+        }
+        if (sharedStorage != null) {
+            if (!aliased) {
+                device.free();
+            }
+            device = sharedStorage;
+            aliased = true;
+            return;
+        }
+        if (aliased) {
+            device = new HeadlessDeviceMemory(
+                    gpuHandle().value(),
+                    log,
+                    MemoryDomain.GPU_TEXTURE,
+                    "headless-texture/" + getIdentifier(),
+                    estimatedBytes());
+            aliased = false;
+        }
+    }
+
+    long estimatedBytes() {
+        return ImageMemoryEstimator.estimateBytes(
+                Math.max(1, getCurrentWidth()),
+                Math.max(1, getCurrentHeight()),
+                descriptor.mipLevels(),
+                descriptor.format());
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        super.resize(width, height);
+        device.ensureSize(ImageMemoryEstimator.estimateBytes(width, height, descriptor.mipLevels(), descriptor.format()));
+    }
+
+    @Override
+    public void bind(KeyId resourceType, int binding) {
+        if (isDisposed()) {
+            return;
+        }
+        log.record(HeadlessCommand.BIND_RESOURCE, device.handle(), resourceType != null ? resourceType.hashCode() : 0L, binding);
+    }
+
+    @Override
+    public void dispose() {
+        if (isDisposed()) {
+            return;
+        }
+        if (!aliased) {
+            device.free();
+        }
+        super.dispose();
+    }
+}
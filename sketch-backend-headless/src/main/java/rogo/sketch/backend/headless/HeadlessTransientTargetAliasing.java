@@ -0,0 +1,141 @@
+package rogo.sketch.backend.headless;
+
+import rogo.sketch.core.memory.MemoryDomain;
+import rogo.sketch.core.pipeline.kernel.FrameExecutionPlan;
+import rogo.sketch.core.pipeline.kernel.TransientTargetAliasCache;
+import rogo.sketch.core.pipeline.kernel.TransientTargetAliasPlan;
+import rogo.sketch.core.resource.GraphicsResourceManager;
+import rogo.sketch.core.resource.ResourceTypes;
+import rogo.sketch.core.resource.vision.RenderTarget;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Backs the attachments of transient render targets that share a
+ * {@link TransientTargetAliasPlan.PhysicalSlot} with one
+ * {@link HeadlessDeviceMemory} per attachment position, as a driver would
+ * bind aliased images to the same memory. Targets outside a shared slot keep
+ * the dedicated storage their textures were installed with.
+ */
+final class HeadlessTransientTargetAliasing {
+    private final HeadlessCommandLog log;
+    private final LongSupplier handles;
+    private final TransientTargetAliasCache aliasCache = new TransientTargetAliasCache();
+    private TransientTargetAliasPlan appliedPlan = TransientTargetAliasPlan.empty();
+    private Map<SlotKey, HeadlessDeviceMemory[]> slotStorage = new HashMap<>();
+    private Set<HeadlessTexture> aliasedTextures = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    HeadlessTransientTargetAliasing(HeadlessCommandLog log, LongSupplier handles) {
+        this.log = log;
+        this.handles = handles;
+    }
+
+    void install(FrameExecutionPlan plan, GraphicsResourceManager resourceManager) {
+        TransientTargetAliasPlan aliasPlan = aliasCache.update(plan, resourceManager);
+        if (aliasPlan == appliedPlan) {
+            return;
+        }
+        appliedPlan = aliasPlan;
+
+        Map<SlotKey, HeadlessDeviceMemory[]> nextStorage = new HashMap<>();
+        Set<HeadlessTexture> nextAliased = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (TransientTargetAliasPlan.PhysicalSlot slot : aliasPlan.slots()) {
+            // A slot with a single target saves nothing over its own images
+            if (slot.targets().size() < 2) {
+                continue;
+            }
+            SlotKey key = new SlotKey(slot.index(), slot.layout());
+            HeadlessDeviceMemory[] storage = slotStorage.remove(key);
+            for (KeyId targetId : slot.targets()) {
+                List<HeadlessTexture> attachments = attachmentsOf(resourceManager, targetId);
+                if (attachments == null) {
+                    continue;
+                }
+                if (storage == null) {
+                    storage = new HeadlessDeviceMemory[attachments.size()];
+                }
+                if (storage.length != attachments.size()) {
+                    continue;
+                }
+                for (int i = 0; i < storage.length; i++) {
+                    HeadlessTexture texture = attachments.get(i);
+                    if (storage[i] == null) {
+                        storage[i] = new HeadlessDeviceMemory(
+                                handles.getAsLong(),
+                                log,
+                                MemoryDomain.GPU_TEXTURE,
+                                "headless-transient-slot/" + slot.index() + "/" + i,
+                                texture.estimatedBytes());
+                    } else {
+                        storage[i].ensureSize(texture.estimatedBytes());
+                    }
+                    texture.aliasStorage(storage[i]);
+                    nextAliased.add(texture);
+                }
+            }
+            if (storage != null) {
+                nextStorage.put(key, storage);
+            }
+        }
+
+        for (HeadlessTexture texture : aliasedTextures) {
+            if (!nextAliased.contains(texture)) {
+                texture.aliasStorage(null);
+            }
+        }
+        freeAll(slotStorage);
+        slotStorage = nextStorage;
+        aliasedTextures = nextAliased;
+    }
+
+    void shutdown() {
+        for (HeadlessTexture texture : aliasedTextures) {
+            texture.aliasStorage(null);
+        }
+        freeAll(slotStorage);
+        slotStorage = new HashMap<>();
+        aliasedTextures = Collections.newSetFromMap(new IdentityHashMap<>());
+        appliedPlan = aliasCache.reset();
+    }
+
+    /**
+     * @return the target's attachment textures in {@code attachmentIds()} order,
+     * or {@code null} when any of them is not an installed headless texture
+     */
+    private static List<HeadlessTexture> attachmentsOf(GraphicsResourceManager resourceManager, KeyId targetId) {
+        if (!(resourceManager.getResource(ResourceTypes.RENDER_TARGET, targetId) instanceof RenderTarget renderTarget)
+                || renderTarget.descriptor() == null) {
+            return null;
+        }
+        List<KeyId> attachmentIds = renderTarget.descriptor().attachmentIds();
+        HeadlessTexture[] attachments = new HeadlessTexture[attachmentIds.size()];
+        for (int i = 0; i < attachments.length; i++) {
+            if (!(resourceManager.getResource(ResourceTypes.TEXTURE, attachmentIds.get(i)) instanceof HeadlessTexture texture)
+                    || texture.isDisposed()) {
+                return null;
+            }
+            attachments[i] = texture;
+        }
+        return List.of(attachments);
+    }
+
+    private static void freeAll(Map<SlotKey, HeadlessDeviceMemory[]> storage) {
+        for (HeadlessDeviceMemory[] memories : storage.values()) {
+            for (HeadlessDeviceMemory memory : memories) {
+                if (memory != null) {
+                    memory.free();
+                }
+            }
+        }
+    }
+
+    private record SlotKey(int index, TransientTargetAliasPlan.TargetLayout layout) {
+    }
+}
@@ -0,0 +1,82 @@
+package rogo.sketch.backend.headless;
+
+import org.lwjgl.system.MemoryUtil;
+import rogo.sketch.core.backend.BackendUniformBuffer;
+import rogo.sketch.core.memory.MemoryDomain;
+import rogo.sketch.core.resource.descriptor.ResolvedBufferResource;
+import rogo.sketch.core.util.KeyId;
+
+import java.nio.ByteBuffer;
+
+final class HeadlessUniformBuffer implements BackendUniformBuffer, HeadlessDeviceResource {
+    private final ResolvedBufferResource descriptor;
+    private final HeadlessCommandLog log;
+    private final HeadlessDeviceMemory device;
+    private boolean disposed;
+
+    HeadlessUniformBuffer(long handle, HeadlessCommandLog log, ResolvedBufferResource descriptor) {
+        this.descriptor = descriptor;
+        this.log = log;
+        this.device = new HeadlessDeviceMemory(
+                handle,
+                log,
+                MemoryDomain.GPU_PERSISTENT_MAPPED,
+                "headless-uniform-buffer/" + descriptor.identifier(),
+                Math.max(descriptor.capacityBytes(), descriptor.elementCount() * descriptor.strideBytes()));
+    }
+
+    @Override
+    public ResolvedBufferResource descriptor() {
+        return descriptor;
+    }
+
+    @Override
+    public long sizeBytes() {
+        return device.sizeBytes();
+    }
+
+    @Override
+    public void update(ByteBuffer source) {
+        if (disposed || source == null || !source.hasRemaining()) {
+            return;
+        }
+        if (source.isDirect()) {
+            device.upload(MemoryUtil.memAddress(source), 0L, source.remaining());
+            return;
+        }
+        ByteBuffer direct = MemoryUtil.memAlloc(source.remaining());
+        try {
+            direct.put(source.duplicate()).flip();
+            device.upload(MemoryUtil.memAddress(direct), 0L, direct.remaining());
+        } finally {
+            MemoryUtil.memFree(direct);
+        }
+    }
+
+    @Override
+    public HeadlessDeviceMemory device() {
+        return device;
+    }
+
+    @Override
+    public void bind(KeyId resourceType, int binding) {
+        if (disposed) {
+            return;
+        }
+        log.record(HeadlessCommand.BIND_RESOURCE, device.handle(), resourceType != null ? resourceType.hashCode() : 0L, binding);
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        device.free();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+}
@@ -0,0 +1,54 @@
+package rogo.sketch.backend.headless;
+
+import rogo.sketch.core.backend.WindowService;
+
+/**
+ * Window service for the headless backend: no native window, just a
+ * framebuffer size that resize smoke tests can change.
+ */
+public final class HeadlessWindowService implements WindowService {
+    private volatile int width;
+    private volatile int height;
+    private volatile boolean vSync;
+
+    public HeadlessWindowService(int width, int height) {
+        this.width = Math.max(1, width);
+        this.height = Math.max(1, height);
+    }
+
+    @Override
+    public long windowHandle() {
+        return 0L;
+    }
+
+    @Override
+    public boolean headless() {
+        return true;
+    }
+
+    @Override
+    public int framebufferWidth() {
+        return width;
+    }
+
+    @Override
+    public int framebufferHeight() {
+        return height;
+    }
+
+    @Override
+    public void resizeFramebuffer(int width, int height) {
+        this.width = Math.max(1, width);
+        this.height = Math.max(1, height);
+    }
+
+    @Override
+    public void setVSync(boolean enabled) {
+        this.vSync = enabled;
+    }
+
+    @Override
+    public boolean vSyncEnabled() {
+        return vSync;
+    }
+}
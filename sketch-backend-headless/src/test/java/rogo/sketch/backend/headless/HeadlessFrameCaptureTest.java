@@ -0,0 +1,148 @@
+package rogo.sketch.backend.headless;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.backend.BackendKind;
+import rogo.sketch.core.driver.GraphicsDriver;
+import rogo.sketch.core.packet.ClearPacket;
+import rogo.sketch.core.packet.ExecutionKey;
+import rogo.sketch.core.packet.RenderPacket;
+import rogo.sketch.core.packet.ResourceBindingPlan;
+import rogo.sketch.core.packet.TransferPlanKey;
+import rogo.sketch.core.pipeline.GraphicsPipeline;
+import rogo.sketch.core.pipeline.PipelineConfig;
+import rogo.sketch.core.pipeline.PipelineType;
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.kernel.FrameCaptureSnapshot;
+import rogo.sketch.core.pipeline.kernel.FrameExecutionPlan;
+import rogo.sketch.core.pipeline.kernel.StageExecutionPlan;
+import rogo.sketch.core.resource.GraphicsResourceManager;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Armed frame capture on the headless backend: installed plans build their
+ * capture snapshot only while {@link GraphicsPipeline#armFrameCapture(int)}
+ * has frames left, and every other frame leaves its deferred handle untouched.
+ */
+class HeadlessFrameCaptureTest {
+    private GraphicsPipeline<RenderContext> pipeline;
+    private int frameIndex;
+
+    @BeforeEach
+    void setUp() {
+        if (GraphicsDriver.isBootstrapped()) {
+            GraphicsDriver.shutdown();
+        }
+        if (!GraphicsDriver.hasBackendBootstrap(BackendKind.HEADLESS)) {
+            GraphicsDriver.registerBackendBootstrap(new HeadlessBackendBootstrap());
+        }
+        GraphicsDriver.bootstrap(BackendKind.HEADLESS, HeadlessBackendBootstrap.context("test/frame-capture", 64, 64));
+        pipeline = new GraphicsPipeline<>(new PipelineConfig(), new GraphicsResourceManager(), new RenderContext());
+    }
+
+    @AfterEach
+    void tearDown() {
+        GraphicsDriver.shutdown();
+    }
+
+    @Test
+    void unarmedFramesBuildNoSnapshot() {
+        List<FrameExecutionPlan> plans = runFrames(8);
+
+        assertEquals(0, materializedCount(plans));
+        assertTrue(pipeline.latestFrameCaptureSnapshot().stages().isEmpty());
+    }
+
+    @Test
+    void armedCaptureBuildsExactlyTheRequestedSnapshots() {
+        runFrames(2);
+        pipeline.armFrameCapture(3);
+        List<FrameExecutionPlan> plans = runFrames(6);
+
+        assertEquals(3, materializedCount(plans));
+        for (int frame = 0; frame < plans.size(); frame++) {
+            assertEquals(frame < 3, plans.get(frame).frameCapture().isMaterialized(), "frame " + frame);
+        }
+        FrameCaptureSnapshot latest = pipeline.latestFrameCaptureSnapshot();
+        assertEquals(2, latest.stages().size());
+        // the third armed frame is the fifth installed overall
+        assertEquals(stageId(4, 0), latest.stages().get(0).stageId());
+    }
+
+    @Test
+    void rearmingReplacesTheRemainingCount() {
+        pipeline.armFrameCapture(5);
+        runFrames(1);
+        pipeline.armFrameCapture(1);
+        assertEquals(1, materializedCount(runFrames(4)));
+
+        pipeline.armFrameCapture(2);
+        pipeline.armFrameCapture(0);
+        assertEquals(0, materializedCount(runFrames(3)));
+    }
+
+    @Test
+    void explicitRequestStillCapturesAnUnarmedFrame() {
+        List<FrameExecutionPlan> plans = runFrames(1);
+        assertFalse(plans.get(0).frameCapture().isMaterialized());
+
+        FrameCaptureSnapshot snapshot = pipeline.requestFrameCapture();
+
+        assertEquals(1, materializedCount(plans));
+        assertEquals(2, snapshot.stages().size());
+    }
+
+    /**
+     * Install {@code frames} execution plans the way the commit pipeline does,
+     * and return them in install order.
+     */
+    private List<FrameExecutionPlan> runFrames(int frames) {
+        List<FrameExecutionPlan> plans = new ArrayList<>(frames);
+        for (int frame = 0; frame < frames; frame++) {
+            FrameExecutionPlan plan = new FrameExecutionPlan(stagePlans(frameIndex++), List.of(), List.of(), Map.of(), null);
+            GraphicsDriver.submissionScheduler().installExecutionPlan(plan);
+            pipeline.onExecutionPlanInstalled();
+            GraphicsDriver.submissionScheduler().drawFrame();
+            plans.add(plan);
+        }
+        return plans;
+    }
+
+    private static Map<KeyId, StageExecutionPlan> stagePlans(int frame) {
+        Map<KeyId, StageExecutionPlan> stagePlans = new LinkedHashMap<>();
+        for (int stage = 0; stage < 2; stage++) {
+            KeyId stageId = stageId(frame, stage);
+            ClearPacket clear = new ClearPacket(null, PipelineType.FUNCTION, TransferPlanKey.forRenderTarget(stageId),
+                    ResourceBindingPlan.empty(), null, List.of(), stageId, List.of(),
+                    true, false, new float[]{0, 0, 0, 0}, 1.0f, null, false);
+            Map<ExecutionKey, List<RenderPacket>> byState = new LinkedHashMap<>();
+            byState.put(clear.stateKey(), List.of(clear));
+            stagePlans.put(stageId, StageExecutionPlan.fromPackets(stageId, Map.of(PipelineType.FUNCTION, byState)));
+        }
+        return stagePlans;
+    }
+
+    private static KeyId stageId(int frame, int stage) {
+        return KeyId.of("test", "frame" + frame + "_stage" + stage);
+    }
+
+    private static int materializedCount(List<FrameExecutionPlan> plans) {
+        int count = 0;
+        for (FrameExecutionPlan plan : plans) {
+            if (plan.frameCapture().isMaterialized()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
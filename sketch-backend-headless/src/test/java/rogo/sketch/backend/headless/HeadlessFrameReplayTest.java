@@ -0,0 +1,134 @@
+package rogo.sketch.backend.headless;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.backend.BackendFrameExecutor;
+import rogo.sketch.core.backend.BackendKind;
+import rogo.sketch.core.backend.BackendStageScope;
+import rogo.sketch.core.data.PrimitiveType;
+import rogo.sketch.core.data.format.VertexBufferKey;
+import rogo.sketch.core.driver.GraphicsDriver;
+import rogo.sketch.core.packet.DrawPacket;
+import rogo.sketch.core.packet.DrawPlan;
+import rogo.sketch.core.packet.draw.IndexedDrawSlice;
+import rogo.sketch.core.pipeline.GraphicsPipeline;
+import rogo.sketch.core.pipeline.PipelineConfig;
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.resource.GraphicsResourceManager;
+import rogo.sketch.core.util.KeyId;
+import rogo.sketch.core.vertex.DefaultDataFormats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deterministic replay: the same scripted frames, each run on a freshly
+ * bootstrapped headless backend, must leave identical command logs, entry
+ * for entry, including upload handles and byte counts.
+ */
+class HeadlessFrameReplayTest {
+    private static final KeyId STAGE = KeyId.of("test:replay");
+    private static final int FRAMES = 3;
+
+    @AfterEach
+    void tearDown() {
+        if (GraphicsDriver.isBootstrapped()) {
+            GraphicsDriver.shutdown();
+        }
+    }
+
+    @Test
+    void sameFramesProduceIdenticalLogs() {
+        HeadlessCommandLog first = runFrames(11L);
+        HeadlessCommandLog second = runFrames(11L);
+
+        assertTrue(first.size() > 0);
+        assertEquals(FRAMES, first.stats().frames());
+        assertTrue(first.stats().bytesUploaded() > 0L);
+        assertEquals(entries(first), entries(second));
+        assertEquals(first.stats(), second.stats());
+    }
+
+    @Test
+    void replayedLogReproducesStats() {
+        HeadlessCommandLog log = runFrames(12L);
+        HeadlessCommandLog replayed = new HeadlessCommandLog();
+
+        log.replayInto(replayed);
+
+        assertEquals(entries(log), entries(replayed));
+        assertEquals(log.stats(), replayed.stats());
+    }
+
+    @Test
+    void differentFramesProduceDifferentFingerprints() {
+        assertNotEquals(runFrames(13L).stats().fingerprint(), runFrames(14L).stats().fingerprint());
+    }
+
+    /**
+     * Bootstrap a fresh backend and run {@link #FRAMES} frames scripted from
+     * {@code seed}: install geometry for a few meshes, re-upload one mesh each
+     * frame, then draw every mesh inside an execution scope.
+     */
+    private static HeadlessCommandLog runFrames(long seed) {
+        if (GraphicsDriver.isBootstrapped()) {
+            GraphicsDriver.shutdown();
+        }
+        if (!GraphicsDriver.hasBackendBootstrap(BackendKind.HEADLESS)) {
+            GraphicsDriver.registerBackendBootstrap(new HeadlessBackendBootstrap());
+        }
+        GraphicsDriver.bootstrap(BackendKind.HEADLESS, HeadlessBackendBootstrap.context("test/frame-replay", 64, 64));
+        GraphicsPipeline<RenderContext> pipeline = new GraphicsPipeline<>(new PipelineConfig(), new GraphicsResourceManager(), new RenderContext());
+        BackendFrameExecutor executor = GraphicsDriver.renderDevice().frameExecutor();
+        Random random = new Random(seed);
+
+        int meshCount = 4;
+        int vertexBytes = 24 * DefaultDataFormats.POSITION.getStride();
+        List<VertexBufferKey> keys = new ArrayList<>();
+        List<byte[]> vertices = new ArrayList<>();
+        for (int mesh = 0; mesh < meshCount; mesh++) {
+            keys.add(VertexBufferKey.fromParameter(HeadlessGeometryUploadTest.PARAMETER, -1L, mesh + 1L));
+            vertices.add(HeadlessGeometryUploadTest.randomBytes(random, vertexBytes));
+        }
+
+        for (int frame = 0; frame < FRAMES; frame++) {
+            int edited = random.nextInt(meshCount);
+            vertices.set(edited, HeadlessGeometryUploadTest.randomBytes(random, vertexBytes));
+            for (int mesh = 0; mesh < meshCount; mesh++) {
+                GraphicsDriver.resourceAllocator().installExecutionPlan(
+                        pipeline,
+                        HeadlessGeometryUploadTest.executionPlan(HeadlessGeometryUploadTest.uploadPlan(
+                                keys.get(mesh),
+                                vertices.get(mesh),
+                                HeadlessGeometryUploadTest.sequence(36))),
+                        frame,
+                        1,
+                        true);
+            }
+
+            try (BackendStageScope ignored = executor.beginExecutionScope(pipeline, null, List.of(STAGE), null, pipeline.currentContext())) {
+                for (int mesh = 0; mesh < meshCount; mesh++) {
+                    IndexedDrawSlice slice = new IndexedDrawSlice(mesh + 1L, mesh * 24, 36, (long) mesh * 36 * Integer.BYTES);
+                    DrawPlan plan = DrawPlan.directIndexed(PrimitiveType.TRIANGLES, slice, 1 + random.nextInt(4), 0);
+                    DrawPacket packet = new DrawPacket(STAGE, null, null, null, null, null, null, null, plan);
+                    HeadlessFrameExecutor headlessExecutor = (HeadlessFrameExecutor) executor;
+                    headlessExecutor.packetHandlerRegistry().handlerFor(packet)
+                            .execute(pipeline, packet, pipeline.currentContext(), headlessExecutor);
+                }
+            }
+            GraphicsDriver.submissionScheduler().drawFrame();
+        }
+        return ((HeadlessBackendRuntime) GraphicsDriver.runtime()).commandLog();
+    }
+
+    private static List<List<Long>> entries(HeadlessCommandLog log) {
+        List<List<Long>> entries = new ArrayList<>();
+        log.replay((command, a, b, c, d) -> entries.add(List.of((long) command.ordinal(), a, b, c, d)));
+        return entries;
+    }
+}
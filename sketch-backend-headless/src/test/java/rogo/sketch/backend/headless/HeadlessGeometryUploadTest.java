@@ -0,0 +1,222 @@
+package rogo.sketch.backend.headless;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.system.MemoryUtil;
+import rogo.sketch.core.backend.BackendKind;
+import rogo.sketch.core.data.MeshIndexMode;
+import rogo.sketch.core.data.PrimitiveType;
+import rogo.sketch.core.data.format.ComponentSpec;
+import rogo.sketch.core.data.format.VertexBufferKey;
+import rogo.sketch.core.data.format.VertexLayoutSpec;
+import rogo.sketch.core.driver.GraphicsDriver;
+import rogo.sketch.core.packet.GeometryHandleKey;
+import rogo.sketch.core.pipeline.GraphicsPipeline;
+import rogo.sketch.core.pipeline.PipelineConfig;
+import rogo.sketch.core.pipeline.PipelineType;
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.kernel.FrameExecutionPlan;
+import rogo.sketch.core.pipeline.parmeter.RasterizationParameter;
+import rogo.sketch.core.resource.GraphicsResourceManager;
+import rogo.sketch.core.resource.descriptor.BufferUpdatePolicy;
+import rogo.sketch.core.util.KeyId;
+import rogo.sketch.core.vertex.DefaultDataFormats;
+import rogo.sketch.core.vertex.MeshResidencyPool;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Geometry materialization and upload on the headless device: installed
+ * plans copy their vertex and index bytes into device memory, the command log
+ * counts exactly those bytes, and unchanged geometry is not uploaded again.
+ */
+class HeadlessGeometryUploadTest {
+    static final KeyId VERTEX_LAYOUT = KeyId.of("test", "position");
+    static final RasterizationParameter PARAMETER = new RasterizationParameter(
+            VertexLayoutSpec.builder().addStatic(VERTEX_LAYOUT, DefaultDataFormats.POSITION).build(),
+            PrimitiveType.TRIANGLES,
+            MeshIndexMode.EXPLICIT_LOCAL,
+            BufferUpdatePolicy.IMMUTABLE,
+            false);
+
+    private GraphicsPipeline<RenderContext> pipeline;
+    private HeadlessCommandLog log;
+
+    @BeforeEach
+    void setUp() {
+        if (GraphicsDriver.isBootstrapped()) {
+            GraphicsDriver.shutdown();
+        }
+        if (!GraphicsDriver.hasBackendBootstrap(BackendKind.HEADLESS)) {
+            GraphicsDriver.registerBackendBootstrap(new HeadlessBackendBootstrap());
+        }
+        GraphicsDriver.bootstrap(BackendKind.HEADLESS, HeadlessBackendBootstrap.context("test/geometry-upload", 64, 64));
+        pipeline = new GraphicsPipeline<>(new PipelineConfig(), new GraphicsResourceManager(), new RenderContext());
+        log = ((HeadlessBackendRuntime) GraphicsDriver.runtime()).commandLog();
+    }
+
+    @AfterEach
+    void tearDown() {
+        GraphicsDriver.shutdown();
+    }
+
+    @Test
+    void deviceReportsGeometryMaterialization() {
+        assertTrue(GraphicsDriver.renderDevice().supportsGeometryMaterialization());
+    }
+
+    @Test
+    void installCopiesVertexAndIndexBytesIntoDeviceMemory() {
+        VertexBufferKey key = VertexBufferKey.fromParameter(PARAMETER, -1L, 1L);
+        byte[] vertices = randomBytes(new Random(1L), 24 * DefaultDataFormats.POSITION.getStride());
+        int[] indices = sequence(36);
+
+        assertTrue(install(uploadPlan(key, vertices, indices)));
+
+        HeadlessGeometryBinding binding = residentBinding(key);
+        assertArrayEquals(vertices, read(binding.componentMemory(componentId(key)), vertices.length));
+        assertArrayEquals(intBytes(indices), read(binding.indexMemory(), indices.length * Integer.BYTES));
+        assertEquals(36, binding.indexCount());
+        assertTrue(binding.hasIndices());
+        assertEquals(vertices.length + (long) indices.length * Integer.BYTES, log.stats().bytesUploaded());
+        assertEquals(2L, log.count(HeadlessCommand.UPLOAD));
+    }
+
+    @Test
+    void unchangedGeometryIsNotUploadedAgain() {
+        VertexBufferKey key = VertexBufferKey.fromParameter(PARAMETER, -1L, 1L);
+        byte[] vertices = randomBytes(new Random(2L), 24 * DefaultDataFormats.POSITION.getStride());
+        install(uploadPlan(key, vertices, sequence(36)));
+        long firstUpload = log.stats().bytesUploaded();
+
+        install(uploadPlan(key, vertices, sequence(36)));
+        assertEquals(firstUpload, log.stats().bytesUploaded());
+
+        byte[] edited = vertices.clone();
+        edited[0] ^= 0x7F;
+        install(uploadPlan(key, edited, sequence(36)));
+        assertEquals(2 * firstUpload, log.stats().bytesUploaded());
+        assertArrayEquals(edited, read(residentBinding(key).componentMemory(componentId(key)), edited.length));
+    }
+
+    @Test
+    void evictedGeometryIsUploadedAgainOnReinstall() {
+        VertexBufferKey key = VertexBufferKey.fromParameter(PARAMETER, -1L, 1L);
+        byte[] vertices = randomBytes(new Random(3L), 24 * DefaultDataFormats.POSITION.getStride());
+        install(uploadPlan(key, vertices, sequence(36)));
+        HeadlessGeometryBinding evicted = residentBinding(key);
+        long firstUpload = log.stats().bytesUploaded();
+
+        pipeline.getMeshResidencyPool(PipelineType.RASTERIZATION).remove(key);
+        assertTrue(evicted.isDisposed());
+        install(uploadPlan(key, vertices, sequence(36)));
+
+        assertEquals(2 * firstUpload, log.stats().bytesUploaded());
+        assertArrayEquals(vertices, read(residentBinding(key).componentMemory(componentId(key)), vertices.length));
+    }
+
+    @Test
+    void pendingRequestsMaterializeEmptyBindings() {
+        VertexBufferKey key = VertexBufferKey.fromParameter(PARAMETER, -1L, 2L);
+        MeshResidencyPool residencyPool = pipeline.getMeshResidencyPool(PipelineType.RASTERIZATION);
+        residencyPool.planMaterialization(key, null);
+
+        pipeline.materializePendingGeometryBindings();
+
+        HeadlessGeometryBinding binding = residentBinding(key);
+        assertNotNull(binding.componentMemory(componentId(key)));
+        assertEquals(0L, log.stats().bytesUploaded());
+    }
+
+    private boolean install(FrameExecutionPlan.GeometryUploadPlan plan) {
+        return GraphicsDriver.resourceAllocator().installExecutionPlan(
+                pipeline,
+                executionPlan(plan),
+                1L,
+                1,
+                true);
+    }
+
+    private HeadlessGeometryBinding residentBinding(VertexBufferKey key) {
+        return assertInstanceOf(
+                HeadlessGeometryBinding.class,
+                pipeline.getMeshResidencyPool(PipelineType.RASTERIZATION).getIfPresent(key));
+    }
+
+    static FrameExecutionPlan executionPlan(FrameExecutionPlan.GeometryUploadPlan plan) {
+        return new FrameExecutionPlan(
+                Map.of(),
+                List.of(plan),
+                List.of(),
+                Map.of(plan.geometryHandle(), Set.of(PipelineType.RASTERIZATION)),
+                null);
+    }
+
+    static FrameExecutionPlan.GeometryUploadPlan uploadPlan(VertexBufferKey key, byte[] vertices, int[] indices) {
+        ComponentSpec component = key.components()[0];
+        int stride = component.getFormat().getStride();
+        return new FrameExecutionPlan.GeometryUploadPlan(
+                GeometryHandleKey.from(key),
+                VERTEX_LAYOUT,
+                0L,
+                null,
+                null,
+                null,
+                null,
+                null,
+                List.of(new FrameExecutionPlan.VertexUploadSnapshot(
+                        component.getId(),
+                        component.getBindingPoint(),
+                        stride,
+                        component.isInstanced(),
+                        vertices,
+                        vertices.length / stride)),
+                new FrameExecutionPlan.IndexUploadSnapshot(intBytes(indices), indices.length),
+                null,
+                vertices.length / stride,
+                indices.length,
+                0);
+    }
+
+    static KeyId componentId(VertexBufferKey key) {
+        return key.components()[0].getId();
+    }
+
+    static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    static int[] sequence(int count) {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = i % 24;
+        }
+        return values;
+    }
+
+    private static byte[] intBytes(int[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asIntBuffer().put(values);
+        return buffer.array();
+    }
+
+    private static byte[] read(HeadlessDeviceMemory memory, int length) {
+        byte[] bytes = new byte[length];
+        MemoryUtil.memByteBuffer(memory.address(), length).get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,444 @@
+package rogo.sketch.backend.headless;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.api.graphics.DescriptorStability;
+import rogo.sketch.core.api.graphics.SubmissionCapability;
+import rogo.sketch.core.api.model.BakedTypeMesh;
+import rogo.sketch.core.api.model.SharedGeometrySourceSnapshot;
+import rogo.sketch.core.backend.BackendGeometryBinding;
+import rogo.sketch.core.backend.BackendKind;
+import rogo.sketch.core.data.PrimitiveType;
+import rogo.sketch.core.data.layout.StructLayout;
+import rogo.sketch.core.driver.GraphicsDriver;
+import rogo.sketch.core.driver.state.DefaultRenderStates;
+import rogo.sketch.core.driver.state.RenderStatePatch;
+import rogo.sketch.core.driver.state.component.ShaderState;
+import rogo.sketch.core.graphics.ecs.GraphicsBuiltinComponents;
+import rogo.sketch.core.graphics.ecs.GraphicsEntityId;
+import rogo.sketch.core.graphics.ecs.GraphicsEntityPresets;
+import rogo.sketch.core.graphics.ecs.GraphicsUniformSubject;
+import rogo.sketch.core.packet.DrawPacket;
+import rogo.sketch.core.packet.ExecutionKey;
+import rogo.sketch.core.packet.RenderPacket;
+import rogo.sketch.core.pipeline.CompiledRenderSetting;
+import rogo.sketch.core.pipeline.GraphicsBatchGroup;
+import rogo.sketch.core.pipeline.GraphicsPipeline;
+import rogo.sketch.core.pipeline.GraphicsStage;
+import rogo.sketch.core.pipeline.PartialRenderSetting;
+import rogo.sketch.core.pipeline.PipelineConfig;
+import rogo.sketch.core.pipeline.PipelineType;
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.RenderSetting;
+import rogo.sketch.core.pipeline.RenderSettingCompiler;
+import rogo.sketch.core.pipeline.flow.RenderFlowType;
+import rogo.sketch.core.pipeline.flow.RenderPostProcessors;
+import rogo.sketch.core.pipeline.flow.ecs.GraphicsContainerHints;
+import rogo.sketch.core.pipeline.flow.impl.RasterizationPostProcessor;
+import rogo.sketch.core.pipeline.kernel.FrameExecutionPlan;
+import rogo.sketch.core.pipeline.kernel.StageExecutionPlan;
+import rogo.sketch.core.resource.GraphicsResourceManager;
+import rogo.sketch.core.resource.ResourceBinding;
+import rogo.sketch.core.resource.ResourceTypes;
+import rogo.sketch.core.shader.ShaderType;
+import rogo.sketch.core.shader.preprocessor.SketchShaderPreprocessor;
+import rogo.sketch.core.shader.uniform.FrameUniformSnapshot;
+import rogo.sketch.core.shader.uniform.PipelineUniformRegistry;
+import rogo.sketch.core.shader.uniform.UniformCaptureTiming;
+import rogo.sketch.core.shader.uniform.UniformHookRegistry;
+import rogo.sketch.core.shader.uniform.ValueGetter;
+import rogo.sketch.core.shader.variant.ShaderTemplate;
+import rogo.sketch.core.util.KeyId;
+import rogo.sketch.core.util.OrderRequirement;
+import rogo.sketch.core.vertex.DefaultDataFormats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Retained stage packets on the headless backend: after every scripted scene
+ * edit the retained batch group must produce exactly the packets a cleared
+ * group rebuilds from scratch, and an unedited frame must reuse the previous
+ * plan.
+ */
+class HeadlessRetainedPacketsTest {
+    private static final KeyId STAGE_ID = KeyId.of("test", "retained_stage");
+    private static final KeyId SHADER_ID = KeyId.of("test", "retained_shader");
+    private static final String TINT_UNIFORM = "u_tint";
+    private static final String VERTEX_SOURCE = """
+            #version 330 core
+            in vec3 Position;
+            void main() {
+                gl_Position = vec4(Position, 1.0);
+            }
+            """;
+    private static final String FRAGMENT_SOURCE = """
+            #version 330 core
+            uniform float u_tint;
+            out vec4 fragColor;
+            void main() {
+                fragColor = vec4(u_tint);
+            }
+            """;
+
+    private GraphicsPipeline<RenderContext> pipeline;
+    private GraphicsBatchGroup<RenderContext> retained;
+    private GraphicsBatchGroup<RenderContext> reference;
+    private CompiledRenderSetting setting;
+    private final List<TestMesh> meshes = new ArrayList<>();
+    private final Map<KeyId, Actor> actors = new HashMap<>();
+    private long frameEpoch;
+
+    @BeforeEach
+    void setUp() {
+        if (GraphicsDriver.isBootstrapped()) {
+            GraphicsDriver.shutdown();
+        }
+        if (!GraphicsDriver.hasBackendBootstrap(BackendKind.HEADLESS)) {
+            GraphicsDriver.registerBackendBootstrap(new HeadlessBackendBootstrap());
+        }
+        GraphicsDriver.bootstrap(BackendKind.HEADLESS, HeadlessBackendBootstrap.context("test/retained-packets", 64, 64));
+        DefaultRenderStates.init();
+
+        PipelineUniformRegistry uniforms = new PipelineUniformRegistry();
+        uniforms.register("test", KeyId.of(TINT_UNIFORM), new ValueGetter<>(
+                subject -> actors.get(((GraphicsUniformSubject) subject).identifier()).tint,
+                Float.class,
+                Set.of(GraphicsUniformSubject.class),
+                UniformCaptureTiming.BUILD_ASYNC_SAFE));
+        UniformHookRegistry.getInstance().setRuntimeRegistry(uniforms);
+
+        GraphicsResourceManager resourceManager = new GraphicsResourceManager();
+        pipeline = new GraphicsPipeline<>(new PipelineConfig(), resourceManager, new RenderContext());
+        registerShader();
+        GraphicsStage stage = new GraphicsStage(STAGE_ID, OrderRequirement.Builder.<GraphicsStage>create().build());
+        pipeline.registerStage(stage);
+        retained = pipeline.getBatchGroup(stage);
+        reference = new GraphicsBatchGroup<>(pipeline, stage);
+        for (int i = 0; i < 3; i++) {
+            meshes.add(new TestMesh(KeyId.of("test", "mesh_" + i), i * 24, 24, i * 36, 36));
+        }
+        setting = RenderSettingCompiler.compile(
+                RenderSetting.fromPartial(HeadlessGeometryUploadTest.PARAMETER, PartialRenderSetting.create(
+                        RenderStatePatch.empty().with(new ShaderState(resourceManager, SHADER_ID)),
+                        new ResourceBinding(),
+                        false)),
+                resourceManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        UniformHookRegistry.getInstance().setRuntimeRegistry(null);
+        GraphicsDriver.shutdown();
+    }
+
+    @Test
+    void unchangedSceneReusesThePreviousPlan() {
+        spawnActors(6);
+        settle();
+
+        StageExecutionPlan first = frame();
+        StageExecutionPlan second = frame();
+
+        assertSame(first, second);
+        assertFalse(first.isEmpty());
+    }
+
+    @Test
+    void uniformValueChangeRebuildsToMatchAFullRebuild() {
+        spawnActors(6);
+        StageExecutionPlan before = settle();
+
+        actor(2).tint = 0.75f;
+        StageExecutionPlan after = checkedFrame();
+
+        assertNotSame(before, after);
+        assertSame(after, checkedFrame());
+    }
+
+    @Test
+    void membershipAddAndRemoveMatchAFullRebuild() {
+        spawnActors(6);
+        StageExecutionPlan before = settle();
+
+        spawnActor(6);
+        StageExecutionPlan added = checkedFrame();
+        assertNotSame(before, added);
+
+        pipeline.destroyGraphicsEntity(actor(1).entityId);
+        actors.remove(actorId(1));
+        StageExecutionPlan removed = checkedFrame();
+        assertNotSame(added, removed);
+        assertSame(removed, checkedFrame());
+    }
+
+    @Test
+    void visibilityToggleMatchesAFullRebuild() {
+        spawnActors(6);
+        StageExecutionPlan before = settle();
+
+        setVisible(4, false);
+        StageExecutionPlan hidden = checkedFrame();
+        assertNotSame(before, hidden);
+
+        setVisible(4, true);
+        StageExecutionPlan shown = checkedFrame();
+        assertNotSame(hidden, shown);
+        assertSame(shown, checkedFrame());
+    }
+
+    @Test
+    void geometryRebindMatchesAFullRebuild() {
+        spawnActors(6);
+        StageExecutionPlan before = settle();
+
+        actor(0).mesh = meshes.get(2);
+        // the new batch has no binding until its upload is installed
+        checkedFrame();
+        StageExecutionPlan rebound = checkedFrame();
+
+        assertNotSame(before, rebound);
+        assertSame(rebound, checkedFrame());
+    }
+
+    @Test
+    void meshEvictionAndRematerializationMatchAFullRebuild() {
+        spawnActors(6);
+        StageExecutionPlan before = settle();
+
+        evictFirstBatch(before);
+        StageExecutionPlan evicted = checkedFrame();
+        assertNotSame(before, evicted);
+
+        StageExecutionPlan rematerialized = checkedFrame();
+        assertNotSame(evicted, rematerialized);
+        assertSame(rematerialized, checkedFrame());
+    }
+
+    @Test
+    void resourceReloadDropsRetainedPackets() {
+        spawnActors(6);
+        StageExecutionPlan before = settle();
+        long epoch = pipeline.resourceManager().resourceEpoch();
+
+        registerShader();
+        StageExecutionPlan reloaded = checkedFrame();
+
+        assertFalse(epoch == pipeline.resourceManager().resourceEpoch());
+        assertNotSame(before, reloaded);
+        assertSame(reloaded, checkedFrame());
+    }
+
+    private void registerShader() {
+        pipeline.resourceManager().registerDirect(ResourceTypes.SHADER_TEMPLATE, SHADER_ID, new ShaderTemplate(
+                SHADER_ID,
+                Map.of(ShaderType.VERTEX, VERTEX_SOURCE, ShaderType.FRAGMENT, FRAGMENT_SOURCE),
+                null,
+                new SketchShaderPreprocessor(),
+                pipeline.resourceManager().getSubResourceProvider()));
+    }
+
+    private void spawnActors(int count) {
+        for (int i = 0; i < count; i++) {
+            spawnActor(i);
+        }
+    }
+
+    private void spawnActor(int index) {
+        Actor actor = new Actor(meshes.get(index % meshes.size()), 0.25f);
+        KeyId id = actorId(index);
+        actors.put(id, actor);
+        actor.entityId = pipeline.spawnGraphicsEntity(GraphicsEntityPresets.raster(
+                        id,
+                        STAGE_ID,
+                        PipelineType.RASTERIZATION,
+                        HeadlessGeometryUploadTest.PARAMETER,
+                        GraphicsContainerHints.DEFAULT,
+                        null,
+                        index,
+                        0,
+                        () -> true,
+                        () -> false,
+                        SubmissionCapability.DIRECT_BATCHABLE,
+                        DescriptorStability.STABLE,
+                        () -> 0L,
+                        ignored -> setting)
+                .put(GraphicsBuiltinComponents.PREPARED_MESH, new GraphicsBuiltinComponents.PreparedMeshComponent(() -> actor.mesh))
+                .build());
+    }
+
+    /**
+     * Apply a lifecycle change the way the transform module's lifecycle sync does.
+     */
+    private void setVisible(int index, boolean visible) {
+        pipeline.graphicsWorld().replaceComponent(
+                actor(index).entityId,
+                GraphicsBuiltinComponents.LIFECYCLE,
+                new GraphicsBuiltinComponents.LifecycleComponent(visible, false));
+    }
+
+    private Actor actor(int index) {
+        return actors.get(actorId(index));
+    }
+
+    private static KeyId actorId(int index) {
+        return KeyId.of("test", "actor_" + index);
+    }
+
+    private void evictFirstBatch(StageExecutionPlan plan) {
+        for (Map<ExecutionKey, List<RenderPacket>> byState : plan.packets().values()) {
+            for (List<RenderPacket> packets : byState.values()) {
+                DrawPacket draw = (DrawPacket) packets.get(0);
+                pipeline.getMeshResidencyPool(PipelineType.RASTERIZATION).remove(draw.geometryHandle().vertexBufferKey());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Run frames until the first geometry uploads are installed and the
+     * retained path has taken over, and return the retained plan.
+     */
+    private StageExecutionPlan settle() {
+        checkedFrame();
+        checkedFrame();
+        StageExecutionPlan settled = checkedFrame();
+        assertSame(settled, checkedFrame());
+        return settled;
+    }
+
+    /**
+     * One frame through the retained group, checked against a cleared group
+     * that rebuilds the same scene on the same tick.
+     */
+    private StageExecutionPlan checkedFrame() {
+        pipeline.tickLogic();
+        StageExecutionPlan plan = frame();
+        reference.clear();
+        StageExecutionPlan rebuilt = buildPlan(reference, newPostProcessors());
+        assertEquals(describe(rebuilt), describe(plan));
+        return plan;
+    }
+
+    private StageExecutionPlan frame() {
+        RenderPostProcessors postProcessors = newPostProcessors();
+        StageExecutionPlan plan = buildPlan(retained, postProcessors);
+        RasterizationPostProcessor processor = postProcessors.get(RenderFlowType.RASTERIZATION);
+        GraphicsDriver.resourceAllocator().installExecutionPlan(
+                pipeline,
+                new FrameExecutionPlan(Map.of(STAGE_ID, plan), processor.geometryUploadPlans(), processor.resourceUploadPlans(), null, null),
+                frameEpoch++,
+                1,
+                true);
+        return plan;
+    }
+
+    private StageExecutionPlan buildPlan(GraphicsBatchGroup<RenderContext> group, RenderPostProcessors postProcessors) {
+        RenderContext context = pipeline.currentContext();
+        group.prepareForFrame(context, FrameUniformSnapshot.empty());
+        return group.createStageExecutionPlan(context, postProcessors, FrameUniformSnapshot.empty());
+    }
+
+    private static RenderPostProcessors newPostProcessors() {
+        RenderPostProcessors postProcessors = new RenderPostProcessors();
+        postProcessors.register(RenderFlowType.RASTERIZATION, new RasterizationPostProcessor());
+        return postProcessors;
+    }
+
+    /**
+     * Value view of a plan's packets. Completion subjects compare by identity
+     * and packed draw commands not at all, so both are reduced to values.
+     */
+    private static List<Object> describe(StageExecutionPlan plan) {
+        List<Object> description = new ArrayList<>();
+        for (Map<ExecutionKey, List<RenderPacket>> byState : plan.packets().values()) {
+            for (Map.Entry<ExecutionKey, List<RenderPacket>> entry : byState.entrySet()) {
+                description.add(entry.getKey());
+                for (RenderPacket packet : entry.getValue()) {
+                    DrawPacket draw = (DrawPacket) packet;
+                    List<GraphicsEntityId> subjects = new ArrayList<>();
+                    for (GraphicsUniformSubject subject : draw.completionSubjects()) {
+                        subjects.add(subject.entityId());
+                    }
+                    description.add(List.of(
+                            draw.stateKey(),
+                            draw.bindingPlan(),
+                            draw.resourceSetKey(),
+                            draw.uniformGroups(),
+                            subjects,
+                            draw.geometryHandle(),
+                            draw.drawPlan().directCommands().toItems(),
+                            draw.drawPlan().instanceCount()));
+                }
+            }
+        }
+        return description;
+    }
+
+    private static final class Actor {
+        private TestMesh mesh;
+        private float tint;
+        private GraphicsEntityId entityId;
+
+        private Actor(TestMesh mesh, float tint) {
+            this.mesh = mesh;
+            this.tint = tint;
+        }
+    }
+
+    private record TestMesh(KeyId id, int vertexOffset, int vertexCount, int indexOffset, int indexCount) implements BakedTypeMesh {
+        @Override
+        public KeyId getKetId() {
+            return id;
+        }
+
+        @Override
+        public PrimitiveType getPrimitiveType() {
+            return PrimitiveType.TRIANGLES;
+        }
+
+        @Override
+        public StructLayout getVertexFormat() {
+            return DefaultDataFormats.POSITION;
+        }
+
+        @Override
+        public int getVertexCount() {
+            return vertexCount;
+        }
+
+        @Override
+        public int getIndicesCount() {
+            return indexCount;
+        }
+
+        @Override
+        public int getVertexOffset() {
+            return vertexOffset;
+        }
+
+        @Override
+        public int getIndexOffset() {
+            return indexOffset;
+        }
+
+        @Override
+        public BackendGeometryBinding sourceGeometryBinding() {
+            return null;
+        }
+
+        @Override
+        public SharedGeometrySourceSnapshot sharedGeometrySourceSnapshot() {
+            return null;
+        }
+    }
+}
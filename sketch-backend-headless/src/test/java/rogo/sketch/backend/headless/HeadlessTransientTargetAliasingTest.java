@@ -0,0 +1,244 @@
+package rogo.sketch.backend.headless;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.backend.BackendKind;
+import rogo.sketch.core.driver.GraphicsDriver;
+import rogo.sketch.core.memory.ImageMemoryEstimator;
+import rogo.sketch.core.memory.MemoryDomain;
+import rogo.sketch.core.memory.UnifiedMemoryFabric;
+import rogo.sketch.core.packet.ClearPacket;
+import rogo.sketch.core.packet.ExecutionKey;
+import rogo.sketch.core.packet.RenderPacket;
+import rogo.sketch.core.packet.ResourceBindingPlan;
+import rogo.sketch.core.packet.TransferPlanKey;
+import rogo.sketch.core.pipeline.GraphicsPipeline;
+import rogo.sketch.core.pipeline.PipelineConfig;
+import rogo.sketch.core.pipeline.PipelineType;
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.kernel.FrameExecutionPlan;
+import rogo.sketch.core.pipeline.kernel.StageExecutionPlan;
+import rogo.sketch.core.resource.GraphicsResourceManager;
+import rogo.sketch.core.resource.ResourceTypes;
+import rogo.sketch.core.resource.descriptor.ImageFormat;
+import rogo.sketch.core.resource.descriptor.ImageUsage;
+import rogo.sketch.core.resource.descriptor.RenderTargetResolutionMode;
+import rogo.sketch.core.resource.descriptor.ResolvedImageResource;
+import rogo.sketch.core.resource.descriptor.ResolvedRenderTargetSpec;
+import rogo.sketch.core.resource.descriptor.SamplerFilter;
+import rogo.sketch.core.resource.descriptor.SamplerWrap;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Attachment storage of transient render targets on the headless backend.
+ * Four targets with the same layout are each cleared by their own stage, so
+ * the alias plan puts them in one slot; the same frame with the targets
+ * declared persistent is the baseline. Bytes are the reserved
+ * {@link MemoryDomain#GPU_TEXTURE} bytes the textures add.
+ */
+class HeadlessTransientTargetAliasingTest {
+    private static final int TARGET_COUNT = 4;
+    private static final int SIZE = 128;
+
+    private GraphicsPipeline<RenderContext> pipeline;
+    private long frameEpoch;
+
+    @BeforeEach
+    void setUp() {
+        if (GraphicsDriver.isBootstrapped()) {
+            GraphicsDriver.shutdown();
+        }
+        if (!GraphicsDriver.hasBackendBootstrap(BackendKind.HEADLESS)) {
+            GraphicsDriver.registerBackendBootstrap(new HeadlessBackendBootstrap());
+        }
+        GraphicsDriver.bootstrap(BackendKind.HEADLESS, HeadlessBackendBootstrap.context("test/transient-aliasing", 64, 64));
+        pipeline = new GraphicsPipeline<>(new PipelineConfig(), new GraphicsResourceManager(), new RenderContext());
+    }
+
+    @AfterEach
+    void tearDown() {
+        GraphicsDriver.shutdown();
+    }
+
+    @Test
+    void persistentTargetsKeepOneAllocationPerAttachment() {
+        long baseline = textureBytes();
+        registerTargets(false);
+        install(sequentialFrame());
+
+        assertEquals(TARGET_COUNT * 2, backingAllocations().size());
+        assertEquals(TARGET_COUNT * targetBytes(), textureBytes() - baseline);
+    }
+
+    @Test
+    void disjointTransientTargetsShareOneAllocationPerAttachment() {
+        long baseline = textureBytes();
+        registerTargets(true);
+        install(sequentialFrame());
+
+        Set<HeadlessDeviceMemory> backing = backingAllocations();
+        assertEquals(2, backing.size());
+        assertEquals(targetBytes(), textureBytes() - baseline);
+        for (int i = 1; i < TARGET_COUNT; i++) {
+            assertSame(texture(color(0)).device(), texture(color(i)).device());
+            assertSame(texture(depth(0)).device(), texture(depth(i)).device());
+        }
+        assertNotSame(texture(color(0)).device(), texture(depth(0)).device());
+    }
+
+    @Test
+    void overlappingTargetsGetDedicatedStorageBack() {
+        long baseline = textureBytes();
+        registerTargets(true);
+        install(sequentialFrame());
+        HeadlessDeviceMemory shared = texture(color(0)).device();
+
+        // one stage renders every target, so no two can share a slot
+        install(singleStageFrame());
+
+        assertEquals(TARGET_COUNT * 2, backingAllocations().size());
+        assertEquals(TARGET_COUNT * targetBytes(), textureBytes() - baseline);
+        assertTrue(shared.isFreed());
+        for (HeadlessDeviceMemory memory : backingAllocations()) {
+            assertFalse(memory.isFreed());
+        }
+    }
+
+    @Test
+    void retainedStagePlansReuseTheSlotStorage() {
+        registerTargets(true);
+        Map<KeyId, StageExecutionPlan> frame = sequentialFrame();
+        install(frame);
+        HeadlessDeviceMemory shared = texture(color(0)).device();
+
+        install(frame);
+        install(frame);
+
+        assertSame(shared, texture(color(TARGET_COUNT - 1)).device());
+        assertFalse(shared.isFreed());
+    }
+
+    private void registerTargets(boolean transientTargets) {
+        GraphicsResourceManager resourceManager = pipeline.resourceManager();
+        for (int i = 0; i < TARGET_COUNT; i++) {
+            registerTexture(resourceManager, color(i), ImageFormat.RGBA8_UNORM, ImageUsage.COLOR_ATTACHMENT);
+            registerTexture(resourceManager, depth(i), ImageFormat.D32_FLOAT, ImageUsage.DEPTH_ATTACHMENT);
+            ResolvedRenderTargetSpec spec = new ResolvedRenderTargetSpec(
+                    target(i),
+                    RenderTargetResolutionMode.FIXED,
+                    SIZE,
+                    SIZE,
+                    1.0f,
+                    1.0f,
+                    List.of(color(i)),
+                    depth(i),
+                    null,
+                    transientTargets);
+            resourceManager.registerDirect(
+                    ResourceTypes.RENDER_TARGET,
+                    target(i),
+                    GraphicsDriver.resourceAllocator().installRenderTarget(target(i), spec));
+        }
+    }
+
+    private static void registerTexture(GraphicsResourceManager resourceManager, KeyId id, ImageFormat format, ImageUsage usage) {
+        ResolvedImageResource descriptor = new ResolvedImageResource(
+                id, SIZE, SIZE, 1, format, Set.of(usage, ImageUsage.SAMPLED),
+                SamplerFilter.NEAREST, SamplerFilter.NEAREST, null,
+                SamplerWrap.CLAMP_TO_EDGE, SamplerWrap.CLAMP_TO_EDGE, null, true);
+        resourceManager.registerDirect(
+                ResourceTypes.TEXTURE,
+                id,
+                GraphicsDriver.resourceAllocator().installTexture(id, descriptor, null, null));
+    }
+
+    private void install(Map<KeyId, StageExecutionPlan> stagePlans) {
+        GraphicsDriver.resourceAllocator().installExecutionPlan(
+                pipeline,
+                new FrameExecutionPlan(stagePlans, List.of(), List.of(), Map.of(), null),
+                frameEpoch++,
+                1,
+                true);
+    }
+
+    private static Map<KeyId, StageExecutionPlan> sequentialFrame() {
+        Map<KeyId, StageExecutionPlan> frame = new LinkedHashMap<>();
+        for (int i = 0; i < TARGET_COUNT; i++) {
+            KeyId stageId = KeyId.of("test", "pass_" + i);
+            frame.put(stageId, stage(stageId, List.of(clear(target(i)))));
+        }
+        return frame;
+    }
+
+    private static Map<KeyId, StageExecutionPlan> singleStageFrame() {
+        List<RenderPacket> clears = new ArrayList<>();
+        for (int i = 0; i < TARGET_COUNT; i++) {
+            clears.add(clear(target(i)));
+        }
+        KeyId stageId = KeyId.of("test", "all_passes");
+        return Map.of(stageId, stage(stageId, clears));
+    }
+
+    private static StageExecutionPlan stage(KeyId stageId, List<RenderPacket> packets) {
+        Map<ExecutionKey, List<RenderPacket>> byState = new LinkedHashMap<>();
+        for (RenderPacket packet : packets) {
+            byState.computeIfAbsent(packet.stateKey(), key -> new ArrayList<>()).add(packet);
+        }
+        return StageExecutionPlan.fromPackets(stageId, Map.of(PipelineType.FUNCTION, byState));
+    }
+
+    private static ClearPacket clear(KeyId target) {
+        return new ClearPacket(null, PipelineType.FUNCTION, TransferPlanKey.forRenderTarget(target),
+                ResourceBindingPlan.empty(), null, List.of(), target, List.of(),
+                true, true, new float[]{0, 0, 0, 0}, 1.0f, null, false);
+    }
+
+    private Set<HeadlessDeviceMemory> backingAllocations() {
+        Set<HeadlessDeviceMemory> backing = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < TARGET_COUNT; i++) {
+            backing.add(texture(color(i)).device());
+            backing.add(texture(depth(i)).device());
+        }
+        return backing;
+    }
+
+    private HeadlessTexture texture(KeyId id) {
+        return (HeadlessTexture) pipeline.resourceManager().getResource(ResourceTypes.TEXTURE, id);
+    }
+
+    private static long targetBytes() {
+        return ImageMemoryEstimator.estimateBytes(SIZE, SIZE, 1, ImageFormat.RGBA8_UNORM)
+                + ImageMemoryEstimator.estimateBytes(SIZE, SIZE, 1, ImageFormat.D32_FLOAT);
+    }
+
+    private static long textureBytes() {
+        return UnifiedMemoryFabric.get().reservedBytes(MemoryDomain.GPU_TEXTURE);
+    }
+
+    private static KeyId target(int index) {
+        return KeyId.of("test", "target_" + index);
+    }
+
+    private static KeyId color(int index) {
+        return KeyId.of("test", "target_" + index + "_color");
+    }
+
+    private static KeyId depth(int index) {
+        return KeyId.of("test", "target_" + index + "_depth");
+    }
+}
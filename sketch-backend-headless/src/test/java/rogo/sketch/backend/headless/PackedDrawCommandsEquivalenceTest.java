@@ -0,0 +1,257 @@
+package rogo.sketch.backend.headless;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.system.MemoryUtil;
+import rogo.sketch.core.backend.BackendKind;
+import rogo.sketch.core.data.PrimitiveType;
+import rogo.sketch.core.driver.GraphicsDriver;
+import rogo.sketch.core.packet.DrawPacket;
+import rogo.sketch.core.packet.DrawPlan;
+import rogo.sketch.core.packet.draw.IndexedDrawSlice;
+import rogo.sketch.core.packet.draw.PackedDrawCommands;
+import rogo.sketch.core.pipeline.GraphicsPipeline;
+import rogo.sketch.core.pipeline.PipelineConfig;
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.indirect.IndirectCommandBatch;
+import rogo.sketch.core.pipeline.indirect.PersistentIndirectSlice;
+import rogo.sketch.core.resource.GraphicsResourceManager;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * {@link PackedDrawCommands} against the {@link DrawPlan.DirectDrawItem}
+ * records it replaced: the packed columns, the plans built from them, the
+ * indirect commands they write and the draws the headless executor issues
+ * must all match what the record form produced.
+ */
+class PackedDrawCommandsEquivalenceTest {
+    private static final int BATCHES = 2000;
+    private static final KeyId STAGE = KeyId.of("test:packed_draws");
+
+    @BeforeEach
+    void setUp() {
+        if (GraphicsDriver.isBootstrapped()) {
+            GraphicsDriver.shutdown();
+        }
+        if (!GraphicsDriver.hasBackendBootstrap(BackendKind.HEADLESS)) {
+            GraphicsDriver.registerBackendBootstrap(new HeadlessBackendBootstrap());
+        }
+        GraphicsDriver.bootstrap(BackendKind.HEADLESS, HeadlessBackendBootstrap.context("test/packed-draws", 64, 64));
+    }
+
+    @AfterEach
+    void tearDown() {
+        GraphicsDriver.shutdown();
+    }
+
+    @Test
+    void packedColumnsMatchRecords() {
+        Random random = new Random(47L);
+        PackedDrawCommands.Builder pooled = new PackedDrawCommands.Builder(1);
+        for (int batch = 0; batch < BATCHES; batch++) {
+            List<DrawPlan.DirectDrawItem> items = randomItems(random);
+            PackedDrawCommands packed = PackedDrawCommands.of(items);
+
+            // The compiler's path: a pooled builder fed raw columns
+            pooled.reset();
+            for (int i = 0; i < items.size(); i++) {
+                DrawPlan.DirectDrawItem item = items.get(i);
+                if (item.indexed()) {
+                    IndexedDrawSlice slice = item.indexedSlice();
+                    pooled.appendIndexed(slice.sourceToken(), slice.baseVertex(), slice.indexCount(),
+                            slice.firstIndexByteOffset(), item.instanceCount(), item.baseInstance(), i);
+                } else {
+                    pooled.appendNonIndexed(item.vertexCount(), item.firstVertex(), item.instanceCount(), item.baseInstance(), i);
+                }
+            }
+            PackedDrawCommands built = pooled.build();
+
+            for (PackedDrawCommands commands : List.of(packed, built)) {
+                assertEquals(items.size(), commands.size());
+                for (int i = 0; i < items.size(); i++) {
+                    assertCommandMatches(items.get(i), commands, i, "batch " + batch + " command " + i);
+                    assertEquals(i, commands.sortKey(i));
+                }
+                assertEquals(items, commands.toItems());
+                assertSame(commands.toItems(), commands.toItems());
+            }
+        }
+    }
+
+    @Test
+    void plansMatchRecordFactories() {
+        Random random = new Random(48L);
+        for (int batch = 0; batch < BATCHES; batch++) {
+            List<DrawPlan.DirectDrawItem> items = randomItems(random);
+            PackedDrawCommands packed = PackedDrawCommands.of(items);
+            DrawPlan.DirectDrawItem first = items.get(0);
+
+            if (items.size() == 1) {
+                DrawPlan expected = first.indexed()
+                        ? DrawPlan.directIndexed(PrimitiveType.TRIANGLES, first.indexedSlice(), first.instanceCount(), first.baseInstance())
+                        : DrawPlan.directNonIndexed(PrimitiveType.TRIANGLES, first.vertexCount(), first.firstVertex(), first.instanceCount(), first.baseInstance());
+                assertPlanMatches(expected, DrawPlan.direct(PrimitiveType.TRIANGLES, packed), "batch " + batch);
+                assertEquals(items, expected.directItems());
+            }
+            // Field for field what the record-backed directBatch built
+            DrawPlan expected = new DrawPlan(
+                    DrawPlan.DrawSubmission.DIRECT_BATCH,
+                    PrimitiveType.TRIANGLES,
+                    first.indexed(),
+                    first.indexedSlice(),
+                    first.vertexCount(),
+                    first.firstVertex(),
+                    first.instanceCount(),
+                    first.baseInstance(),
+                    items.size(),
+                    0L,
+                    0,
+                    packed);
+            assertPlanMatches(expected, DrawPlan.directBatch(PrimitiveType.TRIANGLES, items), "batch " + batch);
+            assertPlanMatches(expected, DrawPlan.directBatch(PrimitiveType.TRIANGLES, packed), "batch " + batch);
+            if (items.size() > 1) {
+                assertPlanMatches(expected, DrawPlan.direct(PrimitiveType.TRIANGLES, packed), "batch " + batch);
+            }
+        }
+    }
+
+    @Test
+    void indirectCommandsWriteTheSameBytes() {
+        Random random = new Random(49L);
+        HeadlessCommandLog log = new HeadlessCommandLog();
+        HeadlessIndirectBuffer fromRecords = new HeadlessIndirectBuffer(1L, log, 1L);
+        HeadlessIndirectBuffer fromPacked = new HeadlessIndirectBuffer(2L, log, 1L);
+        try {
+            for (int batch = 0; batch < BATCHES; batch++) {
+                List<DrawPlan.DirectDrawItem> items = randomItems(random);
+                PersistentIndirectSlice slice = new PersistentIndirectSlice(random.nextInt(8), items.size(), items.size());
+                int commands = slice.startCommandIndex() + items.size();
+                fromRecords.ensureCommandCapacity(commands);
+                fromPacked.ensureCommandCapacity(commands);
+                long bytes = commands * fromRecords.strideBytes();
+                MemoryUtil.memSet(fromRecords.memoryAddress(), 0, bytes);
+                MemoryUtil.memSet(fromPacked.memoryAddress(), 0, bytes);
+
+                IndirectCommandBatch.from(items).writeTo(fromRecords, slice);
+                IndirectCommandBatch.from(PackedDrawCommands.of(items)).writeTo(fromPacked, slice);
+
+                assertArrayEquals(read(fromRecords.memoryAddress(), bytes), read(fromPacked.memoryAddress(), bytes), "batch " + batch);
+                assertEquals(IndirectCommandBatch.from(items).indexed(), IndirectCommandBatch.from(PackedDrawCommands.of(items)).indexed());
+            }
+        } finally {
+            fromRecords.dispose();
+            fromPacked.dispose();
+        }
+    }
+
+    @Test
+    void headlessExecutorIssuesTheRecordFormDraws() {
+        Random random = new Random(50L);
+        GraphicsPipeline<RenderContext> pipeline = new GraphicsPipeline<>(new PipelineConfig(), new GraphicsResourceManager(), new RenderContext());
+        HeadlessCommandLog log = new HeadlessCommandLog();
+        HeadlessCommandLog expected = new HeadlessCommandLog();
+        HeadlessFrameExecutor executor = new HeadlessFrameExecutor(log);
+
+        for (int batch = 0; batch < BATCHES; batch++) {
+            List<DrawPlan.DirectDrawItem> items = randomItems(random);
+            DrawPlan plan = random.nextBoolean()
+                    ? DrawPlan.directBatch(PrimitiveType.TRIANGLES, items)
+                    : DrawPlan.direct(PrimitiveType.TRIANGLES, PackedDrawCommands.of(items));
+            DrawPacket packet = new DrawPacket(STAGE, null, null, null, null, null, null, null, plan);
+            executor.packetHandlerRegistry().handlerFor(packet).execute(pipeline, packet, pipeline.currentContext(), executor);
+
+            // The record form's draws, with the first index the packed form must carry too
+            for (DrawPlan.DirectDrawItem item : items) {
+                if (item.indexed()) {
+                    IndexedDrawSlice slice = item.indexedSlice();
+                    expected.record(HeadlessCommand.DRAW_INDEXED, slice.indexCount(), item.instanceCount(),
+                            slice.baseVertex(), slice.firstIndexByteOffset() / Integer.BYTES);
+                } else {
+                    expected.record(HeadlessCommand.DRAW, item.vertexCount(), item.instanceCount(), item.firstVertex());
+                }
+            }
+        }
+
+        assertEquals(entries(expected), entries(log));
+        assertEquals(expected.stats(), log.stats());
+    }
+
+    private static List<DrawPlan.DirectDrawItem> randomItems(Random random) {
+        int count = random.nextInt(4) == 0 ? 1 : 1 + random.nextInt(random.nextBoolean() ? 8 : 300);
+        int indexedBias = random.nextInt(3);
+        List<DrawPlan.DirectDrawItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Homogeneous batches mostly, with some mixed ones
+            boolean indexed = indexedBias == 2 ? random.nextBoolean() : indexedBias == 1;
+            int instanceCount = 1 + random.nextInt(64);
+            int baseInstance = random.nextInt(1 << 16);
+            if (indexed) {
+                IndexedDrawSlice slice = new IndexedDrawSlice(
+                        random.nextLong(),
+                        random.nextInt(1 << 20) - (1 << 10),
+                        random.nextInt(1 << 16),
+                        (long) random.nextInt(1 << 24) * Integer.BYTES);
+                items.add(DrawPlan.DirectDrawItem.indexed(slice, instanceCount, baseInstance));
+            } else {
+                items.add(DrawPlan.DirectDrawItem.nonIndexed(random.nextInt(1 << 16), random.nextInt(1 << 20), instanceCount, baseInstance));
+            }
+        }
+        return items;
+    }
+
+    private static void assertCommandMatches(DrawPlan.DirectDrawItem item, PackedDrawCommands commands, int i, String label) {
+        assertEquals(item.indexed(), commands.indexed(i), label);
+        assertEquals(item.instanceCount(), commands.instanceCount(i), label);
+        assertEquals(item.baseInstance(), commands.baseInstance(i), label);
+        if (item.indexed()) {
+            IndexedDrawSlice slice = item.indexedSlice();
+            assertEquals(slice.indexCount(), commands.elementCount(i), label);
+            assertEquals(slice.baseVertex(), commands.baseVertex(i), label);
+            assertEquals(slice.firstIndexByteOffset(), commands.firstIndexByteOffset(i), label);
+            assertEquals((int) (slice.firstIndexByteOffset() / Integer.BYTES), commands.firstIndex(i), label);
+            assertEquals(slice.sourceToken(), commands.sourceToken(i), label);
+            assertEquals(slice, commands.indexedSlice(i), label);
+        } else {
+            assertEquals(item.vertexCount(), commands.elementCount(i), label);
+            assertEquals(item.firstVertex(), commands.firstVertex(i), label);
+            assertEquals(null, commands.indexedSlice(i), label);
+        }
+        assertEquals(item, commands.item(i), label);
+    }
+
+    private static void assertPlanMatches(DrawPlan expected, DrawPlan actual, String label) {
+        assertEquals(expected.submission(), actual.submission(), label);
+        assertEquals(expected.primitiveType(), actual.primitiveType(), label);
+        assertEquals(expected.indexed(), actual.indexed(), label);
+        assertEquals(expected.indexedSlice(), actual.indexedSlice(), label);
+        assertEquals(expected.vertexCount(), actual.vertexCount(), label);
+        assertEquals(expected.firstVertex(), actual.firstVertex(), label);
+        assertEquals(expected.instanceCount(), actual.instanceCount(), label);
+        assertEquals(expected.baseInstance(), actual.baseInstance(), label);
+        assertEquals(expected.drawCount(), actual.drawCount(), label);
+        assertEquals(expected.indirectOffset(), actual.indirectOffset(), label);
+        assertEquals(expected.indirectStride(), actual.indirectStride(), label);
+        assertEquals(expected.directItems(), actual.directItems(), label);
+    }
+
+    private static byte[] read(long address, long bytes) {
+        byte[] copy = new byte[(int) bytes];
+        MemoryUtil.memByteBuffer(address, (int) bytes).get(copy);
+        return copy;
+    }
+
+    private static List<List<Long>> entries(HeadlessCommandLog log) {
+        List<List<Long>> entries = new ArrayList<>();
+        log.replay((command, a, b, c, d) -> entries.add(List.of((long) command.ordinal(), a, b, c, d)));
+        return entries;
+    }
+}
@@ -33,7 +33,8 @@ public final class OpenGLBackendRuntime implements BackendRuntime {
                 GLRuntimeFlags.allowUploadWorker(),
                 GLRuntimeFlags.allowComputeWorker(),
                 GLRuntimeFlags.GL_WORKER_ENABLED,
-                false);
+                false,
+                true);
         OpenGLBackendResourceResolver resourceResolver = new OpenGLBackendResourceResolver();
         BackendShaderProgramCache shaderProgramCache = new OpenGLBackendShaderProgramCache(api);
         this.resourceAllocator = new OpenGLResourceAllocator(api, resourceResolver);
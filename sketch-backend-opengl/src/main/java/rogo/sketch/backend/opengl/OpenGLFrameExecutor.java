@@ -12,6 +12,7 @@ import rogo.sketch.core.driver.state.component.ColorMaskState;
 import rogo.sketch.core.driver.state.snapshot.SnapshotScope;
 import rogo.sketch.core.graphics.ecs.GraphicsUniformSubject;
 import rogo.sketch.core.packet.*;
+import rogo.sketch.core.packet.draw.PackedDrawCommands;
 import rogo.sketch.core.pipeline.GraphicsPipeline;
 import rogo.sketch.core.pipeline.RenderContext;
 import rogo.sketch.core.pipeline.RenderStateManager;
@@ -230,7 +231,7 @@ public final class OpenGLFrameExecutor implements BackendFrameExecutor {
                 ? resolvedIndirectBuffer
                 : null;
         DrawPlan drawPlan = packet.drawPlan();
-        if (drawPlan.submission() != DrawPlan.DrawSubmission.MULTI_DRAW_INDIRECT && drawPlan.directItems().isEmpty()) {
+        if (drawPlan.submission() != DrawPlan.DrawSubmission.MULTI_DRAW_INDIRECT && drawPlan.directCommands().isEmpty()) {
             traceBackendDrop(pipeline, packet, "backend_empty_direct_items");
             return;
         }
@@ -275,7 +276,7 @@ public final class OpenGLFrameExecutor implements BackendFrameExecutor {
                 return;
             }
 
-            if (drawPlan.directItems().isEmpty()) {
+            if (drawPlan.directCommands().isEmpty()) {
                 return;
             }
 
@@ -286,60 +287,57 @@ public final class OpenGLFrameExecutor implements BackendFrameExecutor {
     }
 
     private void executeDirectBatchOptimized(OpenGLGeometryBinding geometryBinding, DrawPlan drawPlan) {
-        List<DrawPlan.DirectDrawItem> directItems = drawPlan.directItems();
+        PackedDrawCommands commands = drawPlan.directCommands();
         int index = 0;
-        while (index < directItems.size()) {
-            DrawPlan.DirectDrawItem item = directItems.get(index);
-            if (canUseNativeMultiDraw(item)) {
+        while (index < commands.size()) {
+            if (canUseNativeMultiDraw(commands, index)) {
                 int segmentEnd = index + 1;
-                while (segmentEnd < directItems.size()
-                        && canBatchWithNativeMultiDraw(item, directItems.get(segmentEnd))) {
+                while (segmentEnd < commands.size()
+                        && canBatchWithNativeMultiDraw(commands, index, segmentEnd)) {
                     segmentEnd++;
                 }
                 if (segmentEnd - index > 1) {
-                    executeNativeMultiDraw(geometryBinding, drawPlan, directItems.subList(index, segmentEnd));
+                    executeNativeMultiDraw(geometryBinding, drawPlan, commands, index, segmentEnd);
                     index = segmentEnd;
                     continue;
                 }
             }
-            executeDirectItem(geometryBinding, drawPlan, item);
+            executeDirectCommand(geometryBinding, drawPlan, commands, index);
             index++;
         }
     }
 
-    private boolean canUseNativeMultiDraw(DrawPlan.DirectDrawItem item) {
-        if (item == null || item.instanceCount() != 1 || item.baseInstance() != 0) {
-            return false;
-        }
-        if (item.indexed()) {
-            return item.indexedSlice() != null && item.indexedSlice().indexCount() > 0;
-        }
-        return item.vertexCount() > 0;
+    private boolean canUseNativeMultiDraw(PackedDrawCommands commands, int command) {
+        return commands.instanceCount(command) == 1
+                && commands.baseInstance(command) == 0
+                && commands.elementCount(command) > 0;
     }
 
     private boolean canBatchWithNativeMultiDraw(
-            DrawPlan.DirectDrawItem reference,
-            DrawPlan.DirectDrawItem candidate) {
-        return reference != null
-                && candidate != null
-                && reference.indexed() == candidate.indexed()
-                && canUseNativeMultiDraw(candidate);
+            PackedDrawCommands commands,
+            int reference,
+            int candidate) {
+        return commands.indexed(reference) == commands.indexed(candidate)
+                && canUseNativeMultiDraw(commands, candidate);
     }
 
     private void executeNativeMultiDraw(
             OpenGLGeometryBinding geometryBinding,
             DrawPlan drawPlan,
-            List<DrawPlan.DirectDrawItem> items) {
-        if (items == null || items.size() <= 1) {
+            PackedDrawCommands commands,
+            int from,
+            int to) {
+        int drawCount = to - from;
+        if (drawCount <= 1) {
             return;
         }
         try (MemoryStack stack = MemoryStack.stackPush()) {
-            if (!items.get(0).indexed()) {
-                java.nio.IntBuffer firsts = stack.mallocInt(items.size());
-                java.nio.IntBuffer counts = stack.mallocInt(items.size());
-                for (DrawPlan.DirectDrawItem item : items) {
-                    firsts.put(item.firstVertex());
-                    counts.put(item.vertexCount());
+            if (!commands.indexed(from)) {
+                java.nio.IntBuffer firsts = stack.mallocInt(drawCount);
+                java.nio.IntBuffer counts = stack.mallocInt(drawCount);
+                for (int i = from; i < to; i++) {
+                    firsts.put(commands.firstVertex(i));
+                    counts.put(commands.elementCount(i));
                 }
                 firsts.flip();
                 counts.flip();
@@ -347,13 +345,13 @@ public final class OpenGLFrameExecutor implements BackendFrameExecutor {
                 return;
             }
 
-            java.nio.IntBuffer counts = stack.mallocInt(items.size());
-            PointerBuffer indices = stack.mallocPointer(items.size());
-            java.nio.IntBuffer baseVertices = stack.mallocInt(items.size());
-            for (DrawPlan.DirectDrawItem item : items) {
-                counts.put(item.indexedSlice().indexCount());
-                indices.put(item.indexedSlice().firstIndexByteOffset());
-                baseVertices.put(item.indexedSlice().baseVertex());
+            java.nio.IntBuffer counts = stack.mallocInt(drawCount);
+            PointerBuffer indices = stack.mallocPointer(drawCount);
+            java.nio.IntBuffer baseVertices = stack.mallocInt(drawCount);
+            for (int i = from; i < to; i++) {
+                counts.put(commands.elementCount(i));
+                indices.put(commands.firstIndexByteOffset(i));
+                baseVertices.put(commands.baseVertex(i));
             }
             counts.flip();
             indices.flip();
@@ -367,50 +365,55 @@ public final class OpenGLFrameExecutor implements BackendFrameExecutor {
         }
     }
 
-    private void executeDirectItem(OpenGLGeometryBinding geometryBinding, DrawPlan drawPlan, DrawPlan.DirectDrawItem item) {
-        if (item == null) {
-            return;
-        }
-        if (!item.indexed()) {
-            if (item.instanceCount() <= 0 || item.vertexCount() <= 0) {
+    private void executeDirectCommand(
+            OpenGLGeometryBinding geometryBinding,
+            DrawPlan drawPlan,
+            PackedDrawCommands commands,
+            int command) {
+        int instanceCount = commands.instanceCount(command);
+        int baseInstance = commands.baseInstance(command);
+        if (!commands.indexed(command)) {
+            int vertexCount = commands.elementCount(command);
+            int firstVertex = commands.firstVertex(command);
+            if (instanceCount <= 0 || vertexCount <= 0) {
                 return;
             }
-            if (item.instanceCount() == 1 && item.baseInstance() == 0) {
+            if (instanceCount == 1 && baseInstance == 0) {
                 GL11.glDrawArrays(
                         OpenGLPrimitiveMappings.toGlType(drawPlan.primitiveType()),
-                        item.firstVertex(),
-                        item.vertexCount());
+                        firstVertex,
+                        vertexCount);
                 return;
             }
-            if (item.baseInstance() == 0) {
+            if (baseInstance == 0) {
                 GL31.glDrawArraysInstanced(
                         OpenGLPrimitiveMappings.toGlType(drawPlan.primitiveType()),
-                        item.firstVertex(),
-                        item.vertexCount(),
-                        item.instanceCount());
+                        firstVertex,
+                        vertexCount,
+                        instanceCount);
                 return;
             }
             GL42.glDrawArraysInstancedBaseInstance(
                     OpenGLPrimitiveMappings.toGlType(drawPlan.primitiveType()),
-                    item.firstVertex(),
-                    item.vertexCount(),
-                    item.instanceCount(),
-                    item.baseInstance());
+                    firstVertex,
+                    vertexCount,
+                    instanceCount,
+                    baseInstance);
             return;
         }
 
-        if (item.indexedSlice() == null || item.instanceCount() <= 0) {
+        if (instanceCount <= 0) {
             return;
         }
-        int indexCount = item.indexedSlice().indexCount();
+        int indexCount = commands.elementCount(command);
         int indexType = OpenGLIndexTypeMappings.toGlType(geometryBinding.getIndexBuffer().currentIndexType());
-        long indexOffset = item.indexedSlice().firstIndexByteOffset();
-        int vertexOffset = item.indexedSlice().baseVertex();
+        long indexOffset = commands.firstIndexByteOffset(command);
+        int vertexOffset = commands.baseVertex(command);
         if (indexCount <= 0) {
             return;
         }
 
-        if (item.instanceCount() == 1 && item.baseInstance() == 0) {
+        if (instanceCount == 1 && baseInstance == 0) {
             if (vertexOffset == 0) {
                 GL11.glDrawElements(
                         OpenGLPrimitiveMappings.toGlType(drawPlan.primitiveType()),
@@ -428,14 +431,14 @@ public final class OpenGLFrameExecutor implements BackendFrameExecutor {
             return;
         }
 
-        if (item.baseInstance() == 0) {
+        if (baseInstance == 0) {
             if (vertexOffset == 0) {
                 GL31.glDrawElementsInstanced(
                         OpenGLPrimitiveMappings.toGlType(drawPlan.primitiveType()),
                         indexCount,
                         indexType,
                         indexOffset,
-                        item.instanceCount());
+                        instanceCount);
                 return;
             }
             GL32.glDrawElementsInstancedBaseVertex(
@@ -443,7 +446,7 @@ public final class OpenGLFrameExecutor implements BackendFrameExecutor {
                     indexCount,
                     indexType,
                     indexOffset,
-                    item.instanceCount(),
+                    instanceCount,
                     vertexOffset);
             return;
         }
@@ -453,9 +456,9 @@ public final class OpenGLFrameExecutor implements BackendFrameExecutor {
                 indexCount,
                 indexType,
                 indexOffset,
-                item.instanceCount(),
+                instanceCount,
                 vertexOffset,
-                item.baseInstance());
+                baseInstance);
     }
 
     private void traceBackendExecuted(GraphicsPipeline<? extends RenderContext> pipeline, DrawPacket packet) {
@@ -307,6 +307,20 @@ public class OpenGLGeometryBinding implements AutoCloseable, BackendGeometryBind
         return 0;
     }
 
+    @Override
+    public long residentBytes() {
+        long bytes = 0L;
+        for (OpenGLVertexComponent component : components.values()) {
+            if (component.isOwned() && component.getVBO() != null) {
+                bytes += component.getVBO().sizeBytes();
+            }
+        }
+        if (indexBuffer != null && !indexBuffer.isShared()) {
+            bytes += (long) indexBuffer.getIndexCount() * indexBuffer.currentIndexType().bytes();
+        }
+        return bytes;
+    }
+
     @Override
     public StructLayout vertexFormat() {
         return getStaticFormat();
@@ -43,8 +43,9 @@ final class OpenGLGeometryMaterializer {
         }
         for (var pipelineType : pipeline.getPipelineTypes()) {
             MeshResidencyPool residencyPool = pipeline.getMeshResidencyPool(pipelineType);
+            residencyPool.beginFrame();
             for (MeshResidencyPool.PendingResidencyRequest request : residencyPool.drainPendingMaterializationRequests()) {
-                if (request == null || request.vertexBufferKey() == null || residencyPool.getIfPresent(request.vertexBufferKey()) != null) {
+                if (request == null || request.vertexBufferKey() == null || residencyPool.isResident(request.vertexBufferKey())) {
                     continue;
                 }
                 OpenGLGeometryBinding sourceBinding = request.sourceProvider() instanceof OpenGLGeometryBinding openGLGeometryBinding
@@ -134,15 +135,18 @@ final class OpenGLGeometryMaterializer {
                     if (pipelineType != PipelineType.RASTERIZATION && pipelineType != PipelineType.TRANSLUCENT) {
                         continue;
                     }
-                    OpenGLGeometryBinding geometryBinding = resolveOrCreateBinding(
-                            pipeline.getMeshResidencyPool(pipelineType),
-                            geometryUploadPlan);
+                    MeshResidencyPool residencyPool = pipeline.getMeshResidencyPool(pipelineType);
+                    boolean resident = residencyPool.isResident(geometryUploadPlan.geometryHandle().vertexBufferKey());
+                    OpenGLGeometryBinding geometryBinding = resolveOrCreateBinding(residencyPool, geometryUploadPlan);
                     if (geometryBinding == null) {
                         continue;
                     }
                     InstallBindingKey installBindingKey = new InstallBindingKey(pipelineType, geometryUploadPlan.geometryHandle());
                     Integer installedVersion = installedGeometryVersions.get(installBindingKey);
-                    boolean versionChanged = installedVersion == null || installedVersion != geometryUploadPlan.installVersion();
+                    // A binding re-materialized after eviction starts empty regardless of the recorded version
+                    boolean versionChanged = !resident
+                            || installedVersion == null
+                            || installedVersion != geometryUploadPlan.installVersion();
                     if (uploadGeometryData) {
                         if (versionChanged) {
                             geometryUploadPlan.uploadTo(geometryBinding);
@@ -41,10 +41,13 @@ import java.nio.ByteBuffer;
 final class OpenGLResourceAllocator implements ResourceAllocator, LogicalResourceRegistryBinder {
     private final GraphicsAPI api;
     private final OpenGLBackendResourceResolver resourceResolver;
+    private final OpenGLTransientTargetAliasing transientTargetAliasing;
+    private volatile GraphicsResourceManager resourceManager;
 
     OpenGLResourceAllocator(GraphicsAPI api, OpenGLBackendResourceResolver resourceResolver) {
         this.api = api;
         this.resourceResolver = resourceResolver;
+        this.transientTargetAliasing = new OpenGLTransientTargetAliasing(api);
     }
 
     @Override
@@ -180,9 +183,15 @@ final class OpenGLResourceAllocator implements ResourceAllocator, LogicalResourc
             int framesInFlight,
             boolean uploadGeometryData) {
         OpenGLGeometryMaterializer.installExecutionGeometryBindings(pipeline, plan, uploadGeometryData);
+        transientTargetAliasing.install(plan, resourceManager);
         return true;
     }
 
+    @Override
+    public void shutdown() {
+        transientTargetAliasing.shutdown();
+    }
+
     @Override
     public BackendInstalledBindableResource resolveBindableResource(KeyId resourceType, KeyId resourceId) {
         return resourceResolver.resolveBindableResource(resourceType, resourceId);
@@ -215,6 +224,7 @@ final class OpenGLResourceAllocator implements ResourceAllocator, LogicalResourc
 
     @Override
     public void bindLogicalResourceRegistry(GraphicsResourceManager resourceManager) {
+        this.resourceManager = resourceManager;
         resourceResolver.bindLogicalResourceManager(resourceManager);
     }
 
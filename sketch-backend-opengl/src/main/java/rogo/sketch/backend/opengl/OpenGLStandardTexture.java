@@ -23,6 +23,7 @@ public final class OpenGLStandardTexture extends StandardTexture
         implements BackendInstalledTexture, BackendInstalledBindableResource, OpenGLTextureHandleResource {
     private final GraphicsAPI api;
     private final MemoryLease textureLease;
+    private int aliasedHandle;
 
     public OpenGLStandardTexture(
             int handle,
@@ -48,7 +49,7 @@ public final class OpenGLStandardTexture extends StandardTexture
             throw new IllegalStateException("Texture has been disposed");
         }
 
-        int handle = this.handle.asGlName();
+        int handle = textureHandle();
         ResourceViewRole resolvedRole = viewRole != null ? viewRole : ResourceViewRole.defaultForResourceType(resourceType);
         ResourceAccess resolvedAccess = access != null ? access : ResourceViewRole.defaultAccessFor(resolvedRole);
         if (ResourceTypes.normalize(resourceType).equals(ResourceTypes.IMAGE)
@@ -84,18 +85,32 @@ public final class OpenGLStandardTexture extends StandardTexture
 
     @Override
     public int textureHandle() {
-        return handle.asGlName();
+        return aliasedHandle != 0 ? aliasedHandle : handle.asGlName();
     }
 
-    @Override
-    public void resize(int width, int height) {
-        if (isDisposed()) {
-            throw new IllegalStateException("Texture has been disposed");
-        }
-        if (width == getCurrentWidth() && height == getCurrentHeight()) {
+    boolean isStorageAliased() {
+        return aliasedHandle != 0;
+    }
+
+    /**
+     * Point this texture at a transient slot's shared texture, releasing its
+     * own level 0 storage, or with {@code 0} give it dedicated storage again.
+     * Framebuffers holding this texture must re-attach it afterwards.
+     */
+    void aliasStorage(int sharedHandle) {
+        if (isDisposed() || sharedHandle == aliasedHandle) {
             return;
         }
+        boolean wasAliased = aliasedHandle != 0;
+        aliasedHandle = sharedHandle;
+        if (sharedHandle != 0 && !wasAliased) {
+            specifyOwnStorage(0, 0);
+        } else if (sharedHandle == 0) {
+            specifyOwnStorage(getCurrentWidth(), getCurrentHeight());
+        }
+    }
 
+    private void specifyOwnStorage(int width, int height) {
         var formatMapping = OpenGLImageFormatMappings.resolve(descriptor().format());
         int glHandle = handle.asGlName();
         api.bindTexture(GL11.GL_TEXTURE_2D, glHandle);
@@ -110,6 +125,21 @@ public final class OpenGLStandardTexture extends StandardTexture
                 formatMapping.uploadType(),
                 null);
         api.bindTexture(GL11.GL_TEXTURE_2D, 0);
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        if (isDisposed()) {
+            throw new IllegalStateException("Texture has been disposed");
+        }
+        if (width == getCurrentWidth() && height == getCurrentHeight()) {
+            return;
+        }
+
+        // While aliased the slot texture is resized when the next plan installs
+        if (aliasedHandle == 0) {
+            specifyOwnStorage(width, height);
+        }
         updateCurrentSize(width, height);
     }
 
@@ -127,7 +157,7 @@ public final class OpenGLStandardTexture extends StandardTexture
     }
 
     private long trackedLiveBytes() {
-        if (isDisposed()) {
+        if (isDisposed() || aliasedHandle != 0) {
             return 0L;
         }
         return ImageMemoryEstimator.estimateBytes(
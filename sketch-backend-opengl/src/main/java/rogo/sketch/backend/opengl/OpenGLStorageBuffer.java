@@ -159,6 +159,14 @@ public class OpenGLStorageBuffer implements DataResourceObject, Resizeable,
         getBufferStrategy().bufferSubData(id, 0, byteCount, sourceAddress);
     }
 
+    public void uploadRange(long sourceAddress, long destinationOffset, long byteCount) {
+        checkDisposed();
+        if (sourceAddress == MemoryUtil.NULL || byteCount <= 0L) {
+            return;
+        }
+        getBufferStrategy().bufferSubData(id, destinationOffset, byteCount, sourceAddress);
+    }
+
     public void upload(long index) {
         checkDisposed();
         long indexOffset = index * getStride();
@@ -0,0 +1,223 @@
+package rogo.sketch.backend.opengl;
+
+import org.lwjgl.opengl.GL11;
+import rogo.sketch.backend.opengl.driver.GraphicsAPI;
+import rogo.sketch.backend.opengl.resource.descriptor.OpenGLImageFormatMapping;
+import rogo.sketch.backend.opengl.resource.descriptor.OpenGLImageFormatMappings;
+import rogo.sketch.core.memory.ImageMemoryEstimator;
+import rogo.sketch.core.memory.MemoryDomain;
+import rogo.sketch.core.memory.MemoryLease;
+import rogo.sketch.core.memory.UnifiedMemoryFabric;
+import rogo.sketch.core.pipeline.kernel.FrameExecutionPlan;
+import rogo.sketch.core.pipeline.kernel.TransientTargetAliasCache;
+import rogo.sketch.core.pipeline.kernel.TransientTargetAliasPlan;
+import rogo.sketch.core.resource.GraphicsResourceManager;
+import rogo.sketch.core.resource.ResourceTypes;
+import rogo.sketch.core.resource.descriptor.ImageFormat;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Backs the attachments of transient render targets that share a
+ * {@link TransientTargetAliasPlan.PhysicalSlot} with one GL texture per
+ * attachment position. GL cannot bind two texture names to one storage
+ * without immutable views, so member textures keep their names, release
+ * their level 0 storage and hand out the slot texture's name instead; their
+ * framebuffers are re-attached whenever membership changes. Mipmapped
+ * attachments keep dedicated storage, since only level 0 is released.
+ */
+final class OpenGLTransientTargetAliasing {
+    private final GraphicsAPI api;
+    private final TransientTargetAliasCache aliasCache = new TransientTargetAliasCache();
+    private TransientTargetAliasPlan appliedPlan = TransientTargetAliasPlan.empty();
+    private Map<SlotKey, SlotTexture[]> slotStorage = new HashMap<>();
+    private Set<OpenGLStandardTexture> aliasedTextures = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<OpenGLStandardRenderTarget> aliasedTargets = new ArrayList<>();
+
+    OpenGLTransientTargetAliasing(GraphicsAPI api) {
+        this.api = api;
+    }
+
+    void install(FrameExecutionPlan plan, GraphicsResourceManager resourceManager) {
+        TransientTargetAliasPlan aliasPlan = aliasCache.update(plan, resourceManager);
+        if (aliasPlan == appliedPlan) {
+            resizeSlotsToMembers();
+            return;
+        }
+        appliedPlan = aliasPlan;
+
+        Map<SlotKey, SlotTexture[]> nextStorage = new HashMap<>();
+        Set<OpenGLStandardTexture> nextAliased = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<OpenGLStandardRenderTarget> reattach = new ArrayList<>(aliasedTargets);
+        aliasedTargets.clear();
+        for (TransientTargetAliasPlan.PhysicalSlot slot : aliasPlan.slots()) {
+            // A slot with a single target saves nothing over its own images
+            if (slot.targets().size() < 2) {
+                continue;
+            }
+            SlotKey key = new SlotKey(slot.index(), slot.layout());
+            SlotTexture[] storage = slotStorage.remove(key);
+            for (KeyId targetId : slot.targets()) {
+                if (!(resourceManager.getResource(ResourceTypes.RENDER_TARGET, targetId) instanceof OpenGLStandardRenderTarget renderTarget)) {
+                    continue;
+                }
+                List<OpenGLStandardTexture> attachments = attachmentsOf(resourceManager, renderTarget);
+                if (attachments == null) {
+                    continue;
+                }
+                if (storage == null) {
+                    storage = new SlotTexture[attachments.size()];
+                }
+                if (storage.length != attachments.size()) {
+                    continue;
+                }
+                for (int i = 0; i < storage.length; i++) {
+                    OpenGLStandardTexture texture = attachments.get(i);
+                    if (storage[i] == null) {
+                        storage[i] = new SlotTexture(api, slot.index(), i, texture.descriptor().format());
+                    }
+                    storage[i].member = texture;
+                    storage[i].resizeToMember();
+                    texture.aliasStorage(storage[i].handle);
+                    nextAliased.add(texture);
+                }
+                aliasedTargets.add(renderTarget);
+                reattach.add(renderTarget);
+            }
+            if (storage != null) {
+                nextStorage.put(key, storage);
+            }
+        }
+
+        for (OpenGLStandardTexture texture : aliasedTextures) {
+            if (!nextAliased.contains(texture)) {
+                texture.aliasStorage(0);
+            }
+        }
+        for (OpenGLStandardRenderTarget renderTarget : reattach) {
+            if (!renderTarget.isDisposed()) {
+                renderTarget.attachAllAttachments();
+            }
+        }
+        deleteAll(slotStorage);
+        slotStorage = nextStorage;
+        aliasedTextures = nextAliased;
+    }
+
+    void shutdown() {
+        for (OpenGLStandardTexture texture : aliasedTextures) {
+            texture.aliasStorage(0);
+        }
+        deleteAll(slotStorage);
+        slotStorage = new HashMap<>();
+        aliasedTextures = Collections.newSetFromMap(new IdentityHashMap<>());
+        aliasedTargets.clear();
+        appliedPlan = aliasCache.reset();
+    }
+
+    /**
+     * Screen-relative members resize without a new plan, so the slot textures
+     * follow them here; framebuffers keep the same names and need no re-attach.
+     */
+    private void resizeSlotsToMembers() {
+        for (SlotTexture[] storage : slotStorage.values()) {
+            for (SlotTexture slotTexture : storage) {
+                if (slotTexture != null) {
+                    slotTexture.resizeToMember();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the target's attachment textures in {@code attachmentIds()} order,
+     * or {@code null} when any of them is not an installed single-level GL texture
+     */
+    private static List<OpenGLStandardTexture> attachmentsOf(
+            GraphicsResourceManager resourceManager,
+            OpenGLStandardRenderTarget renderTarget) {
+        List<KeyId> attachmentIds = renderTarget.descriptor().attachmentIds();
+        OpenGLStandardTexture[] attachments = new OpenGLStandardTexture[attachmentIds.size()];
+        for (int i = 0; i < attachments.length; i++) {
+            if (!(resourceManager.getResource(ResourceTypes.TEXTURE, attachmentIds.get(i)) instanceof OpenGLStandardTexture texture)
+                    || texture.isDisposed()
+                    || texture.descriptor().mipLevels() > 1) {
+                return null;
+            }
+            attachments[i] = texture;
+        }
+        return List.of(attachments);
+    }
+
+    private static void deleteAll(Map<SlotKey, SlotTexture[]> storage) {
+        for (SlotTexture[] textures : storage.values()) {
+            for (SlotTexture texture : textures) {
+                if (texture != null) {
+                    texture.delete();
+                }
+            }
+        }
+    }
+
+    private record SlotKey(int index, TransientTargetAliasPlan.TargetLayout layout) {
+    }
+
+    private static final class SlotTexture {
+        private final GraphicsAPI api;
+        private final int handle;
+        private final ImageFormat format;
+        private final OpenGLImageFormatMapping formatMapping;
+        private final MemoryLease lease;
+        private OpenGLStandardTexture member;
+        private int width;
+        private int height;
+
+        private SlotTexture(GraphicsAPI api, int slotIndex, int attachmentIndex, ImageFormat format) {
+            this.api = api;
+            this.handle = api.getTextureStrategy().createTexture(GL11.GL_TEXTURE_2D);
+            this.format = format;
+            this.formatMapping = OpenGLImageFormatMappings.resolve(format);
+            this.lease = UnifiedMemoryFabric.get()
+                    .openLease(MemoryDomain.GPU_TEXTURE, "gl-transient-slot/" + slotIndex + "/" + attachmentIndex)
+                    .bindSuppliers(this::trackedBytes, this::trackedBytes);
+        }
+
+        private void resizeToMember() {
+            if (member == null || member.isDisposed()) {
+                return;
+            }
+            int targetWidth = Math.max(1, member.getCurrentWidth());
+            int targetHeight = Math.max(1, member.getCurrentHeight());
+            if (targetWidth == width && targetHeight == height) {
+                return;
+            }
+            api.getTextureStrategy().texImage2D(
+                    handle,
+                    0,
+                    formatMapping.internalFormat(),
+                    targetWidth,
+                    targetHeight,
+                    formatMapping.uploadFormat(),
+                    formatMapping.uploadType(),
+                    null);
+            width = targetWidth;
+            height = targetHeight;
+        }
+
+        private void delete() {
+            lease.close();
+            api.deleteTextures(handle);
+        }
+
+        private long trackedBytes() {
+            return width > 0 && height > 0 ? ImageMemoryEstimator.estimateBytes(width, height, 1, format) : 0L;
+        }
+    }
+}
@@ -131,6 +131,10 @@ public class OpenGLVertexBufferObject implements BufferResourceObject {
         }
     }
 
+    public long sizeBytes() {
+        return size;
+    }
+
     public long getMappedAddress() {
         return mappedAddress;
     }
@@ -297,7 +297,7 @@ public final class VulkanBackendRuntime implements BackendRuntime, BackendThread
         this.renderDevice = new VulkanRenderDevice(
                 this.physicalDevice,
                 this.device,
-                new BackendCapabilities(true, true, true, true, false),
+                new BackendCapabilities(true, true, true, true, false, true),
                 this.graphicsQueueFamilyIndex,
                 this.presentQueueFamilyIndex,
                 this.graphicsQueue,
@@ -638,6 +638,60 @@ public final class VulkanBackendRuntime implements BackendRuntime, BackendThread
         }
     }
 
+    /**
+     * Record {@code recorder} into a one-time command buffer on the transfer
+     * submission target and submit it with a fence. Used for staging copies
+     * that are tracked by completion instead of blocking the frame.
+     */
+    AsyncGpuCompletion submitTransferCommands(String label, Consumer<VkCommandBuffer> recorder) {
+        AsyncSubmissionTarget submissionTarget = resolveAsyncSubmissionTarget(ExecutionDomain.TRANSFER);
+        synchronized (lockForSubmission(submissionTarget)) {
+            try (MemoryStack stack = MemoryStack.stackPush()) {
+                VkCommandBufferAllocateInfo allocateInfo = VkCommandBufferAllocateInfo.calloc(stack)
+                        .sType(VK_STRUCTURE_TYPE_COMMAND_BUFFER_ALLOCATE_INFO)
+                        .commandPool(submissionTarget.commandPool())
+                        .level(VK_COMMAND_BUFFER_LEVEL_PRIMARY)
+                        .commandBufferCount(1);
+                PointerBuffer commandBufferPointer = stack.mallocPointer(1);
+                VulkanDeviceBootstrapper.checkVkResult(
+                        vkAllocateCommandBuffers(device, allocateInfo, commandBufferPointer),
+                        "vkAllocateCommandBuffers(" + label + ")");
+                VkCommandBuffer commandBuffer = new VkCommandBuffer(commandBufferPointer.get(0), device);
+
+                VkCommandBufferBeginInfo beginInfo = VkCommandBufferBeginInfo.calloc(stack)
+                        .sType(VK_STRUCTURE_TYPE_COMMAND_BUFFER_BEGIN_INFO)
+                        .flags(VK_COMMAND_BUFFER_USAGE_ONE_TIME_SUBMIT_BIT);
+                VulkanDeviceBootstrapper.checkVkResult(
+                        vkBeginCommandBuffer(commandBuffer, beginInfo),
+                        "vkBeginCommandBuffer(" + label + ")");
+                recorder.accept(commandBuffer);
+                VulkanDeviceBootstrapper.checkVkResult(
+                        vkEndCommandBuffer(commandBuffer),
+                        "vkEndCommandBuffer(" + label + ")");
+
+                LongBuffer fencePointer = stack.mallocLong(1);
+                VkFenceCreateInfo fenceInfo = VkFenceCreateInfo.calloc(stack)
+                        .sType(VK_STRUCTURE_TYPE_FENCE_CREATE_INFO);
+                VulkanDeviceBootstrapper.checkVkResult(
+                        vkCreateFence(device, fenceInfo, null, fencePointer),
+                        "vkCreateFence(" + label + ")");
+                long fence = fencePointer.get(0);
+                try {
+                    VkSubmitInfo submitInfo = VkSubmitInfo.calloc(stack)
+                            .sType(VK_STRUCTURE_TYPE_SUBMIT_INFO)
+                            .pCommandBuffers(stack.pointers(commandBuffer.address()));
+                    VulkanDeviceBootstrapper.checkVkResult(
+                            vkQueueSubmit(submissionTarget.queue(), submitInfo, fence),
+                            "vkQueueSubmit(" + label + ")");
+                    return new VulkanAsyncFenceCompletion(this, submissionTarget.commandPool(), commandBuffer.address(), fence);
+                } catch (RuntimeException runtimeException) {
+                    releaseSubmittedCommand(submissionTarget.commandPool(), commandBuffer.address(), fence);
+                    throw runtimeException;
+                }
+            }
+        }
+    }
+
     boolean pollSubmittedFence(long fence) {
         if (fence == 0L) {
             return true;
@@ -1429,6 +1483,10 @@ public final class VulkanBackendRuntime implements BackendRuntime, BackendThread
         return swapchainRecreationCount;
     }
 
+    public VulkanDescriptorCacheStats descriptorCacheStats() {
+        return resourceAllocator.descriptorArena().stats();
+    }
+
     public boolean postResizeValidationActive() {
         synchronized (swapchainLock) {
             return postResizeValidationFramesRemaining > 0;
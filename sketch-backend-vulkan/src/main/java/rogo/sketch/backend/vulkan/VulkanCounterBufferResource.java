@@ -44,6 +44,7 @@ final class VulkanCounterBufferResource
     private long capacityBytes;
     private long buffer;
     private long memory;
+    private long bufferGeneration;
     private long mappedAddress;
     private boolean disposed;
 
@@ -164,6 +165,11 @@ final class VulkanCounterBufferResource
         return capacityBytes;
     }
 
+    @Override
+    public long descriptorGeneration() {
+        return bufferGeneration;
+    }
+
     private void resizeInternal(long newCapacityBytes, boolean copy) {
         checkDisposed();
         byte[] snapshot = null;
@@ -198,6 +204,7 @@ final class VulkanCounterBufferResource
                     vkCreateBuffer(device, bufferInfo, null, bufferPointer),
                     "vkCreateBuffer(counter-buffer)");
             buffer = bufferPointer.get(0);
+            bufferGeneration = VulkanHandleGeneration.next();
 
             VkMemoryRequirements memoryRequirements = VkMemoryRequirements.calloc(stack);
             vkGetBufferMemoryRequirements(device, buffer, memoryRequirements);
@@ -54,8 +54,19 @@ import static org.lwjgl.vulkan.VK10.vkCreateDescriptorSetLayout;
 import static org.lwjgl.vulkan.VK10.vkDestroyDescriptorPool;
 import static org.lwjgl.vulkan.VK10.vkDestroyDescriptorSetLayout;
 import static org.lwjgl.vulkan.VK10.vkFreeDescriptorSets;
+import static org.lwjgl.vulkan.VK10.vkResetDescriptorPool;
 import static org.lwjgl.vulkan.VK10.vkUpdateDescriptorSets;
 
+/**
+ * Descriptor sets for the frame's resource sets, cached by their bound
+ * contents through {@link VulkanDescriptorSetRecycler}.
+ * <p>
+ * Resource sets with identical contents share one descriptor set, and content
+ * that comes back after a change revives its old set without a write. A set is
+ * only rewritten once no frame in flight can still read it, so descriptors are
+ * never updated under the GPU. Pools that stay fully idle are reset or
+ * destroyed instead of accumulating over a session.
+ */
 final class VulkanDescriptorArena {
     private static final String DIAG_MODULE = "vulkan-descriptor-arena";
     private static final int INITIAL_MAX_DESCRIPTOR_SETS = 512;
@@ -72,22 +83,35 @@ final class VulkanDescriptorArena {
     private final Set<String> warnedUnsupportedTypes = ConcurrentHashMap.newKeySet();
     private final Set<String> warnedMissingBindings = ConcurrentHashMap.newKeySet();
     private final Set<String> warnedPoolGrowth = ConcurrentHashMap.newKeySet();
-    private final List<DescriptorPoolArena> descriptorPools = new ArrayList<>();
+    private final VulkanDescriptorSetRecycler recycler = new VulkanDescriptorSetRecycler();
     private final long emptySetLayout;
 
     VulkanDescriptorArena(VkDevice device, VulkanResourceResolver resourceResolver) {
         this.device = device;
         this.resourceResolver = resourceResolver;
         this.emptySetLayout = createDescriptorSetLayout(List.of());
-        this.descriptorPools.add(createDescriptorPoolArena(
-                INITIAL_MAX_DESCRIPTOR_SETS,
-                INITIAL_MAX_TEXTURE_DESCRIPTORS,
-                INITIAL_MAX_STORAGE_IMAGE_DESCRIPTORS,
-                INITIAL_MAX_UNIFORM_BUFFER_DESCRIPTORS,
-                INITIAL_MAX_STORAGE_BUFFER_DESCRIPTORS));
+        addDescriptorPool(1);
     }
 
-    void install(List<FrameExecutionPlan.ResourceUploadPlan> resourceUploadPlans) {
+    /**
+     * Install the frame's resource sets at {@code frameEpoch}, first recycling
+     * sets that the completed frames in flight no longer read.
+     */
+    synchronized void install(
+            List<FrameExecutionPlan.ResourceUploadPlan> resourceUploadPlans,
+            long frameEpoch,
+            int framesInFlight) {
+        for (VulkanDescriptorSetRecycler.PoolCompaction compaction : recycler.beginFrame(frameEpoch, framesInFlight)) {
+            if (compaction.destroy()) {
+                vkDestroyDescriptorPool(device, compaction.poolHandle(), null);
+            } else {
+                vkResetDescriptorPool(device, compaction.poolHandle(), 0);
+            }
+        }
+        install(resourceUploadPlans);
+    }
+
+    synchronized void install(List<FrameExecutionPlan.ResourceUploadPlan> resourceUploadPlans) {
         if (resourceUploadPlans == null || resourceUploadPlans.isEmpty()) {
             return;
         }
@@ -134,7 +158,11 @@ final class VulkanDescriptorArena {
         }
     }
 
-    private InstalledResourceSet refreshInstalledResourceSet(ResourceSetKey resourceSetKey) {
+    synchronized VulkanDescriptorCacheStats stats() {
+        return recycler.stats();
+    }
+
+    private synchronized InstalledResourceSet refreshInstalledResourceSet(ResourceSetKey resourceSetKey) {
         InstalledResourceSet installedResourceSet = installedSets.get(resourceSetKey);
         if (installedResourceSet == null || installedResourceSet.uploadPlan() == null) {
             return installedResourceSet;
@@ -148,10 +176,7 @@ final class VulkanDescriptorArena {
         return installedResourceSet;
     }
 
-    void destroy() {
-        for (InstalledResourceSet installedSet : installedSets.values()) {
-            freeInstalledSet(installedSet);
-        }
+    synchronized void destroy() {
         for (DescriptorLayout layout : layouts.values()) {
             if (layout.handle() != emptySetLayout) {
                 vkDestroyDescriptorSetLayout(device, layout.handle(), null);
@@ -163,10 +188,11 @@ final class VulkanDescriptorArena {
         warnedMissingBindings.clear();
         warnedPoolGrowth.clear();
         vkDestroyDescriptorSetLayout(device, emptySetLayout, null);
-        for (DescriptorPoolArena pool : descriptorPools) {
+        // Destroying the pools frees every set they hold
+        for (VulkanDescriptorSetRecycler.Pool pool : recycler.pools()) {
             vkDestroyDescriptorPool(device, pool.handle(), null);
         }
-        descriptorPools.clear();
+        recycler.clear();
     }
 
     private DescriptorLayout ensureLayout(ResourceBindingPlan bindingPlan) {
@@ -221,39 +247,32 @@ final class VulkanDescriptorArena {
             return null;
         }
         InstalledResourceSet existing = installedSets.get(resourceUploadPlan.resourceSetKey());
+        VulkanDescriptorSetRecycler.CachedSet previous = existing != null ? existing.cachedSet() : null;
         if (descriptorLayout.handle() == emptySetLayout || descriptorLayout.bindings().isEmpty()) {
-            freeInstalledSet(existing);
-            return new InstalledResourceSet(resourceUploadPlan, descriptorLayout, VK_NULL_HANDLE, VK_NULL_HANDLE, 0L, true);
+            recycler.release(previous);
+            return new InstalledResourceSet(resourceUploadPlan, descriptorLayout, null, true);
         }
 
         DescriptorWritePlan writePlan = buildWritePlan(resourceUploadPlan, descriptorLayout);
-        if (existing != null
-                && existing.descriptorLayout().handle() == descriptorLayout.handle()
-                && existing.contentSignature() == writePlan.contentSignature()) {
-            return existing;
-        }
-
-        if (existing != null && existing.descriptorLayout().handle() == descriptorLayout.handle()) {
-            boolean complete = writeDescriptorSet(existing.descriptorSet(), writePlan);
-            return new InstalledResourceSet(
-                    resourceUploadPlan,
-                    descriptorLayout,
-                    existing.descriptorSet(),
-                    existing.descriptorPool(),
-                    writePlan.contentSignature(),
-                    complete);
-        }
-
-        DescriptorSetAllocation allocation = allocateDescriptorSet(descriptorLayout.handle());
-        boolean complete = writeDescriptorSet(allocation.descriptorSet(), writePlan);
-        freeInstalledSet(existing);
-        return new InstalledResourceSet(
-                resourceUploadPlan,
-                descriptorLayout,
-                allocation.descriptorSet(),
-                allocation.descriptorPool(),
-                writePlan.contentSignature(),
-                complete);
+        if (recycler.stillHolds(previous, writePlan.contentKey())) {
+            return existing.uploadPlan() == resourceUploadPlan
+                    ? existing
+                    : new InstalledResourceSet(resourceUploadPlan, descriptorLayout, previous, previous.complete());
+        }
+
+        // Unchanged content elsewhere or from an earlier frame is bound as is;
+        // otherwise rewrite a set no frame in flight reads, or allocate one
+        VulkanDescriptorSetRecycler.CachedSet cachedSet = recycler.acquire(writePlan.contentKey());
+        if (cachedSet == null) {
+            cachedSet = recycler.reuseFree(writePlan.contentKey());
+            if (cachedSet == null) {
+                DescriptorSetAllocation allocation = allocateDescriptorSet(descriptorLayout.handle());
+                cachedSet = recycler.register(writePlan.contentKey(), allocation.descriptorSet(), allocation.pool());
+            }
+            cachedSet.markWritten(writeDescriptorSet(cachedSet.descriptorSet(), writePlan));
+        }
+        recycler.release(previous);
+        return new InstalledResourceSet(resourceUploadPlan, descriptorLayout, cachedSet, cachedSet.complete());
     }
 
     private Integer descriptorType(ResourceBindingPlan.BindingEntry entry) {
@@ -314,7 +333,18 @@ final class VulkanDescriptorArena {
                         + " reason=" + reason);
     }
 
-    private DescriptorPoolArena createDescriptorPoolArena(
+    private VulkanDescriptorSetRecycler.Pool addDescriptorPool(int factor) {
+        int maxSets = INITIAL_MAX_DESCRIPTOR_SETS * factor;
+        long handle = createDescriptorPool(
+                maxSets,
+                INITIAL_MAX_TEXTURE_DESCRIPTORS * factor,
+                INITIAL_MAX_STORAGE_IMAGE_DESCRIPTORS * factor,
+                INITIAL_MAX_UNIFORM_BUFFER_DESCRIPTORS * factor,
+                INITIAL_MAX_STORAGE_BUFFER_DESCRIPTORS * factor);
+        return recycler.addPool(handle, maxSets);
+    }
+
+    private long createDescriptorPool(
             int maxSets,
             int textureDescriptors,
             int storageImageDescriptors,
@@ -344,13 +374,7 @@ final class VulkanDescriptorArena {
             VulkanDeviceBootstrapper.checkVkResult(
                     vkCreateDescriptorPool(device, createInfo, null, descriptorPoolPointer),
                     "vkCreateDescriptorPool");
-            return new DescriptorPoolArena(
-                    descriptorPoolPointer.get(0),
-                    maxSets,
-                    textureDescriptors,
-                    storageImageDescriptors,
-                    uniformBufferDescriptors,
-                    storageBufferDescriptors);
+            return descriptorPoolPointer.get(0);
         }
     }
 
@@ -380,46 +404,68 @@ final class VulkanDescriptorArena {
     }
 
     private DescriptorSetAllocation allocateDescriptorSet(long descriptorSetLayout) {
-        for (int i = descriptorPools.size() - 1; i >= 0; i--) {
-            DescriptorPoolArena pool = descriptorPools.get(i);
-            DescriptorSetAllocation allocation = tryAllocateDescriptorSet(pool, descriptorSetLayout);
-            if (allocation != null) {
-                return allocation;
-            }
+        DescriptorSetAllocation allocation = tryAllocateFromPools(descriptorSetLayout);
+        if (allocation == null && freeIdleDescriptorSets()) {
+            allocation = tryAllocateFromPools(descriptorSetLayout);
         }
-        DescriptorPoolArena grownPool = growDescriptorPoolArena();
-        DescriptorSetAllocation allocation = tryAllocateDescriptorSet(grownPool, descriptorSetLayout);
+        if (allocation != null) {
+            return allocation;
+        }
+        VulkanDescriptorSetRecycler.Pool grownPool = growDescriptorPoolArena();
+        allocation = tryAllocateDescriptorSet(grownPool, descriptorSetLayout);
         if (allocation == null) {
             throw new IllegalStateException("Unable to allocate Vulkan descriptor set even after growing descriptor pool arena");
         }
         return allocation;
     }
 
-    private DescriptorPoolArena growDescriptorPoolArena() {
-        int factor = 1 << descriptorPools.size();
-        DescriptorPoolArena newPool = createDescriptorPoolArena(
-                INITIAL_MAX_DESCRIPTOR_SETS * factor,
-                INITIAL_MAX_TEXTURE_DESCRIPTORS * factor,
-                INITIAL_MAX_STORAGE_IMAGE_DESCRIPTORS * factor,
-                INITIAL_MAX_UNIFORM_BUFFER_DESCRIPTORS * factor,
-                INITIAL_MAX_STORAGE_BUFFER_DESCRIPTORS * factor);
-        descriptorPools.add(newPool);
-        String growthKey = newPool.maxSets() + ":" + newPool.textureDescriptors() + ":" + newPool.storageImageDescriptors()
-                + ":" + newPool.uniformBufferDescriptors()
-                + ":" + newPool.storageBufferDescriptors();
+    private DescriptorSetAllocation tryAllocateFromPools(long descriptorSetLayout) {
+        List<VulkanDescriptorSetRecycler.Pool> pools = recycler.pools();
+        for (int i = pools.size() - 1; i >= 0; i--) {
+            DescriptorSetAllocation allocation = tryAllocateDescriptorSet(pools.get(i), descriptorSetLayout);
+            if (allocation != null) {
+                return allocation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Hand every free cached set back to its pool so exhausted pools can be
+     * reused before growing; returns whether anything was freed.
+     */
+    private boolean freeIdleDescriptorSets() {
+        List<VulkanDescriptorSetRecycler.CachedSet> evicted = recycler.evictFree();
+        if (evicted.isEmpty()) {
+            return false;
+        }
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            LongBuffer descriptorSet = stack.mallocLong(1);
+            for (VulkanDescriptorSetRecycler.CachedSet cachedSet : evicted) {
+                descriptorSet.put(0, cachedSet.descriptorSet());
+                vkFreeDescriptorSets(device, cachedSet.pool().handle(), descriptorSet);
+            }
+        }
+        return true;
+    }
+
+    private VulkanDescriptorSetRecycler.Pool growDescriptorPoolArena() {
+        int factor = 1 << recycler.pools().size();
+        VulkanDescriptorSetRecycler.Pool newPool = addDescriptorPool(factor);
+        String growthKey = Integer.toString(factor);
         if (warnedPoolGrowth.add(growthKey)) {
             SketchDiagnostics.get().warn(
                     DIAG_MODULE,
                     "Vulkan descriptor pool arena expanded to maxSets=" + newPool.maxSets()
-                            + ", textures=" + newPool.textureDescriptors()
-                            + ", storageImages=" + newPool.storageImageDescriptors()
-                            + ", uniformBuffers=" + newPool.uniformBufferDescriptors()
-                            + ", storageBuffers=" + newPool.storageBufferDescriptors());
+                            + ", textures=" + INITIAL_MAX_TEXTURE_DESCRIPTORS * factor
+                            + ", storageImages=" + INITIAL_MAX_STORAGE_IMAGE_DESCRIPTORS * factor
+                            + ", uniformBuffers=" + INITIAL_MAX_UNIFORM_BUFFER_DESCRIPTORS * factor
+                            + ", storageBuffers=" + INITIAL_MAX_STORAGE_BUFFER_DESCRIPTORS * factor);
         }
         return newPool;
     }
 
-    private DescriptorSetAllocation tryAllocateDescriptorSet(DescriptorPoolArena descriptorPool, long descriptorSetLayout) {
+    private DescriptorSetAllocation tryAllocateDescriptorSet(VulkanDescriptorSetRecycler.Pool descriptorPool, long descriptorSetLayout) {
         try (MemoryStack stack = MemoryStack.stackPush()) {
             VkDescriptorSetAllocateInfo allocateInfo = VkDescriptorSetAllocateInfo.calloc(stack)
                     .sType(VK_STRUCTURE_TYPE_DESCRIPTOR_SET_ALLOCATE_INFO)
@@ -428,7 +474,7 @@ final class VulkanDescriptorArena {
             LongBuffer descriptorSetPointer = stack.mallocLong(1);
             int result = vkAllocateDescriptorSets(device, allocateInfo, descriptorSetPointer);
             if (result == VK_SUCCESS) {
-                return new DescriptorSetAllocation(descriptorSetPointer.get(0), descriptorPool.handle());
+                return new DescriptorSetAllocation(descriptorSetPointer.get(0), descriptorPool);
             }
             if (isPoolExhausted(result)) {
                 return null;
@@ -452,7 +498,8 @@ final class VulkanDescriptorArena {
         }
 
         List<ResolvedDescriptorBinding> resolvedBindings = new ArrayList<>(descriptorLayout.bindings().size());
-        long contentSignature = descriptorLayout.handle();
+        VulkanDescriptorSetRecycler.ContentKey.Builder contentKey =
+                VulkanDescriptorSetRecycler.ContentKey.builder(descriptorLayout.handle());
         boolean complete = true;
         for (DescriptorBinding descriptorBinding : descriptorLayout.bindings()) {
             ResourceBindingPlan.BindingEntry entry = entriesByBindingName.get(
@@ -480,13 +527,14 @@ final class VulkanDescriptorArena {
                     complete = false;
                     continue;
                 }
-                contentSignature = mixSignature(contentSignature, descriptorBinding.binding());
-                contentSignature = mixSignature(contentSignature, descriptorBinding.descriptorType());
-                contentSignature = mixSignature(contentSignature, entry.resourceId().hashCode());
-                contentSignature = mixSignature(contentSignature, textureResource.imageView());
-                if (descriptorBinding.descriptorType() == VK_DESCRIPTOR_TYPE_COMBINED_IMAGE_SAMPLER) {
-                    contentSignature = mixSignature(contentSignature, textureResource.sampler());
-                }
+                contentKey.add(descriptorBinding.binding())
+                        .add(descriptorBinding.descriptorType())
+                        .add(textureResource.imageView())
+                        .add(descriptorBinding.descriptorType() == VK_DESCRIPTOR_TYPE_COMBINED_IMAGE_SAMPLER
+                                ? textureResource.sampler()
+                                : VK_NULL_HANDLE)
+                        .add(textureResource.imageLayout())
+                        .add(textureResource.handleGeneration());
             } else if (descriptorBinding.descriptorType() == VK_DESCRIPTOR_TYPE_UNIFORM_BUFFER) {
                 uniformBufferResource = resourceResolver.resolveUniformBufferResource(entry.resourceId());
                 if (uniformBufferResource == null || uniformBufferResource.isDisposed()) {
@@ -494,11 +542,11 @@ final class VulkanDescriptorArena {
                     complete = false;
                     continue;
                 }
-                contentSignature = mixSignature(contentSignature, descriptorBinding.binding());
-                contentSignature = mixSignature(contentSignature, descriptorBinding.descriptorType());
-                contentSignature = mixSignature(contentSignature, entry.resourceId().hashCode());
-                contentSignature = mixSignature(contentSignature, uniformBufferResource.buffer());
-                contentSignature = mixSignature(contentSignature, uniformBufferResource.size());
+                contentKey.add(descriptorBinding.binding())
+                        .add(descriptorBinding.descriptorType())
+                        .add(uniformBufferResource.buffer())
+                        .add(uniformBufferResource.size())
+                        .add(uniformBufferResource.bufferGeneration());
             } else if (descriptorBinding.descriptorType() == VK_DESCRIPTOR_TYPE_STORAGE_BUFFER) {
                 storageBufferResource = resourceResolver.resolveStorageBufferResource(entry.resourceId());
                 if (storageBufferResource == null || storageBufferResource.isDisposed()) {
@@ -506,11 +554,11 @@ final class VulkanDescriptorArena {
                     complete = false;
                     continue;
                 }
-                contentSignature = mixSignature(contentSignature, descriptorBinding.binding());
-                contentSignature = mixSignature(contentSignature, descriptorBinding.descriptorType());
-                contentSignature = mixSignature(contentSignature, entry.resourceId().hashCode());
-                contentSignature = mixSignature(contentSignature, storageBufferResource.descriptorBuffer());
-                contentSignature = mixSignature(contentSignature, storageBufferResource.descriptorRange());
+                contentKey.add(descriptorBinding.binding())
+                        .add(descriptorBinding.descriptorType())
+                        .add(storageBufferResource.descriptorBuffer())
+                        .add(storageBufferResource.descriptorRange())
+                        .add(storageBufferResource.descriptorGeneration());
             } else {
                 warnUnsupported(entry, descriptorLayout.resourceLayoutKey());
                 complete = false;
@@ -523,11 +571,7 @@ final class VulkanDescriptorArena {
                     uniformBufferResource,
                     storageBufferResource));
         }
-        return new DescriptorWritePlan(List.copyOf(resolvedBindings), contentSignature, complete && !resolvedBindings.isEmpty());
-    }
-
-    private long mixSignature(long seed, long value) {
-        return seed * 31L + value;
+        return new DescriptorWritePlan(List.copyOf(resolvedBindings), contentKey.build(), complete && !resolvedBindings.isEmpty());
     }
 
     private boolean writeDescriptorSet(
@@ -602,15 +646,6 @@ final class VulkanDescriptorArena {
         }
     }
 
-    private void freeInstalledSet(InstalledResourceSet installedSet) {
-        if (installedSet == null || installedSet.descriptorSet() == VK_NULL_HANDLE || installedSet.descriptorPool() == VK_NULL_HANDLE) {
-            return;
-        }
-        try (MemoryStack stack = MemoryStack.stackPush()) {
-            vkFreeDescriptorSets(device, installedSet.descriptorPool(), stack.longs(installedSet.descriptorSet()));
-        }
-    }
-
     private record DescriptorBinding(int binding, int descriptorType, KeyId bindingName, KeyId resourceType) {
     }
 
@@ -623,17 +658,7 @@ final class VulkanDescriptorArena {
     private record DescriptorLayout(KeyId resourceLayoutKey, long handle, List<DescriptorBinding> bindings) {
     }
 
-    private record DescriptorSetAllocation(long descriptorSet, long descriptorPool) {
-    }
-
-    private record DescriptorPoolArena(
-            long handle,
-            int maxSets,
-            int textureDescriptors,
-            int storageImageDescriptors,
-            int uniformBufferDescriptors,
-            int storageBufferDescriptors
-    ) {
+    private record DescriptorSetAllocation(long descriptorSet, VulkanDescriptorSetRecycler.Pool pool) {
     }
 
     private record ResolvedDescriptorBinding(
@@ -647,7 +672,7 @@ final class VulkanDescriptorArena {
 
     private record DescriptorWritePlan(
             List<ResolvedDescriptorBinding> resolvedBindings,
-            long contentSignature,
+            VulkanDescriptorSetRecycler.ContentKey contentKey,
             boolean complete
     ) {
     }
@@ -655,11 +680,12 @@ final class VulkanDescriptorArena {
     private record InstalledResourceSet(
             FrameExecutionPlan.ResourceUploadPlan uploadPlan,
             DescriptorLayout descriptorLayout,
-            long descriptorSet,
-            long descriptorPool,
-            long contentSignature,
+            VulkanDescriptorSetRecycler.CachedSet cachedSet,
             boolean complete
     ) {
+        long descriptorSet() {
+            return cachedSet != null ? cachedSet.descriptorSet() : VK_NULL_HANDLE;
+        }
     }
 }
 
@@ -6,4 +6,9 @@ interface VulkanDescriptorBufferResource extends BackendInstalledBuffer {
     long descriptorBuffer();
 
     long descriptorRange();
+
+    /**
+     * {@link VulkanHandleGeneration} stamp of the current {@link #descriptorBuffer()}.
+     */
+    long descriptorGeneration();
 }
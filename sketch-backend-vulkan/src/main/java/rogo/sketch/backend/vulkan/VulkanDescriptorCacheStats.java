@@ -0,0 +1,24 @@
+package rogo.sketch.backend.vulkan;
+
+/**
+ * Telemetry of the content-keyed descriptor set cache. Every install or
+ * refresh of a resource set is one lookup: a hit when its set already holds
+ * the contents or a cached set does, a miss when a set had to be written.
+ * Recycled misses were served by rewriting a free set instead of allocating.
+ */
+public record VulkanDescriptorCacheStats(
+        long hits,
+        long misses,
+        long recycled,
+        int liveSets,
+        int retiredSets,
+        int freeSets,
+        int livePools,
+        long poolsReset,
+        long poolsDestroyed
+) {
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups > 0L ? (double) hits / lookups : 0.0;
+    }
+}
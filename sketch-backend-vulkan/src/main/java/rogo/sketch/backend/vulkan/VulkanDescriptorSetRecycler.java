@@ -0,0 +1,437 @@
+package rogo.sketch.backend.vulkan;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Device-free bookkeeping behind {@link VulkanDescriptorArena}: descriptor
+ * sets cached by their bound contents, frame-epoch retirement, per-layout free
+ * lists and idle pool compaction. Handles are opaque longs, so the policy runs
+ * without a Vulkan device.
+ * <p>
+ * A set is live while at least one resource set references it. A released set
+ * is retired at the current frame epoch but stays cached, so content that
+ * comes back revives it. Once the frames in flight that could still read it
+ * have completed it becomes free and may be rewritten for other content of the
+ * same layout. A pool whose sets have all been free for
+ * {@link #POOL_IDLE_FRAMES} frames is compacted: the primary pool is reset and
+ * grown pools are destroyed.
+ * <p>
+ * Not thread-safe; the arena serializes access.
+ */
+final class VulkanDescriptorSetRecycler {
+    static final int POOL_IDLE_FRAMES = 120;
+
+    private final Map<ContentKey, CachedSet> cache = new HashMap<>();
+    private final ArrayDeque<RetiredSet> retired = new ArrayDeque<>();
+    private final List<Pool> pools = new ArrayList<>();
+    private long frameEpoch;
+    private int liveSets;
+    private int freeSets;
+    private long hits;
+    private long misses;
+    private long recycled;
+    private long poolsReset;
+    private long poolsDestroyed;
+
+    Pool addPool(long handle, int maxSets) {
+        Pool pool = new Pool(handle, maxSets, pools.isEmpty());
+        pool.idleSinceEpoch = frameEpoch;
+        pools.add(pool);
+        return pool;
+    }
+
+    /**
+     * Pools in creation order, the primary pool first.
+     */
+    List<Pool> pools() {
+        return Collections.unmodifiableList(pools);
+    }
+
+    long frameEpoch() {
+        return frameEpoch;
+    }
+
+    /**
+     * Reference the cached set holding exactly {@code key}, or return
+     * {@code null} when no set has that content.
+     */
+    CachedSet acquire(ContentKey key) {
+        CachedSet set = cache.get(key);
+        if (set == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        retain(set);
+        return set;
+    }
+
+    /**
+     * Whether {@code installed} already holds exactly {@code key}. Counted as a
+     * hit: the resource set keeps binding it without a lookup or a write.
+     */
+    boolean stillHolds(CachedSet installed, ContentKey key) {
+        if (installed == null || installed.state != SetState.LIVE || !installed.key.equals(key)) {
+            return false;
+        }
+        hits++;
+        return true;
+    }
+
+    /**
+     * Re-key a free set of the same layout to {@code key}; the caller must
+     * rewrite its descriptors. Returns {@code null} when none is free.
+     */
+    CachedSet reuseFree(ContentKey key) {
+        // Older pools first, so grown pools drain and can be compacted
+        for (Pool pool : pools) {
+            ArrayDeque<CachedSet> free = pool.freeByLayout.get(key.layoutHandle());
+            if (free == null) {
+                continue;
+            }
+            CachedSet set;
+            while ((set = free.pollFirst()) != null) {
+                set.freeListed = false;
+                if (set.state == SetState.FREE) {
+                    cache.remove(set.key);
+                    set.key = key;
+                    set.complete = false;
+                    cache.put(key, set);
+                    retain(set);
+                    recycled++;
+                    return set;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Track a newly allocated set for {@code key}; the caller must write its
+     * descriptors.
+     */
+    CachedSet register(ContentKey key, long descriptorSet, Pool pool) {
+        CachedSet set = new CachedSet(key, descriptorSet, pool);
+        pool.allocatedSets++;
+        pool.idleSinceEpoch = -1L;
+        cache.put(key, set);
+        retain(set);
+        return set;
+    }
+
+    /**
+     * Drop one reference; the last one retires the set at the current epoch.
+     */
+    void release(CachedSet set) {
+        if (set == null || set.references == 0) {
+            return;
+        }
+        if (--set.references == 0) {
+            set.state = SetState.RETIRED;
+            set.retiredEpoch = frameEpoch;
+            liveSets--;
+            retired.addLast(new RetiredSet(set, frameEpoch));
+        }
+    }
+
+    /**
+     * Advance to {@code epoch}: retired sets no frame in flight can read any
+     * more become free, and pools idle long enough are compacted. The caller
+     * resets or destroys the returned pools; their sets are already evicted.
+     */
+    List<PoolCompaction> beginFrame(long epoch, int framesInFlight) {
+        frameEpoch = Math.max(frameEpoch, epoch);
+        int inFlight = Math.max(1, framesInFlight);
+        while (!retired.isEmpty() && frameEpoch - retired.peekFirst().epoch() >= inFlight) {
+            RetiredSet entry = retired.pollFirst();
+            CachedSet set = entry.set();
+            // Revived and retired again since; a later entry covers it
+            if (set.state != SetState.RETIRED || set.retiredEpoch != entry.epoch()) {
+                continue;
+            }
+            set.state = SetState.FREE;
+            freeSets++;
+            set.pool.freeSets++;
+            if (set.pool.freeSets == set.pool.allocatedSets) {
+                set.pool.idleSinceEpoch = frameEpoch;
+            }
+            if (!set.freeListed) {
+                set.freeListed = true;
+                set.pool.freeByLayout.computeIfAbsent(set.key.layoutHandle(), ignored -> new ArrayDeque<>()).addLast(set);
+            }
+        }
+        return compactIdlePools();
+    }
+
+    /**
+     * Evict every free set, e.g. to hand them back to exhausted pools.
+     */
+    List<CachedSet> evictFree() {
+        if (freeSets == 0) {
+            return List.of();
+        }
+        List<CachedSet> evicted = new ArrayList<>(freeSets);
+        Iterator<CachedSet> iterator = cache.values().iterator();
+        while (iterator.hasNext()) {
+            CachedSet set = iterator.next();
+            if (set.state != SetState.FREE) {
+                continue;
+            }
+            iterator.remove();
+            evict(set);
+            evicted.add(set);
+            set.pool.allocatedSets--;
+            if (set.pool.allocatedSets == set.pool.freeSets && set.pool.idleSinceEpoch < 0L) {
+                set.pool.idleSinceEpoch = frameEpoch;
+            }
+        }
+        return evicted;
+    }
+
+    VulkanDescriptorCacheStats stats() {
+        return new VulkanDescriptorCacheStats(
+                hits,
+                misses,
+                recycled,
+                liveSets,
+                cache.size() - liveSets - freeSets,
+                freeSets,
+                pools.size(),
+                poolsReset,
+                poolsDestroyed);
+    }
+
+    void clear() {
+        cache.clear();
+        retired.clear();
+        pools.clear();
+        liveSets = 0;
+        freeSets = 0;
+    }
+
+    private void retain(CachedSet set) {
+        if (set.references++ > 0) {
+            return;
+        }
+        if (set.state == SetState.FREE) {
+            freeSets--;
+            set.pool.freeSets--;
+            set.pool.idleSinceEpoch = -1L;
+        }
+        set.state = SetState.LIVE;
+        liveSets++;
+    }
+
+    private List<PoolCompaction> compactIdlePools() {
+        List<PoolCompaction> compactions = null;
+        Iterator<Pool> iterator = pools.iterator();
+        while (iterator.hasNext()) {
+            Pool pool = iterator.next();
+            if (pool.idleSinceEpoch < 0L
+                    || frameEpoch - pool.idleSinceEpoch < POOL_IDLE_FRAMES
+                    || (pool.primary && pool.allocatedSets == 0)) {
+                continue;
+            }
+            if (pool.allocatedSets > 0) {
+                Iterator<CachedSet> sets = cache.values().iterator();
+                while (sets.hasNext()) {
+                    CachedSet set = sets.next();
+                    if (set.pool == pool) {
+                        sets.remove();
+                        evict(set);
+                    }
+                }
+                pool.allocatedSets = 0;
+                pool.freeByLayout.clear();
+            }
+            if (compactions == null) {
+                compactions = new ArrayList<>();
+            }
+            if (pool.primary) {
+                pool.idleSinceEpoch = frameEpoch;
+                poolsReset++;
+                compactions.add(new PoolCompaction(pool.handle, false));
+            } else {
+                iterator.remove();
+                poolsDestroyed++;
+                compactions.add(new PoolCompaction(pool.handle, true));
+            }
+        }
+        return compactions != null ? compactions : List.of();
+    }
+
+    private void evict(CachedSet set) {
+        // Free-list entries are dropped lazily once they no longer read FREE
+        set.state = SetState.EVICTED;
+        freeSets--;
+        set.pool.freeSets--;
+    }
+
+    /**
+     * Exact bound contents of a descriptor set: its layout plus one word per
+     * descriptor field that ends up in {@code vkUpdateDescriptorSets}, and the
+     * {@link VulkanHandleGeneration} of every referenced handle. A key naming a
+     * destroyed handle can therefore never match a later handle that reuses its
+     * value; such sets are only ever rewritten once free.
+     */
+    static final class ContentKey {
+        private final long layoutHandle;
+        private final long[] words;
+        private final int hash;
+
+        private ContentKey(long layoutHandle, long[] words) {
+            this.layoutHandle = layoutHandle;
+            this.words = words;
+            long h = mix(layoutHandle);
+            for (long word : words) {
+                h = mix(h ^ word);
+            }
+            this.hash = (int) (h ^ (h >>> 32));
+        }
+
+        static Builder builder(long layoutHandle) {
+            return new Builder(layoutHandle);
+        }
+
+        long layoutHandle() {
+            return layoutHandle;
+        }
+
+        int wordCount() {
+            return words.length;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            return other instanceof ContentKey key
+                    && hash == key.hash
+                    && layoutHandle == key.layoutHandle
+                    && Arrays.equals(words, key.words);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        private static long mix(long value) {
+            long z = value * 0x9E3779B97F4A7C15L;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+
+        static final class Builder {
+            private final long layoutHandle;
+            private long[] words = new long[16];
+            private int size;
+
+            private Builder(long layoutHandle) {
+                this.layoutHandle = layoutHandle;
+            }
+
+            Builder add(long word) {
+                if (size == words.length) {
+                    words = Arrays.copyOf(words, size * 2);
+                }
+                words[size++] = word;
+                return this;
+            }
+
+            ContentKey build() {
+                return new ContentKey(layoutHandle, Arrays.copyOf(words, size));
+            }
+        }
+    }
+
+    static final class CachedSet {
+        private final long descriptorSet;
+        private final Pool pool;
+        private ContentKey key;
+        private SetState state = SetState.RETIRED;
+        private int references;
+        private long retiredEpoch;
+        private boolean freeListed;
+        private boolean complete;
+
+        private CachedSet(ContentKey key, long descriptorSet, Pool pool) {
+            this.key = key;
+            this.descriptorSet = descriptorSet;
+            this.pool = pool;
+        }
+
+        long descriptorSet() {
+            return descriptorSet;
+        }
+
+        Pool pool() {
+            return pool;
+        }
+
+        ContentKey key() {
+            return key;
+        }
+
+        /**
+         * Whether the last write bound every descriptor of the layout.
+         */
+        boolean complete() {
+            return complete;
+        }
+
+        void markWritten(boolean complete) {
+            this.complete = complete;
+        }
+    }
+
+    static final class Pool {
+        private final long handle;
+        private final int maxSets;
+        private final boolean primary;
+        private final Map<Long, ArrayDeque<CachedSet>> freeByLayout = new HashMap<>();
+        private int allocatedSets;
+        private int freeSets;
+        private long idleSinceEpoch;
+
+        private Pool(long handle, int maxSets, boolean primary) {
+            this.handle = handle;
+            this.maxSets = maxSets;
+            this.primary = primary;
+        }
+
+        long handle() {
+            return handle;
+        }
+
+        int maxSets() {
+            return maxSets;
+        }
+
+        boolean primary() {
+            return primary;
+        }
+    }
+
+    record PoolCompaction(long poolHandle, boolean destroy) {
+    }
+
+    private enum SetState {
+        LIVE,
+        RETIRED,
+        FREE,
+        EVICTED
+    }
+
+    private record RetiredSet(CachedSet set, long epoch) {
+    }
+}
@@ -2,13 +2,16 @@ package rogo.sketch.backend.vulkan;
 
 import org.lwjgl.system.MemoryStack;
 import org.lwjgl.system.MemoryUtil;
+import org.lwjgl.vulkan.VkBufferCopy;
 import org.lwjgl.vulkan.VkBufferCreateInfo;
+import org.lwjgl.vulkan.VkCommandBuffer;
 import org.lwjgl.vulkan.VkDevice;
 import org.lwjgl.vulkan.VkMemoryAllocateInfo;
 import org.lwjgl.vulkan.VkMemoryRequirements;
 import org.lwjgl.vulkan.VkPhysicalDevice;
 import org.lwjgl.vulkan.VkPhysicalDeviceMemoryProperties;
 import rogo.sketch.core.api.model.SharedGeometrySourceSnapshot;
+import rogo.sketch.core.backend.AsyncGpuCompletion;
 import rogo.sketch.core.memory.MemoryDomain;
 import rogo.sketch.core.memory.MemoryLease;
 import rogo.sketch.core.memory.UnifiedMemoryFabric;
@@ -29,15 +32,20 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import static org.lwjgl.vulkan.VK10.VK_BUFFER_USAGE_INDEX_BUFFER_BIT;
 import static org.lwjgl.vulkan.VK10.VK_BUFFER_USAGE_INDIRECT_BUFFER_BIT;
+import static org.lwjgl.vulkan.VK10.VK_BUFFER_USAGE_TRANSFER_DST_BIT;
+import static org.lwjgl.vulkan.VK10.VK_BUFFER_USAGE_TRANSFER_SRC_BIT;
 import static org.lwjgl.vulkan.VK10.VK_BUFFER_USAGE_VERTEX_BUFFER_BIT;
+import static org.lwjgl.vulkan.VK10.VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT;
 import static org.lwjgl.vulkan.VK10.VK_MEMORY_PROPERTY_HOST_COHERENT_BIT;
 import static org.lwjgl.vulkan.VK10.VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT;
 import static org.lwjgl.vulkan.VK10.VK_NULL_HANDLE;
+import static org.lwjgl.vulkan.VK10.VK_SHARING_MODE_CONCURRENT;
 import static org.lwjgl.vulkan.VK10.VK_SHARING_MODE_EXCLUSIVE;
 import static org.lwjgl.vulkan.VK10.VK_STRUCTURE_TYPE_BUFFER_CREATE_INFO;
 import static org.lwjgl.vulkan.VK10.VK_STRUCTURE_TYPE_MEMORY_ALLOCATE_INFO;
 import static org.lwjgl.vulkan.VK10.vkAllocateMemory;
 import static org.lwjgl.vulkan.VK10.vkBindBufferMemory;
+import static org.lwjgl.vulkan.VK10.vkCmdCopyBuffer;
 import static org.lwjgl.vulkan.VK10.vkCreateBuffer;
 import static org.lwjgl.vulkan.VK10.vkDestroyBuffer;
 import static org.lwjgl.vulkan.VK10.vkFreeMemory;
@@ -46,46 +54,82 @@ import static org.lwjgl.vulkan.VK10.vkGetPhysicalDeviceMemoryProperties;
 import static org.lwjgl.vulkan.VK10.vkMapMemory;
 import static org.lwjgl.vulkan.VK10.vkUnmapMemory;
 
+/**
+ * Vulkan geometry storage in two residency tiers. Dynamic per-frame vertex,
+ * index and indirect data is written straight into host-visible rings that are
+ * recycled after the frames in flight retire. Shared/static source geometry is
+ * first written to a host-visible staging ring, which draws read from until a
+ * staging copy into device-local arenas completes; promotions are submitted on
+ * the transfer queue under a per-frame byte budget and swapped in once their
+ * fence signals. The shared tiers grow by adding arenas rather than failing
+ * when full, and are created concurrent across the graphics and transfer
+ * queue families since both queues access them.
+ */
 final class VulkanGeometryArena {
     private static final String DIAG_MODULE = "vulkan-geometry-arena";
     private static final long DEFAULT_VERTEX_CAPACITY = 16L * 1024L * 1024L;
     private static final long DEFAULT_INDEX_CAPACITY = 8L * 1024L * 1024L;
     private static final long DEFAULT_INDIRECT_CAPACITY = 2L * 1024L * 1024L;
+    private static final long DEFAULT_STAGING_CAPACITY = 16L * 1024L * 1024L;
+    private static final long DEFAULT_UPLOAD_BUDGET_BYTES = 4L * 1024L * 1024L;
+    private static final long PENDING_PROMOTION_EPOCH = Long.MAX_VALUE;
     private static final int DEFAULT_ALIGNMENT = 16;
 
+    private final VulkanBackendRuntime runtime;
     private final VkPhysicalDevice physicalDevice;
     private final VkDevice device;
-    private final BufferArena sharedVertexArena;
-    private final BufferArena sharedIndexArena;
+    private final int[] sharedQueueFamilies;
+    private final ArenaChain stagingArena;
+    private final ArenaChain sharedVertexArena;
+    private final ArenaChain sharedIndexArena;
     private final BufferArena vertexArena;
     private final BufferArena indexArena;
     private final BufferArena indirectArena;
     private final Map<GeometryHandleKey, GeometrySlice> slices = new ConcurrentHashMap<>();
     private final Map<Long, SharedSourceSlice> sharedSourceRegistry = new ConcurrentHashMap<>();
-
-    VulkanGeometryArena(VkPhysicalDevice physicalDevice, VkDevice device) {
-        this.physicalDevice = physicalDevice;
-        this.device = device;
-        this.sharedVertexArena = new BufferArena("shared-vertex", VK_BUFFER_USAGE_VERTEX_BUFFER_BIT, DEFAULT_VERTEX_CAPACITY);
-        this.sharedIndexArena = new BufferArena("shared-index", VK_BUFFER_USAGE_INDEX_BUFFER_BIT, DEFAULT_INDEX_CAPACITY);
-        this.vertexArena = new BufferArena("dynamic-vertex", VK_BUFFER_USAGE_VERTEX_BUFFER_BIT, DEFAULT_VERTEX_CAPACITY);
-        this.indexArena = new BufferArena("dynamic-index", VK_BUFFER_USAGE_INDEX_BUFFER_BIT, DEFAULT_INDEX_CAPACITY);
-        this.indirectArena = new BufferArena("indirect", VK_BUFFER_USAGE_INDIRECT_BUFFER_BIT, DEFAULT_INDIRECT_CAPACITY);
+    private final Deque<PendingPromotion> pendingPromotions = new ArrayDeque<>();
+    private final Deque<PromotionBatch> inFlightPromotions = new ArrayDeque<>();
+
+    VulkanGeometryArena(VulkanBackendRuntime runtime) {
+        this.runtime = runtime;
+        this.physicalDevice = runtime.physicalDevice();
+        this.device = runtime.device();
+        this.sharedQueueFamilies = runtime.graphicsQueueFamilyIndex() != runtime.transferQueueFamilyIndex()
+                ? new int[]{runtime.graphicsQueueFamilyIndex(), runtime.transferQueueFamilyIndex()}
+                : new int[0];
+        this.stagingArena = new ArenaChain(
+                "shared-staging",
+                VK_BUFFER_USAGE_TRANSFER_SRC_BIT | VK_BUFFER_USAGE_VERTEX_BUFFER_BIT | VK_BUFFER_USAGE_INDEX_BUFFER_BIT,
+                DEFAULT_STAGING_CAPACITY,
+                false);
+        this.sharedVertexArena = new ArenaChain(
+                "shared-vertex",
+                VK_BUFFER_USAGE_VERTEX_BUFFER_BIT | VK_BUFFER_USAGE_TRANSFER_DST_BIT,
+                DEFAULT_VERTEX_CAPACITY,
+                true);
+        this.sharedIndexArena = new ArenaChain(
+                "shared-index",
+                VK_BUFFER_USAGE_INDEX_BUFFER_BIT | VK_BUFFER_USAGE_TRANSFER_DST_BIT,
+                DEFAULT_INDEX_CAPACITY,
+                true);
+        this.vertexArena = new BufferArena("dynamic-vertex", VK_BUFFER_USAGE_VERTEX_BUFFER_BIT, DEFAULT_VERTEX_CAPACITY, false, false);
+        this.indexArena = new BufferArena("dynamic-index", VK_BUFFER_USAGE_INDEX_BUFFER_BIT, DEFAULT_INDEX_CAPACITY, false, false);
+        this.indirectArena = new BufferArena("indirect", VK_BUFFER_USAGE_INDIRECT_BUFFER_BIT, DEFAULT_INDIRECT_CAPACITY, false, false);
     }
 
     void install(List<FrameExecutionPlan.GeometryUploadPlan> geometryUploadPlans, long frameEpoch, int maxFramesInFlight) {
-        if (geometryUploadPlans == null || geometryUploadPlans.isEmpty()) {
-            return;
-        }
-        for (FrameExecutionPlan.GeometryUploadPlan geometryUploadPlan : geometryUploadPlans) {
-            if (geometryUploadPlan == null || geometryUploadPlan.geometryHandle() == null) {
-                continue;
-            }
-            GeometrySlice slice = install(geometryUploadPlan, frameEpoch, maxFramesInFlight);
-            if (slice != null) {
-                slices.put(geometryUploadPlan.geometryHandle(), slice);
+        if (geometryUploadPlans != null) {
+            for (FrameExecutionPlan.GeometryUploadPlan geometryUploadPlan : geometryUploadPlans) {
+                if (geometryUploadPlan == null || geometryUploadPlan.geometryHandle() == null) {
+                    continue;
+                }
+                GeometrySlice slice = install(geometryUploadPlan, frameEpoch, maxFramesInFlight);
+                if (slice != null) {
+                    slices.put(geometryUploadPlan.geometryHandle(), slice);
+                }
             }
         }
+        pumpPromotions(frameEpoch);
     }
 
     GeometrySlice registerInterleavedColorGeometry(GeometryHandleKey key, float[] vertexData, int vertexCount) {
@@ -108,13 +152,27 @@ final class VulkanGeometryArena {
         return slice;
     }
 
+    /**
+     * Live bytes held for shared/static source geometry: resident copies plus
+     * staging ranges not yet reclaimed.
+     */
+    long sharedResidentBytes() {
+        return stagingArena.liveBytes() + sharedVertexArena.liveBytes() + sharedIndexArena.liveBytes();
+    }
+
     GeometrySlice resolve(GeometryHandleKey key) {
         return key == null ? null : slices.get(key);
     }
 
     void destroy() {
+        for (PromotionBatch batch : inFlightPromotions) {
+            batch.completion().await();
+        }
+        inFlightPromotions.clear();
+        pendingPromotions.clear();
         slices.clear();
         sharedSourceRegistry.clear();
+        stagingArena.destroy();
         sharedVertexArena.destroy();
         sharedIndexArena.destroy();
         vertexArena.destroy();
@@ -128,7 +186,10 @@ final class VulkanGeometryArena {
             int maxFramesInFlight) {
         SharedSourceSlice sharedSourceSlice = null;
         if (geometryUploadPlan.optionalSharedSourceSnapshot() != null) {
-            sharedSourceSlice = ensureSharedSourceSlice(geometryUploadPlan.optionalSharedSourceSnapshot());
+            sharedSourceSlice = ensureSharedSourceSlice(
+                    geometryUploadPlan.optionalSharedSourceSnapshot(),
+                    frameEpoch,
+                    maxFramesInFlight);
         } else if (geometryUploadPlan.sharedSourceRef() > 0L) {
             sharedSourceSlice = sharedSourceRegistry.get(geometryUploadPlan.sharedSourceRef());
         }
@@ -202,23 +263,50 @@ final class VulkanGeometryArena {
                 geometryUploadPlan.indexCount());
     }
 
-    private SharedSourceSlice ensureSharedSourceSlice(SharedGeometrySourceSnapshot sharedGeometrySourceSnapshot) {
+    private SharedSourceSlice ensureSharedSourceSlice(
+            SharedGeometrySourceSnapshot sharedGeometrySourceSnapshot,
+            long frameEpoch,
+            int maxFramesInFlight) {
         if (sharedGeometrySourceSnapshot == null || sharedGeometrySourceSnapshot.sharedSourceRef() <= 0L) {
             return null;
         }
         return sharedSourceRegistry.computeIfAbsent(
                 sharedGeometrySourceSnapshot.sharedSourceRef(),
-                ignored -> installSharedSource(sharedGeometrySourceSnapshot));
+                ignored -> installSharedSource(sharedGeometrySourceSnapshot, frameEpoch, maxFramesInFlight));
     }
 
-    private SharedSourceSlice installSharedSource(SharedGeometrySourceSnapshot sharedGeometrySourceSnapshot) {
+    private SharedSourceSlice installSharedSource(
+            SharedGeometrySourceSnapshot sharedGeometrySourceSnapshot,
+            long frameEpoch,
+            int maxFramesInFlight) {
         if (sharedGeometrySourceSnapshot == null || !sharedGeometrySourceSnapshot.hasVertexData()) {
             return null;
         }
-        BufferArena.Allocation vertexAllocation = sharedVertexArena.upload(
+        // Draws read the staging copy until the device-local promotion completes
+        BufferArena.Allocation stagedVertices = stagingArena.stage(
                 sharedGeometrySourceSnapshot.vertexData(),
-                -1L,
-                Integer.MAX_VALUE);
+                frameEpoch,
+                maxFramesInFlight);
+        BufferArena.Allocation stagedIndices = sharedGeometrySourceSnapshot.hasIndexData()
+                ? stagingArena.stage(sharedGeometrySourceSnapshot.indexData(), frameEpoch, maxFramesInFlight)
+                : null;
+        BufferArena.Allocation residentVertices = sharedVertexArena.allocate(stagedVertices.size());
+        BufferArena.Allocation residentIndices = stagedIndices != null
+                ? sharedIndexArena.allocate(stagedIndices.size())
+                : null;
+        pendingPromotions.addLast(new PendingPromotion(
+                sharedGeometrySourceSnapshot.sharedSourceRef(),
+                stagedVertices,
+                residentVertices,
+                stagedIndices,
+                residentIndices));
+        return sharedSourceSlice(sharedGeometrySourceSnapshot, stagedVertices, stagedIndices);
+    }
+
+    private static SharedSourceSlice sharedSourceSlice(
+            SharedGeometrySourceSnapshot sharedGeometrySourceSnapshot,
+            BufferArena.Allocation vertexAllocation,
+            BufferArena.Allocation indexAllocation) {
         VertexBindingSlice[] vertexBindings = new VertexBindingSlice[]{
                 new VertexBindingSlice(
                         0,
@@ -228,19 +316,9 @@ final class VulkanGeometryArena {
                         sharedGeometrySourceSnapshot.vertexCount(),
                         false)
         };
-
-        IndexSlice indexSlice = null;
-        if (sharedGeometrySourceSnapshot.hasIndexData()) {
-            BufferArena.Allocation indexAllocation = sharedIndexArena.upload(
-                    sharedGeometrySourceSnapshot.indexData(),
-                    -1L,
-                    Integer.MAX_VALUE);
-            indexSlice = new IndexSlice(
-                    indexAllocation.buffer(),
-                    indexAllocation.offset(),
-                    sharedGeometrySourceSnapshot.indexCount());
-        }
-
+        IndexSlice indexSlice = indexAllocation != null
+                ? new IndexSlice(indexAllocation.buffer(), indexAllocation.offset(), sharedGeometrySourceSnapshot.indexCount())
+                : null;
         return new SharedSourceSlice(
                 vertexBindings,
                 indexSlice,
@@ -248,6 +326,134 @@ final class VulkanGeometryArena {
                 sharedGeometrySourceSnapshot.indexCount());
     }
 
+    /**
+     * Swap in promotions whose copies have completed, then submit queued
+     * promotions up to the per-frame byte budget. Staging ranges of completed
+     * promotions are retired at {@code frameEpoch} so frames still in flight
+     * can finish reading them.
+     */
+    private void pumpPromotions(long frameEpoch) {
+        while (!inFlightPromotions.isEmpty() && inFlightPromotions.peekFirst().completion().isDone()) {
+            PromotionBatch batch = inFlightPromotions.removeFirst();
+            for (PendingPromotion promotion : batch.promotions()) {
+                completePromotion(promotion, frameEpoch);
+            }
+        }
+        if (pendingPromotions.isEmpty()) {
+            return;
+        }
+
+        List<PendingPromotion> batch = new ArrayList<>();
+        long batchBytes = 0L;
+        while (!pendingPromotions.isEmpty()) {
+            PendingPromotion next = pendingPromotions.peekFirst();
+            if (!batch.isEmpty() && batchBytes + next.byteCount() > DEFAULT_UPLOAD_BUDGET_BYTES) {
+                break;
+            }
+            pendingPromotions.removeFirst();
+            batch.add(next);
+            batchBytes += next.byteCount();
+        }
+        try {
+            AsyncGpuCompletion completion = runtime.submitTransferCommands(
+                    "geometry-promotion",
+                    commandBuffer -> recordPromotionCopies(commandBuffer, batch));
+            inFlightPromotions.addLast(new PromotionBatch(List.copyOf(batch), completion));
+        } catch (RuntimeException runtimeException) {
+            // Leave the geometry on its staging copy and retry next frame
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                pendingPromotions.addFirst(batch.get(i));
+            }
+            SketchDiagnostics.get().warn(DIAG_MODULE, "Failed to submit device-local geometry promotion", runtimeException);
+        }
+    }
+
+    private void recordPromotionCopies(VkCommandBuffer commandBuffer, List<PendingPromotion> promotions) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            VkBufferCopy.Buffer region = VkBufferCopy.calloc(1, stack);
+            for (PendingPromotion promotion : promotions) {
+                copyRange(commandBuffer, region, promotion.stagedVertices(), promotion.residentVertices());
+                if (promotion.stagedIndices() != null) {
+                    copyRange(commandBuffer, region, promotion.stagedIndices(), promotion.residentIndices());
+                }
+            }
+        }
+    }
+
+    private static void copyRange(
+            VkCommandBuffer commandBuffer,
+            VkBufferCopy.Buffer region,
+            BufferArena.Allocation source,
+            BufferArena.Allocation destination) {
+        if (source.size() <= 0) {
+            return;
+        }
+        region.get(0)
+                .srcOffset(source.offset())
+                .dstOffset(destination.offset())
+                .size(source.size());
+        vkCmdCopyBuffer(commandBuffer, source.buffer(), destination.buffer(), region);
+    }
+
+    private void completePromotion(PendingPromotion promotion, long frameEpoch) {
+        SharedSourceSlice staged = sharedSourceRegistry.get(promotion.sharedSourceRef());
+        if (staged != null) {
+            VertexBindingSlice stagedBinding = staged.vertexBindings()[0];
+            SharedSourceSlice resident = new SharedSourceSlice(
+                    new VertexBindingSlice[]{
+                            new VertexBindingSlice(
+                                    stagedBinding.binding(),
+                                    promotion.residentVertices().buffer(),
+                                    promotion.residentVertices().offset(),
+                                    stagedBinding.stride(),
+                                    stagedBinding.vertexCount(),
+                                    stagedBinding.instanced())
+                    },
+                    staged.indexSlice() != null && promotion.residentIndices() != null
+                            ? new IndexSlice(
+                                    promotion.residentIndices().buffer(),
+                                    promotion.residentIndices().offset(),
+                                    staged.indexSlice().indexCount())
+                            : staged.indexSlice(),
+                    staged.vertexCount(),
+                    staged.indexCount());
+            sharedSourceRegistry.put(promotion.sharedSourceRef(), resident);
+            rebindSharedSource(staged, resident);
+        }
+        stagingArena.retire(promotion.stagedVertices(), frameEpoch);
+        if (promotion.stagedIndices() != null) {
+            stagingArena.retire(promotion.stagedIndices(), frameEpoch);
+        }
+    }
+
+    private void rebindSharedSource(SharedSourceSlice staged, SharedSourceSlice resident) {
+        for (Map.Entry<GeometryHandleKey, GeometrySlice> entry : slices.entrySet()) {
+            GeometrySlice slice = entry.getValue();
+            boolean changed = false;
+            VertexBindingSlice[] vertexBindings = slice.vertexBindings().clone();
+            for (int i = 0; i < vertexBindings.length; i++) {
+                if (vertexBindings[i].equals(staged.vertexBindings()[0])) {
+                    vertexBindings[i] = resident.vertexBindings()[0];
+                    changed = true;
+                }
+            }
+            IndexSlice indexSlice = slice.indexSlice();
+            if (indexSlice != null && indexSlice.equals(staged.indexSlice())) {
+                indexSlice = resident.indexSlice();
+                changed = true;
+            }
+            if (changed) {
+                entry.setValue(new GeometrySlice(
+                        vertexBindings,
+                        indexSlice,
+                        slice.indirectSlice(),
+                        slice.sourceKind(),
+                        slice.vertexCount(),
+                        slice.indexCount()));
+            }
+        }
+    }
+
     private int findMemoryType(int typeFilter, int properties) {
         try (MemoryStack stack = MemoryStack.stackPush()) {
             VkPhysicalDeviceMemoryProperties memoryProperties = VkPhysicalDeviceMemoryProperties.calloc(stack);
@@ -263,10 +469,88 @@ final class VulkanGeometryArena {
         throw new IllegalStateException("Failed to find compatible Vulkan memory type");
     }
 
+    /**
+     * Arenas of one kind that grow by appending another arena once every
+     * existing one is full, so shared-source installs never fail on capacity.
+     * Allocations are tried in creation order, which keeps the first arena hot
+     * once its pinned staging ranges retire.
+     */
+    private final class ArenaChain {
+        private final String ownerId;
+        private final int usageFlags;
+        private final long baseCapacity;
+        private final boolean deviceLocal;
+        private final List<BufferArena> arenas = new ArrayList<>();
+
+        private ArenaChain(String ownerId, int usageFlags, long baseCapacity, boolean deviceLocal) {
+            this.ownerId = ownerId;
+            this.usageFlags = usageFlags;
+            this.baseCapacity = baseCapacity;
+            this.deviceLocal = deviceLocal;
+            arenas.add(new BufferArena(ownerId, usageFlags, baseCapacity, deviceLocal, true));
+        }
+
+        private synchronized BufferArena.Allocation stage(byte[] data, long frameEpoch, int maxFramesInFlight) {
+            for (BufferArena arena : arenas) {
+                BufferArena.Allocation allocation = arena.tryStage(data, frameEpoch, maxFramesInFlight);
+                if (allocation != null) {
+                    return allocation;
+                }
+            }
+            return grow(data.length).tryStage(data, frameEpoch, maxFramesInFlight);
+        }
+
+        private synchronized BufferArena.Allocation allocate(int size) {
+            for (BufferArena arena : arenas) {
+                BufferArena.Allocation allocation = arena.tryAllocate(size);
+                if (allocation != null) {
+                    return allocation;
+                }
+            }
+            return grow(size).tryAllocate(size);
+        }
+
+        private synchronized void retire(BufferArena.Allocation allocation, long frameEpoch) {
+            for (BufferArena arena : arenas) {
+                if (arena.buffer == allocation.buffer()) {
+                    arena.retire(allocation.offset(), frameEpoch);
+                    return;
+                }
+            }
+        }
+
+        private synchronized long liveBytes() {
+            long liveBytes = 0L;
+            for (BufferArena arena : arenas) {
+                liveBytes += arena.trackedLiveBytes();
+            }
+            return liveBytes;
+        }
+
+        private BufferArena grow(int size) {
+            long capacity = Math.max(baseCapacity, Long.highestOneBit(Math.max(size, 1) - 1L) << 1);
+            BufferArena arena = new BufferArena(ownerId + "#" + arenas.size(), usageFlags, capacity, deviceLocal, true);
+            arenas.add(arena);
+            SketchDiagnostics.get().warn(
+                    DIAG_MODULE,
+                    "Vulkan arena " + ownerId + " is full; added arena #" + (arenas.size() - 1)
+                            + " of " + capacity + " bytes for a " + size + " byte request");
+            return arena;
+        }
+
+        private synchronized void destroy() {
+            for (BufferArena arena : arenas) {
+                arena.destroy();
+            }
+            arenas.clear();
+        }
+    }
+
     private final class BufferArena {
         private final String ownerId;
         private final int usageFlags;
         private final long capacity;
+        private final boolean deviceLocal;
         private final long buffer;
         private final long memory;
         private final long mappedAddress;
@@ -274,16 +558,23 @@ final class VulkanGeometryArena {
         private final MemoryLease memoryLease;
         private long writeHead = 0L;
 
-        private BufferArena(String ownerId, int usageFlags, long capacity) {
+        private BufferArena(String ownerId, int usageFlags, long capacity, boolean deviceLocal, boolean queueShared) {
             this.ownerId = ownerId;
             this.usageFlags = usageFlags;
             this.capacity = capacity;
+            this.deviceLocal = deviceLocal;
             try (MemoryStack stack = MemoryStack.stackPush()) {
                 VkBufferCreateInfo bufferInfo = VkBufferCreateInfo.calloc(stack)
                         .sType(VK_STRUCTURE_TYPE_BUFFER_CREATE_INFO)
                         .size(capacity)
                         .usage(usageFlags)
                         .sharingMode(VK_SHARING_MODE_EXCLUSIVE);
+                if (queueShared && sharedQueueFamilies.length > 1) {
+                    // Staging is read by both queues; resident arenas are written by
+                    // transfer and read by graphics. No ownership transfers are recorded.
+                    bufferInfo.sharingMode(VK_SHARING_MODE_CONCURRENT)
+                            .pQueueFamilyIndices(stack.ints(sharedQueueFamilies));
+                }
                 LongBuffer bufferPointer = stack.mallocLong(1);
                 VulkanDeviceBootstrapper.checkVkResult(
                         vkCreateBuffer(device, bufferInfo, null, bufferPointer),
@@ -298,7 +589,9 @@ final class VulkanGeometryArena {
                         .allocationSize(memoryRequirements.size())
                         .memoryTypeIndex(findMemoryType(
                                 memoryRequirements.memoryTypeBits(),
-                                VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT | VK_MEMORY_PROPERTY_HOST_COHERENT_BIT));
+                                deviceLocal
+                                        ? VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT
+                                        : VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT | VK_MEMORY_PROPERTY_HOST_COHERENT_BIT));
                 LongBuffer memoryPointer = stack.mallocLong(1);
                 VulkanDeviceBootstrapper.checkVkResult(
                         vkAllocateMemory(device, allocInfo, null, memoryPointer),
@@ -309,11 +602,15 @@ final class VulkanGeometryArena {
                         vkBindBufferMemory(device, buffer, memory, 0L),
                         "vkBindBufferMemory(arena)");
 
-                org.lwjgl.PointerBuffer mappedPointer = stack.mallocPointer(1);
-                VulkanDeviceBootstrapper.checkVkResult(
-                        vkMapMemory(device, memory, 0L, capacity, 0, mappedPointer),
-                        "vkMapMemory(arena)");
-                this.mappedAddress = mappedPointer.get(0);
+                if (deviceLocal) {
+                    this.mappedAddress = 0L;
+                } else {
+                    org.lwjgl.PointerBuffer mappedPointer = stack.mallocPointer(1);
+                    VulkanDeviceBootstrapper.checkVkResult(
+                            vkMapMemory(device, memory, 0L, capacity, 0, mappedPointer),
+                            "vkMapMemory(arena)");
+                    this.mappedAddress = mappedPointer.get(0);
+                }
             }
             this.memoryLease = UnifiedMemoryFabric.get()
                     .openLease(MemoryDomain.GPU_GEOMETRY_ARENA, "vk-geometry-arena/" + ownerId)
@@ -326,19 +623,79 @@ final class VulkanGeometryArena {
         }
 
         private synchronized Allocation upload(ByteBuffer data, long frameEpoch, int maxFramesInFlight) {
+            Allocation allocation = tryUpload(data, frameEpoch, maxFramesInFlight);
+            if (allocation == null) {
+                throw new IllegalStateException("Vulkan arena " + ownerId + " is exhausted for size=" + data.remaining());
+            }
+            return allocation;
+        }
+
+        /**
+         * Write {@code data} into the ring, or return {@code null} when no range
+         * is free without waiting on frames still in flight.
+         */
+        private synchronized Allocation tryUpload(ByteBuffer data, long frameEpoch, int maxFramesInFlight) {
+            if (deviceLocal) {
+                throw new IllegalStateException("Device-local Vulkan arena " + ownerId + " is only written through staging copies");
+            }
             int size = data.remaining();
             long offset = reserve(size, frameEpoch, maxFramesInFlight);
+            if (offset < 0L) {
+                return null;
+            }
             ByteBuffer target = MemoryUtil.memByteBuffer(mappedAddress + offset, size);
             target.put(data);
             return new Allocation(buffer, offset, size);
         }
 
+        /**
+         * Reserve a permanent range without writing it, for staging copy
+         * destinations, or return {@code null} when the arena is full.
+         */
+        private synchronized Allocation tryAllocate(int size) {
+            long offset = reserve(size, -1L, Integer.MAX_VALUE);
+            return offset >= 0L ? new Allocation(buffer, offset, size) : null;
+        }
+
+        /**
+         * Upload {@code data} and pin its range until {@link #retire} is called,
+         * or return {@code null} when the ring is full.
+         */
+        private synchronized Allocation tryStage(byte[] data, long frameEpoch, int maxFramesInFlight) {
+            Allocation allocation = tryUpload(ByteBuffer.wrap(data), frameEpoch, maxFramesInFlight);
+            if (allocation != null && allocation.size() > 0) {
+                AllocationRange range = liveRanges.removeLast();
+                liveRanges.addLast(new AllocationRange(range.offset(), range.size(), PENDING_PROMOTION_EPOCH));
+            }
+            return allocation;
+        }
+
+        /**
+         * Mark a pinned range as last used in {@code frameEpoch}. Pinned ranges
+         * hold back reclamation of everything after them in the ring.
+         */
+        private synchronized void retire(long offset, long frameEpoch) {
+            List<AllocationRange> ordered = new ArrayList<>(liveRanges);
+            for (int i = 0; i < ordered.size(); i++) {
+                AllocationRange range = ordered.get(i);
+                if (range.offset() == offset && range.frameEpoch() == PENDING_PROMOTION_EPOCH) {
+                    ordered.set(i, new AllocationRange(range.offset(), range.size(), frameEpoch));
+                    liveRanges.clear();
+                    liveRanges.addAll(ordered);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @return the reserved offset, or {@code -1} when the request does not fit
+         */
         private long reserve(int size, long frameEpoch, int maxFramesInFlight) {
             if (size <= 0) {
                 return 0L;
             }
             if (size > capacity) {
-                throw new IllegalStateException("Requested upload size " + size + " exceeds Vulkan arena capacity " + capacity);
+                return -1L;
             }
 
             reclaim(frameEpoch, maxFramesInFlight);
@@ -350,7 +707,7 @@ final class VulkanGeometryArena {
                 reclaim(frameEpoch + Math.max(maxFramesInFlight, 1), maxFramesInFlight);
             }
             if (overlapsLiveRange(alignedHead, size)) {
-                throw new IllegalStateException("Vulkan arena is exhausted for usage=" + usageFlags + " size=" + size);
+                return -1L;
             }
             writeHead = alignedHead + size;
             liveRanges.addLast(new AllocationRange(alignedHead, size, frameEpoch));
@@ -444,6 +801,21 @@ final class VulkanGeometryArena {
     private record AllocationRange(long offset, int size, long frameEpoch) {
     }
 
+    private record PendingPromotion(
+            long sharedSourceRef,
+            BufferArena.Allocation stagedVertices,
+            BufferArena.Allocation residentVertices,
+            BufferArena.Allocation stagedIndices,
+            BufferArena.Allocation residentIndices
+    ) {
+        private long byteCount() {
+            return stagedVertices.size() + (stagedIndices != null ? stagedIndices.size() : 0L);
+        }
+    }
+
+    private record PromotionBatch(List<PendingPromotion> promotions, AsyncGpuCompletion completion) {
+    }
+
     record GeometrySlice(
             VertexBindingSlice[] vertexBindings,
             IndexSlice indexSlice,
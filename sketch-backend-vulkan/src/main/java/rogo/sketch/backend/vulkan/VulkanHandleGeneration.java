@@ -0,0 +1,19 @@
+package rogo.sketch.backend.vulkan;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide stamps for created buffer and image handles. The driver may
+ * hand a destroyed handle's value out again, so descriptor content keys pair
+ * each handle with the generation it was created under.
+ */
+final class VulkanHandleGeneration {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private VulkanHandleGeneration() {
+    }
+
+    static long next() {
+        return SEQUENCE.incrementAndGet();
+    }
+}
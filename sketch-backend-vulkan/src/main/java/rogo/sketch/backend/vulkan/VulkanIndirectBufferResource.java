@@ -38,6 +38,7 @@ final class VulkanIndirectBufferResource
     private final VkDevice device;
     private long buffer;
     private long memory;
+    private long bufferGeneration;
     private long mappedAddress;
     private long capacityBytes;
     private long positionBytes;
@@ -194,6 +195,11 @@ final class VulkanIndirectBufferResource
         return capacityBytes;
     }
 
+    @Override
+    public long descriptorGeneration() {
+        return bufferGeneration;
+    }
+
     private int ensureCommandCapacityForAppend() {
         if (positionBytes + COMMAND_STRIDE_BYTES <= capacityBytes) {
             return commandCount;
@@ -236,6 +242,7 @@ final class VulkanIndirectBufferResource
                     vkCreateBuffer(device, bufferInfo, null, bufferPointer),
                     "vkCreateBuffer(indirect-buffer)");
             buffer = bufferPointer.get(0);
+            bufferGeneration = VulkanHandleGeneration.next();
 
             VkMemoryRequirements memoryRequirements = VkMemoryRequirements.calloc(stack);
             vkGetBufferMemoryRequirements(device, buffer, memoryRequirements);
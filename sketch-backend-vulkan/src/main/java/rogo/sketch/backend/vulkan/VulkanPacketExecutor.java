@@ -13,6 +13,7 @@ import org.lwjgl.vulkan.VkImageBlit;
 import org.lwjgl.vulkan.VkImageCopy;
 import org.lwjgl.vulkan.VkImageMemoryBarrier;
 import org.lwjgl.vulkan.VkImageSubresourceRange;
+import org.lwjgl.vulkan.VkMemoryBarrier;
 import org.lwjgl.vulkan.VkRenderPassBeginInfo;
 import rogo.sketch.core.packet.ClearPacket;
 import rogo.sketch.core.packet.CopyTexturePacket;
@@ -24,7 +25,9 @@ import rogo.sketch.core.packet.RenderPacket;
 import rogo.sketch.core.packet.RenderPacketKind;
 import rogo.sketch.core.packet.ResourceBindingPlan;
 import rogo.sketch.core.packet.ResourceSetKey;
+import rogo.sketch.core.packet.draw.PackedDrawCommands;
 import rogo.sketch.core.backend.BackendPacketHandlerRegistry;
+import rogo.sketch.core.backend.ResourceHazardTracker;
 import rogo.sketch.core.graphics.ecs.GraphicsUniformSubject;
 import rogo.sketch.core.pipeline.PipelineConfig;
 import rogo.sketch.core.pipeline.PipelineType;
@@ -47,9 +50,12 @@ import static org.lwjgl.vulkan.VK10.VK_ACCESS_COLOR_ATTACHMENT_READ_BIT;
 import static org.lwjgl.vulkan.VK10.VK_ACCESS_COLOR_ATTACHMENT_WRITE_BIT;
 import static org.lwjgl.vulkan.VK10.VK_ACCESS_DEPTH_STENCIL_ATTACHMENT_READ_BIT;
 import static org.lwjgl.vulkan.VK10.VK_ACCESS_DEPTH_STENCIL_ATTACHMENT_WRITE_BIT;
+import static org.lwjgl.vulkan.VK10.VK_ACCESS_INDIRECT_COMMAND_READ_BIT;
 import static org.lwjgl.vulkan.VK10.VK_ACCESS_SHADER_READ_BIT;
+import static org.lwjgl.vulkan.VK10.VK_ACCESS_SHADER_WRITE_BIT;
 import static org.lwjgl.vulkan.VK10.VK_ACCESS_TRANSFER_READ_BIT;
 import static org.lwjgl.vulkan.VK10.VK_ACCESS_TRANSFER_WRITE_BIT;
+import static org.lwjgl.vulkan.VK10.VK_ACCESS_UNIFORM_READ_BIT;
 import static org.lwjgl.vulkan.VK10.VK_FILTER_NEAREST;
 import static org.lwjgl.vulkan.VK10.VK_FORMAT_UNDEFINED;
 import static org.lwjgl.vulkan.VK10.VK_IMAGE_ASPECT_COLOR_BIT;
@@ -70,12 +76,15 @@ import static org.lwjgl.vulkan.VK10.VK_PIPELINE_BIND_POINT_GRAPHICS;
 import static org.lwjgl.vulkan.VK10.VK_PIPELINE_STAGE_ALL_COMMANDS_BIT;
 import static org.lwjgl.vulkan.VK10.VK_PIPELINE_STAGE_COLOR_ATTACHMENT_OUTPUT_BIT;
 import static org.lwjgl.vulkan.VK10.VK_PIPELINE_STAGE_COMPUTE_SHADER_BIT;
+import static org.lwjgl.vulkan.VK10.VK_PIPELINE_STAGE_DRAW_INDIRECT_BIT;
 import static org.lwjgl.vulkan.VK10.VK_PIPELINE_STAGE_EARLY_FRAGMENT_TESTS_BIT;
 import static org.lwjgl.vulkan.VK10.VK_PIPELINE_STAGE_FRAGMENT_SHADER_BIT;
 import static org.lwjgl.vulkan.VK10.VK_PIPELINE_STAGE_LATE_FRAGMENT_TESTS_BIT;
 import static org.lwjgl.vulkan.VK10.VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT;
 import static org.lwjgl.vulkan.VK10.VK_PIPELINE_STAGE_TRANSFER_BIT;
+import static org.lwjgl.vulkan.VK10.VK_PIPELINE_STAGE_VERTEX_SHADER_BIT;
 import static org.lwjgl.vulkan.VK10.VK_STRUCTURE_TYPE_IMAGE_MEMORY_BARRIER;
+import static org.lwjgl.vulkan.VK10.VK_STRUCTURE_TYPE_MEMORY_BARRIER;
 import static org.lwjgl.vulkan.VK10.VK_STRUCTURE_TYPE_RENDER_PASS_BEGIN_INFO;
 import static org.lwjgl.vulkan.VK10.VK_SUBPASS_CONTENTS_INLINE;
 import static org.lwjgl.vulkan.VK10.vkCmdBeginRenderPass;
@@ -144,6 +153,7 @@ final class VulkanPacketExecutor {
             packets.addAll(immediatePackets);
         }
         String threadName = Thread.currentThread().getName();
+        ResourceHazardTracker hazardTracker = new ResourceHazardTracker();
 
         try (MemoryStack stack = MemoryStack.stackPush()) {
             VulkanPacketExecutionContext executionContext = new VulkanPacketExecutionContext(
@@ -156,6 +166,11 @@ final class VulkanPacketExecutor {
             for (RenderPacket packet : packets) {
                 pushDebugLabel(commandBuffer, debugLabel(packet));
                 try {
+                    ResourceHazardTracker.Barrier hazardBarrier = hazardTracker.beforePacket(packet);
+                    if (!hazardBarrier.isEmpty()) {
+                        executionContext.ensureRenderPassClosed();
+                        recordHazardBarrier(commandBuffer, hazardBarrier);
+                    }
                     if (packet.packetKind() == RenderPacketKind.CLEAR && packet instanceof ClearPacket clearPacket) {
                         if (targetsRenderPass(clearPacket.renderTargetId())) {
                             executionContext.ensureRenderPassOpen(clearPacket.renderTargetId());
@@ -275,22 +290,23 @@ final class VulkanPacketExecutor {
                         geometrySlice.indexSlice().offset(),
                         VK_INDEX_TYPE_UINT32);
             }
-            for (DrawPlan.DirectDrawItem item : drawPlan.directItems()) {
-                if (!item.indexed()) {
-                    int vertexCount = item.vertexCount() > 0 ? item.vertexCount() : geometrySlice.vertexCount();
-                    vkCmdDraw(commandBuffer, vertexCount, item.instanceCount(), item.firstVertex(), item.baseInstance());
+            PackedDrawCommands commands = drawPlan.directCommands();
+            for (int i = 0; i < commands.size(); i++) {
+                if (!commands.indexed(i)) {
+                    int vertexCount = commands.elementCount(i) > 0 ? commands.elementCount(i) : geometrySlice.vertexCount();
+                    vkCmdDraw(commandBuffer, vertexCount, commands.instanceCount(i), commands.firstVertex(i), commands.baseInstance(i));
                     continue;
                 }
-                if (geometrySlice.indexSlice() == null || item.indexedSlice() == null) {
+                if (geometrySlice.indexSlice() == null) {
                     continue;
                 }
                 vkCmdDrawIndexed(
                         commandBuffer,
-                        item.indexedSlice().indexCount(),
-                        item.instanceCount(),
-                        (int) (item.indexedSlice().firstIndexByteOffset() / Integer.BYTES),
-                        item.indexedSlice().baseVertex(),
-                        item.baseInstance());
+                        commands.elementCount(i),
+                        commands.instanceCount(i),
+                        commands.firstIndex(i),
+                        commands.baseVertex(i),
+                        commands.baseInstance(i));
             }
             return;
         }
@@ -1148,6 +1164,67 @@ final class VulkanPacketExecutor {
         }
     }
 
+    private void recordHazardBarrier(VkCommandBuffer commandBuffer, ResourceHazardTracker.Barrier barrier) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            VkMemoryBarrier.Buffer memoryBarrier = VkMemoryBarrier.calloc(1, stack);
+            memoryBarrier.get(0)
+                    .sType(VK_STRUCTURE_TYPE_MEMORY_BARRIER)
+                    .srcAccessMask(toVkAccessMask(barrier.srcAccess()))
+                    .dstAccessMask(toVkAccessMask(barrier.dstAccess()));
+            vkCmdPipelineBarrier(
+                    commandBuffer,
+                    toVkStageMask(barrier.srcStages()),
+                    toVkStageMask(barrier.dstStages()),
+                    0,
+                    memoryBarrier,
+                    null,
+                    null);
+        }
+    }
+
+    private static int toVkStageMask(int stages) {
+        int mask = 0;
+        if ((stages & ResourceHazardTracker.STAGE_DRAW_INDIRECT) != 0) {
+            mask |= VK_PIPELINE_STAGE_DRAW_INDIRECT_BIT;
+        }
+        if ((stages & ResourceHazardTracker.STAGE_VERTEX_SHADER) != 0) {
+            mask |= VK_PIPELINE_STAGE_VERTEX_SHADER_BIT;
+        }
+        if ((stages & ResourceHazardTracker.STAGE_FRAGMENT_SHADER) != 0) {
+            mask |= VK_PIPELINE_STAGE_FRAGMENT_SHADER_BIT;
+        }
+        if ((stages & ResourceHazardTracker.STAGE_COMPUTE_SHADER) != 0) {
+            mask |= VK_PIPELINE_STAGE_COMPUTE_SHADER_BIT;
+        }
+        if ((stages & ResourceHazardTracker.STAGE_TRANSFER) != 0) {
+            mask |= VK_PIPELINE_STAGE_TRANSFER_BIT;
+        }
+        return mask != 0 ? mask : VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT;
+    }
+
+    private static int toVkAccessMask(int access) {
+        int mask = 0;
+        if ((access & ResourceHazardTracker.ACCESS_INDIRECT_COMMAND_READ) != 0) {
+            mask |= VK_ACCESS_INDIRECT_COMMAND_READ_BIT;
+        }
+        if ((access & ResourceHazardTracker.ACCESS_UNIFORM_READ) != 0) {
+            mask |= VK_ACCESS_UNIFORM_READ_BIT;
+        }
+        if ((access & ResourceHazardTracker.ACCESS_SHADER_READ) != 0) {
+            mask |= VK_ACCESS_SHADER_READ_BIT;
+        }
+        if ((access & ResourceHazardTracker.ACCESS_SHADER_WRITE) != 0) {
+            mask |= VK_ACCESS_SHADER_WRITE_BIT;
+        }
+        if ((access & ResourceHazardTracker.ACCESS_TRANSFER_READ) != 0) {
+            mask |= VK_ACCESS_TRANSFER_READ_BIT;
+        }
+        if ((access & ResourceHazardTracker.ACCESS_TRANSFER_WRITE) != 0) {
+            mask |= VK_ACCESS_TRANSFER_WRITE_BIT;
+        }
+        return mask;
+    }
+
     private LayoutTransition resolveTransition(int oldLayout, int newLayout) {
         int srcStageMask = VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT;
         int srcAccessMask = 0;
@@ -41,6 +41,7 @@ final class VulkanReadbackBufferResource
     private long capacityBytes;
     private long buffer;
     private long memory;
+    private long bufferGeneration;
     private long mappedAddress;
     private boolean disposed;
 
@@ -151,6 +152,11 @@ final class VulkanReadbackBufferResource
         return capacityBytes;
     }
 
+    @Override
+    public long descriptorGeneration() {
+        return bufferGeneration;
+    }
+
     private void resize(long newCapacityBytes) {
         byte[] snapshot = null;
         if (mappedAddress != MemoryUtil.NULL && capacityBytes > 0L) {
@@ -184,6 +190,7 @@ final class VulkanReadbackBufferResource
                     vkCreateBuffer(device, bufferInfo, null, bufferPointer),
                     "vkCreateBuffer(readback-buffer)");
             buffer = bufferPointer.get(0);
+            bufferGeneration = VulkanHandleGeneration.next();
 
             VkMemoryRequirements memoryRequirements = VkMemoryRequirements.calloc(stack);
             vkGetBufferMemoryRequirements(device, buffer, memoryRequirements);
@@ -162,6 +162,22 @@ final class VulkanRenderDevice implements RenderDevice {
         return true;
     }
 
+    /**
+     * Vulkan geometry is installed into {@link VulkanGeometryArena} rather than
+     * per-binding buffers, so the residency pools only report the arena's
+     * shared geometry; there is nothing for them to materialize or evict.
+     */
+    @Override
+    public <C extends RenderContext> void materializePendingGeometryResources(GraphicsPipeline<C> pipeline) {
+        if (pipeline == null) {
+            return;
+        }
+        VulkanGeometryArena geometryArena = resourceAllocator.geometryArena();
+        for (PipelineType pipelineType : pipeline.getPipelineTypes()) {
+            pipeline.getMeshResidencyPool(pipelineType).bindBackendResidentBytes(geometryArena::sharedResidentBytes);
+        }
+    }
+
     @Override
     public <C extends RenderContext> AsyncGpuCompletion submitAsyncPackets(
             GraphicsPipeline<C> pipeline,
@@ -48,7 +48,7 @@ final class VulkanResourceAllocator implements ResourceAllocator, LogicalResourc
         this.runtime = runtime;
         this.resourceResolver = resourceResolver;
         this.descriptorArena = new VulkanDescriptorArena(runtime.device(), resourceResolver);
-        this.geometryArena = new VulkanGeometryArena(runtime.physicalDevice(), runtime.device());
+        this.geometryArena = new VulkanGeometryArena(runtime);
     }
 
     @Override
@@ -183,7 +183,7 @@ final class VulkanResourceAllocator implements ResourceAllocator, LogicalResourc
     public void installExecutionPlan(FrameExecutionPlan plan, long frameEpoch, int framesInFlight) {
         FrameExecutionPlan nextExecutionPlan = plan != null ? plan : FrameExecutionPlan.empty();
         geometryArena.install(nextExecutionPlan.geometryUploadPlans(), frameEpoch, framesInFlight);
-        descriptorArena.install(nextExecutionPlan.resourceUploadPlans());
+        descriptorArena.install(nextExecutionPlan.resourceUploadPlans(), frameEpoch, framesInFlight);
     }
 
     @Override
@@ -46,6 +46,7 @@ final class VulkanStorageBufferResource implements BackendStorageBuffer, VulkanD
     private long capacityBytes;
     private long buffer;
     private long memory;
+    private long bufferGeneration;
     private long mappedAddress;
     private long position;
     private final MemoryLease mappedLease;
@@ -137,6 +138,19 @@ final class VulkanStorageBufferResource implements BackendStorageBuffer, VulkanD
         position = Math.max(position, byteCount);
     }
 
+    @Override
+    public void uploadRange(long sourceAddress, long destinationOffset, long byteCount) {
+        checkDisposed();
+        if (sourceAddress == MemoryUtil.NULL || byteCount <= 0L) {
+            return;
+        }
+        if (destinationOffset < 0L || destinationOffset + byteCount > capacityBytes) {
+            throw new IllegalArgumentException("Storage buffer range upload is out of bounds");
+        }
+        MemoryUtil.memCopy(sourceAddress, mappedAddress + destinationOffset, byteCount);
+        position = Math.max(position, destinationOffset + byteCount);
+    }
+
     @Override
     public void upload(long elementIndex) {
         upload(elementIndex, Math.toIntExact(strideBytes));
@@ -209,6 +223,11 @@ final class VulkanStorageBufferResource implements BackendStorageBuffer, VulkanD
         return capacityBytes;
     }
 
+    @Override
+    public long descriptorGeneration() {
+        return bufferGeneration;
+    }
+
     @Override
     public void dispose() {
         if (disposed) {
@@ -264,6 +283,7 @@ final class VulkanStorageBufferResource implements BackendStorageBuffer, VulkanD
                     vkCreateBuffer(device, bufferInfo, null, bufferPointer),
                     "vkCreateBuffer(storage-buffer)");
             buffer = bufferPointer.get(0);
+            bufferGeneration = VulkanHandleGeneration.next();
 
             VkMemoryRequirements memoryRequirements = VkMemoryRequirements.calloc(stack);
             vkGetBufferMemoryRequirements(device, buffer, memoryRequirements);
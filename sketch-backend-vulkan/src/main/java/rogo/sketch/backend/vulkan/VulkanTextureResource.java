@@ -34,6 +34,7 @@ public final class VulkanTextureResource implements ResourceObject, BackendInsta
     private final int aspectMask;
     private final int usageFlags;
     private final boolean ownsHandles;
+    private final long handleGeneration = VulkanHandleGeneration.next();
     private final MemoryLease textureLease;
     private int currentImageLayout;
     private boolean disposed;
@@ -118,6 +119,10 @@ public final class VulkanTextureResource implements ResourceObject, BackendInsta
         return memory;
     }
 
+    long handleGeneration() {
+        return handleGeneration;
+    }
+
     public int width() {
         return width;
     }
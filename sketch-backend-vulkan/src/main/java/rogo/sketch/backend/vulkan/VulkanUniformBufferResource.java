@@ -45,6 +45,7 @@ public final class VulkanUniformBufferResource implements ResourceObject, Backen
     private final long buffer;
     private final long memory;
     private final long mappedAddress;
+    private final long bufferGeneration;
     private final ResolvedBufferResource descriptor;
     private final MemoryLease mappedLease;
     private boolean disposed;
@@ -87,6 +88,7 @@ public final class VulkanUniformBufferResource implements ResourceObject, Backen
                     vkCreateBuffer(device, bufferInfo, null, bufferPointer),
                     "vkCreateBuffer(uniform-buffer)");
             this.buffer = bufferPointer.get(0);
+            this.bufferGeneration = VulkanHandleGeneration.next();
 
             VkMemoryRequirements memoryRequirements = VkMemoryRequirements.calloc(stack);
             vkGetBufferMemoryRequirements(device, buffer, memoryRequirements);
@@ -124,6 +126,10 @@ public final class VulkanUniformBufferResource implements ResourceObject, Backen
         return size;
     }
 
+    long bufferGeneration() {
+        return bufferGeneration;
+    }
+
     @Override
     public ResolvedBufferResource descriptor() {
         return descriptor;
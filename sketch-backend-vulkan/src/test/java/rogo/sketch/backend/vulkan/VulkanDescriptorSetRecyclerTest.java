@@ -0,0 +1,357 @@
+package rogo.sketch.backend.vulkan;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link VulkanDescriptorSetRecycler} driven with fake pool and set handles,
+ * the way {@link VulkanDescriptorArena} drives it.
+ */
+class VulkanDescriptorSetRecyclerTest {
+    private static final long LAYOUT_A = 0xA0L;
+    private static final long LAYOUT_B = 0xB0L;
+    private static final int FRAMES_IN_FLIGHT = 2;
+
+    private final VulkanDescriptorSetRecycler recycler = new VulkanDescriptorSetRecycler();
+    private long nextSet = 1_000L;
+
+    @Test
+    void identicalContentSharesOneSetAndCountsHits() {
+        VulkanDescriptorSetRecycler.Pool pool = recycler.addPool(1L, 8);
+        VulkanDescriptorSetRecycler.ContentKey key = key(LAYOUT_A, 1, 2, 3);
+
+        assertNull(recycler.acquire(key));
+        VulkanDescriptorSetRecycler.CachedSet set = recycler.register(key, nextSet++, pool);
+        assertSame(set, recycler.acquire(key(LAYOUT_A, 1, 2, 3)));
+
+        // A resource set whose contents did not change keeps its set, as a hit
+        assertTrue(recycler.stillHolds(set, key));
+        assertFalse(recycler.stillHolds(set, key(LAYOUT_A, 1, 2, 4)));
+        assertFalse(recycler.stillHolds(null, key));
+
+        VulkanDescriptorCacheStats stats = recycler.stats();
+        assertEquals(2L, stats.hits());
+        assertEquals(1L, stats.misses());
+        assertEquals(1, stats.liveSets());
+        assertEquals(2.0 / 3.0, stats.hitRate(), 1e-9);
+
+        // Both resource sets must let go before the set retires
+        recycler.release(set);
+        assertEquals(1, recycler.stats().liveSets());
+        recycler.release(set);
+        assertEquals(0, recycler.stats().liveSets());
+        assertEquals(1, recycler.stats().retiredSets());
+        assertFalse(recycler.stillHolds(set, key));
+    }
+
+    @Test
+    void releasedSetIsNotRewrittenWhileFramesInFlightCanReadIt() {
+        VulkanDescriptorSetRecycler.Pool pool = recycler.addPool(1L, 8);
+        recycler.beginFrame(0L, FRAMES_IN_FLIGHT);
+        VulkanDescriptorSetRecycler.CachedSet set = recycler.register(key(LAYOUT_A, 1), nextSet++, pool);
+        set.markWritten(true);
+        recycler.release(set);
+
+        recycler.beginFrame(1L, FRAMES_IN_FLIGHT);
+        assertNull(recycler.reuseFree(key(LAYOUT_A, 2)));
+        assertEquals(1, recycler.stats().retiredSets());
+
+        recycler.beginFrame(2L, FRAMES_IN_FLIGHT);
+        assertEquals(1, recycler.stats().freeSets());
+        VulkanDescriptorSetRecycler.CachedSet reused = recycler.reuseFree(key(LAYOUT_A, 2));
+        assertSame(set, reused);
+        assertEquals(key(LAYOUT_A, 2), reused.key());
+        assertFalse(reused.complete());
+        // The old content is gone with the rewrite
+        assertNull(recycler.acquire(key(LAYOUT_A, 1)));
+        assertSame(reused, recycler.acquire(key(LAYOUT_A, 2)));
+        assertEquals(1L, recycler.stats().recycled());
+    }
+
+    @Test
+    void retiredContentRevivesWithoutAWrite() {
+        VulkanDescriptorSetRecycler.Pool pool = recycler.addPool(1L, 8);
+        VulkanDescriptorSetRecycler.CachedSet set = recycler.register(key(LAYOUT_A, 1), nextSet++, pool);
+        recycler.release(set);
+
+        recycler.beginFrame(1L, FRAMES_IN_FLIGHT);
+        assertSame(set, recycler.acquire(key(LAYOUT_A, 1)));
+
+        // The retirement from epoch 0 no longer applies once revived
+        recycler.beginFrame(5L, FRAMES_IN_FLIGHT);
+        assertEquals(0, recycler.stats().freeSets());
+        assertNull(recycler.reuseFree(key(LAYOUT_A, 2)));
+
+        recycler.release(set);
+        recycler.beginFrame(6L, FRAMES_IN_FLIGHT);
+        assertEquals(0, recycler.stats().freeSets());
+        recycler.beginFrame(7L, FRAMES_IN_FLIGHT);
+        assertEquals(1, recycler.stats().freeSets());
+    }
+
+    @Test
+    void freeSetsOnlyServeTheirLayout() {
+        VulkanDescriptorSetRecycler.Pool pool = recycler.addPool(1L, 8);
+        recycler.release(recycler.register(key(LAYOUT_A, 1), nextSet++, pool));
+        recycler.beginFrame(FRAMES_IN_FLIGHT, FRAMES_IN_FLIGHT);
+
+        assertNull(recycler.reuseFree(key(LAYOUT_B, 1)));
+        VulkanDescriptorSetRecycler.CachedSet reused = recycler.reuseFree(key(LAYOUT_A, 9));
+        assertEquals(LAYOUT_A, reused.key().layoutHandle());
+        assertNull(recycler.reuseFree(key(LAYOUT_A, 10)));
+    }
+
+    @Test
+    void evictFreeHandsOnlyFreeSetsBack() {
+        VulkanDescriptorSetRecycler.Pool pool = recycler.addPool(1L, 8);
+        recycler.release(recycler.register(key(LAYOUT_A, 1), nextSet++, pool));
+        recycler.release(recycler.register(key(LAYOUT_B, 2), nextSet++, pool));
+        VulkanDescriptorSetRecycler.CachedSet live = recycler.register(key(LAYOUT_A, 3), nextSet++, pool);
+        recycler.beginFrame(FRAMES_IN_FLIGHT, FRAMES_IN_FLIGHT);
+
+        List<VulkanDescriptorSetRecycler.CachedSet> evicted = recycler.evictFree();
+        assertEquals(2, evicted.size());
+        assertFalse(evicted.contains(live));
+        assertEquals(0, recycler.stats().freeSets());
+        assertNull(recycler.acquire(key(LAYOUT_A, 1)));
+        assertNull(recycler.reuseFree(key(LAYOUT_A, 4)));
+        assertSame(live, recycler.acquire(key(LAYOUT_A, 3)));
+        assertTrue(recycler.evictFree().isEmpty());
+    }
+
+    @Test
+    void idlePoolsAreResetOrDestroyed() {
+        VulkanDescriptorSetRecycler.Pool primary = recycler.addPool(1L, 8);
+        VulkanDescriptorSetRecycler.Pool grown = recycler.addPool(2L, 16);
+        VulkanDescriptorSetRecycler.Pool busy = recycler.addPool(3L, 32);
+        recycler.release(recycler.register(key(LAYOUT_A, 1), nextSet++, primary));
+        recycler.release(recycler.register(key(LAYOUT_A, 2), nextSet++, grown));
+        recycler.register(key(LAYOUT_A, 3), nextSet++, busy);
+
+        long idleSince = FRAMES_IN_FLIGHT;
+        assertTrue(recycler.beginFrame(idleSince, FRAMES_IN_FLIGHT).isEmpty());
+        assertTrue(recycler.beginFrame(idleSince + VulkanDescriptorSetRecycler.POOL_IDLE_FRAMES - 1, FRAMES_IN_FLIGHT).isEmpty());
+        List<VulkanDescriptorSetRecycler.PoolCompaction> compactions =
+                recycler.beginFrame(idleSince + VulkanDescriptorSetRecycler.POOL_IDLE_FRAMES, FRAMES_IN_FLIGHT);
+
+        assertEquals(List.of(
+                new VulkanDescriptorSetRecycler.PoolCompaction(1L, false),
+                new VulkanDescriptorSetRecycler.PoolCompaction(2L, true)), compactions);
+        assertEquals(List.of(primary, busy), recycler.pools());
+        assertNull(recycler.acquire(key(LAYOUT_A, 1)));
+        assertNull(recycler.acquire(key(LAYOUT_A, 2)));
+        VulkanDescriptorCacheStats stats = recycler.stats();
+        assertEquals(1L, stats.poolsReset());
+        assertEquals(1L, stats.poolsDestroyed());
+        assertEquals(0, stats.freeSets());
+        assertEquals(1, stats.liveSets());
+        assertEquals(2, stats.livePools());
+
+        // An emptied primary pool is not reset again
+        assertTrue(recycler.beginFrame(idleSince + 10L * VulkanDescriptorSetRecycler.POOL_IDLE_FRAMES, FRAMES_IN_FLIGHT).isEmpty());
+    }
+
+    @Test
+    void contentKeysCompareEveryWord() {
+        long[] words = new long[40];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = i * 0x1_0000_0001L;
+        }
+        VulkanDescriptorSetRecycler.ContentKey key = key(LAYOUT_A, words);
+        assertEquals(40, key.wordCount());
+        assertEquals(key, key(LAYOUT_A, words.clone()));
+        assertEquals(key.hashCode(), key(LAYOUT_A, words.clone()).hashCode());
+        assertNotEquals(key, key(LAYOUT_B, words));
+        assertNotEquals(key, key(LAYOUT_A, Arrays.copyOf(words, 39)));
+        for (int i = 0; i < words.length; i++) {
+            long[] changed = words.clone();
+            changed[i] ^= 1L << (i % 64);
+            assertNotEquals(key, key(LAYOUT_A, changed), "word " + i);
+        }
+    }
+
+    @Test
+    void recreatedHandlesWithReusedValuesGetNewKeys() {
+        // The driver may return a destroyed image view's value for the next one
+        VulkanTextureResource destroyed = VulkanTextureResource.borrowed(null, 7L, 8L, 9L, 16, 16);
+        destroyed.dispose();
+        VulkanTextureResource recreated = VulkanTextureResource.borrowed(null, 7L, 8L, 9L, 16, 16);
+
+        assertTrue(recreated.handleGeneration() > destroyed.handleGeneration());
+        VulkanDescriptorSetRecycler.Pool pool = recycler.addPool(1L, 8);
+        recycler.register(textureKey(destroyed), nextSet++, pool);
+        assertNull(recycler.acquire(textureKey(recreated)));
+    }
+
+    @Test
+    void randomFramesNeverServeStaleOrInFlightSets() {
+        Random random = new Random(50L);
+        FakeDevice device = new FakeDevice();
+        device.grow();
+        int resourceSets = 40;
+        VulkanDescriptorSetRecycler.CachedSet[] installed = new VulkanDescriptorSetRecycler.CachedSet[resourceSets];
+        int[] contents = new int[resourceSets];
+        List<VulkanDescriptorSetRecycler.CachedSet> burst = new ArrayList<>();
+
+        for (long frame = 1; frame <= 20_000; frame++) {
+            for (VulkanDescriptorSetRecycler.PoolCompaction compaction : recycler.beginFrame(frame, FRAMES_IN_FLIGHT)) {
+                device.compact(compaction, frame);
+            }
+            for (int r = 0; r < resourceSets; r++) {
+                switch (r % 4) {
+                    case 0 -> {
+                        // Steady
+                    }
+                    case 1 -> contents[r] = (int) (frame & 1L);
+                    case 2 -> contents[r] = random.nextInt(8) == 0 ? random.nextInt(6) : contents[r];
+                    default -> contents[r] = random.nextInt(50) == 0 ? random.nextInt(1000) : contents[r];
+                }
+                long layout = r % 3 == 0 ? LAYOUT_B : LAYOUT_A;
+                installed[r] = install(device, installed[r], key(layout, r % 5, contents[r]), frame);
+            }
+            // A burst of one-off content forces pool growth, then drains away
+            if (frame >= 5_000 && frame < 5_010) {
+                for (int i = 0; i < 60; i++) {
+                    burst.add(install(device, null, key(LAYOUT_A, 7, frame, i), frame));
+                }
+            } else if (frame == 5_010) {
+                burst.forEach(recycler::release);
+                burst.clear();
+            }
+
+            if (frame % 997 == 0) {
+                VulkanDescriptorCacheStats stats = recycler.stats();
+                int distinct = (int) Arrays.stream(installed).distinct().count();
+                assertEquals(distinct, stats.liveSets(), "frame " + frame);
+                assertEquals(device.allocated(), stats.liveSets() + stats.retiredSets() + stats.freeSets(), "frame " + frame);
+            }
+        }
+
+        VulkanDescriptorCacheStats stats = recycler.stats();
+        assertTrue(stats.hitRate() > 0.9, stats.toString());
+        assertTrue(stats.recycled() > 0L, stats.toString());
+        assertTrue(device.grown > 1, "burst never grew the arena");
+        assertTrue(stats.poolsDestroyed() > 0L, stats.toString());
+        assertTrue(recycler.pools().size() < device.grown, stats.toString());
+    }
+
+    /**
+     * {@link VulkanDescriptorArena#installResourceSet}'s flow, checking that a
+     * bound set holds its content and was not bound within the frames in flight
+     * when it gets rewritten.
+     */
+    private VulkanDescriptorSetRecycler.CachedSet install(
+            FakeDevice device,
+            VulkanDescriptorSetRecycler.CachedSet previous,
+            VulkanDescriptorSetRecycler.ContentKey key,
+            long frame) {
+        VulkanDescriptorSetRecycler.CachedSet set;
+        if (recycler.stillHolds(previous, key)) {
+            set = previous;
+        } else {
+            set = recycler.acquire(key);
+            if (set == null) {
+                set = recycler.reuseFree(key);
+                if (set != null) {
+                    long lastBound = device.lastBound.get(set.descriptorSet());
+                    assertTrue(frame - lastBound >= FRAMES_IN_FLIGHT,
+                            "set " + set.descriptorSet() + " rewritten at " + frame + ", bound at " + lastBound);
+                } else {
+                    set = device.allocate(key);
+                }
+                device.written.put(set.descriptorSet(), key);
+            }
+            recycler.release(previous);
+        }
+        assertEquals(key, device.written.get(set.descriptorSet()), "frame " + frame);
+        device.lastBound.put(set.descriptorSet(), frame);
+        return set;
+    }
+
+    private static VulkanDescriptorSetRecycler.ContentKey key(long layout, long... words) {
+        VulkanDescriptorSetRecycler.ContentKey.Builder builder = VulkanDescriptorSetRecycler.ContentKey.builder(layout);
+        for (long word : words) {
+            builder.add(word);
+        }
+        return builder.build();
+    }
+
+    private static VulkanDescriptorSetRecycler.ContentKey textureKey(VulkanTextureResource texture) {
+        return key(LAYOUT_A, 0, texture.imageView(), texture.sampler(), texture.imageLayout(), texture.handleGeneration());
+    }
+
+    /**
+     * Pools of fixed capacity growing like the arena's, 8 * 2^n sets.
+     */
+    private final class FakeDevice {
+        private final Map<Long, Integer> allocatedByPool = new HashMap<>();
+        private final Map<Long, VulkanDescriptorSetRecycler.ContentKey> written = new HashMap<>();
+        private final Map<Long, Long> lastBound = new HashMap<>();
+        private final Map<Long, Long> poolOfSet = new HashMap<>();
+        private int grown;
+
+        VulkanDescriptorSetRecycler.CachedSet allocate(VulkanDescriptorSetRecycler.ContentKey key) {
+            VulkanDescriptorSetRecycler.Pool pool = poolWithRoom();
+            if (pool == null) {
+                for (VulkanDescriptorSetRecycler.CachedSet evicted : recycler.evictFree()) {
+                    forget(evicted.descriptorSet());
+                }
+                pool = poolWithRoom();
+            }
+            if (pool == null) {
+                pool = grow();
+            }
+            long handle = nextSet++;
+            allocatedByPool.merge(pool.handle(), 1, Integer::sum);
+            poolOfSet.put(handle, pool.handle());
+            return recycler.register(key, handle, pool);
+        }
+
+        VulkanDescriptorSetRecycler.Pool grow() {
+            return recycler.addPool(100L + grown, 8 << grown++);
+        }
+
+        void compact(VulkanDescriptorSetRecycler.PoolCompaction compaction, long frame) {
+            for (Long set : new ArrayList<>(poolOfSet.keySet())) {
+                if (poolOfSet.get(set) == compaction.poolHandle()) {
+                    long lastBound = this.lastBound.get(set);
+                    assertTrue(frame - lastBound >= FRAMES_IN_FLIGHT, "pool compacted under set " + set + " at " + frame);
+                    forget(set);
+                }
+            }
+            assertEquals(0, allocatedByPool.getOrDefault(compaction.poolHandle(), 0));
+        }
+
+        int allocated() {
+            return poolOfSet.size();
+        }
+
+        private VulkanDescriptorSetRecycler.Pool poolWithRoom() {
+            for (VulkanDescriptorSetRecycler.Pool pool : recycler.pools()) {
+                if (allocatedByPool.getOrDefault(pool.handle(), 0) < pool.maxSets()) {
+                    return pool;
+                }
+            }
+            return null;
+        }
+
+        private void forget(long set) {
+            Long pool = poolOfSet.remove(set);
+            allocatedByPool.merge(pool, -1, Integer::sum);
+            written.remove(set);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package rogo.sketch.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rogo.sketch.core.data.PrimitiveType;
+import rogo.sketch.core.packet.DrawPlan;
+import rogo.sketch.core.packet.draw.IndexedDrawSlice;
+import rogo.sketch.core.packet.draw.PackedDrawCommands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the direct commands of one batch and walking them the way an
+ * executor does: {@code records} keeps the former per-draw
+ * {@link DrawPlan.DirectDrawItem} list, {@code packed} fills a reused
+ * {@link PackedDrawCommands.Builder}. Run with {@code -PjmhProfilers=gc} to
+ * compare allocation per batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DrawPlanBenchmark {
+    @Param({"64", "1024"})
+    public int commandCount;
+
+    private int[] indexCounts;
+    private int[] baseVertices;
+    private final PackedDrawCommands.Builder builder = new PackedDrawCommands.Builder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        indexCounts = new int[commandCount];
+        baseVertices = new int[commandCount];
+        int vertex = 0;
+        for (int i = 0; i < commandCount; i++) {
+            indexCounts[i] = 36 + (i % 7) * 6;
+            baseVertices[i] = vertex;
+            vertex += 24;
+        }
+    }
+
+    @Benchmark
+    public long records() {
+        List<DrawPlan.DirectDrawItem> items = new ArrayList<>();
+        long indexOffset = 0L;
+        for (int i = 0; i < commandCount; i++) {
+            items.add(DrawPlan.DirectDrawItem.indexed(
+                    IndexedDrawSlice.indexed(baseVertices[i], indexCounts[i], indexOffset),
+                    1,
+                    0));
+            indexOffset += (long) indexCounts[i] * Integer.BYTES;
+        }
+        long checksum = 0L;
+        for (DrawPlan.DirectDrawItem item : List.copyOf(items)) {
+            checksum += item.indexedSlice().indexCount() + item.indexedSlice().firstIndexByteOffset() + item.indexedSlice().baseVertex();
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public long packed() {
+        builder.reset();
+        long indexOffset = 0L;
+        for (int i = 0; i < commandCount; i++) {
+            builder.appendIndexed(0L, baseVertices[i], indexCounts[i], indexOffset, 1, 0, i);
+            indexOffset += (long) indexCounts[i] * Integer.BYTES;
+        }
+        DrawPlan plan = DrawPlan.directBatch(PrimitiveType.TRIANGLES, builder.build());
+        PackedDrawCommands commands = plan.directCommands();
+        long checksum = 0L;
+        for (int i = 0; i < commands.size(); i++) {
+            checksum += commands.elementCount(i) + commands.firstIndexByteOffset(i) + commands.baseVertex(i);
+        }
+        return checksum;
+    }
+}
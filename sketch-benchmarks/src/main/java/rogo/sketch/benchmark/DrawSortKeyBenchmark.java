@@ -0,0 +1,75 @@
+package rogo.sketch.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rogo.sketch.core.packet.GeometryHandleKey;
+import rogo.sketch.core.packet.ResourceSetKey;
+import rogo.sketch.core.pipeline.flow.v2.DrawSortKey;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building and ordering {@link DrawSortKey}s for one stage's worth of
+ * packets. Keys are derived from a shuffled synthetic scene so the sort does
+ * real work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DrawSortKeyBenchmark {
+    @Param({"256", "4096"})
+    public int sceneSize;
+
+    private SyntheticScene scene;
+    private GeometryHandleKey[] geometryHandles;
+    private DrawSortKey[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scene = new SyntheticScene(sceneSize);
+        geometryHandles = new GeometryHandleKey[scene.meshes().size()];
+        for (int i = 0; i < geometryHandles.length; i++) {
+            geometryHandles[i] = GeometryHandleKey.from(scene.vertexBufferKey(i));
+        }
+        keys = buildKeys();
+    }
+
+    @Benchmark
+    public DrawSortKey[] build() {
+        return buildKeys();
+    }
+
+    @Benchmark
+    public DrawSortKey[] sort() {
+        DrawSortKey[] copy = Arrays.copyOf(keys, keys.length);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    private DrawSortKey[] buildKeys() {
+        DrawSortKey[] built = new DrawSortKey[sceneSize];
+        for (int i = 0; i < sceneSize; i++) {
+            built[i] = DrawSortKey.of(
+                    scene.materialOf(i),
+                    ResourceSetKey.empty(),
+                    geometryHandles[scene.meshIndexOf(i)],
+                    i,
+                    Integer.toString(scene.materialIndexOf(i)));
+        }
+        return built;
+    }
+}
@@ -0,0 +1,96 @@
+package rogo.sketch.benchmark;
+
+import org.joml.primitives.AABBf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import rogo.sketch.core.scene.SceneDatabase;
+import rogo.sketch.module.culling.entity.EntityFeatureSchema;
+import rogo.sketch.module.culling.entity.EntityMaskStateStore;
+import rogo.sketch.module.culling.entity.EntitySourceRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Host entity visibility queries from several render threads while a frame
+ * thread keeps uploading entity inputs and swapping readback results, the
+ * pattern {@link EntityMaskStateStore#isVisible} has to serve without
+ * blocking.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityVisibilityBenchmark {
+    @Param({"1024", "16384"})
+    public int subjectCount;
+
+    private EntitySourceRegistry registry;
+    private EntityMaskStateStore store;
+    private Object[] subjects;
+    private int logicTick;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        HeadlessBenchmarkBackend.start("entity-visibility");
+        registry = new EntitySourceRegistry(new SceneDatabase());
+        store = new EntityMaskStateStore();
+        subjects = new Object[subjectCount];
+        for (int i = 0; i < subjectCount; i++) {
+            subjects[i] = Integer.valueOf(i);
+            float x = (i % 128) * 2.0f;
+            float z = (i / 128) * 2.0f;
+            registry.upsert(
+                    subjects[i],
+                    EntityFeatureSchema.SubjectKind.ENTITY,
+                    new AABBf(x, 0.0f, z, x + 1.0f, 2.0f, z + 1.0f),
+                    0,
+                    null,
+                    0);
+        }
+        store.refreshEntityInputs(registry);
+        store.swapBuffers(0, registry);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.dispose();
+        HeadlessBenchmarkBackend.stop();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+    }
+
+    @Benchmark
+    @Group("frame")
+    @GroupThreads(3)
+    public boolean query(Cursor cursor) {
+        Object subject = subjects[cursor.next];
+        cursor.next = cursor.next + 1 == subjects.length ? 0 : cursor.next + 1;
+        return store.isVisible(subject, registry);
+    }
+
+    @Benchmark
+    @Group("frame")
+    @GroupThreads(1)
+    public void swap() {
+        store.refreshEntityInputs(registry);
+        store.swapBuffers(++logicTick, registry);
+    }
+}
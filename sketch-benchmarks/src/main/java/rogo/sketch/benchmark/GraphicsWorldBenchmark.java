@@ -0,0 +1,101 @@
+package rogo.sketch.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rogo.sketch.core.graphics.ecs.GraphicsBuiltinComponents;
+import rogo.sketch.core.graphics.ecs.GraphicsEntityBlueprint;
+import rogo.sketch.core.graphics.ecs.GraphicsEntityId;
+import rogo.sketch.core.graphics.ecs.GraphicsQuery;
+import rogo.sketch.core.graphics.ecs.GraphicsWorld;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spawn, query and destroy throughput of {@link GraphicsWorld} over a
+ * synthetic raster scene.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphicsWorldBenchmark {
+    @Param({"256", "4096"})
+    public int sceneSize;
+
+    private List<GraphicsEntityBlueprint> blueprints;
+    private GraphicsWorld populatedWorld;
+    private List<GraphicsEntityId> populatedIds;
+    private GraphicsQuery rasterQuery;
+    private GraphicsQuery dynamicQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        blueprints = new SyntheticScene(sceneSize).blueprints();
+        populatedWorld = new GraphicsWorld();
+        populatedIds = new ArrayList<>(sceneSize);
+        for (GraphicsEntityBlueprint blueprint : blueprints) {
+            populatedIds.add(populatedWorld.spawn(blueprint));
+        }
+        rasterQuery = GraphicsQuery.builder()
+                .require(GraphicsBuiltinComponents.RASTER_RENDERABLE)
+                .require(GraphicsBuiltinComponents.PREPARED_MESH)
+                .build();
+        dynamicQuery = GraphicsQuery.builder()
+                .require(GraphicsBuiltinComponents.OBJECT_FLAGS)
+                .exclude(GraphicsBuiltinComponents.COMPUTE_DISPATCH)
+                .build();
+    }
+
+    @Benchmark
+    public int spawnDestroy() {
+        GraphicsWorld world = new GraphicsWorld();
+        GraphicsEntityId[] ids = new GraphicsEntityId[blueprints.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = world.spawn(blueprints.get(i));
+        }
+        for (GraphicsEntityId id : ids) {
+            world.destroy(id);
+        }
+        return world.size();
+    }
+
+    /**
+     * Destroy and respawn a quarter of a populated world, the steady-state
+     * churn pattern for streamed props.
+     */
+    @Benchmark
+    public int churnQuarter() {
+        int step = 4;
+        for (int i = 0; i < populatedIds.size(); i += step) {
+            populatedWorld.destroy(populatedIds.get(i));
+            populatedIds.set(i, populatedWorld.spawn(blueprints.get(i)));
+        }
+        return populatedWorld.size();
+    }
+
+    @Benchmark
+    public void query(Blackhole blackhole) {
+        blackhole.consume(populatedWorld.query(rasterQuery));
+        blackhole.consume(populatedWorld.query(dynamicQuery));
+    }
+
+    @Benchmark
+    public List<GraphicsWorld.StageEntitySnapshot> stageSnapshots() {
+        return populatedWorld.stageEntitySnapshots(populatedIds);
+    }
+}
@@ -0,0 +1,42 @@
+package rogo.sketch.benchmark;
+
+import rogo.sketch.backend.headless.HeadlessBackendBootstrap;
+import rogo.sketch.backend.headless.HeadlessBackendRuntime;
+import rogo.sketch.core.backend.BackendKind;
+import rogo.sketch.core.driver.GraphicsDriver;
+
+/**
+ * Boots the headless backend for a benchmark trial. Entry recording is turned
+ * off so the command log does not grow over a long run; per-opcode counters
+ * keep running and can be read from {@link HeadlessBackendRuntime#stats()}.
+ */
+public final class HeadlessBenchmarkBackend {
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+
+    private HeadlessBenchmarkBackend() {
+    }
+
+    public static synchronized HeadlessBackendRuntime start(String benchmarkName) {
+        if (GraphicsDriver.isBootstrapped()) {
+            if (GraphicsDriver.runtime() instanceof HeadlessBackendRuntime runtime) {
+                return runtime;
+            }
+            GraphicsDriver.shutdown();
+        }
+        if (!GraphicsDriver.hasBackendBootstrap(BackendKind.HEADLESS)) {
+            GraphicsDriver.registerBackendBootstrap(new HeadlessBackendBootstrap());
+        }
+        HeadlessBackendRuntime runtime = (HeadlessBackendRuntime) GraphicsDriver.bootstrap(
+                BackendKind.HEADLESS,
+                HeadlessBackendBootstrap.context("benchmark/" + benchmarkName, WIDTH, HEIGHT));
+        runtime.commandLog().setRecording(false);
+        return runtime;
+    }
+
+    public static synchronized void stop() {
+        if (GraphicsDriver.isBootstrapped()) {
+            GraphicsDriver.shutdown();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package rogo.sketch.benchmark;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import rogo.sketch.core.model.MeshGroup;
+import rogo.sketch.core.resource.loader.BakedMeshCache;
+import rogo.sketch.core.resource.loader.BakedMeshFormat;
+import rogo.sketch.core.resource.loader.MeshLoader;
+import rogo.sketch.core.resource.loader.ResourceLoadContext;
+import rogo.sketch.core.util.KeyId;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Mesh resource load cost for a synthetic OBJ terrain grid: a cold OBJ
+ * parse and compile, decoding the equivalent {@link BakedMeshFormat} bytes,
+ * and a warm {@link MeshLoader} load served from a memory-mapped
+ * {@link BakedMeshCache} entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeshLoadBenchmark {
+    private static final KeyId MESH_ID = KeyId.of("benchmark:terrain");
+
+    /** Quads per grid side; the mesh has {@code (gridSize + 1)^2} vertices. */
+    @Param({"64", "256"})
+    public int gridSize;
+
+    private final Gson gson = new Gson();
+    private final MeshLoader loader = new MeshLoader();
+    private byte[] objSource;
+    private byte[] bakedBytes;
+    private Path cacheDirectory;
+    private BakedMeshCache cache;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        HeadlessBenchmarkBackend.start("mesh-load");
+        objSource = buildGridObj(gridSize).getBytes(StandardCharsets.UTF_8);
+        MeshLoader.setBakedCache(null);
+        MeshGroup compiled = loader.load(context(objSource));
+        bakedBytes = BakedMeshFormat.encode(compiled);
+
+        cacheDirectory = Files.createTempDirectory("sketch-baked-mesh");
+        cache = new BakedMeshCache(cacheDirectory);
+        cache.store(MESH_ID, objSource, compiled);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        MeshLoader.setBakedCache(null);
+        try (Stream<Path> files = Files.walk(cacheDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        HeadlessBenchmarkBackend.stop();
+    }
+
+    @Benchmark
+    public MeshGroup compileObj() {
+        MeshLoader.setBakedCache(null);
+        return loader.load(context(objSource));
+    }
+
+    @Benchmark
+    public MeshGroup decodeBaked() {
+        return BakedMeshFormat.decode(MESH_ID, ByteBuffer.wrap(bakedBytes));
+    }
+
+    @Benchmark
+    public MeshGroup loadFromWarmCache() {
+        MeshLoader.setBakedCache(cache);
+        return loader.load(context(objSource));
+    }
+
+    private ResourceLoadContext context(byte[] source) {
+        return new ResourceLoadContext(MESH_ID, new ByteArrayInputStream(source), gson, null, null);
+    }
+
+    private static String buildGridObj(int gridSize) {
+        int side = gridSize + 1;
+        StringBuilder obj = new StringBuilder(side * side * 96);
+        obj.append("o terrain\n");
+        for (int z = 0; z < side; z++) {
+            for (int x = 0; x < side; x++) {
+                float height = (float) (Math.sin(x * 0.21) * Math.cos(z * 0.17));
+                obj.append(String.format(Locale.ROOT, "v %d %.4f %d%n", x, height, z));
+                obj.append(String.format(Locale.ROOT, "vt %.5f %.5f%n", x / (float) gridSize, z / (float) gridSize));
+            }
+        }
+        obj.append("vn 0 1 0\n");
+        for (int z = 0; z < gridSize; z++) {
+            for (int x = 0; x < gridSize; x++) {
+                int a = z * side + x + 1;
+                int b = a + 1;
+                int c = a + side + 1;
+                int d = a + side;
+                obj.append("f ")
+                        .append(a).append('/').append(a).append("/1 ")
+                        .append(b).append('/').append(b).append("/1 ")
+                        .append(c).append('/').append(c).append("/1 ")
+                        .append(d).append('/').append(d).append("/1\n");
+            }
+        }
+        return obj.toString();
+    }
+}
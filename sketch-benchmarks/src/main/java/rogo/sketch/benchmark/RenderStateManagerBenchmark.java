@@ -0,0 +1,119 @@
+package rogo.sketch.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import rogo.sketch.core.driver.state.BlendFactor;
+import rogo.sketch.core.driver.state.CompareOp;
+import rogo.sketch.core.driver.state.CompiledRenderState;
+import rogo.sketch.core.driver.state.CullFaceMode;
+import rogo.sketch.core.driver.state.FrontFaceMode;
+import rogo.sketch.core.driver.state.RenderStateCompiler;
+import rogo.sketch.core.driver.state.RenderStatePatch;
+import rogo.sketch.core.driver.state.component.BlendState;
+import rogo.sketch.core.driver.state.component.ColorMaskState;
+import rogo.sketch.core.driver.state.component.CullState;
+import rogo.sketch.core.driver.state.component.DepthMaskState;
+import rogo.sketch.core.driver.state.component.DepthTestState;
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.RenderStateManager;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * State diffing cost of {@link RenderStateManager#changeState} over one frame's
+ * draw sequence. Each synthetic material maps to a compiled state varying
+ * depth, cull, blend and mask components; the sequence is replayed both in
+ * scene order (worst case, frequent switches) and material-sorted order.
+ * The headless backend's state applier only records commands, so the numbers
+ * isolate the manager's own diff work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderStateManagerBenchmark {
+    private static final CompareOp[] DEPTH_OPS = {CompareOp.LESS, CompareOp.LEQUAL, CompareOp.GREATER, CompareOp.ALWAYS};
+
+    @Param({"256", "4096"})
+    public int sceneSize;
+
+    private RenderStateManager stateManager;
+    private RenderContext context;
+    private CompiledRenderState[] sceneOrder;
+    private CompiledRenderState[] sortedOrder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        HeadlessBenchmarkBackend.start("render-state-manager");
+        SyntheticScene scene = new SyntheticScene(sceneSize);
+        CompiledRenderState[] materialStates = new CompiledRenderState[scene.materials().size()];
+        for (int i = 0; i < materialStates.length; i++) {
+            materialStates[i] = compileMaterialState(i);
+        }
+
+        sceneOrder = new CompiledRenderState[sceneSize];
+        int[] sortKeys = new int[sceneSize];
+        for (int i = 0; i < sceneSize; i++) {
+            sceneOrder[i] = materialStates[scene.materialIndexOf(i)];
+            sortKeys[i] = scene.materialIndexOf(i);
+        }
+        Arrays.sort(sortKeys);
+        sortedOrder = new CompiledRenderState[sceneSize];
+        for (int i = 0; i < sceneSize; i++) {
+            sortedOrder[i] = materialStates[sortKeys[i]];
+        }
+
+        stateManager = new RenderStateManager(null);
+        context = new RenderContext();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HeadlessBenchmarkBackend.stop();
+    }
+
+    @Benchmark
+    public CompiledRenderState diffSceneOrder() {
+        return replay(sceneOrder);
+    }
+
+    @Benchmark
+    public CompiledRenderState diffSortedOrder() {
+        return replay(sortedOrder);
+    }
+
+    private CompiledRenderState replay(CompiledRenderState[] sequence) {
+        stateManager.reset();
+        for (CompiledRenderState state : sequence) {
+            stateManager.changeState(state, context);
+        }
+        return stateManager.getCurrentState();
+    }
+
+    private static CompiledRenderState compileMaterialState(int materialIndex) {
+        boolean translucent = (materialIndex & 1) != 0;
+        RenderStatePatch patch = RenderStatePatch.empty()
+                .with(new DepthTestState(true, DEPTH_OPS[materialIndex % DEPTH_OPS.length]))
+                .with(new DepthMaskState(!translucent))
+                .with(new CullState((materialIndex & 2) == 0, CullFaceMode.BACK, FrontFaceMode.CCW))
+                .with(translucent
+                        ? new BlendState(true, BlendFactor.SRC_ALPHA, BlendFactor.ONE_MINUS_SRC_ALPHA)
+                        : new BlendState())
+                .with(new ColorMaskState(true, true, true, (materialIndex & 4) == 0));
+        return RenderStateCompiler.compile(patch);
+    }
+}
@@ -0,0 +1,170 @@
+package rogo.sketch.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import rogo.sketch.core.api.ResourceObject;
+import rogo.sketch.core.api.graphics.DescriptorStability;
+import rogo.sketch.core.api.graphics.SubmissionCapability;
+import rogo.sketch.core.driver.GraphicsDriver;
+import rogo.sketch.core.driver.state.RenderStatePatch;
+import rogo.sketch.core.driver.state.component.ShaderState;
+import rogo.sketch.core.graphics.ecs.GraphicsBuiltinComponents;
+import rogo.sketch.core.graphics.ecs.GraphicsEntityPresets;
+import rogo.sketch.core.pipeline.CompiledRenderSetting;
+import rogo.sketch.core.pipeline.GraphicsBatchGroup;
+import rogo.sketch.core.pipeline.GraphicsPipeline;
+import rogo.sketch.core.pipeline.GraphicsStage;
+import rogo.sketch.core.pipeline.PartialRenderSetting;
+import rogo.sketch.core.pipeline.PipelineConfig;
+import rogo.sketch.core.pipeline.PipelineType;
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.RenderSetting;
+import rogo.sketch.core.pipeline.RenderSettingCompiler;
+import rogo.sketch.core.pipeline.flow.RenderFlowType;
+import rogo.sketch.core.pipeline.flow.RenderPostProcessors;
+import rogo.sketch.core.pipeline.flow.ecs.GraphicsContainerHints;
+import rogo.sketch.core.pipeline.flow.impl.RasterizationPostProcessor;
+import rogo.sketch.core.pipeline.kernel.FrameExecutionPlan;
+import rogo.sketch.core.pipeline.kernel.StageExecutionPlan;
+import rogo.sketch.core.resource.GraphicsResourceManager;
+import rogo.sketch.core.resource.ResourceBinding;
+import rogo.sketch.core.shader.uniform.FrameUniformSnapshot;
+import rogo.sketch.core.util.KeyId;
+import rogo.sketch.core.util.OrderRequirement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One stage's packet build for a static {@link SyntheticScene} on the headless
+ * backend, from prepare to installing the frame plan. {@code retained} is the
+ * normal path, which hands back last frame's packets; {@code rebuild} bumps the
+ * resource epoch every frame so the same scene recompiles its packets, as
+ * every frame did before retention.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RetainedStagePacketsBenchmark {
+    private static final KeyId EPOCH_TYPE = KeyId.of("sketch_benchmark", "epoch_marker");
+    private static final int MATERIAL_COUNT = 4;
+
+    @Param({"1024", "8192"})
+    public int sceneSize;
+
+    @Param({"retained", "rebuild"})
+    public String mode;
+
+    private GraphicsPipeline<RenderContext> pipeline;
+    private GraphicsBatchGroup<RenderContext> batchGroup;
+    private boolean rebuild;
+    private long frameEpoch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        HeadlessBenchmarkBackend.start("retained-stage-packets");
+        SyntheticScene scene = new SyntheticScene(sceneSize);
+        GraphicsResourceManager resourceManager = new GraphicsResourceManager();
+        pipeline = new GraphicsPipeline<>(new PipelineConfig(), resourceManager, new RenderContext());
+        GraphicsStage stage = new GraphicsStage(SyntheticScene.STAGE_ID, OrderRequirement.Builder.<GraphicsStage>create().build());
+        pipeline.registerStage(stage);
+        batchGroup = pipeline.getBatchGroup(stage);
+
+        // SyntheticScene's materials carry no pipeline state descriptor, which
+        // the raster flow scene needs, so compile equivalent settings here
+        List<CompiledRenderSetting> settings = new ArrayList<>(MATERIAL_COUNT);
+        for (int i = 0; i < MATERIAL_COUNT; i++) {
+            settings.add(RenderSettingCompiler.compile(
+                    RenderSetting.fromPartial(scene.rasterParameter(), PartialRenderSetting.create(
+                            RenderStatePatch.empty().with(new ShaderState(resourceManager, KeyId.of("sketch_benchmark", "shader_" + i))),
+                            new ResourceBinding(),
+                            false)),
+                    resourceManager));
+        }
+        for (int i = 0; i < sceneSize; i++) {
+            SyntheticScene.SyntheticMesh mesh = scene.meshOf(i);
+            CompiledRenderSetting setting = settings.get(scene.materialIndexOf(i) % MATERIAL_COUNT);
+            pipeline.spawnGraphicsEntity(GraphicsEntityPresets.raster(
+                            scene.entityKey(i),
+                            SyntheticScene.STAGE_ID,
+                            PipelineType.RASTERIZATION,
+                            scene.rasterParameter(),
+                            GraphicsContainerHints.DEFAULT,
+                            null,
+                            i,
+                            0,
+                            () -> true,
+                            () -> false,
+                            SubmissionCapability.DIRECT_BATCHABLE,
+                            DescriptorStability.STABLE,
+                            () -> 0L,
+                            ignored -> setting)
+                    .put(GraphicsBuiltinComponents.PREPARED_MESH, new GraphicsBuiltinComponents.PreparedMeshComponent(() -> mesh))
+                    .build());
+        }
+        rebuild = "rebuild".equals(mode);
+        // first frame queues the geometry uploads, the second sees them installed
+        buildFrame();
+        buildFrame();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HeadlessBenchmarkBackend.stop();
+    }
+
+    @Benchmark
+    public StageExecutionPlan buildFrame() {
+        if (rebuild) {
+            pipeline.resourceManager().registerDirect(EPOCH_TYPE, EPOCH_TYPE, EpochMarker.INSTANCE);
+        }
+        pipeline.tickLogic();
+        RenderContext context = pipeline.currentContext();
+        RenderPostProcessors postProcessors = new RenderPostProcessors();
+        postProcessors.register(RenderFlowType.RASTERIZATION, new RasterizationPostProcessor());
+        batchGroup.prepareForFrame(context, FrameUniformSnapshot.empty());
+        StageExecutionPlan plan = batchGroup.createStageExecutionPlan(context, postProcessors, FrameUniformSnapshot.empty());
+        RasterizationPostProcessor processor = postProcessors.get(RenderFlowType.RASTERIZATION);
+        GraphicsDriver.resourceAllocator().installExecutionPlan(
+                pipeline,
+                new FrameExecutionPlan(
+                        Map.of(SyntheticScene.STAGE_ID, plan),
+                        processor.geometryUploadPlans(),
+                        processor.resourceUploadPlans(),
+                        null,
+                        null),
+                frameEpoch++,
+                1,
+                true);
+        return plan;
+    }
+
+    private enum EpochMarker implements ResourceObject {
+        INSTANCE;
+
+        @Override
+        public void dispose() {
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return false;
+        }
+    }
+}
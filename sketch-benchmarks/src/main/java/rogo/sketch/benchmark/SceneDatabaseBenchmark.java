@@ -0,0 +1,90 @@
+package rogo.sketch.benchmark;
+
+import org.joml.primitives.AABBf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rogo.sketch.core.scene.SceneDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link SceneDatabase#replaceTerrainRegionProxies} for a camera
+ * sliding one region per frame across a square region grid, versus
+ * resubmitting an unchanged window.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SceneDatabaseBenchmark {
+    private static final int REGION_SIZE = 128;
+    private static final int GRID_SIZE = 512;
+
+    @Param({"8", "32"})
+    public int viewRadius;
+
+    private RegionSource[] grid;
+    private SceneDatabase database;
+    private List<RegionSource> window;
+    private int cameraX;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        grid = new RegionSource[GRID_SIZE * GRID_SIZE];
+        for (int z = 0; z < GRID_SIZE; z++) {
+            for (int x = 0; x < GRID_SIZE; x++) {
+                grid[z * GRID_SIZE + x] = new RegionSource(
+                        (long) z * GRID_SIZE + x,
+                        new AABBf(x * REGION_SIZE, 0, z * REGION_SIZE, (x + 1) * REGION_SIZE, 64, (z + 1) * REGION_SIZE));
+            }
+        }
+        database = new SceneDatabase();
+        window = new ArrayList<>();
+        cameraX = viewRadius;
+        database.replaceTerrainRegionProxies(fillWindow(cameraX));
+    }
+
+    @Benchmark
+    public long slide() {
+        cameraX++;
+        if (cameraX + viewRadius >= GRID_SIZE) {
+            cameraX = viewRadius;
+        }
+        database.replaceTerrainRegionProxies(fillWindow(cameraX));
+        return database.journalCursor();
+    }
+
+    @Benchmark
+    public long resubmit() {
+        database.replaceTerrainRegionProxies(window);
+        return database.journalCursor();
+    }
+
+    private List<RegionSource> fillWindow(int centerX) {
+        window.clear();
+        int centerZ = GRID_SIZE / 2;
+        for (int z = centerZ - viewRadius; z <= centerZ + viewRadius; z++) {
+            for (int x = centerX - viewRadius; x <= centerX + viewRadius; x++) {
+                window.add(grid[z * GRID_SIZE + x]);
+            }
+        }
+        return window;
+    }
+
+    private record RegionSource(Object hostKey, AABBf bounds) implements SceneDatabase.TerrainRegionProxySource {
+    }
+}
@@ -0,0 +1,252 @@
+package rogo.sketch.benchmark;
+
+import rogo.sketch.core.api.graphics.DescriptorStability;
+import rogo.sketch.core.api.graphics.SubmissionCapability;
+import rogo.sketch.core.api.model.BakedTypeMesh;
+import rogo.sketch.core.api.model.SharedGeometrySourceSnapshot;
+import rogo.sketch.core.backend.BackendGeometryBinding;
+import rogo.sketch.core.data.MeshIndexMode;
+import rogo.sketch.core.data.PrimitiveType;
+import rogo.sketch.core.data.format.VertexBufferKey;
+import rogo.sketch.core.data.format.VertexLayoutSpec;
+import rogo.sketch.core.data.layout.StructLayout;
+import rogo.sketch.core.driver.state.DefaultRenderStates;
+import rogo.sketch.core.graphics.ecs.GraphicsBuiltinComponents;
+import rogo.sketch.core.graphics.ecs.GraphicsEntityBlueprint;
+import rogo.sketch.core.graphics.ecs.GraphicsEntityPresets;
+import rogo.sketch.core.packet.RasterPipelineKey;
+import rogo.sketch.core.packet.ResourceBindingPlan;
+import rogo.sketch.core.pipeline.CompiledRenderSetting;
+import rogo.sketch.core.pipeline.PipelineType;
+import rogo.sketch.core.pipeline.flow.ecs.GraphicsContainerHints;
+import rogo.sketch.core.pipeline.parmeter.RasterizationParameter;
+import rogo.sketch.core.resource.descriptor.BufferUpdatePolicy;
+import rogo.sketch.core.util.KeyId;
+import rogo.sketch.core.vertex.DefaultDataFormats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic raster scene shared by the benchmarks. A scene of
+ * {@code size} entities draws from a pool of baked meshes and materials whose
+ * counts grow with the scene, and entity-to-mesh/material assignment is
+ * shuffled so sorting and grouping see realistic, non-presorted input.
+ */
+public final class SyntheticScene {
+    public static final KeyId STAGE_ID = KeyId.of("sketch_benchmark", "synthetic_stage");
+    public static final KeyId VERTEX_LAYOUT = KeyId.of("sketch_benchmark", "position");
+    public static final KeyId RENDER_TARGET = KeyId.of("sketch_benchmark", "main_target");
+    public static final KeyId RESOURCE_LAYOUT = KeyId.of("sketch_benchmark", "material_layout");
+    public static final KeyId TAG_STATIC = KeyId.of("sketch_benchmark", "static");
+    public static final KeyId TAG_DYNAMIC = KeyId.of("sketch_benchmark", "dynamic");
+
+    private static final int VERTICES_PER_MESH = 24;
+    private static final int INDICES_PER_MESH = 36;
+
+    private final int size;
+    private final RasterizationParameter rasterParameter;
+    private final List<SyntheticMesh> meshes;
+    private final List<RasterPipelineKey> materials;
+    private final List<CompiledRenderSetting> materialSettings;
+    private final int[] meshAssignment;
+    private final int[] materialAssignment;
+
+    public SyntheticScene(int size) {
+        this(size, 0x5EED_5CE4EL);
+    }
+
+    public SyntheticScene(int size, long seed) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Scene size must be positive: " + size);
+        }
+        DefaultRenderStates.init();
+        this.size = size;
+        this.rasterParameter = new RasterizationParameter(
+                VertexLayoutSpec.builder().addStatic(VERTEX_LAYOUT, DefaultDataFormats.POSITION).build(),
+                PrimitiveType.TRIANGLES,
+                MeshIndexMode.EXPLICIT_LOCAL,
+                BufferUpdatePolicy.IMMUTABLE,
+                false);
+
+        int meshCount = Math.max(1, Math.min(64, size / 32));
+        this.meshes = new ArrayList<>(meshCount);
+        for (int i = 0; i < meshCount; i++) {
+            meshes.add(new SyntheticMesh(
+                    KeyId.of("sketch_benchmark", "mesh_" + i),
+                    i * VERTICES_PER_MESH,
+                    VERTICES_PER_MESH,
+                    i * INDICES_PER_MESH,
+                    INDICES_PER_MESH));
+        }
+
+        int materialCount = Math.max(1, Math.min(32, size / 128));
+        this.materials = new ArrayList<>(materialCount);
+        this.materialSettings = new ArrayList<>(materialCount);
+        for (int i = 0; i < materialCount; i++) {
+            RasterPipelineKey stateKey = RasterPipelineKey.syntheticRaster(
+                    KeyId.of("sketch_benchmark", "shader_" + i),
+                    VERTEX_LAYOUT,
+                    RENDER_TARGET,
+                    RESOURCE_LAYOUT);
+            materials.add(stateKey);
+            materialSettings.add(new CompiledRenderSetting(null, null, null, null, ResourceBindingPlan.empty(), stateKey));
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        this.meshAssignment = new int[size];
+        this.materialAssignment = new int[size];
+        for (int i = 0; i < size; i++) {
+            meshAssignment[i] = random.nextInt(meshCount);
+            materialAssignment[i] = random.nextInt(materialCount);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public RasterizationParameter rasterParameter() {
+        return rasterParameter;
+    }
+
+    public List<SyntheticMesh> meshes() {
+        return meshes;
+    }
+
+    public List<RasterPipelineKey> materials() {
+        return materials;
+    }
+
+    public int meshIndexOf(int index) {
+        return meshAssignment[index];
+    }
+
+    public SyntheticMesh meshOf(int index) {
+        return meshes.get(meshAssignment[index]);
+    }
+
+    /**
+     * Vertex buffer key for one mesh batch. Unshared baked meshes get a
+     * distinct binding token per batch, as the raster flow scene assigns.
+     */
+    public VertexBufferKey vertexBufferKey(int meshIndex) {
+        return VertexBufferKey.fromParameter(rasterParameter, -1L, meshIndex + 1L);
+    }
+
+    public int materialIndexOf(int index) {
+        return materialAssignment[index];
+    }
+
+    public RasterPipelineKey materialOf(int index) {
+        return materials.get(materialAssignment[index]);
+    }
+
+    public CompiledRenderSetting materialSettingOf(int index) {
+        return materialSettings.get(materialAssignment[index]);
+    }
+
+    public KeyId entityKey(int index) {
+        return KeyId.of("sketch_benchmark", "entity_" + index);
+    }
+
+    /**
+     * Raster entity blueprint built through the same presets the runtime uses.
+     * Every fourth entity is tagged dynamic and carries object flags so the
+     * world holds more than one archetype.
+     */
+    public GraphicsEntityBlueprint blueprint(int index) {
+        SyntheticMesh mesh = meshOf(index);
+        CompiledRenderSetting setting = materialSettingOf(index);
+        GraphicsEntityBlueprint.Builder builder = GraphicsEntityPresets.raster(
+                        entityKey(index),
+                        STAGE_ID,
+                        PipelineType.RASTERIZATION,
+                        rasterParameter,
+                        GraphicsContainerHints.DEFAULT,
+                        null,
+                        index,
+                        0,
+                        () -> true,
+                        () -> false,
+                        SubmissionCapability.DIRECT_BATCHABLE,
+                        DescriptorStability.STABLE,
+                        () -> 0L,
+                        ignored -> setting)
+                .put(GraphicsBuiltinComponents.PREPARED_MESH, new GraphicsBuiltinComponents.PreparedMeshComponent(() -> mesh));
+        boolean dynamic = (index & 3) == 0;
+        builder.put(GraphicsBuiltinComponents.GRAPHICS_TAGS, new GraphicsBuiltinComponents.GraphicsTagsComponent(
+                Set.of(dynamic ? TAG_DYNAMIC : TAG_STATIC)));
+        if (dynamic) {
+            builder.put(GraphicsBuiltinComponents.OBJECT_FLAGS, new GraphicsBuiltinComponents.ObjectFlagsComponent(index));
+        }
+        return builder.build();
+    }
+
+    public List<GraphicsEntityBlueprint> blueprints() {
+        List<GraphicsEntityBlueprint> blueprints = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            blueprints.add(blueprint(i));
+        }
+        return blueprints;
+    }
+
+    /**
+     * Baked mesh slice at a fixed offset; it has no installed binding, so each
+     * mesh forms its own geometry batch just like unshared baked geometry.
+     */
+    public record SyntheticMesh(
+            KeyId id,
+            int vertexOffset,
+            int vertexCount,
+            int indexOffset,
+            int indexCount
+    ) implements BakedTypeMesh {
+        @Override
+        public KeyId getKetId() {
+            return id;
+        }
+
+        @Override
+        public PrimitiveType getPrimitiveType() {
+            return PrimitiveType.TRIANGLES;
+        }
+
+        @Override
+        public StructLayout getVertexFormat() {
+            return DefaultDataFormats.POSITION;
+        }
+
+        @Override
+        public int getVertexCount() {
+            return vertexCount;
+        }
+
+        @Override
+        public int getIndicesCount() {
+            return indexCount;
+        }
+
+        @Override
+        public int getVertexOffset() {
+            return vertexOffset;
+        }
+
+        @Override
+        public int getIndexOffset() {
+            return indexOffset;
+        }
+
+        @Override
+        public BackendGeometryBinding sourceGeometryBinding() {
+            return null;
+        }
+
+        @Override
+        public SharedGeometrySourceSnapshot sharedGeometrySourceSnapshot() {
+            return null;
+        }
+    }
+}
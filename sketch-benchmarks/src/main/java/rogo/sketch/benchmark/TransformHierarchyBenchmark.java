@@ -0,0 +1,108 @@
+package rogo.sketch.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rogo.sketch.core.graphics.ecs.GraphicsBuiltinComponents;
+import rogo.sketch.core.graphics.ecs.GraphicsEntityId;
+import rogo.sketch.core.graphics.ecs.GraphicsUpdateDomain;
+import rogo.sketch.module.transform.manager.TransformBinding;
+import rogo.sketch.module.transform.manager.TransformHierarchyGraph;
+import rogo.sketch.module.transform.manager.TransformRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one hierarchy edit in {@link TransformHierarchyGraph} over an
+ * eight-way transform tree. Moving a leaf touches one binding and moving a
+ * first-level branch touches roughly an eighth of the tree; both are compared
+ * with the full rebuild every edit used to trigger.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformHierarchyBenchmark {
+    private static final int BRANCHING = 8;
+
+    @Param({"4096", "32768"})
+    public int sceneSize;
+
+    private TransformRegistry registry;
+    private TransformHierarchyGraph graph;
+    private GraphicsEntityId[] entityIds;
+    private int[] parentIndices;
+    private TransformBinding leaf;
+    private TransformBinding branch;
+    private int leafIndex;
+    private int leafDeepParent;
+    private boolean leafMoved;
+    private boolean branchMoved;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = new TransformRegistry();
+        graph = new TransformHierarchyGraph();
+        entityIds = new GraphicsEntityId[sceneSize];
+        parentIndices = new int[sceneSize];
+        for (int i = 0; i < sceneSize; i++) {
+            entityIds[i] = new GraphicsEntityId(i, 0);
+            parentIndices[i] = i == 0 ? -1 : (i - 1) / BRANCHING;
+        }
+        for (int i = 0; i < sceneSize; i++) {
+            int index = i;
+            registry.registerBinding(
+                    entityIds[i],
+                    new GraphicsBuiltinComponents.TransformBindingComponent(
+                            (i & 1) == 0 ? GraphicsUpdateDomain.SYNC_TICK : GraphicsUpdateDomain.ASYNC_TICK,
+                            writer -> {
+                            },
+                            -1),
+                    new GraphicsBuiltinComponents.TransformHierarchyComponent(() -> parentIndices[index] >= 0
+                            ? entityIds[parentIndices[index]]
+                            : null));
+        }
+        graph.resolveIfNeeded(registry);
+
+        leafIndex = sceneSize - 1;
+        leafDeepParent = sceneSize - 2;
+        leaf = registry.bindingFor(entityIds[leafIndex]);
+        branch = registry.bindingFor(entityIds[1]);
+    }
+
+    @Benchmark
+    public int reparentLeaf() {
+        leafMoved = !leafMoved;
+        parentIndices[leafIndex] = leafMoved ? 0 : leafDeepParent;
+        graph.reparent(leaf, registry);
+        graph.resolveIfNeeded(registry);
+        return leaf.depth();
+    }
+
+    @Benchmark
+    public int reparentBranch() {
+        branchMoved = !branchMoved;
+        parentIndices[1] = branchMoved ? 2 : 0;
+        graph.reparent(branch, registry);
+        graph.resolveIfNeeded(registry);
+        return branch.depth();
+    }
+
+    @Benchmark
+    public int fullRebuild() {
+        graph.markDirty();
+        graph.resolveIfNeeded(registry);
+        return graph.syncMaxDepth();
+    }
+}
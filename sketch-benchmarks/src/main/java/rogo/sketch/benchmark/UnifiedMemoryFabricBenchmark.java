@@ -0,0 +1,79 @@
+package rogo.sketch.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import rogo.sketch.core.memory.MemoryDebugSnapshot;
+import rogo.sketch.core.memory.MemoryDomain;
+import rogo.sketch.core.memory.MemoryLease;
+import rogo.sketch.core.memory.UnifiedMemoryFabric;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention between streaming allocators resizing their memory leases and a
+ * dashboard thread polling {@link UnifiedMemoryFabric#snapshot()}. Each
+ * allocator thread owns a lease and a set of background leases so snapshots
+ * have a realistic number of leases to walk.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnifiedMemoryFabricBenchmark {
+    private static final int BACKGROUND_LEASES = 256;
+
+    @State(Scope.Thread)
+    public static class AllocatorState {
+        private MemoryLease lease;
+        private MemoryLease[] backgroundLeases;
+        private long reservedBytes;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            UnifiedMemoryFabric fabric = UnifiedMemoryFabric.get();
+            lease = fabric.openLease(MemoryDomain.CPU_NATIVE, "benchmark-streaming");
+            backgroundLeases = new MemoryLease[BACKGROUND_LEASES];
+            for (int i = 0; i < backgroundLeases.length; i++) {
+                MemoryDomain domain = MemoryDomain.values()[i % MemoryDomain.values().length];
+                backgroundLeases[i] = fabric.openLease(domain, "benchmark-background").update(4096L, 2048L, 0.25D);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            lease.close();
+            for (MemoryLease backgroundLease : backgroundLeases) {
+                backgroundLease.close();
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("streaming")
+    @GroupThreads(3)
+    public MemoryLease allocate(AllocatorState state) {
+        // Grow and shrink like a streaming staging buffer
+        state.reservedBytes = (state.reservedBytes + 65_536L) & ((1L << 24) - 1L);
+        return state.lease.update(state.reservedBytes, state.reservedBytes >>> 1);
+    }
+
+    @Benchmark
+    @Group("streaming")
+    @GroupThreads(1)
+    public MemoryDebugSnapshot snapshot() {
+        return UnifiedMemoryFabric.get().snapshot();
+    }
+}
@@ -0,0 +1,135 @@
+package rogo.sketch.benchmark;
+
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rogo.sketch.core.api.ShaderResource;
+import rogo.sketch.core.shader.uniform.UniformHook;
+import rogo.sketch.core.shader.uniform.UniformHookGroup;
+import rogo.sketch.core.shader.uniform.UniformValueSnapshot;
+import rogo.sketch.core.shader.uniform.ValueGetter;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Per-instance uniform capture cost of {@link UniformValueSnapshot#captureFrom}
+ * with a hook group shaped like a typical material: per-instance transform and
+ * tint hooks targeted at the instance class plus a few universal hooks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UniformValueSnapshotBenchmark {
+    private static final int EXTRA_SCALAR_HOOKS = 12;
+
+    @Param({"256", "4096"})
+    public int sceneSize;
+
+    private UniformHookGroup hookGroup;
+    private SyntheticInstance[] instances;
+    private UniformHook<?>[] cachedHooks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hookGroup = new UniformHookGroup();
+        addTargeted("u_modelMatrix", Matrix4f.class, instance -> instance.model);
+        addTargeted("u_tint", Vector4f.class, instance -> instance.tint);
+        addTargeted("u_origin", Vector3f.class, instance -> instance.origin);
+        addTargeted("u_materialId", Integer.class, instance -> instance.materialId);
+        for (int i = 0; i < EXTRA_SCALAR_HOOKS; i++) {
+            int channel = i;
+            addTargeted("u_param" + i, Float.class, instance -> instance.params[channel]);
+        }
+        Matrix4f viewProjection = new Matrix4f().perspective(1.2f, 16.0f / 9.0f, 0.05f, 512.0f);
+        Vector3f cameraPosition = new Vector3f(0.0f, 64.0f, 0.0f);
+        addUniversal("u_viewProjection", Matrix4f.class, viewProjection);
+        addUniversal("u_cameraPosition", Vector3f.class, cameraPosition);
+        addUniversal("u_time", Float.class, 12.5f);
+
+        SyntheticScene scene = new SyntheticScene(sceneSize);
+        SplittableRandom random = new SplittableRandom(sceneSize);
+        instances = new SyntheticInstance[sceneSize];
+        for (int i = 0; i < sceneSize; i++) {
+            instances[i] = new SyntheticInstance(random, scene.materialIndexOf(i));
+        }
+        cachedHooks = hookGroup.getAllMatchingHooks(SyntheticInstance.class);
+    }
+
+    @Benchmark
+    public void capture(Blackhole blackhole) {
+        for (SyntheticInstance instance : instances) {
+            blackhole.consume(UniformValueSnapshot.captureFrom(hookGroup, instance));
+        }
+    }
+
+    @Benchmark
+    public void captureWithCachedHooks(Blackhole blackhole) {
+        for (SyntheticInstance instance : instances) {
+            blackhole.consume(UniformValueSnapshot.captureFrom(hookGroup, instance, cachedHooks));
+        }
+    }
+
+    private <T> void addTargeted(String name, Class<T> valueClass, Function<SyntheticInstance, T> getter) {
+        ValueGetter<T> valueGetter = new ValueGetter<>(
+                source -> getter.apply((SyntheticInstance) source),
+                valueClass,
+                Set.of(SyntheticInstance.class));
+        hookGroup.addUniform(name, new UniformHook<>(KeyId.of("sketch_benchmark", name), new DiscardingResource<>(name), valueGetter));
+    }
+
+    private <T> void addUniversal(String name, Class<T> valueClass, T value) {
+        ValueGetter<T> valueGetter = ValueGetter.create(() -> value, valueClass);
+        hookGroup.addUniform(name, new UniformHook<>(KeyId.of("sketch_benchmark", name), new DiscardingResource<>(name), valueGetter));
+    }
+
+    private static final class SyntheticInstance {
+        private final Matrix4f model;
+        private final Vector4f tint;
+        private final Vector3f origin;
+        private final Integer materialId;
+        private final float[] params = new float[EXTRA_SCALAR_HOOKS];
+
+        private SyntheticInstance(SplittableRandom random, int materialIndex) {
+            this.origin = new Vector3f(
+                    (float) random.nextDouble(-256.0, 256.0),
+                    (float) random.nextDouble(0.0, 128.0),
+                    (float) random.nextDouble(-256.0, 256.0));
+            this.model = new Matrix4f().translation(origin).rotateY((float) random.nextDouble(0.0, Math.PI * 2.0));
+            this.tint = new Vector4f((float) random.nextDouble(), (float) random.nextDouble(), (float) random.nextDouble(), 1.0f);
+            this.materialId = materialIndex;
+            for (int i = 0; i < params.length; i++) {
+                params[i] = (float) random.nextDouble();
+            }
+        }
+    }
+
+    private record DiscardingResource<T>(KeyId id) implements ShaderResource<T> {
+        private DiscardingResource(String name) {
+            this(KeyId.of("sketch_benchmark", name));
+        }
+
+        @Override
+        public void set(T value) {
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package rogo.sketch.core.data.builder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import rogo.sketch.core.data.PrimitiveType;
+import rogo.sketch.core.data.layout.StructLayout;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vertex write throughput of {@link StructuredRecordWriter} for a
+ * position/uv/normal layout, one 24-vertex mesh per scene entity. The
+ * {@code validate} parameter toggles the layout checks guarded by
+ * {@link NativeBufferWriterBase#DEBUG_MODE}, which are on by default.
+ * Lives in the writer's package because the writer is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StructuredRecordWriterBenchmark {
+    private static final int VERTICES_PER_ENTITY = 24;
+    private static final int FLOATS_PER_VERTEX = 8;
+    private static final StructLayout LAYOUT = StructLayout.builder("benchmark_vertex")
+            .vec3Field("position")
+            .vec2Field("uv")
+            .vec3Field("normal")
+            .build();
+
+    @Param({"256", "4096"})
+    public int sceneSize;
+
+    @Param({"true", "false"})
+    public boolean validate;
+
+    private boolean previousDebugMode;
+    private StructuredRecordWriter writer;
+    private float[] source;
+    private int vertexCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        previousDebugMode = NativeBufferWriterBase.DEBUG_MODE;
+        NativeBufferWriterBase.DEBUG_MODE = validate;
+        vertexCount = sceneSize * VERTICES_PER_ENTITY;
+        writer = new StructuredRecordWriter((long) vertexCount * LAYOUT.getStride(), LAYOUT, PrimitiveType.TRIANGLES);
+        source = new float[vertexCount * FLOATS_PER_VERTEX];
+        SplittableRandom random = new SplittableRandom(sceneSize);
+        for (int i = 0; i < source.length; i++) {
+            source[i] = (float) random.nextDouble(-1.0, 1.0);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        writer.close();
+        NativeBufferWriterBase.DEBUG_MODE = previousDebugMode;
+    }
+
+    @Benchmark
+    public int writeInterleaved() {
+        writer.reset();
+        float[] data = source;
+        for (int offset = 0; offset < data.length; offset += FLOATS_PER_VERTEX) {
+            writer.put(data[offset], data[offset + 1], data[offset + 2])
+                    .put(data[offset + 3], data[offset + 4])
+                    .put(data[offset + 5], data[offset + 6], data[offset + 7]);
+        }
+        return writer.getVertexCount();
+    }
+
+    @Benchmark
+    public int writeBulk() {
+        writer.reset();
+        writer.put(source);
+        return writer.getVertexCount();
+    }
+}
@@ -0,0 +1,186 @@
+package rogo.sketch.core.pipeline.flow.v2;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import rogo.sketch.benchmark.HeadlessBenchmarkBackend;
+import rogo.sketch.benchmark.SyntheticScene;
+import rogo.sketch.core.graphics.ecs.GraphicsEntityId;
+import rogo.sketch.core.graphics.ecs.GraphicsUniformSubject;
+import rogo.sketch.core.packet.ExecutionKey;
+import rogo.sketch.core.packet.PacketBuildContext;
+import rogo.sketch.core.packet.RasterPipelineKey;
+import rogo.sketch.core.packet.RenderPacket;
+import rogo.sketch.core.packet.ResourceBindingPlan;
+import rogo.sketch.core.packet.ResourceSetKey;
+import rogo.sketch.core.pipeline.GraphicsEntityManager;
+import rogo.sketch.core.pipeline.PipelineType;
+import rogo.sketch.core.pipeline.data.PipelineDataStore;
+import rogo.sketch.core.pipeline.flow.impl.RasterizationPostProcessor;
+import rogo.sketch.core.pipeline.geometry.GeometrySourceKey;
+import rogo.sketch.core.pipeline.geometry.RasterGeometryEncoder;
+import rogo.sketch.core.shader.uniform.UniformGroupSet;
+import rogo.sketch.core.vertex.GeometryResourceCoordinator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packet compilation cost of {@link DrawStreamCompiler#compile} for one raster
+ * stage. The geometry view is assembled the way {@link RasterStageFlowScene}
+ * groups it: one visible batch per baked mesh, one setting slice per material.
+ * Lives in the compiler's package because the compiler is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DrawStreamCompilerBenchmark {
+    static final DrawStreamCompiler.TraceHooks NO_TRACE = new DrawStreamCompiler.TraceHooks() {
+        @Override
+        public void drop(GraphicsUniformSubject subject, String reason) {
+        }
+
+        @Override
+        public void drop(List<GraphicsUniformSubject> subjects, String reason) {
+        }
+
+        @Override
+        public void packetBuilt(List<GraphicsUniformSubject> subjects, ExecutionKey stateKey) {
+        }
+
+        @Override
+        public void stagePlanned(List<GraphicsUniformSubject> subjects) {
+        }
+    };
+
+    @Param({"256", "4096"})
+    public int sceneSize;
+
+    private DrawStreamCompiler compiler;
+    private StageGeometryView geometryView;
+    private PacketBuildContext packetBuildContext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        HeadlessBenchmarkBackend.start("draw-stream-compiler");
+        SyntheticScene scene = new SyntheticScene(sceneSize);
+        GraphicsEntityManager entityManager = new GraphicsEntityManager();
+        List<GraphicsEntityId> entityIds = new ArrayList<>(sceneSize);
+        for (int i = 0; i < sceneSize; i++) {
+            entityIds.add(entityManager.spawn(scene.blueprint(i)));
+        }
+        List<StageEntityView.Entry> entries = entityManager.snapshotEntitiesIfPresent(
+                entityIds,
+                SyntheticScene.STAGE_ID,
+                PipelineType.RASTERIZATION);
+
+        GeometryResourceCoordinator coordinator = new GeometryResourceCoordinator();
+        compiler = new DrawStreamCompiler(
+                SyntheticScene.STAGE_ID,
+                PipelineType.RASTERIZATION,
+                coordinator,
+                new RasterGeometryEncoder(),
+                NO_TRACE);
+        packetBuildContext = new PacketBuildContext(PipelineType.RASTERIZATION, coordinator, new PipelineDataStore());
+        geometryView = buildGeometryView(scene, entries);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HeadlessBenchmarkBackend.stop();
+    }
+
+    @Benchmark
+    public Map<ExecutionKey, List<RenderPacket>> compile() {
+        return compiler.compile(geometryView, packetBuildContext, null);
+    }
+
+    /**
+     * Same compile with upload planning enabled, as the frame path runs it.
+     */
+    @Benchmark
+    public Map<ExecutionKey, List<RenderPacket>> compileWithUploadPlans() {
+        RasterizationPostProcessor processor = new RasterizationPostProcessor();
+        Map<ExecutionKey, List<RenderPacket>> packets = compiler.compile(geometryView, packetBuildContext, processor);
+        processor.execute();
+        return packets;
+    }
+
+    static StageGeometryView buildGeometryView(SyntheticScene scene, List<StageEntityView.Entry> entries) {
+        Map<Integer, Map<Integer, List<StageEntityView.Entry>>> byMeshThenMaterial = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            byMeshThenMaterial
+                    .computeIfAbsent(scene.meshIndexOf(i), ignored -> new LinkedHashMap<>())
+                    .computeIfAbsent(scene.materialIndexOf(i), ignored -> new ArrayList<>())
+                    .add(entries.get(i));
+        }
+
+        List<StageGeometryView.VisibleBatch> batches = new ArrayList<>(byMeshThenMaterial.size());
+        long visibleOrder = 0L;
+        for (Map.Entry<Integer, Map<Integer, List<StageEntityView.Entry>>> meshEntry : byMeshThenMaterial.entrySet()) {
+            SyntheticScene.SyntheticMesh mesh = scene.meshes().get(meshEntry.getKey());
+            GeometrySourceKey sourceKey = GeometrySourceKey.fromPreparedMesh(mesh);
+            GeometryBatchKey geometryBatchKey = new GeometryBatchKey(
+                    sourceKey.sharedBatchKey(),
+                    SyntheticScene.VERTEX_LAYOUT,
+                    scene.rasterParameter().primitiveType(),
+                    GeometryBatchKey.SubmissionClass.DIRECT);
+            GeometryTraitsRef geometryTraits = new GeometryTraitsRef(
+                    mesh,
+                    sourceKey,
+                    geometryBatchKey,
+                    mesh.getVertexCount(),
+                    mesh.getIndicesCount(),
+                    true);
+
+            List<StageEntityView.Entry> batchEntries = new ArrayList<>();
+            List<StageGeometryView.CompiledSettingSlice> settingSlices = new ArrayList<>();
+            for (Map.Entry<Integer, List<StageEntityView.Entry>> materialEntry : meshEntry.getValue().entrySet()) {
+                List<StageEntityView.Entry> materialEntries = materialEntry.getValue();
+                batchEntries.addAll(materialEntries);
+                RasterPipelineKey stateKey = scene.materials().get(materialEntry.getKey());
+                settingSlices.add(new StageGeometryView.CompiledSettingSlice(
+                        materialEntries.get(0).buildRenderDescriptor(),
+                        materialEntries,
+                        List.of(new StageGeometryView.PreparedMeshSlice(mesh, materialEntries)),
+                        List.of(new ResourceGroupSlice(
+                                null,
+                                stateKey,
+                                ResourceBindingPlan.empty(),
+                                ResourceSetKey.empty(),
+                                UniformGroupSet.empty(),
+                                materialEntries))));
+            }
+
+            batches.add(new StageGeometryView.VisibleBatch(
+                    new VisibleInstanceSlice(geometryBatchKey, batchEntries, 1L, visibleOrder),
+                    geometryBatchKey,
+                    visibleOrder,
+                    scene.rasterParameter(),
+                    geometryTraits,
+                    scene.vertexBufferKey(meshEntry.getKey()),
+                    null,
+                    null,
+                    batchEntries,
+                    settingSlices));
+            visibleOrder += batchEntries.size();
+        }
+        return new StageGeometryView(SyntheticScene.STAGE_ID, PipelineType.RASTERIZATION, 1L, batches);
+    }
+}
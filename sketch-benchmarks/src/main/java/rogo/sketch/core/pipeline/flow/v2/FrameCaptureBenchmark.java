@@ -0,0 +1,122 @@
+package rogo.sketch.core.pipeline.flow.v2;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import rogo.sketch.benchmark.HeadlessBenchmarkBackend;
+import rogo.sketch.benchmark.SyntheticScene;
+import rogo.sketch.core.backend.SubmissionScheduler;
+import rogo.sketch.core.driver.GraphicsDriver;
+import rogo.sketch.core.graphics.ecs.GraphicsEntityId;
+import rogo.sketch.core.packet.ExecutionKey;
+import rogo.sketch.core.packet.PacketBuildContext;
+import rogo.sketch.core.packet.RenderPacket;
+import rogo.sketch.core.pipeline.GraphicsEntityManager;
+import rogo.sketch.core.pipeline.GraphicsPipeline;
+import rogo.sketch.core.pipeline.PipelineConfig;
+import rogo.sketch.core.pipeline.PipelineType;
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.data.PipelineDataStore;
+import rogo.sketch.core.pipeline.geometry.RasterGeometryEncoder;
+import rogo.sketch.core.pipeline.kernel.FrameCaptureHandle;
+import rogo.sketch.core.pipeline.kernel.FrameCaptureSnapshot;
+import rogo.sketch.core.pipeline.kernel.FrameExecutionPlan;
+import rogo.sketch.core.pipeline.kernel.StageExecutionPlan;
+import rogo.sketch.core.resource.GraphicsResourceManager;
+import rogo.sketch.core.util.KeyId;
+import rogo.sketch.core.vertex.GeometryResourceCoordinator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state frame plan install on the headless backend, with capture
+ * unarmed. {@code eager} builds the {@link FrameCaptureSnapshot} for every
+ * plan, as plans did before {@link FrameCaptureHandle}; {@code deferred} is
+ * the current behavior. Run with {@code -PjmhProfilers=gc} to compare
+ * {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameCaptureBenchmark {
+    private static final int STAGE_COUNT = 4;
+
+    @Param({"256", "4096"})
+    public int sceneSize;
+
+    @Param({"deferred", "eager"})
+    public String captureMode;
+
+    private Map<KeyId, StageExecutionPlan> stagePlans;
+    private GraphicsPipeline<RenderContext> pipeline;
+    private SubmissionScheduler scheduler;
+    private boolean eager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        HeadlessBenchmarkBackend.start("frame-capture");
+        SyntheticScene scene = new SyntheticScene(sceneSize);
+        GraphicsEntityManager entityManager = new GraphicsEntityManager();
+        List<GraphicsEntityId> entityIds = new ArrayList<>(sceneSize);
+        for (int i = 0; i < sceneSize; i++) {
+            entityIds.add(entityManager.spawn(scene.blueprint(i)));
+        }
+        GeometryResourceCoordinator coordinator = new GeometryResourceCoordinator();
+        DrawStreamCompiler compiler = new DrawStreamCompiler(
+                SyntheticScene.STAGE_ID,
+                PipelineType.RASTERIZATION,
+                coordinator,
+                new RasterGeometryEncoder(),
+                DrawStreamCompilerBenchmark.NO_TRACE);
+        StageGeometryView geometryView = DrawStreamCompilerBenchmark.buildGeometryView(
+                scene,
+                entityManager.snapshotEntitiesIfPresent(entityIds, SyntheticScene.STAGE_ID, PipelineType.RASTERIZATION));
+        Map<ExecutionKey, List<RenderPacket>> packets = compiler.compile(
+                geometryView,
+                new PacketBuildContext(PipelineType.RASTERIZATION, coordinator, new PipelineDataStore()),
+                null);
+
+        stagePlans = new LinkedHashMap<>();
+        for (int stage = 0; stage < STAGE_COUNT; stage++) {
+            KeyId stageId = KeyId.of("benchmark", "capture_stage_" + stage);
+            stagePlans.put(stageId, StageExecutionPlan.fromPackets(stageId, Map.of(PipelineType.RASTERIZATION, packets)));
+        }
+        pipeline = new GraphicsPipeline<>(new PipelineConfig(), new GraphicsResourceManager(), new RenderContext());
+        scheduler = GraphicsDriver.submissionScheduler();
+        eager = "eager".equals(captureMode);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HeadlessBenchmarkBackend.stop();
+    }
+
+    @Benchmark
+    public FrameExecutionPlan installFrame() {
+        FrameCaptureHandle frameCapture = eager
+                ? FrameCaptureHandle.of(FrameCaptureSnapshot.fromStagePlans(stagePlans))
+                : null;
+        FrameExecutionPlan plan = new FrameExecutionPlan(stagePlans, List.of(), List.of(), Map.of(), frameCapture);
+        scheduler.installExecutionPlan(plan);
+        pipeline.onExecutionPlanInstalled();
+        scheduler.drawFrame();
+        return plan;
+    }
+}
@@ -0,0 +1,83 @@
+package rogo.sketch.core.shader.preprocessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Macro expansion and conditional evaluation cost of
+ * {@link ShaderMacroProcessor#process}. The synthetic über-shader carries one
+ * feature block per 16 scene entities (one per material slot), with half of
+ * the features enabled through the initial macro set.
+ * Lives in the processor's package because the processor is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShaderMacroProcessorBenchmark {
+    private static final KeyId SHADER_ID = KeyId.of("sketch_benchmark", "uber_shader");
+
+    @Param({"256", "4096"})
+    public int sceneSize;
+
+    private String source;
+    private Map<String, String> macros;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int featureCount = Math.max(1, sceneSize / 16);
+        StringBuilder builder = new StringBuilder(featureCount * 256);
+        builder.append("#version 450 core\n")
+                .append("#define MAX_LIGHTS 8\n")
+                .append("#define SCALE(x, s) ((x) * (s))\n")
+                .append("#define SATURATE(x) clamp((x), 0.0, 1.0)\n")
+                .append("layout(location = 0) in vec3 position;\n")
+                .append("layout(location = 1) in vec2 uv;\n")
+                .append("layout(location = 0) out vec4 color;\n");
+        for (int i = 0; i < featureCount; i++) {
+            builder.append("#if defined(FEATURE_").append(i).append(") && MAX_LIGHTS > 4\n")
+                    .append("uniform vec4 material_").append(i).append(";\n")
+                    .append("vec4 shade_").append(i).append("(vec4 c) {\n")
+                    .append("    return SATURATE(SCALE(c, material_").append(i).append(".w)) * material_").append(i).append(";\n")
+                    .append("}\n")
+                    .append("#elif defined(FALLBACK_").append(i % 4).append(")\n")
+                    .append("vec4 shade_").append(i).append("(vec4 c) { return SCALE(c, 0.5); }\n")
+                    .append("#else\n")
+                    .append("vec4 shade_").append(i).append("(vec4 c) { return c; }\n")
+                    .append("#endif\n");
+        }
+        builder.append("void main() {\n")
+                .append("    vec4 c = vec4(position, 1.0);\n")
+                .append("    color = SATURATE(c);\n")
+                .append("}\n");
+        source = builder.toString();
+
+        macros = new LinkedHashMap<>();
+        for (int i = 0; i < featureCount; i += 2) {
+            macros.put("FEATURE_" + i, "1");
+        }
+        macros.put("FALLBACK_1", "1");
+    }
+
+    @Benchmark
+    public String process() throws ShaderPreprocessorException {
+        return ShaderMacroProcessor.process(source, SHADER_ID, macros).source();
+    }
+}
@@ -12,7 +12,7 @@ public record BackendBootstrapContext(
         entryPoint = Objects.requireNonNull(entryPoint, "entryPoint");
         windowService = Objects.requireNonNull(windowService, "windowService");
         presentationController = Objects.requireNonNull(presentationController, "presentationController");
-        if (mainWindowHandle == 0L) {
+        if (mainWindowHandle == 0L && !windowService.headless()) {
             throw new IllegalArgumentException("mainWindowHandle must not be zero");
         }
         long declaredHandle = windowService.windowHandle();
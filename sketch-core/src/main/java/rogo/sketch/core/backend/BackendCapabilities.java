@@ -1,13 +1,19 @@
 package rogo.sketch.core.backend;
 
+/**
+ * Optional features a backend runtime offers. {@code computeShadersSupported}
+ * reports whether compute dispatches actually execute; modules that produce
+ * data through compute passes fall back to CPU paths when it is false.
+ */
 public record BackendCapabilities(
         boolean workerLanesSupported,
         boolean uploadWorkerSupported,
         boolean computeWorkerSupported,
         boolean offscreenGraphicsWorkerSupported,
-        boolean asyncUploadPreparationSupported
+        boolean asyncUploadPreparationSupported,
+        boolean computeShadersSupported
 ) {
-    public static final BackendCapabilities NONE = new BackendCapabilities(false, false, false, false, false);
+    public static final BackendCapabilities NONE = new BackendCapabilities(false, false, false, false, false, false);
 
     public boolean supportsLane(BackendWorkerLane lane) {
         if (lane == null || !workerLanesSupported) {
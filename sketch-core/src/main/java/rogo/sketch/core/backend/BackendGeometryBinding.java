@@ -4,5 +4,12 @@ package rogo.sketch.core.backend;
  * Marker for backend-installed geometry binding state.
  */
 public interface BackendGeometryBinding extends BackendInstalledResource {
+    /**
+     * Approximate GPU memory owned by this binding, used for residency budgeting.
+     * Shared or externally owned buffers are not counted.
+     */
+    default long residentBytes() {
+        return 0L;
+    }
 }
 
@@ -3,5 +3,6 @@ package rogo.sketch.core.backend;
 public enum BackendKind {
     UNINITIALIZED,
     OPENGL,
-    VULKAN
+    VULKAN,
+    HEADLESS
 }
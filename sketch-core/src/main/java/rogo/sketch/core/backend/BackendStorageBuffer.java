@@ -26,6 +26,12 @@ public interface BackendStorageBuffer extends BackendInstalledBuffer, BackendIns
 
     void upload(long sourceAddress, long byteCount);
 
+    /**
+     * Copy {@code byteCount} bytes from {@code sourceAddress} into the buffer at
+     * {@code destinationOffset}, leaving the rest of the buffer untouched.
+     */
+    void uploadRange(long sourceAddress, long destinationOffset, long byteCount);
+
     void upload(long elementIndex);
 
     void upload(long elementIndex, int byteCount);
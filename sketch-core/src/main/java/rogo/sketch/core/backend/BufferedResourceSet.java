@@ -3,23 +3,27 @@ package rogo.sketch.core.backend;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.IntFunction;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Shared buffered resource ownership for async-produce/sync-consume style
  * textures and buffers.
+ * <p>
+ * The slot array, read/write indices and both epochs live in one immutable
+ * {@link State} that is swapped with a single CAS. Readers do one volatile
+ * load and never block; they always see a slot together with the epoch that
+ * was published for it.
+ * </p>
  */
 public final class BufferedResourceSet<T> implements AutoCloseable {
+    private static final ResourceEpoch FIRST_EPOCH = new ResourceEpoch(1L);
+
     private final BufferedResourceDescriptor descriptor;
     private final Consumer<T> disposer;
-    private final Object[] resources;
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    private int readIndex;
-    private int writeIndex;
-    private ResourceEpoch publishedEpoch = ResourceEpoch.ZERO;
-    private ResourceEpoch nextEpoch = new ResourceEpoch(1L);
+    private final int slotCount;
+    private final AtomicReference<State<T>> state;
 
     private BufferedResourceSet(
             BufferedResourceDescriptor descriptor,
@@ -27,9 +31,8 @@ public final class BufferedResourceSet<T> implements AutoCloseable {
             Object[] resources) {
         this.descriptor = Objects.requireNonNull(descriptor, "descriptor");
         this.disposer = Objects.requireNonNull(disposer, "disposer");
-        this.resources = Objects.requireNonNull(resources, "resources");
-        this.readIndex = 0;
-        this.writeIndex = resources.length > 1 ? 1 : 0;
+        this.slotCount = Objects.requireNonNull(resources, "resources").length;
+        this.state = new AtomicReference<>(State.initial(resources));
     }
 
     public static <T> BufferedResourceSet<T> create(
@@ -37,12 +40,7 @@ public final class BufferedResourceSet<T> implements AutoCloseable {
             IntFunction<T> resourceFactory,
             Consumer<T> disposer) {
         Objects.requireNonNull(resourceFactory, "resourceFactory");
-        int slotCount = slotCount(descriptor);
-        Object[] resources = new Object[slotCount];
-        for (int i = 0; i < slotCount; i++) {
-            resources[i] = resourceFactory.apply(i);
-        }
-        return new BufferedResourceSet<>(descriptor, disposer, resources);
+        return new BufferedResourceSet<>(descriptor, disposer, allocate(slotCount(descriptor), resourceFactory));
     }
 
     public BufferedResourceDescriptor descriptor() {
@@ -50,149 +48,88 @@ public final class BufferedResourceSet<T> implements AutoCloseable {
     }
 
     public int slotCount() {
-        return resources.length;
+        return slotCount;
     }
 
     public BufferedResourceView<T> readView() {
-        lock.readLock().lock();
-        try {
-            return new BufferedResourceView<>(resourceAt(readIndex), publishedEpoch);
-        } finally {
-            lock.readLock().unlock();
-        }
+        return state.get().readView;
     }
 
     public BufferedResourceView<T> writeView() {
-        lock.readLock().lock();
-        try {
-            return new BufferedResourceView<>(resourceAt(writeIndex), nextEpoch);
-        } finally {
-            lock.readLock().unlock();
-        }
+        return state.get().writeView;
     }
 
     public @Nullable T readResource() {
-        lock.readLock().lock();
-        try {
-            return resourceAt(readIndex);
-        } finally {
-            lock.readLock().unlock();
-        }
+        return state.get().readView.resource();
     }
 
     public @Nullable T writeResource() {
-        lock.readLock().lock();
-        try {
-            return resourceAt(writeIndex);
-        } finally {
-            lock.readLock().unlock();
-        }
+        return state.get().writeView.resource();
     }
 
     public ResourceEpoch publishedEpoch() {
-        lock.readLock().lock();
-        try {
-            return publishedEpoch;
-        } finally {
-            lock.readLock().unlock();
-        }
+        return state.get().readView.epoch();
     }
 
     public ResourceEpoch nextEpoch() {
-        lock.readLock().lock();
-        try {
-            return nextEpoch;
-        } finally {
-            lock.readLock().unlock();
-        }
+        return state.get().writeView.epoch();
     }
 
     public ResourceEpoch claimNextEpoch() {
-        lock.writeLock().lock();
-        try {
-            ResourceEpoch claimed = nextEpoch;
-            nextEpoch = nextEpoch.next();
-            return claimed;
-        } finally {
-            lock.writeLock().unlock();
+        while (true) {
+            State<T> current = state.get();
+            ResourceEpoch claimed = current.writeView.epoch();
+            State<T> updated = current.withNextEpoch(claimed.next());
+            if (state.compareAndSet(current, updated)) {
+                return claimed;
+            }
         }
     }
 
     public boolean promote(ResourceEpoch epoch) {
-        lock.writeLock().lock();
-        try {
-            if (epoch == null || epoch.value() <= publishedEpoch.value()) {
+        if (epoch == null) {
+            return false;
+        }
+        while (true) {
+            State<T> current = state.get();
+            if (epoch.value() <= current.readView.epoch().value()) {
                 return false;
             }
-            publishedEpoch = epoch;
-            if (resources.length > 1) {
-                int previousRead = readIndex;
-                readIndex = writeIndex;
-                writeIndex = nextWriteIndex(previousRead);
+            if (state.compareAndSet(current, current.promoted(epoch))) {
+                return true;
             }
-            return true;
-        } finally {
-            lock.writeLock().unlock();
         }
     }
 
+    /**
+     * Replace every slot. The new slots are published before the old ones are
+     * disposed, so a reader either sees the old generation or the new one.
+     */
     public void recreate(IntFunction<T> resourceFactory) {
         Objects.requireNonNull(resourceFactory, "resourceFactory");
-        lock.writeLock().lock();
-        try {
-            for (int i = 0; i < resources.length; i++) {
-                disposeResource(resourceAt(i));
-                resources[i] = resourceFactory.apply(i);
-            }
-            resetStateLocked();
-        } finally {
-            lock.writeLock().unlock();
-        }
+        State<T> previous = state.getAndSet(State.initial(allocate(slotCount, resourceFactory)));
+        disposeAll(previous);
     }
 
     public void resetState() {
-        lock.writeLock().lock();
-        try {
-            resetStateLocked();
-        } finally {
-            lock.writeLock().unlock();
+        while (true) {
+            State<T> current = state.get();
+            if (state.compareAndSet(current, State.initial(current.resources))) {
+                return;
+            }
         }
     }
 
-    private void resetStateLocked() {
-        readIndex = 0;
-        writeIndex = resources.length > 1 ? 1 : 0;
-        publishedEpoch = ResourceEpoch.ZERO;
-        nextEpoch = new ResourceEpoch(1L);
-    }
-
     @Override
     public void close() {
-        lock.writeLock().lock();
-        try {
-            for (int i = 0; i < resources.length; i++) {
-                disposeResource(resourceAt(i));
-                resources[i] = null;
-            }
-        } finally {
-            lock.writeLock().unlock();
-        }
+        disposeAll(state.getAndSet(State.initial(new Object[slotCount])));
     }
 
-    private int nextWriteIndex(int previousRead) {
-        if (resources.length <= 1) {
-            return 0;
+    private void disposeAll(State<T> previous) {
+        Object[] resources = previous.resources;
+        for (int i = 0; i < resources.length; i++) {
+            disposeResource(previous.resourceAt(i));
         }
-        int candidate = (previousRead + 1) % resources.length;
-        if (candidate == readIndex) {
-            candidate = (candidate + 1) % resources.length;
-        }
-        return candidate;
-    }
-
-    @SuppressWarnings("unchecked")
-    private @Nullable T resourceAt(int index) {
-        return index >= 0 && index < resources.length ? (T) resources[index] : null;
     }
 
     private void disposeResource(@Nullable T resource) {
@@ -201,6 +138,14 @@ public final class BufferedResourceSet<T> implements AutoCloseable {
         }
     }
 
+    private static <T> Object[] allocate(int slotCount, IntFunction<T> resourceFactory) {
+        Object[] resources = new Object[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            resources[i] = resourceFactory.apply(i);
+        }
+        return resources;
+    }
+
     private static int slotCount(BufferedResourceDescriptor descriptor) {
         if (descriptor == null) {
             return 1;
@@ -211,4 +156,51 @@ public final class BufferedResourceSet<T> implements AutoCloseable {
             case RING_N -> Math.max(2, descriptor.ringSize());
         };
     }
+
+    /**
+     * One published configuration of the set. Never mutated; the slot array is
+     * shared between states of the same generation and only written before the
+     * first state referencing it is published.
+     */
+    private static final class State<T> {
+        private final Object[] resources;
+        private final int readIndex;
+        private final int writeIndex;
+        private final BufferedResourceView<T> readView;
+        private final BufferedResourceView<T> writeView;
+
+        private State(Object[] resources, int readIndex, int writeIndex,
+                      ResourceEpoch publishedEpoch, ResourceEpoch nextEpoch) {
+            this.resources = resources;
+            this.readIndex = readIndex;
+            this.writeIndex = writeIndex;
+            this.readView = new BufferedResourceView<>(resourceAt(readIndex), publishedEpoch);
+            this.writeView = new BufferedResourceView<>(resourceAt(writeIndex), nextEpoch);
+        }
+
+        private static <T> State<T> initial(Object[] resources) {
+            return new State<>(resources, 0, resources.length > 1 ? 1 : 0, ResourceEpoch.ZERO, FIRST_EPOCH);
+        }
+
+        private State<T> withNextEpoch(ResourceEpoch nextEpoch) {
+            return new State<>(resources, readIndex, writeIndex, readView.epoch(), nextEpoch);
+        }
+
+        private State<T> promoted(ResourceEpoch epoch) {
+            if (resources.length <= 1) {
+                return new State<>(resources, readIndex, writeIndex, epoch, writeView.epoch());
+            }
+            int newRead = writeIndex;
+            int candidate = (readIndex + 1) % resources.length;
+            if (candidate == newRead) {
+                candidate = (candidate + 1) % resources.length;
+            }
+            return new State<>(resources, newRead, candidate, epoch, writeView.epoch());
+        }
+
+        @SuppressWarnings("unchecked")
+        private @Nullable T resourceAt(int index) {
+            return index >= 0 && index < resources.length ? (T) resources[index] : null;
+        }
+    }
 }
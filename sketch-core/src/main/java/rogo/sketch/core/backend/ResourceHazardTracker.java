@@ -0,0 +1,265 @@
+package rogo.sketch.core.backend;
+
+import rogo.sketch.core.packet.CopyTexturePacket;
+import rogo.sketch.core.packet.DrawPacket;
+import rogo.sketch.core.packet.DrawPlan;
+import rogo.sketch.core.packet.RenderPacket;
+import rogo.sketch.core.packet.ResourceBindingPlan;
+import rogo.sketch.core.resource.ResourceAccess;
+import rogo.sketch.core.resource.ResourceViewRole;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Backend-neutral read/write hazard tracking across the packets of one
+ * recorded frame.
+ * <p>
+ * Each packet's {@link ResourceBindingPlan} access modes are mapped to the
+ * pipeline stages the packet runs in. {@link #beforePacket(RenderPacket)}
+ * returns the single merged barrier needed so that every read-after-write,
+ * write-after-write and write-after-read hazard against earlier packets is
+ * resolved, or {@link Barrier#NONE} when the packet can run without one.
+ * Attachment writes and image layouts stay with the backend's render pass and
+ * layout transition handling; only memory and execution dependencies are
+ * tracked here. Multi-draw-indirect draws are treated as reading every storage
+ * buffer with a pending write, since indirect buffers are not bound by id.
+ */
+public final class ResourceHazardTracker {
+    public static final int STAGE_DRAW_INDIRECT = 1;
+    public static final int STAGE_VERTEX_SHADER = 1 << 1;
+    public static final int STAGE_FRAGMENT_SHADER = 1 << 2;
+    public static final int STAGE_COMPUTE_SHADER = 1 << 3;
+    public static final int STAGE_TRANSFER = 1 << 4;
+
+    public static final int ACCESS_INDIRECT_COMMAND_READ = 1;
+    public static final int ACCESS_UNIFORM_READ = 1 << 1;
+    public static final int ACCESS_SHADER_READ = 1 << 2;
+    public static final int ACCESS_SHADER_WRITE = 1 << 3;
+    public static final int ACCESS_TRANSFER_READ = 1 << 4;
+    public static final int ACCESS_TRANSFER_WRITE = 1 << 5;
+
+    private static final int GRAPHICS_SHADER_STAGES = STAGE_VERTEX_SHADER | STAGE_FRAGMENT_SHADER;
+
+    private final Map<KeyId, ResourceState> states = new HashMap<>();
+    private final List<PendingAccess> pending = new ArrayList<>();
+
+    /**
+     * Forget all tracked accesses. Call at frame or submission boundaries,
+     * where the backend's own synchronization orders earlier work.
+     */
+    public void reset() {
+        states.clear();
+        pending.clear();
+    }
+
+    /**
+     * Compute the barrier required before {@code packet} and record the
+     * packet's accesses as the latest state of each resource.
+     */
+    public Barrier beforePacket(RenderPacket packet) {
+        if (packet == null) {
+            return Barrier.NONE;
+        }
+        int stages = stagesFor(packet);
+        if (stages == 0) {
+            return Barrier.NONE;
+        }
+        collectAccesses(packet, stages);
+
+        int srcStages = 0;
+        int srcAccess = 0;
+        int dstStages = 0;
+        int dstAccess = 0;
+        boolean bufferHazard = false;
+        boolean imageHazard = false;
+
+        for (PendingAccess access : pending) {
+            ResourceState state = states.get(access.resourceId);
+            if (state == null) {
+                continue;
+            }
+            boolean hazard = false;
+            if (state.writeStages != 0 && (access.stages & ~state.visibleStages) != 0) {
+                // Read-after-write or write-after-write
+                srcStages |= state.writeStages;
+                srcAccess |= state.writeAccess;
+                dstAccess |= access.accessFlags;
+                hazard = true;
+            } else if (access.writes && state.readStages != 0 && (access.stages & ~state.readsOrderedBefore) != 0) {
+                // Write-after-read only needs an execution dependency
+                srcStages |= state.readStages;
+                hazard = true;
+            }
+            if (hazard) {
+                dstStages |= access.stages;
+                bufferHazard |= !access.image;
+                imageHazard |= access.image;
+            }
+        }
+
+        if (packet instanceof DrawPacket drawPacket
+                && drawPacket.drawPlan() != null
+                && drawPacket.drawPlan().submission() == DrawPlan.DrawSubmission.MULTI_DRAW_INDIRECT) {
+            for (ResourceState state : states.values()) {
+                if (!state.image && state.writeStages != 0 && (STAGE_DRAW_INDIRECT & ~state.visibleStages) != 0) {
+                    srcStages |= state.writeStages;
+                    srcAccess |= state.writeAccess;
+                    dstStages |= STAGE_DRAW_INDIRECT;
+                    dstAccess |= ACCESS_INDIRECT_COMMAND_READ;
+                    bufferHazard = true;
+                }
+            }
+        }
+
+        Barrier barrier = Barrier.NONE;
+        if (dstStages != 0) {
+            barrier = new Barrier(srcStages, srcAccess, dstStages, dstAccess, bufferHazard, imageHazard);
+            applyBarrier(barrier);
+        }
+        recordAccesses();
+        return barrier;
+    }
+
+    private void applyBarrier(Barrier barrier) {
+        for (ResourceState state : states.values()) {
+            if (state.writeStages != 0 && (state.writeStages & ~barrier.srcStages()) == 0) {
+                state.visibleStages |= barrier.dstStages();
+            }
+            if (state.readStages != 0 && (state.readStages & ~barrier.srcStages()) == 0) {
+                state.readsOrderedBefore |= barrier.dstStages();
+            }
+        }
+    }
+
+    private void recordAccesses() {
+        for (PendingAccess access : pending) {
+            ResourceState state = states.computeIfAbsent(access.resourceId, ignored -> new ResourceState(access.image));
+            if (access.writes) {
+                state.writeStages = access.stages;
+                state.writeAccess = access.accessFlags & (ACCESS_SHADER_WRITE | ACCESS_TRANSFER_WRITE);
+                state.visibleStages = 0;
+                state.readStages = 0;
+                state.readsOrderedBefore = 0;
+            } else {
+                state.readStages |= access.stages;
+                state.readsOrderedBefore = 0;
+            }
+        }
+        pending.clear();
+    }
+
+    private void collectAccesses(RenderPacket packet, int stages) {
+        pending.clear();
+        ResourceBindingPlan bindingPlan = packet.bindingPlan();
+        if (bindingPlan != null) {
+            for (ResourceBindingPlan.BindingEntry entry : bindingPlan.entries()) {
+                if (entry == null || entry.resourceId() == null) {
+                    continue;
+                }
+                int accessFlags = accessFlagsFor(entry.viewRole(), entry.access());
+                if (accessFlags == 0) {
+                    continue;
+                }
+                addPending(entry.resourceId(), stages, accessFlags, entry.access().writes(), isImage(entry.viewRole()));
+            }
+        }
+        if (packet instanceof CopyTexturePacket copyPacket) {
+            if (copyPacket.sourceTextureId() != null) {
+                addPending(copyPacket.sourceTextureId(), STAGE_TRANSFER, ACCESS_TRANSFER_READ, false, true);
+            }
+            if (copyPacket.destinationTextureId() != null) {
+                addPending(copyPacket.destinationTextureId(), STAGE_TRANSFER, ACCESS_TRANSFER_WRITE, true, true);
+            }
+        }
+    }
+
+    private void addPending(KeyId resourceId, int stages, int accessFlags, boolean writes, boolean image) {
+        // Several bindings of one resource in a packet never hazard against each other
+        for (PendingAccess access : pending) {
+            if (access.resourceId.equals(resourceId)) {
+                access.accessFlags |= accessFlags;
+                access.writes |= writes;
+                return;
+            }
+        }
+        pending.add(new PendingAccess(resourceId, stages, accessFlags, writes, image));
+    }
+
+    private static int stagesFor(RenderPacket packet) {
+        return switch (packet.packetKind()) {
+            case DRAW -> GRAPHICS_SHADER_STAGES;
+            case DISPATCH -> STAGE_COMPUTE_SHADER;
+            case COPY_TEXTURE -> STAGE_TRANSFER;
+            case CLEAR, GENERATE_MIPMAP, CUSTOM -> 0;
+        };
+    }
+
+    private static int accessFlagsFor(ResourceViewRole viewRole, ResourceAccess access) {
+        if (viewRole == null || access == null) {
+            return 0;
+        }
+        return switch (viewRole) {
+            case SAMPLED_TEXTURE -> ACCESS_SHADER_READ;
+            case UNIFORM_BUFFER -> ACCESS_UNIFORM_READ;
+            case STORAGE_IMAGE, STORAGE_BUFFER -> (access.reads() ? ACCESS_SHADER_READ : 0)
+                    | (access.writes() ? ACCESS_SHADER_WRITE : 0);
+            case TRANSFER_SRC -> ACCESS_TRANSFER_READ;
+            case TRANSFER_DST -> ACCESS_TRANSFER_WRITE;
+            case ATTACHMENT -> 0;
+        };
+    }
+
+    private static boolean isImage(ResourceViewRole viewRole) {
+        return viewRole != ResourceViewRole.UNIFORM_BUFFER && viewRole != ResourceViewRole.STORAGE_BUFFER;
+    }
+
+    /**
+     * One merged dependency using the {@code STAGE_*} and {@code ACCESS_*} bits.
+     */
+    public record Barrier(
+            int srcStages,
+            int srcAccess,
+            int dstStages,
+            int dstAccess,
+            boolean bufferHazard,
+            boolean imageHazard) {
+        public static final Barrier NONE = new Barrier(0, 0, 0, 0, false, false);
+
+        public boolean isEmpty() {
+            return dstStages == 0;
+        }
+    }
+
+    private static final class ResourceState {
+        private final boolean image;
+        private int writeStages;
+        private int writeAccess;
+        private int visibleStages;
+        private int readStages;
+        private int readsOrderedBefore;
+
+        private ResourceState(boolean image) {
+            this.image = image;
+        }
+    }
+
+    private static final class PendingAccess {
+        private final KeyId resourceId;
+        private final int stages;
+        private final boolean image;
+        private int accessFlags;
+        private boolean writes;
+
+        private PendingAccess(KeyId resourceId, int stages, int accessFlags, boolean writes, boolean image) {
+            this.resourceId = resourceId;
+            this.stages = stages;
+            this.accessFlags = accessFlags;
+            this.writes = writes;
+            this.image = image;
+        }
+    }
+}
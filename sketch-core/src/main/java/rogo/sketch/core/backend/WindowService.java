@@ -5,6 +5,14 @@ import java.util.List;
 public interface WindowService {
     long windowHandle();
 
+    /**
+     * True for in-process backends that render without a native window; such
+     * services report a zero {@link #windowHandle()}.
+     */
+    default boolean headless() {
+        return false;
+    }
+
     int framebufferWidth();
 
     int framebufferHeight();
@@ -12,6 +12,7 @@ import rogo.sketch.core.pipeline.module.diagnostic.DiagnosticEntry;
 import rogo.sketch.core.pipeline.module.diagnostic.DiagnosticLevel;
 import rogo.sketch.core.pipeline.module.macro.ModuleMacroDefinition;
 import rogo.sketch.core.pipeline.module.metric.MetricDescriptor;
+import rogo.sketch.core.pipeline.module.metric.HistogramSnapshot;
 import rogo.sketch.core.pipeline.module.metric.MetricKind;
 import rogo.sketch.core.pipeline.module.metric.MetricSnapshot;
 import rogo.sketch.core.pipeline.module.runtime.ModuleRuntimeHost;
@@ -362,7 +363,7 @@ public final class DashboardViewModelFactory {
                     descriptor.id().toString(),
                     descriptor.displayKey(),
                     formatMetricValue(descriptor.kind(), value),
-                    metricUnit(descriptor.kind()),
+                    metricUnit(descriptor.kind(), value),
                     metricAccent(descriptor.kind()),
                     Objects.toString(descriptor.detailKey(), "")));
         }
@@ -618,11 +619,35 @@ public final class DashboardViewModelFactory {
             case PERCENT -> value instanceof Number number
                     ? DashboardMemorySectionBuilder.formatPercent(number.doubleValue())
                     : String.valueOf(value);
+            case HISTOGRAM -> value instanceof HistogramSnapshot histogram
+                    ? formatHistogram(histogram)
+                    : String.valueOf(value);
             default -> String.valueOf(value);
         };
     }
 
-    private String metricUnit(MetricKind kind) {
+    private String formatHistogram(HistogramSnapshot histogram) {
+        if (histogram.isEmpty()) {
+            return "-";
+        }
+        MetricKind kind = histogram.valueKind();
+        return "p50 " + formatHistogramValue(kind, histogram.p50())
+                + " / p95 " + formatHistogramValue(kind, histogram.p95())
+                + " / p99 " + formatHistogramValue(kind, histogram.p99())
+                + " / max " + formatHistogramValue(kind, histogram.max());
+    }
+
+    private String formatHistogramValue(MetricKind kind, long value) {
+        // Duration histograms record nanoseconds; scalar duration metrics are shown in ms
+        return kind == MetricKind.DURATION
+                ? formatMetricValue(kind, value / 1_000_000.0)
+                : formatMetricValue(kind, value);
+    }
+
+    private String metricUnit(MetricKind kind, Object value) {
+        if (kind == MetricKind.HISTOGRAM && value instanceof HistogramSnapshot histogram) {
+            return metricUnit(histogram.valueKind(), null);
+        }
         return kind == MetricKind.DURATION ? "ms" : "";
     }
 
@@ -634,6 +659,7 @@ public final class DashboardViewModelFactory {
             case BYTES -> 0xFF3B82F6;
             case BYTES_PER_SECOND -> 0xFF14B8A6;
             case PERCENT -> 0xFFF59E0B;
+            case HISTOGRAM -> 0xFFEC4899;
             default -> 0xFFA78BFA;
         };
     }
@@ -41,9 +41,8 @@ import rogo.sketch.core.ui.input.InputActionId;
 import rogo.sketch.core.ui.input.RectHitShape;
 import rogo.sketch.core.ui.layout.UiInsets;
 import rogo.sketch.core.ui.text.UiMeasuredTextBlock;
-import rogo.sketch.core.ui.text.UiText;
+import rogo.sketch.core.ui.text.UiTextLayoutCache;
 import rogo.sketch.core.ui.text.UiTextMetrics;
-import rogo.sketch.core.ui.text.UiTextLayouts;
 import rogo.sketch.core.ui.texture.UiTexturePatch;
 import rogo.sketch.core.ui.texture.UiTextureRef;
 import rogo.sketch.core.ui.texture.UiTextureRegion;
@@ -64,6 +63,8 @@ public final class DashboardViewSceneBuilder {
             new UiInsets(4, 4, 4, 4));
     private final DashboardWorkspaceProfile workspaceProfile;
     private final UiTextMetrics textMetrics;
+    // Dashboard text barely changes between frames; measure it once per string and width
+    private final UiTextLayoutCache textLayoutCache;
 
     public DashboardViewSceneBuilder() {
         this(DashboardWorkspaceProfiles.dashboardDefault(), null);
@@ -76,6 +77,7 @@ public final class DashboardViewSceneBuilder {
     public DashboardViewSceneBuilder(DashboardWorkspaceProfile workspaceProfile, UiTextMetrics textMetrics) {
         this.workspaceProfile = workspaceProfile != null ? workspaceProfile : DashboardWorkspaceProfiles.dashboardDefault();
         this.textMetrics = textMetrics;
+        this.textLayoutCache = new UiTextLayoutCache(textMetrics);
     }
 
     public UiFrame build(DashboardViewSnapshot snapshot, DashboardController controller, int screenWidth, int screenHeight, float uiScale) {
@@ -1484,13 +1486,13 @@ public final class DashboardViewSceneBuilder {
     }
 
     private UiMeasuredTextBlock measureSingleLineText(String text, Metrics metrics) {
-        String clipped = UiTextLayouts.clipWithEllipsis(textMetrics, text, Integer.MAX_VALUE);
-        int width = textMetrics != null ? textMetrics.width(clipped) : clipped.length() * 6;
+        String clipped = textLayoutCache.clipWithEllipsis(text, Integer.MAX_VALUE);
+        int width = textLayoutCache.width(clipped);
         return new UiMeasuredTextBlock(List.of(clipped), metrics.lineHeight, metrics.textLineGap, width, metrics.lineHeight);
     }
 
     private UiMeasuredTextBlock measureTextBlock(String text, int width, Metrics metrics) {
-        return UiTextLayouts.measureWrapped(textMetrics, text, width, metrics.textLineGap);
+        return textLayoutCache.measureWrapped(text, width, metrics.textLineGap);
     }
 
     private List<String> wrapText(String text, int width) {
@@ -1517,7 +1519,7 @@ public final class DashboardViewSceneBuilder {
         }
         List<String> result = new ArrayList<>();
         for (String physicalLine : safeText.split("\\R", -1)) {
-            List<String> wrapped = textMetrics.wrap(UiText.literal(physicalLine), width);
+            List<String> wrapped = textLayoutCache.wrap(physicalLine, width);
             if (wrapped.isEmpty()) {
                 result.add("");
             } else {
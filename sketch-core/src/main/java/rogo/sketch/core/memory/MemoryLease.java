@@ -5,25 +5,25 @@ import java.util.function.LongSupplier;
 
 public final class MemoryLease implements AutoCloseable {
     private final UnifiedMemoryFabric fabric;
-    private final long leaseId;
+    private final UnifiedMemoryFabric.LeaseState leaseState;
 
-    MemoryLease(UnifiedMemoryFabric fabric, long leaseId) {
+    MemoryLease(UnifiedMemoryFabric fabric, UnifiedMemoryFabric.LeaseState leaseState) {
         this.fabric = fabric;
-        this.leaseId = leaseId;
+        this.leaseState = leaseState;
     }
 
     public MemoryLease update(long reservedBytes, long liveBytes) {
-        fabric.updateLease(leaseId, reservedBytes, liveBytes, 0.0D);
+        fabric.updateLease(leaseState, reservedBytes, liveBytes, 0.0D);
         return this;
     }
 
     public MemoryLease update(long reservedBytes, long liveBytes, double fragmentationRatio) {
-        fabric.updateLease(leaseId, reservedBytes, liveBytes, fragmentationRatio);
+        fabric.updateLease(leaseState, reservedBytes, liveBytes, fragmentationRatio);
         return this;
     }
 
     public MemoryLease bindSuppliers(LongSupplier reservedSupplier, LongSupplier liveSupplier) {
-        fabric.bindLeaseSuppliers(leaseId, reservedSupplier, liveSupplier, null);
+        fabric.bindLeaseSuppliers(leaseState, reservedSupplier, liveSupplier, null);
         return this;
     }
 
@@ -31,12 +31,12 @@ public final class MemoryLease implements AutoCloseable {
             LongSupplier reservedSupplier,
             LongSupplier liveSupplier,
             DoubleSupplier fragmentationSupplier) {
-        fabric.bindLeaseSuppliers(leaseId, reservedSupplier, liveSupplier, fragmentationSupplier);
+        fabric.bindLeaseSuppliers(leaseState, reservedSupplier, liveSupplier, fragmentationSupplier);
         return this;
     }
 
     @Override
     public void close() {
-        fabric.closeLease(leaseId);
+        fabric.closeLease(leaseState);
     }
 }
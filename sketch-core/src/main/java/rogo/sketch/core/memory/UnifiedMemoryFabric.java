@@ -2,40 +2,59 @@ package rogo.sketch.core.memory;
 
 import rogo.sketch.core.pipeline.module.diagnostic.SketchDiagnostics;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Deque;
-import java.util.EnumMap;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.DoubleSupplier;
 import java.util.function.LongSupplier;
 
+/**
+ * Process-wide memory accounting.
+ * <p>
+ * Lease updates never take a global lock: each {@link MemoryLease} holds its
+ * state directly, guarded by its own monitor, and folds byte deltas into
+ * striped per-domain counters, so allocators on different threads only meet on
+ * {@link LongAdder} cells. Snapshots serialize among themselves, read the
+ * counters without blocking allocators and are exact once allocators quiesce.
+ */
 public final class UnifiedMemoryFabric {
+    // Must precede INSTANCE, whose constructor reads it
+    private static final MemoryDomain[] DOMAINS = MemoryDomain.values();
     private static final UnifiedMemoryFabric INSTANCE = new UnifiedMemoryFabric();
     private static final long SNAPSHOT_INTERVAL_MS = 100L;
     private static final long TIMELINE_WINDOW_MS = 10_000L;
     private static final String DIAG_MODULE = "memory-fabric";
 
-    private final AtomicLong nextLeaseId = new AtomicLong(1L);
-    private final Map<Long, LeaseState> leases = new LinkedHashMap<>();
-    private final EnumMap<MemoryDomain, MemoryBudget> budgets = new EnumMap<>(MemoryDomain.class);
-    private final EnumMap<MemoryDomain, Long> domainPeakBytes = new EnumMap<>(MemoryDomain.class);
-    private final Deque<MemoryTimelineRecord> timeline = new ArrayDeque<>();
+    private final Set<LeaseState> leases = ConcurrentHashMap.newKeySet();
+    private final Set<LeaseState> sampledLeases = ConcurrentHashMap.newKeySet();
+    private final DomainCounters[] domainCounters = new DomainCounters[DOMAINS.length];
+    private final AtomicReferenceArray<MemoryBudget> budgets = new AtomicReferenceArray<>(DOMAINS.length);
+    // Allocation totals of closed leases; open leases keep their own
+    private final LongAdder retiredAllocatedBytes = new LongAdder();
+    private final LongAdder retiredFreedBytes = new LongAdder();
+    private volatile boolean snapshotDirty = true;
 
+    private final Object snapshotLock = new Object();
+    private final long[] domainPeakBytes = new long[DOMAINS.length];
+    private final Deque<MemoryTimelineRecord> timeline = new ArrayDeque<>();
     private long totalPeakBytes;
-    private long pendingAllocatedBytes;
-    private long pendingFreedBytes;
+    private long lastAllocatedBytesTotal;
+    private long lastFreedBytesTotal;
     private long lastSnapshotMillis;
     private MemoryDebugSnapshot cachedSnapshot = MemoryDebugSnapshot.empty();
 
     private UnifiedMemoryFabric() {
-        for (MemoryDomain domain : MemoryDomain.values()) {
-            budgets.put(domain, domain.defaultBudget());
-            domainPeakBytes.put(domain, 0L);
+        for (MemoryDomain domain : DOMAINS) {
+            domainCounters[domain.ordinal()] = new DomainCounters();
+            budgets.set(domain.ordinal(), domain.defaultBudget());
         }
     }
 
@@ -43,153 +62,195 @@ public final class UnifiedMemoryFabric {
         return INSTANCE;
     }
 
-    public synchronized MemoryLease openLease(MemoryDomain domain, String ownerId) {
-        long leaseId = nextLeaseId.getAndIncrement();
-        leases.put(leaseId, new LeaseState(domain, ownerId));
-        return new MemoryLease(this, leaseId);
+    public MemoryLease openLease(MemoryDomain domain, String ownerId) {
+        LeaseState leaseState = new LeaseState(domain, ownerId);
+        leases.add(leaseState);
+        return new MemoryLease(this, leaseState);
     }
 
-    public synchronized void configureBudget(MemoryDomain domain, MemoryBudget budget) {
+    public void configureBudget(MemoryDomain domain, MemoryBudget budget) {
         if (domain == null) {
             return;
         }
-        budgets.put(domain, budget == null ? MemoryBudget.unbounded() : budget);
-        cachedSnapshot = MemoryDebugSnapshot.empty();
+        budgets.set(domain.ordinal(), budget == null ? MemoryBudget.unbounded() : budget);
+        markSnapshotDirty();
     }
 
-    synchronized void updateLease(long leaseId, long reservedBytes, long liveBytes, double fragmentationRatio) {
-        LeaseState leaseState = leases.get(leaseId);
-        if (leaseState == null) {
-            return;
+    public MemoryBudget budget(MemoryDomain domain) {
+        return domain != null ? budgets.get(domain.ordinal()) : MemoryBudget.unbounded();
+    }
+
+    /**
+     * Current reserved bytes across all leases of {@code domain}, sampling
+     * supplier-backed leases directly instead of waiting for the next snapshot.
+     */
+    public long reservedBytes(MemoryDomain domain) {
+        if (domain == null) {
+            return 0L;
         }
+        for (LeaseState leaseState : sampledLeases) {
+            if (leaseState.domain == domain) {
+                refreshLease(leaseState);
+            }
+        }
+        return domainCounters[domain.ordinal()].reservedBytes.sum();
+    }
+
+    void updateLease(LeaseState leaseState, long reservedBytes, long liveBytes, double fragmentationRatio) {
         applyStateUpdate(leaseState, reservedBytes, liveBytes, fragmentationRatio);
-        cachedSnapshot = MemoryDebugSnapshot.empty();
     }
 
-    synchronized void bindLeaseSuppliers(
-            long leaseId,
+    void bindLeaseSuppliers(
+            LeaseState leaseState,
             LongSupplier reservedSupplier,
             LongSupplier liveSupplier,
             DoubleSupplier fragmentationSupplier) {
-        LeaseState leaseState = leases.get(leaseId);
-        if (leaseState == null) {
-            return;
+        // Membership changes under the lease monitor so a racing close cannot
+        // leave a closed lease behind in sampledLeases
+        synchronized (leaseState) {
+            if (leaseState.closed) {
+                return;
+            }
+            leaseState.reservedSupplier = reservedSupplier;
+            leaseState.liveSupplier = liveSupplier;
+            leaseState.fragmentationSupplier = fragmentationSupplier;
+            if (reservedSupplier != null && liveSupplier != null) {
+                sampledLeases.add(leaseState);
+            } else {
+                sampledLeases.remove(leaseState);
+            }
         }
-        leaseState.reservedSupplier = reservedSupplier;
-        leaseState.liveSupplier = liveSupplier;
-        leaseState.fragmentationSupplier = fragmentationSupplier;
-        cachedSnapshot = MemoryDebugSnapshot.empty();
+        markSnapshotDirty();
     }
 
-    synchronized void closeLease(long leaseId) {
-        LeaseState leaseState = leases.remove(leaseId);
-        if (leaseState == null) {
+    void closeLease(LeaseState leaseState) {
+        if (!leases.remove(leaseState)) {
             return;
         }
-        if (leaseState.reservedBytes > 0L) {
-            pendingFreedBytes += leaseState.reservedBytes;
+        synchronized (leaseState) {
+            leaseState.closed = true;
+            sampledLeases.remove(leaseState);
+            DomainCounters counters = domainCounters[leaseState.domain.ordinal()];
+            counters.reservedBytes.add(-leaseState.reservedBytes);
+            counters.liveBytes.add(-leaseState.liveBytes);
+            retiredAllocatedBytes.add(leaseState.allocatedBytesTotal);
+            retiredFreedBytes.add(leaseState.freedBytesTotal + leaseState.reservedBytes);
         }
-        cachedSnapshot = MemoryDebugSnapshot.empty();
+        markSnapshotDirty();
     }
 
-    public synchronized MemoryDebugSnapshot snapshot() {
-        long now = System.currentTimeMillis();
-        if (cachedSnapshot != MemoryDebugSnapshot.empty() && now - lastSnapshotMillis < SNAPSHOT_INTERVAL_MS) {
-            return cachedSnapshot;
-        }
+    public MemoryDebugSnapshot snapshot() {
+        synchronized (snapshotLock) {
+            long now = System.currentTimeMillis();
+            if (cachedSnapshot != MemoryDebugSnapshot.empty()
+                    && now - lastSnapshotMillis < SNAPSHOT_INTERVAL_MS
+                    && !snapshotDirty) {
+                return cachedSnapshot;
+            }
+            // Cleared before sampling so updates racing with this snapshot dirty the next one
+            snapshotDirty = false;
 
-        for (LeaseState leaseState : leases.values()) {
-            refreshLease(leaseState);
-        }
+            for (LeaseState leaseState : sampledLeases) {
+                refreshLease(leaseState);
+            }
 
-        EnumMap<MemoryDomain, Aggregate> aggregates = new EnumMap<>(MemoryDomain.class);
-        for (MemoryDomain domain : MemoryDomain.values()) {
-            aggregates.put(domain, new Aggregate());
-        }
+            // Byte totals come from the counters; leases are walked without their
+            // monitors for fragmentation and allocation totals
+            double[] fragmentationWeighted = new double[DOMAINS.length];
+            long[] fragmentationWeight = new long[DOMAINS.length];
+            long allocatedBytes = retiredAllocatedBytes.sum();
+            long freedBytes = retiredFreedBytes.sum();
+            for (LeaseState leaseState : leases) {
+                long reservedBytes = (long) LeaseState.RESERVED_BYTES.getOpaque(leaseState);
+                double fragmentationRatio = (double) LeaseState.FRAGMENTATION_RATIO.getOpaque(leaseState);
+                allocatedBytes += (long) LeaseState.ALLOCATED_BYTES_TOTAL.getOpaque(leaseState);
+                freedBytes += (long) LeaseState.FREED_BYTES_TOTAL.getOpaque(leaseState);
+                if (reservedBytes > 0L && fragmentationRatio > 0.0D) {
+                    fragmentationWeighted[leaseState.domain.ordinal()] += fragmentationRatio * reservedBytes;
+                    fragmentationWeight[leaseState.domain.ordinal()] += reservedBytes;
+                }
+            }
+
+            long totalLiveBytes = 0L;
+            long totalReservedBytes = 0L;
+            long totalBudgetBytes = 0L;
+            List<MemoryDomainSnapshot> domainSnapshots = new ArrayList<>(DOMAINS.length);
+            for (MemoryDomain domain : DOMAINS) {
+                int index = domain.ordinal();
+                DomainCounters counters = domainCounters[index];
+                long reservedBytes = Math.max(0L, counters.reservedBytes.sum());
+                long liveBytes = Math.max(0L, Math.min(counters.liveBytes.sum(), reservedBytes));
+                totalLiveBytes += liveBytes;
+                totalReservedBytes += reservedBytes;
 
-        long totalLiveBytes = 0L;
-        long totalReservedBytes = 0L;
-        for (LeaseState leaseState : leases.values()) {
-            Aggregate aggregate = aggregates.get(leaseState.domain);
-            aggregate.liveBytes += leaseState.liveBytes;
-            aggregate.reservedBytes += leaseState.reservedBytes;
-            if (leaseState.reservedBytes > 0L && leaseState.fragmentationRatio > 0.0D) {
-                aggregate.fragmentationWeighted += leaseState.fragmentationRatio * leaseState.reservedBytes;
-                aggregate.fragmentationWeight += leaseState.reservedBytes;
+                long peak = Math.max(domainPeakBytes[index], liveBytes);
+                domainPeakBytes[index] = peak;
+                MemoryBudget budget = budgets.get(index);
+                if (budget.bounded()) {
+                    totalBudgetBytes += budget.limitBytes();
+                }
+                double fragmentation = fragmentationWeight[index] <= 0L
+                        ? 0.0D
+                        : fragmentationWeighted[index] / fragmentationWeight[index];
+                domainSnapshots.add(new MemoryDomainSnapshot(
+                        domain,
+                        liveBytes,
+                        reservedBytes,
+                        peak,
+                        budget,
+                        budget.usageRatio(reservedBytes),
+                        fragmentation));
             }
-            totalLiveBytes += leaseState.liveBytes;
-            totalReservedBytes += leaseState.reservedBytes;
-        }
+            domainSnapshots.sort(Comparator.comparingLong(MemoryDomainSnapshot::reservedBytes).reversed()
+                    .thenComparing(snapshot -> snapshot.domain().ordinal()));
+            totalPeakBytes = Math.max(totalPeakBytes, totalLiveBytes);
 
-        totalPeakBytes = Math.max(totalPeakBytes, totalLiveBytes);
-        long totalBudgetBytes = 0L;
-        List<MemoryDomainSnapshot> domainSnapshots = new ArrayList<>();
-        for (MemoryDomain domain : MemoryDomain.values()) {
-            Aggregate aggregate = aggregates.get(domain);
-            long previousPeak = domainPeakBytes.getOrDefault(domain, 0L);
-            long peak = Math.max(previousPeak, aggregate.liveBytes);
-            domainPeakBytes.put(domain, peak);
-            MemoryBudget budget = budgets.getOrDefault(domain, MemoryBudget.unbounded());
-            if (budget.bounded()) {
-                totalBudgetBytes += budget.limitBytes();
+            double allocRate = 0.0D;
+            double freeRate = 0.0D;
+            if (lastSnapshotMillis > 0L) {
+                long elapsedMillis = Math.max(1L, now - lastSnapshotMillis);
+                double seconds = elapsedMillis / 1000.0D;
+                allocRate = (allocatedBytes - lastAllocatedBytesTotal) / seconds;
+                freeRate = (freedBytes - lastFreedBytesTotal) / seconds;
             }
-            double fragmentation = aggregate.fragmentationWeight <= 0L
-                    ? 0.0D
-                    : aggregate.fragmentationWeighted / aggregate.fragmentationWeight;
-            domainSnapshots.add(new MemoryDomainSnapshot(
-                    domain,
-                    aggregate.liveBytes,
-                    aggregate.reservedBytes,
-                    peak,
-                    budget,
-                    budget.usageRatio(aggregate.reservedBytes),
-                    fragmentation));
-        }
-        domainSnapshots.sort(Comparator.comparingLong(MemoryDomainSnapshot::reservedBytes).reversed()
-                .thenComparing(snapshot -> snapshot.domain().ordinal()));
-
-        double allocRate = 0.0D;
-        double freeRate = 0.0D;
-        if (lastSnapshotMillis > 0L) {
-            long elapsedMillis = Math.max(1L, now - lastSnapshotMillis);
-            double seconds = elapsedMillis / 1000.0D;
-            allocRate = pendingAllocatedBytes / seconds;
-            freeRate = pendingFreedBytes / seconds;
-        }
 
-        timeline.addLast(new MemoryTimelineRecord(now, totalLiveBytes));
-        long earliest = now - TIMELINE_WINDOW_MS;
-        while (!timeline.isEmpty() && timeline.peekFirst().epochMillis() < earliest) {
-            timeline.removeFirst();
-        }
+            timeline.addLast(new MemoryTimelineRecord(now, totalLiveBytes));
+            long earliest = now - TIMELINE_WINDOW_MS;
+            while (!timeline.isEmpty() && timeline.peekFirst().epochMillis() < earliest) {
+                timeline.removeFirst();
+            }
 
-        MemoryBudget totalBudget = totalBudgetBytes > 0L ? MemoryBudget.ofBytes(totalBudgetBytes) : MemoryBudget.unbounded();
-        double totalBudgetUsage = totalBudget.usageRatio(totalReservedBytes);
-        cachedSnapshot = new MemoryDebugSnapshot(
-                totalLiveBytes,
-                totalReservedBytes,
-                totalPeakBytes,
-                allocRate,
-                freeRate,
-                totalBudget,
-                totalBudgetUsage,
-                domainSnapshots,
-                List.copyOf(timeline));
-        pendingAllocatedBytes = 0L;
-        pendingFreedBytes = 0L;
-        lastSnapshotMillis = now;
-        return cachedSnapshot;
+            MemoryBudget totalBudget = totalBudgetBytes > 0L ? MemoryBudget.ofBytes(totalBudgetBytes) : MemoryBudget.unbounded();
+            double totalBudgetUsage = totalBudget.usageRatio(totalReservedBytes);
+            cachedSnapshot = new MemoryDebugSnapshot(
+                    totalLiveBytes,
+                    totalReservedBytes,
+                    totalPeakBytes,
+                    allocRate,
+                    freeRate,
+                    totalBudget,
+                    totalBudgetUsage,
+                    domainSnapshots,
+                    List.copyOf(timeline));
+            lastAllocatedBytesTotal = allocatedBytes;
+            lastFreedBytesTotal = freedBytes;
+            lastSnapshotMillis = now;
+            return cachedSnapshot;
+        }
     }
 
     private void refreshLease(LeaseState leaseState) {
-        if (leaseState.reservedSupplier == null || leaseState.liveSupplier == null) {
+        LongSupplier reservedSupplier = leaseState.reservedSupplier;
+        LongSupplier liveSupplier = leaseState.liveSupplier;
+        DoubleSupplier fragmentationSupplier = leaseState.fragmentationSupplier;
+        if (reservedSupplier == null || liveSupplier == null) {
             return;
         }
         try {
-            long reservedBytes = Math.max(0L, leaseState.reservedSupplier.getAsLong());
-            long liveBytes = Math.max(0L, leaseState.liveSupplier.getAsLong());
-            double fragmentation = leaseState.fragmentationSupplier != null
-                    ? clampRatio(leaseState.fragmentationSupplier.getAsDouble())
+            long reservedBytes = Math.max(0L, reservedSupplier.getAsLong());
+            long liveBytes = Math.max(0L, liveSupplier.getAsLong());
+            double fragmentation = fragmentationSupplier != null
+                    ? clampRatio(fragmentationSupplier.getAsDouble())
                     : 0.0D;
             applyStateUpdate(leaseState, reservedBytes, liveBytes, fragmentation);
         } catch (Exception e) {
@@ -200,14 +261,39 @@ public final class UnifiedMemoryFabric {
     private void applyStateUpdate(LeaseState leaseState, long reservedBytes, long liveBytes, double fragmentationRatio) {
         long sanitizedReserved = Math.max(0L, reservedBytes);
         long sanitizedLive = Math.max(0L, Math.min(liveBytes, sanitizedReserved));
-        if (sanitizedReserved > leaseState.reservedBytes) {
-            pendingAllocatedBytes += sanitizedReserved - leaseState.reservedBytes;
-        } else if (sanitizedReserved < leaseState.reservedBytes) {
-            pendingFreedBytes += leaseState.reservedBytes - sanitizedReserved;
+        double sanitizedFragmentation = clampRatio(fragmentationRatio);
+        synchronized (leaseState) {
+            if (leaseState.closed) {
+                return;
+            }
+            long reservedDelta = sanitizedReserved - leaseState.reservedBytes;
+            long liveDelta = sanitizedLive - leaseState.liveBytes;
+            if (reservedDelta == 0L && liveDelta == 0L && sanitizedFragmentation == leaseState.fragmentationRatio) {
+                return;
+            }
+            DomainCounters counters = domainCounters[leaseState.domain.ordinal()];
+            if (reservedDelta > 0L) {
+                counters.reservedBytes.add(reservedDelta);
+                LeaseState.ALLOCATED_BYTES_TOTAL.setOpaque(leaseState, leaseState.allocatedBytesTotal + reservedDelta);
+            } else if (reservedDelta < 0L) {
+                counters.reservedBytes.add(reservedDelta);
+                LeaseState.FREED_BYTES_TOTAL.setOpaque(leaseState, leaseState.freedBytesTotal - reservedDelta);
+            }
+            if (liveDelta != 0L) {
+                counters.liveBytes.add(liveDelta);
+            }
+            LeaseState.RESERVED_BYTES.setOpaque(leaseState, sanitizedReserved);
+            LeaseState.FRAGMENTATION_RATIO.setOpaque(leaseState, sanitizedFragmentation);
+            leaseState.liveBytes = sanitizedLive;
+        }
+        markSnapshotDirty();
+    }
+
+    private void markSnapshotDirty() {
+        // Read first so steady-state updates do not keep writing the shared flag
+        if (!snapshotDirty) {
+            snapshotDirty = true;
         }
-        leaseState.reservedBytes = sanitizedReserved;
-        leaseState.liveBytes = sanitizedLive;
-        leaseState.fragmentationRatio = clampRatio(fragmentationRatio);
     }
 
     private double clampRatio(double value) {
@@ -217,15 +303,38 @@ public final class UnifiedMemoryFabric {
         return Math.max(0.0D, Math.min(1.0D, value));
     }
 
-    private static final class LeaseState {
+    static final class LeaseState {
+        private static final VarHandle RESERVED_BYTES;
+        private static final VarHandle FRAGMENTATION_RATIO;
+        private static final VarHandle ALLOCATED_BYTES_TOTAL;
+        private static final VarHandle FREED_BYTES_TOTAL;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                RESERVED_BYTES = lookup.findVarHandle(LeaseState.class, "reservedBytes", long.class);
+                FRAGMENTATION_RATIO = lookup.findVarHandle(LeaseState.class, "fragmentationRatio", double.class);
+                ALLOCATED_BYTES_TOTAL = lookup.findVarHandle(LeaseState.class, "allocatedBytesTotal", long.class);
+                FREED_BYTES_TOTAL = lookup.findVarHandle(LeaseState.class, "freedBytesTotal", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
         private final MemoryDomain domain;
         private final String ownerId;
+        // Written under the lease monitor; snapshots read the opaque-written
+        // fields without it
         private long reservedBytes;
         private long liveBytes;
         private double fragmentationRatio;
-        private LongSupplier reservedSupplier;
-        private LongSupplier liveSupplier;
-        private DoubleSupplier fragmentationSupplier;
+        private long allocatedBytesTotal;
+        private long freedBytesTotal;
+        private boolean closed;
+        // Read by the snapshot thread without the monitor
+        private volatile LongSupplier reservedSupplier;
+        private volatile LongSupplier liveSupplier;
+        private volatile DoubleSupplier fragmentationSupplier;
 
         private LeaseState(MemoryDomain domain, String ownerId) {
             this.domain = domain;
@@ -233,10 +342,8 @@ public final class UnifiedMemoryFabric {
         }
     }
 
-    private static final class Aggregate {
-        private long liveBytes;
-        private long reservedBytes;
-        private double fragmentationWeighted;
-        private long fragmentationWeight;
+    private static final class DomainCounters {
+        private final LongAdder reservedBytes = new LongAdder();
+        private final LongAdder liveBytes = new LongAdder();
     }
 }
@@ -32,6 +32,8 @@ public class MeshGroup implements ResourceObject {
     private final Map<String, MeshBone> bonesByName = new HashMap<>();
     private final Map<Integer, MeshBone> bonesById = new HashMap<>();
     private MeshBone rootBone;
+    @Nullable
+    private Skeleton skeleton;
 
     // Metadata
     private final Map<String, Object> metadata = new HashMap<>();
@@ -119,6 +121,31 @@ public class MeshGroup implements ResourceObject {
         return bonesById.get(id);
     }
 
+    /**
+     * All indexed bones, in no particular order.
+     */
+    public Collection<MeshBone> getBones() {
+        return Collections.unmodifiableCollection(bonesById.values());
+    }
+
+    /**
+     * Bake the current bone tree into the flat {@link Skeleton} used for pose
+     * solving. Loaders call this once after the hierarchy is linked.
+     */
+    @Nullable
+    public Skeleton bakeSkeleton() {
+        skeleton = Skeleton.fromBones(bonesById.values());
+        return skeleton;
+    }
+
+    /**
+     * Skeleton baked by {@link #bakeSkeleton()}, or {@code null} for meshes without bones.
+     */
+    @Nullable
+    public Skeleton getSkeleton() {
+        return skeleton;
+    }
+
     @Nullable
     public MeshBone getRootBone() {
         return rootBone;
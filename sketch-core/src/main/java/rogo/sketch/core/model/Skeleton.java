@@ -0,0 +1,167 @@
+package rogo.sketch.core.model;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flat, immutable skeleton baked from a {@link MeshBone} tree.
+ * <p>
+ * Bones are stored in parent-first order, so a single forward pass over
+ * {@link #parentIndex(int)} resolves global transforms. Bind-pose local
+ * transforms and inverse bind poses are packed column-major matrices,
+ * {@value #MATRIX_FLOATS} floats per bone.
+ */
+public final class Skeleton {
+    public static final int MATRIX_FLOATS = 16;
+
+    private final String[] boneNames;
+    private final int[] boneIds;
+    private final int[] parentIndices;
+    private final float[] bindLocalTransforms;
+    private final float[] inverseBindPoses;
+    private final Object2IntOpenHashMap<String> indexByName = new Object2IntOpenHashMap<>();
+    private final Int2IntOpenHashMap indexById = new Int2IntOpenHashMap();
+
+    private Skeleton(List<MeshBone> orderedBones, Map<MeshBone, Integer> indices) {
+        int boneCount = orderedBones.size();
+        boneNames = new String[boneCount];
+        boneIds = new int[boneCount];
+        parentIndices = new int[boneCount];
+        bindLocalTransforms = new float[boneCount * MATRIX_FLOATS];
+        inverseBindPoses = new float[boneCount * MATRIX_FLOATS];
+        indexByName.defaultReturnValue(-1);
+        indexById.defaultReturnValue(-1);
+
+        for (int index = 0; index < boneCount; index++) {
+            MeshBone bone = orderedBones.get(index);
+            boneNames[index] = bone.getName();
+            boneIds[index] = bone.getId();
+            MeshBone parent = bone.getParent();
+            parentIndices[index] = parent != null ? indices.getOrDefault(parent, -1) : -1;
+            bone.getLocalTransform().get(bindLocalTransforms, index * MATRIX_FLOATS);
+            bone.getInverseBindPose().get(inverseBindPoses, index * MATRIX_FLOATS);
+            indexByName.putIfAbsent(bone.getName(), index);
+            indexById.putIfAbsent(bone.getId(), index);
+        }
+    }
+
+    /**
+     * Bake {@code bones} into parent-first order. Bones whose parent is not in
+     * {@code bones} become roots; siblings keep ascending id order.
+     */
+    @Nullable
+    public static Skeleton fromBones(Collection<MeshBone> bones) {
+        if (bones == null || bones.isEmpty()) {
+            return null;
+        }
+        Map<MeshBone, Boolean> members = new IdentityHashMap<>();
+        for (MeshBone bone : bones) {
+            members.put(bone, Boolean.TRUE);
+        }
+        List<MeshBone> roots = new ArrayList<>();
+        for (MeshBone bone : bones) {
+            if (bone.getParent() == null || !members.containsKey(bone.getParent())) {
+                roots.add(bone);
+            }
+        }
+        roots.sort(Comparator.comparingInt(MeshBone::getId));
+
+        List<MeshBone> ordered = new ArrayList<>(bones.size());
+        Map<MeshBone, Integer> indices = new IdentityHashMap<>();
+        for (MeshBone root : roots) {
+            ordered.add(root);
+            indices.put(root, ordered.size() - 1);
+        }
+        // Breadth-first, so every parent precedes its children
+        for (int cursor = 0; cursor < ordered.size(); cursor++) {
+            List<MeshBone> children = ordered.get(cursor).getChildren();
+            children.sort(Comparator.comparingInt(MeshBone::getId));
+            for (MeshBone child : children) {
+                if (members.containsKey(child) && !indices.containsKey(child)) {
+                    ordered.add(child);
+                    indices.put(child, ordered.size() - 1);
+                }
+            }
+        }
+        return new Skeleton(ordered, indices);
+    }
+
+    public int boneCount() {
+        return parentIndices.length;
+    }
+
+    /**
+     * Index of the parent bone, always lower than {@code boneIndex}, or -1 for roots.
+     */
+    public int parentIndex(int boneIndex) {
+        return parentIndices[boneIndex];
+    }
+
+    public String boneName(int boneIndex) {
+        return boneNames[boneIndex];
+    }
+
+    public int boneId(int boneIndex) {
+        return boneIds[boneIndex];
+    }
+
+    public int indexOf(String boneName) {
+        return boneName != null ? indexByName.getInt(boneName) : -1;
+    }
+
+    public int indexOfId(int boneId) {
+        return indexById.get(boneId);
+    }
+
+    /**
+     * Copy the bind-pose local transforms into {@code target}.
+     */
+    public void copyBindPose(float[] target) {
+        System.arraycopy(bindLocalTransforms, 0, target, 0, bindLocalTransforms.length);
+    }
+
+    /**
+     * Resolve global transforms from {@code localTransforms} and write the
+     * skinning palette, {@code global * inverseBindPose} per bone.
+     */
+    public void computePalette(float[] localTransforms, float[] globalTransforms, float[] palette) {
+        for (int bone = 0; bone < parentIndices.length; bone++) {
+            int offset = bone * MATRIX_FLOATS;
+            int parent = parentIndices[bone];
+            if (parent >= 0) {
+                multiply(globalTransforms, parent * MATRIX_FLOATS, localTransforms, offset, globalTransforms, offset);
+            } else {
+                System.arraycopy(localTransforms, offset, globalTransforms, offset, MATRIX_FLOATS);
+            }
+            multiply(globalTransforms, offset, inverseBindPoses, offset, palette, offset);
+        }
+    }
+
+    /**
+     * {@code out = a * b} for column-major 4x4 matrices; {@code out} must not
+     * overlap either operand.
+     */
+    private static void multiply(float[] a, int aOffset, float[] b, int bOffset, float[] out, int outOffset) {
+        float a00 = a[aOffset], a01 = a[aOffset + 1], a02 = a[aOffset + 2], a03 = a[aOffset + 3];
+        float a10 = a[aOffset + 4], a11 = a[aOffset + 5], a12 = a[aOffset + 6], a13 = a[aOffset + 7];
+        float a20 = a[aOffset + 8], a21 = a[aOffset + 9], a22 = a[aOffset + 10], a23 = a[aOffset + 11];
+        float a30 = a[aOffset + 12], a31 = a[aOffset + 13], a32 = a[aOffset + 14], a33 = a[aOffset + 15];
+        for (int column = 0; column < 4; column++) {
+            int bc = bOffset + column * 4;
+            float b0 = b[bc], b1 = b[bc + 1], b2 = b[bc + 2], b3 = b[bc + 3];
+            int oc = outOffset + column * 4;
+            out[oc] = a00 * b0 + a10 * b1 + a20 * b2 + a30 * b3;
+            out[oc + 1] = a01 * b0 + a11 * b1 + a21 * b2 + a31 * b3;
+            out[oc + 2] = a02 * b0 + a12 * b1 + a22 * b2 + a32 * b3;
+            out[oc + 3] = a03 * b0 + a13 * b1 + a23 * b2 + a33 * b3;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package rogo.sketch.core.model;
+
+import org.joml.Matrix4fc;
+
+/**
+ * Packed per-instance pose of a {@link Skeleton}: local transforms, resolved
+ * global transforms and the skinning palette, {@value Skeleton#MATRIX_FLOATS}
+ * column-major floats per bone. Instances are recycled through
+ * {@link SkeletonPosePool}.
+ */
+public final class SkeletonPose {
+    private final Skeleton skeleton;
+    private final float[] localTransforms;
+    private final float[] globalTransforms;
+    private final float[] palette;
+
+    SkeletonPose(Skeleton skeleton) {
+        this.skeleton = skeleton;
+        int floats = skeleton.boneCount() * Skeleton.MATRIX_FLOATS;
+        this.localTransforms = new float[floats];
+        this.globalTransforms = new float[floats];
+        this.palette = new float[floats];
+        resetToBindPose();
+    }
+
+    public Skeleton skeleton() {
+        return skeleton;
+    }
+
+    public void resetToBindPose() {
+        skeleton.copyBindPose(localTransforms);
+    }
+
+    public void setLocalTransform(int boneIndex, Matrix4fc transform) {
+        transform.get(localTransforms, boneIndex * Skeleton.MATRIX_FLOATS);
+    }
+
+    /**
+     * Replace a bone's local transform with {@code T * Rx(pitch) * Ry(yaw) * Rz(roll) * S},
+     * the Euler convention of the transform module.
+     */
+    public void setLocalTransform(
+            int boneIndex,
+            float positionX, float positionY, float positionZ,
+            float pitch, float yaw, float roll,
+            float scaleX, float scaleY, float scaleZ) {
+        float cx = (float) Math.cos(pitch), sx = (float) Math.sin(pitch);
+        float cy = (float) Math.cos(yaw), sy = (float) Math.sin(yaw);
+        float cz = (float) Math.cos(roll), sz = (float) Math.sin(roll);
+        float[] m = localTransforms;
+        int o = boneIndex * Skeleton.MATRIX_FLOATS;
+        m[o] = cy * cz * scaleX;
+        m[o + 1] = (cx * sz + sx * sy * cz) * scaleX;
+        m[o + 2] = (sx * sz - cx * sy * cz) * scaleX;
+        m[o + 3] = 0.0f;
+        m[o + 4] = -cy * sz * scaleY;
+        m[o + 5] = (cx * cz - sx * sy * sz) * scaleY;
+        m[o + 6] = (sx * cz + cx * sy * sz) * scaleY;
+        m[o + 7] = 0.0f;
+        m[o + 8] = sy * scaleZ;
+        m[o + 9] = -sx * cy * scaleZ;
+        m[o + 10] = cx * cy * scaleZ;
+        m[o + 11] = 0.0f;
+        m[o + 12] = positionX;
+        m[o + 13] = positionY;
+        m[o + 14] = positionZ;
+        m[o + 15] = 1.0f;
+    }
+
+    /**
+     * Resolve global transforms and the skinning palette from the current
+     * local transforms.
+     */
+    public void solvePalette() {
+        skeleton.computePalette(localTransforms, globalTransforms, palette);
+    }
+
+    public float[] localTransforms() {
+        return localTransforms;
+    }
+
+    public float[] globalTransforms() {
+        return globalTransforms;
+    }
+
+    /**
+     * Skinning matrices indexed by skeleton bone index, valid after {@link #solvePalette()}.
+     */
+    public float[] palette() {
+        return palette;
+    }
+}
@@ -0,0 +1,62 @@
+package rogo.sketch.core.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Frame-scoped pool of {@link SkeletonPose} buffers keyed by skeleton, so
+ * animated entities reuse their packed arrays instead of allocating per bone
+ * every frame. Not thread-safe; acquire and release from the thread preparing
+ * the frame.
+ */
+public final class SkeletonPosePool {
+    private final Map<Skeleton, ArrayDeque<SkeletonPose>> freePoses = new IdentityHashMap<>();
+    private final List<SkeletonPose> leasedPoses = new ArrayList<>();
+    private long allocatedCount;
+
+    /**
+     * Lease a pose reset to the bind pose of {@code skeleton} until the next
+     * {@link #releaseAll()}.
+     */
+    public SkeletonPose acquire(Skeleton skeleton) {
+        ArrayDeque<SkeletonPose> free = freePoses.get(skeleton);
+        SkeletonPose pose = free != null ? free.pollLast() : null;
+        if (pose == null) {
+            pose = new SkeletonPose(skeleton);
+            allocatedCount++;
+        } else {
+            pose.resetToBindPose();
+        }
+        leasedPoses.add(pose);
+        return pose;
+    }
+
+    /**
+     * Return every leased pose to the pool.
+     */
+    public void releaseAll() {
+        for (SkeletonPose pose : leasedPoses) {
+            freePoses.computeIfAbsent(pose.skeleton(), ignored -> new ArrayDeque<>()).addLast(pose);
+        }
+        leasedPoses.clear();
+    }
+
+    /**
+     * Drop pooled poses of skeletons that are no longer loaded.
+     */
+    public void clear() {
+        freePoses.clear();
+        leasedPoses.clear();
+    }
+
+    public int leasedCount() {
+        return leasedPoses.size();
+    }
+
+    public long allocatedCount() {
+        return allocatedCount;
+    }
+}
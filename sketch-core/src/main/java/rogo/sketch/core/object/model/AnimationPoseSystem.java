@@ -4,12 +4,35 @@ import org.jetbrains.annotations.Nullable;
 import rogo.sketch.core.graphics.ecs.GraphicsBuiltinComponents;
 import rogo.sketch.core.graphics.ecs.GraphicsEntityId;
 import rogo.sketch.core.graphics.ecs.GraphicsWorld;
+import rogo.sketch.core.model.Skeleton;
+import rogo.sketch.core.model.SkeletonPose;
+import rogo.sketch.core.model.SkeletonPosePool;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
- * Stage 9 animation pose skeleton. The actual pose solving remains for the
- * later animation integration pass, but the ECS-facing query shape is fixed.
+ * Stage 9 animation pose skeleton. ECS pose components are applied onto
+ * pooled {@link SkeletonPose} buffers, and the skinning palettes of a frame are
+ * solved in batches on the fork-join pool.
  */
 public final class AnimationPoseSystem {
+    private static final int BATCH_BONE_BUDGET = 2048;
+
+    private final SkeletonPosePool posePool = new SkeletonPosePool();
+    private final ForkJoinPool pool;
+
+    public AnimationPoseSystem() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public AnimationPoseSystem(ForkJoinPool pool) {
+        this.pool = pool != null ? pool : ForkJoinPool.commonPool();
+    }
+
     public boolean hasAnimatedPose(GraphicsWorld world, GraphicsEntityId entityId) {
         return world != null
                 && entityId != null
@@ -25,4 +48,102 @@ public final class AnimationPoseSystem {
         }
         return world.component(entityId, GraphicsBuiltinComponents.SKELETON_POSE);
     }
+
+    /**
+     * Return every pose leased during the previous frame to the pool.
+     */
+    public void beginFrame() {
+        posePool.releaseAll();
+    }
+
+    /**
+     * Lease a bind-pose buffer for {@code skeleton} and apply the bone poses of
+     * {@code component} to it. Bones the skeleton does not know are ignored.
+     */
+    public SkeletonPose preparePose(
+            Skeleton skeleton,
+            @Nullable GraphicsBuiltinComponents.SkeletonPoseComponent component) {
+        SkeletonPose pose = posePool.acquire(skeleton);
+        if (component == null) {
+            return pose;
+        }
+        for (Map.Entry<KeyId, GraphicsBuiltinComponents.BonePose> entry : component.bonePoses().entrySet()) {
+            int boneIndex = skeleton.indexOf(entry.getKey().getName());
+            if (boneIndex < 0) {
+                continue;
+            }
+            GraphicsBuiltinComponents.BonePose bone = entry.getValue();
+            pose.setLocalTransform(
+                    boneIndex,
+                    bone.positionX(), bone.positionY(), bone.positionZ(),
+                    (float) Math.toRadians(bone.rotationPitchDeg()),
+                    (float) Math.toRadians(bone.rotationYawDeg()),
+                    (float) Math.toRadians(bone.rotationRollDeg()),
+                    bone.scaleX(), bone.scaleY(), bone.scaleZ());
+        }
+        return pose;
+    }
+
+    /**
+     * Solve the skinning palettes of {@code poses}. Poses are independent, so
+     * they are split into batches of roughly {@value #BATCH_BONE_BUDGET} bones
+     * and solved in parallel.
+     */
+    public void solvePalettes(List<SkeletonPose> poses) {
+        if (poses.isEmpty()) {
+            return;
+        }
+        long totalBones = 0L;
+        for (SkeletonPose pose : poses) {
+            totalBones += pose.skeleton().boneCount();
+        }
+        if (totalBones <= BATCH_BONE_BUDGET || poses.size() == 1) {
+            solveRange(poses, 0, poses.size());
+            return;
+        }
+        pool.invoke(new PaletteBatch(poses, 0, poses.size(), totalBones));
+    }
+
+    public SkeletonPosePool posePool() {
+        return posePool;
+    }
+
+    private static void solveRange(List<SkeletonPose> poses, int from, int to) {
+        for (int index = from; index < to; index++) {
+            poses.get(index).solvePalette();
+        }
+    }
+
+    private static final class PaletteBatch extends RecursiveAction {
+        private final List<SkeletonPose> poses;
+        private final int from;
+        private final int to;
+        private final long boneCount;
+
+        private PaletteBatch(List<SkeletonPose> poses, int from, int to, long boneCount) {
+            this.poses = poses;
+            this.from = from;
+            this.to = to;
+            this.boneCount = boneCount;
+        }
+
+        @Override
+        protected void compute() {
+            if (boneCount <= BATCH_BONE_BUDGET || to - from <= 1) {
+                solveRange(poses, from, to);
+                return;
+            }
+            // Split at the bone midpoint so skeletons of very different sizes balance
+            long half = boneCount / 2L;
+            long leftBones = 0L;
+            int middle = from;
+            while (middle < to - 1 && leftBones < half) {
+                leftBones += poses.get(middle).skeleton().boneCount();
+                middle++;
+            }
+            invokeAll(
+                    new PaletteBatch(poses, from, middle, leftBones),
+                    new PaletteBatch(poses, middle, to, boneCount - leftBones));
+        }
+    }
 }
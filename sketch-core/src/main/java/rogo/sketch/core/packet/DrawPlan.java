@@ -2,6 +2,7 @@ package rogo.sketch.core.packet;
 
 import rogo.sketch.core.data.PrimitiveType;
 import rogo.sketch.core.packet.draw.IndexedDrawSlice;
+import rogo.sketch.core.packet.draw.PackedDrawCommands;
 
 import java.util.List;
 
@@ -17,7 +18,7 @@ public record DrawPlan(
         int drawCount,
         long indirectOffset,
         int indirectStride,
-        List<DirectDrawItem> directItems
+        PackedDrawCommands directCommands
 ) {
     public enum DrawSubmission {
         DIRECT_INDEXED_INSTANCED,
@@ -27,11 +28,10 @@ public record DrawPlan(
     }
 
     public DrawPlan {
-        directItems = directItems != null ? List.copyOf(directItems) : List.of();
+        directCommands = directCommands != null ? directCommands : PackedDrawCommands.EMPTY;
     }
 
     public static DrawPlan directIndexed(PrimitiveType primitiveType, IndexedDrawSlice indexedSlice, int instanceCount, int baseInstance) {
-        DirectDrawItem item = DirectDrawItem.indexed(indexedSlice, instanceCount, baseInstance);
         return new DrawPlan(
                 DrawSubmission.DIRECT_INDEXED_INSTANCED,
                 primitiveType,
@@ -44,11 +44,10 @@ public record DrawPlan(
                 0,
                 0L,
                 0,
-                List.of(item));
+                PackedDrawCommands.indexed(indexedSlice, instanceCount, baseInstance));
     }
 
     public static DrawPlan directNonIndexed(PrimitiveType primitiveType, int vertexCount, int firstVertex, int instanceCount, int baseInstance) {
-        DirectDrawItem item = DirectDrawItem.nonIndexed(vertexCount, firstVertex, instanceCount, baseInstance);
         return new DrawPlan(
                 DrawSubmission.DIRECT_NON_INDEXED_INSTANCED,
                 primitiveType,
@@ -61,27 +60,58 @@ public record DrawPlan(
                 0,
                 0L,
                 0,
-                List.of(item));
+                PackedDrawCommands.nonIndexed(vertexCount, firstVertex, instanceCount, baseInstance));
     }
 
     public static DrawPlan directBatch(PrimitiveType primitiveType, List<DirectDrawItem> directItems) {
         if (directItems == null || directItems.isEmpty()) {
             throw new IllegalArgumentException("directItems must not be empty");
         }
-        DirectDrawItem first = directItems.get(0);
-            return new DrawPlan(
+        return directBatch(primitiveType, PackedDrawCommands.of(directItems));
+    }
+
+    public static DrawPlan directBatch(PrimitiveType primitiveType, PackedDrawCommands directCommands) {
+        if (directCommands == null || directCommands.isEmpty()) {
+            throw new IllegalArgumentException("directCommands must not be empty");
+        }
+        boolean indexed = directCommands.indexed(0);
+        return new DrawPlan(
                 DrawSubmission.DIRECT_BATCH,
                 primitiveType,
-                first.indexed(),
-                first.indexedSlice(),
-                first.vertexCount(),
-                first.firstVertex(),
-                first.instanceCount(),
-                first.baseInstance(),
-                directItems.size(),
+                indexed,
+                directCommands.indexedSlice(0),
+                indexed ? 0 : directCommands.elementCount(0),
+                directCommands.firstVertex(0),
+                directCommands.instanceCount(0),
+                directCommands.baseInstance(0),
+                directCommands.size(),
+                0L,
+                0,
+                directCommands);
+    }
+
+    /**
+     * Plan for already packed commands: a single command keeps the
+     * single-draw submission kinds, several become a {@link DrawSubmission#DIRECT_BATCH}.
+     */
+    public static DrawPlan direct(PrimitiveType primitiveType, PackedDrawCommands directCommands) {
+        if (directCommands == null || directCommands.size() != 1) {
+            return directBatch(primitiveType, directCommands);
+        }
+        boolean indexed = directCommands.indexed(0);
+        return new DrawPlan(
+                indexed ? DrawSubmission.DIRECT_INDEXED_INSTANCED : DrawSubmission.DIRECT_NON_INDEXED_INSTANCED,
+                primitiveType,
+                indexed,
+                directCommands.indexedSlice(0),
+                indexed ? 0 : directCommands.elementCount(0),
+                indexed ? 0 : directCommands.firstVertex(0),
+                directCommands.instanceCount(0),
+                directCommands.baseInstance(0),
+                0,
                 0L,
                 0,
-                directItems);
+                directCommands);
     }
 
     public static DrawPlan multiDrawIndirect(
@@ -102,7 +132,15 @@ public record DrawPlan(
                 drawCount,
                 indirectOffset,
                 indirectStride,
-                List.of());
+                PackedDrawCommands.EMPTY);
+    }
+
+    /**
+     * Record view of {@link #directCommands()}; executors should read the
+     * packed columns instead.
+     */
+    public List<DirectDrawItem> directItems() {
+        return directCommands.toItems();
     }
 
     public boolean isIndirect() {
@@ -0,0 +1,298 @@
+package rogo.sketch.core.packet.draw;
+
+import rogo.sketch.core.packet.DrawPlan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Direct draw commands of one {@link DrawPlan} in struct-of-arrays form.
+ * <p>
+ * Command {@code i} is read through the indexed accessors, so executors walk
+ * a plan without touching one object per draw. Int columns share one backing
+ * array and long columns another, each column {@link #size()} entries long.
+ * Instances are immutable; {@link Builder} accumulates commands in reusable
+ * arrays and copies them out at exact size.
+ */
+public final class PackedDrawCommands {
+    public static final PackedDrawCommands EMPTY = new PackedDrawCommands(0, new int[0], new long[0]);
+
+    private static final int INT_COLUMNS = 6;
+    private static final int COLUMN_FLAGS = 0;
+    private static final int COLUMN_ELEMENT_COUNT = 1;
+    private static final int COLUMN_FIRST_VERTEX = 2;
+    private static final int COLUMN_BASE_VERTEX = 3;
+    private static final int COLUMN_INSTANCE_COUNT = 4;
+    private static final int COLUMN_BASE_INSTANCE = 5;
+    private static final int LONG_COLUMNS = 3;
+    private static final int COLUMN_FIRST_INDEX_BYTE_OFFSET = 0;
+    private static final int COLUMN_SORT_KEY = 1;
+    private static final int COLUMN_SOURCE_TOKEN = 2;
+    private static final int FLAG_INDEXED = 1;
+
+    private final int size;
+    private final int[] ints;
+    private final long[] longs;
+    private List<DrawPlan.DirectDrawItem> items;
+
+    private PackedDrawCommands(int size, int[] ints, long[] longs) {
+        this.size = size;
+        this.ints = ints;
+        this.longs = longs;
+    }
+
+    /**
+     * Pack {@code items} in order; each command's sort key is its position.
+     */
+    public static PackedDrawCommands of(List<DrawPlan.DirectDrawItem> items) {
+        if (items == null || items.isEmpty()) {
+            return EMPTY;
+        }
+        Builder builder = new Builder(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            builder.append(items.get(i), i);
+        }
+        return builder.build();
+    }
+
+    public static PackedDrawCommands indexed(IndexedDrawSlice slice, int instanceCount, int baseInstance) {
+        int[] ints = {FLAG_INDEXED, slice.indexCount(), 0, slice.baseVertex(), instanceCount, baseInstance};
+        long[] longs = {slice.firstIndexByteOffset(), 0L, slice.sourceToken()};
+        return new PackedDrawCommands(1, ints, longs);
+    }
+
+    public static PackedDrawCommands nonIndexed(int vertexCount, int firstVertex, int instanceCount, int baseInstance) {
+        int[] ints = {0, vertexCount, firstVertex, 0, instanceCount, baseInstance};
+        long[] longs = {0L, 0L, 0L};
+        return new PackedDrawCommands(1, ints, longs);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean indexed(int command) {
+        return (ints[COLUMN_FLAGS * size + command] & FLAG_INDEXED) != 0;
+    }
+
+    /**
+     * Index count for indexed commands, vertex count otherwise.
+     */
+    public int elementCount(int command) {
+        return ints[COLUMN_ELEMENT_COUNT * size + command];
+    }
+
+    public int firstVertex(int command) {
+        return ints[COLUMN_FIRST_VERTEX * size + command];
+    }
+
+    public int baseVertex(int command) {
+        return ints[COLUMN_BASE_VERTEX * size + command];
+    }
+
+    public int instanceCount(int command) {
+        return ints[COLUMN_INSTANCE_COUNT * size + command];
+    }
+
+    public int baseInstance(int command) {
+        return ints[COLUMN_BASE_INSTANCE * size + command];
+    }
+
+    public long firstIndexByteOffset(int command) {
+        return longs[COLUMN_FIRST_INDEX_BYTE_OFFSET * size + command];
+    }
+
+    /**
+     * First index of a 32-bit index buffer, derived from the byte offset.
+     */
+    public int firstIndex(int command) {
+        return (int) (firstIndexByteOffset(command) / Integer.BYTES);
+    }
+
+    /**
+     * Submission order of the command within the stream it was compiled from.
+     */
+    public long sortKey(int command) {
+        return longs[COLUMN_SORT_KEY * size + command];
+    }
+
+    public long sourceToken(int command) {
+        return longs[COLUMN_SOURCE_TOKEN * size + command];
+    }
+
+    /**
+     * Slice of an indexed command, or {@code null} for a non-indexed one.
+     */
+    public IndexedDrawSlice indexedSlice(int command) {
+        if (!indexed(command)) {
+            return null;
+        }
+        return new IndexedDrawSlice(sourceToken(command), baseVertex(command), elementCount(command), firstIndexByteOffset(command));
+    }
+
+    public DrawPlan.DirectDrawItem item(int command) {
+        if (indexed(command)) {
+            return DrawPlan.DirectDrawItem.indexed(indexedSlice(command), instanceCount(command), baseInstance(command));
+        }
+        return DrawPlan.DirectDrawItem.nonIndexed(elementCount(command), firstVertex(command), instanceCount(command), baseInstance(command));
+    }
+
+    /**
+     * Record form of the commands, materialized on first use.
+     */
+    public List<DrawPlan.DirectDrawItem> toItems() {
+        List<DrawPlan.DirectDrawItem> materialized = items;
+        if (materialized == null) {
+            List<DrawPlan.DirectDrawItem> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(item(i));
+            }
+            materialized = Collections.unmodifiableList(list);
+            items = materialized;
+        }
+        return materialized;
+    }
+
+    /**
+     * Growable command accumulator. Its arrays are kept across {@link #reset()}
+     * so a pooled builder stops allocating once it has seen its largest batch.
+     */
+    public static final class Builder {
+        private int[] flags;
+        private int[] elementCounts;
+        private int[] firstVertices;
+        private int[] baseVertices;
+        private int[] instanceCounts;
+        private int[] baseInstances;
+        private long[] firstIndexByteOffsets;
+        private long[] sortKeys;
+        private long[] sourceTokens;
+        private int size;
+
+        public Builder() {
+            this(16);
+        }
+
+        public Builder(int initialCapacity) {
+            int capacity = Math.max(1, initialCapacity);
+            flags = new int[capacity];
+            elementCounts = new int[capacity];
+            firstVertices = new int[capacity];
+            baseVertices = new int[capacity];
+            instanceCounts = new int[capacity];
+            baseInstances = new int[capacity];
+            firstIndexByteOffsets = new long[capacity];
+            sortKeys = new long[capacity];
+            sourceTokens = new long[capacity];
+        }
+
+        public Builder appendIndexed(IndexedDrawSlice slice, int instanceCount, int baseInstance, long sortKey) {
+            return appendIndexed(
+                    slice.sourceToken(),
+                    slice.baseVertex(),
+                    slice.indexCount(),
+                    slice.firstIndexByteOffset(),
+                    instanceCount,
+                    baseInstance,
+                    sortKey);
+        }
+
+        public Builder appendIndexed(
+                long sourceToken,
+                int baseVertex,
+                int indexCount,
+                long firstIndexByteOffset,
+                int instanceCount,
+                int baseInstance,
+                long sortKey) {
+            int command = nextCommand();
+            flags[command] = FLAG_INDEXED;
+            // Same clamping as IndexedDrawSlice
+            elementCounts[command] = Math.max(indexCount, 0);
+            firstVertices[command] = 0;
+            baseVertices[command] = baseVertex;
+            instanceCounts[command] = instanceCount;
+            baseInstances[command] = baseInstance;
+            firstIndexByteOffsets[command] = Math.max(firstIndexByteOffset, 0L);
+            sortKeys[command] = sortKey;
+            sourceTokens[command] = sourceToken;
+            return this;
+        }
+
+        public Builder appendNonIndexed(int vertexCount, int firstVertex, int instanceCount, int baseInstance, long sortKey) {
+            int command = nextCommand();
+            flags[command] = 0;
+            elementCounts[command] = vertexCount;
+            firstVertices[command] = firstVertex;
+            baseVertices[command] = 0;
+            instanceCounts[command] = instanceCount;
+            baseInstances[command] = baseInstance;
+            firstIndexByteOffsets[command] = 0L;
+            sortKeys[command] = sortKey;
+            sourceTokens[command] = 0L;
+            return this;
+        }
+
+        public Builder append(DrawPlan.DirectDrawItem item, long sortKey) {
+            if (item.indexed()) {
+                return appendIndexed(item.indexedSlice(), item.instanceCount(), item.baseInstance(), sortKey);
+            }
+            return appendNonIndexed(item.vertexCount(), item.firstVertex(), item.instanceCount(), item.baseInstance(), sortKey);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * Copy the accumulated commands into an immutable, exactly sized instance.
+         */
+        public PackedDrawCommands build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            int[] ints = new int[INT_COLUMNS * size];
+            System.arraycopy(flags, 0, ints, COLUMN_FLAGS * size, size);
+            System.arraycopy(elementCounts, 0, ints, COLUMN_ELEMENT_COUNT * size, size);
+            System.arraycopy(firstVertices, 0, ints, COLUMN_FIRST_VERTEX * size, size);
+            System.arraycopy(baseVertices, 0, ints, COLUMN_BASE_VERTEX * size, size);
+            System.arraycopy(instanceCounts, 0, ints, COLUMN_INSTANCE_COUNT * size, size);
+            System.arraycopy(baseInstances, 0, ints, COLUMN_BASE_INSTANCE * size, size);
+            long[] longs = new long[LONG_COLUMNS * size];
+            System.arraycopy(firstIndexByteOffsets, 0, longs, COLUMN_FIRST_INDEX_BYTE_OFFSET * size, size);
+            System.arraycopy(sortKeys, 0, longs, COLUMN_SORT_KEY * size, size);
+            System.arraycopy(sourceTokens, 0, longs, COLUMN_SOURCE_TOKEN * size, size);
+            return new PackedDrawCommands(size, ints, longs);
+        }
+
+        public void reset() {
+            size = 0;
+        }
+
+        private int nextCommand() {
+            if (size == flags.length) {
+                int capacity = flags.length * 2;
+                flags = Arrays.copyOf(flags, capacity);
+                elementCounts = Arrays.copyOf(elementCounts, capacity);
+                firstVertices = Arrays.copyOf(firstVertices, capacity);
+                baseVertices = Arrays.copyOf(baseVertices, capacity);
+                instanceCounts = Arrays.copyOf(instanceCounts, capacity);
+                baseInstances = Arrays.copyOf(baseInstances, capacity);
+                firstIndexByteOffsets = Arrays.copyOf(firstIndexByteOffsets, capacity);
+                sortKeys = Arrays.copyOf(sortKeys, capacity);
+                sourceTokens = Arrays.copyOf(sourceTokens, capacity);
+            }
+            return size++;
+        }
+    }
+}
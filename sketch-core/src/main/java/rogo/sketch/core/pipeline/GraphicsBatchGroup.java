@@ -14,10 +14,12 @@ import rogo.sketch.core.pipeline.flow.v2.ComputeStageFlowScene;
 import rogo.sketch.core.pipeline.flow.v2.FunctionStageFlowScene;
 import rogo.sketch.core.pipeline.flow.v2.PreparedStageEntityView;
 import rogo.sketch.core.pipeline.flow.v2.RasterStageFlowScene;
+import rogo.sketch.core.pipeline.flow.v2.StageContentVersion;
 import rogo.sketch.core.pipeline.flow.v2.StageEntityView;
 import rogo.sketch.core.pipeline.flow.v2.StageFlowScene;
 import rogo.sketch.core.pipeline.kernel.StageExecutionPlan;
 import rogo.sketch.core.pipeline.module.diagnostic.SketchDiagnostics;
+import rogo.sketch.core.resource.GraphicsResourceManager;
 import rogo.sketch.core.shader.uniform.FrameUniformSnapshot;
 import rogo.sketch.core.util.KeyId;
 
@@ -45,6 +47,8 @@ public class GraphicsBatchGroup<C extends RenderContext> {
     private final Map<PipelineType, CachedPreparedStageEntityView> preparedViewCache = new LinkedHashMap<>();
     private final Map<PipelineType, PreparedSceneState> preparedSceneCache = new LinkedHashMap<>();
     private final Map<PipelineType, CachedStageEntityView> stageViewCache = new LinkedHashMap<>();
+    private final Map<PipelineType, RetainedStagePackets> retainedPackets = new LinkedHashMap<>();
+    private RetainedStagePlan retainedPlan;
 
     public GraphicsBatchGroup(GraphicsPipeline<C> graphicsPipeline, KeyId stageKeyId) {
         this(graphicsPipeline, null, stageKeyId);
@@ -121,9 +125,28 @@ public class GraphicsBatchGroup<C extends RenderContext> {
                 prepareSceneForPreparedView(pipelineType, context, frameUniformSnapshot);
                 StageEntityView view = buildStageEntityView(pipelineType, context);
                 RenderFlowType flowType = pipelineType.getDefaultFlowType();
+
+                // Retained path: nothing feeding this scene changed since the last
+                // build, so replay its packets and uploads instead of recompiling.
+                StageContentVersion contentVersion = scene.contentVersion(view);
+                long resourceEpoch = currentResourceEpoch();
+                RetainedStagePackets retained = retainedPackets.get(pipelineType);
+                if (retained != null
+                        && retained.resourceEpoch() == resourceEpoch
+                        && contentVersion.sameContentAs(retained.contentVersion())) {
+                    scene.replayRetainedUploads(flowType, postProcessors);
+                    return retained.packets();
+                }
+
                 Map<ExecutionKey, List<RenderPacket>> packets =
                         scene.createRenderPackets(view, flowType, postProcessors, context, frameUniformSnapshot);
-                return packets != null ? packets : Collections.emptyMap();
+                packets = packets != null ? Collections.unmodifiableMap(packets) : Collections.emptyMap();
+                if (contentVersion.retainable()) {
+                    retainedPackets.put(pipelineType, new RetainedStagePackets(contentVersion, resourceEpoch, packets));
+                } else {
+                    retainedPackets.remove(pipelineType);
+                }
+                return packets;
             });
         } catch (Exception e) {
             SketchDiagnostics.get().error("graphics-batch-group", "Failed to create render packets for stage " + stageKeyId, e);
@@ -151,10 +174,20 @@ public class GraphicsBatchGroup<C extends RenderContext> {
             C context,
             RenderPostProcessors postProcessors,
             FrameUniformSnapshot frameUniformSnapshot) {
-        return StageExecutionPlan.fromPackets(
-                stageKeyId,
-                createAllRenderPackets(context, postProcessors, frameUniformSnapshot),
-                graphicsPipeline.resourceManager());
+        Map<PipelineType, Map<ExecutionKey, List<RenderPacket>>> packets =
+                createAllRenderPackets(context, postProcessors, frameUniformSnapshot);
+        return withStageWriteLock(() -> {
+            RetainedStagePlan retained = retainedPlan;
+            if (retained != null && retained.builtFrom(packets)) {
+                return retained.plan();
+            }
+            StageExecutionPlan plan = StageExecutionPlan.fromPackets(
+                    stageKeyId,
+                    packets,
+                    graphicsPipeline.resourceManager());
+            retainedPlan = new RetainedStagePlan(packets, plan);
+            return plan;
+        });
     }
 
     public void cleanupDiscardedInstances() {
@@ -192,6 +225,8 @@ public class GraphicsBatchGroup<C extends RenderContext> {
             preparedViewCache.clear();
             preparedSceneCache.clear();
             stageViewCache.clear();
+            retainedPackets.clear();
+            retainedPlan = null;
         });
     }
 
@@ -221,6 +256,11 @@ public class GraphicsBatchGroup<C extends RenderContext> {
         return getTotalInstanceCount() > 0;
     }
 
+    private long currentResourceEpoch() {
+        GraphicsResourceManager resourceManager = graphicsPipeline.resourceManager();
+        return resourceManager != null ? resourceManager.resourceEpoch() : 0L;
+    }
+
     private StageEntityView buildStageEntityView(PipelineType pipelineType, C context) {
         PreparedStageEntityView preparedView = preparePreparedStageEntityView(pipelineType);
         CachedStageEntityView cached = stageViewCache.get(pipelineType);
@@ -387,4 +427,33 @@ public class GraphicsBatchGroup<C extends RenderContext> {
             int frameUniformSnapshotIdentity
     ) {
     }
+
+    private record RetainedStagePackets(
+            StageContentVersion contentVersion,
+            long resourceEpoch,
+            Map<ExecutionKey, List<RenderPacket>> packets
+    ) {
+    }
+
+    /**
+     * Last built plan together with the packet maps it was derived from. Reused
+     * packet maps are handed back by identity, so an identical set of maps means
+     * the plan is still current.
+     */
+    private record RetainedStagePlan(
+            Map<PipelineType, Map<ExecutionKey, List<RenderPacket>>> sourcePackets,
+            StageExecutionPlan plan
+    ) {
+        boolean builtFrom(Map<PipelineType, Map<ExecutionKey, List<RenderPacket>>> packets) {
+            if (packets.size() != sourcePackets.size()) {
+                return false;
+            }
+            for (Map.Entry<PipelineType, Map<ExecutionKey, List<RenderPacket>>> entry : packets.entrySet()) {
+                if (sourcePackets.get(entry.getKey()) != entry.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
@@ -44,6 +44,7 @@ import rogo.sketch.core.vertex.GeometryResourceCoordinator;
 import rogo.sketch.core.backend.LogicalResourceRegistryBinder;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class GraphicsPipeline<C extends RenderContext> {
     private static final KeyId IMMEDIATE_STAGE_ID = KeyId.of("sketch_render", "immediate");
@@ -75,6 +76,7 @@ public class GraphicsPipeline<C extends RenderContext> {
     private boolean initialized = false;
     private boolean initializedStaticGraphics = false;
     private volatile FrameCaptureSnapshot latestFrameCaptureSnapshot = FrameCaptureSnapshot.empty();
+    private final AtomicInteger armedCaptureFrames = new AtomicInteger();
 
     // New architecture: kernel
     private PipelineKernel<C> kernel;
@@ -541,6 +543,29 @@ public class GraphicsPipeline<C extends RenderContext> {
         return latestFrameCaptureSnapshot;
     }
 
+    /**
+     * Capture each of the next {@code frames} installed execution plans, so a
+     * debugger can follow a short sequence without polling every frame.
+     * Zero disarms.
+     */
+    public void armFrameCapture(int frames) {
+        armedCaptureFrames.set(Math.max(0, frames));
+    }
+
+    /**
+     * Called after an execution plan was installed; captures it if armed.
+     */
+    public void onExecutionPlanInstalled() {
+        int remaining;
+        do {
+            remaining = armedCaptureFrames.get();
+            if (remaining <= 0) {
+                return;
+            }
+        } while (!armedCaptureFrames.compareAndSet(remaining, remaining - 1));
+        requestFrameCapture();
+    }
+
     public void registerStageSubmitNode(String ownerId, StageSubmitNode node) {
         stageSubmitRegistry.register(ownerId, node);
     }
@@ -58,6 +58,14 @@ public class IndirectPlanData implements RenderPipelineData {
         return firstRequest(stageId, subjects) != null;
     }
 
+    public boolean hasRequests(KeyId stageId) {
+        if (stageId == null) {
+            return false;
+        }
+        Map<KeyId, IndirectPlanRequest> stageRequests = requestsByStage.get(stageId);
+        return stageRequests != null && !stageRequests.isEmpty();
+    }
+
     public void recordResult(IndirectRewriteResult result) {
         if (result == null) {
             return;
@@ -72,6 +72,35 @@ public class RasterizationPostProcessor implements RenderPostProcessor {
                 resourceSetKey.resourceLayoutKey()));
     }
 
+    /**
+     * Re-register resource upload plans captured on an earlier frame. Used when
+     * a stage replays retained packets instead of recompiling them.
+     */
+    public void addResourceUploads(List<FrameExecutionPlan.ResourceUploadPlan> plans) {
+        if (plans == null) {
+            return;
+        }
+        for (FrameExecutionPlan.ResourceUploadPlan plan : plans) {
+            if (plan != null && !plan.resourceSetKey().isEmpty()) {
+                resourceUploadPlans.put(plan.resourceSetKey(), plan);
+            }
+        }
+    }
+
+    /**
+     * Move every plan captured by {@code other} into this processor. Ownership
+     * of captured builder snapshots moves with the plans.
+     */
+    public void absorb(RasterizationPostProcessor other) {
+        if (other == null || other == this) {
+            return;
+        }
+        geometryUploadPlans.putAll(other.geometryUploadPlans);
+        resourceUploadPlans.putAll(other.resourceUploadPlans);
+        other.geometryUploadPlans.clear();
+        other.resourceUploadPlans.clear();
+    }
+
     public List<FrameExecutionPlan.GeometryUploadPlan> geometryUploadPlans() {
         return List.copyOf(geometryUploadPlans.values());
     }
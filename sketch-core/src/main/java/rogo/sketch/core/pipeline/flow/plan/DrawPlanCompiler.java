@@ -5,6 +5,7 @@ import rogo.sketch.core.backend.BackendIndirectBuffer;
 import rogo.sketch.core.packet.DrawPlan;
 import rogo.sketch.core.packet.draw.IndexedDrawSlice;
 import rogo.sketch.core.packet.draw.IndirectCommandRange;
+import rogo.sketch.core.packet.draw.PackedDrawCommands;
 
 import java.util.List;
 
@@ -61,19 +62,23 @@ public final class DrawPlanCompiler {
         if (primitiveType == null || drawItems == null || drawItems.isEmpty()) {
             return null;
         }
-            if (drawItems.size() == 1) {
-                DrawPlan.DirectDrawItem item = drawItems.get(0);
-                if (item.indexed()) {
-                return compileDirectIndexed(primitiveType, item.indexedSlice(), item.instanceCount(), item.baseInstance());
+        return compileDirectBatch(primitiveType, PackedDrawCommands.of(drawItems));
+    }
+
+    public static DrawPlan compileDirectBatch(
+            PrimitiveType primitiveType,
+            PackedDrawCommands drawCommands) {
+        if (primitiveType == null || drawCommands == null || drawCommands.isEmpty()) {
+            return null;
+        }
+        if (drawCommands.size() == 1) {
+            // Same acceptance rules as compileDirectIndexed / compileDirectNonIndexed
+            if (drawCommands.instanceCount(0) <= 0
+                    || (!drawCommands.indexed(0) && drawCommands.elementCount(0) <= 0)) {
+                return null;
             }
-            return compileDirectNonIndexed(
-                    primitiveType,
-                    item.vertexCount(),
-                    item.firstVertex(),
-                    item.instanceCount(),
-                    item.baseInstance());
+            return DrawPlan.direct(primitiveType, drawCommands);
         }
-        return DrawPlan.directBatch(primitiveType, drawItems);
+        return DrawPlan.directBatch(primitiveType, drawCommands);
     }
 }
-
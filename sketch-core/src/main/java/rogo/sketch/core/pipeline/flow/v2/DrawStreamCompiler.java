@@ -19,8 +19,8 @@ import rogo.sketch.core.packet.PacketBuildContext;
 import rogo.sketch.core.packet.RasterPipelineKey;
 import rogo.sketch.core.packet.ResourceBindingPlan;
 import rogo.sketch.core.packet.ResourceSetKey;
-import rogo.sketch.core.packet.draw.IndexedDrawSlice;
 import rogo.sketch.core.packet.draw.IndirectCommandRange;
+import rogo.sketch.core.packet.draw.PackedDrawCommands;
 import rogo.sketch.core.pipeline.CompiledRenderSetting;
 import rogo.sketch.core.pipeline.PipelineType;
 import rogo.sketch.core.pipeline.data.IndirectBufferData;
@@ -40,6 +40,7 @@ import rogo.sketch.core.shader.uniform.UniformGroupSet;
 import rogo.sketch.core.vertex.GeometryResourceCoordinator;
 import rogo.sketch.core.util.KeyId;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
@@ -66,6 +67,8 @@ final class DrawStreamCompiler {
     private final RasterGeometryEncoder geometryEncoder;
     private final TraceHooks traceHooks;
     private final GpuIndirectCompiler gpuIndirectCompiler;
+    // Command builders reused across frames; built plans own exact-size copies
+    private final ArrayDeque<PackedDrawCommands.Builder> commandBuilderPool = new ArrayDeque<>();
 
     DrawStreamCompiler(
             KeyId stageId,
@@ -114,10 +117,12 @@ final class DrawStreamCompiler {
 
         GeometryResourceCoordinator.BuilderPair[] builders = resourceManager.createBuilder(visibleBatch.rasterParameter());
         resetBuilders(builders);
+        Map<PacketGroupKey, PacketAccumulator> groupedPackets = new LinkedHashMap<>();
         try {
             AtomicInteger baseInstanceCounter = new AtomicInteger(0);
             GeometryHandleKey geometryHandle = GeometryHandleKey.from(visibleBatch.vertexBufferKey());
-            Map<PacketGroupKey, PacketAccumulator> groupedPackets = new LinkedHashMap<>();
+            // Encode order across the whole visible batch, kept as the per-command sort key
+            long commandOrder = 0L;
 
             for (StageGeometryView.CompiledSettingSlice compiledSettingSlice : visibleBatch.compiledSettingSlices()) {
                 if (compiledSettingSlice == null || compiledSettingSlice.compiledRenderSetting() == null || compiledSettingSlice.entries().isEmpty()) {
@@ -150,20 +155,23 @@ final class DrawStreamCompiler {
                             visibleBatch.rasterParameter().primitiveType(),
                             visibleBatch.firstVisibleOrder(),
                             packetTieBreaker(resourceGroup));
-                    PacketAccumulator accumulator = groupedPackets.computeIfAbsent(packetGroupKey, ignored -> new PacketAccumulator());
+                    PacketAccumulator accumulator = groupedPackets.computeIfAbsent(packetGroupKey, ignored -> new PacketAccumulator(acquireCommandBuilder()));
                     boolean hasDrawItem = false;
                     for (StageGeometryView.PreparedMeshSlice preparedMeshSlice : selectPreparedMeshSlices(compiledSettingSlice, resourceGroup.entries())) {
-                        DrawPlan.DirectDrawItem drawItem = encodePreparedMeshSlice(
+                        boolean encoded = encodePreparedMeshSlice(
                                 visibleBatch.vertexBufferKey(),
                                 preparedMeshSlice.preparedMesh(),
                                 preparedMeshSlice.entries(),
                                 builders,
-                                baseInstanceCounter);
-                        if (drawItem == null) {
+                                baseInstanceCounter,
+                                accumulator.commands(),
+                                commandOrder);
+                        if (!encoded) {
                             traceHooks.drop(sourceGraphicsOf(preparedMeshSlice.entries()), "no_draw_item");
                             continue;
                         }
-                        accumulator.add(drawItem, preparedMeshSlice.entries());
+                        commandOrder++;
+                        accumulator.addEntries(preparedMeshSlice.entries());
                         hasDrawItem = true;
                     }
                     if (!hasDrawItem) {
@@ -183,9 +191,10 @@ final class DrawStreamCompiler {
             Map<PacketGroupKey, CompiledPacketPlan> compiledPlans = new LinkedHashMap<>();
 
             for (Map.Entry<PacketGroupKey, PacketAccumulator> packetEntry : groupedPackets.entrySet()) {
+                PackedDrawCommands drawCommands = packetEntry.getValue().commands().build();
                 DrawPlan drawPlan = DrawPlanCompiler.compileDirectBatch(
                         packetEntry.getKey().primitiveType(),
-                        packetEntry.getValue().drawItems());
+                        drawCommands);
                 if (drawPlan == null) {
                     traceHooks.drop(packetEntry.getValue().completionGraphics(), "no_draw_plan");
                     continue;
@@ -196,6 +205,7 @@ final class DrawStreamCompiler {
                         packetEntry.getKey(),
                         packetEntry.getKey().primitiveType(),
                         packetEntry.getValue(),
+                        drawCommands,
                         indirectPlanData,
                         indirectBufferData,
                         packetBuildContext);
@@ -256,6 +266,9 @@ final class DrawStreamCompiler {
             }
         } finally {
             releaseBuilders(builders);
+            for (PacketAccumulator accumulator : groupedPackets.values()) {
+                releaseCommandBuilder(accumulator.commands());
+            }
         }
     }
 
@@ -302,14 +315,16 @@ final class DrawStreamCompiler {
         return selected;
     }
 
-    private DrawPlan.DirectDrawItem encodePreparedMeshSlice(
+    private boolean encodePreparedMeshSlice(
             VertexBufferKey vertexBufferKey,
             PreparedMesh preparedMesh,
             List<StageEntityView.Entry> entries,
             GeometryResourceCoordinator.BuilderPair[] builders,
-            AtomicInteger baseInstanceCounter) {
+            AtomicInteger baseInstanceCounter,
+            PackedDrawCommands.Builder commands,
+            long sortKey) {
         if (vertexBufferKey == null || entries == null || entries.isEmpty()) {
-            return null;
+            return false;
         }
 
         PrimitiveType primitiveType = vertexBufferKey.renderParameter().primitiveType();
@@ -330,7 +345,7 @@ final class DrawStreamCompiler {
                 : 0;
         int batchIndexCount = batchEndIndex - batchStartIndex;
 
-        return compileDirectDrawItem(
+        return appendDirectDrawCommand(
                 vertexBufferKey,
                 preparedMesh,
                 batchInstanceCount(entries),
@@ -338,10 +353,16 @@ final class DrawStreamCompiler {
                 batchVertexCount,
                 batchStartIndex,
                 batchIndexCount,
-                baseInstanceCounter);
+                baseInstanceCounter,
+                commands,
+                sortKey);
     }
 
-    private DrawPlan.DirectDrawItem compileDirectDrawItem(
+    /**
+     * Append the draw for one encoded slice to {@code commands}; returns
+     * {@code false} when the slice produced nothing drawable.
+     */
+    private boolean appendDirectDrawCommand(
             VertexBufferKey key,
             PreparedMesh preparedMesh,
             int batchInstanceCount,
@@ -349,9 +370,11 @@ final class DrawStreamCompiler {
             int batchVertexCount,
             int batchStartIndex,
             int batchIndexCount,
-            AtomicInteger instancedBaseOffset) {
+            AtomicInteger instancedBaseOffset,
+            PackedDrawCommands.Builder commands,
+            long sortKey) {
         if (batchInstanceCount <= 0) {
-            return null;
+            return false;
         }
 
         PrimitiveType primitiveType = key.renderParameter().primitiveType();
@@ -360,69 +383,73 @@ final class DrawStreamCompiler {
             int baseInstance = instancedBaseOffset.getAndAdd(batchInstanceCount);
             if (preparedMesh != null) {
                 if (preparedMesh.getIndicesCount() > 0) {
-                    return DrawPlan.DirectDrawItem.indexed(
-                            IndexedDrawSlice.indexed(
-                                    preparedMesh.getVertexOffset(),
-                                    preparedMesh.getIndicesCount(),
-                                    (long) preparedMesh.getIndexOffset() * Integer.BYTES),
+                    commands.appendIndexed(
+                            0L,
+                            preparedMesh.getVertexOffset(),
+                            preparedMesh.getIndicesCount(),
+                            (long) preparedMesh.getIndexOffset() * Integer.BYTES,
                             batchInstanceCount,
-                            baseInstance);
+                            baseInstance,
+                            sortKey);
+                    return true;
                 }
                 if (indexMode != null && indexMode.isGenerated() && preparedMesh.getVertexCount() > 0) {
-                    return DrawPlan.DirectDrawItem.indexed(
-                            generatedIndexedShard(preparedMesh, primitiveType),
-                            batchInstanceCount,
-                            baseInstance);
+                    appendGeneratedIndexedShard(commands, preparedMesh, primitiveType, batchInstanceCount, baseInstance, sortKey);
+                    return true;
                 }
                 if (preparedMesh.getVertexCount() > 0) {
-                    return DrawPlan.DirectDrawItem.nonIndexed(
+                    commands.appendNonIndexed(
                             preparedMesh.getVertexCount(),
                             preparedMesh.getVertexOffset(),
                             batchInstanceCount,
-                            baseInstance);
+                            baseInstance,
+                            sortKey);
+                    return true;
                 }
             }
 
             if (indexMode != null && indexMode.isGenerated() && batchIndexCount > 0) {
-                return DrawPlan.DirectDrawItem.indexed(
-                        IndexedDrawSlice.indexed(0, batchIndexCount, (long) batchStartIndex * Integer.BYTES),
-                        batchInstanceCount,
-                        baseInstance);
+                commands.appendIndexed(0L, 0, batchIndexCount, (long) batchStartIndex * Integer.BYTES, batchInstanceCount, baseInstance, sortKey);
+                return true;
             }
             if (batchVertexCount > 0) {
-                return DrawPlan.DirectDrawItem.nonIndexed(batchVertexCount, batchStartVertex, batchInstanceCount, baseInstance);
+                commands.appendNonIndexed(batchVertexCount, batchStartVertex, batchInstanceCount, baseInstance, sortKey);
+                return true;
             }
-            return null;
+            return false;
         }
 
         if (preparedMesh != null && preparedMesh.getIndicesCount() > 0) {
-            return DrawPlan.DirectDrawItem.indexed(
-                    IndexedDrawSlice.indexed(
-                            preparedMesh.getVertexOffset(),
-                            preparedMesh.getIndicesCount(),
-                            (long) preparedMesh.getIndexOffset() * Integer.BYTES),
+            commands.appendIndexed(
+                    0L,
+                    preparedMesh.getVertexOffset(),
+                    preparedMesh.getIndicesCount(),
+                    (long) preparedMesh.getIndexOffset() * Integer.BYTES,
                     1,
-                    0);
+                    0,
+                    sortKey);
+            return true;
         }
         if (indexMode != null && indexMode.isGenerated()) {
             if (preparedMesh != null && preparedMesh.getVertexCount() > 0) {
-                return DrawPlan.DirectDrawItem.indexed(generatedIndexedShard(preparedMesh, primitiveType), 1, 0);
+                appendGeneratedIndexedShard(commands, preparedMesh, primitiveType, 1, 0, sortKey);
+                return true;
             }
             if (batchIndexCount <= 0) {
-                return null;
+                return false;
             }
-            return DrawPlan.DirectDrawItem.indexed(
-                    IndexedDrawSlice.indexed(0, batchIndexCount, (long) batchStartIndex * Integer.BYTES),
-                    1,
-                    0);
+            commands.appendIndexed(0L, 0, batchIndexCount, (long) batchStartIndex * Integer.BYTES, 1, 0, sortKey);
+            return true;
         }
         if (preparedMesh != null && preparedMesh.getVertexCount() > 0) {
-            return DrawPlan.DirectDrawItem.nonIndexed(preparedMesh.getVertexCount(), preparedMesh.getVertexOffset(), 1, 0);
+            commands.appendNonIndexed(preparedMesh.getVertexCount(), preparedMesh.getVertexOffset(), 1, 0, sortKey);
+            return true;
         }
         if (batchVertexCount <= 0) {
-            return null;
+            return false;
         }
-        return DrawPlan.DirectDrawItem.nonIndexed(batchVertexCount, batchStartVertex, 1, 0);
+        commands.appendNonIndexed(batchVertexCount, batchStartVertex, 1, 0, sortKey);
+        return true;
     }
 
     private int batchInstanceCount(List<StageEntityView.Entry> entries) {
@@ -438,11 +465,17 @@ final class DrawStreamCompiler {
         return count;
     }
 
-    private IndexedDrawSlice generatedIndexedShard(PreparedMesh preparedMesh, PrimitiveType primitiveType) {
+    private void appendGeneratedIndexedShard(
+            PackedDrawCommands.Builder commands,
+            PreparedMesh preparedMesh,
+            PrimitiveType primitiveType,
+            int instanceCount,
+            int baseInstance,
+            long sortKey) {
         int vertexOffset = preparedMesh.getVertexOffset();
         int indexCount = TopologyIndexGenerator.calculateIndexCount(primitiveType, preparedMesh.getVertexCount());
         long indexOffsetBytes = (long) preparedMesh.getIndexOffset() * Integer.BYTES;
-        return IndexedDrawSlice.indexed(vertexOffset, indexCount, indexOffsetBytes);
+        commands.appendIndexed(0L, vertexOffset, indexCount, indexOffsetBytes, instanceCount, baseInstance, sortKey);
     }
 
     private int currentNonInstancedVertexCount(GeometryResourceCoordinator.BuilderPair[] builders, VertexBufferKey key) {
@@ -482,6 +515,7 @@ final class DrawStreamCompiler {
             PacketGroupKey packetGroupKey,
             PrimitiveType primitiveType,
             PacketAccumulator accumulator,
+            PackedDrawCommands drawCommands,
             IndirectPlanData indirectPlanData,
             IndirectBufferData indirectBufferData,
             PacketBuildContext packetBuildContext) {
@@ -490,7 +524,8 @@ final class DrawStreamCompiler {
                 || packetGroupKey == null
                 || primitiveType == null
                 || accumulator == null
-                || accumulator.drawItems().isEmpty()
+                || drawCommands == null
+                || drawCommands.isEmpty()
                 || indirectPlanData == null) {
             return null;
         }
@@ -539,7 +574,7 @@ final class DrawStreamCompiler {
             return null;
         }
 
-        IndirectCommandBatch commandBatch = IndirectCommandBatch.from(accumulator.drawItems());
+        IndirectCommandBatch commandBatch = IndirectCommandBatch.from(drawCommands);
         var writeResult = indirectBufferData.pool().writeStream(
                 rasterParameter,
                 packetGroupKey.streamKey(stageId, pipelineType),
@@ -592,6 +627,16 @@ final class DrawStreamCompiler {
         return true;
     }
 
+    private PackedDrawCommands.Builder acquireCommandBuilder() {
+        PackedDrawCommands.Builder builder = commandBuilderPool.pollFirst();
+        return builder != null ? builder : new PackedDrawCommands.Builder();
+    }
+
+    private void releaseCommandBuilder(PackedDrawCommands.Builder builder) {
+        builder.reset();
+        commandBuilderPool.addFirst(builder);
+    }
+
     private void resetBuilders(GeometryResourceCoordinator.BuilderPair[] builders) {
         if (builders == null) {
             return;
@@ -643,21 +688,22 @@ final class DrawStreamCompiler {
     }
 
     private static final class PacketAccumulator {
-        private final List<DrawPlan.DirectDrawItem> drawItems = new ArrayList<>();
+        private final PackedDrawCommands.Builder commands;
         private final List<StageEntityView.Entry> completionEntries = new ArrayList<>();
 
-        void add(DrawPlan.DirectDrawItem drawItem, List<StageEntityView.Entry> entries) {
-            if (drawItem != null) {
-                drawItems.add(drawItem);
-            }
+        PacketAccumulator(PackedDrawCommands.Builder commands) {
+            this.commands = commands;
+        }
+
+        void addEntries(List<StageEntityView.Entry> entries) {
             if (entries == null) {
                 return;
             }
             completionEntries.addAll(entries);
         }
 
-        List<DrawPlan.DirectDrawItem> drawItems() {
-            return drawItems;
+        PackedDrawCommands.Builder commands() {
+            return commands;
         }
 
         List<StageEntityView.Entry> completionEntries() {
@@ -18,7 +18,10 @@ final class RasterEntityStateCache {
         return entries.computeIfAbsent(entityId, ignored -> new Entry());
     }
 
-    void retainOnly(Iterable<GraphicsEntityId> entityIds) {
+    /**
+     * @return {@code true} when any cached entity was dropped
+     */
+    boolean retainOnly(Iterable<GraphicsEntityId> entityIds) {
         Map<GraphicsEntityId, Entry> retained = new LinkedHashMap<>();
         for (GraphicsEntityId entityId : entityIds) {
             Entry entry = entries.get(entityId);
@@ -26,8 +29,10 @@ final class RasterEntityStateCache {
                 retained.put(entityId, entry);
             }
         }
+        boolean dropped = retained.size() != entries.size();
         entries.clear();
         entries.putAll(retained);
+        return dropped;
     }
 
     static final class Entry {
@@ -17,6 +17,7 @@ import rogo.sketch.core.pipeline.PipelineType;
 import rogo.sketch.core.pipeline.RenderContext;
 import rogo.sketch.core.pipeline.RenderSettingCompiler;
 import rogo.sketch.core.pipeline.StageRouteCompiler;
+import rogo.sketch.core.pipeline.data.IndirectPlanData;
 import rogo.sketch.core.pipeline.data.PipelineDataStore;
 import rogo.sketch.core.pipeline.flow.RenderFlowType;
 import rogo.sketch.core.pipeline.flow.RenderPostProcessors;
@@ -25,6 +26,7 @@ import rogo.sketch.core.pipeline.flow.plan.ResourceGroupCompiler;
 import rogo.sketch.core.pipeline.geometry.GeometryEncodeResult;
 import rogo.sketch.core.pipeline.geometry.GeometrySourceKey;
 import rogo.sketch.core.pipeline.geometry.RasterGeometryEncoder;
+import rogo.sketch.core.pipeline.kernel.FrameExecutionPlan;
 import rogo.sketch.core.pipeline.module.diagnostic.RenderTraceRecorder;
 import rogo.sketch.core.pipeline.module.diagnostic.SketchDiagnostics;
 import rogo.sketch.core.pipeline.parmeter.RasterizationParameter;
@@ -62,6 +64,10 @@ public final class RasterStageFlowScene<C extends RenderContext> implements Stag
     private final RenderTraceRecorder renderTraceRecorder;
     private final Set<String> emittedDropDiagnostics = new HashSet<>();
     private long visibilityRevision = 0L;
+    private long contentRevision = 0L;
+    private List<Object> preparedUniformSignature = List.of();
+    private List<BackendGeometryBinding> retainedGeometryBindings = List.of();
+    private List<FrameExecutionPlan.ResourceUploadPlan> retainedResourceUploads = List.of();
 
     public RasterStageFlowScene(
             GraphicsStage stage,
@@ -115,7 +121,9 @@ public final class RasterStageFlowScene<C extends RenderContext> implements Stag
     @Override
     public void prepareForFrame(GraphicsWorld world, StageEntityView view, C context, FrameUniformSnapshot frameUniformSnapshot) {
         List<StageEntityView.Entry> entries = view != null ? view.rasterEntries() : List.of();
-        stateCache.retainOnly(view != null ? view.rasterEntityIds() : List.of());
+        if (stateCache.retainOnly(view != null ? view.rasterEntityIds() : List.of())) {
+            markContentDirty(InstanceDirtyMask.MEMBERSHIP);
+        }
         for (StageEntityView.Entry entry : entries) {
             if (entry == null || entry.shouldDiscard()) {
                 continue;
@@ -174,6 +182,7 @@ public final class RasterStageFlowScene<C extends RenderContext> implements Stag
             RenderPostProcessors postProcessors,
             C context,
             FrameUniformSnapshot frameUniformSnapshot) {
+        retainedResourceUploads = List.of();
         if (view == null || view.isEmpty()) {
             return Collections.emptyMap();
         }
@@ -191,7 +200,72 @@ public final class RasterStageFlowScene<C extends RenderContext> implements Stag
         PipelineDataStore dataStore = dataStoreSupplier.get();
         PacketBuildContext packetBuildContext = new PacketBuildContext(pipelineType, resourceManager, dataStore);
         RasterizationPostProcessor processor = postProcessors.get(flowType);
-        return drawStreamCompiler.compile(geometryView, packetBuildContext, processor);
+        if (processor == null) {
+            return drawStreamCompiler.compile(geometryView, packetBuildContext, null);
+        }
+        // Compile into a stage-local processor so this stage's resource uploads
+        // can be replayed if its packets are retained next frame.
+        RasterizationPostProcessor stageProcessor = new RasterizationPostProcessor();
+        Map<ExecutionKey, List<RenderPacket>> packets = drawStreamCompiler.compile(geometryView, packetBuildContext, stageProcessor);
+        retainedResourceUploads = stageProcessor.resourceUploadPlans();
+        processor.absorb(stageProcessor);
+        return packets;
+    }
+
+    @Override
+    public StageContentVersion contentVersion(StageEntityView view) {
+        if (view == null || (renderTraceRecorder != null && renderTraceRecorder.enabled())) {
+            return StageContentVersion.VOLATILE;
+        }
+        PipelineDataStore dataStore = dataStoreSupplier.get();
+        IndirectPlanData indirectPlanData = dataStore != null ? dataStore.get(IndirectPlanData.KEY) : null;
+        if (indirectPlanData != null && indirectPlanData.hasRequests(stageId)) {
+            return StageContentVersion.VOLATILE;
+        }
+
+        List<BackendGeometryBinding> geometryBindings = new ArrayList<>(preparedGeometryView.preparedBatches().size());
+        for (PreparedStageGeometryView.PreparedVisibleBatch preparedBatch : preparedGeometryView.preparedBatches()) {
+            // Dynamic components are re-encoded every frame, and a batch without an
+            // installed binding still has its first upload pending.
+            if (preparedBatch.vertexBufferKey().dynamicComponents().length > 0) {
+                return StageContentVersion.VOLATILE;
+            }
+            BackendGeometryBinding binding = resourceManager.peek(preparedBatch.vertexBufferKey());
+            if (binding == null) {
+                return StageContentVersion.VOLATILE;
+            }
+            geometryBindings.add(binding);
+        }
+        if (!sameIdentities(geometryBindings, retainedGeometryBindings)) {
+            retainedGeometryBindings = geometryBindings;
+            contentRevision++;
+        }
+
+        long visibleSetHash = 0L;
+        int visibleCount = 0;
+        for (StageEntityView.Entry entry : view.rasterEntries()) {
+            if (entry == null || entry.shouldDiscard() || !entry.shouldRender()) {
+                continue;
+            }
+            GraphicsEntityId entityId = entry.entityId();
+            visibleSetHash = StageContentVersion.mix(
+                    visibleSetHash,
+                    ((long) entityId.slot() << 32) | (entityId.generation() & 0xFFFFFFFFL));
+            visibleCount++;
+        }
+        return StageContentVersion.of(contentRevision, visibleSetHash, visibleCount);
+    }
+
+    @Override
+    public void replayRetainedUploads(RenderFlowType flowType, RenderPostProcessors postProcessors) {
+        RasterizationPostProcessor processor = postProcessors != null ? postProcessors.get(flowType) : null;
+        if (processor != null) {
+            processor.addResourceUploads(retainedResourceUploads);
+        }
+        // Retained packets still draw these bindings; record the same lookups a rebuild would
+        for (PreparedStageGeometryView.PreparedVisibleBatch preparedBatch : preparedGeometryView.preparedBatches()) {
+            resourceManager.getIfPresent(preparedBatch.vertexBufferKey());
+        }
     }
 
     @Override
@@ -199,12 +273,35 @@ public final class RasterStageFlowScene<C extends RenderContext> implements Stag
         visibleSlices.clear();
         stateCache.retainOnly(List.of());
         preparedGeometryView = new PreparedStageGeometryView(stageId, pipelineType, List.of());
+        preparedUniformSignature = List.of();
+        retainedGeometryBindings = List.of();
+        retainedResourceUploads = List.of();
+        contentRevision++;
+    }
+
+    private void markContentDirty(int dirtyMask) {
+        if (dirtyMask != InstanceDirtyMask.NONE) {
+            contentRevision++;
+        }
+    }
+
+    private static boolean sameIdentities(List<?> left, List<?> right) {
+        if (left.size() != right.size()) {
+            return false;
+        }
+        for (int i = 0; i < left.size(); i++) {
+            if (left.get(i) != right.get(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private PreparedStageGeometryView prepareStageGeometryView(
             List<StageEntityView.Entry> entries,
             FrameUniformSnapshot frameUniformSnapshot) {
         if (entries == null || entries.isEmpty()) {
+            updatePreparedUniformSignature(List.of());
             return new PreparedStageGeometryView(stageId, pipelineType, List.of());
         }
 
@@ -262,10 +359,12 @@ public final class RasterStageFlowScene<C extends RenderContext> implements Stag
         }
 
         if (grouped.isEmpty()) {
+            updatePreparedUniformSignature(List.of());
             return new PreparedStageGeometryView(stageId, pipelineType, List.of());
         }
 
         List<PreparedStageGeometryView.PreparedVisibleBatch> preparedBatches = new ArrayList<>(grouped.size());
+        List<Object> uniformSignature = new ArrayList<>();
         for (PreparedVisibleBatchBuilder builder : grouped.values()) {
             List<PreparedStageGeometryView.PreparedCompiledSettingSlice> compiledSettingSlices =
                     new ArrayList<>(builder.compiledSettings().size());
@@ -283,6 +382,10 @@ public final class RasterStageFlowScene<C extends RenderContext> implements Stag
                                 builder.geometryBatchKey(),
                                 compiledBuilder.entries(),
                                 frameUniformSnapshot);
+                for (PreparedStageGeometryView.PreparedResourceGroupSlice preparedResourceGroup : preparedResourceGroups) {
+                    uniformSignature.add(preparedResourceGroup.resourceSetKey());
+                    uniformSignature.add(preparedResourceGroup.uniformGroups());
+                }
                 compiledSettingSlices.add(new PreparedStageGeometryView.PreparedCompiledSettingSlice(
                         compiledBuilder.compiledRenderSetting(),
                         compiledBuilder.entries(),
@@ -299,9 +402,21 @@ public final class RasterStageFlowScene<C extends RenderContext> implements Stag
                     builder.entries(),
                     compiledSettingSlices));
         }
+        updatePreparedUniformSignature(uniformSignature);
         return new PreparedStageGeometryView(stageId, pipelineType, preparedBatches);
     }
 
+    /**
+     * Captured uniform values change without any entity version bump, so the
+     * prepared groups are compared by value against the previous prepare.
+     */
+    private void updatePreparedUniformSignature(List<Object> uniformSignature) {
+        if (!uniformSignature.equals(preparedUniformSignature)) {
+            preparedUniformSignature = uniformSignature;
+            contentRevision++;
+        }
+    }
+
     private void prepareVisibility(StageEntityView view) {
         visibleSlices.clear();
         List<StageEntityView.Entry> entries = view != null ? view.rasterEntries() : List.of();
@@ -518,6 +633,18 @@ public final class RasterStageFlowScene<C extends RenderContext> implements Stag
             state.setVisibilityMetadata(resolveVisibilityMetadata(entry));
             state.setBoundsVersion(boundsVersion);
         }
+
+        int dirtyMask = InstanceDirtyMask.NONE;
+        if (descriptorDirty) {
+            dirtyMask = InstanceDirtyMask.add(dirtyMask, InstanceDirtyMask.DESCRIPTOR);
+        }
+        if (geometryDirty) {
+            dirtyMask = InstanceDirtyMask.add(dirtyMask, InstanceDirtyMask.GEOMETRY);
+        }
+        if (boundsDirty) {
+            dirtyMask = InstanceDirtyMask.add(dirtyMask, InstanceDirtyMask.BOUNDS);
+        }
+        markContentDirty(dirtyMask);
         return state;
     }
 
@@ -0,0 +1,37 @@
+package rogo.sketch.core.pipeline.flow.v2;
+
+/**
+ * Composite version of the inputs a {@link StageFlowScene} derives its packets
+ * from. Entity dirty masks, membership changes, captured uniform groups and
+ * installed geometry are folded into {@code contentRevision}; the visible set
+ * is fingerprinted separately because it changes with culling rather than with
+ * entity state.
+ * <p>
+ * Two equal retainable versions on consecutive frames mean the previous
+ * frame's packets can be replayed verbatim.
+ * </p>
+ */
+public record StageContentVersion(
+        boolean retainable,
+        long contentRevision,
+        long visibleSetHash,
+        int visibleCount
+) {
+    public static final StageContentVersion VOLATILE = new StageContentVersion(false, 0L, 0L, 0);
+
+    public static StageContentVersion of(long contentRevision, long visibleSetHash, int visibleCount) {
+        return new StageContentVersion(true, contentRevision, visibleSetHash, visibleCount);
+    }
+
+    public boolean sameContentAs(StageContentVersion previous) {
+        return retainable && previous != null && equals(previous);
+    }
+
+    /**
+     * Fold one 64-bit key into a running fingerprint.
+     */
+    public static long mix(long hash, long value) {
+        long h = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+}
@@ -33,6 +33,23 @@ public interface StageFlowScene<C extends RenderContext> {
             C context,
             FrameUniformSnapshot frameUniformSnapshot);
 
+    /**
+     * Version of the inputs this scene's packets for {@code view} derive from.
+     * Scenes that cannot tell when their output changes return
+     * {@link StageContentVersion#VOLATILE} and are rebuilt every frame.
+     */
+    default StageContentVersion contentVersion(StageEntityView view) {
+        return StageContentVersion.VOLATILE;
+    }
+
+    /**
+     * Re-register the per-frame uploads that retained packets depend on.
+     * Called instead of {@link #createRenderPackets} when the previous frame's
+     * packets are reused.
+     */
+    default void replayRetainedUploads(RenderFlowType flowType, RenderPostProcessors postProcessors) {
+    }
+
     void clear();
 }
 
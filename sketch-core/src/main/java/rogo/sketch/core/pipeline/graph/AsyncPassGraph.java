@@ -0,0 +1,86 @@
+package rogo.sketch.core.pipeline.graph;
+
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.kernel.ThreadDomain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The ASYNC passes of a compiled graph and the ordering constraints between
+ * them.
+ * <p>
+ * SYNC and ANY passes run inline before the async tail is submitted, so they
+ * never delay an ASYNC pass. They are still looked through: an ASYNC pass
+ * that depends on an inline pass which itself depends on another ASYNC pass
+ * waits for that ASYNC pass.
+ * </p>
+ *
+ * @param <C> Concrete RenderContext type
+ */
+public final class AsyncPassGraph<C extends RenderContext> {
+    private static final int[] NO_PREDECESSORS = new int[0];
+
+    private final List<PassNode<C>> passes;
+    private final int[][] predecessors;
+
+    AsyncPassGraph(List<PassNode<C>> sortedPasses) {
+        Map<PassNode<C>, Integer> asyncIndex = new IdentityHashMap<>();
+        Map<PassNode<C>, Set<Integer>> nearestAsync = new IdentityHashMap<>();
+        List<PassNode<C>> asyncPasses = new ArrayList<>();
+        List<int[]> asyncPredecessors = new ArrayList<>();
+
+        for (PassNode<C> node : sortedPasses) {
+            Set<Integer> reachable = new LinkedHashSet<>();
+            for (PassNode<C> dependency : node.dependencies()) {
+                Integer index = asyncIndex.get(dependency);
+                if (index != null) {
+                    reachable.add(index);
+                } else {
+                    reachable.addAll(nearestAsync.getOrDefault(dependency, Set.of()));
+                }
+            }
+
+            if (node.threadDomain() == ThreadDomain.ASYNC) {
+                asyncIndex.put(node, asyncPasses.size());
+                asyncPasses.add(node);
+                asyncPredecessors.add(reachable.isEmpty()
+                        ? NO_PREDECESSORS
+                        : reachable.stream().mapToInt(Integer::intValue).toArray());
+            } else {
+                nearestAsync.put(node, reachable);
+            }
+        }
+
+        this.passes = Collections.unmodifiableList(asyncPasses);
+        this.predecessors = asyncPredecessors.toArray(int[][]::new);
+    }
+
+    /**
+     * ASYNC passes in a valid execution order.
+     */
+    public List<PassNode<C>> passes() {
+        return passes;
+    }
+
+    public int size() {
+        return passes.size();
+    }
+
+    public boolean isEmpty() {
+        return passes.isEmpty();
+    }
+
+    /**
+     * Indices into {@link #passes()} of the ASYNC passes that must finish
+     * before the pass at {@code index} may start. Always lower than {@code index}.
+     */
+    public int[] predecessors(int index) {
+        return predecessors[index];
+    }
+}
@@ -18,10 +18,12 @@ import java.util.List;
  */
 public final class CompiledRenderGraph<C extends RenderContext> {
     private final List<PassNode<C>> sortedPasses;
+    private final AsyncPassGraph<C> asyncPassGraph;
     private final GraphicsPipeline<C> pipeline;
 
     CompiledRenderGraph(List<PassNode<C>> sortedPasses, GraphicsPipeline<C> pipeline) {
         this.sortedPasses = Collections.unmodifiableList(sortedPasses);
+        this.asyncPassGraph = new AsyncPassGraph<>(this.sortedPasses);
         this.pipeline = pipeline;
     }
 
@@ -32,6 +34,13 @@ public final class CompiledRenderGraph<C extends RenderContext> {
         return sortedPasses;
     }
 
+    /**
+     * Get the ASYNC passes and their dependency edges.
+     */
+    public AsyncPassGraph<C> asyncPassGraph() {
+        return asyncPassGraph;
+    }
+
     /**
      * Get the pipeline this graph was compiled for.
      */
@@ -29,6 +29,17 @@ public interface PipelinePass<C extends RenderContext> {
      */
     ThreadDomain threadDomain();
 
+    /**
+     * Whether an ASYNC pass needs the scheduler's dedicated worker lane. Lane
+     * passes run one at a time in graph order, and on the render and tick GL
+     * lanes with the shared graphics context. Passes whose CPU work is safe to
+     * overlap with any pass they do not depend on may return false to run on
+     * the parallel pool instead.
+     */
+    default boolean requiresWorkerContext() {
+        return true;
+    }
+
     /**
      * Execute this pass.
      *
@@ -0,0 +1,33 @@
+package rogo.sketch.core.pipeline.graph.scheduler;
+
+import java.util.List;
+
+/**
+ * Timing of one async tail batch submitted by {@link TaskGraphScheduler}.
+ *
+ * @param passCount          ASYNC passes in the batch
+ * @param wallNanos          submit to last pass finished
+ * @param busyNanos          sum of all pass durations
+ * @param criticalPathNanos  summed duration of the longest dependency chain
+ * @param criticalPath       pass names along that chain, first to last
+ */
+public record AsyncBatchReport(
+        int passCount,
+        long wallNanos,
+        long busyNanos,
+        long criticalPathNanos,
+        List<String> criticalPath
+) {
+    public static final AsyncBatchReport EMPTY = new AsyncBatchReport(0, 0L, 0L, 0L, List.of());
+
+    public AsyncBatchReport {
+        criticalPath = criticalPath != null ? List.copyOf(criticalPath) : List.of();
+    }
+
+    /**
+     * Average number of passes running at once; 1.0 for a serial batch.
+     */
+    public double effectiveParallelism() {
+        return wallNanos > 0L ? (double) busyNanos / (double) wallNanos : 0.0;
+    }
+}
@@ -1,10 +1,16 @@
 package rogo.sketch.core.pipeline.graph.scheduler;
 
+import rogo.sketch.core.pipeline.module.metric.HistogramSnapshot;
+import rogo.sketch.core.pipeline.module.metric.MetricHistogram;
+import rogo.sketch.core.pipeline.module.metric.ModuleMetricRegistry;
+import rogo.sketch.core.util.KeyId;
+
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.*;
 import java.util.function.Consumer;
@@ -19,6 +25,8 @@ public class SimpleProfiler {
     private final Queue<TraceEvent> events = new ConcurrentLinkedQueue<>();
     private volatile boolean recording = false;
     private long startNanoTime;
+    // 导出时采样其直方图指标的注册表
+    private volatile ModuleMetricRegistry metricRegistry;
     
     // 用于自动停止的调度器
     private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
@@ -56,6 +64,14 @@ public class SimpleProfiler {
         return recording;
     }
 
+    /**
+     * 设置导出时采样的指标注册表，其直方图以计数器事件 (ph "C") 写入 trace，
+     * 取值单位与直方图一致（耗时为纳秒）。
+     */
+    public void setMetricRegistry(ModuleMetricRegistry registry) {
+        this.metricRegistry = registry;
+    }
+
     // 记录开始 (Begin)
     public void begin(String name, String threadName) {
         if (!recording) return;
@@ -70,9 +86,29 @@ public class SimpleProfiler {
         events.add(new TraceEvent(name, "E", ts, threadName));
     }
 
+    // 记录计数器 (Counter)，每个键一条数值曲线
+    public void counter(String name, Map<String, ? extends Number> values) {
+        if (!recording) return;
+        long ts = (System.nanoTime() - startNanoTime) / 1000;
+        StringBuilder args = new StringBuilder("{");
+        for (Map.Entry<String, ? extends Number> entry : values.entrySet()) {
+            if (args.length() > 1) args.append(',');
+            args.append('"').append(entry.getKey()).append("\":").append(entry.getValue());
+        }
+        events.add(new TraceEvent(name, "C", ts, null, args.append('}').toString()));
+    }
+
+    // 记录瞬时事件 (Instant)，线程范围
+    public void instant(String name, String threadName) {
+        if (!recording) return;
+        long ts = (System.nanoTime() - startNanoTime) / 1000;
+        events.add(new TraceEvent(name, "i", ts, threadName));
+    }
+
     private synchronized File stopAndDump() {
         if (!recording) return null;
         recording = false;
+        long durationNanos = System.nanoTime() - startNanoTime;
 
         // 保存到运行目录下的 profiling 文件夹
         File dumpDir = new File("profiling");
@@ -89,6 +125,17 @@ public class SimpleProfiler {
                 writer.write(event.toJson());
                 first = false;
             }
+            ModuleMetricRegistry registry = metricRegistry;
+            if (registry != null) {
+                // 直方图只覆盖录制时长内的窗口
+                for (Map.Entry<KeyId, MetricHistogram> entry : registry.histograms().entrySet()) {
+                    HistogramSnapshot snapshot = entry.getValue().snapshotCovering(durationNanos);
+                    if (snapshot.isEmpty()) continue;
+                    if (!first) writer.write(",\n");
+                    writer.write(histogramCounterJson(entry.getKey(), snapshot, durationNanos / 1000));
+                    first = false;
+                }
+            }
             writer.write("\n]");
             return file;
         } catch (IOException e) {
@@ -97,16 +144,35 @@ public class SimpleProfiler {
         }
     }
 
+    private static String histogramCounterJson(KeyId id, HistogramSnapshot snapshot, long ts) {
+        return String.format(
+                "{\"name\":\"%s\",\"cat\":\"METRIC\",\"ph\":\"C\",\"ts\":%d,\"pid\":1,"
+                        + "\"args\":{\"p50\":%d,\"p95\":%d,\"p99\":%d,\"max\":%d,\"count\":%d}}",
+                id, ts, snapshot.p50(), snapshot.p95(), snapshot.p99(), snapshot.max(), snapshot.count()
+        );
+    }
+
     // 内部数据结构
     private static class TraceEvent {
-        String name, ph, tid;
+        String name, ph, tid, args;
         long ts;
 
         public TraceEvent(String name, String ph, long ts, String tid) {
-            this.name = name; this.ph = ph; this.ts = ts; this.tid = tid;
+            this(name, ph, ts, tid, null);
+        }
+
+        public TraceEvent(String name, String ph, long ts, String tid, String args) {
+            this.name = name; this.ph = ph; this.ts = ts; this.tid = tid; this.args = args;
         }
 
         public String toJson() {
+            if (args != null) {
+                // 计数器事件不绑定线程
+                return String.format(
+                        "{\"name\":\"%s\",\"cat\":\"PERF\",\"ph\":\"%s\",\"ts\":%d,\"pid\":1,\"args\":%s}",
+                        name, ph, ts, args
+                );
+            }
             return String.format(
                     "{\"name\":\"%s\",\"cat\":\"PERF\",\"ph\":\"%s\",\"ts\":%d,\"pid\":1,\"tid\":\"%s\"}",
                     name, ph, ts, tid
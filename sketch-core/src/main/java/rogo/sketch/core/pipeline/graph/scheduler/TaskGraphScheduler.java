@@ -1,19 +1,26 @@
 package rogo.sketch.core.pipeline.graph.scheduler;
 
+import org.jetbrains.annotations.Nullable;
 import rogo.sketch.core.backend.BackendWorkerLane;
 import rogo.sketch.core.driver.GraphicsDriver;
 import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.graph.AsyncPassGraph;
 import rogo.sketch.core.pipeline.graph.CompiledRenderGraph;
 import rogo.sketch.core.pipeline.graph.PassNode;
+import rogo.sketch.core.pipeline.graph.PipelinePass;
 import rogo.sketch.core.pipeline.kernel.FrameContext;
 import rogo.sketch.core.pipeline.kernel.ThreadDomain;
 import rogo.sketch.core.pipeline.module.diagnostic.SketchDiagnostics;
 import rogo.sketch.core.util.TimerUtil;
 
-import java.util.ArrayDeque;
-import java.util.Queue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -21,14 +28,19 @@ import java.util.concurrent.atomic.AtomicBoolean;
 /**
  * Executes a compiled graph using a staged async-tail scheduler.
  * <p>
- * Async work is collected during graph iteration and submitted once at the tail.
- * The scheduler waits for the previous async batch at the beginning of the next execute.
+ * Async work is submitted once at the tail of graph iteration as a dependency
+ * driven task graph: each ASYNC pass starts as soon as the ASYNC passes it
+ * depends on have finished. The scheduler waits for the previous async batch
+ * at the beginning of the next execute.
  * Worker-thread GL context setup is instance-owned so different schedulers may target
  * different worker lanes such as the render worker or the dedicated tick GL worker.
  * </p>
  * <p>
  * SYNC passes run on the calling (main) thread.
- * ASYNC passes are collected during graph iteration and submitted once at the end.
+ * ASYNC passes run on the worker lane, one at a time and in graph order, as
+ * they always have. A pass that does not
+ * {@linkplain PipelinePass#requiresWorkerContext() require} the lane runs on
+ * the shared parallel pool instead, as soon as its predecessors finish.
  * ANY passes run on the current thread.
  * </p>
  */
@@ -40,14 +52,27 @@ public class TaskGraphScheduler {
     }
 
     private final ExecutorService workerPool;
+    @Nullable
+    private final Executor parallelPool;
     private final WorkerContextMode workerContextMode;
     private final boolean ownsWorkerPool;
     private final AtomicBoolean workerContextInitialized = new AtomicBoolean(false);
     private CompletableFuture<Void> pendingAsyncBatch = CompletableFuture.completedFuture(null);
     private volatile String pendingAsyncPassName = "none";
+    private volatile AsyncBatchReport latestAsyncReport = AsyncBatchReport.EMPTY;
 
     public TaskGraphScheduler(ExecutorService workerPool, WorkerContextMode workerContextMode, boolean ownsWorkerPool) {
+        this(workerPool, null, workerContextMode, ownsWorkerPool);
+    }
+
+    /**
+     * @param parallelPool shared pool for ASYNC passes that can run off the worker lane,
+     *                     or null to run every ASYNC pass on {@code workerPool}. Never owned.
+     */
+    public TaskGraphScheduler(ExecutorService workerPool, @Nullable Executor parallelPool,
+                              WorkerContextMode workerContextMode, boolean ownsWorkerPool) {
         this.workerPool = workerPool;
+        this.parallelPool = parallelPool;
         this.workerContextMode = workerContextMode;
         this.ownsWorkerPool = ownsWorkerPool;
     }
@@ -69,7 +94,6 @@ public class TaskGraphScheduler {
         SimpleProfiler.get().begin("ExecuteGraph", "MainThread");
 
         waitForPendingAsync();
-        Queue<Runnable> asyncTaskQueue = new ArrayDeque<>();
 
         for (PassNode<C> node : graph.sortedPasses()) {
             ThreadDomain domain = node.threadDomain();
@@ -87,18 +111,7 @@ public class TaskGraphScheduler {
                     }
                 }
                 case ASYNC -> {
-                    asyncTaskQueue.add(() -> {
-                        pendingAsyncPassName = node.name();
-                        String profileName = "AsyncPass:" + node.name();
-                        SimpleProfiler.get().begin(profileName, "WorkerThread");
-                        try {
-                            node.pass().execute(ctx);
-                        } catch (Exception e) {
-                            SketchDiagnostics.get().error("task-graph", "Error in ASYNC pass '" + node.name() + "'", e);
-                        } finally {
-                            SimpleProfiler.get().end(profileName, "WorkerThread");
-                        }
-                    });
+                    // Submitted below as part of the async task graph
                 }
                 case ANY -> {
                     String profileName = "AnyPass:" + node.name();
@@ -114,8 +127,9 @@ public class TaskGraphScheduler {
             }
         }
 
-        if (!asyncTaskQueue.isEmpty()) {
-            submitAsyncQueue(asyncTaskQueue);
+        AsyncPassGraph<C> asyncGraph = graph.asyncPassGraph();
+        if (!asyncGraph.isEmpty()) {
+            submitAsyncGraph(asyncGraph, ctx);
             if (waitForAsyncAtEnd) {
                 waitForPendingAsync();
             }
@@ -124,6 +138,13 @@ public class TaskGraphScheduler {
         SimpleProfiler.get().end("ExecuteGraph", "MainThread");
     }
 
+    /**
+     * Timing and critical path of the most recently completed async batch.
+     */
+    public AsyncBatchReport latestAsyncReport() {
+        return latestAsyncReport;
+    }
+
     /**
      * Wait for this scheduler's previously submitted async batch.
      */
@@ -152,21 +173,161 @@ public class TaskGraphScheduler {
         }
     }
 
-    private void submitAsyncQueue(Queue<Runnable> asyncTaskQueue) {
+    private <C extends RenderContext> void submitAsyncGraph(AsyncPassGraph<C> asyncGraph, FrameContext<C> ctx) {
         SimpleProfiler.get().begin("SubmitAsyncBatch", "MainThread");
 
-        pendingAsyncBatch = CompletableFuture.runAsync(() -> {
-            ensureWorkerReady();
+        int passCount = asyncGraph.size();
+        long submitNanos = System.nanoTime();
+        long[] startNanos = new long[passCount];
+        long[] endNanos = new long[passCount];
+        CompletableFuture<?>[] passFutures = new CompletableFuture<?>[passCount];
 
-            Runnable task;
-            while ((task = asyncTaskQueue.poll()) != null) {
-                task.run();
+        // Passes are in topological order, so every predecessor future already exists
+        int previousLanePass = -1;
+        for (int i = 0; i < passCount; i++) {
+            PassNode<C> node = asyncGraph.passes().get(i);
+            boolean onWorkerLane = runsOnWorkerLane(node);
+            Executor executor = onWorkerLane ? workerPool : parallelPool;
+            Runnable task = asyncPassTask(node, ctx, onWorkerLane, startNanos, endNanos, i);
+
+            int[] predecessors = asyncGraph.predecessors(i);
+            // Lane passes also wait for the previous lane pass, so the lane keeps running them in graph order
+            int lanePredecessor = onWorkerLane && !contains(predecessors, previousLanePass) ? previousLanePass : -1;
+            int dependencyCount = predecessors.length + (lanePredecessor >= 0 ? 1 : 0);
+            if (dependencyCount == 0) {
+                passFutures[i] = CompletableFuture.runAsync(task, executor);
+            } else if (dependencyCount == 1) {
+                int only = lanePredecessor >= 0 ? lanePredecessor : predecessors[0];
+                passFutures[i] = passFutures[only].thenRunAsync(task, executor);
+            } else {
+                CompletableFuture<?>[] dependencies = new CompletableFuture<?>[dependencyCount];
+                for (int d = 0; d < predecessors.length; d++) {
+                    dependencies[d] = passFutures[predecessors[d]];
+                }
+                if (lanePredecessor >= 0) {
+                    dependencies[predecessors.length] = passFutures[lanePredecessor];
+                }
+                passFutures[i] = CompletableFuture.allOf(dependencies).thenRunAsync(task, executor);
             }
-        }, workerPool);
+            if (onWorkerLane) {
+                previousLanePass = i;
+            }
+        }
+
+        pendingAsyncBatch = CompletableFuture.allOf(passFutures)
+                .thenRun(() -> publishReport(buildReport(asyncGraph, submitNanos, startNanos, endNanos)));
 
         SimpleProfiler.get().end("SubmitAsyncBatch", "MainThread");
     }
 
+    /**
+     * Keep the report for {@link #latestAsyncReport()} and, while a trace is
+     * recording, write it as counters next to the pass spans so batch
+     * parallelism and the critical path show up on the timeline.
+     */
+    private void publishReport(AsyncBatchReport report) {
+        latestAsyncReport = report;
+        SimpleProfiler profiler = SimpleProfiler.get();
+        if (!profiler.isRecording()) {
+            return;
+        }
+        Map<String, Number> values = new LinkedHashMap<>();
+        values.put("wallUs", report.wallNanos() / 1000L);
+        values.put("busyUs", report.busyNanos() / 1000L);
+        values.put("criticalPathUs", report.criticalPathNanos() / 1000L);
+        values.put("parallelism", Math.round(report.effectiveParallelism() * 100.0) / 100.0);
+        profiler.counter("AsyncBatch", values);
+        profiler.instant("AsyncCriticalPath:" + String.join(">", report.criticalPath()), "AsyncBatch");
+    }
+
+    private boolean runsOnWorkerLane(PassNode<?> node) {
+        return parallelPool == null || node.pass().requiresWorkerContext();
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <C extends RenderContext> Runnable asyncPassTask(
+            PassNode<C> node,
+            FrameContext<C> ctx,
+            boolean onWorkerLane,
+            long[] startNanos,
+            long[] endNanos,
+            int index) {
+        String profileName = "AsyncPass:" + node.name();
+        String threadName = onWorkerLane ? "WorkerThread" : "ParallelWorkerThread";
+        return () -> {
+            if (onWorkerLane) {
+                ensureWorkerReady();
+            }
+            pendingAsyncPassName = node.name();
+            startNanos[index] = System.nanoTime();
+            SimpleProfiler.get().begin(profileName, threadName);
+            try {
+                node.pass().execute(ctx);
+            } catch (Exception e) {
+                SketchDiagnostics.get().error("task-graph", "Error in ASYNC pass '" + node.name() + "'", e);
+            } finally {
+                SimpleProfiler.get().end(profileName, threadName);
+                endNanos[index] = System.nanoTime();
+            }
+        };
+    }
+
+    /**
+     * Longest chain by summed pass duration through the dependency edges.
+     * Runs after every pass future completed, so the timing arrays are visible.
+     */
+    private static AsyncBatchReport buildReport(
+            AsyncPassGraph<?> asyncGraph,
+            long submitNanos,
+            long[] startNanos,
+            long[] endNanos) {
+        int passCount = asyncGraph.size();
+        long[] pathNanos = new long[passCount];
+        int[] pathPrevious = new int[passCount];
+        long busyNanos = 0L;
+        long lastEndNanos = submitNanos;
+        int pathEnd = -1;
+        for (int i = 0; i < passCount; i++) {
+            long duration = Math.max(0L, endNanos[i] - startNanos[i]);
+            busyNanos += duration;
+            lastEndNanos = Math.max(lastEndNanos, endNanos[i]);
+
+            int previous = -1;
+            long longestPredecessor = 0L;
+            for (int predecessor : asyncGraph.predecessors(i)) {
+                if (pathNanos[predecessor] > longestPredecessor || previous < 0) {
+                    longestPredecessor = pathNanos[predecessor];
+                    previous = predecessor;
+                }
+            }
+            pathNanos[i] = longestPredecessor + duration;
+            pathPrevious[i] = previous;
+            if (pathEnd < 0 || pathNanos[i] > pathNanos[pathEnd]) {
+                pathEnd = i;
+            }
+        }
+
+        List<String> criticalPath = new ArrayList<>();
+        for (int i = pathEnd; i >= 0; i = pathPrevious[i]) {
+            criticalPath.add(asyncGraph.passes().get(i).name());
+        }
+        Collections.reverse(criticalPath);
+        return new AsyncBatchReport(
+                passCount,
+                lastEndNanos - submitNanos,
+                busyNanos,
+                pathEnd >= 0 ? pathNanos[pathEnd] : 0L,
+                criticalPath);
+    }
+
     private void ensureWorkerReady() {
         if (workerContextMode == WorkerContextMode.NONE) {
             return;
@@ -3,6 +3,7 @@ package rogo.sketch.core.pipeline.indirect;
 import org.lwjgl.system.MemoryUtil;
 import rogo.sketch.core.backend.BackendIndirectBuffer;
 import rogo.sketch.core.packet.DrawPlan;
+import rogo.sketch.core.packet.draw.PackedDrawCommands;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,6 +18,33 @@ public final class IndirectCommandBatch {
         this.commands = commands != null ? List.copyOf(commands) : List.of();
     }
 
+    public static IndirectCommandBatch from(PackedDrawCommands drawCommands) {
+        if (drawCommands == null || drawCommands.isEmpty()) {
+            return new IndirectCommandBatch(List.of());
+        }
+        List<Command> commands = new ArrayList<>(drawCommands.size());
+        for (int i = 0; i < drawCommands.size(); i++) {
+            if (drawCommands.indexed(i)) {
+                commands.add(new Command(
+                        true,
+                        drawCommands.elementCount(i),
+                        drawCommands.instanceCount(i),
+                        drawCommands.firstIndex(i),
+                        drawCommands.baseVertex(i),
+                        drawCommands.baseInstance(i)));
+            } else {
+                commands.add(new Command(
+                        false,
+                        drawCommands.elementCount(i),
+                        drawCommands.instanceCount(i),
+                        drawCommands.firstVertex(i),
+                        0,
+                        drawCommands.baseInstance(i)));
+            }
+        }
+        return new IndirectCommandBatch(commands);
+    }
+
     public static IndirectCommandBatch from(List<DrawPlan.DirectDrawItem> drawItems) {
         if (drawItems == null || drawItems.isEmpty()) {
             return new IndirectCommandBatch(List.of());
@@ -0,0 +1,62 @@
+package rogo.sketch.core.pipeline.kernel;
+
+import rogo.sketch.core.util.KeyId;
+
+import java.util.Map;
+
+/**
+ * Deferred {@link FrameCaptureSnapshot} for a frame plan.
+ * <p>
+ * Walking every packet to build capture lists is only worth it when a
+ * debugger or the dashboard looks at the frame, so the handle keeps a
+ * reference to the (immutable) stage plans and builds the snapshot on the
+ * first {@link #get()}. Frames nobody inspects allocate nothing beyond the
+ * handle itself.
+ * </p>
+ */
+public final class FrameCaptureHandle {
+    public static final FrameCaptureHandle EMPTY = of(FrameCaptureSnapshot.empty());
+
+    private final Map<KeyId, StageExecutionPlan> stagePlans;
+    private volatile FrameCaptureSnapshot snapshot;
+
+    private FrameCaptureHandle(Map<KeyId, StageExecutionPlan> stagePlans, FrameCaptureSnapshot snapshot) {
+        this.stagePlans = stagePlans;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Wrap an already built snapshot.
+     */
+    public static FrameCaptureHandle of(FrameCaptureSnapshot snapshot) {
+        return new FrameCaptureHandle(Map.of(), snapshot != null ? snapshot : FrameCaptureSnapshot.empty());
+    }
+
+    /**
+     * Build the snapshot from {@code stagePlans} on first access. The map must
+     * not change afterwards.
+     */
+    public static FrameCaptureHandle deferred(Map<KeyId, StageExecutionPlan> stagePlans) {
+        if (stagePlans == null || stagePlans.isEmpty()) {
+            return EMPTY;
+        }
+        return new FrameCaptureHandle(stagePlans, null);
+    }
+
+    /**
+     * The snapshot, built on first call. Concurrent first calls may each
+     * build one; all results are equivalent and one of them is kept.
+     */
+    public FrameCaptureSnapshot get() {
+        FrameCaptureSnapshot current = snapshot;
+        if (current == null) {
+            current = FrameCaptureSnapshot.fromStagePlans(stagePlans);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    public boolean isMaterialized() {
+        return snapshot != null;
+    }
+}
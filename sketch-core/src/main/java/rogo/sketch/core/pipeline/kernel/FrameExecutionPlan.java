@@ -34,7 +34,7 @@ public record FrameExecutionPlan(
         List<GeometryUploadPlan> geometryUploadPlans,
         List<ResourceUploadPlan> resourceUploadPlans,
         Map<GeometryHandleKey, Set<PipelineType>> geometryConsumers,
-        FrameCaptureSnapshot frameCaptureSnapshot
+        FrameCaptureHandle frameCapture
 ) {
     public FrameExecutionPlan {
         stagePlans = stagePlans != null ? normalizeStagePlans(stagePlans) : Map.of();
@@ -43,13 +43,20 @@ public record FrameExecutionPlan(
         geometryConsumers = geometryConsumers != null
                 ? normalizeGeometryConsumers(geometryConsumers)
                 : deriveGeometryConsumers(stagePlans);
-        frameCaptureSnapshot = frameCaptureSnapshot != null
-                ? frameCaptureSnapshot
-                : FrameCaptureSnapshot.fromStagePlans(stagePlans);
+        frameCapture = frameCapture != null
+                ? frameCapture
+                : FrameCaptureHandle.deferred(stagePlans);
     }
 
     public static FrameExecutionPlan empty() {
-        return new FrameExecutionPlan(Map.of(), List.of(), List.of(), Map.of(), FrameCaptureSnapshot.empty());
+        return new FrameExecutionPlan(Map.of(), List.of(), List.of(), Map.of(), FrameCaptureHandle.EMPTY);
+    }
+
+    /**
+     * Capture of this plan's stages and bindings, built on first request.
+     */
+    public FrameCaptureSnapshot frameCaptureSnapshot() {
+        return frameCapture.get();
     }
 
     public static FrameExecutionPlan fromPackets(Map<PipelineType, Map<ExecutionKey, List<RenderPacket>>> packets) {
@@ -102,7 +109,7 @@ public record FrameExecutionPlan(
                 List.of(),
                 List.of(),
                 null,
-                FrameCaptureSnapshot.fromStagePlans(stagePlans));
+                null);
     }
 
     public boolean isEmpty() {
@@ -131,6 +138,14 @@ public record FrameExecutionPlan(
         return stagePlans.get(stageId);
     }
 
+    /**
+     * Lifetimes and physical slot assignment of the transient render targets
+     * this frame renders into, derived from the stage footprints in plan order.
+     */
+    public TransientTargetAliasPlan transientTargetAliasing(GraphicsResourceManager resourceManager) {
+        return TransientTargetAliasPlan.plan(stagePlans, TransientTargetAliasPlan.resolverFor(resourceManager));
+    }
+
     private static Map<KeyId, StageExecutionPlan> normalizeStagePlans(Map<KeyId, StageExecutionPlan> stagePlans) {
         Map<KeyId, StageExecutionPlan> normalized = new LinkedHashMap<>();
         for (Map.Entry<KeyId, StageExecutionPlan> entry : stagePlans.entrySet()) {
@@ -1,6 +1,7 @@
 package rogo.sketch.core.pipeline.kernel;
 
 import rogo.sketch.core.driver.state.snapshot.SnapshotScope;
+import rogo.sketch.core.packet.ClearPacket;
 import rogo.sketch.core.packet.GeometryHandleKey;
 import rogo.sketch.core.packet.ExecutionKey;
 import rogo.sketch.core.packet.RenderPacket;
@@ -94,6 +95,9 @@ public record StageResourceFootprint(
                     }
                     packetCount++;
                     addIfPresent(resourceSetKeys, packet.resourceSetKey());
+                    if (packet instanceof ClearPacket clearPacket) {
+                        addIfPresent(renderTargetKeys, clearPacket.renderTargetId());
+                    }
                     if (packet.packetKind() == RenderPacketKind.DRAW && packet instanceof rogo.sketch.core.packet.DrawPacket drawPacket) {
                         drawPacketCount++;
                         addIfPresent(geometryHandles, drawPacket.geometryHandle());
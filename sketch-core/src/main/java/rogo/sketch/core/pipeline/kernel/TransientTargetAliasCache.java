@@ -0,0 +1,58 @@
+package rogo.sketch.core.pipeline.kernel;
+
+import rogo.sketch.core.resource.GraphicsResourceManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Last {@link TransientTargetAliasPlan} of a backend allocator. Retained
+ * frames hand back the same stage plan instances, so the plan is only
+ * rebuilt when a stage plan is replaced or the resource epoch moves, and
+ * allocators can compare the returned plan by identity to skip re-aliasing.
+ */
+public final class TransientTargetAliasCache {
+    private final List<StageExecutionPlan> stagePlans = new ArrayList<>();
+    private GraphicsResourceManager resourceManager;
+    private long resourceEpoch = Long.MIN_VALUE;
+    private TransientTargetAliasPlan aliasPlan = TransientTargetAliasPlan.empty();
+
+    public TransientTargetAliasPlan update(FrameExecutionPlan plan, GraphicsResourceManager resourceManager) {
+        if (plan == null || resourceManager == null) {
+            return reset();
+        }
+        long epoch = resourceManager.resourceEpoch();
+        if (resourceManager == this.resourceManager
+                && epoch == resourceEpoch
+                && sameStagePlans(plan)) {
+            return aliasPlan;
+        }
+        stagePlans.clear();
+        stagePlans.addAll(plan.stagePlans().values());
+        this.resourceManager = resourceManager;
+        resourceEpoch = epoch;
+        aliasPlan = plan.transientTargetAliasing(resourceManager);
+        return aliasPlan;
+    }
+
+    public TransientTargetAliasPlan reset() {
+        stagePlans.clear();
+        resourceManager = null;
+        resourceEpoch = Long.MIN_VALUE;
+        aliasPlan = TransientTargetAliasPlan.empty();
+        return aliasPlan;
+    }
+
+    private boolean sameStagePlans(FrameExecutionPlan plan) {
+        if (plan.stagePlans().size() != stagePlans.size()) {
+            return false;
+        }
+        int index = 0;
+        for (StageExecutionPlan stagePlan : plan.stagePlans().values()) {
+            if (stagePlan != stagePlans.get(index++)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,359 @@
+package rogo.sketch.core.pipeline.kernel;
+
+import rogo.sketch.core.api.ResourceObject;
+import rogo.sketch.core.packet.CopyTexturePacket;
+import rogo.sketch.core.packet.ExecutionKey;
+import rogo.sketch.core.packet.GenerateMipmapPacket;
+import rogo.sketch.core.packet.RenderPacket;
+import rogo.sketch.core.packet.ResourceBindingPlan;
+import rogo.sketch.core.resource.GraphicsResourceManager;
+import rogo.sketch.core.resource.ResourceTypes;
+import rogo.sketch.core.resource.descriptor.ImageFormat;
+import rogo.sketch.core.resource.descriptor.RenderTargetResolutionMode;
+import rogo.sketch.core.resource.descriptor.ResolvedRenderTargetSpec;
+import rogo.sketch.core.resource.vision.RenderTarget;
+import rogo.sketch.core.resource.vision.Texture;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Per-frame aliasing of transient render targets onto shared physical slots.
+ * <p>
+ * A target's lifetime is the inclusive range of stage indices, in plan order,
+ * that render into it or access one of its attachments. Render target writes
+ * come from the stage footprints; attachment reads are found by scanning the
+ * stage packets only while planning, so per-frame footprints stay small. Targets with the same
+ * {@link TargetLayout} whose lifetimes do not overlap are assigned the same
+ * slot, so a backend only needs one set of attachment images per slot.
+ * Targets whose attachments are read before the frame first renders into them,
+ * or that share attachments with another target, keep dedicated images.
+ */
+public record TransientTargetAliasPlan(
+        List<TargetLifetime> lifetimes,
+        List<PhysicalSlot> slots,
+        Set<KeyId> dedicatedTargets
+) {
+    private static final TransientTargetAliasPlan EMPTY = new TransientTargetAliasPlan(List.of(), List.of(), Set.of());
+
+    public TransientTargetAliasPlan {
+        lifetimes = lifetimes != null ? List.copyOf(lifetimes) : List.of();
+        slots = slots != null ? List.copyOf(slots) : List.of();
+        dedicatedTargets = dedicatedTargets != null ? Set.copyOf(dedicatedTargets) : Set.of();
+    }
+
+    public static TransientTargetAliasPlan empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Plan aliasing for the ordered stage plans of one frame. The resolver
+     * returns {@code null} for render targets that are not transient.
+     */
+    public static TransientTargetAliasPlan plan(
+            Map<KeyId, StageExecutionPlan> stagePlans,
+            Function<KeyId, TransientTarget> resolver) {
+        if (stagePlans == null || stagePlans.isEmpty() || resolver == null) {
+            return EMPTY;
+        }
+
+        List<StageExecutionPlan> orderedPlans = new ArrayList<>(stagePlans.values());
+        List<StageResourceFootprint> footprints = new ArrayList<>(orderedPlans.size());
+        for (StageExecutionPlan stagePlan : orderedPlans) {
+            footprints.add(stagePlan != null ? stagePlan.stageResourceFootprint() : StageResourceFootprint.empty());
+        }
+
+        Map<KeyId, TransientTarget> candidates = new LinkedHashMap<>();
+        Map<KeyId, int[]> writeRanges = new HashMap<>();
+        Set<KeyId> persistentTargets = new HashSet<>();
+        for (int stageIndex = 0; stageIndex < footprints.size(); stageIndex++) {
+            for (KeyId renderTargetKey : footprints.get(stageIndex).renderTargetKeys()) {
+                if (persistentTargets.contains(renderTargetKey)) {
+                    continue;
+                }
+                if (!candidates.containsKey(renderTargetKey)) {
+                    TransientTarget target = resolver.apply(renderTargetKey);
+                    if (target == null) {
+                        persistentTargets.add(renderTargetKey);
+                        continue;
+                    }
+                    candidates.put(renderTargetKey, target);
+                    writeRanges.put(renderTargetKey, new int[]{stageIndex, stageIndex});
+                } else {
+                    writeRanges.get(renderTargetKey)[1] = stageIndex;
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return EMPTY;
+        }
+
+        Set<KeyId> dedicated = new LinkedHashSet<>();
+        Map<KeyId, KeyId> attachmentOwners = new HashMap<>();
+        for (TransientTarget target : candidates.values()) {
+            for (KeyId attachmentId : target.attachmentIds()) {
+                KeyId previousOwner = attachmentOwners.putIfAbsent(attachmentId, target.targetId());
+                if (previousOwner != null) {
+                    dedicated.add(previousOwner);
+                    dedicated.add(target.targetId());
+                }
+            }
+        }
+
+        // Only attachments of aliasing candidates matter, so each stage's packets are
+        // scanned once, and only when at least one candidate exists
+        Set<KeyId> candidateAttachments = new HashSet<>();
+        for (TransientTarget target : candidates.values()) {
+            if (!dedicated.contains(target.targetId())) {
+                candidateAttachments.addAll(target.attachmentIds());
+            }
+        }
+        List<Set<KeyId>> stageAttachmentAccess = new ArrayList<>(orderedPlans.size());
+        for (StageExecutionPlan stagePlan : orderedPlans) {
+            stageAttachmentAccess.add(candidateAttachments.isEmpty()
+                    ? Set.of()
+                    : accessedAttachments(stagePlan, candidateAttachments));
+        }
+
+        List<TargetLifetime> unassigned = new ArrayList<>(candidates.size());
+        for (TransientTarget target : candidates.values()) {
+            if (dedicated.contains(target.targetId())) {
+                continue;
+            }
+            int[] range = writeRanges.get(target.targetId());
+            int firstStage = range[0];
+            int lastStage = range[1];
+            boolean readBeforeWrite = false;
+            Set<KeyId> attachments = new HashSet<>(target.attachmentIds());
+            for (int stageIndex = 0; stageIndex < stageAttachmentAccess.size(); stageIndex++) {
+                if (!intersects(stageAttachmentAccess.get(stageIndex), attachments)) {
+                    continue;
+                }
+                if (stageIndex < firstStage) {
+                    readBeforeWrite = true;
+                    break;
+                }
+                lastStage = Math.max(lastStage, stageIndex);
+            }
+            if (readBeforeWrite) {
+                dedicated.add(target.targetId());
+                continue;
+            }
+            unassigned.add(new TargetLifetime(target.targetId(), target.layout(), firstStage, lastStage, -1));
+        }
+
+        unassigned.sort(Comparator.comparingInt(TargetLifetime::firstStage).thenComparingInt(TargetLifetime::lastStage));
+        List<SlotBuilder> slotBuilders = new ArrayList<>();
+        List<TargetLifetime> lifetimes = new ArrayList<>(unassigned.size());
+        for (TargetLifetime lifetime : unassigned) {
+            SlotBuilder chosen = null;
+            for (SlotBuilder slot : slotBuilders) {
+                // Prefer the most recently released slot so earlier ones stay free for longer windows
+                if (slot.layout.equals(lifetime.layout())
+                        && slot.lastStage < lifetime.firstStage()
+                        && (chosen == null || slot.lastStage > chosen.lastStage)) {
+                    chosen = slot;
+                }
+            }
+            if (chosen == null) {
+                chosen = new SlotBuilder(slotBuilders.size(), lifetime.layout());
+                slotBuilders.add(chosen);
+            }
+            chosen.lastStage = lifetime.lastStage();
+            chosen.targets.add(lifetime.targetId());
+            lifetimes.add(new TargetLifetime(
+                    lifetime.targetId(),
+                    lifetime.layout(),
+                    lifetime.firstStage(),
+                    lifetime.lastStage(),
+                    chosen.index));
+        }
+
+        List<PhysicalSlot> slots = new ArrayList<>(slotBuilders.size());
+        for (SlotBuilder slot : slotBuilders) {
+            slots.add(new PhysicalSlot(slot.index, slot.layout, slot.targets));
+        }
+        return new TransientTargetAliasPlan(lifetimes, slots, dedicated);
+    }
+
+    /**
+     * Resolve transient targets and their attachment formats from the resource
+     * manager's installed render targets and textures.
+     */
+    public static Function<KeyId, TransientTarget> resolverFor(GraphicsResourceManager resourceManager) {
+        if (resourceManager == null) {
+            return ignored -> null;
+        }
+        return renderTargetId -> {
+            ResourceObject resource = resourceManager.getResource(ResourceTypes.RENDER_TARGET, renderTargetId);
+            if (!(resource instanceof RenderTarget renderTarget) || renderTarget.descriptor() == null) {
+                return null;
+            }
+            return TransientTarget.of(renderTarget.descriptor(), attachmentId ->
+                    resourceManager.getResource(ResourceTypes.TEXTURE, attachmentId) instanceof Texture texture
+                            && texture.descriptor() != null
+                            ? texture.descriptor().format()
+                            : null);
+        };
+    }
+
+    public boolean isEmpty() {
+        return lifetimes.isEmpty();
+    }
+
+    /**
+     * @return the physical slot assigned to {@code targetId}, or -1 when the target is not aliased
+     */
+    public int slotOf(KeyId targetId) {
+        for (TargetLifetime lifetime : lifetimes) {
+            if (lifetime.targetId().equals(targetId)) {
+                return lifetime.slot();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Number of attachment sets saved compared to allocating every aliased target separately.
+     */
+    public int savedTargetCount() {
+        return lifetimes.size() - slots.size();
+    }
+
+    /**
+     * Attachment ids from {@code attachments} that a stage's packets bind,
+     * copy or mipmap.
+     */
+    private static Set<KeyId> accessedAttachments(StageExecutionPlan stagePlan, Set<KeyId> attachments) {
+        if (stagePlan == null || stagePlan.packets() == null) {
+            return Set.of();
+        }
+        Set<KeyId> accessed = null;
+        for (Map<ExecutionKey, List<RenderPacket>> byState : stagePlan.packets().values()) {
+            for (List<RenderPacket> statePackets : byState.values()) {
+                for (RenderPacket packet : statePackets) {
+                    if (packet == null) {
+                        continue;
+                    }
+                    ResourceBindingPlan bindingPlan = packet.bindingPlan();
+                    if (bindingPlan != null) {
+                        for (ResourceBindingPlan.BindingEntry entry : bindingPlan.entries()) {
+                            if (entry != null) {
+                                accessed = addIfAttachment(accessed, attachments, entry.resourceId());
+                            }
+                        }
+                    }
+                    if (packet instanceof CopyTexturePacket copyPacket) {
+                        accessed = addIfAttachment(accessed, attachments, copyPacket.sourceTextureId());
+                        accessed = addIfAttachment(accessed, attachments, copyPacket.destinationTextureId());
+                    } else if (packet instanceof GenerateMipmapPacket mipmapPacket) {
+                        accessed = addIfAttachment(accessed, attachments, mipmapPacket.textureId());
+                    }
+                }
+            }
+        }
+        return accessed != null ? accessed : Set.of();
+    }
+
+    private static Set<KeyId> addIfAttachment(Set<KeyId> accessed, Set<KeyId> attachments, KeyId resourceId) {
+        if (resourceId == null || !attachments.contains(resourceId)) {
+            return accessed;
+        }
+        Set<KeyId> target = accessed != null ? accessed : new HashSet<>();
+        target.add(resourceId);
+        return target;
+    }
+
+    private static boolean intersects(Set<KeyId> accessed, Set<KeyId> attachments) {
+        if (accessed.isEmpty()) {
+            return false;
+        }
+        for (KeyId attachmentId : attachments) {
+            if (accessed.contains(attachmentId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Shape a physical slot must match exactly for a target to alias onto it.
+     * Formats are {@code null} when an attachment's texture is not installed.
+     */
+    public record TargetLayout(
+            RenderTargetResolutionMode resolutionMode,
+            int baseWidth,
+            int baseHeight,
+            float scaleX,
+            float scaleY,
+            List<ImageFormat> colorFormats,
+            ImageFormat depthFormat,
+            ImageFormat stencilFormat
+    ) {
+        public TargetLayout {
+            colorFormats = colorFormats != null
+                    ? Collections.unmodifiableList(new ArrayList<>(colorFormats))
+                    : List.of();
+        }
+    }
+
+    public record TransientTarget(KeyId targetId, TargetLayout layout, List<KeyId> attachmentIds) {
+        public TransientTarget {
+            attachmentIds = attachmentIds != null ? List.copyOf(attachmentIds) : List.of();
+        }
+
+        /**
+         * @return the transient view of {@code spec}, or {@code null} when the spec is not transient
+         */
+        public static TransientTarget of(ResolvedRenderTargetSpec spec, Function<KeyId, ImageFormat> attachmentFormats) {
+            if (spec == null || !spec.transientTarget()) {
+                return null;
+            }
+            List<ImageFormat> colorFormats = new ArrayList<>(spec.colorAttachments().size());
+            for (KeyId attachmentId : spec.colorAttachments()) {
+                colorFormats.add(attachmentFormats.apply(attachmentId));
+            }
+            TargetLayout layout = new TargetLayout(
+                    spec.resolutionMode(),
+                    spec.baseWidth(),
+                    spec.baseHeight(),
+                    spec.scaleX(),
+                    spec.scaleY(),
+                    colorFormats,
+                    spec.depthAttachment() != null ? attachmentFormats.apply(spec.depthAttachment()) : null,
+                    spec.stencilAttachment() != null ? attachmentFormats.apply(spec.stencilAttachment()) : null);
+            return new TransientTarget(spec.identifier(), layout, spec.attachmentIds());
+        }
+    }
+
+    public record TargetLifetime(KeyId targetId, TargetLayout layout, int firstStage, int lastStage, int slot) {
+    }
+
+    public record PhysicalSlot(int index, TargetLayout layout, List<KeyId> targets) {
+        public PhysicalSlot {
+            targets = targets != null ? List.copyOf(targets) : List.of();
+        }
+    }
+
+    private static final class SlotBuilder {
+        private final int index;
+        private final TargetLayout layout;
+        private final List<KeyId> targets = new ArrayList<>();
+        private int lastStage = -1;
+
+        private SlotBuilder(int index, TargetLayout layout) {
+            this.index = index;
+            this.layout = layout;
+        }
+    }
+}
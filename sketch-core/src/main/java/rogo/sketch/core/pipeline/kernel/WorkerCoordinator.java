@@ -8,6 +8,9 @@ import rogo.sketch.core.pipeline.graph.scheduler.TaskGraphScheduler.WorkerContex
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
 
 final class WorkerCoordinator {
     private final ExecutorService tickExecutor;
@@ -16,6 +19,7 @@ final class WorkerCoordinator {
     private final ExecutorService gpuComputeExecutor;
     private final ExecutorService gpuUploadExecutor;
     private final ExecutorService gpuGraphicsExecutor;
+    private final ForkJoinPool asyncPassPool;
     private final TaskGraphScheduler tickScheduler;
     private final TaskGraphScheduler tickGlScheduler;
     private final TaskGraphScheduler frameScheduler;
@@ -28,9 +32,10 @@ final class WorkerCoordinator {
         this.gpuComputeExecutor = newSingleThreadExecutor("Sketch-GpuCompute-Worker");
         this.gpuUploadExecutor = newSingleThreadExecutor("Sketch-GpuUpload-Worker");
         this.gpuGraphicsExecutor = newSingleThreadExecutor("Sketch-GpuGraphics-Worker");
-        this.tickScheduler = new TaskGraphScheduler(tickExecutor, WorkerContextMode.NONE, true);
-        this.tickGlScheduler = new TaskGraphScheduler(tickGlExecutor, WorkerContextMode.TICK_ASYNC, true);
-        this.frameScheduler = new TaskGraphScheduler(frameExecutor, WorkerContextMode.RENDER_ASYNC, true);
+        this.asyncPassPool = newWorkStealingPool("Sketch-AsyncPass-Worker-");
+        this.tickScheduler = new TaskGraphScheduler(tickExecutor, asyncPassPool, WorkerContextMode.NONE, true);
+        this.tickGlScheduler = new TaskGraphScheduler(tickGlExecutor, asyncPassPool, WorkerContextMode.TICK_ASYNC, true);
+        this.frameScheduler = new TaskGraphScheduler(frameExecutor, asyncPassPool, WorkerContextMode.RENDER_ASYNC, true);
         this.asyncGpuScheduler = new AsyncGpuScheduler(gpuComputeExecutor, gpuUploadExecutor, gpuGraphicsExecutor, true);
     }
 
@@ -56,6 +61,7 @@ final class WorkerCoordinator {
         tickGlScheduler.shutdown();
         frameScheduler.shutdown();
         asyncGpuScheduler.shutdown();
+        asyncPassPool.shutdown();
 
         if (!GraphicsDriver.capabilities().workerLanesSupported()) {
             return;
@@ -89,6 +95,21 @@ final class WorkerCoordinator {
         return asyncGpuScheduler;
     }
 
+    /**
+     * Work-stealing pool for CPU-only ASYNC passes, shared by all schedulers.
+     * Leaves one core for the main thread.
+     */
+    private static ForkJoinPool newWorkStealingPool(String threadNamePrefix) {
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger threadIds = new AtomicInteger();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(threadNamePrefix + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, true);
+    }
+
     private static ExecutorService newSingleThreadExecutor(String threadName) {
         return Executors.newSingleThreadExecutor(runnable -> {
             Thread thread = new Thread(runnable, threadName);
@@ -206,6 +206,7 @@ public final class FrameCommitPipeline<C extends RenderContext> {
             FrameExecutionPlan executionPlan = context.executionPlan();
             GraphicsDriver.submissionScheduler().installExecutionPlan(executionPlan);
             context.queue().installExecutionPlan(executionPlan);
+            context.pipeline().onExecutionPlanInstalled();
             return true;
         }
     }
@@ -40,6 +40,10 @@ public final class RenderTraceRecorder {
         return activeFrame;
     }
 
+    public boolean enabled() {
+        return config.enabled();
+    }
+
     public void recordPrepare(
             KeyId stageId,
             GraphicsUniformSubject subject,
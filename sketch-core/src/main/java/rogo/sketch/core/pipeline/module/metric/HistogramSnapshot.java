@@ -0,0 +1,23 @@
+package rogo.sketch.core.pipeline.module.metric;
+
+/**
+ * Readout of a {@link MetricHistogram} over {@code windowNanos}; values are in
+ * the unit of {@code valueKind}.
+ */
+public record HistogramSnapshot(
+        MetricKind valueKind,
+        long count,
+        long p50,
+        long p95,
+        long p99,
+        long max,
+        long windowNanos
+) {
+    public static HistogramSnapshot empty(MetricKind valueKind, long windowNanos) {
+        return new HistogramSnapshot(valueKind, 0L, 0L, 0L, 0L, 0L, windowNanos);
+    }
+
+    public boolean isEmpty() {
+        return count == 0L;
+    }
+}
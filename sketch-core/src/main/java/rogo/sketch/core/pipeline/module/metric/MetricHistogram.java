@@ -0,0 +1,220 @@
+package rogo.sketch.core.pipeline.module.metric;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Fixed-memory log-linear histogram of non-negative samples over a rolling
+ * time window, recordable from any thread without allocating.
+ * <p>
+ * Values below 64 get exact buckets; above that every power of two is split
+ * into {@value #SUB_BUCKETS} equal buckets, so a reported percentile is within
+ * 1/64 of a recorded value. Values of 2^36 and more share the last bucket,
+ * while the maximum is always tracked exactly.
+ * <p>
+ * The window is a ring of intervals keyed by clock epoch; the first sample of
+ * a new interval clears the slot it reuses. {@link MetricKind#DURATION}
+ * histograms record nanoseconds.
+ */
+public final class MetricHistogram {
+    public static final long DEFAULT_INTERVAL_NANOS = 1_000_000_000L;
+    public static final int DEFAULT_INTERVAL_COUNT = 10;
+
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int MAX_MAGNITUDE = 36;
+    static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS;
+
+    private final MetricKind valueKind;
+    private final long intervalNanos;
+    private final LongSupplier clock;
+    private final Interval[] intervals;
+
+    public MetricHistogram(MetricKind valueKind) {
+        this(valueKind, DEFAULT_INTERVAL_NANOS, DEFAULT_INTERVAL_COUNT, System::nanoTime);
+    }
+
+    public MetricHistogram(MetricKind valueKind, long intervalNanos, int intervalCount, LongSupplier clock) {
+        if (valueKind == null || valueKind == MetricKind.HISTOGRAM) {
+            throw new IllegalArgumentException("Histogram value kind must be a scalar metric kind: " + valueKind);
+        }
+        if (intervalNanos <= 0L || intervalCount <= 0) {
+            throw new IllegalArgumentException("Histogram window must have a positive interval and count");
+        }
+        this.valueKind = valueKind;
+        this.intervalNanos = intervalNanos;
+        this.clock = clock != null ? clock : System::nanoTime;
+        this.intervals = new Interval[intervalCount];
+        for (int i = 0; i < intervalCount; i++) {
+            intervals[i] = new Interval();
+        }
+    }
+
+    public MetricKind valueKind() {
+        return valueKind;
+    }
+
+    public long intervalNanos() {
+        return intervalNanos;
+    }
+
+    public int intervalCount() {
+        return intervals.length;
+    }
+
+    /**
+     * Record one sample; negative values count as zero.
+     */
+    public void record(long value) {
+        long sample = Math.max(value, 0L);
+        Interval interval = currentInterval(clock.getAsLong());
+        interval.counts.incrementAndGet(bucketIndex(sample));
+        long max = interval.max.get();
+        while (sample > max && !interval.max.compareAndSet(max, sample)) {
+            max = interval.max.get();
+        }
+    }
+
+    /**
+     * Record the nanoseconds elapsed since {@code startNanos}, read from the
+     * histogram clock.
+     */
+    public void recordSince(long startNanos) {
+        record(clock.getAsLong() - startNanos);
+    }
+
+    /**
+     * Percentiles over the whole window.
+     */
+    public HistogramSnapshot snapshot() {
+        return snapshot(intervals.length);
+    }
+
+    /**
+     * Percentiles over the newest intervals, at least the current one.
+     */
+    public HistogramSnapshot snapshotCovering(long windowNanos) {
+        long intervalsNeeded = Math.max(1L, (windowNanos + intervalNanos - 1L) / intervalNanos);
+        return snapshot((int) Math.min(intervalsNeeded, intervals.length));
+    }
+
+    /**
+     * Percentiles over the {@code intervalCount} newest intervals, the
+     * current partial one included.
+     */
+    public HistogramSnapshot snapshot(int intervalCount) {
+        int covered = Math.max(1, Math.min(intervalCount, intervals.length));
+        long newestEpoch = Math.floorDiv(clock.getAsLong(), intervalNanos);
+        long oldestEpoch = newestEpoch - covered + 1L;
+        long[] merged = new long[BUCKET_COUNT];
+        long max = 0L;
+        for (Interval interval : intervals) {
+            long epoch = interval.epoch;
+            if (epoch < oldestEpoch || epoch > newestEpoch) {
+                continue;
+            }
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                merged[bucket] += interval.counts.get(bucket);
+            }
+            max = Math.max(max, interval.max.get());
+        }
+
+        // Derive the count from the buckets so percentiles stay consistent with a concurrent clear
+        long count = 0L;
+        for (long bucketCount : merged) {
+            count += bucketCount;
+        }
+        long windowNanos = covered * intervalNanos;
+        if (count == 0L) {
+            return HistogramSnapshot.empty(valueKind, windowNanos);
+        }
+        return new HistogramSnapshot(
+                valueKind,
+                count,
+                valueAtPercentile(merged, count, max, 50.0),
+                valueAtPercentile(merged, count, max, 95.0),
+                valueAtPercentile(merged, count, max, 99.0),
+                max,
+                windowNanos);
+    }
+
+    /**
+     * Drop every recorded sample.
+     */
+    public void reset() {
+        for (Interval interval : intervals) {
+            synchronized (interval) {
+                interval.clear(Long.MIN_VALUE);
+            }
+        }
+    }
+
+    private Interval currentInterval(long now) {
+        long epoch = Math.floorDiv(now, intervalNanos);
+        Interval interval = intervals[(int) Math.floorMod(epoch, (long) intervals.length)];
+        if (interval.epoch != epoch) {
+            synchronized (interval) {
+                // A recorder holding a stale clock reading keeps the newer interval
+                if (interval.epoch < epoch) {
+                    interval.clear(epoch);
+                }
+            }
+        }
+        return interval;
+    }
+
+    private static long valueAtPercentile(long[] counts, long total, long max, double percentile) {
+        long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100.0));
+        long cumulative = 0L;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            cumulative += counts[bucket];
+            if (cumulative >= rank) {
+                return Math.min(bucketMidpoint(bucket), max);
+            }
+        }
+        return max;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        if (magnitude >= MAX_MAGNITUDE) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    static long bucketLowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        return (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+    }
+
+    static long bucketMidpoint(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        return bucketLowerBound(bucket) + ((1L << shift) >>> 1);
+    }
+
+    private static final class Interval {
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong max = new AtomicLong();
+        private volatile long epoch = Long.MIN_VALUE;
+
+        private void clear(long nextEpoch) {
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                counts.set(bucket, 0L);
+            }
+            max.set(0L);
+            epoch = nextEpoch;
+        }
+    }
+}
@@ -9,5 +9,6 @@ public enum MetricKind {
     COUNT,
     BYTES,
     BYTES_PER_SECOND,
-    PERCENT
+    PERCENT,
+    HISTOGRAM
 }
@@ -1,5 +1,6 @@
 package rogo.sketch.core.pipeline.module.metric;
 
+import org.jetbrains.annotations.Nullable;
 import rogo.sketch.core.pipeline.module.diagnostic.SketchDiagnostics;
 import rogo.sketch.core.util.KeyId;
 
@@ -15,13 +16,44 @@ public class ModuleMetricRegistry {
     private final Map<KeyId, MetricDescriptor> descriptors = new LinkedHashMap<>();
     private final Map<KeyId, Supplier<Object>> valueSuppliers = new ConcurrentHashMap<>();
     private final Map<String, Set<KeyId>> ownerMetrics = new ConcurrentHashMap<>();
+    private final Map<KeyId, MetricHistogram> histograms = new ConcurrentHashMap<>();
 
     public void registerMetric(String ownerId, MetricDescriptor descriptor, Supplier<Object> supplier) {
         descriptors.put(descriptor.id(), descriptor);
         valueSuppliers.put(descriptor.id(), supplier);
+        histograms.remove(descriptor.id());
         ownerMetrics.computeIfAbsent(ownerId, key -> ConcurrentHashMap.newKeySet()).add(descriptor.id());
     }
 
+    /**
+     * Register a {@link MetricKind#HISTOGRAM} metric backed by a new histogram
+     * with the default window and return it for recording.
+     */
+    public MetricHistogram registerHistogram(String ownerId, MetricDescriptor descriptor, MetricKind valueKind) {
+        return registerHistogram(ownerId, descriptor, new MetricHistogram(valueKind));
+    }
+
+    /**
+     * Register a {@link MetricKind#HISTOGRAM} metric; snapshots carry its
+     * {@link HistogramSnapshot} over the whole window.
+     */
+    public MetricHistogram registerHistogram(String ownerId, MetricDescriptor descriptor, MetricHistogram histogram) {
+        if (descriptor.kind() != MetricKind.HISTOGRAM) {
+            throw new IllegalArgumentException("Metric " + descriptor.id() + " is not a histogram metric");
+        }
+        registerMetric(ownerId, descriptor, histogram::snapshot);
+        histograms.put(descriptor.id(), histogram);
+        return histogram;
+    }
+
+    public @Nullable MetricHistogram histogram(KeyId id) {
+        return histograms.get(id);
+    }
+
+    public Map<KeyId, MetricHistogram> histograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
     public void unregisterOwner(String ownerId) {
         Set<KeyId> ids = ownerMetrics.remove(ownerId);
         if (ids == null) {
@@ -30,6 +62,7 @@ public class ModuleMetricRegistry {
         for (KeyId id : ids) {
             descriptors.remove(id);
             valueSuppliers.remove(id);
+            histograms.remove(id);
         }
     }
 
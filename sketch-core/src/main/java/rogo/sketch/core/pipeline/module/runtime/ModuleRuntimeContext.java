@@ -16,6 +16,8 @@ import rogo.sketch.core.pipeline.indirect.IndirectPlanRequest;
 import rogo.sketch.core.pipeline.module.diagnostic.SketchDiagnostics;
 import rogo.sketch.core.pipeline.module.macro.ModuleMacroRegistry;
 import rogo.sketch.core.pipeline.module.metric.MetricDescriptor;
+import rogo.sketch.core.pipeline.module.metric.MetricHistogram;
+import rogo.sketch.core.pipeline.module.metric.MetricKind;
 import rogo.sketch.core.pipeline.module.metric.ModuleMetricRegistry;
 import rogo.sketch.core.pipeline.module.setting.ModuleSettingRegistry;
 import rogo.sketch.core.pipeline.submit.StageSubmitNode;
@@ -67,6 +69,14 @@ public interface ModuleRuntimeContext {
 
     void registerMetric(MetricDescriptor descriptor, Supplier<Object> supplier);
 
+    /**
+     * Register a {@link MetricKind#HISTOGRAM} metric owned by this module and
+     * return the histogram to record {@code valueKind} samples into.
+     */
+    default MetricHistogram registerHistogram(MetricDescriptor descriptor, MetricKind valueKind) {
+        return metrics().registerHistogram(ownerId(), descriptor, valueKind);
+    }
+
     void registerBuiltInResource(KeyId type, KeyId name, Supplier<? extends ResourceObject> supplier);
 
     void unregisterOwnedResources();
@@ -11,6 +11,7 @@ import rogo.sketch.core.graphics.ecs.GraphicsWorld;
 import rogo.sketch.core.pipeline.GraphicsPipeline;
 import rogo.sketch.core.pipeline.PipelineType;
 import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.graph.scheduler.SimpleProfiler;
 import rogo.sketch.core.pipeline.kernel.PipelineKernel;
 import rogo.sketch.core.pipeline.module.descriptor.ModuleDescriptor;
 import rogo.sketch.core.pipeline.module.descriptor.ModuleDescriptorContext;
@@ -72,6 +73,7 @@ public class ModuleRuntimeHost {
     public ModuleRuntimeHost(GraphicsPipeline<?> pipeline) {
         this.pipeline = pipeline;
         UniformHookRegistry.getInstance().setRuntimeRegistry(uniformRegistry);
+        SimpleProfiler.get().setMetricRegistry(metricRegistry);
     }
 
     public void registerDescriptor(ModuleDescriptor descriptor) {
@@ -191,6 +193,7 @@ public class ModuleRuntimeHost {
             clearOwnedState(runtimeOwnerId(record.descriptor.id()));
         }
         UniformHookRegistry.getInstance().setRuntimeRegistry(null);
+        SimpleProfiler.get().setMetricRegistry(null);
         records.clear();
         descriptors.clear();
         moduleFrameHandles.clear();
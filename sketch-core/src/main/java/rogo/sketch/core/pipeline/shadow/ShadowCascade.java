@@ -0,0 +1,37 @@
+package rogo.sketch.core.pipeline.shadow;
+
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+/**
+ * Immutable fit of one shadow cascade: the camera depth slice it covers and
+ * the bounding sphere used to stabilize its light projection.
+ */
+public record ShadowCascade(
+        int index,
+        float splitNear,
+        float splitFar,
+        Vector3f center,
+        float radius,
+        Matrix4f lightViewMatrix,
+        Matrix4f lightProjectionMatrix,
+        Matrix4f lightViewProjectionMatrix,
+        int resolution
+) {
+    public ShadowCascade {
+        center = new Vector3f(center != null ? center : new Vector3f());
+        lightViewMatrix = new Matrix4f(lightViewMatrix != null ? lightViewMatrix : new Matrix4f());
+        lightProjectionMatrix = new Matrix4f(lightProjectionMatrix != null ? lightProjectionMatrix : new Matrix4f());
+        lightViewProjectionMatrix = new Matrix4f(lightViewProjectionMatrix != null ? lightViewProjectionMatrix : new Matrix4f());
+        radius = Math.max(0.0f, radius);
+        resolution = Math.max(0, resolution);
+    }
+
+    /**
+     * Whether a sphere (typically the bounding sphere of a newer camera slice)
+     * still lies entirely inside the region this cascade was rendered for.
+     */
+    public boolean covers(Vector3f sphereCenter, float sphereRadius) {
+        return sphereCenter != null && center.distance(sphereCenter) + sphereRadius <= radius;
+    }
+}
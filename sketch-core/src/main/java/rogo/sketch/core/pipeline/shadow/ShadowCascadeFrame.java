@@ -0,0 +1,51 @@
+package rogo.sketch.core.pipeline.shadow;
+
+import rogo.sketch.core.scene.SceneProxy;
+
+import java.util.List;
+
+/**
+ * One frame's cascade plan from {@link ShadowCascadePlanner}. The shadow
+ * module does not run the planner; a host that renders cascades drives it.
+ *
+ * @param cascades   projection each cascade samples from this frame (the last rendered fit when throttled)
+ * @param updateMask bit {@code i} set when cascade {@code i} must be re-rendered this frame
+ * @param casters    light-frustum culled caster proxies per cascade; empty for cascades not re-rendered
+ */
+public record ShadowCascadeFrame(
+        long frameIndex,
+        List<ShadowCascade> cascades,
+        int updateMask,
+        List<List<SceneProxy>> casters
+) {
+    public static final ShadowCascadeFrame EMPTY = new ShadowCascadeFrame(0L, List.of(), 0, List.of());
+
+    public ShadowCascadeFrame {
+        cascades = List.copyOf(cascades != null ? cascades : List.of());
+        casters = List.copyOf(casters != null ? casters : List.of());
+    }
+
+    public int cascadeCount() {
+        return cascades.size();
+    }
+
+    public boolean needsUpdate(int cascadeIndex) {
+        return cascadeIndex >= 0 && cascadeIndex < 32 && (updateMask & (1 << cascadeIndex)) != 0;
+    }
+
+    public int updatedCascadeCount() {
+        return Integer.bitCount(updateMask);
+    }
+
+    public List<SceneProxy> casters(int cascadeIndex) {
+        return cascadeIndex >= 0 && cascadeIndex < casters.size() ? casters.get(cascadeIndex) : List.of();
+    }
+
+    public int casterCount() {
+        int count = 0;
+        for (List<SceneProxy> cascadeCasters : casters) {
+            count += cascadeCasters.size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,186 @@
+package rogo.sketch.core.pipeline.shadow;
+
+import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+/**
+ * CPU-side cascade split and fit math. Everything here is pure so cascade
+ * layouts can be verified without a device.
+ */
+public final class ShadowCascadeMath {
+    public static final int MAX_CASCADES = 4;
+    public static final float DEFAULT_SPLIT_LAMBDA = 0.75f;
+
+    private static final int[] NEAR_CORNERS = {
+            Matrix4fc.CORNER_NXNYNZ,
+            Matrix4fc.CORNER_PXNYNZ,
+            Matrix4fc.CORNER_PXPYNZ,
+            Matrix4fc.CORNER_NXPYNZ
+    };
+    private static final int[] FAR_CORNERS = {
+            Matrix4fc.CORNER_NXNYPZ,
+            Matrix4fc.CORNER_PXNYPZ,
+            Matrix4fc.CORNER_PXPYPZ,
+            Matrix4fc.CORNER_NXPYPZ
+    };
+    private static final float RADIUS_QUANTUM = 16.0f;
+
+    private ShadowCascadeMath() {
+    }
+
+    public static int clampCascadeCount(int cascadeCount) {
+        return Math.max(1, Math.min(MAX_CASCADES, cascadeCount));
+    }
+
+    /**
+     * Practical split scheme: blends logarithmic and uniform partitions of
+     * {@code [near, far]}. {@code lambda = 1} is fully logarithmic.
+     *
+     * @return {@code cascadeCount + 1} ascending distances, first is {@code near}, last is {@code far}
+     */
+    public static float[] splitDistances(float near, float far, int cascadeCount, float lambda) {
+        int count = clampCascadeCount(cascadeCount);
+        float clampedNear = Math.max(1.0e-3f, near);
+        float clampedFar = Math.max(clampedNear + 1.0e-3f, far);
+        float clampedLambda = Math.max(0.0f, Math.min(1.0f, lambda));
+        float[] splits = new float[count + 1];
+        splits[0] = clampedNear;
+        for (int i = 1; i < count; ++i) {
+            float fraction = (float) i / count;
+            float logarithmic = clampedNear * (float) Math.pow(clampedFar / clampedNear, fraction);
+            float uniform = clampedNear + (clampedFar - clampedNear) * fraction;
+            splits[i] = clampedLambda * logarithmic + (1.0f - clampedLambda) * uniform;
+        }
+        splits[count] = clampedFar;
+        return splits;
+    }
+
+    /**
+     * Writes the eight world-space corners of a camera frustum. {@code out[i]}
+     * and {@code out[i + 4]} are the near/far ends of the same frustum edge.
+     */
+    public static void frustumCorners(Matrix4fc cameraViewProjection, Vector3f[] out) {
+        requireCorners(out);
+        for (int i = 0; i < 4; ++i) {
+            cameraViewProjection.frustumCorner(NEAR_CORNERS[i], out[i]);
+            cameraViewProjection.frustumCorner(FAR_CORNERS[i], out[i + 4]);
+        }
+    }
+
+    /**
+     * Interpolates the corners of the {@code [sliceNear, sliceFar]} depth slice
+     * along the edges of a frustum spanning {@code [frustumNear, frustumFar]}.
+     */
+    public static void sliceCorners(
+            Vector3f[] frustumCorners,
+            float frustumNear,
+            float frustumFar,
+            float sliceNear,
+            float sliceFar,
+            Vector3f[] out) {
+        requireCorners(frustumCorners);
+        requireCorners(out);
+        float depth = Math.max(1.0e-6f, frustumFar - frustumNear);
+        float nearT = clamp01((sliceNear - frustumNear) / depth);
+        float farT = clamp01((sliceFar - frustumNear) / depth);
+        for (int i = 0; i < 4; ++i) {
+            Vector3f near = frustumCorners[i];
+            Vector3f far = frustumCorners[i + 4];
+            near.lerp(far, nearT, out[i]);
+            near.lerp(far, farT, out[i + 4]);
+        }
+    }
+
+    /**
+     * Fits a stable orthographic light projection around a slice's bounding
+     * sphere. The radius is quantized and the projection is snapped to whole
+     * texels so a moving camera does not make static shadows shimmer.
+     *
+     * @param coverageMargin relative radius padding; lets throttled cascades stay valid while the camera drifts
+     * @param casterBackoff  extra distance toward the light so off-slice casters still land in the depth range
+     */
+    public static ShadowCascade fitCascade(
+            int index,
+            Vector3f[] sliceCorners,
+            float sliceNear,
+            float sliceFar,
+            Vector3f lightDirection,
+            int resolution,
+            float coverageMargin,
+            float casterBackoff) {
+        requireCorners(sliceCorners);
+        Vector3f center = new Vector3f();
+        for (Vector3f corner : sliceCorners) {
+            center.add(corner);
+        }
+        center.div(8.0f);
+        float radius = boundingRadius(center, sliceCorners) * (1.0f + Math.max(0.0f, coverageMargin));
+        radius = (float) Math.ceil(radius * RADIUS_QUANTUM) / RADIUS_QUANTUM;
+        float backoff = Math.max(0.0f, casterBackoff);
+
+        Vector3f direction = normalizedLightDirection(lightDirection);
+        Vector3f eye = new Vector3f(direction).mul(-(radius + backoff)).add(center);
+        Vector3f up = Math.abs(direction.y) > 0.99f ? new Vector3f(0.0f, 0.0f, 1.0f) : new Vector3f(0.0f, 1.0f, 0.0f);
+        Matrix4f lightView = new Matrix4f().lookAt(eye, center, up);
+        Matrix4f lightProjection = new Matrix4f().ortho(-radius, radius, -radius, radius, 0.0f, 2.0f * radius + backoff);
+
+        int size = Math.max(1, resolution);
+        Matrix4f lightViewProjection = new Matrix4f(lightProjection).mul(lightView);
+        Vector4f origin = lightViewProjection.transform(new Vector4f(0.0f, 0.0f, 0.0f, 1.0f));
+        float texelScale = size * 0.5f;
+        float offsetX = (Math.round(origin.x * texelScale) - origin.x * texelScale) / texelScale;
+        float offsetY = (Math.round(origin.y * texelScale) - origin.y * texelScale) / texelScale;
+        lightProjection.translateLocal(offsetX, offsetY, 0.0f);
+        lightViewProjection.set(lightProjection).mul(lightView);
+
+        return new ShadowCascade(
+                index,
+                sliceNear,
+                sliceFar,
+                center,
+                radius,
+                lightView,
+                lightProjection,
+                lightViewProjection,
+                size);
+    }
+
+    /**
+     * Bounding sphere radius of a slice without margin or quantization, used
+     * to check whether a previously rendered cascade still covers it.
+     */
+    public static float boundingRadius(Vector3f center, Vector3f[] corners) {
+        float radiusSquared = 0.0f;
+        for (Vector3f corner : corners) {
+            radiusSquared = Math.max(radiusSquared, center.distanceSquared(corner));
+        }
+        return (float) Math.sqrt(radiusSquared);
+    }
+
+    public static Vector3f[] newCornerArray() {
+        Vector3f[] corners = new Vector3f[8];
+        for (int i = 0; i < corners.length; ++i) {
+            corners[i] = new Vector3f();
+        }
+        return corners;
+    }
+
+    private static Vector3f normalizedLightDirection(Vector3f lightDirection) {
+        if (lightDirection == null || lightDirection.lengthSquared() < 1.0e-8f) {
+            return new Vector3f(0.0f, -1.0f, 0.0f);
+        }
+        return new Vector3f(lightDirection).normalize();
+    }
+
+    private static float clamp01(float value) {
+        return Math.max(0.0f, Math.min(1.0f, value));
+    }
+
+    private static void requireCorners(Vector3f[] corners) {
+        if (corners == null || corners.length < 8) {
+            throw new IllegalArgumentException("Expected 8 frustum corners");
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package rogo.sketch.core.pipeline.shadow;
+
+import org.joml.FrustumIntersection;
+import org.joml.Matrix4fc;
+import org.joml.Vector3f;
+import org.joml.primitives.AABBf;
+import rogo.sketch.core.scene.SceneProxy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Fits cascades for the current camera, culls scene proxies against each
+ * cascade's light frustum and applies {@link ShadowCascadeScheduler}
+ * throttling. Runs entirely on the CPU.
+ */
+public final class ShadowCascadePlanner {
+    private final ShadowCascadeScheduler scheduler = new ShadowCascadeScheduler();
+    private final Vector3f[] frustumCorners = ShadowCascadeMath.newCornerArray();
+    private final Vector3f[] sliceCorners = ShadowCascadeMath.newCornerArray();
+    private final FrustumIntersection lightFrustum = new FrustumIntersection();
+
+    public ShadowCascadeScheduler scheduler() {
+        return scheduler;
+    }
+
+    public void reset() {
+        scheduler.reset();
+    }
+
+    /**
+     * @param cameraViewProjection camera projection * view, spanning {@code [cameraNear, cameraFar]}
+     * @param casterProxies        candidate shadow casters, typically a {@code SceneDatabase} snapshot
+     */
+    public ShadowCascadeFrame plan(
+            long frameIndex,
+            ShadowCascadeSettings settings,
+            Matrix4fc cameraViewProjection,
+            float cameraNear,
+            float cameraFar,
+            Vector3f lightDirection,
+            List<SceneProxy> casterProxies) {
+        Objects.requireNonNull(settings, "settings");
+        Objects.requireNonNull(cameraViewProjection, "cameraViewProjection");
+        scheduler.configure(settings);
+        List<SceneProxy> proxies = casterProxies != null ? casterProxies : List.of();
+
+        float shadowFar = Math.min(cameraFar, settings.shadowDistance());
+        float[] splits = ShadowCascadeMath.splitDistances(cameraNear, shadowFar, settings.cascadeCount(), settings.splitLambda());
+        ShadowCascadeMath.frustumCorners(cameraViewProjection, frustumCorners);
+
+        List<ShadowCascade> cascades = new ArrayList<>(settings.cascadeCount());
+        List<List<SceneProxy>> casters = new ArrayList<>(settings.cascadeCount());
+        int updateMask = 0;
+        for (int i = 0; i < settings.cascadeCount(); ++i) {
+            ShadowCascadeMath.sliceCorners(frustumCorners, cameraNear, cameraFar, splits[i], splits[i + 1], sliceCorners);
+            Vector3f sliceCenter = new Vector3f();
+            for (Vector3f corner : sliceCorners) {
+                sliceCenter.add(corner);
+            }
+            sliceCenter.div(8.0f);
+            float sliceRadius = ShadowCascadeMath.boundingRadius(sliceCenter, sliceCorners);
+
+            ShadowCascade rendered = scheduler.rendered(i);
+            boolean update = scheduler.requiresUpdate(i, frameIndex, sliceCenter, sliceRadius);
+            if (!update && rendered != null) {
+                CasterSet previousCasters = cullCasters(rendered, proxies);
+                if (!scheduler.casterSetChanged(i, previousCasters.signature())) {
+                    cascades.add(rendered);
+                    casters.add(List.of());
+                    continue;
+                }
+            }
+
+            ShadowCascade candidate = ShadowCascadeMath.fitCascade(
+                    i,
+                    sliceCorners,
+                    splits[i],
+                    splits[i + 1],
+                    lightDirection,
+                    settings.resolution(),
+                    settings.coverageMarginFor(i),
+                    settings.casterBackoff());
+            CasterSet candidateCasters = cullCasters(candidate, proxies);
+            cascades.add(scheduler.commit(i, frameIndex, candidate, candidateCasters.signature()));
+            casters.add(candidateCasters.proxies());
+            updateMask |= 1 << i;
+        }
+        return new ShadowCascadeFrame(frameIndex, cascades, updateMask, casters);
+    }
+
+    private CasterSet cullCasters(ShadowCascade cascade, List<SceneProxy> proxies) {
+        lightFrustum.set(cascade.lightViewProjectionMatrix(), false);
+        List<SceneProxy> visible = new ArrayList<>();
+        long signature = 0L;
+        for (SceneProxy proxy : proxies) {
+            if (proxy == null || !proxy.hasFiniteBounds()) {
+                continue;
+            }
+            AABBf bounds = proxy.bounds();
+            if (!lightFrustum.testAab(bounds.minX, bounds.minY, bounds.minZ, bounds.maxX, bounds.maxY, bounds.maxZ)) {
+                continue;
+            }
+            visible.add(proxy);
+            // Order-independent so host iteration order does not look like a caster change.
+            signature += mix(casterHash(proxy));
+        }
+        return new CasterSet(List.copyOf(visible), signature ^ visible.size());
+    }
+
+    private static long casterHash(SceneProxy proxy) {
+        AABBf bounds = proxy.bounds();
+        long hash = proxy.hostKey().hashCode();
+        hash = hash * 31L + Float.floatToIntBits(bounds.minX);
+        hash = hash * 31L + Float.floatToIntBits(bounds.minY);
+        hash = hash * 31L + Float.floatToIntBits(bounds.minZ);
+        hash = hash * 31L + Float.floatToIntBits(bounds.maxX);
+        hash = hash * 31L + Float.floatToIntBits(bounds.maxY);
+        hash = hash * 31L + Float.floatToIntBits(bounds.maxZ);
+        return hash * 31L + proxy.flags();
+    }
+
+    private static long mix(long value) {
+        long mixed = value * 0x9E3779B97F4A7C15L;
+        mixed ^= mixed >>> 32;
+        mixed *= 0xBF58476D1CE4E5B9L;
+        return mixed ^ (mixed >>> 29);
+    }
+
+    private record CasterSet(List<SceneProxy> proxies, long signature) {
+    }
+}
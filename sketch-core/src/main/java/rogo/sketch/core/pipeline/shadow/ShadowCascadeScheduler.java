@@ -0,0 +1,77 @@
+package rogo.sketch.core.pipeline.shadow;
+
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+
+/**
+ * Remembers what each cascade was last rendered with and decides whether it
+ * must be re-rendered this frame. A cascade that is skipped keeps sampling
+ * its last rendered projection, so its depth map stays consistent.
+ */
+public final class ShadowCascadeScheduler {
+    private final ShadowCascade[] renderedCascades = new ShadowCascade[ShadowCascadeMath.MAX_CASCADES];
+    private final long[] renderedFrames = new long[ShadowCascadeMath.MAX_CASCADES];
+    private final long[] renderedCasterSignatures = new long[ShadowCascadeMath.MAX_CASCADES];
+    private @Nullable ShadowCascadeSettings settings;
+
+    /**
+     * Applies settings for the next frame; any change invalidates every
+     * cascade because resolution or split distances may have moved.
+     */
+    public void configure(ShadowCascadeSettings nextSettings) {
+        if (nextSettings == null || nextSettings.equals(settings)) {
+            return;
+        }
+        settings = nextSettings;
+        reset();
+    }
+
+    public void reset() {
+        Arrays.fill(renderedCascades, null);
+        Arrays.fill(renderedFrames, 0L);
+        Arrays.fill(renderedCasterSignatures, 0L);
+    }
+
+    /**
+     * Structural update check: first render, the nearest cascade, coverage
+     * loss, or an elapsed re-render interval.
+     *
+     * @param sliceCenter bounding sphere center of the cascade's current camera slice
+     * @param sliceRadius unpadded bounding sphere radius of that slice
+     */
+    public boolean requiresUpdate(int cascadeIndex, long frameIndex, Vector3f sliceCenter, float sliceRadius) {
+        ShadowCascade rendered = rendered(cascadeIndex);
+        if (rendered == null || cascadeIndex == 0 || settings == null) {
+            return true;
+        }
+        if (!rendered.covers(sliceCenter, sliceRadius)) {
+            return true;
+        }
+        int interval = settings.intervalFor(cascadeIndex);
+        return interval > 0 && frameIndex - renderedFrames[cascadeIndex] >= interval;
+    }
+
+    public boolean casterSetChanged(int cascadeIndex, long casterSignature) {
+        return rendered(cascadeIndex) == null || renderedCasterSignatures[cascadeIndex] != casterSignature;
+    }
+
+    public ShadowCascade commit(int cascadeIndex, long frameIndex, ShadowCascade cascade, long casterSignature) {
+        renderedCascades[cascadeIndex] = cascade;
+        renderedFrames[cascadeIndex] = frameIndex;
+        renderedCasterSignatures[cascadeIndex] = casterSignature;
+        return cascade;
+    }
+
+    public @Nullable ShadowCascade rendered(int cascadeIndex) {
+        if (cascadeIndex < 0 || cascadeIndex >= renderedCascades.length) {
+            return null;
+        }
+        return renderedCascades[cascadeIndex];
+    }
+
+    public long renderedFrame(int cascadeIndex) {
+        return cascadeIndex >= 0 && cascadeIndex < renderedFrames.length ? renderedFrames[cascadeIndex] : 0L;
+    }
+}
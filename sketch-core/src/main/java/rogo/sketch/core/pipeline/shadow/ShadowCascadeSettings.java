@@ -0,0 +1,65 @@
+package rogo.sketch.core.pipeline.shadow;
+
+/**
+ * Tunables for cascaded shadow planning.
+ *
+ * @param cascadeCount   number of cascades, clamped to {@code [1, MAX_CASCADES]}
+ * @param resolution     per-cascade depth map resolution in texels
+ * @param shadowDistance camera distance covered by the last cascade
+ * @param splitLambda    logarithmic/uniform split blend, see {@link ShadowCascadeMath#splitDistances}
+ * @param updateInterval base re-render interval in frames for cascades past the first; {@code 0} re-renders
+ *                       them only when their casters change or the camera leaves their coverage
+ * @param coverageMargin relative radius padding applied to throttled cascades
+ * @param casterBackoff  distance the light-space depth range is extended toward the light
+ */
+public record ShadowCascadeSettings(
+        int cascadeCount,
+        int resolution,
+        float shadowDistance,
+        float splitLambda,
+        int updateInterval,
+        float coverageMargin,
+        float casterBackoff
+) {
+    public static final float DEFAULT_COVERAGE_MARGIN = 0.15f;
+    public static final float DEFAULT_CASTER_BACKOFF = 64.0f;
+
+    public ShadowCascadeSettings {
+        cascadeCount = ShadowCascadeMath.clampCascadeCount(cascadeCount);
+        resolution = Math.max(1, resolution);
+        shadowDistance = Math.max(1.0f, shadowDistance);
+        splitLambda = Math.max(0.0f, Math.min(1.0f, splitLambda));
+        updateInterval = Math.max(0, updateInterval);
+        coverageMargin = Math.max(0.0f, coverageMargin);
+        casterBackoff = Math.max(0.0f, casterBackoff);
+    }
+
+    public static ShadowCascadeSettings of(int cascadeCount, int resolution, float shadowDistance, int updateInterval) {
+        return new ShadowCascadeSettings(
+                cascadeCount,
+                resolution,
+                shadowDistance,
+                ShadowCascadeMath.DEFAULT_SPLIT_LAMBDA,
+                updateInterval,
+                DEFAULT_COVERAGE_MARGIN,
+                DEFAULT_CASTER_BACKOFF);
+    }
+
+    /**
+     * Frames between forced re-renders of a cascade. The first cascade always
+     * renders every frame; further cascades scale linearly with distance.
+     */
+    public int intervalFor(int cascadeIndex) {
+        if (cascadeIndex <= 0) {
+            return 1;
+        }
+        return updateInterval * cascadeIndex;
+    }
+
+    /**
+     * The nearest cascade follows the camera every frame and needs no margin.
+     */
+    public float coverageMarginFor(int cascadeIndex) {
+        return cascadeIndex <= 0 ? 0.0f : coverageMargin;
+    }
+}
@@ -6,13 +6,22 @@ import rogo.sketch.core.api.ResourceObject;
 import rogo.sketch.core.pipeline.module.diagnostic.SketchDiagnostics;
 import rogo.sketch.core.resource.loader.*;
 import rogo.sketch.core.shader.config.MacroContext;
+import rogo.sketch.core.util.ContentHash;
 import rogo.sketch.core.util.KeyId;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -24,6 +33,7 @@ import java.util.function.Supplier;
  * - Built-in resources take priority over file-loaded resources
  * - Version-based cache invalidation for ResourceReferences
  * - Platform-independent core with ResourceScanProvider for platform-specific loading
+ * - Incremental reload driven by source fingerprints and recorded load dependencies
  */
 public class GraphicsResourceManager {
     // ===== Core Storage Layer =====
@@ -35,9 +45,29 @@ public class GraphicsResourceManager {
     // ===== Reference System =====
     private final ReferenceSystem references = new ReferenceSystem();
     
+    // ===== Reload Tracking =====
+    private final ReloadTracker reloadTracker = new ReloadTracker();
+    private Executor reloadExecutor = ForkJoinPool.commonPool();
+
     // ===== Resource Scan Provider =====
     private ResourceScanProvider scanProvider;
 
+    /**
+     * Types whose loaders are pure CPU work and may run on the reload executor
+     * during {@link #reloadIncremental()}. Textures and render targets install
+     * GPU objects on the calling thread; macro templates and render settings
+     * publish into shared macro state in scan order, so they stay serial.
+     * Serial types with a {@link PreparableResourceLoader} still prepare their
+     * batch in parallel. A full {@link #reload()} loads these types serially
+     * in scan order, since third-party loaders registered for them may rely on
+     * that.
+     */
+    private static final Set<KeyId> PARALLEL_LOAD_TYPES = Set.of(
+            ResourceTypes.SHADER_TEMPLATE,
+            ResourceTypes.MESH,
+            ResourceTypes.FUNCTION,
+            ResourceTypes.DRAW_CALL);
+
     public GraphicsResourceManager() {
         registerDefaultLoaders();
     }
@@ -51,11 +81,29 @@ public class GraphicsResourceManager {
         this.scanProvider = provider;
     }
 
+    /**
+     * Set the executor used to load independent resources during
+     * {@link #reloadIncremental()}. Defaults to the common fork-join pool.
+     */
+    public void setReloadExecutor(Executor executor) {
+        this.reloadExecutor = executor != null ? executor : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Monotonic counter bumped whenever any resource is registered, replaced
+     * or removed. Caches derived from resolved resources compare it to detect
+     * that something they may reference has changed.
+     */
+    public long resourceEpoch() {
+        return references.epoch();
+    }
+
     /**
      * Get a resource reference (dynamic wrapper with version-based caching).
      */
     @SuppressWarnings("unchecked")
     public <T extends ResourceObject> ResourceReference<T> getReference(KeyId type, KeyId name) {
+        reloadTracker.recordLookup(type, name);
         return references.getOrCreate(type, name, () -> storage.get(type, name));
     }
 
@@ -63,6 +111,7 @@ public class GraphicsResourceManager {
      * Get a resource directly (built-in priority, then file-loaded).
      */
     public <T extends ResourceObject> T getResource(KeyId type, KeyId name) {
+        reloadTracker.recordLookup(type, name);
         return storage.get(type, name);
     }
 
@@ -70,6 +119,7 @@ public class GraphicsResourceManager {
      * Get a resource directly without inheritance (exact type match only).
      */
     public <T extends ResourceObject> T getResourceExact(KeyId type, KeyId name) {
+        reloadTracker.recordLookup(type, name);
         return storage.getExact(type, name);
     }
 
@@ -194,7 +244,8 @@ public class GraphicsResourceManager {
         
         // 1. Clear file-loaded resources (keep built-in)
         storage.clearLoaded();
-        
+        reloadTracker.clear();
+
         // 2. Load resource pack features
         loadPackFeatures();
         
@@ -207,11 +258,94 @@ public class GraphicsResourceManager {
         MacroContext.getInstance().notifyReloadComplete();
     }
 
+    /**
+     * Reload only what changed since the previous load. Every scanned source
+     * and every sub-resource read while loading it is fingerprinted; a
+     * resource is reloaded when its own fingerprints change or when a
+     * resource it looked up or declared via {@link ResourceLoadContext#dependsOn}
+     * is reloaded or removed. Types still load in {@link #getLoadOrder()} order,
+     * and independent resources of CPU-only types load in parallel.
+     */
+    public ResourceReloadSummary reloadIncremental() {
+        if (scanProvider == null) {
+            SketchDiagnostics.get().warn("resource-manager", "No scan provider set, cannot reload resources");
+            return new ResourceReloadSummary(0, 0, 0, 0, 0L);
+        }
+        long startNanos = System.nanoTime();
+
+        // 1. Pack features are cheap and feed the macro system, always refresh them
+        loadPackFeatures();
+
+        // 2. Scan and fingerprint every source
+        Map<ResourceKey, byte[]> sources = new LinkedHashMap<>();
+        for (KeyId type : getLoadOrder()) {
+            if (!loaders.hasLoader(type)) {
+                continue;
+            }
+            for (Map.Entry<KeyId, InputStream> entry : scanProvider.scanResources(type).entrySet()) {
+                byte[] source = readSource(entry.getKey(), entry.getValue());
+                if (source != null) {
+                    sources.put(new ResourceKey(type, entry.getKey()), source);
+                }
+            }
+        }
+
+        // 3. Diff against the previous load
+        Map<KeyId, Long> subResourceFingerprints = new HashMap<>();
+        Set<ResourceKey> changed = new LinkedHashSet<>();
+        for (Map.Entry<ResourceKey, byte[]> entry : sources.entrySet()) {
+            LoadRecord record = reloadTracker.record(entry.getKey());
+            if (record == null
+                    || record.fingerprint() != fingerprint(entry.getValue())
+                    || subResourcesChanged(record, subResourceFingerprints)) {
+                changed.add(entry.getKey());
+            }
+        }
+        Set<ResourceKey> removed = new LinkedHashSet<>(reloadTracker.trackedKeys());
+        removed.removeAll(sources.keySet());
+        Set<ResourceKey> dirty = reloadTracker.expandDependents(changed, removed);
+        dirty.retainAll(sources.keySet());
+
+        // 4. Drop resources that disappeared
+        for (ResourceKey key : removed) {
+            storage.removeLoaded(key.type(), key.name());
+            reloadTracker.forget(key);
+            references.incrementVersion(key.type(), key.name());
+        }
+
+        // 5. Reload dirty resources type by type
+        int reloaded = 0;
+        for (KeyId type : getLoadOrder()) {
+            List<ResourceKey> batch = new ArrayList<>();
+            for (ResourceKey key : dirty) {
+                if (key.type().equals(type)) {
+                    batch.add(key);
+                }
+            }
+            for (LoadedSource loaded : loadBatch(type, batch, sources, true)) {
+                if (registerReloaded(loaded)) {
+                    reloaded++;
+                }
+            }
+        }
+
+        MacroContext.getInstance().notifyReloadComplete();
+        ResourceReloadSummary summary = new ResourceReloadSummary(
+                sources.size(), changed.size(), reloaded, removed.size(), System.nanoTime() - startNanos);
+        SketchDiagnostics.get().info("resource-manager", "Incremental reload: scanned=" + summary.scannedCount()
+                + ", changed=" + summary.changedCount()
+                + ", reloaded=" + summary.reloadedCount()
+                + ", removed=" + summary.removedCount()
+                + ", elapsedMs=" + summary.elapsedNanos() / 1_000_000L);
+        return summary;
+    }
+
     /**
      * Clear all resources.
      */
     public void clearAllResources() {
         storage.clearLoaded();
+        reloadTracker.clear();
         references.invalidateAll();
     }
 
@@ -220,6 +354,7 @@ public class GraphicsResourceManager {
      */
     public void dispose() {
         storage.dispose();
+        reloadTracker.clear();
         references.clear();
     }
 
@@ -303,14 +438,195 @@ public class GraphicsResourceManager {
         if (!loaders.hasLoader(type)) return;
         
         Map<KeyId, InputStream> resources = scanProvider.scanResources(type);
+        Map<ResourceKey, byte[]> sources = new LinkedHashMap<>();
         for (Map.Entry<KeyId, InputStream> entry : resources.entrySet()) {
-            loadAndRegister(type, entry.getKey(), entry.getValue(), scanProvider::getSubResource);
+            byte[] source = readSource(entry.getKey(), entry.getValue());
+            if (source != null) {
+                sources.put(new ResourceKey(type, entry.getKey()), source);
+            }
+        }
+        for (LoadedSource loaded : loadBatch(type, new ArrayList<>(sources.keySet()), sources, false)) {
+            registerReloaded(loaded);
+        }
+    }
+
+    /**
+     * Load a batch of one type. With {@code parallelLoads} set, types in
+     * {@link #PARALLEL_LOAD_TYPES} load on the reload executor; otherwise
+     * every load runs on the calling thread in batch order.
+     */
+    private List<LoadedSource> loadBatch(KeyId type, List<ResourceKey> batch, Map<ResourceKey, byte[]> sources, boolean parallelLoads) {
+        List<LoadedSource> results = new ArrayList<>(batch.size());
+        if (batch.size() <= 1 || !parallelLoads || !PARALLEL_LOAD_TYPES.contains(type)) {
+            if (batch.size() > 1 && loaders.hasPreparableLoader(type)) {
+                return prepareInParallelAndLoad(type, batch, sources);
+            }
+            for (ResourceKey key : batch) {
+                results.add(loadTracked(key, sources.get(key)));
+            }
+            return results;
+        }
+
+        List<CompletableFuture<LoadedSource>> futures = new ArrayList<>(batch.size());
+        for (ResourceKey key : batch) {
+            byte[] source = sources.get(key);
+            futures.add(CompletableFuture.supplyAsync(() -> loadTracked(key, source), reloadExecutor));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            ResourceKey key = batch.get(i);
+            try {
+                results.add(futures.get(i).join());
+            } catch (CompletionException e) {
+                SketchDiagnostics.get().error("resource-manager", "Failed to load resource " + key.name() + " of type " + key.type(), e.getCause());
+                results.add(new LoadedSource(key, null, null));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Run the device-independent prepare step of a serial type (e.g. image
+     * decoding) for the whole batch on the reload executor, then load each
+     * resource on the calling thread in scan order.
+     */
+    private List<LoadedSource> prepareInParallelAndLoad(KeyId type, List<ResourceKey> batch, Map<ResourceKey, byte[]> sources) {
+        List<LoadRecord> records = new ArrayList<>(batch.size());
+        List<ResourceLoadContext> contexts = new ArrayList<>(batch.size());
+        List<CompletableFuture<Void>> futures = new ArrayList<>(batch.size());
+        for (ResourceKey key : batch) {
+            byte[] source = sources.get(key);
+            LoadRecord record = new LoadRecord(fingerprint(source));
+            ResourceLoadContext context = loaders.newContext(
+                    key.name(),
+                    new ByteArrayInputStream(source),
+                    trackingSubResourceProvider(record),
+                    this,
+                    record::addDependency);
+            records.add(record);
+            contexts.add(context);
+            futures.add(CompletableFuture.runAsync(
+                    () -> reloadTracker.track(record, () -> {
+                        loaders.prepare(type, context);
+                        return null;
+                    }),
+                    reloadExecutor));
+        }
+
+        List<LoadedSource> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            ResourceKey key = batch.get(i);
+            LoadRecord record = records.get(i);
+            ResourceLoadContext context = contexts.get(i);
+            try {
+                futures.get(i).join();
+            } catch (CompletionException e) {
+                SketchDiagnostics.get().warn("resource-manager", "Failed to prepare resource " + key.name() + " of type " + type, e.getCause());
+                context.releasePreparedData();
+            }
+            try {
+                ResourceObject resource = reloadTracker.track(record, () -> loaders.load(type, context));
+                results.add(new LoadedSource(key, resource, record));
+            } finally {
+                context.releasePreparedData();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Load one scanned source while recording its fingerprints and dependencies.
+     */
+    private LoadedSource loadTracked(ResourceKey key, byte[] source) {
+        LoadRecord record = new LoadRecord(fingerprint(source));
+        ResourceObject resource = reloadTracker.track(record, () -> loaders.load(
+                key.type(),
+                key.name(),
+                new ByteArrayInputStream(source),
+                trackingSubResourceProvider(record),
+                this,
+                record::addDependency));
+        return new LoadedSource(key, resource, record);
+    }
+
+    /**
+     * Register a tracked load. A failed load keeps the previous resource but
+     * forgets its record, so the next incremental reload retries it.
+     */
+    private boolean registerReloaded(LoadedSource loaded) {
+        ResourceKey key = loaded.key();
+        if (loaded.resource() == null) {
+            reloadTracker.forget(key);
+            return false;
+        }
+        ResourceObject previous = storage.replaceLoaded(key.type(), key.name(), loaded.resource());
+        if (previous != null && previous != loaded.resource()) {
+            try {
+                previous.dispose();
+            } catch (Exception e) {
+                SketchDiagnostics.get().warn("resource-manager", "Error disposing replaced resource " + key.name(), e);
+            }
+        }
+        reloadTracker.put(key, loaded.record());
+        references.incrementVersion(key.type(), key.name());
+        references.notifyReload(key.type(), key.name(), loaded.resource());
+        return true;
+    }
+
+    /**
+     * Sub-resource provider that fingerprints every stream it hands out. The
+     * returned function may outlive the load (shader templates resolve imports
+     * lazily), and keeps recording into the same record.
+     */
+    private Function<KeyId, Optional<InputStream>> trackingSubResourceProvider(LoadRecord record) {
+        return id -> {
+            byte[] bytes = readSubResource(id);
+            record.recordSubResource(id, bytes != null ? fingerprint(bytes) : MISSING_FINGERPRINT);
+            return bytes != null ? Optional.of(new ByteArrayInputStream(bytes)) : Optional.empty();
+        };
+    }
+
+    private boolean subResourcesChanged(LoadRecord record, Map<KeyId, Long> currentFingerprints) {
+        for (Map.Entry<KeyId, Long> entry : record.subResources().entrySet()) {
+            long current = currentFingerprints.computeIfAbsent(entry.getKey(), id -> {
+                byte[] bytes = readSubResource(id);
+                return bytes != null ? fingerprint(bytes) : MISSING_FINGERPRINT;
+            });
+            if (current != entry.getValue()) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    private byte[] readSubResource(KeyId id) {
+        ResourceScanProvider provider = scanProvider;
+        if (provider == null) {
+            return null;
+        }
+        Optional<InputStream> stream = provider.getSubResource(id);
+        return stream.isPresent() ? readSource(id, stream.get()) : null;
+    }
+
+    private static byte[] readSource(KeyId name, InputStream stream) {
+        if (stream == null) {
+            return null;
+        }
+        try (InputStream input = stream) {
+            return input.readAllBytes();
+        } catch (IOException e) {
+            SketchDiagnostics.get().warn("resource-manager", "Failed to read resource source " + name, e);
+            return null;
+        }
+    }
+
+    private static long fingerprint(byte[] bytes) {
+        long hash = ContentHash.fnv1a64(bytes);
+        return hash == MISSING_FINGERPRINT ? 1L : hash;
     }
 
     private void loadAndRegister(KeyId type, KeyId name, InputStream stream,
                                  Function<KeyId, Optional<InputStream>> resourceProvider) {
-        ResourceObject resource = loaders.load(type, name, stream, resourceProvider, this);
+        ResourceObject resource = loaders.load(type, name, stream, resourceProvider, this, null);
         if (resource != null) {
             storage.registerLoaded(type, name, resource, ResourceScope.PERSISTENT, null, true);
             references.incrementVersion(type, name);
@@ -434,6 +750,30 @@ public class GraphicsResourceManager {
             trackOwned(type, name, ownerId);
         }
 
+        /**
+         * Register a reloadable file resource and return the one it replaced, if any.
+         */
+        ResourceObject replaceLoaded(KeyId type, KeyId name, ResourceObject resource) {
+            RegisteredResource previous = loadedResources.computeIfAbsent(type, k -> new ConcurrentHashMap<>())
+                    .put(name, new RegisteredResource(resource, ResourceScope.PERSISTENT, null, true));
+            return previous != null ? previous.resource() : null;
+        }
+
+        /**
+         * Remove and dispose a file-loaded resource, leaving built-ins untouched.
+         */
+        void removeLoaded(KeyId type, KeyId name) {
+            Map<KeyId, RegisteredResource> typeResources = loadedResources.get(type);
+            RegisteredResource removed = typeResources != null ? typeResources.remove(name) : null;
+            if (removed != null && removed.resource() != null) {
+                try {
+                    removed.resource().dispose();
+                } catch (Exception e) {
+                    SketchDiagnostics.get().warn("resource-manager", "Error disposing resource " + name, e);
+                }
+            }
+        }
+
         private void trackOwned(KeyId type, KeyId name, String ownerId) {
             if (ownerId == null || ownerId.isBlank()) {
                 return;
@@ -617,19 +957,58 @@ public class GraphicsResourceManager {
             return loaders != null && !loaders.isEmpty();
         }
 
+        boolean hasPreparableLoader(KeyId type) {
+            Set<ResourceLoader<?>> loaders = loaderMap.get(type);
+            if (loaders == null) {
+                return false;
+            }
+            for (ResourceLoader<?> loader : loaders) {
+                if (loader instanceof PreparableResourceLoader<?>) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        ResourceLoadContext newContext(
+                KeyId id,
+                InputStream stream,
+                Function<KeyId, Optional<InputStream>> subProvider,
+                GraphicsResourceManager resourceManager,
+                BiConsumer<KeyId, KeyId> dependencyRecorder) {
+            return new ResourceLoadContext(id, stream, gson, subProvider, resourceManager, dependencyRecorder);
+        }
+
+        void prepare(KeyId type, ResourceLoadContext context) {
+            Set<ResourceLoader<?>> loaders = loaderMap.get(type);
+            if (loaders == null) {
+                return;
+            }
+            for (ResourceLoader<?> loader : loaders) {
+                if (loader instanceof PreparableResourceLoader<?> preparable) {
+                    preparable.prepare(context);
+                    return;
+                }
+            }
+        }
+
         ResourceObject load(
                 KeyId type,
                 KeyId id,
                 InputStream stream,
                 Function<KeyId, Optional<InputStream>> subProvider,
-                GraphicsResourceManager resourceManager) {
+                GraphicsResourceManager resourceManager,
+                BiConsumer<KeyId, KeyId> dependencyRecorder) {
+            return load(type, newContext(id, stream, subProvider, resourceManager, dependencyRecorder));
+        }
+
+        ResourceObject load(KeyId type, ResourceLoadContext context) {
             Set<ResourceLoader<?>> loaders = loaderMap.get(type);
             if (loaders == null || loaders.isEmpty()) {
                 SketchDiagnostics.get().warn("resource-manager", "No loader found for resource type: " + type);
                 return null;
             }
-
-            ResourceLoadContext context = new ResourceLoadContext(id, stream, gson, subProvider, resourceManager);
+            KeyId id = context.getResourceId();
 
             for (ResourceLoader<?> loader : loaders) {
                 try {
@@ -657,6 +1036,11 @@ public class GraphicsResourceManager {
         private final Map<String, ResourceReference<?>> references = new ConcurrentHashMap<>();
         private final Map<String, Long> resourceVersions = new ConcurrentHashMap<>();
         private final Map<String, Set<ResourceReloadListener>> reloadListeners = new ConcurrentHashMap<>();
+        private final AtomicLong epoch = new AtomicLong();
+
+        long epoch() {
+            return epoch.get();
+        }
 
         long getVersion(KeyId type, KeyId name) {
             String key = type + ":" + name;
@@ -666,6 +1050,7 @@ public class GraphicsResourceManager {
         void incrementVersion(KeyId type, KeyId name) {
             String key = type + ":" + name;
             resourceVersions.compute(key, (k, v) -> (v == null) ? 1L : v + 1);
+            epoch.incrementAndGet();
         }
 
         @SuppressWarnings("unchecked")
@@ -705,6 +1090,150 @@ public class GraphicsResourceManager {
             references.clear();
             resourceVersions.clear();
             reloadListeners.clear();
+            epoch.incrementAndGet();
+        }
+    }
+
+    private static final long MISSING_FINGERPRINT = 0L;
+
+    private record ResourceKey(KeyId type, KeyId name) {
+        /**
+         * Whether a dependency recorded as this key resolves to {@code loaded},
+         * following the same type inheritance as lookups.
+         */
+        boolean resolvesTo(ResourceKey loaded) {
+            return name.equals(loaded.name())
+                    && (type.equals(loaded.type()) || ResourceTypes.getSearchOrder(type).contains(loaded.type()));
+        }
+    }
+
+    private record LoadedSource(ResourceKey key, ResourceObject resource, LoadRecord record) {
+    }
+
+    /**
+     * What one tracked load read: its source fingerprint, the sub-resources it
+     * opened and the resources it looked up or declared.
+     */
+    private static final class LoadRecord {
+        private final long fingerprint;
+        private final Map<KeyId, Long> subResources = new ConcurrentHashMap<>();
+        private final Set<ResourceKey> dependencies = ConcurrentHashMap.newKeySet();
+
+        LoadRecord(long fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        long fingerprint() {
+            return fingerprint;
+        }
+
+        Map<KeyId, Long> subResources() {
+            return subResources;
+        }
+
+        Set<ResourceKey> dependencies() {
+            return dependencies;
+        }
+
+        void recordSubResource(KeyId id, long subFingerprint) {
+            subResources.put(id, subFingerprint);
+        }
+
+        void addDependency(KeyId type, KeyId name) {
+            if (type != null && name != null) {
+                dependencies.add(new ResourceKey(type, name));
+            }
+        }
+    }
+
+    /**
+     * Reload tracking - load records of scanned resources and the dependency
+     * capture for loads in flight.
+     */
+    private static class ReloadTracker {
+        private final Map<ResourceKey, LoadRecord> records = new ConcurrentHashMap<>();
+        private final ThreadLocal<LoadRecord> activeLoad = new ThreadLocal<>();
+        // Loads in flight on any thread; lookups outside a load skip the ThreadLocal
+        private final AtomicInteger activeLoads = new AtomicInteger();
+
+        LoadRecord record(ResourceKey key) {
+            return records.get(key);
+        }
+
+        Set<ResourceKey> trackedKeys() {
+            return records.keySet();
+        }
+
+        void put(ResourceKey key, LoadRecord record) {
+            records.put(key, record);
+        }
+
+        void forget(ResourceKey key) {
+            records.remove(key);
+        }
+
+        void clear() {
+            records.clear();
+        }
+
+        /**
+         * Run a load with lookups on this thread attributed to {@code record}.
+         */
+        ResourceObject track(LoadRecord record, Supplier<ResourceObject> load) {
+            LoadRecord outer = activeLoad.get();
+            activeLoad.set(record);
+            activeLoads.incrementAndGet();
+            try {
+                return load.get();
+            } finally {
+                activeLoads.decrementAndGet();
+                if (outer != null) {
+                    activeLoad.set(outer);
+                } else {
+                    activeLoad.remove();
+                }
+            }
+        }
+
+        void recordLookup(KeyId type, KeyId name) {
+            if (activeLoads.get() == 0) {
+                return;
+            }
+            LoadRecord record = activeLoad.get();
+            if (record != null) {
+                record.addDependency(type, name);
+            }
+        }
+
+        /**
+         * Transitive closure of resources depending on {@code changed} or
+         * {@code removed}, including {@code changed} itself.
+         */
+        Set<ResourceKey> expandDependents(Set<ResourceKey> changed, Set<ResourceKey> removed) {
+            Map<KeyId, List<Map.Entry<ResourceKey, ResourceKey>>> dependentsByName = new HashMap<>();
+            for (Map.Entry<ResourceKey, LoadRecord> entry : records.entrySet()) {
+                for (ResourceKey dependency : entry.getValue().dependencies()) {
+                    dependentsByName.computeIfAbsent(dependency.name(), k -> new ArrayList<>())
+                            .add(Map.entry(dependency, entry.getKey()));
+                }
+            }
+
+            Set<ResourceKey> dirty = new LinkedHashSet<>(changed);
+            Deque<ResourceKey> pending = new ArrayDeque<>(changed);
+            pending.addAll(removed);
+            while (!pending.isEmpty()) {
+                ResourceKey key = pending.poll();
+                List<Map.Entry<ResourceKey, ResourceKey>> dependents = dependentsByName.get(key.name());
+                if (dependents == null) {
+                    continue;
+                }
+                for (Map.Entry<ResourceKey, ResourceKey> dependent : dependents) {
+                    if (dependent.getKey().resolvesTo(key) && dirty.add(dependent.getValue())) {
+                        pending.add(dependent.getValue());
+                    }
+                }
+            }
+            return dirty;
         }
     }
 
@@ -0,0 +1,22 @@
+package rogo.sketch.core.resource;
+
+/**
+ * Outcome of {@link GraphicsResourceManager#reloadIncremental()}.
+ *
+ * @param scannedCount  resources returned by the scan provider
+ * @param changedCount  resources whose own source or sub-resources changed
+ * @param reloadedCount resources actually reloaded, including dependents of changed ones
+ * @param removedCount  previously loaded resources that disappeared from the scan
+ * @param elapsedNanos  wall time spent in the reload
+ */
+public record ResourceReloadSummary(
+        int scannedCount,
+        int changedCount,
+        int reloadedCount,
+        int removedCount,
+        long elapsedNanos
+) {
+    public boolean unchanged() {
+        return reloadedCount == 0 && removedCount == 0;
+    }
+}
@@ -20,6 +20,7 @@ public final class ResolvedRenderTargetSpec {
     private final KeyId depthAttachment;
     @Nullable
     private final KeyId stencilAttachment;
+    private final boolean transientTarget;
 
     public ResolvedRenderTargetSpec(
             KeyId identifier,
@@ -31,6 +32,21 @@ public final class ResolvedRenderTargetSpec {
             List<KeyId> colorAttachments,
             @Nullable KeyId depthAttachment,
             @Nullable KeyId stencilAttachment) {
+        this(identifier, resolutionMode, baseWidth, baseHeight, scaleX, scaleY,
+                colorAttachments, depthAttachment, stencilAttachment, false);
+    }
+
+    public ResolvedRenderTargetSpec(
+            KeyId identifier,
+            RenderTargetResolutionMode resolutionMode,
+            int baseWidth,
+            int baseHeight,
+            float scaleX,
+            float scaleY,
+            List<KeyId> colorAttachments,
+            @Nullable KeyId depthAttachment,
+            @Nullable KeyId stencilAttachment,
+            boolean transientTarget) {
         this.identifier = Objects.requireNonNull(identifier, "identifier");
         this.resolutionMode = Objects.requireNonNull(resolutionMode, "resolutionMode");
         this.baseWidth = Math.max(1, baseWidth);
@@ -40,6 +56,7 @@ public final class ResolvedRenderTargetSpec {
         this.colorAttachments = List.copyOf(colorAttachments == null ? List.of() : colorAttachments);
         this.depthAttachment = depthAttachment;
         this.stencilAttachment = stencilAttachment;
+        this.transientTarget = transientTarget;
         if (this.colorAttachments.isEmpty() && this.depthAttachment == null && this.stencilAttachment == null) {
             throw new IllegalArgumentException("Render target must expose at least one attachment: " + identifier);
         }
@@ -83,6 +100,15 @@ public final class ResolvedRenderTargetSpec {
         return stencilAttachment;
     }
 
+    /**
+     * Transient targets only hold contents within a single frame, so their
+     * attachments may share physical images with other transient targets whose
+     * stage windows do not overlap.
+     */
+    public boolean transientTarget() {
+        return transientTarget;
+    }
+
     public List<KeyId> attachmentIds() {
         List<KeyId> attachments = new ArrayList<>(colorAttachments);
         if (depthAttachment != null) {
@@ -0,0 +1,103 @@
+package rogo.sketch.core.resource.loader;
+
+import rogo.sketch.core.model.MeshGroup;
+import rogo.sketch.core.pipeline.module.diagnostic.SketchDiagnostics;
+import rogo.sketch.core.util.ContentHash;
+import rogo.sketch.core.util.KeyId;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * On-disk cache of compiled meshes in {@link BakedMeshFormat}, keyed by a
+ * hash of the OBJ/JSON source, the resource id and the format and compiler
+ * versions. Entries are memory-mapped
+ * on load, so a warm reload skips text parsing and vertex re-encoding.
+ */
+public final class BakedMeshCache {
+    private static final String MODULE_ID = "baked-mesh-cache";
+
+    private final Path directory;
+
+    public BakedMeshCache(Path directory) {
+        this.directory = Objects.requireNonNull(directory, "directory");
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * Map and decode the cached entry for the given source, or return null on
+     * a miss or an unreadable entry.
+     */
+    public MeshGroup load(KeyId resourceId, byte[] source) {
+        Path file = entryPath(resourceId, source);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!BakedMeshFormat.isBaked(mapped)) {
+                return null;
+            }
+            return BakedMeshFormat.decode(resourceId, mapped);
+        } catch (IOException | RuntimeException e) {
+            SketchDiagnostics.get().warn(MODULE_ID, "Failed to map baked mesh " + file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Store a compiled mesh for the given source. Writes go to a temporary
+     * file first so concurrent readers never see a partial entry.
+     */
+    public void store(KeyId resourceId, byte[] source, MeshGroup meshGroup) {
+        if (meshGroup == null || meshGroup.getSubMeshes().isEmpty()) {
+            return;
+        }
+        Path file = entryPath(resourceId, source);
+        Path temp = null;
+        try {
+            ByteBuffer encoded = ByteBuffer.wrap(BakedMeshFormat.encode(meshGroup));
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (encoded.hasRemaining()) {
+                    channel.write(encoded);
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+        } catch (IOException | RuntimeException e) {
+            SketchDiagnostics.get().warn(MODULE_ID, "Failed to write baked mesh " + file, e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private Path entryPath(KeyId resourceId, byte[] source) {
+        // The resource id is part of the key because it seeds default names and the shared source ref;
+        // the format and compiler versions keep entries from an older build from being decoded
+        return directory.resolve(String.format("%016x_%x_%08x_v%d.%d%s",
+                ContentHash.fnv1a64(source), source.length, resourceId.hashCode(),
+                BakedMeshFormat.VERSION, CanonicalMeshCompiler.COMPILER_VERSION, BakedMeshFormat.FILE_EXTENSION));
+    }
+}
@@ -0,0 +1,389 @@
+package rogo.sketch.core.resource.loader;
+
+import org.joml.Matrix4f;
+import rogo.sketch.core.api.model.BakedTypeMesh;
+import rogo.sketch.core.api.model.PreparedMesh;
+import rogo.sketch.core.api.model.SharedGeometrySourceSnapshot;
+import rogo.sketch.core.data.PrimitiveType;
+import rogo.sketch.core.data.layout.FieldSpec;
+import rogo.sketch.core.data.layout.StructLayout;
+import rogo.sketch.core.data.type.ValueType;
+import rogo.sketch.core.model.BakedMesh;
+import rogo.sketch.core.model.MeshBone;
+import rogo.sketch.core.model.MeshGroup;
+import rogo.sketch.core.util.KeyId;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of a compiled {@link MeshGroup}.
+ * <p>
+ * Vertex bytes are stored already in the group's final {@link StructLayout},
+ * indices as little-endian u32, so loading is a header walk plus two bulk
+ * copies instead of a text parse and re-encode. Layout (little endian):
+ * <pre>
+ * magic "SKMB", version, header length
+ * header: name, topology, layout, counts, submeshes, bones, metadata
+ * payload (16-byte aligned): vertex bytes, index bytes
+ * </pre>
+ * Strings are u16 length-prefixed UTF-8.
+ */
+public final class BakedMeshFormat {
+    public static final String FILE_EXTENSION = ".skmb";
+    private static final int MAGIC = 0x424D4B53; // "SKMB"
+    static final int VERSION = 1;
+    private static final int PREAMBLE_BYTES = 12;
+    private static final int PAYLOAD_ALIGNMENT = 16;
+
+    private static final int FIELD_NORMALIZED = 1;
+    private static final int FIELD_SORT_KEY = 1 << 1;
+    private static final int FIELD_PADDING = 1 << 2;
+
+    private static final byte META_STRING = 0;
+    private static final byte META_INT = 1;
+    private static final byte META_LONG = 2;
+    private static final byte META_FLOAT = 3;
+    private static final byte META_DOUBLE = 4;
+    private static final byte META_BOOLEAN = 5;
+
+    private BakedMeshFormat() {
+    }
+
+    /**
+     * Whether the buffer starts with the baked mesh magic. Does not move the
+     * buffer position.
+     */
+    public static boolean isBaked(ByteBuffer data) {
+        return data != null
+                && data.remaining() >= PREAMBLE_BYTES
+                && data.duplicate().order(ByteOrder.LITTLE_ENDIAN).getInt() == MAGIC;
+    }
+
+    public static boolean isBaked(byte[] data) {
+        return data != null && isBaked(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Encode a mesh group produced by the canonical mesh compiler. Every
+     * submesh must be a {@link BakedMesh} sharing one geometry snapshot.
+     */
+    public static byte[] encode(MeshGroup meshGroup) {
+        SharedGeometrySourceSnapshot snapshot = sharedSnapshot(meshGroup);
+        HeaderWriter header = new HeaderWriter();
+
+        header.putString(meshGroup.getName());
+        header.putString(meshGroup.getPrimitiveType().name());
+
+        StructLayout format = meshGroup.getVertexFormat();
+        header.putString(format.getName());
+        header.putInt(format.getFieldCount());
+        for (FieldSpec field : format.getFields()) {
+            header.putString(field.getName());
+            header.putString(field.getValueType().name());
+            header.putInt(field.getSlot());
+            header.putByte((field.isNormalized() ? FIELD_NORMALIZED : 0)
+                    | (field.isSortKey() ? FIELD_SORT_KEY : 0)
+                    | (field.isPadding() ? FIELD_PADDING : 0));
+        }
+
+        header.putInt(snapshot.vertexCount());
+        header.putInt(snapshot.indexCount());
+        header.putInt(snapshot.vertexData().length);
+        header.putInt(snapshot.indexData().length);
+
+        List<PreparedMesh> subMeshes = meshGroup.getSubMeshes();
+        header.putInt(subMeshes.size());
+        for (PreparedMesh mesh : subMeshes) {
+            BakedMesh bakedMesh = (BakedMesh) mesh;
+            header.putString(bakedMesh.getKetId().toString());
+            header.putInt(bakedMesh.getVertexOffset());
+            header.putInt(bakedMesh.getIndexOffset());
+            header.putInt(bakedMesh.getVertexCount());
+            header.putInt(bakedMesh.getIndicesCount());
+        }
+
+        List<MeshBone> bones = new ArrayList<>(meshGroup.getBones());
+        bones.sort(Comparator.comparingInt(MeshBone::getId));
+        header.putInt(bones.size());
+        float[] matrix = new float[16];
+        for (MeshBone bone : bones) {
+            header.putString(bone.getName());
+            header.putInt(bone.getId());
+            header.putInt(bone.getParent() != null ? bone.getParent().getId() : -1);
+            header.putMatrix(bone.getLocalTransform(), matrix);
+            header.putMatrix(bone.getInverseBindPose(), matrix);
+        }
+        MeshBone rootBone = meshGroup.getRootBone();
+        header.putInt(rootBone != null ? rootBone.getId() : -1);
+
+        Map<String, Object> metadata = meshGroup.getMetadata();
+        header.putInt(metadata.size());
+        for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+            header.putString(entry.getKey());
+            header.putMetadataValue(entry.getValue());
+        }
+
+        byte[] headerBytes = header.toByteArray();
+        int payloadOffset = align(PREAMBLE_BYTES + headerBytes.length, PAYLOAD_ALIGNMENT);
+        ByteBuffer out = ByteBuffer.allocate(payloadOffset + snapshot.vertexData().length + snapshot.indexData().length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION).putInt(headerBytes.length).put(headerBytes);
+        out.position(payloadOffset);
+        out.put(snapshot.vertexData()).put(snapshot.indexData());
+        return out.array();
+    }
+
+    /**
+     * Decode a baked mesh. {@code data} may be a read-only mapped buffer; its
+     * position is not modified.
+     *
+     * @param resourceId Id the mesh is registered under, used for the shared source ref
+     */
+    public static MeshGroup decode(KeyId resourceId, ByteBuffer data) {
+        ByteBuffer in = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int base = in.position();
+        if (in.remaining() < PREAMBLE_BYTES || in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Mesh " + resourceId + " is not a baked mesh");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Mesh " + resourceId + " has unsupported baked version " + version);
+        }
+        int headerLength = in.getInt();
+
+        String name = getString(in);
+        PrimitiveType primitiveType = PrimitiveType.valueOf(getString(in));
+
+        StructLayout.Builder layoutBuilder = StructLayout.builder(getString(in));
+        int fieldCount = in.getInt();
+        for (int i = 0; i < fieldCount; i++) {
+            String fieldName = getString(in);
+            String valueTypeName = getString(in);
+            ValueType valueType = ValueType.getByName(valueTypeName);
+            if (valueType == null) {
+                throw new IllegalArgumentException("Mesh " + resourceId + " uses unknown value type " + valueTypeName);
+            }
+            int slot = in.getInt();
+            int flags = in.get();
+            layoutBuilder.add(slot, fieldName, valueType,
+                    (flags & FIELD_NORMALIZED) != 0,
+                    (flags & FIELD_SORT_KEY) != 0,
+                    (flags & FIELD_PADDING) != 0);
+        }
+        StructLayout format = layoutBuilder.build();
+
+        int vertexCount = in.getInt();
+        int indexCount = in.getInt();
+        int vertexByteLength = in.getInt();
+        int indexByteLength = in.getInt();
+
+        int subMeshCount = in.getInt();
+        List<SubMeshRange> subMeshes = new ArrayList<>(subMeshCount);
+        for (int i = 0; i < subMeshCount; i++) {
+            subMeshes.add(new SubMeshRange(getString(in), in.getInt(), in.getInt(), in.getInt(), in.getInt()));
+        }
+
+        MeshGroup meshGroup = new MeshGroup(name, primitiveType, format);
+        int boneCount = in.getInt();
+        int[] parentIds = new int[boneCount];
+        MeshBone[] bones = new MeshBone[boneCount];
+        float[] matrix = new float[16];
+        for (int i = 0; i < boneCount; i++) {
+            String boneName = getString(in);
+            int id = in.getInt();
+            parentIds[i] = in.getInt();
+            Matrix4f localTransform = getMatrix(in, matrix);
+            Matrix4f inverseBindPose = getMatrix(in, matrix);
+            bones[i] = new MeshBone(boneName, id, localTransform, inverseBindPose);
+            meshGroup.addBone(bones[i]);
+        }
+        for (int i = 0; i < boneCount; i++) {
+            MeshBone parent = parentIds[i] >= 0 ? meshGroup.getBone(parentIds[i]) : null;
+            if (parent != null) {
+                parent.addChild(bones[i]);
+            }
+        }
+        int rootBoneId = in.getInt();
+        if (rootBoneId >= 0 && meshGroup.getBone(rootBoneId) != null) {
+            meshGroup.setRootBone(meshGroup.getBone(rootBoneId));
+        }
+        if (boneCount > 0) {
+            meshGroup.bakeSkeleton();
+        }
+
+        int metadataCount = in.getInt();
+        for (int i = 0; i < metadataCount; i++) {
+            String key = getString(in);
+            meshGroup.setMetadata(key, getMetadataValue(in));
+        }
+
+        if (in.position() - base != PREAMBLE_BYTES + headerLength) {
+            throw new IllegalArgumentException("Mesh " + resourceId + " has a corrupt baked header");
+        }
+        int payloadOffset = base + align(PREAMBLE_BYTES + headerLength, PAYLOAD_ALIGNMENT);
+        if (vertexByteLength < 0
+                || indexByteLength != indexCount * Integer.BYTES
+                || payloadOffset + (long) vertexByteLength + indexByteLength > in.limit()) {
+            throw new IllegalArgumentException("Mesh " + resourceId + " has a truncated baked payload");
+        }
+        byte[] vertexBytes = new byte[vertexByteLength];
+        byte[] indexBytes = new byte[indexByteLength];
+        in.position(payloadOffset);
+        in.get(vertexBytes).get(indexBytes);
+
+        SharedGeometrySourceSnapshot snapshot = new SharedGeometrySourceSnapshot(
+                Integer.toUnsignedLong(resourceId.hashCode()),
+                BakedTypeMesh.BAKED_MESH,
+                format,
+                primitiveType,
+                vertexBytes,
+                vertexCount,
+                indexBytes,
+                indexCount);
+        for (SubMeshRange range : subMeshes) {
+            if (range.vertexOffset() + range.vertexCount() > vertexCount
+                    || range.indexOffset() + range.indexCount() > indexCount) {
+                throw new IllegalArgumentException("Mesh " + resourceId + " submesh " + range.name() + " is out of range");
+            }
+            KeyId subMeshId = KeyId.of(range.name());
+            meshGroup.addMesh(subMeshId, new BakedMesh(
+                    null,
+                    subMeshId,
+                    range.vertexOffset(),
+                    range.indexOffset(),
+                    range.vertexCount(),
+                    range.indexCount(),
+                    snapshot));
+        }
+        return meshGroup;
+    }
+
+    private static SharedGeometrySourceSnapshot sharedSnapshot(MeshGroup meshGroup) {
+        SharedGeometrySourceSnapshot shared = null;
+        for (PreparedMesh mesh : meshGroup.getSubMeshes()) {
+            if (!(mesh instanceof BakedMesh bakedMesh) || bakedMesh.sharedGeometrySourceSnapshot() == null) {
+                throw new IllegalArgumentException("Mesh " + meshGroup.getName() + " has submeshes without shared geometry");
+            }
+            if (shared == null) {
+                shared = bakedMesh.sharedGeometrySourceSnapshot();
+            } else if (shared != bakedMesh.sharedGeometrySourceSnapshot()) {
+                throw new IllegalArgumentException("Mesh " + meshGroup.getName() + " spans more than one geometry snapshot");
+            }
+        }
+        if (shared == null) {
+            throw new IllegalArgumentException("Mesh " + meshGroup.getName() + " has no submeshes");
+        }
+        return shared;
+    }
+
+    private static int align(int value, int alignment) {
+        return (value + alignment - 1) / alignment * alignment;
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = Short.toUnsignedInt(in.getShort());
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Matrix4f getMatrix(ByteBuffer in, float[] scratch) {
+        for (int i = 0; i < 16; i++) {
+            scratch[i] = in.getFloat();
+        }
+        return new Matrix4f().set(scratch);
+    }
+
+    private static Object getMetadataValue(ByteBuffer in) {
+        byte tag = in.get();
+        return switch (tag) {
+            case META_STRING -> getString(in);
+            case META_INT -> in.getInt();
+            case META_LONG -> in.getLong();
+            case META_FLOAT -> in.getFloat();
+            case META_DOUBLE -> in.getDouble();
+            case META_BOOLEAN -> in.get() != 0;
+            default -> throw new IllegalArgumentException("Unknown baked metadata tag " + tag);
+        };
+    }
+
+    private record SubMeshRange(String name, int vertexOffset, int indexOffset, int vertexCount, int indexCount) {
+    }
+
+    private static final class HeaderWriter {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        private final ByteBuffer scratch = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        void putByte(int value) {
+            out.write(value);
+        }
+
+        void putInt(int value) {
+            scratch.clear();
+            scratch.putInt(value);
+            out.write(scratch.array(), 0, Integer.BYTES);
+        }
+
+        void putLong(long value) {
+            scratch.clear();
+            scratch.putLong(value);
+            out.write(scratch.array(), 0, Long.BYTES);
+        }
+
+        void putFloat(float value) {
+            putInt(Float.floatToRawIntBits(value));
+        }
+
+        void putString(String value) {
+            byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) {
+                throw new IllegalArgumentException("String too long for baked mesh: " + bytes.length + " bytes");
+            }
+            scratch.clear();
+            scratch.putShort((short) bytes.length);
+            out.write(scratch.array(), 0, Short.BYTES);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        void putMatrix(Matrix4f matrix, float[] scratchMatrix) {
+            matrix.get(scratchMatrix);
+            for (float value : scratchMatrix) {
+                putFloat(value);
+            }
+        }
+
+        void putMetadataValue(Object value) {
+            if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                putByte(META_INT);
+                putInt(((Number) value).intValue());
+            } else if (value instanceof Long longValue) {
+                putByte(META_LONG);
+                putLong(longValue);
+            } else if (value instanceof Float floatValue) {
+                putByte(META_FLOAT);
+                putFloat(floatValue);
+            } else if (value instanceof Number number) {
+                // Gson's LazilyParsedNumber and other Number types widen to double
+                putByte(META_DOUBLE);
+                putLong(Double.doubleToRawLongBits(number.doubleValue()));
+            } else if (value instanceof Boolean booleanValue) {
+                putByte(META_BOOLEAN);
+                putByte(booleanValue ? 1 : 0);
+            } else {
+                putByte(META_STRING);
+                putString(String.valueOf(value));
+            }
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+}
@@ -18,11 +18,17 @@ import rogo.sketch.core.vertex.GeometryResourceCoordinator;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 final class CanonicalMeshCompiler {
+    /**
+     * Part of the {@link BakedMeshCache} key. Bump whenever the compiled
+     * output for an unchanged source changes (vertex encoding, triangulation,
+     * default layouts), so stale baked entries are no longer picked up.
+     */
+    static final int COMPILER_VERSION = 1;
+
     private CanonicalMeshCompiler() {
     }
 
@@ -33,37 +39,46 @@ final class CanonicalMeshCompiler {
 
         StructLayout groupFormat = meshGroup.getVertexFormat();
         PrimitiveType primitiveType = meshGroup.getPrimitiveType();
-        List<Float> allVertices = new ArrayList<>();
-        List<Integer> allIndices = new ArrayList<>();
+        int sourceFloatsPerVertex = sourceFloatsPerVertex(groupFormat);
         List<SubMeshEntry> entries = new ArrayList<>(subMeshes.size());
+        List<int[]> subMeshIndices = new ArrayList<>(subMeshes.size());
 
+        // First pass validates and sizes, second pass copies into flat arrays
         int currentVertexOffset = 0;
         int currentIndexOffset = 0;
         for (CanonicalSubMesh subMesh : subMeshes) {
-            List<Float> vertices = subMesh.vertices() != null ? subMesh.vertices() : List.of();
-            int sourceFloatsPerVertex = sourceFloatsPerVertex(groupFormat);
-            if (vertices.size() % sourceFloatsPerVertex != 0) {
+            float[] vertices = subMesh.vertices();
+            if (vertices.length % sourceFloatsPerVertex != 0) {
                 throw new IllegalArgumentException(
                         "SubMesh " + subMesh.name() + " vertex payload does not match vertex format stride");
             }
 
-            int subVertexCount = vertices.size() / sourceFloatsPerVertex;
-            List<Integer> indices = switch (indexMode) {
-                case NONE -> List.of();
+            int subVertexCount = vertices.length / sourceFloatsPerVertex;
+            int[] indices = switch (indexMode) {
+                case NONE -> new int[0];
                 case EXPLICIT_LOCAL -> validateExplicitLocalIndices(subMesh.name(), subMesh.indices(), subVertexCount);
                 case GENERATED -> generateIndices(subMesh.name(), primitiveType, subVertexCount, subMesh.indices());
             };
 
-            entries.add(new SubMeshEntry(subMesh, currentVertexOffset, currentIndexOffset, subVertexCount, indices.size()));
-            allVertices.addAll(vertices);
-            allIndices.addAll(indices);
+            entries.add(new SubMeshEntry(subMesh, currentVertexOffset, currentIndexOffset, subVertexCount, indices.length));
+            subMeshIndices.add(indices);
             currentVertexOffset += subVertexCount;
-            currentIndexOffset += indices.size();
+            currentIndexOffset += indices.length;
+        }
+
+        float[] allVertices = new float[currentVertexOffset * sourceFloatsPerVertex];
+        int[] allIndices = new int[currentIndexOffset];
+        for (int i = 0; i < entries.size(); i++) {
+            SubMeshEntry entry = entries.get(i);
+            float[] vertices = entry.subMesh().vertices();
+            int[] indices = subMeshIndices.get(i);
+            System.arraycopy(vertices, 0, allVertices, entry.vertexOffset() * sourceFloatsPerVertex, vertices.length);
+            System.arraycopy(indices, 0, allIndices, entry.indexOffset(), indices.length);
         }
 
         GeometryResourceCoordinator vrm = GeometryResourceCoordinator.globalInstance();
         VertexRecordWriter builder = vrm.createBuilder(groupFormat, primitiveType, false);
-        fillVertices(builder, toFloatArray(allVertices), groupFormat);
+        fillVertices(builder, allVertices, groupFormat);
         byte[] vertexBytes = copyBuilderBytes(builder);
         byte[] indexBytes = toIndexBytes(allIndices);
         long sharedSourceRef = Integer.toUnsignedLong(resourceId.hashCode());
@@ -104,27 +119,25 @@ final class CanonicalMeshCompiler {
         }
     }
 
-    private static List<Integer> validateExplicitLocalIndices(String subMeshName, List<Integer> rawIndices, int subVertexCount) {
-        if (rawIndices == null || rawIndices.isEmpty()) {
+    private static int[] validateExplicitLocalIndices(String subMeshName, int[] rawIndices, int subVertexCount) {
+        if (rawIndices.length == 0) {
             throw new IllegalArgumentException("SubMesh " + subMeshName + " requires explicit local indices");
         }
-        List<Integer> normalized = new ArrayList<>(rawIndices.size());
-        for (Integer rawIndex : rawIndices) {
-            if (rawIndex == null || rawIndex < 0 || rawIndex >= subVertexCount) {
+        for (int rawIndex : rawIndices) {
+            if (rawIndex < 0 || rawIndex >= subVertexCount) {
                 throw new IllegalArgumentException(
                         "SubMesh " + subMeshName + " contains out-of-range local index " + rawIndex);
             }
-            normalized.add(rawIndex);
         }
-        return Collections.unmodifiableList(normalized);
+        return rawIndices;
     }
 
-    private static List<Integer> generateIndices(
+    private static int[] generateIndices(
             String subMeshName,
             PrimitiveType primitiveType,
             int subVertexCount,
-            List<Integer> providedIndices) {
-        if (providedIndices != null && !providedIndices.isEmpty()) {
+            int[] providedIndices) {
+        if (providedIndices.length > 0) {
             throw new IllegalArgumentException(
                     "SubMesh " + subMeshName + " uses generated indices and must not declare explicit indices");
         }
@@ -132,12 +145,7 @@ final class CanonicalMeshCompiler {
             throw new IllegalArgumentException(
                     "Primitive topology " + primitiveType + " does not support generated indices");
         }
-        int[] generated = TopologyIndexGenerator.generateIndices(primitiveType, subVertexCount);
-        List<Integer> indices = new ArrayList<>(generated.length);
-        for (int index : generated) {
-            indices.add(index);
-        }
-        return Collections.unmodifiableList(indices);
+        return TopologyIndexGenerator.generateIndices(primitiveType, subVertexCount);
     }
 
     private static int sourceFloatsPerVertex(StructLayout format) {
@@ -148,14 +156,6 @@ final class CanonicalMeshCompiler {
         return sourceFloatsPerVertex;
     }
 
-    private static float[] toFloatArray(List<Float> values) {
-        float[] data = new float[values.size()];
-        for (int i = 0; i < values.size(); i++) {
-            data[i] = values.get(i);
-        }
-        return data;
-    }
-
     static void fillVertices(VertexRecordWriter filler, float[] data, StructLayout format) {
         int totalFloats = data.length;
         int sourceFloatsPerVertex = sourceFloatsPerVertex(format);
@@ -207,22 +207,24 @@ final class CanonicalMeshCompiler {
         return bytes;
     }
 
-    static byte[] toIndexBytes(List<Integer> indices) {
-        if (indices == null || indices.isEmpty()) {
+    static byte[] toIndexBytes(int[] indices) {
+        if (indices == null || indices.length == 0) {
             return new byte[0];
         }
-        ByteBuffer buffer = ByteBuffer.allocate(indices.size() * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
-        for (Integer index : indices) {
-            buffer.putInt(index != null ? index : 0);
-        }
+        ByteBuffer buffer = ByteBuffer.allocate(indices.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asIntBuffer().put(indices);
         return buffer.array();
     }
 
-    record CanonicalSubMesh(String name, List<Float> vertices, List<Integer> indices, Map<String, Object> metadata) {
+    /**
+     * Source submesh in flat primitive arrays. Arrays are owned by the record
+     * and not copied; producers hand over freshly built arrays.
+     */
+    record CanonicalSubMesh(String name, float[] vertices, int[] indices, Map<String, Object> metadata) {
         CanonicalSubMesh {
             name = name != null ? name : "main";
-            vertices = vertices != null ? List.copyOf(vertices) : List.of();
-            indices = indices != null ? List.copyOf(indices) : List.of();
+            vertices = vertices != null ? vertices : new float[0];
+            indices = indices != null ? indices : new int[0];
             metadata = metadata != null ? Map.copyOf(metadata) : Map.of();
         }
     }
@@ -13,6 +13,7 @@ import rogo.sketch.core.model.MeshGroup;
 import rogo.sketch.core.resource.ResourceTypes;
 import rogo.sketch.core.util.KeyId;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -25,10 +26,24 @@ import java.util.Map;
  * - JSON meshes must use {@code primitiveTopology} and {@code indexMode}
  * - OBJ meshes are parsed into the same canonical submesh form
  * - old global indices / recalculateIndices semantics are rejected
+ * - {@link BakedMeshFormat} files are decoded directly; with a
+ *   {@link BakedMeshCache} set, compiled OBJ/JSON meshes are cached in that form
  */
 public class MeshLoader implements ResourceLoader<MeshGroup> {
+    private static volatile BakedMeshCache bakedCache;
     private final ObjLoader objLoader = new ObjLoader();
 
+    /**
+     * Enable or disable the on-disk baked mesh cache. Disabled (null) by default.
+     */
+    public static void setBakedCache(BakedMeshCache cache) {
+        bakedCache = cache;
+    }
+
+    public static BakedMeshCache bakedCache() {
+        return bakedCache;
+    }
+
     @Override
     public KeyId getResourceType() {
         return ResourceTypes.MESH;
@@ -36,6 +51,30 @@ public class MeshLoader implements ResourceLoader<MeshGroup> {
 
     @Override
     public MeshGroup load(ResourceLoadContext context) {
+        byte[] bytes = context.getBytes();
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        KeyId keyId = context.getResourceId();
+        if (BakedMeshFormat.isBaked(bytes)) {
+            return BakedMeshFormat.decode(keyId, ByteBuffer.wrap(bytes));
+        }
+
+        BakedMeshCache cache = bakedCache;
+        if (cache != null) {
+            MeshGroup cached = cache.load(keyId, bytes);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        MeshGroup compiled = compileSource(context);
+        if (compiled != null && cache != null) {
+            cache.store(keyId, bytes, compiled);
+        }
+        return compiled;
+    }
+
+    private MeshGroup compileSource(ResourceLoadContext context) {
         String source = context.getString();
         if (source == null || source.isBlank()) {
             return null;
@@ -65,6 +104,7 @@ public class MeshLoader implements ResourceLoader<MeshGroup> {
 
         if (json.has("bones")) {
             loadBones(meshGroup, json.getAsJsonArray("bones"));
+            meshGroup.bakeSkeleton();
         }
 
         List<CanonicalMeshCompiler.CanonicalSubMesh> subMeshes = parseSubMeshes(
@@ -158,27 +198,28 @@ public class MeshLoader implements ResourceLoader<MeshGroup> {
                 }
             }
 
-            List<Float> vertices = new ArrayList<>();
             JsonArray verticesArray = subMeshObj.getAsJsonArray("vertices");
             if (verticesArray == null || verticesArray.isEmpty()) {
                 throw new IllegalArgumentException("SubMesh " + meshName + "#" + name + " has no vertices");
             }
-            for (JsonElement vertexElement : verticesArray) {
-                vertices.add(vertexElement.getAsFloat());
+            float[] vertices = new float[verticesArray.size()];
+            for (int i = 0; i < vertices.length; i++) {
+                vertices[i] = verticesArray.get(i).getAsFloat();
             }
-            if (vertices.size() % expectedFloatsPerVertex != 0) {
+            if (vertices.length % expectedFloatsPerVertex != 0) {
                 throw new IllegalArgumentException("SubMesh " + meshName + "#" + name + " vertex payload does not match format");
             }
 
-            List<Integer> indices = new ArrayList<>();
+            int[] indices = new int[0];
             if (subMeshObj.has("indices")) {
                 JsonArray indicesArray = subMeshObj.getAsJsonArray("indices");
-                for (JsonElement indexElement : indicesArray) {
-                    indices.add(indexElement.getAsInt());
+                indices = new int[indicesArray.size()];
+                for (int i = 0; i < indices.length; i++) {
+                    indices[i] = indicesArray.get(i).getAsInt();
                 }
             }
 
-            validateIndexPayload(meshName, name, primitiveType, indexMode, vertices.size() / expectedFloatsPerVertex, indices);
+            validateIndexPayload(meshName, name, primitiveType, indexMode, vertices.length / expectedFloatsPerVertex, indices);
 
             Map<String, Object> metadata = new LinkedHashMap<>();
             if (subMeshObj.has("material") && !subMeshObj.get("material").isJsonNull()) {
@@ -198,20 +239,20 @@ public class MeshLoader implements ResourceLoader<MeshGroup> {
             PrimitiveType primitiveType,
             MeshIndexMode indexMode,
             int vertexCount,
-            List<Integer> indices) {
+            int[] indices) {
         String fullName = meshName + "#" + subMeshName;
         switch (indexMode) {
             case NONE -> {
-                if (indices != null && !indices.isEmpty()) {
+                if (indices.length > 0) {
                     throw new IllegalArgumentException("SubMesh " + fullName + " declares indices but indexMode is none");
                 }
             }
             case EXPLICIT_LOCAL -> {
-                if (indices == null || indices.isEmpty()) {
+                if (indices.length == 0) {
                     throw new IllegalArgumentException("SubMesh " + fullName + " requires explicit local indices");
                 }
-                for (Integer index : indices) {
-                    if (index == null || index < 0 || index >= vertexCount) {
+                for (int index : indices) {
+                    if (index < 0 || index >= vertexCount) {
                         throw new IllegalArgumentException("SubMesh " + fullName + " contains out-of-range local index " + index);
                     }
                 }
@@ -221,7 +262,7 @@ public class MeshLoader implements ResourceLoader<MeshGroup> {
                     throw new IllegalArgumentException(
                             "SubMesh " + fullName + " uses generated indices but topology " + primitiveType + " is not supported");
                 }
-                if (indices != null && !indices.isEmpty()) {
+                if (indices.length > 0) {
                     throw new IllegalArgumentException("SubMesh " + fullName + " must not declare indices when indexMode is generated");
                 }
             }
@@ -1,5 +1,8 @@
 package rogo.sketch.core.resource.loader;
 
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import rogo.sketch.core.data.MeshIndexMode;
 import rogo.sketch.core.data.PrimitiveType;
 import rogo.sketch.core.model.MeshGroup;
@@ -60,83 +63,155 @@ public class ObjLoader implements ResourceLoader<MeshGroup> {
     }
 
     private void parseLine(ObjParseState state, String rawLine) throws IOException {
-        String line = stripComment(rawLine).trim();
-        if (line.isEmpty()) {
+        LineCursor cursor = state.cursor().reset(rawLine);
+        if (!cursor.nextToken()) {
             return;
         }
 
-        String[] tokens = line.split("\\s+");
-        if (tokens.length == 0) {
-            return;
-        }
+        if (cursor.tokenEquals("v")) {
+            state.addPosition(cursor.nextFloat(), cursor.nextFloat(), cursor.nextFloat());
+        } else if (cursor.tokenEquals("vt")) {
+            state.addTexCoord(cursor.nextFloat(), cursor.nextFloat());
+        } else if (cursor.tokenEquals("vn")) {
+            state.addNormal(cursor.nextFloat(), cursor.nextFloat(), cursor.nextFloat());
+        } else if (cursor.tokenEquals("f")) {
+            parseFace(state, cursor);
+        } else if (cursor.tokenEquals("o")) {
+            state.setObjectName(cursor.joinRemaining());
+        } else if (cursor.tokenEquals("g")) {
+            state.setGroupName(cursor.joinRemaining());
+        } else if (cursor.tokenEquals("usemtl")) {
+            state.setMaterialName(cursor.joinRemaining());
+        }
+        // Ignore unsupported directives for now. OBJ support is intentionally scoped.
+    }
 
-        switch (tokens[0]) {
-            case "v" -> state.addPosition(parseFloat(tokens, 1), parseFloat(tokens, 2), parseFloat(tokens, 3));
-            case "vt" -> state.addTexCoord(parseFloat(tokens, 1), parseFloat(tokens, 2));
-            case "vn" -> state.addNormal(parseFloat(tokens, 1), parseFloat(tokens, 2), parseFloat(tokens, 3));
-            case "o" -> state.setObjectName(joinTokens(tokens, 1));
-            case "g" -> state.setGroupName(joinTokens(tokens, 1));
-            case "usemtl" -> state.setMaterialName(joinTokens(tokens, 1));
-            case "f" -> parseFace(state, tokens);
-            default -> {
-                // Ignore unsupported directives for now. OBJ support is intentionally scoped.
+    private void parseFace(ObjParseState state, LineCursor cursor) throws IOException {
+        ObjSubMesh subMesh = state.currentSubMesh();
+        int first = -1;
+        int previous = -1;
+        int count = 0;
+        // Fan-triangulate while reading so no per-face vertex array is needed
+        while (cursor.nextToken()) {
+            int vertex = subMesh.resolveVertex(
+                    cursor.faceIndex(0, state.positionCount(), "position"),
+                    cursor.faceIndex(1, state.texCoordCount(), "texCoord"),
+                    cursor.faceIndex(2, state.normalCount(), "normal"),
+                    state);
+            if (count == 0) {
+                first = vertex;
+            } else if (count >= 2) {
+                subMesh.addTriangle(first, previous, vertex);
             }
+            previous = vertex;
+            count++;
         }
-    }
-
-    private void parseFace(ObjParseState state, String[] tokens) throws IOException {
-        if (tokens.length < 4) {
+        if (count < 3) {
             throw new IOException("OBJ face requires at least three vertices");
         }
-        FaceVertex[] face = new FaceVertex[tokens.length - 1];
-        for (int i = 1; i < tokens.length; i++) {
-            face[i - 1] = FaceVertex.parse(tokens[i], state);
-        }
-        for (int i = 1; i < face.length - 1; i++) {
-            state.currentSubMesh().addTriangle(face[0], face[i], face[i + 1], state);
-        }
     }
 
-    private float parseFloat(String[] tokens, int index) throws IOException {
-        if (index >= tokens.length) {
-            throw new IOException("OBJ directive missing numeric component");
+    /**
+     * Allocation-light tokenizer over a single OBJ line. Tokens are tracked as
+     * index ranges; only float parsing and name directives materialize strings.
+     */
+    private static final class LineCursor {
+        private String line = "";
+        private int length;
+        private int position;
+        private int tokenStart;
+        private int tokenEnd;
+
+        private LineCursor reset(String rawLine) {
+            int commentIndex = rawLine.indexOf('#');
+            this.line = rawLine;
+            this.length = commentIndex >= 0 ? commentIndex : rawLine.length();
+            this.position = 0;
+            this.tokenStart = 0;
+            this.tokenEnd = 0;
+            return this;
+        }
+
+        private boolean nextToken() {
+            int i = position;
+            while (i < length && Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+            if (i >= length) {
+                position = length;
+                return false;
+            }
+            tokenStart = i;
+            while (i < length && !Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+            tokenEnd = i;
+            position = i;
+            return true;
         }
-        return Float.parseFloat(tokens[index]);
-    }
-
-    private String stripComment(String line) {
-        int commentIndex = line.indexOf('#');
-        return commentIndex >= 0 ? line.substring(0, commentIndex) : line;
-    }
 
-    private String joinTokens(String[] tokens, int startInclusive) {
-        if (startInclusive >= tokens.length) {
-            return "";
+        private boolean tokenEquals(String value) {
+            return tokenEnd - tokenStart == value.length()
+                    && line.regionMatches(tokenStart, value, 0, value.length());
         }
-        StringBuilder builder = new StringBuilder();
-        for (int i = startInclusive; i < tokens.length; i++) {
-            if (i > startInclusive) {
-                builder.append('_');
+
+        private float nextFloat() throws IOException {
+            if (!nextToken()) {
+                throw new IOException("OBJ directive missing numeric component");
             }
-            builder.append(tokens[i]);
+            return Float.parseFloat(line.substring(tokenStart, tokenEnd));
         }
-        return builder.toString();
-    }
 
-    private record FaceVertex(int positionIndex, int texCoordIndex, int normalIndex) {
-        private static FaceVertex parse(String token, ObjParseState state) throws IOException {
-            String[] parts = token.split("/", -1);
-            int positionIndex = resolveObjIndex(parts, 0, state.positionCount(), "position");
-            int texCoordIndex = resolveObjIndex(parts, 1, state.texCoordCount(), "texCoord");
-            int normalIndex = resolveObjIndex(parts, 2, state.normalCount(), "normal");
-            return new FaceVertex(positionIndex, texCoordIndex, normalIndex);
+        private String joinRemaining() {
+            StringBuilder builder = new StringBuilder();
+            while (nextToken()) {
+                if (!builder.isEmpty()) {
+                    builder.append('_');
+                }
+                builder.append(line, tokenStart, tokenEnd);
+            }
+            return builder.toString();
         }
 
-        private static int resolveObjIndex(String[] parts, int partIndex, int currentCount, String label) throws IOException {
-            if (partIndex >= parts.length || parts[partIndex].isEmpty()) {
+        /**
+         * Resolve the {@code part}-th slash separated index of the current face
+         * token to a zero based index, or -1 when the part is absent.
+         */
+        private int faceIndex(int part, int currentCount, String label) throws IOException {
+            int i = tokenStart;
+            for (int skipped = 0; skipped < part; skipped++) {
+                while (i < tokenEnd && line.charAt(i) != '/') {
+                    i++;
+                }
+                if (i >= tokenEnd) {
+                    return -1;
+                }
+                i++;
+            }
+            if (i >= tokenEnd || line.charAt(i) == '/') {
                 return -1;
             }
-            int raw = Integer.parseInt(parts[partIndex]);
+
+            boolean negative = line.charAt(i) == '-';
+            if (negative || line.charAt(i) == '+') {
+                i++;
+            }
+            int raw = 0;
+            int digits = 0;
+            while (i < tokenEnd && line.charAt(i) != '/') {
+                char c = line.charAt(i++);
+                if (c < '0' || c > '9') {
+                    throw new IOException("OBJ " + label + " index is not an integer: " + line.substring(tokenStart, tokenEnd));
+                }
+                raw = raw * 10 + (c - '0');
+                digits++;
+            }
+            if (digits == 0) {
+                throw new IOException("OBJ " + label + " index is not an integer: " + line.substring(tokenStart, tokenEnd));
+            }
+            if (negative) {
+                raw = -raw;
+            }
             int resolved = raw > 0 ? raw - 1 : currentCount + raw;
             if (resolved < 0 || resolved >= currentCount) {
                 throw new IOException("OBJ " + label + " index out of range: " + raw);
@@ -147,9 +222,10 @@ public class ObjLoader implements ResourceLoader<MeshGroup> {
 
     private static final class ObjParseState {
         private final KeyId resourceId;
-        private final List<float[]> positions = new ArrayList<>();
-        private final List<float[]> texCoords = new ArrayList<>();
-        private final List<float[]> normals = new ArrayList<>();
+        private final LineCursor cursor = new LineCursor();
+        private final FloatArrayList positions = new FloatArrayList();
+        private final FloatArrayList texCoords = new FloatArrayList();
+        private final FloatArrayList normals = new FloatArrayList();
         private final Map<String, ObjSubMesh> subMeshes = new LinkedHashMap<>();
         private String objectName = "main";
         private String groupName = "main";
@@ -159,16 +235,25 @@ public class ObjLoader implements ResourceLoader<MeshGroup> {
             this.resourceId = resourceId;
         }
 
+        private LineCursor cursor() {
+            return cursor;
+        }
+
         private void addPosition(float x, float y, float z) {
-            positions.add(new float[]{x, y, z});
+            positions.add(x);
+            positions.add(y);
+            positions.add(z);
         }
 
         private void addTexCoord(float u, float v) {
-            texCoords.add(new float[]{u, v});
+            texCoords.add(u);
+            texCoords.add(v);
         }
 
         private void addNormal(float x, float y, float z) {
-            normals.add(new float[]{x, y, z});
+            normals.add(x);
+            normals.add(y);
+            normals.add(z);
         }
 
         private void setObjectName(String objectName) {
@@ -195,27 +280,15 @@ public class ObjLoader implements ResourceLoader<MeshGroup> {
         }
 
         private int positionCount() {
-            return positions.size();
+            return positions.size() / 3;
         }
 
         private int texCoordCount() {
-            return texCoords.size();
+            return texCoords.size() / 2;
         }
 
         private int normalCount() {
-            return normals.size();
-        }
-
-        private float[] position(int index) {
-            return positions.get(index);
-        }
-
-        private float[] texCoord(int index) {
-            return index >= 0 ? texCoords.get(index) : null;
-        }
-
-        private float[] normal(int index) {
-            return index >= 0 ? normals.get(index) : null;
+            return normals.size() / 3;
         }
 
         private String meshName() {
@@ -262,43 +335,56 @@ public class ObjLoader implements ResourceLoader<MeshGroup> {
     private static final class ObjSubMesh {
         private final String name;
         private final String materialName;
-        private final Map<VertexTuple, Integer> vertexLookup = new LinkedHashMap<>();
-        private final List<Float> vertices = new ArrayList<>();
-        private final List<Integer> indices = new ArrayList<>();
+        private final Object2IntOpenHashMap<VertexTuple> vertexLookup = new Object2IntOpenHashMap<>();
+        private final FloatArrayList vertices = new FloatArrayList();
+        private final IntArrayList indices = new IntArrayList();
 
         private ObjSubMesh(String name, String materialName) {
             this.name = name;
             this.materialName = materialName;
+            this.vertexLookup.defaultReturnValue(-1);
         }
 
-        private void addTriangle(FaceVertex a, FaceVertex b, FaceVertex c, ObjParseState state) {
-            indices.add(resolveVertex(a, state));
-            indices.add(resolveVertex(b, state));
-            indices.add(resolveVertex(c, state));
+        private void addTriangle(int a, int b, int c) {
+            indices.add(a);
+            indices.add(b);
+            indices.add(c);
         }
 
-        private int resolveVertex(FaceVertex faceVertex, ObjParseState state) {
-            VertexTuple key = new VertexTuple(faceVertex.positionIndex(), faceVertex.texCoordIndex(), faceVertex.normalIndex());
-            Integer existing = vertexLookup.get(key);
-            if (existing != null) {
+        private int resolveVertex(int positionIndex, int texCoordIndex, int normalIndex, ObjParseState state) {
+            VertexTuple key = new VertexTuple(positionIndex, texCoordIndex, normalIndex);
+            int existing = vertexLookup.getInt(key);
+            if (existing >= 0) {
                 return existing;
             }
 
             int newIndex = vertexLookup.size();
             vertexLookup.put(key, newIndex);
 
-            float[] position = state.position(faceVertex.positionIndex());
-            float[] texCoord = state.texCoord(faceVertex.texCoordIndex());
-            float[] normal = state.normal(faceVertex.normalIndex());
-
-            vertices.add(position[0]);
-            vertices.add(position[1]);
-            vertices.add(position[2]);
-            vertices.add(texCoord != null ? texCoord[0] : 0.0f);
-            vertices.add(texCoord != null ? texCoord[1] : 0.0f);
-            vertices.add(normal != null ? normal[0] : 0.0f);
-            vertices.add(normal != null ? normal[1] : 1.0f);
-            vertices.add(normal != null ? normal[2] : 0.0f);
+            FloatArrayList positions = state.positions;
+            FloatArrayList texCoords = state.texCoords;
+            FloatArrayList normals = state.normals;
+            int p = positionIndex * 3;
+            vertices.add(positions.getFloat(p));
+            vertices.add(positions.getFloat(p + 1));
+            vertices.add(positions.getFloat(p + 2));
+            if (texCoordIndex >= 0) {
+                vertices.add(texCoords.getFloat(texCoordIndex * 2));
+                vertices.add(texCoords.getFloat(texCoordIndex * 2 + 1));
+            } else {
+                vertices.add(0.0f);
+                vertices.add(0.0f);
+            }
+            if (normalIndex >= 0) {
+                int n = normalIndex * 3;
+                vertices.add(normals.getFloat(n));
+                vertices.add(normals.getFloat(n + 1));
+                vertices.add(normals.getFloat(n + 2));
+            } else {
+                vertices.add(0.0f);
+                vertices.add(1.0f);
+                vertices.add(0.0f);
+            }
             return newIndex;
         }
 
@@ -310,13 +396,12 @@ public class ObjLoader implements ResourceLoader<MeshGroup> {
             return materialName;
         }
 
-        private List<Float> vertices() {
-            return vertices;
+        private float[] vertices() {
+            return vertices.toFloatArray();
         }
 
-        private List<Integer> indices() {
-            return indices;
+        private int[] indices() {
+            return indices.toIntArray();
         }
     }
 }
-
@@ -0,0 +1,21 @@
+package rogo.sketch.core.resource.loader;
+
+import rogo.sketch.core.api.ResourceObject;
+
+/**
+ * Loader whose CPU-heavy work (decoding, parsing) can run on a worker thread
+ * ahead of {@link #load}, which then only creates the device object on the
+ * calling thread. Lets the resource manager prepare a whole batch in parallel
+ * for types that must still be installed serially.
+ */
+public interface PreparableResourceLoader<T extends ResourceObject> extends ResourceLoader<T> {
+
+    /**
+     * Do the thread-safe part of loading and stash the result with
+     * {@link ResourceLoadContext#setPreparedData}. Must not touch the graphics
+     * device. Called at most once per context, before {@link #load}.
+     *
+     * @param context The resource loading context later passed to {@link #load}
+     */
+    void prepare(ResourceLoadContext context);
+}
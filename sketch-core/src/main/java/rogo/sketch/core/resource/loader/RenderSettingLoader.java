@@ -81,6 +81,9 @@ public class RenderSettingLoader implements ResourceLoader<PartialRenderSetting>
             
             RenderStatePatch renderState = loadRenderStatePatch(json, gson, context.resourceManager());
             TargetBinding targetBinding = loadTargetBinding(json);
+            if (targetBinding != null) {
+                context.dependsOn(ResourceTypes.RENDER_TARGET, targetBinding.renderTargetId());
+            }
             ResourceBinding resourceBinding = loadResourceBinding(json, gson);
 
             boolean shouldSwitchRenderState = true;
@@ -59,6 +59,9 @@ public class RenderTargetLoader implements ResourceLoader<RenderTarget> {
                 scaleX = scaleY = scale;
             }
 
+            // Transient targets are only valid within the frame and may be aliased
+            boolean transientTarget = json.has("transient") && json.get("transient").getAsBoolean();
+
             GraphicsResourceManager resourceManager = context.resourceManager();
             List<KeyId> colorAttachmentIds = new ArrayList<>();
             KeyId depthAttachmentId = null;
@@ -112,7 +115,8 @@ public class RenderTargetLoader implements ResourceLoader<RenderTarget> {
                     scaleY,
                     colorAttachmentIds,
                     depthAttachmentId,
-                    stencilAttachmentId);
+                    stencilAttachmentId,
+                    transientTarget);
             ResourceAllocator installer = GraphicsDriver.resourceAllocator();
             return installer.installRenderTarget(keyId, descriptor);
 
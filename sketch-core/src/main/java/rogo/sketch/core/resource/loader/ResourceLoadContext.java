@@ -11,6 +11,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 /**
@@ -24,12 +25,14 @@ public class ResourceLoadContext {
     private final Gson gson;
     private final Function<KeyId, Optional<InputStream>> subResourceProvider;
     private final GraphicsResourceManager resourceManager;
+    private final BiConsumer<KeyId, KeyId> dependencyRecorder;
     
     // Lazy-loaded cached values
     private String cachedString;
     private JsonObject cachedJson;
     private byte[] cachedBytes;
     private boolean streamConsumed = false;
+    private Object preparedData;
     
     /**
      * Create a new resource load context.
@@ -44,11 +47,26 @@ public class ResourceLoadContext {
                                Gson gson,
                                Function<KeyId, Optional<InputStream>> subResourceProvider,
                                GraphicsResourceManager resourceManager) {
+        this(resourceId, inputStream, gson, subResourceProvider, resourceManager, null);
+    }
+
+    /**
+     * Create a new resource load context that reports declared dependencies.
+     *
+     * @param dependencyRecorder Receives {@code (type, name)} of resources this one depends on
+     */
+    public ResourceLoadContext(KeyId resourceId,
+                               InputStream inputStream,
+                               Gson gson,
+                               Function<KeyId, Optional<InputStream>> subResourceProvider,
+                               GraphicsResourceManager resourceManager,
+                               BiConsumer<KeyId, KeyId> dependencyRecorder) {
         this.resourceId = resourceId;
         this.inputStream = inputStream;
         this.gson = gson;
         this.subResourceProvider = subResourceProvider != null ? subResourceProvider : id -> Optional.empty();
         this.resourceManager = resourceManager;
+        this.dependencyRecorder = dependencyRecorder != null ? dependencyRecorder : (type, name) -> {};
     }
     
     /**
@@ -83,6 +101,47 @@ public class ResourceLoadContext {
         return resourceManager;
     }
     
+    /**
+     * Declare that the resource being loaded depends on another resource, so
+     * an incremental reload also reloads this one when the other changes.
+     * Lookups through {@link #resourceManager()} during loading are recorded
+     * automatically; this covers resources referenced only by id.
+     */
+    public void dependsOn(KeyId type, KeyId name) {
+        if (type != null && name != null) {
+            dependencyRecorder.accept(type, name);
+        }
+    }
+
+    /**
+     * Store data produced by {@link PreparableResourceLoader#prepare} for the
+     * following {@code load} call.
+     */
+    public void setPreparedData(Object preparedData) {
+        this.preparedData = preparedData;
+    }
+
+    /**
+     * Get data stored by {@link PreparableResourceLoader#prepare}, or null.
+     */
+    public Object getPreparedData() {
+        return preparedData;
+    }
+
+    /**
+     * Release prepared data the loader did not consume.
+     */
+    public void releasePreparedData() {
+        Object data = preparedData;
+        preparedData = null;
+        if (data instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
     /**
      * Get the resource data as a string.
      * The result is cached for subsequent calls.
@@ -124,7 +124,9 @@ public class ShaderTemplateLoader implements ResourceLoader<ShaderTemplate> {
             JsonArray templatesArray = json.getAsJsonArray("templates");
             for (JsonElement element : templatesArray) {
                 if (element.isJsonPrimitive() && element.getAsJsonPrimitive().isString()) {
-                    template.addMacroTemplate(KeyId.of(element.getAsString()));
+                    KeyId macroTemplateId = KeyId.of(element.getAsString());
+                    template.addMacroTemplate(macroTemplateId);
+                    context.dependsOn(ResourceTypes.MACRO_TEMPLATE, macroTemplateId);
                 }
             }
         }
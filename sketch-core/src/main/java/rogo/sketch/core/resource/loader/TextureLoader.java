@@ -17,14 +17,29 @@ import java.util.function.Function;
 /**
  * Loader for Texture resources from JSON.
  * Uses GraphicsAPI texture strategy for DSA/Legacy abstraction.
+ * Image decoding happens in {@link #prepare} so batches can decode in parallel.
  */
-public class TextureLoader implements ResourceLoader<Texture> {
+public class TextureLoader implements PreparableResourceLoader<Texture> {
 
     @Override
     public KeyId getResourceType() {
         return ResourceTypes.TEXTURE;
     }
 
+    @Override
+    public void prepare(ResourceLoadContext context) {
+        JsonObject json = context.getJson();
+        if (json == null || !json.has("imagePath")) {
+            return;
+        }
+        String imagePath = json.get("imagePath").getAsString();
+        ImageUtil.ImageData imageData = ImageUtil.loadImage(
+                KeyId.of(imagePath),
+                createImageResourceProvider(context.getSubResourceProvider()),
+                true);
+        context.setPreparedData(new PreparedImage(imageData));
+    }
+
     @Override
     public Texture load(ResourceLoadContext context) {
         try {
@@ -45,9 +60,12 @@ public class TextureLoader implements ResourceLoader<Texture> {
             ByteBuffer imageBuffer = null;
             int width = 0;
             int height = 0;
+            ImageUtil.ImageData imageData = null;
 
             if (imagePath != null) {
-                ImageUtil.ImageData imageData = ImageUtil.loadImage(KeyId.of(imagePath), createImageResourceProvider(resourceProvider), true);
+                imageData = context.getPreparedData() instanceof PreparedImage prepared
+                        ? prepared.imageData()
+                        : ImageUtil.loadImage(KeyId.of(imagePath), createImageResourceProvider(resourceProvider), true);
                 if (imageData != null) {
                     width = imageData.width;
                     height = imageData.height;
@@ -66,7 +84,14 @@ public class TextureLoader implements ResourceLoader<Texture> {
 
             ResolvedImageResource descriptor = TextureDescriptorParser.parse(keyId, json, width > 0 ? width : 1, height > 0 ? height : 1, imagePath);
             ResourceAllocator installer = GraphicsDriver.resourceAllocator();
-            return installer.installTexture(keyId, descriptor, imagePath, imageBuffer);
+            try {
+                return installer.installTexture(keyId, descriptor, imagePath, imageBuffer);
+            } finally {
+                // Uploads copy synchronously, decoded pixels can go right away
+                if (imageData != null) {
+                    imageData.close();
+                }
+            }
 
         } catch (Exception e) {
             System.err.println("Failed to load texture from JSON: " + e.getMessage());
@@ -75,6 +100,15 @@ public class TextureLoader implements ResourceLoader<Texture> {
         }
     }
 
+    private record PreparedImage(ImageUtil.ImageData imageData) implements AutoCloseable {
+        @Override
+        public void close() {
+            if (imageData != null) {
+                imageData.close();
+            }
+        }
+    }
+
     private Function<KeyId, Optional<InputStream>> createImageResourceProvider(
             Function<KeyId, Optional<InputStream>> baseResourceProvider) {
         return (imageId) -> {
@@ -0,0 +1,13 @@
+package rogo.sketch.core.scene;
+
+/**
+ * One journaled {@link SceneDatabase} mutation. For {@link Type#REMOVED} the
+ * proxy is the one that was removed.
+ */
+public record SceneChange(long sequence, Type type, SceneProxy proxy) {
+    public enum Type {
+        ADDED,
+        UPDATED,
+        REMOVED
+    }
+}
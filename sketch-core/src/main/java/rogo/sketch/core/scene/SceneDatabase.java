@@ -4,19 +4,54 @@ import org.jetbrains.annotations.Nullable;
 import org.joml.primitives.AABBf;
 import rogo.sketch.core.graphics.ecs.GraphicsEntityId;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Host-neutral scene proxy store used by culling-facing systems.
+ * <p>
+ * Writers serialize on a private lock and only apply real changes: touching a
+ * proxy with unchanged content is a no-op, and terrain region replacement diffs
+ * the incoming set against the stored one. Readers never take that lock on the
+ * common path; point lookups go through a concurrent index and per-kind
+ * snapshots are immutable lists republished after a kind changes. Every change
+ * is appended to a bounded journal read with {@link #changesSince(long)}.
  */
 public final class SceneDatabase {
-    private final Map<Object, SceneProxy> proxies = new LinkedHashMap<>();
+    public static final int DEFAULT_JOURNAL_CAPACITY = 8192;
+    private static final SceneProxy.Kind[] KINDS = SceneProxy.Kind.values();
 
-    public synchronized void touchEntityProxy(
+    private final Object writeLock = new Object();
+    private final Map<Object, SceneProxy> index = new ConcurrentHashMap<>();
+    private final EnumMap<SceneProxy.Kind, LinkedHashMap<Object, Slot>> slotsByKind = new EnumMap<>(SceneProxy.Kind.class);
+    private final AtomicReferenceArray<List<SceneProxy>> publishedByKind = new AtomicReferenceArray<>(KINDS.length);
+    private final ArrayDeque<SceneChange> journal = new ArrayDeque<>();
+    private final int journalCapacity;
+    private long terrainEpoch;
+    private volatile long journalSequence;
+
+    public SceneDatabase() {
+        this(DEFAULT_JOURNAL_CAPACITY);
+    }
+
+    public SceneDatabase(int journalCapacity) {
+        this.journalCapacity = Math.max(1, journalCapacity);
+        for (SceneProxy.Kind kind : KINDS) {
+            slotsByKind.put(kind, new LinkedHashMap<>());
+        }
+    }
+
+    public void touchEntityProxy(
             Object hostKey,
             AABBf bounds,
             int flags,
@@ -24,7 +59,7 @@ public final class SceneDatabase {
         touchProxy(hostKey, SceneProxy.Kind.ENTITY, bounds, flags, transformEntityId);
     }
 
-    public synchronized void touchBlockEntityProxy(
+    public void touchBlockEntityProxy(
             Object hostKey,
             AABBf bounds,
             int flags,
@@ -32,21 +67,44 @@ public final class SceneDatabase {
         touchProxy(hostKey, SceneProxy.Kind.BLOCK_ENTITY, bounds, flags, transformEntityId);
     }
 
-    public synchronized void replaceTerrainRegionProxies(Iterable<? extends TerrainRegionProxySource> regionSources) {
-        clear(SceneProxy.Kind.TERRAIN_REGION);
-        if (regionSources == null) {
-            return;
-        }
-        for (TerrainRegionProxySource source : regionSources) {
-            if (source == null || source.bounds() == null) {
-                continue;
+    /**
+     * Make the terrain region proxies match {@code regionSources}. Regions that
+     * are new are added, regions whose bounds moved are updated, regions no
+     * longer listed are removed and everything else is left untouched.
+     */
+    public void replaceTerrainRegionProxies(Iterable<? extends TerrainRegionProxySource> regionSources) {
+        synchronized (writeLock) {
+            // Listed regions are stamped with this epoch; unstamped ones are stale
+            long epoch = ++terrainEpoch;
+            int listedCount = 0;
+            LinkedHashMap<Object, Slot> terrain = slotsByKind.get(SceneProxy.Kind.TERRAIN_REGION);
+            if (regionSources != null) {
+                for (TerrainRegionProxySource source : regionSources) {
+                    if (source == null || source.hostKey() == null || source.bounds() == null) {
+                        continue;
+                    }
+                    Slot slot = terrain.get(source.hostKey());
+                    if (slot == null || !sameContent(slot.proxy, SceneProxy.Kind.TERRAIN_REGION, source.bounds(), 0, null)) {
+                        slot = putLocked(source.hostKey(), SceneProxy.Kind.TERRAIN_REGION, source.bounds(), 0, null);
+                    }
+                    if (slot.epoch != epoch) {
+                        slot.epoch = epoch;
+                        listedCount++;
+                    }
+                }
+            }
+
+            if (terrain.size() > listedCount) {
+                Iterator<Slot> iterator = terrain.values().iterator();
+                while (iterator.hasNext()) {
+                    Slot slot = iterator.next();
+                    if (slot.epoch != epoch) {
+                        iterator.remove();
+                        index.remove(slot.proxy.hostKey());
+                        appendChange(SceneChange.Type.REMOVED, slot.proxy);
+                    }
+                }
             }
-            touchProxy(
-                    source.hostKey(),
-                    SceneProxy.Kind.TERRAIN_REGION,
-                    source.bounds(),
-                    0,
-                    null);
         }
     }
 
@@ -56,7 +114,7 @@ public final class SceneDatabase {
         AABBf bounds();
     }
 
-    public synchronized void touchProxy(
+    public void touchProxy(
             Object hostKey,
             SceneProxy.Kind kind,
             AABBf bounds,
@@ -65,16 +123,26 @@ public final class SceneDatabase {
         if (hostKey == null || kind == null || bounds == null) {
             return;
         }
-        proxies.put(hostKey, new SceneProxy(hostKey, kind, bounds, flags, transformEntityId));
+        // Lock-free fast path for the common "nothing moved" touch
+        SceneProxy existing = index.get(hostKey);
+        if (existing != null && sameContent(existing, kind, bounds, flags, transformEntityId)) {
+            return;
+        }
+        synchronized (writeLock) {
+            putLocked(hostKey, kind, bounds, flags, transformEntityId);
+        }
     }
 
-    public synchronized @Nullable SceneProxy proxy(Object hostKey) {
-        return hostKey != null ? proxies.get(hostKey) : null;
+    public @Nullable SceneProxy proxy(Object hostKey) {
+        return hostKey != null ? index.get(hostKey) : null;
     }
 
-    public synchronized List<SceneProxy> snapshot(SceneProxy.Kind... kinds) {
+    public List<SceneProxy> snapshot(SceneProxy.Kind... kinds) {
         if (kinds == null || kinds.length == 0) {
-            return List.copyOf(proxies.values());
+            return concat(EnumSet.allOf(SceneProxy.Kind.class));
+        }
+        if (kinds.length == 1 && kinds[0] != null) {
+            return published(kinds[0]);
         }
         EnumSet<SceneProxy.Kind> kindSet = EnumSet.noneOf(SceneProxy.Kind.class);
         for (SceneProxy.Kind kind : kinds) {
@@ -82,44 +150,185 @@ public final class SceneDatabase {
                 kindSet.add(kind);
             }
         }
-        List<SceneProxy> matches = new ArrayList<>();
-        for (SceneProxy proxy : proxies.values()) {
-            if (kindSet.contains(proxy.kind())) {
-                matches.add(proxy);
-            }
-        }
-        return matches;
+        return concat(kindSet);
     }
 
-    public synchronized List<SceneProxy> snapshotEntities() {
+    public List<SceneProxy> snapshotEntities() {
         return snapshot(SceneProxy.Kind.ENTITY);
     }
 
-    public synchronized List<SceneProxy> snapshotBlockEntities() {
+    public List<SceneProxy> snapshotBlockEntities() {
         return snapshot(SceneProxy.Kind.BLOCK_ENTITY);
     }
 
-    public synchronized List<SceneProxy> snapshotTerrainRegions() {
+    public List<SceneProxy> snapshotTerrainRegions() {
         return snapshot(SceneProxy.Kind.TERRAIN_REGION);
     }
 
-    public synchronized void remove(Object hostKey) {
-        if (hostKey != null) {
-            proxies.remove(hostKey);
+    public void remove(Object hostKey) {
+        if (hostKey == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            SceneProxy removed = index.remove(hostKey);
+            if (removed != null) {
+                slotsByKind.get(removed.kind()).remove(hostKey);
+                appendChange(SceneChange.Type.REMOVED, removed);
+            }
         }
     }
 
-    public synchronized void clear(SceneProxy.Kind... kinds) {
-        if (kinds == null || kinds.length == 0) {
-            proxies.clear();
-            return;
+    public void clear(SceneProxy.Kind... kinds) {
+        synchronized (writeLock) {
+            for (SceneProxy.Kind kind : KINDS) {
+                if (kinds != null && kinds.length > 0 && !contains(kinds, kind)) {
+                    continue;
+                }
+                LinkedHashMap<Object, Slot> slots = slotsByKind.get(kind);
+                for (Slot slot : slots.values()) {
+                    index.remove(slot.proxy.hostKey());
+                    appendChange(SceneChange.Type.REMOVED, slot.proxy);
+                }
+                slots.clear();
+            }
         }
-        EnumSet<SceneProxy.Kind> kindSet = EnumSet.noneOf(SceneProxy.Kind.class);
+    }
+
+    /**
+     * Sequence number of the newest journaled change; pass it to
+     * {@link #changesSince(long)} later to read what happened in between.
+     */
+    public long journalCursor() {
+        return journalSequence;
+    }
+
+    /**
+     * Changes with a sequence greater than {@code cursor}, oldest first. When
+     * the journal no longer holds every change after {@code cursor} the batch
+     * is empty and not {@link ChangeBatch#complete() complete}; the consumer
+     * should then rebuild from {@link #snapshot(SceneProxy.Kind...)}.
+     */
+    public ChangeBatch changesSince(long cursor) {
+        synchronized (writeLock) {
+            long latest = journalSequence;
+            if (cursor >= latest) {
+                return new ChangeBatch(List.of(), latest, true);
+            }
+            SceneChange oldest = journal.peekFirst();
+            if (oldest == null || cursor < oldest.sequence() - 1L) {
+                return new ChangeBatch(List.of(), latest, false);
+            }
+            List<SceneChange> changes = new ArrayList<>((int) (latest - cursor));
+            Iterator<SceneChange> newestFirst = journal.descendingIterator();
+            while (newestFirst.hasNext()) {
+                SceneChange change = newestFirst.next();
+                if (change.sequence() <= cursor) {
+                    break;
+                }
+                changes.add(change);
+            }
+            Collections.reverse(changes);
+            return new ChangeBatch(List.copyOf(changes), latest, true);
+        }
+    }
+
+    public record ChangeBatch(List<SceneChange> changes, long cursor, boolean complete) {
+    }
+
+    private Slot putLocked(
+            Object hostKey,
+            SceneProxy.Kind kind,
+            AABBf bounds,
+            int flags,
+            @Nullable GraphicsEntityId transformEntityId) {
+        LinkedHashMap<Object, Slot> slots = slotsByKind.get(kind);
+        SceneProxy existing = index.get(hostKey);
+        if (existing != null && sameContent(existing, kind, bounds, flags, transformEntityId)) {
+            return slots.get(hostKey);
+        }
+        SceneProxy proxy = new SceneProxy(hostKey, kind, bounds, flags, transformEntityId);
+        if (existing != null && existing.kind() != kind) {
+            slotsByKind.get(existing.kind()).remove(hostKey);
+            invalidate(existing.kind());
+        }
+        Slot slot = slots.get(hostKey);
+        if (slot == null) {
+            slot = new Slot();
+            slots.put(hostKey, slot);
+        }
+        slot.proxy = proxy;
+        index.put(hostKey, proxy);
+        appendChange(existing != null ? SceneChange.Type.UPDATED : SceneChange.Type.ADDED, proxy);
+        return slot;
+    }
+
+    private void appendChange(SceneChange.Type type, SceneProxy proxy) {
+        long sequence = journalSequence + 1L;
+        journal.addLast(new SceneChange(sequence, type, proxy));
+        while (journal.size() > journalCapacity) {
+            journal.removeFirst();
+        }
+        journalSequence = sequence;
+        invalidate(proxy.kind());
+    }
+
+    private void invalidate(SceneProxy.Kind kind) {
+        if (publishedByKind.get(kind.ordinal()) != null) {
+            publishedByKind.set(kind.ordinal(), null);
+        }
+    }
+
+    private List<SceneProxy> published(SceneProxy.Kind kind) {
+        List<SceneProxy> published = publishedByKind.get(kind.ordinal());
+        if (published != null) {
+            return published;
+        }
+        synchronized (writeLock) {
+            published = publishedByKind.get(kind.ordinal());
+            if (published == null) {
+                LinkedHashMap<Object, Slot> slots = slotsByKind.get(kind);
+                List<SceneProxy> proxies = new ArrayList<>(slots.size());
+                for (Slot slot : slots.values()) {
+                    proxies.add(slot.proxy);
+                }
+                published = Collections.unmodifiableList(proxies);
+                publishedByKind.set(kind.ordinal(), published);
+            }
+            return published;
+        }
+    }
+
+    private List<SceneProxy> concat(EnumSet<SceneProxy.Kind> kinds) {
+        List<SceneProxy> matches = new ArrayList<>();
         for (SceneProxy.Kind kind : kinds) {
-            if (kind != null) {
-                kindSet.add(kind);
+            matches.addAll(published(kind));
+        }
+        return matches;
+    }
+
+    private static boolean sameContent(
+            SceneProxy proxy,
+            SceneProxy.Kind kind,
+            AABBf bounds,
+            int flags,
+            @Nullable GraphicsEntityId transformEntityId) {
+        return proxy.kind() == kind
+                && proxy.flags() == flags
+                && Objects.equals(proxy.transformEntityId(), transformEntityId)
+                && proxy.bounds().equals(bounds);
+    }
+
+    private static boolean contains(SceneProxy.Kind[] kinds, SceneProxy.Kind kind) {
+        for (SceneProxy.Kind candidate : kinds) {
+            if (candidate == kind) {
+                return true;
             }
         }
-        proxies.entrySet().removeIf(entry -> kindSet.contains(entry.getValue().kind()));
+        return false;
+    }
+
+    private static final class Slot {
+        private SceneProxy proxy;
+        private long epoch;
     }
 }
@@ -437,7 +437,9 @@ final class ShaderMacroProcessor {
         private long parseLogicalOr() throws ShaderPreprocessorException {
             long value = parseLogicalAnd();
             while (match("||")) {
-                value = truthy(value) || truthy(parseLogicalAnd()) ? 1L : 0L;
+                // Always parse the right operand so its tokens are consumed.
+                long rhs = parseLogicalAnd();
+                value = truthy(value) || truthy(rhs) ? 1L : 0L;
             }
             return value;
         }
@@ -445,7 +447,8 @@ final class ShaderMacroProcessor {
         private long parseLogicalAnd() throws ShaderPreprocessorException {
             long value = parseEquality();
             while (match("&&")) {
-                value = truthy(value) && truthy(parseEquality()) ? 1L : 0L;
+                long rhs = parseEquality();
+                value = truthy(value) && truthy(rhs) ? 1L : 0L;
             }
             return value;
         }
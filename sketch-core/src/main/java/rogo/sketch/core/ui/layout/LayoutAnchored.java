@@ -25,23 +25,35 @@ public final class LayoutAnchored extends LayoutNode {
     public LayoutAnchored(String id, LayoutNode child) {
         super(id);
         this.child = child;
+        adopt(child);
         fillX(true);
         fillY(true);
     }
 
     public LayoutAnchored horizontalAlign(HorizontalAlign horizontalAlign) {
-        this.horizontalAlign = horizontalAlign != null ? horizontalAlign : HorizontalAlign.LEFT;
+        HorizontalAlign resolved = horizontalAlign != null ? horizontalAlign : HorizontalAlign.LEFT;
+        if (resolved != this.horizontalAlign) {
+            this.horizontalAlign = resolved;
+            invalidateLayout();
+        }
         return this;
     }
 
     public LayoutAnchored verticalAlign(VerticalAlign verticalAlign) {
-        this.verticalAlign = verticalAlign != null ? verticalAlign : VerticalAlign.TOP;
+        VerticalAlign resolved = verticalAlign != null ? verticalAlign : VerticalAlign.TOP;
+        if (resolved != this.verticalAlign) {
+            this.verticalAlign = resolved;
+            invalidateLayout();
+        }
         return this;
     }
 
     public LayoutAnchored offset(int offsetX, int offsetY) {
-        this.offsetX = offsetX;
-        this.offsetY = offsetY;
+        if (offsetX != this.offsetX || offsetY != this.offsetY) {
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+            invalidateLayout();
+        }
         return this;
     }
 
@@ -14,18 +14,27 @@ public abstract class LayoutContainer extends LayoutNode {
     }
 
     public LayoutContainer padding(UiInsets padding) {
-        this.padding = padding != null ? padding : UiInsets.NONE;
+        UiInsets resolved = padding != null ? padding : UiInsets.NONE;
+        if (!resolved.equals(this.padding)) {
+            this.padding = resolved;
+            invalidate();
+        }
         return this;
     }
 
     public LayoutContainer gap(int gap) {
-        this.gap = Math.max(0, gap);
+        int resolved = Math.max(0, gap);
+        if (resolved != this.gap) {
+            this.gap = resolved;
+            invalidate();
+        }
         return this;
     }
 
     public LayoutContainer child(LayoutNode child) {
         if (child != null) {
             children.add(child);
+            adopt(child);
         }
         return this;
     }
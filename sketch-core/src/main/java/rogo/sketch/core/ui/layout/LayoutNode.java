@@ -3,10 +3,24 @@ package rogo.sketch.core.ui.layout;
 import org.jetbrains.annotations.Nullable;
 import rogo.sketch.core.ui.geometry.UiRect;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Consumer;
 
+/**
+ * Retained layout tree node.
+ * <p>
+ * Nodes keep their last measured sizes and last layout input. Property setters
+ * only invalidate when a value actually changes, and invalidation travels up
+ * to the root, so a later {@link #measure} / {@link #layout} pass re-measures
+ * and re-lays out dirty subtrees while clean ones answer from cache.
+ * Subclasses whose content changes outside these setters call
+ * {@link #invalidate()} or {@link #invalidateLayout()} themselves.
+ */
 public abstract class LayoutNode {
+    private static final int MEASURE_CACHE_SLOTS = 3;
+
     private final String id;
     private int preferredWidth;
     private int preferredHeight;
@@ -25,6 +39,15 @@ public abstract class LayoutNode {
     private UiAxisAlignment alignY = UiAxisAlignment.CENTER;
     private UiRect bounds = new UiRect(0, 0, 0, 0);
     private @Nullable UiRect clipRect;
+    private @Nullable LayoutNode parent;
+    // A child sees up to three constraints: its parent's measure under the parent's own two, and the parent's layout
+    private final UiConstraints[] measuredConstraints = new UiConstraints[MEASURE_CACHE_SLOTS];
+    private final UiSize[] measuredSizes = new UiSize[MEASURE_CACHE_SLOTS];
+    private int nextMeasureSlot;
+    private boolean measureDirty = true;
+    private boolean layoutDirty = true;
+    private @Nullable UiRect layoutInput;
+    private @Nullable UiRect layoutInputClipRect;
 
     protected LayoutNode(String id) {
         this.id = id;
@@ -35,75 +58,121 @@ public abstract class LayoutNode {
     }
 
     public LayoutNode preferredSize(int width, int height) {
-        this.preferredWidth = Math.max(0, width);
-        this.preferredHeight = Math.max(0, height);
+        int resolvedWidth = Math.max(0, width);
+        int resolvedHeight = Math.max(0, height);
+        if (resolvedWidth != preferredWidth || resolvedHeight != preferredHeight) {
+            this.preferredWidth = resolvedWidth;
+            this.preferredHeight = resolvedHeight;
+            invalidate();
+        }
         return this;
     }
 
     public LayoutNode preferredWidth(int width) {
-        this.preferredWidth = Math.max(0, width);
-        return this;
+        return preferredSize(width, preferredHeight);
     }
 
     public LayoutNode preferredHeight(int height) {
-        this.preferredHeight = Math.max(0, height);
-        return this;
+        return preferredSize(preferredWidth, height);
     }
 
     public LayoutNode minSize(int width, int height) {
-        this.minWidth = Math.max(0, width);
-        this.minHeight = Math.max(0, height);
+        int resolvedWidth = Math.max(0, width);
+        int resolvedHeight = Math.max(0, height);
+        if (resolvedWidth != minWidth || resolvedHeight != minHeight) {
+            this.minWidth = resolvedWidth;
+            this.minHeight = resolvedHeight;
+            invalidate();
+        }
         return this;
     }
 
     public LayoutNode growX(float value) {
-        this.growX = Math.max(0.0f, value);
+        float resolved = Math.max(0.0f, value);
+        if (resolved != growX) {
+            this.growX = resolved;
+            invalidate();
+        }
         return this;
     }
 
     public LayoutNode growY(float value) {
-        this.growY = Math.max(0.0f, value);
+        float resolved = Math.max(0.0f, value);
+        if (resolved != growY) {
+            this.growY = resolved;
+            invalidate();
+        }
         return this;
     }
 
     public LayoutNode maxSize(int width, int height) {
-        this.maxWidth = width > 0 ? width : Integer.MAX_VALUE;
-        this.maxHeight = height > 0 ? height : Integer.MAX_VALUE;
+        int resolvedWidth = width > 0 ? width : Integer.MAX_VALUE;
+        int resolvedHeight = height > 0 ? height : Integer.MAX_VALUE;
+        if (resolvedWidth != maxWidth || resolvedHeight != maxHeight) {
+            this.maxWidth = resolvedWidth;
+            this.maxHeight = resolvedHeight;
+            invalidate();
+        }
         return this;
     }
 
     public LayoutNode fillX(boolean value) {
-        this.fillX = value;
+        if (value != fillX) {
+            this.fillX = value;
+            invalidate();
+        }
         return this;
     }
 
     public LayoutNode fillY(boolean value) {
-        this.fillY = value;
+        if (value != fillY) {
+            this.fillY = value;
+            invalidate();
+        }
         return this;
     }
 
     public LayoutNode payload(@Nullable Object payload) {
-        this.payload = payload;
+        if (!Objects.equals(payload, this.payload)) {
+            this.payload = payload;
+            invalidate();
+        }
         return this;
     }
 
     public LayoutNode margin(UiInsets margin) {
-        this.margin = margin != null ? margin : UiInsets.NONE;
+        UiInsets resolved = margin != null ? margin : UiInsets.NONE;
+        if (!resolved.equals(this.margin)) {
+            this.margin = resolved;
+            invalidate();
+        }
         return this;
     }
 
     public LayoutNode border(UiInsets border) {
-        this.border = border != null ? border : UiInsets.NONE;
+        UiInsets resolved = border != null ? border : UiInsets.NONE;
+        if (!resolved.equals(this.border)) {
+            this.border = resolved;
+            invalidate();
+        }
         return this;
     }
 
     public LayoutNode alignX(UiAxisAlignment alignX) {
-        this.alignX = alignX != null ? alignX : UiAxisAlignment.CENTER;
+        UiAxisAlignment resolved = alignX != null ? alignX : UiAxisAlignment.CENTER;
+        if (resolved != this.alignX) {
+            this.alignX = resolved;
+            invalidate();
+        }
         return this;
     }
 
     public LayoutNode alignY(UiAxisAlignment alignY) {
-        this.alignY = alignY != null ? alignY : UiAxisAlignment.CENTER;
+        UiAxisAlignment resolved = alignY != null ? alignY : UiAxisAlignment.CENTER;
+        if (resolved != this.alignY) {
+            this.alignY = resolved;
+            invalidate();
+        }
         return this;
     }
 
@@ -175,7 +244,60 @@ public abstract class LayoutNode {
         return clipRect;
     }
 
+    public @Nullable LayoutNode parent() {
+        return parent;
+    }
+
+    /**
+     * Whether the next measure or layout pass has work to do for this node.
+     */
+    public boolean isDirty() {
+        return measureDirty || layoutDirty;
+    }
+
+    /**
+     * Drop cached measurements of this node and its ancestors, and schedule
+     * them for layout.
+     */
+    public void invalidate() {
+        for (LayoutNode node = this; node != null; node = node.parent) {
+            node.measureDirty = true;
+            node.layoutDirty = true;
+        }
+    }
+
+    /**
+     * Schedule this node and its ancestors for layout without touching cached
+     * measurements, for changes such as scrolling that only move content.
+     */
+    public void invalidateLayout() {
+        for (LayoutNode node = this; node != null; node = node.parent) {
+            node.layoutDirty = true;
+        }
+    }
+
     public final UiSize measure(UiConstraints constraints) {
+        if (measureDirty) {
+            Arrays.fill(measuredConstraints, null);
+            Arrays.fill(measuredSizes, null);
+            measureDirty = false;
+        } else {
+            for (int slot = 0; slot < MEASURE_CACHE_SLOTS; slot++) {
+                if (constraints.equals(measuredConstraints[slot])) {
+                    return measuredSizes[slot];
+                }
+            }
+        }
+        UiSize size = measureUncached(constraints);
+        measuredConstraints[nextMeasureSlot] = constraints;
+        measuredSizes[nextMeasureSlot] = size;
+        nextMeasureSlot = (nextMeasureSlot + 1) % MEASURE_CACHE_SLOTS;
+        // measureSelf may update state that onLayout publishes (e.g. content sizes)
+        layoutDirty = true;
+        return size;
+    }
+
+    private UiSize measureUncached(UiConstraints constraints) {
         int outerHorizontal = margin.horizontal() + border.horizontal();
         int outerVertical = margin.vertical() + border.vertical();
         UiSize measured = measureSelf(UiConstraints.of(
@@ -193,6 +315,12 @@ public abstract class LayoutNode {
     }
 
     public final void layout(UiRect bounds, @Nullable UiRect inheritedClipRect) {
+        if (!layoutDirty && bounds.equals(layoutInput) && Objects.equals(inheritedClipRect, layoutInputClipRect)) {
+            return;
+        }
+        layoutInput = bounds;
+        layoutInputClipRect = inheritedClipRect;
+        layoutDirty = false;
         UiRect marginBounds = inset(bounds, margin);
         this.bounds = inset(marginBounds, border);
         this.clipRect = intersect(inheritedClipRect, this.bounds);
@@ -205,6 +333,16 @@ public abstract class LayoutNode {
         return List.of();
     }
 
+    /**
+     * Register {@code child} as a child of this node so its invalidations reach this node.
+     */
+    protected final void adopt(LayoutNode child) {
+        if (child != null) {
+            child.parent = this;
+            invalidate();
+        }
+    }
+
     public void visit(Consumer<LayoutNode> visitor) {
         visitor.accept(this);
         for (LayoutNode child : children()) {
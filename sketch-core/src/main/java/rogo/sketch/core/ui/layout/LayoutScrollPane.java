@@ -13,12 +13,17 @@ public final class LayoutScrollPane extends LayoutNode {
         super(id);
         this.content = content;
         this.axis = axis;
+        adopt(content);
         fillX(true);
         fillY(true);
     }
 
     public LayoutScrollPane scrollOffset(double scrollOffset) {
-        this.scrollOffset = Math.max(0.0D, scrollOffset);
+        double resolved = Math.max(0.0D, scrollOffset);
+        if (resolved != this.scrollOffset) {
+            this.scrollOffset = resolved;
+            invalidateLayout();
+        }
         return this;
     }
 
@@ -14,12 +14,17 @@ public final class LayoutViewport2D extends LayoutNode {
     public LayoutViewport2D(String id, LayoutNode content) {
         super(id);
         this.content = content;
+        adopt(content);
         fillX(true);
         fillY(true);
     }
 
     public LayoutViewport2D state(LayoutViewportState state) {
-        this.state = state != null ? state : LayoutViewportState.identity();
+        LayoutViewportState resolved = state != null ? state : LayoutViewportState.identity();
+        if (!resolved.equals(this.state)) {
+            this.state = resolved;
+            invalidateLayout();
+        }
         return this;
     }
 
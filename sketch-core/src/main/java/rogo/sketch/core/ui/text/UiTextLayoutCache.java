@@ -0,0 +1,129 @@
+package rogo.sketch.core.ui.text;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memoizes {@link UiTextLayouts} results and {@link UiTextMetrics} calls for
+ * one metrics source, keyed by string, line height (the font size) and width.
+ * <p>
+ * UI text is mostly the same from frame to frame, so measuring through this
+ * cache turns repeated wrap/width queries into lookups. Entries are evicted
+ * least-recently-used beyond the capacity. Not thread-safe; use one cache per
+ * UI builder.
+ */
+public final class UiTextLayoutCache {
+    public static final int DEFAULT_CAPACITY = 2048;
+
+    private final @Nullable UiTextMetrics metrics;
+    private final Map<Key, Object> entries;
+
+    public UiTextLayoutCache(@Nullable UiTextMetrics metrics) {
+        this(metrics, DEFAULT_CAPACITY);
+    }
+
+    public UiTextLayoutCache(@Nullable UiTextMetrics metrics, int capacity) {
+        this.metrics = metrics;
+        int resolvedCapacity = Math.max(1, capacity);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > resolvedCapacity;
+            }
+        };
+    }
+
+    public @Nullable UiTextMetrics metrics() {
+        return metrics;
+    }
+
+    public UiMeasuredTextBlock measureWrapped(String text, int maxWidth, int lineGap) {
+        String safeText = text != null ? text : "";
+        Key key = new Key(Operation.MEASURE_WRAPPED, safeText, lineHeight(), maxWidth, lineGap);
+        Object cached = entries.get(key);
+        if (cached instanceof UiMeasuredTextBlock block) {
+            return block;
+        }
+        UiMeasuredTextBlock block = UiTextLayouts.measureWrapped(metrics, safeText, maxWidth, lineGap);
+        entries.put(key, block);
+        return block;
+    }
+
+    public String clipWithEllipsis(String text, int maxWidth) {
+        String safeText = text != null ? text : "";
+        Key key = new Key(Operation.CLIP_WITH_ELLIPSIS, safeText, lineHeight(), maxWidth, 0);
+        Object cached = entries.get(key);
+        if (cached instanceof String clipped) {
+            return clipped;
+        }
+        String clipped = UiTextLayouts.clipWithEllipsis(metrics, safeText, maxWidth);
+        entries.put(key, clipped);
+        return clipped;
+    }
+
+    /**
+     * Wrapped lines of one physical line; requires metrics.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> wrap(String line, int maxWidth) {
+        if (metrics == null) {
+            throw new IllegalStateException("wrap requires text metrics");
+        }
+        String safeLine = line != null ? line : "";
+        Key key = new Key(Operation.WRAP, safeLine, lineHeight(), maxWidth, 0);
+        Object cached = entries.get(key);
+        if (cached instanceof List<?> lines) {
+            return (List<String>) lines;
+        }
+        List<String> lines = List.copyOf(metrics.wrap(UiText.literal(safeLine), maxWidth));
+        entries.put(key, lines);
+        return lines;
+    }
+
+    /**
+     * Width of already resolved text; falls back to the fixed 6px glyph
+     * estimate {@link UiTextLayouts} uses when no metrics are available.
+     */
+    public int width(String resolvedText) {
+        String safeText = resolvedText != null ? resolvedText : "";
+        if (metrics == null) {
+            return safeText.length() * 6;
+        }
+        Key key = new Key(Operation.WIDTH, safeText, lineHeight(), 0, 0);
+        Object cached = entries.get(key);
+        if (cached instanceof Integer width) {
+            return width;
+        }
+        int width = metrics.width(safeText);
+        entries.put(key, width);
+        return width;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drop every entry, e.g. after the font behind the metrics was reloaded.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private int lineHeight() {
+        return metrics != null ? metrics.lineHeight() : 0;
+    }
+
+    private enum Operation {
+        MEASURE_WRAPPED,
+        CLIP_WITH_ELLIPSIS,
+        WRAP,
+        WIDTH
+    }
+
+    private record Key(Operation operation, String text, int lineHeight, int width, int lineGap) {
+    }
+}
@@ -0,0 +1,140 @@
+package rogo.sketch.core.util;
+
+import rogo.sketch.core.pipeline.module.diagnostic.SketchDiagnostics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * On-disk cache of decoded RGBA8 images keyed by a hash of the encoded
+ * source. Entries are memory-mapped on load, so a warm reload skips image
+ * decoding and hands the mapped pixels straight to the texture upload.
+ * <p>
+ * File layout (little endian): magic, version, width, height, flags,
+ * reserved, source length, source hash, then {@code width * height * 4}
+ * pixel bytes.
+ */
+public final class BakedTextureCache {
+    private static final int MAGIC = 0x58544B53; // "SKTX"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 40;
+    private static final int FLAG_ALPHA = 1;
+    private static final int FLAG_FLIPPED_Y = 1 << 1;
+    private static final String MODULE_ID = "baked-texture-cache";
+
+    private final Path directory;
+
+    public BakedTextureCache(Path directory) {
+        this.directory = Objects.requireNonNull(directory, "directory");
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * Map a cached entry for the given encoded source, or return null on a
+     * miss or an unreadable entry.
+     */
+    public ImageUtil.ImageData load(byte[] encodedSource, boolean flipY) {
+        long sourceHash = ContentHash.fnv1a64(encodedSource);
+        Path file = entryPath(sourceHash, encodedSource.length, flipY);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                return null;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                return null;
+            }
+            int width = mapped.getInt(8);
+            int height = mapped.getInt(12);
+            int flags = mapped.getInt(16);
+            long sourceLength = mapped.getLong(24);
+            long storedHash = mapped.getLong(32);
+            long pixelBytes = (long) width * height * 4L;
+            if (width <= 0 || height <= 0
+                    || sourceLength != encodedSource.length
+                    || storedHash != sourceHash
+                    || ((flags & FLAG_FLIPPED_Y) != 0) != flipY
+                    || size != HEADER_BYTES + pixelBytes) {
+                return null;
+            }
+            ByteBuffer pixels = mapped.slice(HEADER_BYTES, (int) pixelBytes);
+            return new ImageUtil.ImageData(pixels, width, height, (flags & FLAG_ALPHA) != 0);
+        } catch (IOException | RuntimeException e) {
+            SketchDiagnostics.get().warn(MODULE_ID, "Failed to map baked texture " + file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Store decoded pixels for the given encoded source. Writes go to a
+     * temporary file first so concurrent readers never see a partial entry.
+     */
+    public void store(byte[] encodedSource, boolean flipY, ImageUtil.ImageData image) {
+        if (image == null || image.buffer == null || image.width <= 0 || image.height <= 0) {
+            return;
+        }
+        long sourceHash = ContentHash.fnv1a64(encodedSource);
+        Path file = entryPath(sourceHash, encodedSource.length, flipY);
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(image.width)
+                    .putInt(image.height)
+                    .putInt((image.hasAlpha ? FLAG_ALPHA : 0) | (flipY ? FLAG_FLIPPED_Y : 0))
+                    .putInt(0)
+                    .putLong(encodedSource.length)
+                    .putLong(sourceHash)
+                    .flip();
+            ByteBuffer pixels = image.buffer.duplicate();
+            pixels.position(0).limit(image.width * image.height * 4);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                while (pixels.hasRemaining()) {
+                    channel.write(pixels);
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+        } catch (IOException | RuntimeException e) {
+            SketchDiagnostics.get().warn(MODULE_ID, "Failed to write baked texture " + file, e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private Path entryPath(long sourceHash, int sourceLength, boolean flipY) {
+        return directory.resolve(String.format("%016x_%x%s.sktx", sourceHash, sourceLength, flipY ? "_f" : ""));
+    }
+}
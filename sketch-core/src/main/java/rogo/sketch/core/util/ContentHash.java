@@ -0,0 +1,25 @@
+package rogo.sketch.core.util;
+
+/**
+ * Cheap, stable content hashes for change detection and cache keys. Not
+ * suitable for anything security related.
+ */
+public final class ContentHash {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ContentHash() {
+    }
+
+    /**
+     * 64-bit FNV-1a over the whole array.
+     */
+    public static long fnv1a64(byte[] bytes) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte value : bytes) {
+            hash ^= value & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
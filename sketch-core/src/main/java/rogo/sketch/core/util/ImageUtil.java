@@ -1,19 +1,45 @@
 package rogo.sketch.core.util;
 
 import org.lwjgl.BufferUtils;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 /**
  * Utility class for loading and converting images for use with OpenGL textures
  */
 public class ImageUtil {
+    private static volatile boolean stbUsable = detectStb();
+    private static volatile BakedTextureCache bakedCache;
 
+    /**
+     * Enable or disable the on-disk baked texture cache consulted by
+     * {@link #loadImage}. Disabled (null) by default.
+     */
+    public static void setBakedCache(BakedTextureCache cache) {
+        bakedCache = cache;
+    }
+
+    public static BakedTextureCache bakedCache() {
+        return bakedCache;
+    }
+
+    /**
+     * Load and decode an image to tightly packed RGBA8. Uses stb_image into
+     * native memory when LWJGL's stb module is present and falls back to
+     * ImageIO otherwise. Callers should {@link ImageData#close()} the result
+     * once the pixels have been uploaded.
+     */
     public static ImageData loadImage(KeyId imageId, Function<KeyId, Optional<InputStream>> resourceProvider, boolean flipY) {
         Optional<InputStream> optionalStream = resourceProvider.apply(imageId);
         if (optionalStream.isEmpty()) {
@@ -21,16 +47,52 @@ public class ImageUtil {
             return null;
         }
 
+        byte[] encoded;
         try (InputStream stream = optionalStream.get()) {
-            BufferedImage image = ImageIO.read(stream);
+            encoded = stream.readAllBytes();
+        } catch (Exception e) {
+            System.err.println("Failed to load image: " + imageId);
+            e.printStackTrace();
+            return null;
+        }
+
+        BakedTextureCache cache = bakedCache;
+        if (cache != null) {
+            ImageData cached = cache.load(encoded, flipY);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ImageData decoded = decodeImage(imageId, encoded, flipY);
+        if (decoded != null && cache != null) {
+            cache.store(encoded, flipY, decoded);
+        }
+        return decoded;
+    }
+
+    /**
+     * Decode an encoded image (PNG, JPEG, TGA, ...) to RGBA8.
+     */
+    public static ImageData decodeImage(KeyId imageId, byte[] encoded, boolean flipY) {
+        if (stbUsable) {
+            try {
+                ImageData image = StbDecoder.decode(encoded, flipY);
+                if (image != null) {
+                    return image;
+                }
+            } catch (LinkageError e) {
+                // Java bindings present but natives missing; use ImageIO from now on
+                stbUsable = false;
+            }
+        }
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(encoded));
             if (image == null) {
                 System.err.println("Failed to decode image: " + imageId);
                 return null;
             }
-
-            return new ImageData(convertToByteBuffer(image, flipY), image.getWidth(), image.getHeight(), image.getColorModel().hasAlpha()
-            );
-
+            return new ImageData(convertToByteBuffer(image, flipY), image.getWidth(), image.getHeight(), image.getColorModel().hasAlpha());
         } catch (Exception e) {
             System.err.println("Failed to load image: " + imageId);
             e.printStackTrace();
@@ -48,49 +110,94 @@ public class ImageUtil {
         int[] pixels = new int[width * height];
         image.getRGB(0, 0, width, height, pixels, 0, width);
 
-        ByteBuffer buffer = BufferUtils.createByteBuffer(width * height * 4); // RGBA
+        // ARGB -> RGBA bytes, written as little-endian ABGR ints one row at a time
+        for (int i = 0; i < pixels.length; i++) {
+            int argb = pixels[i];
+            pixels[i] = (argb & 0xFF00FF00) | ((argb >> 16) & 0xFF) | ((argb & 0xFF) << 16);
+        }
 
+        ByteBuffer buffer = BufferUtils.createByteBuffer(width * height * 4); // RGBA
+        IntBuffer rows = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
         if (flipY) {
-            // 从最后一行开始写（OpenGL 友好）
+            // Bottom row first (OpenGL friendly)
             for (int y = height - 1; y >= 0; y--) {
-                int rowStart = y * width;
-                for (int x = 0; x < width; x++) {
-                    int pixel = pixels[rowStart + x];
-                    putPixel(buffer, pixel);
-                }
+                rows.put(pixels, y * width, width);
             }
         } else {
-            // 原始顺序（AWT）
-            for (int pixel : pixels) {
-                putPixel(buffer, pixel);
-            }
+            rows.put(pixels);
         }
-
-        buffer.flip();
         return buffer;
     }
 
-    private static void putPixel(ByteBuffer buffer, int pixel) {
-        buffer.put((byte) ((pixel >> 16) & 0xFF)); // R
-        buffer.put((byte) ((pixel >> 8) & 0xFF));  // G
-        buffer.put((byte) (pixel & 0xFF));         // B
-        buffer.put((byte) ((pixel >> 24) & 0xFF)); // A
+    private static boolean detectStb() {
+        try {
+            Class.forName("org.lwjgl.stb.STBImage", false, ImageUtil.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
     }
 
     /**
-     * Container for loaded image data
+     * Kept separate so STBImage is only linked when the module is present.
      */
-    public static class ImageData {
+    private static final class StbDecoder {
+        static ImageData decode(byte[] encoded, boolean flipY) {
+            ByteBuffer source = MemoryUtil.memAlloc(encoded.length);
+            try (MemoryStack stack = MemoryStack.stackPush()) {
+                source.put(encoded).flip();
+                IntBuffer width = stack.mallocInt(1);
+                IntBuffer height = stack.mallocInt(1);
+                IntBuffer channels = stack.mallocInt(1);
+                // Thread-local flag so parallel decodes do not race on the global one
+                org.lwjgl.stb.STBImage.stbi_set_flip_vertically_on_load_thread(flipY ? 1 : 0);
+                ByteBuffer pixels = org.lwjgl.stb.STBImage.stbi_load_from_memory(source, width, height, channels, 4);
+                if (pixels == null) {
+                    return null;
+                }
+                int fileChannels = channels.get(0);
+                return new ImageData(
+                        pixels,
+                        width.get(0),
+                        height.get(0),
+                        fileChannels == 2 || fileChannels == 4,
+                        () -> org.lwjgl.stb.STBImage.stbi_image_free(pixels));
+            } finally {
+                MemoryUtil.memFree(source);
+            }
+        }
+    }
+
+    /**
+     * Container for loaded image data. Buffers decoded by stb_image live in
+     * native memory and are released by {@link #close()}; other buffers are
+     * left to the garbage collector.
+     */
+    public static class ImageData implements AutoCloseable {
         public final ByteBuffer buffer;
         public final int width;
         public final int height;
         public final boolean hasAlpha;
+        private final Runnable release;
+        private final AtomicBoolean closed = new AtomicBoolean();
 
         public ImageData(ByteBuffer buffer, int width, int height, boolean hasAlpha) {
+            this(buffer, width, height, hasAlpha, null);
+        }
+
+        public ImageData(ByteBuffer buffer, int width, int height, boolean hasAlpha, Runnable release) {
             this.buffer = buffer;
             this.width = width;
             this.height = height;
             this.hasAlpha = hasAlpha;
+            this.release = release;
+        }
+
+        @Override
+        public void close() {
+            if (release != null && closed.compareAndSet(false, true)) {
+                release.run();
+            }
         }
     }
-}
\ No newline at end of file
+}
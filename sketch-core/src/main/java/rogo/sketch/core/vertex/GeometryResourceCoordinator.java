@@ -62,6 +62,10 @@ public class GeometryResourceCoordinator {
         return meshResidencyPool.getIfPresent(key);
     }
 
+    public BackendGeometryBinding peek(VertexBufferKey key) {
+        return meshResidencyPool.peek(key);
+    }
+
     public void planMaterialization(VertexBufferKey key, @Nullable BackendGeometryBinding sourceProvider) {
         meshResidencyPool.planMaterialization(key, sourceProvider);
     }
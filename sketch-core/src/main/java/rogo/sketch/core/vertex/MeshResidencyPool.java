@@ -3,25 +3,56 @@ package rogo.sketch.core.vertex;
 import org.jetbrains.annotations.Nullable;
 import rogo.sketch.core.backend.BackendGeometryBinding;
 import rogo.sketch.core.data.format.VertexBufferKey;
+import rogo.sketch.core.memory.MemoryBudget;
+import rogo.sketch.core.memory.MemoryDomain;
+import rogo.sketch.core.memory.MemoryLease;
+import rogo.sketch.core.memory.UnifiedMemoryFabric;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 /**
  * Owns backend geometry binding residency and pending materialization requests
  * for one pipeline residency domain.
+ * <p>
+ * Each installed binding records the frame it was last used and its resident
+ * size. {@link #beginFrame()} evicts the least recently used bindings while
+ * the {@link MemoryDomain#GPU_GEOMETRY_ARENA} domain is over its configured
+ * budget; evicted meshes are re-materialized through the pending request queue
+ * the next time they are requested.
+ * <p>
+ * Backends that keep mesh geometry in their own arenas instead of per-binding
+ * buffers report it through {@link #bindBackendResidentBytes}; those bytes are
+ * included in {@link #residentBytes()} but are not evictable here.
  */
 public final class MeshResidencyPool {
+    /**
+     * Bindings used within this many frames are never evicted.
+     */
+    private static final long MIN_EVICTION_AGE_FRAMES = 2L;
+
     private final String debugName;
-    private final Map<MeshResidencyKey, BackendGeometryBinding> installedBindings = new ConcurrentHashMap<>();
+    private final Map<MeshResidencyKey, ResidencyEntry> installedBindings = new ConcurrentHashMap<>();
     private final ConcurrentLinkedQueue<PendingResidencyRequest> pendingMaterialization = new ConcurrentLinkedQueue<>();
+    private final MemoryLease memoryLease;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private volatile long currentFrame;
+    private volatile long residentBytes;
+    private volatile LongSupplier backendResidentBytes;
 
     public MeshResidencyPool(String debugName) {
         this.debugName = debugName != null ? debugName : "mesh-residency";
+        this.memoryLease = UnifiedMemoryFabric.get().openLease(MemoryDomain.GPU_GEOMETRY_ARENA, this.debugName);
     }
 
     @Nullable
@@ -30,7 +61,7 @@ public final class MeshResidencyPool {
             return null;
         }
         MeshResidencyKey residencyKey = MeshResidencyKey.from(key);
-        BackendGeometryBinding existing = installedBindings.get(residencyKey);
+        BackendGeometryBinding existing = touch(installedBindings.get(residencyKey));
         if (existing != null) {
             return existing;
         }
@@ -45,7 +76,27 @@ public final class MeshResidencyPool {
 
     @Nullable
     public BackendGeometryBinding getIfPresent(VertexBufferKey key) {
-        return key == null ? null : installedBindings.get(MeshResidencyKey.from(key));
+        return key == null ? null : touch(installedBindings.get(MeshResidencyKey.from(key)));
+    }
+
+    /**
+     * Installed binding for {@code key} without refreshing its last use or
+     * counting a lookup, for callers that only inspect residency.
+     */
+    @Nullable
+    public BackendGeometryBinding peek(VertexBufferKey key) {
+        if (key == null) {
+            return null;
+        }
+        ResidencyEntry entry = installedBindings.get(MeshResidencyKey.from(key));
+        return entry != null ? entry.binding : null;
+    }
+
+    /**
+     * Residency check that neither refreshes the binding's last use nor counts as a lookup.
+     */
+    public boolean isResident(VertexBufferKey key) {
+        return key != null && installedBindings.containsKey(MeshResidencyKey.from(key));
     }
 
     public void planMaterialization(VertexBufferKey key, @Nullable BackendGeometryBinding sourceProvider) {
@@ -79,9 +130,11 @@ public final class MeshResidencyPool {
             return;
         }
         MeshResidencyKey residencyKey = MeshResidencyKey.from(key);
-        BackendGeometryBinding previous = installedBindings.put(residencyKey, geometryBinding);
-        if (previous != null && previous != geometryBinding) {
-            previous.dispose();
+        ResidencyEntry previous = installedBindings.put(residencyKey, new ResidencyEntry(geometryBinding, currentFrame));
+        if (previous == null) {
+            missCount.incrementAndGet();
+        } else if (previous.binding != geometryBinding) {
+            previous.binding.dispose();
         }
     }
 
@@ -89,16 +142,74 @@ public final class MeshResidencyPool {
         if (key == null) {
             return;
         }
-        BackendGeometryBinding binding = installedBindings.remove(MeshResidencyKey.from(key));
-        if (binding != null) {
-            binding.dispose();
+        ResidencyEntry entry = installedBindings.remove(MeshResidencyKey.from(key));
+        if (entry != null) {
+            entry.binding.dispose();
         }
     }
 
     public void clearAll() {
-        installedBindings.values().forEach(BackendGeometryBinding::dispose);
+        installedBindings.values().forEach(entry -> entry.binding.dispose());
         installedBindings.clear();
         pendingMaterialization.clear();
+        residentBytes = 0L;
+        memoryLease.update(0L, 0L);
+    }
+
+    /**
+     * Advance the residency frame, refresh per-binding sizes and evict cold
+     * bindings while the geometry domain exceeds its budget. Must run on the
+     * thread that may dispose backend geometry.
+     *
+     * @return the number of bindings evicted
+     */
+    public int beginFrame() {
+        long frame = ++currentFrame;
+        long totalBytes = 0L;
+        for (ResidencyEntry entry : installedBindings.values()) {
+            entry.sizeBytes = Math.max(0L, entry.binding.residentBytes());
+            totalBytes += entry.sizeBytes;
+        }
+        updateResidentBytes(totalBytes);
+
+        UnifiedMemoryFabric fabric = UnifiedMemoryFabric.get();
+        MemoryBudget budget = fabric.budget(MemoryDomain.GPU_GEOMETRY_ARENA);
+        if (!budget.bounded()) {
+            return 0;
+        }
+        long excessBytes = fabric.reservedBytes(MemoryDomain.GPU_GEOMETRY_ARENA) - budget.limitBytes();
+        if (excessBytes <= 0L) {
+            return 0;
+        }
+
+        List<Map.Entry<MeshResidencyKey, ResidencyEntry>> candidates = new ArrayList<>();
+        for (Map.Entry<MeshResidencyKey, ResidencyEntry> entry : installedBindings.entrySet()) {
+            ResidencyEntry residency = entry.getValue();
+            if (residency.sizeBytes > 0L && frame - residency.lastUseFrame >= MIN_EVICTION_AGE_FRAMES) {
+                candidates.add(entry);
+            }
+        }
+        candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastUseFrame));
+
+        int evicted = 0;
+        for (Map.Entry<MeshResidencyKey, ResidencyEntry> candidate : candidates) {
+            if (excessBytes <= 0L) {
+                break;
+            }
+            ResidencyEntry residency = candidate.getValue();
+            if (!installedBindings.remove(candidate.getKey(), residency)) {
+                continue;
+            }
+            residency.binding.dispose();
+            excessBytes -= residency.sizeBytes;
+            totalBytes -= residency.sizeBytes;
+            evicted++;
+        }
+        if (evicted > 0) {
+            evictionCount.addAndGet(evicted);
+            updateResidentBytes(totalBytes);
+        }
+        return evicted;
     }
 
     public int installedBindingCount() {
@@ -109,16 +220,75 @@ public final class MeshResidencyPool {
         return pendingMaterialization.size();
     }
 
+    /**
+     * Bytes owned by installed bindings as of the last {@link #beginFrame()},
+     * plus any bytes reported through {@link #bindBackendResidentBytes}.
+     */
+    public long residentBytes() {
+        return residentBytes + backendResidentBytes();
+    }
+
+    /**
+     * Report mesh geometry the backend keeps outside of per-binding buffers.
+     * The supplier is sampled on demand; it is not part of this pool's memory
+     * lease because the backend's own arenas already account for it.
+     */
+    public void bindBackendResidentBytes(@Nullable LongSupplier residentBytesSupplier) {
+        this.backendResidentBytes = residentBytesSupplier;
+    }
+
+    /**
+     * Lookups served by an installed binding.
+     */
+    public long hitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Bindings that had to be materialized because none was resident.
+     */
+    public long missCount() {
+        return missCount.get();
+    }
+
+    public long evictionCount() {
+        return evictionCount.get();
+    }
+
     public String debugName() {
         return debugName;
     }
 
     public String statsLine() {
         return String.format(
-                "%s: %d installed bindings, %d pending requests",
+                "%s: %d installed bindings (%d KiB), %d pending requests, %d hits, %d misses, %d evictions",
                 debugName,
                 installedBindings.size(),
-                pendingMaterialization.size());
+                residentBytes() / 1024L,
+                pendingMaterialization.size(),
+                hitCount.get(),
+                missCount.get(),
+                evictionCount.get());
+    }
+
+    @Nullable
+    private BackendGeometryBinding touch(@Nullable ResidencyEntry entry) {
+        if (entry == null) {
+            return null;
+        }
+        entry.lastUseFrame = currentFrame;
+        hitCount.incrementAndGet();
+        return entry.binding;
+    }
+
+    private long backendResidentBytes() {
+        LongSupplier supplier = backendResidentBytes;
+        return supplier != null ? Math.max(0L, supplier.getAsLong()) : 0L;
+    }
+
+    private void updateResidentBytes(long totalBytes) {
+        residentBytes = totalBytes;
+        memoryLease.update(totalBytes, totalBytes);
     }
 
     public record PendingResidencyRequest(
@@ -133,4 +303,15 @@ public final class MeshResidencyPool {
             return key.vertexBufferKey();
         }
     }
+
+    private static final class ResidencyEntry {
+        private final BackendGeometryBinding binding;
+        private volatile long lastUseFrame;
+        private long sizeBytes;
+
+        private ResidencyEntry(BackendGeometryBinding binding, long lastUseFrame) {
+            this.binding = binding;
+            this.lastUseFrame = lastUseFrame;
+        }
+    }
 }
@@ -0,0 +1,252 @@
+package rogo.sketch.core.backend;
+
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrent use of the {@link BufferedResourceSet} CAS state machine:
+ * claimers, promoters, readers and recreation racing on one set.
+ */
+class BufferedResourceSetStressTest {
+    private static final int THREADS = 4;
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    void concurrentClaimsHandOutEveryEpochExactlyOnce() throws InterruptedException {
+        BufferedResourceSet<Slot> set = newSet(3, new AtomicInteger());
+        long[][] claimed = new long[THREADS][ITERATIONS / THREADS];
+
+        runConcurrently(THREADS, worker -> {
+            long[] mine = claimed[worker];
+            for (int i = 0; i < mine.length; i++) {
+                mine[i] = set.claimNextEpoch().value();
+            }
+        });
+
+        boolean[] seen = new boolean[ITERATIONS + 1];
+        for (long[] perThread : claimed) {
+            long previous = 0L;
+            for (long epoch : perThread) {
+                assertTrue(epoch > previous, "claims on one thread must increase");
+                assertFalse(seen[(int) epoch], "epoch " + epoch + " was claimed twice");
+                seen[(int) epoch] = true;
+                previous = epoch;
+            }
+        }
+        for (int epoch = 1; epoch <= ITERATIONS; epoch++) {
+            assertTrue(seen[epoch], "epoch " + epoch + " was never claimed");
+        }
+        assertEquals(ITERATIONS + 1L, set.nextEpoch().value());
+    }
+
+    @Test
+    void concurrentPromotesOnlyMoveThePublishedEpochForward() throws InterruptedException {
+        BufferedResourceSet<Slot> set = newSet(3, new AtomicInteger());
+        AtomicLong successes = new AtomicLong();
+        AtomicLong regressions = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        Thread observer = new Thread(() -> {
+            long last = 0L;
+            while (running.get()) {
+                long published = set.publishedEpoch().value();
+                if (published < last) {
+                    regressions.incrementAndGet();
+                }
+                last = published;
+            }
+        });
+        observer.start();
+        runConcurrently(THREADS, worker -> {
+            for (int i = 0; i < ITERATIONS / THREADS; i++) {
+                if (set.promote(set.claimNextEpoch())) {
+                    successes.incrementAndGet();
+                }
+            }
+        });
+        running.set(false);
+        observer.join();
+
+        assertEquals(0L, regressions.get(), "published epoch moved backwards");
+        assertEquals(ITERATIONS, set.publishedEpoch().value(), "the newest claim must end up published");
+        assertTrue(successes.get() >= 1L && successes.get() <= ITERATIONS);
+        assertFalse(set.promote(new ResourceEpoch(ITERATIONS)), "an already published epoch must be rejected");
+        assertNotSame(set.readResource(), set.writeResource(), "read and write slots must differ");
+    }
+
+    @Test
+    void publishedSlotHoldsTheEpochItWasPublishedWith() throws InterruptedException {
+        // One producer stamps the write slot with its claimed epoch and then
+        // promotes; readers check that a view which is still current points at
+        // a slot stamped with exactly that view's epoch.
+        BufferedResourceSet<Slot> set = newSet(3, new AtomicInteger());
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong tornReads = new AtomicLong();
+        AtomicLong checkedReads = new AtomicLong();
+        CountDownLatch started = new CountDownLatch(THREADS);
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < THREADS; r++) {
+            Thread reader = new Thread(() -> {
+                started.countDown();
+                while (running.get()) {
+                    BufferedResourceView<Slot> view = set.readView();
+                    if (view.epoch().value() == 0L) {
+                        continue;
+                    }
+                    long stamp = view.resource().stamp;
+                    if (set.readView() == view) {
+                        checkedReads.incrementAndGet();
+                        if (stamp != view.epoch().value()) {
+                            tornReads.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        started.await();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            Slot target = set.writeResource();
+            ResourceEpoch epoch = set.claimNextEpoch();
+            target.stamp = epoch.value();
+            assertTrue(set.promote(epoch));
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertEquals(0L, tornReads.get(), "a published view pointed at a slot being written");
+        assertTrue(checkedReads.get() > 0L);
+    }
+
+    @Test
+    void recreateDuringReadsDisposesEachRetiredSlotOnce() throws InterruptedException {
+        AtomicInteger generation = new AtomicInteger();
+        BufferedResourceSet<Slot> set = newSet(3, generation);
+        List<Slot> created = Collections.synchronizedList(new ArrayList<>());
+        AtomicReference<String> failure = new AtomicReference<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        int generations = 5_000;
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < THREADS; r++) {
+            Thread reader = new Thread(() -> {
+                int lastGeneration = -1;
+                while (running.get()) {
+                    Slot read = set.readResource();
+                    if (read == null) {
+                        continue;
+                    }
+                    if (read.generation < lastGeneration) {
+                        failure.compareAndSet(null, "reader went back from generation "
+                                + lastGeneration + " to " + read.generation);
+                    }
+                    lastGeneration = read.generation;
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        Thread promoter = new Thread(() -> {
+            while (running.get()) {
+                set.promote(set.claimNextEpoch());
+            }
+        });
+        promoter.start();
+        for (int g = 1; g <= generations; g++) {
+            int current = g;
+            generation.set(current);
+            set.recreate(index -> {
+                Slot slot = new Slot(current);
+                created.add(slot);
+                return slot;
+            });
+        }
+        running.set(false);
+        promoter.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get(), failure.get());
+        for (Slot slot : created) {
+            int expected = slot.generation == generations ? 0 : 1;
+            assertEquals(expected, slot.disposals.get(), "generation " + slot.generation + " disposal count");
+        }
+        set.close();
+        for (Slot slot : created) {
+            assertEquals(1, slot.disposals.get());
+        }
+    }
+
+    private static BufferedResourceSet<Slot> newSet(int ringSize, AtomicInteger generation) {
+        BufferedResourceDescriptor descriptor = new BufferedResourceDescriptor(
+                KeyId.of("test:buffered"), BufferingMode.RING_N, ringSize, "stress");
+        return BufferedResourceSet.create(descriptor, index -> new Slot(generation.get()), Slot::dispose);
+    }
+
+    private static void runConcurrently(int threads, WorkerBody body) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Map<Integer, Throwable> failures = new ConcurrentHashMap<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    body.run(worker);
+                } catch (Throwable e) {
+                    failures.put(worker, e);
+                }
+            });
+            thread.start();
+            workers.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty(), () -> "worker failed: " + failures);
+    }
+
+    @FunctionalInterface
+    private interface WorkerBody {
+        void run(int worker) throws Exception;
+    }
+
+    private static final class Slot {
+        private final int generation;
+        private final AtomicInteger disposals = new AtomicInteger();
+        private volatile long stamp;
+
+        private Slot(int generation) {
+            this.generation = generation;
+        }
+
+        private void dispose() {
+            disposals.incrementAndGet();
+        }
+    }
+}
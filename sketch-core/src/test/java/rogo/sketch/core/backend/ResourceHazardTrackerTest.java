@@ -0,0 +1,237 @@
+package rogo.sketch.core.backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.data.PrimitiveType;
+import rogo.sketch.core.packet.ClearPacket;
+import rogo.sketch.core.packet.CopyTexturePacket;
+import rogo.sketch.core.packet.DispatchPacket;
+import rogo.sketch.core.packet.DrawPacket;
+import rogo.sketch.core.packet.DrawPlan;
+import rogo.sketch.core.packet.RenderPacket;
+import rogo.sketch.core.packet.ResourceBindingPlan;
+import rogo.sketch.core.packet.ResourceBindingStamp;
+import rogo.sketch.core.packet.TransferPlanKey;
+import rogo.sketch.core.pipeline.PipelineType;
+import rogo.sketch.core.resource.ResourceAccess;
+import rogo.sketch.core.resource.ResourceTypes;
+import rogo.sketch.core.resource.ResourceViewRole;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static rogo.sketch.core.backend.ResourceHazardTracker.ACCESS_INDIRECT_COMMAND_READ;
+import static rogo.sketch.core.backend.ResourceHazardTracker.ACCESS_SHADER_READ;
+import static rogo.sketch.core.backend.ResourceHazardTracker.ACCESS_SHADER_WRITE;
+import static rogo.sketch.core.backend.ResourceHazardTracker.ACCESS_TRANSFER_READ;
+import static rogo.sketch.core.backend.ResourceHazardTracker.ACCESS_TRANSFER_WRITE;
+import static rogo.sketch.core.backend.ResourceHazardTracker.ACCESS_UNIFORM_READ;
+import static rogo.sketch.core.backend.ResourceHazardTracker.STAGE_COMPUTE_SHADER;
+import static rogo.sketch.core.backend.ResourceHazardTracker.STAGE_DRAW_INDIRECT;
+import static rogo.sketch.core.backend.ResourceHazardTracker.STAGE_FRAGMENT_SHADER;
+import static rogo.sketch.core.backend.ResourceHazardTracker.STAGE_TRANSFER;
+import static rogo.sketch.core.backend.ResourceHazardTracker.STAGE_VERTEX_SHADER;
+
+/**
+ * Barrier and hazard classification of {@link ResourceHazardTracker} for
+ * dispatch, draw and copy packet sequences.
+ */
+class ResourceHazardTrackerTest {
+    private static final int GRAPHICS = STAGE_VERTEX_SHADER | STAGE_FRAGMENT_SHADER;
+    private static final KeyId PARTICLES = KeyId.of("test", "particles");
+    private static final KeyId COUNTS = KeyId.of("test", "counts");
+    private static final KeyId HDR = KeyId.of("test", "hdr");
+    private static final KeyId HISTORY = KeyId.of("test", "history");
+    private static final KeyId CAMERA = KeyId.of("test", "camera");
+
+    private ResourceHazardTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ResourceHazardTracker();
+    }
+
+    @Test
+    void firstAccessAndReadAfterReadNeedNoBarrier() {
+        assertSame(ResourceHazardTracker.Barrier.NONE, tracker.beforePacket(draw(sampled(HDR), uniform(CAMERA))));
+        assertSame(ResourceHazardTracker.Barrier.NONE, tracker.beforePacket(dispatch(storageBuffer(PARTICLES, ResourceAccess.READ))));
+        assertSame(ResourceHazardTracker.Barrier.NONE, tracker.beforePacket(draw(sampled(HDR))));
+    }
+
+    @Test
+    void readAfterComputeWriteIsAMemoryBarrierOnTheBuffer() {
+        tracker.beforePacket(dispatch(storageBuffer(PARTICLES, ResourceAccess.WRITE)));
+
+        ResourceHazardTracker.Barrier barrier = tracker.beforePacket(draw(storageBuffer(PARTICLES, ResourceAccess.READ)));
+
+        assertEquals(STAGE_COMPUTE_SHADER, barrier.srcStages());
+        assertEquals(ACCESS_SHADER_WRITE, barrier.srcAccess());
+        assertEquals(GRAPHICS, barrier.dstStages());
+        assertEquals(ACCESS_SHADER_READ, barrier.dstAccess());
+        assertTrue(barrier.bufferHazard());
+        assertFalse(barrier.imageHazard());
+    }
+
+    @Test
+    void writeAfterWriteMakesThePreviousWriteVisible() {
+        tracker.beforePacket(dispatch(storageImage(HDR, ResourceAccess.WRITE)));
+
+        ResourceHazardTracker.Barrier barrier = tracker.beforePacket(dispatch(storageImage(HDR, ResourceAccess.WRITE)));
+
+        assertEquals(STAGE_COMPUTE_SHADER, barrier.srcStages());
+        assertEquals(ACCESS_SHADER_WRITE, barrier.srcAccess());
+        assertEquals(STAGE_COMPUTE_SHADER, barrier.dstStages());
+        assertEquals(ACCESS_SHADER_WRITE, barrier.dstAccess());
+        assertTrue(barrier.imageHazard());
+        assertFalse(barrier.bufferHazard());
+    }
+
+    @Test
+    void writeAfterReadIsAnExecutionDependencyOnly() {
+        tracker.beforePacket(draw(storageBuffer(PARTICLES, ResourceAccess.READ)));
+
+        ResourceHazardTracker.Barrier barrier = tracker.beforePacket(dispatch(storageBuffer(PARTICLES, ResourceAccess.WRITE)));
+
+        assertEquals(GRAPHICS, barrier.srcStages());
+        assertEquals(0, barrier.srcAccess());
+        assertEquals(STAGE_COMPUTE_SHADER, barrier.dstStages());
+        assertEquals(0, barrier.dstAccess());
+        assertTrue(barrier.bufferHazard());
+    }
+
+    @Test
+    void aBarrierCoversLaterReadersInTheSameStages() {
+        tracker.beforePacket(dispatch(storageBuffer(PARTICLES, ResourceAccess.WRITE)));
+        assertFalse(tracker.beforePacket(draw(storageBuffer(PARTICLES, ResourceAccess.READ))).isEmpty());
+
+        // Same stages were already made visible by the first barrier
+        assertTrue(tracker.beforePacket(draw(storageBuffer(PARTICLES, ResourceAccess.READ))).isEmpty());
+        // Compute did not take part in it
+        ResourceHazardTracker.Barrier computeRead = tracker.beforePacket(dispatch(storageBuffer(PARTICLES, ResourceAccess.READ)));
+        assertEquals(STAGE_COMPUTE_SHADER, computeRead.dstStages());
+        assertEquals(STAGE_COMPUTE_SHADER, computeRead.srcStages());
+    }
+
+    @Test
+    void writeResetsReadsSoTheNextWriteIsWriteAfterWrite() {
+        tracker.beforePacket(draw(storageBuffer(PARTICLES, ResourceAccess.READ)));
+        assertFalse(tracker.beforePacket(dispatch(storageBuffer(PARTICLES, ResourceAccess.WRITE))).isEmpty());
+
+        // The write clears the read set, so the next write orders against it as WAW
+        ResourceHazardTracker.Barrier waw = tracker.beforePacket(dispatch(storageBuffer(PARTICLES, ResourceAccess.WRITE)));
+        assertEquals(ACCESS_SHADER_WRITE, waw.srcAccess());
+    }
+
+    @Test
+    void uniformReadsAfterTransferWritesUseUniformAccess() {
+        tracker.beforePacket(copy(HISTORY, HDR));
+
+        ResourceHazardTracker.Barrier barrier = tracker.beforePacket(dispatch(uniform(HDR)));
+
+        assertEquals(STAGE_TRANSFER, barrier.srcStages());
+        assertEquals(ACCESS_TRANSFER_WRITE, barrier.srcAccess());
+        assertEquals(ACCESS_UNIFORM_READ, barrier.dstAccess());
+    }
+
+    @Test
+    void copyAfterShaderWriteOrdersTransferAgainstCompute() {
+        tracker.beforePacket(dispatch(storageImage(HDR, ResourceAccess.WRITE)));
+
+        ResourceHazardTracker.Barrier barrier = tracker.beforePacket(copy(HDR, HISTORY));
+
+        assertEquals(STAGE_COMPUTE_SHADER, barrier.srcStages());
+        assertEquals(STAGE_TRANSFER, barrier.dstStages());
+        assertEquals(ACCESS_TRANSFER_READ, barrier.dstAccess());
+        assertTrue(barrier.imageHazard());
+    }
+
+    @Test
+    void readWriteBindingOfOneResourceDoesNotHazardAgainstItself() {
+        ResourceHazardTracker.Barrier barrier = tracker.beforePacket(dispatch(
+                storageBuffer(PARTICLES, ResourceAccess.READ),
+                storageBuffer(PARTICLES, ResourceAccess.WRITE)));
+
+        assertTrue(barrier.isEmpty());
+        ResourceHazardTracker.Barrier next = tracker.beforePacket(draw(storageBuffer(PARTICLES, ResourceAccess.READ)));
+        assertEquals(ACCESS_SHADER_WRITE, next.srcAccess());
+    }
+
+    @Test
+    void multiDrawIndirectWaitsForPendingBufferWrites() {
+        tracker.beforePacket(dispatch(storageBuffer(COUNTS, ResourceAccess.WRITE), storageImage(HDR, ResourceAccess.WRITE)));
+
+        ResourceHazardTracker.Barrier barrier = tracker.beforePacket(indirectDraw());
+
+        assertEquals(STAGE_COMPUTE_SHADER, barrier.srcStages());
+        assertEquals(STAGE_DRAW_INDIRECT, barrier.dstStages() & STAGE_DRAW_INDIRECT);
+        assertEquals(ACCESS_INDIRECT_COMMAND_READ, barrier.dstAccess());
+        assertTrue(barrier.bufferHazard());
+        assertFalse(barrier.imageHazard(), "indirect reads only cover buffers");
+        assertTrue(tracker.beforePacket(indirectDraw()).isEmpty());
+    }
+
+    @Test
+    void passesWithoutShaderStagesAndResetAreIgnored() {
+        tracker.beforePacket(dispatch(storageBuffer(PARTICLES, ResourceAccess.WRITE)));
+        assertTrue(tracker.beforePacket(clear()).isEmpty());
+
+        tracker.reset();
+
+        assertTrue(tracker.beforePacket(draw(storageBuffer(PARTICLES, ResourceAccess.READ))).isEmpty());
+        assertSame(ResourceHazardTracker.Barrier.NONE, tracker.beforePacket(null));
+    }
+
+    private static ResourceBindingPlan.BindingEntry sampled(KeyId texture) {
+        return new ResourceBindingPlan.BindingEntry(ResourceTypes.TEXTURE, KeyId.of("u_Sampled"), texture,
+                0, ResourceViewRole.SAMPLED_TEXTURE, ResourceAccess.READ);
+    }
+
+    private static ResourceBindingPlan.BindingEntry uniform(KeyId buffer) {
+        return new ResourceBindingPlan.BindingEntry(ResourceTypes.UNIFORM_BUFFER, KeyId.of("u_Block"), buffer,
+                1, ResourceViewRole.UNIFORM_BUFFER, ResourceAccess.READ);
+    }
+
+    private static ResourceBindingPlan.BindingEntry storageBuffer(KeyId buffer, ResourceAccess access) {
+        return new ResourceBindingPlan.BindingEntry(ResourceTypes.STORAGE_BUFFER, KeyId.of("u_Storage"), buffer,
+                2, ResourceViewRole.STORAGE_BUFFER, access);
+    }
+
+    private static ResourceBindingPlan.BindingEntry storageImage(KeyId image, ResourceAccess access) {
+        return new ResourceBindingPlan.BindingEntry(ResourceTypes.IMAGE, KeyId.of("u_Image"), image,
+                3, ResourceViewRole.STORAGE_IMAGE, access);
+    }
+
+    private static ResourceBindingPlan plan(ResourceBindingPlan.BindingEntry... entries) {
+        return new ResourceBindingPlan(KeyId.of("test", "layout"), entries, entries.length, entries.length,
+                ResourceBindingStamp.NONE, null);
+    }
+
+    private static RenderPacket dispatch(ResourceBindingPlan.BindingEntry... entries) {
+        return new DispatchPacket(null, PipelineType.COMPUTE, null, plan(entries), null, null, List.of(),
+                1, 1, 1, null, null);
+    }
+
+    private static RenderPacket draw(ResourceBindingPlan.BindingEntry... entries) {
+        return new DrawPacket(null, PipelineType.RASTERIZATION, null, plan(entries), null, null, List.of(), null,
+                DrawPlan.directNonIndexed(PrimitiveType.TRIANGLES, 3, 0, 1, 0));
+    }
+
+    private static RenderPacket indirectDraw() {
+        return new DrawPacket(null, PipelineType.RASTERIZATION, null, ResourceBindingPlan.empty(), null, null,
+                List.of(), null, DrawPlan.multiDrawIndirect(PrimitiveType.TRIANGLES, true, 16, 0L, 20));
+    }
+
+    private static RenderPacket copy(KeyId source, KeyId destination) {
+        return new CopyTexturePacket(null, PipelineType.FUNCTION, TransferPlanKey.forTexture(destination),
+                ResourceBindingPlan.empty(), null, List.of(), source, destination, 64, 64, false);
+    }
+
+    private static RenderPacket clear() {
+        return new ClearPacket(null, PipelineType.FUNCTION, TransferPlanKey.of(null), ResourceBindingPlan.empty(),
+                null, List.of(), KeyId.of("test", "target"), List.of(), true, false, new float[4], 1.0f, null, false);
+    }
+}
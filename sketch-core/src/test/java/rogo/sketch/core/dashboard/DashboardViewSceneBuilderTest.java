@@ -0,0 +1,197 @@
+package rogo.sketch.core.dashboard;
+
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.debugger.DashboardController;
+import rogo.sketch.core.debugger.DashboardDiagnosticLine;
+import rogo.sketch.core.debugger.DashboardTreeNode;
+import rogo.sketch.core.debugger.DashboardWorkspaceProfiles;
+import rogo.sketch.core.pipeline.module.diagnostic.DiagnosticLevel;
+import rogo.sketch.core.ui.control.ControlSpec;
+import rogo.sketch.core.ui.frame.UiFrame;
+import rogo.sketch.core.ui.text.UiText;
+import rogo.sketch.core.ui.text.UiTextMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A long-lived {@link DashboardViewSceneBuilder}, whose text layout cache
+ * carries over between frames, against a new builder per frame.
+ */
+class DashboardViewSceneBuilderTest {
+    private static final int SCREEN_HEIGHT = 480;
+
+    @Test
+    void retainedBuilderMatchesFreshBuilderPrimitiveForPrimitive() {
+        Random random = new Random(48L);
+        CountingMetrics metrics = new CountingMetrics();
+        DashboardViewSceneBuilder retained = new DashboardViewSceneBuilder(DashboardWorkspaceProfiles.dashboardDefault(), metrics);
+        DashboardController controller = new DashboardController();
+        List<DashboardDiagnosticLine> diagnostics = new ArrayList<>();
+        double[] values = new double[12];
+        long retainedCalls = 0L;
+        long freshCalls = 0L;
+
+        for (int frame = 0; frame < 300; frame++) {
+            int op = random.nextInt(12);
+            switch (op) {
+                case 0, 1, 2, 3 -> values[random.nextInt(values.length)] = random.nextDouble() * 1000.0D;
+                case 4 -> diagnostics.add(new DashboardDiagnosticLine(
+                        diagnostics.size() + 1,
+                        "12:00:0" + (frame % 10),
+                        random.nextBoolean() ? DiagnosticLevel.WARN : DiagnosticLevel.INFO,
+                        "module" + random.nextInt(3),
+                        "render",
+                        "something happened in a fairly long diagnostic message number " + frame,
+                        "",
+                        "",
+                        "",
+                        1));
+                case 5 -> controller.toggleExpanded("group" + random.nextInt(3));
+                case 6 -> controller.setMetricsScroll(random.nextInt(300));
+                case 7 -> controller.setSettingsScroll(random.nextInt(200));
+                case 8 -> controller.cycleMetricsLayoutMode();
+                case 9 -> controller.toggleMemorySectionExpanded();
+                case 10 -> controller.toggleDiagnosticFilter(DiagnosticLevel.values()[random.nextInt(DiagnosticLevel.values().length)]);
+                default -> {
+                    // Unchanged frame
+                }
+            }
+            DashboardViewSnapshot snapshot = snapshot(values, diagnostics);
+            int screenWidth = frame % 50 < 25 ? 854 : 1280;
+
+            metrics.calls = 0L;
+            UiFrame retainedFrame = retained.build(snapshot, controller, screenWidth, SCREEN_HEIGHT, 1.0f);
+            retainedCalls += metrics.calls;
+            metrics.calls = 0L;
+            UiFrame freshFrame = new DashboardViewSceneBuilder(DashboardWorkspaceProfiles.dashboardDefault(), metrics)
+                    .build(snapshot, controller, screenWidth, SCREEN_HEIGHT, 1.0f);
+            freshCalls += metrics.calls;
+
+            assertEquals(freshFrame.primitives(), retainedFrame.primitives(), "frame " + frame + " op " + op);
+            assertEquals(freshFrame.hitRegions(), retainedFrame.hitRegions(), "frame " + frame + " op " + op);
+        }
+        assertTrue(retainedCalls * 5 < freshCalls, "text metrics calls: retained " + retainedCalls + ", fresh " + freshCalls);
+    }
+
+    private static DashboardViewSnapshot snapshot(double[] values, List<DashboardDiagnosticLine> diagnostics) {
+        List<DashboardSummaryMetric> summary = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            summary.add(new DashboardSummaryMetric(
+                    "m" + i,
+                    "metric.label." + i,
+                    String.format(Locale.ROOT, "%.2f", values[i]),
+                    "ms",
+                    0xFF33AAFF,
+                    "metric.detail." + i));
+        }
+        List<DashboardTreeNode> settings = new ArrayList<>();
+        for (int group = 0; group < 3; group++) {
+            List<DashboardTreeNode> children = new ArrayList<>();
+            for (int control = 0; control < 5; control++) {
+                children.add(DashboardTreeNode.control(
+                        "group" + group + ".c" + control,
+                        "setting.label." + group + "." + control,
+                        "summary of setting",
+                        "detail text for setting",
+                        true,
+                        true,
+                        null,
+                        "ctl" + group + "_" + control,
+                        null,
+                        List.of(),
+                        null,
+                        ControlSpec.toggle(),
+                        (control + group) % 2 == 0,
+                        List.of()));
+            }
+            settings.add(DashboardTreeNode.group("group" + group, "group.label." + group, "group summary", null, children));
+        }
+        List<DashboardRatioMetric> ratios = List.of(new DashboardRatioMetric(
+                "r0", "ratio.entities", (int) values[0], 500, 500 + (int) values[0], values[0] / (500 + values[0]), 0xFF22CC88, "ratio.detail"));
+        List<Double> history = new ArrayList<>();
+        for (double value : values) {
+            history.add(value);
+        }
+        int warnings = (int) diagnostics.stream().filter(line -> line.level() == DiagnosticLevel.WARN).count();
+        return new DashboardViewSnapshot(
+                settings,
+                List.of(),
+                summary,
+                DashboardMemorySection.empty(),
+                null,
+                ratios,
+                List.of(),
+                history,
+                List.of(),
+                diagnostics,
+                diagnostics.isEmpty() ? "" : diagnostics.get(diagnostics.size() - 1).message(),
+                warnings,
+                0,
+                warnings,
+                diagnostics.isEmpty() ? 0L : diagnostics.size());
+    }
+
+    /**
+     * Proportional glyph widths and word wrapping, counting every call.
+     */
+    private static final class CountingMetrics implements UiTextMetrics {
+        private long calls;
+
+        @Override
+        public String resolve(UiText text) {
+            calls++;
+            return text.value();
+        }
+
+        @Override
+        public int width(String resolvedText) {
+            calls++;
+            int width = 0;
+            for (int i = 0; i < resolvedText.length(); i++) {
+                char c = resolvedText.charAt(i);
+                width += c == 'i' || c == 'l' ? 2 : c == 'm' || c == 'w' ? 8 : 6;
+            }
+            return width;
+        }
+
+        @Override
+        public int lineHeight() {
+            return 9;
+        }
+
+        @Override
+        public String clipWithEllipsis(UiText text, int maxWidth) {
+            String resolved = resolve(text);
+            if (width(resolved) <= maxWidth) {
+                return resolved;
+            }
+            while (!resolved.isEmpty() && width(resolved + "...") > maxWidth) {
+                resolved = resolved.substring(0, resolved.length() - 1);
+            }
+            return resolved + "...";
+        }
+
+        @Override
+        public List<String> wrap(UiText text, int maxWidth) {
+            List<String> lines = new ArrayList<>();
+            StringBuilder line = new StringBuilder();
+            for (String word : resolve(text).split(" ")) {
+                String candidate = line.length() == 0 ? word : line + " " + word;
+                if (line.length() > 0 && width(candidate) > maxWidth) {
+                    lines.add(line.toString());
+                    line = new StringBuilder(word);
+                } else {
+                    line = new StringBuilder(candidate);
+                }
+            }
+            lines.add(line.toString());
+            return lines;
+        }
+    }
+}
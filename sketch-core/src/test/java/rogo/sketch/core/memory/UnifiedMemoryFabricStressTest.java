@@ -0,0 +1,175 @@
+package rogo.sketch.core.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Allocator threads updating, sampling and closing {@link MemoryLease}s while
+ * a dashboard thread polls {@link UnifiedMemoryFabric#snapshot()}; totals must
+ * be exact once the allocators quiesce.
+ */
+class UnifiedMemoryFabricStressTest {
+    private static final MemoryDomain DOMAIN = MemoryDomain.FRAME_TRANSIENT;
+    private static final int THREADS = 4;
+    private static final int LEASES_PER_THREAD = 64;
+    private static final int ITERATIONS = 50_000;
+
+    private final UnifiedMemoryFabric fabric = UnifiedMemoryFabric.get();
+
+    @Test
+    void concurrentUpdatesAndClosesKeepDomainTotalsExact() throws InterruptedException {
+        long baseline = fabric.reservedBytes(DOMAIN);
+        MemoryLease[][] leases = new MemoryLease[THREADS][LEASES_PER_THREAD];
+        long[][] reserved = new long[THREADS][LEASES_PER_THREAD];
+        AtomicLong[][] sampled = new AtomicLong[THREADS][LEASES_PER_THREAD];
+        AtomicBoolean polling = new AtomicBoolean(true);
+        AtomicLong snapshots = new AtomicLong();
+        Thread poller = new Thread(() -> {
+            while (polling.get()) {
+                fabric.snapshot();
+                fabric.reservedBytes(DOMAIN);
+                snapshots.incrementAndGet();
+            }
+        });
+        poller.start();
+        try {
+            runConcurrently(THREADS, worker -> {
+                Random random = new Random(worker);
+                for (int i = 0; i < ITERATIONS; i++) {
+                    int slot = random.nextInt(LEASES_PER_THREAD);
+                    MemoryLease lease = leases[worker][slot];
+                    int action = random.nextInt(16);
+                    if (lease == null) {
+                        leases[worker][slot] = fabric.openLease(DOMAIN, "stress-" + worker + "-" + slot);
+                        reserved[worker][slot] = 0L;
+                        sampled[worker][slot] = null;
+                    } else if (action == 0) {
+                        lease.close();
+                        leases[worker][slot] = null;
+                    } else if (action == 1 && sampled[worker][slot] == null) {
+                        AtomicLong value = new AtomicLong(reserved[worker][slot]);
+                        sampled[worker][slot] = value;
+                        lease.bindSuppliers(value::get, () -> value.get() / 2L);
+                    } else if (sampled[worker][slot] != null) {
+                        // Supplier-backed leases change behind the fabric's back
+                        sampled[worker][slot].set(random.nextInt(1 << 20));
+                    } else {
+                        long bytes = random.nextInt(1 << 20);
+                        reserved[worker][slot] = bytes;
+                        lease.update(bytes, bytes / 2L, random.nextDouble());
+                    }
+                }
+            });
+        } finally {
+            polling.set(false);
+            poller.join();
+        }
+
+        long expected = 0L;
+        for (int worker = 0; worker < THREADS; worker++) {
+            for (int slot = 0; slot < LEASES_PER_THREAD; slot++) {
+                if (leases[worker][slot] != null) {
+                    expected += sampled[worker][slot] != null ? sampled[worker][slot].get() : reserved[worker][slot];
+                }
+            }
+        }
+        try {
+            assertTrue(snapshots.get() > 0L);
+            assertEquals(baseline + expected, fabric.reservedBytes(DOMAIN));
+            assertEquals(baseline + expected, domainSnapshot().reservedBytes());
+        } finally {
+            for (MemoryLease[] perThread : leases) {
+                for (MemoryLease lease : perThread) {
+                    if (lease != null) {
+                        lease.close();
+                    }
+                }
+            }
+        }
+        assertEquals(baseline, fabric.reservedBytes(DOMAIN));
+        assertEquals(baseline, domainSnapshot().reservedBytes());
+    }
+
+    @Test
+    void closeRacingSupplierBindingLeavesNothingSampled() throws Exception {
+        int rounds = 50_000;
+        AtomicLong samplesAfterClose = new AtomicLong();
+        AtomicBoolean allClosed = new AtomicBoolean();
+        MemoryLease[] current = {fabric.openLease(DOMAIN, "bind-close-race")};
+        // Each round binds and closes one fresh lease from two threads
+        CyclicBarrier barrier = new CyclicBarrier(2, () -> current[0] = fabric.openLease(DOMAIN, "bind-close-race"));
+
+        runConcurrently(2, worker -> {
+            for (int round = 0; round < rounds; round++) {
+                MemoryLease lease = current[0];
+                if (worker == 0) {
+                    lease.bindSuppliers(() -> {
+                        if (allClosed.get()) {
+                            samplesAfterClose.incrementAndGet();
+                        }
+                        return 4096L;
+                    }, () -> 1024L);
+                } else {
+                    lease.close();
+                }
+                barrier.await();
+            }
+        });
+        current[0].close();
+
+        allClosed.set(true);
+        fabric.reservedBytes(DOMAIN);
+        fabric.snapshot();
+        assertEquals(0L, samplesAfterClose.get(), "closed leases are still sampled");
+    }
+
+    private MemoryDomainSnapshot domainSnapshot() {
+        for (MemoryDomainSnapshot snapshot : fabric.snapshot().domains()) {
+            if (snapshot.domain() == DOMAIN) {
+                return snapshot;
+            }
+        }
+        throw new AssertionError("no snapshot for " + DOMAIN);
+    }
+
+    private static void runConcurrently(int threads, WorkerBody body) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Map<Integer, Throwable> failures = new ConcurrentHashMap<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    body.run(worker);
+                } catch (Throwable e) {
+                    failures.put(worker, e);
+                }
+            });
+            thread.start();
+            workers.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty(), () -> "worker failed: " + failures);
+    }
+
+    @FunctionalInterface
+    private interface WorkerBody {
+        void run(int worker) throws Exception;
+    }
+}
@@ -0,0 +1,214 @@
+package rogo.sketch.core.object.model;
+
+import org.joml.Matrix4f;
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.graphics.ecs.GraphicsBuiltinComponents;
+import rogo.sketch.core.model.MeshBone;
+import rogo.sketch.core.model.Skeleton;
+import rogo.sketch.core.model.SkeletonPose;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Skinning palettes solved by {@link AnimationPoseSystem} over baked
+ * {@link Skeleton}s, compared bone by bone with {@link MeshBone#getBoneMatrix()}
+ * on the source trees.
+ */
+class AnimationPoseSystemTest {
+    private static final float TOLERANCE = 1.0e-4f;
+
+    @Test
+    void bindPosePalettesMatchMeshBoneMatrices() {
+        Random random = new Random(44L);
+        AnimationPoseSystem system = new AnimationPoseSystem();
+        for (int tree = 0; tree < 100; tree++) {
+            List<MeshBone> bones = randomTree(random, 1 + random.nextInt(60));
+            Skeleton skeleton = Skeleton.fromBones(bones);
+            SkeletonPose pose = system.preparePose(skeleton, null);
+            system.solvePalettes(List.of(pose));
+
+            assertEquals(bones.size(), skeleton.boneCount());
+            assertParentFirst(skeleton);
+            assertPaletteMatches(skeleton, pose, bones, "tree " + tree);
+            system.beginFrame();
+        }
+    }
+
+    @Test
+    void posedPalettesMatchMeshBoneWithOverriddenLocals() {
+        Random random = new Random(45L);
+        AnimationPoseSystem system = new AnimationPoseSystem();
+        for (int tree = 0; tree < 100; tree++) {
+            List<MeshBone> bones = randomTree(random, 2 + random.nextInt(60));
+            Skeleton skeleton = Skeleton.fromBones(bones);
+            Map<KeyId, GraphicsBuiltinComponents.BonePose> bonePoses = new HashMap<>();
+            for (MeshBone bone : bones) {
+                if (random.nextBoolean()) {
+                    GraphicsBuiltinComponents.BonePose bonePose = randomBonePose(random);
+                    bonePoses.put(KeyId.of(bone.getName()), bonePose);
+                    bone.setLocalTransform(localMatrix(bonePose));
+                }
+            }
+            bonePoses.put(KeyId.of("not_a_bone"), randomBonePose(random));
+
+            SkeletonPose pose = system.preparePose(skeleton, new GraphicsBuiltinComponents.SkeletonPoseComponent(bonePoses, tree));
+            system.solvePalettes(List.of(pose));
+
+            assertPaletteMatches(skeleton, pose, bones, "tree " + tree);
+            system.beginFrame();
+        }
+    }
+
+    @Test
+    void batchedSolveMatchesMeshBoneAcrossManySkeletons() {
+        Random random = new Random(46L);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            AnimationPoseSystem system = new AnimationPoseSystem(pool);
+            List<List<MeshBone>> trees = new ArrayList<>();
+            List<SkeletonPose> poses = new ArrayList<>();
+            int totalBones = 0;
+            // Mixed sizes, well past one batch of bones
+            while (totalBones < 12_000) {
+                List<MeshBone> bones = randomTree(random, random.nextInt(8) == 0 ? 400 : 1 + random.nextInt(40));
+                trees.add(bones);
+                poses.add(system.preparePose(Skeleton.fromBones(bones), null));
+                totalBones += bones.size();
+            }
+            system.solvePalettes(poses);
+
+            for (int i = 0; i < poses.size(); i++) {
+                assertPaletteMatches(poses.get(i).skeleton(), poses.get(i), trees.get(i), "skeleton " + i);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void pooledPosesAreRecycledAndResetToBindPose() {
+        Random random = new Random(47L);
+        AnimationPoseSystem system = new AnimationPoseSystem();
+        List<MeshBone> bones = randomTree(random, 12);
+        Skeleton skeleton = Skeleton.fromBones(bones);
+        Map<KeyId, GraphicsBuiltinComponents.BonePose> bonePoses = new HashMap<>();
+        for (MeshBone bone : bones) {
+            bonePoses.put(KeyId.of(bone.getName()), randomBonePose(random));
+        }
+
+        SkeletonPose first = system.preparePose(skeleton, new GraphicsBuiltinComponents.SkeletonPoseComponent(bonePoses, 1L));
+        SkeletonPose second = system.preparePose(skeleton, null);
+        assertNotSame(first, second);
+        assertEquals(2L, system.posePool().allocatedCount());
+
+        system.beginFrame();
+        SkeletonPose reused = system.preparePose(skeleton, null);
+        SkeletonPose reusedAgain = system.preparePose(skeleton, null);
+        assertTrue(reused == first || reused == second);
+        assertTrue(reusedAgain == first || reusedAgain == second);
+        assertEquals(2L, system.posePool().allocatedCount());
+        assertEquals(2, system.posePool().leasedCount());
+
+        // The pose written last frame comes back in bind pose
+        system.solvePalettes(List.of(reused, reusedAgain));
+        assertPaletteMatches(skeleton, first, bones, "recycled");
+
+        system.beginFrame();
+        assertSame(skeleton, system.preparePose(skeleton, null).skeleton());
+        assertEquals(2L, system.posePool().allocatedCount());
+    }
+
+    /**
+     * A tree whose bone ids are shuffled against creation order, with random
+     * locals. Inverse bind poses invert the bind globals, skewed for about
+     * half the bones so bind-pose palettes are not all identity.
+     */
+    private static List<MeshBone> randomTree(Random random, int count) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(i * 3 + 1);
+        }
+        Collections.shuffle(ids, random);
+        List<MeshBone> bones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MeshBone bone = new MeshBone("bone_" + ids.get(i), ids.get(i), localMatrix(randomBonePose(random)), new Matrix4f());
+            if (i > 0 && random.nextInt(6) != 0) {
+                bone.setParent(bones.get(random.nextInt(i)));
+            }
+            bones.add(bone);
+        }
+        List<MeshBone> withInverse = new ArrayList<>(count);
+        Map<MeshBone, MeshBone> copies = new HashMap<>();
+        for (MeshBone bone : bones) {
+            Matrix4f inverseBindPose = bone.getGlobalTransform().invert();
+            if (random.nextBoolean()) {
+                inverseBindPose.mul(localMatrix(randomBonePose(random)));
+            }
+            MeshBone copy = new MeshBone(bone.getName(), bone.getId(), bone.getLocalTransform(), inverseBindPose);
+            if (bone.getParent() != null) {
+                copy.setParent(copies.get(bone.getParent()));
+            }
+            copies.put(bone, copy);
+            withInverse.add(copy);
+        }
+        return withInverse;
+    }
+
+    private static GraphicsBuiltinComponents.BonePose randomBonePose(Random random) {
+        return new GraphicsBuiltinComponents.BonePose(
+                (random.nextFloat() - 0.5f) * 2.0f,
+                (random.nextFloat() - 0.5f) * 2.0f,
+                (random.nextFloat() - 0.5f) * 2.0f,
+                (random.nextFloat() - 0.5f) * 90.0f,
+                (random.nextFloat() - 0.5f) * 90.0f,
+                (random.nextFloat() - 0.5f) * 90.0f,
+                0.8f + random.nextFloat() * 0.4f,
+                0.8f + random.nextFloat() * 0.4f,
+                0.8f + random.nextFloat() * 0.4f);
+    }
+
+    private static Matrix4f localMatrix(GraphicsBuiltinComponents.BonePose pose) {
+        return new Matrix4f()
+                .translate(pose.positionX(), pose.positionY(), pose.positionZ())
+                .rotateX((float) Math.toRadians(pose.rotationPitchDeg()))
+                .rotateY((float) Math.toRadians(pose.rotationYawDeg()))
+                .rotateZ((float) Math.toRadians(pose.rotationRollDeg()))
+                .scale(pose.scaleX(), pose.scaleY(), pose.scaleZ());
+    }
+
+    private static void assertParentFirst(Skeleton skeleton) {
+        for (int bone = 0; bone < skeleton.boneCount(); bone++) {
+            assertTrue(skeleton.parentIndex(bone) < bone, "parent of " + bone + " comes later");
+        }
+    }
+
+    private static void assertPaletteMatches(Skeleton skeleton, SkeletonPose pose, List<MeshBone> bones, String label) {
+        float[] expected = new float[Skeleton.MATRIX_FLOATS];
+        float[] palette = pose.palette();
+        for (MeshBone bone : bones) {
+            int index = skeleton.indexOfId(bone.getId());
+            assertEquals(index, skeleton.indexOf(bone.getName()));
+            bone.getBoneMatrix().get(expected);
+            int base = index * Skeleton.MATRIX_FLOATS;
+            for (int i = 0; i < Skeleton.MATRIX_FLOATS; i++) {
+                if (Math.abs(expected[i] - palette[base + i]) > TOLERANCE * Math.max(1.0f, Math.abs(expected[i]))) {
+                    fail(label + " " + bone.getName() + " element " + i
+                            + ": expected " + expected[i] + " but was " + palette[base + i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package rogo.sketch.core.pipeline.graph;
+
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.kernel.FrameContext;
+import rogo.sketch.core.pipeline.kernel.ThreadDomain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Predecessor derivation of {@link AsyncPassGraph} over small compiled
+ * graphs, including edges that run through inline SYNC and ANY passes.
+ */
+class AsyncPassGraphTest {
+
+    @Test
+    void keepsOnlyAsyncPassesInGraphOrder() {
+        AsyncPassGraph<RenderContext> graph = new RenderGraphBuilder<RenderContext>(null)
+                .addPass(pass("a", ThreadDomain.ASYNC))
+                .addPass(pass("s", ThreadDomain.SYNC), "a")
+                .addPass(pass("b", ThreadDomain.ASYNC), "s")
+                .addPass(pass("y", ThreadDomain.ANY))
+                .compile()
+                .asyncPassGraph();
+
+        assertEquals(List.of("a", "b"), names(graph));
+    }
+
+    @Test
+    void directAsyncDependencyIsAPredecessor() {
+        AsyncPassGraph<RenderContext> graph = new RenderGraphBuilder<RenderContext>(null)
+                .addPass(pass("a", ThreadDomain.ASYNC))
+                .addPass(pass("b", ThreadDomain.ASYNC), "a")
+                .compile()
+                .asyncPassGraph();
+
+        assertArrayEquals(new int[0], predecessorsOf(graph, "a"));
+        assertArrayEquals(new int[]{indexOf(graph, "a")}, predecessorsOf(graph, "b"));
+    }
+
+    @Test
+    void looksThroughSyncAndAnyToNearestAsyncProducer() {
+        AsyncPassGraph<RenderContext> graph = new RenderGraphBuilder<RenderContext>(null)
+                .addPass(pass("producer", ThreadDomain.ASYNC))
+                .addPass(pass("sync", ThreadDomain.SYNC), "producer")
+                .addPass(pass("any", ThreadDomain.ANY), "sync")
+                .addPass(pass("consumer", ThreadDomain.ASYNC), "any")
+                .compile()
+                .asyncPassGraph();
+
+        assertArrayEquals(new int[]{indexOf(graph, "producer")}, predecessorsOf(graph, "consumer"));
+    }
+
+    @Test
+    void stopsAtTheNearestAsyncPass() {
+        AsyncPassGraph<RenderContext> graph = new RenderGraphBuilder<RenderContext>(null)
+                .addPass(pass("first", ThreadDomain.ASYNC))
+                .addPass(pass("second", ThreadDomain.ASYNC), "first")
+                .addPass(pass("sync", ThreadDomain.SYNC), "second")
+                .addPass(pass("third", ThreadDomain.ASYNC), "sync")
+                .compile()
+                .asyncPassGraph();
+
+        assertArrayEquals(new int[]{indexOf(graph, "second")}, predecessorsOf(graph, "third"));
+    }
+
+    @Test
+    void inlinePassJoiningSeveralProducersForwardsAllOfThem() {
+        AsyncPassGraph<RenderContext> graph = new RenderGraphBuilder<RenderContext>(null)
+                .addPass(pass("left", ThreadDomain.ASYNC))
+                .addPass(pass("right", ThreadDomain.ASYNC))
+                .addPass(pass("join", ThreadDomain.SYNC), "left", "right")
+                .addPass(pass("consumer", ThreadDomain.ASYNC), "join", "left")
+                .compile()
+                .asyncPassGraph();
+
+        int[] predecessors = predecessorsOf(graph, "consumer");
+        Arrays.sort(predecessors);
+        int[] expected = {indexOf(graph, "left"), indexOf(graph, "right")};
+        Arrays.sort(expected);
+        assertArrayEquals(expected, predecessors);
+    }
+
+    @Test
+    void inlineOnlyAncestryLeavesNoPredecessors() {
+        AsyncPassGraph<RenderContext> graph = new RenderGraphBuilder<RenderContext>(null)
+                .addPass(pass("sync", ThreadDomain.SYNC))
+                .addPass(pass("any", ThreadDomain.ANY), "sync")
+                .addPass(pass("async", ThreadDomain.ASYNC), "any")
+                .compile()
+                .asyncPassGraph();
+
+        assertArrayEquals(new int[0], predecessorsOf(graph, "async"));
+    }
+
+    @Test
+    void predecessorsAlwaysPrecedeTheirPass() {
+        RenderGraphBuilder<RenderContext> builder = new RenderGraphBuilder<>(null);
+        ThreadDomain[] domains = {ThreadDomain.ASYNC, ThreadDomain.SYNC, ThreadDomain.ANY};
+        for (int i = 0; i < 24; i++) {
+            List<String> dependencies = new ArrayList<>();
+            for (int d = 0; d < i; d++) {
+                if ((i * 7 + d * 3) % 5 == 0) {
+                    dependencies.add("p" + d);
+                }
+            }
+            builder.addPass(pass("p" + i, domains[(i * 5) % 3]), dependencies.toArray(String[]::new));
+        }
+        AsyncPassGraph<RenderContext> graph = builder.compile().asyncPassGraph();
+
+        for (int i = 0; i < graph.size(); i++) {
+            for (int predecessor : graph.predecessors(i)) {
+                assertTrue(predecessor < i, "predecessor " + predecessor + " of " + i);
+            }
+        }
+    }
+
+    private static List<String> names(AsyncPassGraph<RenderContext> graph) {
+        return graph.passes().stream().map(PassNode::name).toList();
+    }
+
+    private static int indexOf(AsyncPassGraph<RenderContext> graph, String name) {
+        return names(graph).indexOf(name);
+    }
+
+    private static int[] predecessorsOf(AsyncPassGraph<RenderContext> graph, String name) {
+        return graph.predecessors(indexOf(graph, name)).clone();
+    }
+
+    private static PipelinePass<RenderContext> pass(String name, ThreadDomain domain) {
+        return new PipelinePass<>() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public ThreadDomain threadDomain() {
+                return domain;
+            }
+
+            @Override
+            public void execute(FrameContext<RenderContext> ctx) {
+            }
+        };
+    }
+}
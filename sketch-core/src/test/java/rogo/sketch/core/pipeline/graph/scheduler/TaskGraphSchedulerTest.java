@@ -0,0 +1,240 @@
+package rogo.sketch.core.pipeline.graph.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.pipeline.RenderContext;
+import rogo.sketch.core.pipeline.graph.CompiledRenderGraph;
+import rogo.sketch.core.pipeline.graph.PipelinePass;
+import rogo.sketch.core.pipeline.graph.RenderGraphBuilder;
+import rogo.sketch.core.pipeline.graph.scheduler.TaskGraphScheduler.WorkerContextMode;
+import rogo.sketch.core.pipeline.kernel.FrameContext;
+import rogo.sketch.core.pipeline.kernel.ThreadDomain;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ordering and thread placement of the async tail of
+ * {@link TaskGraphScheduler}. Uses the context-free NONE mode with a named
+ * single-thread lane and a small fork-join pool, so no backend is needed.
+ */
+class TaskGraphSchedulerTest {
+    private static final String LANE_THREAD = "test-async-lane";
+
+    private ExecutorService lane;
+    private ForkJoinPool parallelPool;
+    private TaskGraphScheduler scheduler;
+    private final Map<String, long[]> spans = new ConcurrentHashMap<>();
+    private final Map<String, String> threads = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        lane = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, LANE_THREAD));
+        parallelPool = new ForkJoinPool(3);
+        scheduler = new TaskGraphScheduler(lane, parallelPool, WorkerContextMode.NONE, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+        parallelPool.shutdownNow();
+    }
+
+    @Test
+    void passNeverStartsBeforeItsPredecessorsFinish() {
+        CompiledRenderGraph<RenderContext> graph = new RenderGraphBuilder<RenderContext>(null)
+                .addPass(pooled("root", 3))
+                .addPass(pooled("left", 2), "root")
+                .addPass(pooled("right", 1), "root")
+                .addPass(pass("sync", ThreadDomain.SYNC, true, ctx -> {
+                }), "left")
+                .addPass(pooled("join", 0), "sync", "right")
+                .addPass(onLane("tail", 1), "join")
+                .compile();
+
+        for (int frame = 0; frame < 20; frame++) {
+            spans.clear();
+            scheduler.execute(graph, context(frame), true);
+
+            assertStartsAfter("left", "root");
+            assertStartsAfter("right", "root");
+            assertStartsAfter("join", "left");
+            assertStartsAfter("join", "right");
+            assertStartsAfter("tail", "join");
+        }
+    }
+
+    @Test
+    void lanePassesStayOnTheWorkerInGraphOrder() {
+        List<String> laneOrder = new CopyOnWriteArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        RenderGraphBuilder<RenderContext> builder = new RenderGraphBuilder<>(null);
+        for (int i = 0; i < 6; i++) {
+            String name = "lane" + i;
+            builder.addPass(pass(name, ThreadDomain.ASYNC, true, ctx -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                laneOrder.add(name);
+                sleepMillis(1);
+                running.decrementAndGet();
+            }));
+            builder.addPass(pooled("pooled" + i, 1));
+        }
+        CompiledRenderGraph<RenderContext> graph = builder.compile();
+
+        scheduler.execute(graph, context(0), true);
+
+        assertEquals(List.of("lane0", "lane1", "lane2", "lane3", "lane4", "lane5"), laneOrder);
+        assertEquals(1, maxRunning.get(), "lane passes overlapped");
+        for (int i = 0; i < 6; i++) {
+            assertEquals(LANE_THREAD, threads.get("lane" + i));
+            assertFalse(LANE_THREAD.equals(threads.get("pooled" + i)), "pooled" + i + " ran on the lane");
+        }
+    }
+
+    @Test
+    void lanePassWaitingOnThePoolKeepsItsPlaceInLine() {
+        List<String> laneOrder = new CopyOnWriteArrayList<>();
+        CompiledRenderGraph<RenderContext> graph = new RenderGraphBuilder<RenderContext>(null)
+                .addPass(pooled("slow", 20))
+                .addPass(pooled("fast", 0))
+                .addPass(pass("laneAfterSlow", ThreadDomain.ASYNC, true, ctx -> laneOrder.add("laneAfterSlow")), "slow")
+                .addPass(pass("laneAfterFast", ThreadDomain.ASYNC, true, ctx -> laneOrder.add("laneAfterFast")), "fast")
+                .compile();
+
+        scheduler.execute(graph, context(0), true);
+
+        assertEquals(List.of("laneAfterSlow", "laneAfterFast"), laneOrder);
+    }
+
+    @Test
+    void passesIndependentOffTheLaneRunConcurrently() throws InterruptedException {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch overlapped = new CountDownLatch(2);
+        Consumer<FrameContext<RenderContext>> rendezvous = ctx -> {
+            bothStarted.countDown();
+            try {
+                if (bothStarted.await(5, TimeUnit.SECONDS)) {
+                    overlapped.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        CompiledRenderGraph<RenderContext> graph = new RenderGraphBuilder<RenderContext>(null)
+                .addPass(pass("first", ThreadDomain.ASYNC, false, rendezvous))
+                .addPass(pass("second", ThreadDomain.ASYNC, false, rendezvous))
+                .compile();
+
+        scheduler.execute(graph, context(0), true);
+
+        assertTrue(overlapped.await(0, TimeUnit.SECONDS), "independent pooled passes did not overlap");
+    }
+
+    @Test
+    void withoutParallelPoolEveryPassRunsOnTheLane() {
+        TaskGraphScheduler laneOnly = new TaskGraphScheduler(
+                Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, LANE_THREAD)),
+                WorkerContextMode.NONE, true);
+        CompiledRenderGraph<RenderContext> graph = new RenderGraphBuilder<RenderContext>(null)
+                .addPass(pooled("a", 0))
+                .addPass(pooled("b", 0), "a")
+                .addPass(onLane("c", 0))
+                .compile();
+        try {
+            laneOnly.execute(graph, context(0), true);
+        } finally {
+            laneOnly.shutdown();
+        }
+
+        assertEquals(LANE_THREAD, threads.get("a"));
+        assertEquals(LANE_THREAD, threads.get("b"));
+        assertEquals(LANE_THREAD, threads.get("c"));
+    }
+
+    @Test
+    void reportCoversEveryAsyncPass() {
+        CompiledRenderGraph<RenderContext> graph = new RenderGraphBuilder<RenderContext>(null)
+                .addPass(pooled("a", 2))
+                .addPass(pooled("b", 2), "a")
+                .addPass(onLane("c", 1))
+                .compile();
+
+        scheduler.execute(graph, context(0), true);
+
+        AsyncBatchReport report = scheduler.latestAsyncReport();
+        assertEquals(3, report.passCount());
+        assertEquals(List.of("a", "b"), report.criticalPath());
+    }
+
+    private void assertStartsAfter(String pass, String predecessor) {
+        long start = spans.get(pass)[0];
+        long predecessorEnd = spans.get(predecessor)[1];
+        assertTrue(start >= predecessorEnd, pass + " started before " + predecessor + " finished");
+    }
+
+    private PipelinePass<RenderContext> pooled(String name, int sleepMillis) {
+        return pass(name, ThreadDomain.ASYNC, false, ctx -> sleepMillis(sleepMillis));
+    }
+
+    private PipelinePass<RenderContext> onLane(String name, int sleepMillis) {
+        return pass(name, ThreadDomain.ASYNC, true, ctx -> sleepMillis(sleepMillis));
+    }
+
+    private PipelinePass<RenderContext> pass(String name, ThreadDomain domain, boolean requiresWorkerContext,
+                                             Consumer<FrameContext<RenderContext>> body) {
+        return new PipelinePass<>() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public ThreadDomain threadDomain() {
+                return domain;
+            }
+
+            @Override
+            public boolean requiresWorkerContext() {
+                return requiresWorkerContext;
+            }
+
+            @Override
+            public void execute(FrameContext<RenderContext> ctx) {
+                long start = System.nanoTime();
+                threads.put(name, Thread.currentThread().getName());
+                body.accept(ctx);
+                spans.put(name, new long[]{start, System.nanoTime()});
+            }
+        };
+    }
+
+    private static FrameContext<RenderContext> context(long frame) {
+        return new FrameContext<>(null, null, new RenderContext(), frame);
+    }
+
+    private static void sleepMillis(int millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
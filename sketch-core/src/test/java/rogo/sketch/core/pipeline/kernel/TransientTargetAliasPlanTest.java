@@ -0,0 +1,271 @@
+package rogo.sketch.core.pipeline.kernel;
+
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.packet.ClearPacket;
+import rogo.sketch.core.packet.CopyTexturePacket;
+import rogo.sketch.core.packet.ExecutionKey;
+import rogo.sketch.core.packet.GenerateMipmapPacket;
+import rogo.sketch.core.packet.RenderPacket;
+import rogo.sketch.core.packet.ResourceBindingPlan;
+import rogo.sketch.core.packet.ResourceBindingStamp;
+import rogo.sketch.core.packet.TransferPlanKey;
+import rogo.sketch.core.pipeline.PipelineType;
+import rogo.sketch.core.resource.ResourceTypes;
+import rogo.sketch.core.resource.descriptor.ImageFormat;
+import rogo.sketch.core.resource.descriptor.RenderTargetResolutionMode;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lifetimes and slot assignment of {@link TransientTargetAliasPlan} over
+ * synthetic frames. Stages write targets with clear packets and read their
+ * attachments through bindings, copies and mipmap generation, the packet
+ * kinds the planner inspects; the resolver stands in for installed render
+ * targets, so no backend is needed.
+ */
+class TransientTargetAliasPlanTest {
+    private static final TransientTargetAliasPlan.TargetLayout FULL_RGBA = layout(1.0f, ImageFormat.RGBA8_UNORM);
+    private static final TransientTargetAliasPlan.TargetLayout HALF_RGBA = layout(0.5f, ImageFormat.RGBA8_UNORM);
+
+    private final Map<KeyId, TransientTargetAliasPlan.TransientTarget> targets = new LinkedHashMap<>();
+
+    @Test
+    void lifetimeSpansFirstWriteToLastAttachmentRead() {
+        transientTarget("bloom", FULL_RGBA);
+        Map<KeyId, StageExecutionPlan> frame = frame(
+                stage("s0", clear("bloom")),
+                stage("s1"),
+                stage("s2", bind(color("bloom"))),
+                stage("s3", copy(color("bloom"), id("swap"))),
+                stage("s4"));
+
+        TransientTargetAliasPlan plan = TransientTargetAliasPlan.plan(frame, targets::get);
+
+        TransientTargetAliasPlan.TargetLifetime lifetime = lifetime(plan, "bloom");
+        assertEquals(0, lifetime.firstStage());
+        assertEquals(3, lifetime.lastStage());
+        assertEquals(0, lifetime.slot());
+    }
+
+    @Test
+    void disjointTargetsWithTheSameLayoutShareASlot() {
+        transientTarget("ssao", FULL_RGBA);
+        transientTarget("blur", FULL_RGBA);
+        transientTarget("dof", FULL_RGBA);
+        Map<KeyId, StageExecutionPlan> frame = frame(
+                stage("ao", clear("ssao")),
+                stage("ao_use", bind(color("ssao"))),
+                stage("blur", clear("blur")),
+                stage("blur_use", mipmap(color("blur"))),
+                stage("dof", clear("dof"), bind(color("dof"))));
+
+        TransientTargetAliasPlan plan = TransientTargetAliasPlan.plan(frame, targets::get);
+
+        assertEquals(1, plan.slots().size());
+        assertEquals(2, plan.savedTargetCount());
+        assertEquals(List.of(id("ssao"), id("blur"), id("dof")), plan.slots().get(0).targets());
+        assertTrue(plan.dedicatedTargets().isEmpty());
+    }
+
+    @Test
+    void overlappingLifetimesGetSeparateSlots() {
+        transientTarget("a", FULL_RGBA);
+        transientTarget("b", FULL_RGBA);
+        transientTarget("c", FULL_RGBA);
+        Map<KeyId, StageExecutionPlan> frame = frame(
+                stage("write_a", clear("a")),
+                stage("write_b", clear("b")),
+                // a is still read after b was written, so they overlap
+                stage("read_a", bind(color("a"))),
+                stage("read_b", bind(color("b"))),
+                stage("write_c", clear("c")));
+
+        TransientTargetAliasPlan plan = TransientTargetAliasPlan.plan(frame, targets::get);
+
+        assertEquals(2, plan.slots().size());
+        assertNotEquals(plan.slotOf(id("a")), plan.slotOf(id("b")));
+        assertTrue(plan.slotOf(id("c")) >= 0);
+        assertLifetimesDoNotOverlapWithinSlots(plan);
+    }
+
+    @Test
+    void differentLayoutsNeverAlias() {
+        transientTarget("full", FULL_RGBA);
+        transientTarget("half", HALF_RGBA);
+        Map<KeyId, StageExecutionPlan> frame = frame(
+                stage("s0", clear("full")),
+                stage("s1", clear("half")));
+
+        TransientTargetAliasPlan plan = TransientTargetAliasPlan.plan(frame, targets::get);
+
+        assertEquals(2, plan.slots().size());
+        assertEquals(0, plan.savedTargetCount());
+    }
+
+    @Test
+    void readBeforeWriteAndSharedAttachmentsKeepDedicatedImages() {
+        transientTarget("history", FULL_RGBA);
+        targets.put(id("left"), new TransientTargetAliasPlan.TransientTarget(id("left"), FULL_RGBA, List.of(id("shared_depth"))));
+        targets.put(id("right"), new TransientTargetAliasPlan.TransientTarget(id("right"), FULL_RGBA, List.of(id("shared_depth"))));
+        transientTarget("free", FULL_RGBA);
+        Map<KeyId, StageExecutionPlan> frame = frame(
+                // history is sampled before this frame writes it: it must survive across frames
+                stage("taa", bind(color("history"))),
+                stage("resolve", clear("history")),
+                stage("left", clear("left")),
+                stage("right", clear("right")),
+                stage("free", clear("free")));
+
+        TransientTargetAliasPlan plan = TransientTargetAliasPlan.plan(frame, targets::get);
+
+        assertEquals(Set.of(id("history"), id("left"), id("right")), plan.dedicatedTargets());
+        assertEquals(-1, plan.slotOf(id("history")));
+        assertEquals(0, plan.slotOf(id("free")));
+        assertEquals(1, plan.lifetimes().size());
+    }
+
+    @Test
+    void persistentTargetsAndEmptyFramesPlanNothing() {
+        Map<KeyId, StageExecutionPlan> frame = frame(stage("s0", clear("persistent")), stage("s1"));
+
+        assertTrue(TransientTargetAliasPlan.plan(frame, targets::get).isEmpty());
+        assertTrue(TransientTargetAliasPlan.plan(Map.of(), targets::get).isEmpty());
+    }
+
+    @Test
+    void randomFramesNeverShareASlotAcrossOverlappingLifetimes() {
+        Random random = new Random(0x5EED);
+        for (int round = 0; round < 200; round++) {
+            targets.clear();
+            int targetCount = 2 + random.nextInt(6);
+            for (int t = 0; t < targetCount; t++) {
+                transientTarget("t" + t, random.nextBoolean() ? FULL_RGBA : HALF_RGBA);
+            }
+            int stageCount = 4 + random.nextInt(10);
+            List<StageExecutionPlan> stages = new ArrayList<>();
+            for (int s = 0; s < stageCount; s++) {
+                List<RenderPacket> packets = new ArrayList<>();
+                if (random.nextInt(3) == 0) {
+                    packets.add(clear("t" + random.nextInt(targetCount)));
+                }
+                if (random.nextInt(2) == 0) {
+                    packets.add(bind(color("t" + random.nextInt(targetCount))));
+                }
+                stages.add(stage("s" + s, packets.toArray(new RenderPacket[0])));
+            }
+
+            TransientTargetAliasPlan plan = TransientTargetAliasPlan.plan(
+                    frame(stages.toArray(new StageExecutionPlan[0])), targets::get);
+
+            assertLifetimesDoNotOverlapWithinSlots(plan);
+            for (TransientTargetAliasPlan.TargetLifetime lifetime : plan.lifetimes()) {
+                assertFalse(plan.dedicatedTargets().contains(lifetime.targetId()));
+                assertEquals(lifetime.layout(), plan.slots().get(lifetime.slot()).layout());
+            }
+        }
+    }
+
+    private static void assertLifetimesDoNotOverlapWithinSlots(TransientTargetAliasPlan plan) {
+        List<TransientTargetAliasPlan.TargetLifetime> lifetimes = plan.lifetimes();
+        for (int i = 0; i < lifetimes.size(); i++) {
+            for (int j = i + 1; j < lifetimes.size(); j++) {
+                TransientTargetAliasPlan.TargetLifetime a = lifetimes.get(i);
+                TransientTargetAliasPlan.TargetLifetime b = lifetimes.get(j);
+                if (a.slot() == b.slot()) {
+                    assertTrue(a.lastStage() < b.firstStage() || b.lastStage() < a.firstStage(),
+                            a.targetId() + " and " + b.targetId() + " overlap in slot " + a.slot());
+                }
+            }
+        }
+    }
+
+    private static TransientTargetAliasPlan.TargetLifetime lifetime(TransientTargetAliasPlan plan, String target) {
+        return plan.lifetimes().stream()
+                .filter(lifetime -> lifetime.targetId().equals(id(target)))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void transientTarget(String name, TransientTargetAliasPlan.TargetLayout layout) {
+        targets.put(id(name), new TransientTargetAliasPlan.TransientTarget(id(name), layout, List.of(color(name))));
+    }
+
+    private static TransientTargetAliasPlan.TargetLayout layout(float scale, ImageFormat format) {
+        return new TransientTargetAliasPlan.TargetLayout(
+                RenderTargetResolutionMode.SCREEN_RELATIVE, 0, 0, scale, scale, List.of(format), null, null);
+    }
+
+    private static Map<KeyId, StageExecutionPlan> frame(StageExecutionPlan... stages) {
+        Map<KeyId, StageExecutionPlan> frame = new LinkedHashMap<>();
+        for (StageExecutionPlan stage : stages) {
+            frame.put(stage.stageId(), stage);
+        }
+        return frame;
+    }
+
+    private static StageExecutionPlan stage(String name, RenderPacket... packets) {
+        if (packets.length == 0) {
+            return StageExecutionPlan.empty(id(name));
+        }
+        Map<ExecutionKey, List<RenderPacket>> byState = new LinkedHashMap<>();
+        for (RenderPacket packet : packets) {
+            byState.computeIfAbsent(packet.stateKey(), key -> new ArrayList<>()).add(packet);
+        }
+        return StageExecutionPlan.fromPackets(id(name), Map.of(PipelineType.FUNCTION, byState));
+    }
+
+    private static ClearPacket clear(String target) {
+        return new ClearPacket(null, PipelineType.FUNCTION, TransferPlanKey.forRenderTarget(id(target)),
+                ResourceBindingPlan.empty(), null, List.of(), id(target), List.of(),
+                true, false, new float[]{0, 0, 0, 0}, 1.0f, null, false);
+    }
+
+    private static CopyTexturePacket copy(KeyId source, KeyId destination) {
+        return new CopyTexturePacket(null, PipelineType.FUNCTION, TransferPlanKey.forTexture(destination),
+                ResourceBindingPlan.empty(), null, List.of(), source, destination, 16, 16, false);
+    }
+
+    private static GenerateMipmapPacket mipmap(KeyId texture) {
+        return new GenerateMipmapPacket(null, PipelineType.FUNCTION, TransferPlanKey.forTexture(texture),
+                ResourceBindingPlan.empty(), null, List.of(), texture);
+    }
+
+    /**
+     * A packet that only samples {@code texture}; a mipmap packet on an
+     * unrelated texture carries the binding plan.
+     */
+    private static GenerateMipmapPacket bind(KeyId texture) {
+        ResourceBindingPlan.BindingEntry entry = new ResourceBindingPlan.BindingEntry(
+                ResourceTypes.TEXTURE, KeyId.of("u_Input"), texture);
+        ResourceBindingPlan plan = new ResourceBindingPlan(
+                KeyId.of("test:sampled_layout"),
+                new ResourceBindingPlan.BindingEntry[]{entry},
+                1,
+                Arrays.hashCode(new Object[]{texture}),
+                ResourceBindingStamp.NONE,
+                null);
+        KeyId scratch = id("scratch_" + texture.toString().replace(':', '_'));
+        return new GenerateMipmapPacket(null, PipelineType.FUNCTION, TransferPlanKey.forTexture(scratch),
+                plan, null, List.of(), scratch);
+    }
+
+    private static KeyId color(String target) {
+        return id(target + "_color");
+    }
+
+    private static KeyId id(String name) {
+        return KeyId.of("test", name);
+    }
+}
@@ -0,0 +1,248 @@
+package rogo.sketch.core.pipeline.module.metric;
+
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Percentile accuracy, rolling window and concurrent recording of
+ * {@link MetricHistogram}, driven by a manual clock.
+ */
+class MetricHistogramTest {
+    private static final long INTERVAL = 1_000L;
+    private static final int INTERVALS = 10;
+    // Below 2^36, where every bucket is at most 1/32 of its lower bound wide
+    private static final double MAX_SAMPLE = 60.0e9;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void percentilesStayWithinHalfABucketOfExactValues() {
+        Random random = new Random(49L);
+        double worst = 0.0D;
+        for (int set = 0; set < 200; set++) {
+            MetricHistogram histogram = histogram();
+            int count = 1 + random.nextInt(random.nextBoolean() ? 50 : 20_000);
+            long[] samples = new long[count];
+            for (int i = 0; i < count; i++) {
+                // Log-uniform over 1 .. 60e9, the range of nanosecond timings
+                samples[i] = (long) Math.exp(random.nextDouble() * Math.log(MAX_SAMPLE));
+                histogram.record(samples[i]);
+            }
+            Arrays.sort(samples);
+
+            HistogramSnapshot snapshot = histogram.snapshot();
+            assertEquals(count, snapshot.count());
+            assertEquals(samples[count - 1], snapshot.max());
+            assertEquals(MetricKind.DURATION, snapshot.valueKind());
+            long[] reported = {snapshot.p50(), snapshot.p95(), snapshot.p99()};
+            double[] percentiles = {50.0D, 95.0D, 99.0D};
+            for (int p = 0; p < percentiles.length; p++) {
+                long exact = samples[(int) Math.max(1L, (long) Math.ceil(count * percentiles[p] / 100.0D)) - 1];
+                double error = Math.abs(reported[p] - exact) / (double) Math.max(1L, exact);
+                assertTrue(error <= 1.0D / 64.0D, "set " + set + " p" + percentiles[p] + ": exact " + exact + ", reported " + reported[p]);
+                worst = Math.max(worst, error);
+            }
+        }
+        assertTrue(worst > 0.0D, "samples never landed inside a wide bucket");
+    }
+
+    @Test
+    void smallValuesAreExactAndHugeValuesKeepTheirMax() {
+        MetricHistogram histogram = histogram();
+        for (long value = 0; value < 64; value++) {
+            histogram.record(value);
+            assertEquals(value, MetricHistogram.bucketLowerBound(MetricHistogram.bucketIndex(value)));
+        }
+        HistogramSnapshot small = histogram.snapshot();
+        assertEquals(31L, small.p50());
+        assertEquals(63L, small.max());
+
+        histogram.reset();
+        histogram.record(-5L);
+        assertEquals(0L, histogram.snapshot().p50());
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(1L << 40);
+        HistogramSnapshot huge = histogram.snapshot();
+        assertEquals(3L, huge.count());
+        assertEquals(Long.MAX_VALUE, huge.max());
+        assertEquals(MetricHistogram.BUCKET_COUNT - 1, MetricHistogram.bucketIndex(1L << 40));
+
+        // Every bucket starts where the previous one ends
+        for (int bucket = 1; bucket < MetricHistogram.BUCKET_COUNT; bucket++) {
+            long lower = MetricHistogram.bucketLowerBound(bucket);
+            assertEquals(bucket, MetricHistogram.bucketIndex(lower));
+            assertEquals(bucket - 1, MetricHistogram.bucketIndex(lower - 1));
+        }
+    }
+
+    @Test
+    void intervalsRollOffTheWindow() {
+        MetricHistogram histogram = histogram();
+        for (int interval = 0; interval < INTERVALS; interval++) {
+            clock.set(interval * INTERVAL + INTERVAL / 2);
+            for (int i = 0; i <= interval; i++) {
+                histogram.record(100L * (interval + 1));
+            }
+        }
+        assertEquals(55L, histogram.snapshot().count());
+        assertEquals(1000L, histogram.snapshot().max());
+        assertEquals(10L, histogram.snapshot(1).count());
+        assertEquals(10L + 9L + 8L, histogram.snapshot(3).count());
+        assertEquals(10L + 9L, histogram.snapshotCovering(2 * INTERVAL).count());
+        assertEquals(10L, histogram.snapshotCovering(0L).count());
+        assertEquals(INTERVALS * INTERVAL, histogram.snapshot().windowNanos());
+
+        // Three intervals later the oldest three are gone, even before their slots are reused
+        clock.addAndGet(3 * INTERVAL);
+        assertEquals(55L - 1L - 2L - 3L, histogram.snapshot().count());
+        assertEquals(0L, histogram.snapshot(3).count());
+        assertTrue(histogram.snapshot(3).isEmpty());
+
+        // Reusing a slot clears what it held
+        histogram.record(7L);
+        HistogramSnapshot newest = histogram.snapshot(1);
+        assertEquals(1L, newest.count());
+        assertEquals(7L, newest.max());
+        assertEquals(55L - 1L - 2L - 3L + 1L, histogram.snapshot().count());
+
+        clock.addAndGet(100 * INTERVAL);
+        assertTrue(histogram.snapshot().isEmpty());
+        histogram.record(9L);
+        histogram.reset();
+        assertTrue(histogram.snapshot().isEmpty());
+    }
+
+    @Test
+    void concurrentRecordersLoseNoSamples() throws InterruptedException {
+        int threads = 8;
+        int perThread = 200_000;
+        MetricHistogram concurrent = histogram();
+        runConcurrently(threads, worker -> {
+            Random random = new Random(worker);
+            for (int i = 0; i < perThread; i++) {
+                concurrent.record(random.nextInt(1 << 24));
+            }
+        });
+
+        MetricHistogram sequential = histogram();
+        for (int worker = 0; worker < threads; worker++) {
+            Random random = new Random(worker);
+            for (int i = 0; i < perThread; i++) {
+                sequential.record(random.nextInt(1 << 24));
+            }
+        }
+        assertEquals(sequential.snapshot(), concurrent.snapshot());
+        assertEquals((long) threads * perThread, concurrent.snapshot().count());
+    }
+
+    @Test
+    void contendedBucketCountsEverySample() throws InterruptedException {
+        int threads = 4;
+        int perThread = 2_000_000;
+        MetricHistogram histogram = histogram();
+        // One hot bucket and one max, so every recorder updates the same words
+        runConcurrently(threads, worker -> {
+            for (int i = 0; i < perThread; i++) {
+                histogram.record(40L + (i & 1));
+            }
+            histogram.record(1_000L + worker);
+        });
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals((long) threads * (perThread + 1), snapshot.count());
+        assertEquals(1_000L + threads - 1, snapshot.max());
+    }
+
+    @Test
+    void recordersCrossingIntervalsLoseNoSamples() throws InterruptedException {
+        int threads = 4;
+        int perThread = 100_000;
+        // Every clock read advances time, so recorders race over eight interval boundaries
+        long interval = (long) threads * perThread / (INTERVALS - 2);
+        AtomicLong ticking = new AtomicLong();
+        MetricHistogram histogram = new MetricHistogram(MetricKind.COUNT, interval, INTERVALS, ticking::incrementAndGet);
+        AtomicLong max = new AtomicLong();
+        runConcurrently(threads, worker -> {
+            Random random = new Random(worker);
+            for (int i = 0; i < perThread; i++) {
+                long value = random.nextInt(1 << 20);
+                max.accumulateAndGet(value, Math::max);
+                histogram.record(value);
+            }
+        });
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals((long) threads * perThread, snapshot.count());
+        assertEquals(max.get(), snapshot.max());
+    }
+
+    @Test
+    void registrySnapshotsCarryHistograms() {
+        ModuleMetricRegistry registry = new ModuleMetricRegistry();
+        KeyId id = KeyId.of("test", "upload_time");
+        MetricDescriptor descriptor = new MetricDescriptor(id, "test", MetricKind.HISTOGRAM, "metric.upload", "metric.upload.detail");
+        MetricHistogram histogram = registry.registerHistogram("owner", descriptor, histogram());
+        histogram.record(1_500L);
+
+        assertSame(histogram, registry.histogram(id));
+        HistogramSnapshot snapshot = assertInstanceOf(HistogramSnapshot.class, registry.snapshot().values().get(id));
+        assertEquals(1L, snapshot.count());
+        assertEquals(1_500L, snapshot.max());
+        assertThrows(IllegalArgumentException.class, () -> registry.registerHistogram(
+                "owner", new MetricDescriptor(KeyId.of("test", "scalar"), "test", MetricKind.DURATION, "a", "b"), MetricKind.DURATION));
+        assertThrows(IllegalArgumentException.class, () -> new MetricHistogram(MetricKind.HISTOGRAM));
+
+        registry.unregisterOwner("owner");
+        assertNull(registry.histogram(id));
+        assertTrue(registry.histograms().isEmpty());
+    }
+
+    private MetricHistogram histogram() {
+        return new MetricHistogram(MetricKind.DURATION, INTERVAL, INTERVALS, clock::get);
+    }
+
+    private static void runConcurrently(int threads, WorkerBody body) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Map<Integer, Throwable> failures = new ConcurrentHashMap<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    body.run(worker);
+                } catch (Throwable e) {
+                    failures.put(worker, e);
+                }
+            });
+            thread.start();
+            workers.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty(), () -> "worker failed: " + failures);
+    }
+
+    @FunctionalInterface
+    private interface WorkerBody {
+        void run(int worker) throws Exception;
+    }
+}
@@ -0,0 +1,209 @@
+package rogo.sketch.core.pipeline.shadow;
+
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+import org.joml.primitives.AABBf;
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.scene.SceneProxy;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShadowCascadeMathTest {
+    private static final float NEAR = 0.1f;
+    private static final float FAR = 256.0f;
+    private static final int RESOLUTION = 2048;
+    private static final Vector3f LIGHT = new Vector3f(-0.4f, -1.0f, 0.3f);
+
+    @Test
+    void splitsSpanNearToFarInAscendingOrder() {
+        for (int count = 1; count <= ShadowCascadeMath.MAX_CASCADES; count++) {
+            float[] splits = ShadowCascadeMath.splitDistances(NEAR, FAR, count, ShadowCascadeMath.DEFAULT_SPLIT_LAMBDA);
+            assertEquals(count + 1, splits.length);
+            assertEquals(NEAR, splits[0]);
+            assertEquals(FAR, splits[count]);
+            for (int i = 1; i < splits.length; i++) {
+                assertTrue(splits[i] > splits[i - 1], "split " + i + " is not ascending");
+            }
+        }
+    }
+
+    @Test
+    void lambdaBlendsUniformAndLogarithmicSplits() {
+        float[] uniform = ShadowCascadeMath.splitDistances(1.0f, 101.0f, 4, 0.0f);
+        assertEquals(26.0f, uniform[1], 1.0e-4f);
+        assertEquals(51.0f, uniform[2], 1.0e-4f);
+        assertEquals(76.0f, uniform[3], 1.0e-4f);
+
+        float[] logarithmic = ShadowCascadeMath.splitDistances(1.0f, 256.0f, 4, 1.0f);
+        assertEquals(4.0f, logarithmic[1], 1.0e-4f);
+        assertEquals(16.0f, logarithmic[2], 1.0e-3f);
+        assertEquals(64.0f, logarithmic[3], 1.0e-3f);
+
+        float[] blended = ShadowCascadeMath.splitDistances(1.0f, 256.0f, 4, 0.5f);
+        float[] uniformSame = ShadowCascadeMath.splitDistances(1.0f, 256.0f, 4, 0.0f);
+        for (int i = 1; i < 4; i++) {
+            assertEquals(0.5f * logarithmic[i] + 0.5f * uniformSame[i], blended[i], 1.0e-3f);
+        }
+    }
+
+    @Test
+    void cascadeCountAndDegenerateRangesAreClamped() {
+        assertEquals(2, ShadowCascadeMath.splitDistances(NEAR, FAR, 0, 0.5f).length);
+        assertEquals(ShadowCascadeMath.MAX_CASCADES + 1, ShadowCascadeMath.splitDistances(NEAR, FAR, 9, 0.5f).length);
+        float[] inverted = ShadowCascadeMath.splitDistances(10.0f, 5.0f, 2, 0.5f);
+        assertTrue(inverted[2] > inverted[0]);
+        assertThrows(IllegalArgumentException.class, () -> ShadowCascadeMath.frustumCorners(new Matrix4f(), new Vector3f[4]));
+    }
+
+    @Test
+    void sliceCornersInterpolateAlongFrustumEdges() {
+        Vector3f[] frustum = ShadowCascadeMath.newCornerArray();
+        ShadowCascadeMath.frustumCorners(camera(new Vector3f()), frustum);
+        Vector3f[] slice = ShadowCascadeMath.newCornerArray();
+
+        ShadowCascadeMath.sliceCorners(frustum, NEAR, FAR, NEAR, FAR, slice);
+        for (int i = 0; i < 8; i++) {
+            assertVector(frustum[i], slice[i], 1.0e-3f);
+        }
+
+        float mid = (NEAR + FAR) * 0.5f;
+        ShadowCascadeMath.sliceCorners(frustum, NEAR, FAR, NEAR, mid, slice);
+        for (int i = 0; i < 4; i++) {
+            assertVector(frustum[i], slice[i], 1.0e-3f);
+            assertVector(new Vector3f(frustum[i]).lerp(frustum[i + 4], 0.5f), slice[i + 4], 1.0e-2f);
+        }
+    }
+
+    @Test
+    void fittedCascadeContainsItsSliceInClipSpace() {
+        float[] splits = ShadowCascadeMath.splitDistances(NEAR, 128.0f, 4, ShadowCascadeMath.DEFAULT_SPLIT_LAMBDA);
+        Vector3f[] frustum = ShadowCascadeMath.newCornerArray();
+        ShadowCascadeMath.frustumCorners(camera(new Vector3f(12.0f, 70.0f, -30.0f)), frustum);
+        Vector3f[] slice = ShadowCascadeMath.newCornerArray();
+        for (int i = 0; i < 4; i++) {
+            ShadowCascadeMath.sliceCorners(frustum, NEAR, FAR, splits[i], splits[i + 1], slice);
+            ShadowCascade cascade = ShadowCascadeMath.fitCascade(i, slice, splits[i], splits[i + 1], LIGHT, RESOLUTION, 0.15f, 64.0f);
+            assertEquals(i, cascade.index());
+            assertEquals(RESOLUTION, cascade.resolution());
+            for (Vector3f corner : slice) {
+                Vector4f clip = cascade.lightViewProjectionMatrix().transform(new Vector4f(corner, 1.0f));
+                assertTrue(Math.abs(clip.x / clip.w) <= 1.0f, "corner outside cascade " + i + " in x");
+                assertTrue(Math.abs(clip.y / clip.w) <= 1.0f, "corner outside cascade " + i + " in y");
+                assertTrue(Math.abs(clip.z / clip.w) <= 1.0f, "corner outside cascade " + i + " depth range");
+            }
+        }
+    }
+
+    @Test
+    void fitIsTexelSnappedAndStableUnderSubTexelCameraMotion() {
+        Vector3f[] slice = sliceAt(new Vector3f(), 0.1f, 24.0f);
+        ShadowCascade first = ShadowCascadeMath.fitCascade(0, slice, 0.1f, 24.0f, LIGHT, RESOLUTION, 0.0f, 64.0f);
+        assertSnapped(first);
+
+        Vector3f[] moved = sliceAt(new Vector3f(0.013f, 0.0f, 0.007f), 0.1f, 24.0f);
+        ShadowCascade second = ShadowCascadeMath.fitCascade(0, moved, 0.1f, 24.0f, LIGHT, RESOLUTION, 0.0f, 64.0f);
+        assertSnapped(second);
+        // Radius is quantized, so translating the camera leaves the projection extent untouched
+        assertEquals(first.radius(), second.radius());
+
+        // A static world point moves by whole texels between the two fits, so its shadow does not shimmer
+        float texelScale = RESOLUTION * 0.5f;
+        Vector4f a = first.lightViewProjectionMatrix().transform(new Vector4f(5.0f, 3.0f, -7.0f, 1.0f));
+        Vector4f b = second.lightViewProjectionMatrix().transform(new Vector4f(5.0f, 3.0f, -7.0f, 1.0f));
+        float texelDeltaX = (b.x - a.x) * texelScale;
+        float texelDeltaY = (b.y - a.y) * texelScale;
+        assertEquals(Math.round(texelDeltaX), texelDeltaX, 2.0e-2f);
+        assertEquals(Math.round(texelDeltaY), texelDeltaY, 2.0e-2f);
+    }
+
+    @Test
+    void coverageMarginGrowsTheRadiusAndCoversTheSlice() {
+        Vector3f[] slice = sliceAt(new Vector3f(), 10.0f, 40.0f);
+        ShadowCascade tight = ShadowCascadeMath.fitCascade(1, slice, 10.0f, 40.0f, LIGHT, RESOLUTION, 0.0f, 64.0f);
+        ShadowCascade padded = ShadowCascadeMath.fitCascade(1, slice, 10.0f, 40.0f, LIGHT, RESOLUTION, 0.15f, 64.0f);
+        assertTrue(padded.radius() > tight.radius());
+
+        Vector3f center = new Vector3f();
+        for (Vector3f corner : slice) {
+            center.add(corner);
+        }
+        center.div(8.0f);
+        float radius = ShadowCascadeMath.boundingRadius(center, slice);
+        assertTrue(tight.covers(center, radius));
+        assertTrue(padded.covers(new Vector3f(center).add(radius * 0.1f, 0.0f, 0.0f), radius));
+        assertFalse(tight.covers(new Vector3f(center).add(radius, 0.0f, 0.0f), radius));
+    }
+
+    @Test
+    void plannerThrottlesFarCascadesUntilTheirIntervalOrCastersChange() {
+        ShadowCascadePlanner planner = new ShadowCascadePlanner();
+        ShadowCascadeSettings settings = ShadowCascadeSettings.of(3, RESOLUTION, 96.0f, 4);
+        Matrix4f camera = camera(new Vector3f());
+        SceneProxy caster = new SceneProxy("caster", SceneProxy.Kind.ENTITY, new AABBf(-1, 0, -20, 1, 2, -18), 0, null);
+        List<SceneProxy> casters = List.of(caster);
+
+        ShadowCascadeFrame first = planner.plan(0L, settings, camera, NEAR, FAR, LIGHT, casters);
+        assertEquals(3, first.cascadeCount());
+        assertEquals(0b111, first.updateMask());
+        assertTrue(first.casters(0).contains(caster));
+
+        ShadowCascadeFrame second = planner.plan(1L, settings, camera, NEAR, FAR, LIGHT, casters);
+        assertEquals(0b001, second.updateMask());
+        assertSame(first.cascades().get(2), second.cascades().get(2));
+        assertTrue(second.casters(2).isEmpty());
+
+        // Cascade 1 re-renders every 4 frames, cascade 2 every 8
+        ShadowCascadeFrame fourth = planner.plan(4L, settings, camera, NEAR, FAR, LIGHT, casters);
+        assertEquals(0b011, fourth.updateMask());
+
+        SceneProxy farCaster = new SceneProxy("far", SceneProxy.Kind.ENTITY, new AABBf(-1, 0, -70, 1, 2, -68), 0, null);
+        ShadowCascadeFrame changed = planner.plan(5L, settings, camera, NEAR, FAR, LIGHT, List.of(caster, farCaster));
+        assertTrue(changed.needsUpdate(2), "a new caster inside cascade 2 must force it to re-render");
+        assertTrue(changed.casters(2).contains(farCaster));
+    }
+
+    @Test
+    void cameraLeavingCoverageForcesAnUpdate() {
+        ShadowCascadePlanner planner = new ShadowCascadePlanner();
+        ShadowCascadeSettings settings = ShadowCascadeSettings.of(2, RESOLUTION, 96.0f, 0);
+        planner.plan(0L, settings, camera(new Vector3f()), NEAR, FAR, LIGHT, List.of());
+        ShadowCascadeFrame still = planner.plan(100L, settings, camera(new Vector3f(0.5f, 0.0f, 0.0f)), NEAR, FAR, LIGHT, List.of());
+        assertFalse(still.needsUpdate(1), "interval 0 keeps a covering cascade indefinitely");
+        ShadowCascadeFrame moved = planner.plan(101L, settings, camera(new Vector3f(200.0f, 0.0f, 0.0f)), NEAR, FAR, LIGHT, List.of());
+        assertTrue(moved.needsUpdate(1));
+    }
+
+    private static Matrix4f camera(Vector3f eye) {
+        return new Matrix4f()
+                .perspective((float) Math.toRadians(70.0), 16.0f / 9.0f, NEAR, FAR)
+                .lookAt(eye, new Vector3f(eye).add(0.0f, 0.0f, -1.0f), new Vector3f(0.0f, 1.0f, 0.0f));
+    }
+
+    private static Vector3f[] sliceAt(Vector3f eye, float sliceNear, float sliceFar) {
+        Vector3f[] frustum = ShadowCascadeMath.newCornerArray();
+        ShadowCascadeMath.frustumCorners(camera(eye), frustum);
+        Vector3f[] slice = ShadowCascadeMath.newCornerArray();
+        ShadowCascadeMath.sliceCorners(frustum, NEAR, FAR, sliceNear, sliceFar, slice);
+        return slice;
+    }
+
+    private static void assertSnapped(ShadowCascade cascade) {
+        float texelScale = cascade.resolution() * 0.5f;
+        Vector4f origin = cascade.lightViewProjectionMatrix().transform(new Vector4f(0.0f, 0.0f, 0.0f, 1.0f));
+        assertEquals(Math.round(origin.x * texelScale), origin.x * texelScale, 1.0e-2f);
+        assertEquals(Math.round(origin.y * texelScale), origin.y * texelScale, 1.0e-2f);
+    }
+
+    private static void assertVector(Vector3f expected, Vector3f actual, float epsilon) {
+        assertEquals(expected.x, actual.x, epsilon);
+        assertEquals(expected.y, actual.y, epsilon);
+        assertEquals(expected.z, actual.z, epsilon);
+    }
+}
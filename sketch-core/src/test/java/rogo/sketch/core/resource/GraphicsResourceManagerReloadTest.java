@@ -0,0 +1,296 @@
+package rogo.sketch.core.resource;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.api.ResourceObject;
+import rogo.sketch.core.resource.loader.ResourceLoadContext;
+import rogo.sketch.core.resource.loader.ResourceLoader;
+import rogo.sketch.core.util.KeyId;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dependency capture and invalidation of
+ * {@link GraphicsResourceManager#reloadIncremental()} over an in-memory pack.
+ * Sources are JSON without a {@code stage}, so the built-in function and
+ * draw-call loaders decline them and the test loaders below produce the
+ * resources: {@code "uses"} looks a function up through the manager and
+ * {@code "declares"} names one through {@link ResourceLoadContext#dependsOn}.
+ */
+class GraphicsResourceManagerReloadTest {
+    private static final KeyId BASE = KeyId.of("test:base");
+    private static final KeyId DERIVED = KeyId.of("test:derived");
+    private static final KeyId DECLARED = KeyId.of("test:declared");
+    private static final KeyId DRAW = KeyId.of("test:draw");
+    private static final KeyId INCLUDE = KeyId.of("test:include");
+
+    private InMemoryPack pack;
+    private GraphicsResourceManager manager;
+    private Map<KeyId, AtomicInteger> loads;
+    private List<KeyId> loadOrder;
+    private Map<KeyId, Thread> loadThreads;
+
+    @BeforeEach
+    void setUp() {
+        pack = new InMemoryPack();
+        loads = new ConcurrentHashMap<>();
+        loadOrder = Collections.synchronizedList(new ArrayList<>());
+        loadThreads = new ConcurrentHashMap<>();
+        manager = new GraphicsResourceManager();
+        manager.setReloadExecutor(Runnable::run);
+        manager.registerLoader(ResourceTypes.FUNCTION, new TestLoader(ResourceTypes.FUNCTION));
+        manager.registerLoader(ResourceTypes.DRAW_CALL, new TestLoader(ResourceTypes.DRAW_CALL));
+        manager.setScanProvider(pack);
+
+        pack.put(ResourceTypes.FUNCTION, BASE, "{\"value\":1,\"include\":\"test:include\"}");
+        pack.put(ResourceTypes.FUNCTION, DERIVED, "{\"value\":2,\"uses\":\"test:base\"}");
+        pack.put(ResourceTypes.FUNCTION, DECLARED, "{\"value\":3,\"declares\":\"test:base\"}");
+        pack.put(ResourceTypes.DRAW_CALL, DRAW, "{\"value\":4,\"uses\":\"test:derived\"}");
+        pack.subResources.put(INCLUDE, "v1");
+        manager.reload();
+        loads.clear();
+    }
+
+    @Test
+    void unchangedPackReloadsNothing() {
+        ResourceReloadSummary summary = manager.reloadIncremental();
+
+        assertTrue(summary.unchanged());
+        assertEquals(4, summary.scannedCount());
+        assertTrue(loads.isEmpty());
+    }
+
+    @Test
+    void changedSourceReloadsItselfAndTransitiveDependents() {
+        TestResource oldBase = manager.getResource(ResourceTypes.FUNCTION, BASE);
+        TestResource oldDraw = manager.getResource(ResourceTypes.DRAW_CALL, DRAW);
+        pack.put(ResourceTypes.FUNCTION, BASE, "{\"value\":10,\"include\":\"test:include\"}");
+
+        ResourceReloadSummary summary = manager.reloadIncremental();
+
+        assertEquals(1, summary.changedCount());
+        // base, derived (looked it up), declared (dependsOn) and draw (looked up derived)
+        assertEquals(4, summary.reloadedCount());
+        assertEquals(10, this.<TestResource>resource(ResourceTypes.FUNCTION, BASE).value());
+        assertTrue(oldBase.isDisposed());
+        assertTrue(oldDraw.isDisposed());
+        assertNotSame(oldDraw, manager.getResource(ResourceTypes.DRAW_CALL, DRAW));
+    }
+
+    @Test
+    void changedLeafDoesNotReloadWhatItDependsOn() {
+        TestResource base = manager.getResource(ResourceTypes.FUNCTION, BASE);
+        pack.put(ResourceTypes.DRAW_CALL, DRAW, "{\"value\":5,\"uses\":\"test:derived\"}");
+
+        ResourceReloadSummary summary = manager.reloadIncremental();
+
+        assertEquals(1, summary.reloadedCount());
+        assertEquals(1, loads.get(DRAW).get());
+        assertSame(base, manager.getResource(ResourceTypes.FUNCTION, BASE));
+    }
+
+    @Test
+    void changedSubResourceInvalidatesTheResourceThatReadIt() {
+        pack.subResources.put(INCLUDE, "v2");
+
+        ResourceReloadSummary summary = manager.reloadIncremental();
+
+        assertEquals(1, summary.changedCount());
+        assertEquals(4, summary.reloadedCount());
+        assertEquals(1, loads.get(BASE).get());
+    }
+
+    @Test
+    void removedSourceIsDisposedAndItsDependentsReload() {
+        TestResource oldBase = manager.getResource(ResourceTypes.FUNCTION, BASE);
+        pack.remove(ResourceTypes.FUNCTION, BASE);
+
+        ResourceReloadSummary summary = manager.reloadIncremental();
+
+        assertEquals(1, summary.removedCount());
+        assertNull(manager.getResource(ResourceTypes.FUNCTION, BASE));
+        assertTrue(oldBase.isDisposed());
+        assertEquals(1, loads.get(DERIVED).get());
+        assertEquals(1, loads.get(DECLARED).get());
+        assertEquals(1, loads.get(DRAW).get());
+    }
+
+    @Test
+    void lookupsOutsideALoadAreNotAttributed() throws InterruptedException {
+        // Lookups from the caller and from an unrelated thread must not become
+        // dependencies of anything; otherwise a later change would fan out
+        manager.getResource(ResourceTypes.FUNCTION, BASE);
+        Thread other = new Thread(() -> manager.getReference(ResourceTypes.DRAW_CALL, DRAW));
+        other.start();
+        other.join();
+        pack.put(ResourceTypes.FUNCTION, DECLARED, "{\"value\":30}");
+
+        ResourceReloadSummary summary = manager.reloadIncremental();
+
+        assertEquals(1, summary.reloadedCount());
+        assertEquals(1, loads.get(DECLARED).get());
+    }
+
+    @Test
+    void declaredDependencyDropsOnceTheSourceStopsDeclaringIt() {
+        pack.put(ResourceTypes.FUNCTION, DECLARED, "{\"value\":30}");
+        manager.reloadIncremental();
+        loads.clear();
+        pack.put(ResourceTypes.FUNCTION, BASE, "{\"value\":11,\"include\":\"test:include\"}");
+
+        manager.reloadIncremental();
+
+        assertNull(loads.get(DECLARED));
+        assertEquals(1, loads.get(DERIVED).get());
+    }
+
+    @Test
+    void fullReloadLoadsCpuTypesSeriallyInScanOrder() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            manager.setReloadExecutor(executor);
+            loadOrder.clear();
+
+            manager.reload();
+
+            assertEquals(List.of(BASE, DERIVED, DECLARED, DRAW), loadOrder);
+            for (Thread thread : loadThreads.values()) {
+                assertSame(Thread.currentThread(), thread);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void incrementalReloadLoadsIndependentCpuResourcesOnTheExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            manager.setReloadExecutor(executor);
+            loadThreads.clear();
+            pack.put(ResourceTypes.FUNCTION, BASE, "{\"value\":10,\"include\":\"test:include\"}");
+            pack.put(ResourceTypes.FUNCTION, DECLARED, "{\"value\":30,\"declares\":\"test:base\"}");
+
+            manager.reloadIncremental();
+
+            assertNotSame(Thread.currentThread(), loadThreads.get(BASE));
+            assertNotSame(Thread.currentThread(), loadThreads.get(DECLARED));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends ResourceObject> T resource(KeyId type, KeyId name) {
+        return (T) manager.getResource(type, name);
+    }
+
+    private final class TestLoader implements ResourceLoader<TestResource> {
+        private final KeyId type;
+
+        private TestLoader(KeyId type) {
+            this.type = type;
+        }
+
+        @Override
+        public TestResource load(ResourceLoadContext context) {
+            JsonObject json = context.getJson();
+            if (json.has("uses")) {
+                context.resourceManager().getResource(ResourceTypes.FUNCTION, KeyId.of(json.get("uses").getAsString()));
+            }
+            if (json.has("declares")) {
+                context.dependsOn(ResourceTypes.FUNCTION, KeyId.of(json.get("declares").getAsString()));
+            }
+            if (json.has("include")) {
+                context.getSubResourceProvider().apply(KeyId.of(json.get("include").getAsString()));
+            }
+            loads.computeIfAbsent(context.getResourceId(), id -> new AtomicInteger()).incrementAndGet();
+            loadOrder.add(context.getResourceId());
+            loadThreads.put(context.getResourceId(), Thread.currentThread());
+            return new TestResource(json.get("value").getAsInt());
+        }
+
+        @Override
+        public KeyId getResourceType() {
+            return type;
+        }
+    }
+
+    private static final class TestResource implements ResourceObject {
+        private final int value;
+        private boolean disposed;
+
+        private TestResource(int value) {
+            this.value = value;
+        }
+
+        int value() {
+            return value;
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+
+    private static final class InMemoryPack implements ResourceScanProvider {
+        private final Map<KeyId, Map<KeyId, String>> sources = new ConcurrentHashMap<>();
+        private final Map<KeyId, String> subResources = new ConcurrentHashMap<>();
+
+        void put(KeyId type, KeyId name, String source) {
+            sources.computeIfAbsent(type, t -> Collections.synchronizedMap(new LinkedHashMap<>())).put(name, source);
+        }
+
+        void remove(KeyId type, KeyId name) {
+            sources.getOrDefault(type, Map.of()).remove(name);
+        }
+
+        @Override
+        public Map<KeyId, InputStream> scanResources(KeyId resourceType) {
+            Map<KeyId, InputStream> result = new LinkedHashMap<>();
+            sources.getOrDefault(resourceType, Map.of())
+                    .forEach((name, source) -> result.put(name, stream(source)));
+            return result;
+        }
+
+        @Override
+        public Optional<InputStream> getSubResource(KeyId identifier) {
+            String source = subResources.get(identifier);
+            return source != null ? Optional.of(stream(source)) : Optional.empty();
+        }
+
+        @Override
+        public List<PackFeatureDefinition> getPackFeatures() {
+            return List.of();
+        }
+
+        private static InputStream stream(String source) {
+            return new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
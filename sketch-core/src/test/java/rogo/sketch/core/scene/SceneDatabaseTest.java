@@ -0,0 +1,250 @@
+package rogo.sketch.core.scene;
+
+import org.joml.primitives.AABBf;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Terrain region diffing and the change journal of {@link SceneDatabase},
+ * driven by a camera window sliding over a synthetic region grid.
+ */
+class SceneDatabaseTest {
+    private static final int GRID_SIZE = 64;
+    private static final int REGION_SIZE = 16;
+    private static final int RADIUS = 6;
+    private static final int WINDOW_EDGE = 2 * RADIUS + 1;
+
+    private final RegionSource[] grid = new RegionSource[GRID_SIZE * GRID_SIZE];
+
+    SceneDatabaseTest() {
+        for (int z = 0; z < GRID_SIZE; z++) {
+            for (int x = 0; x < GRID_SIZE; x++) {
+                grid[z * GRID_SIZE + x] = new RegionSource(
+                        (long) z * GRID_SIZE + x,
+                        new AABBf(x * REGION_SIZE, 0, z * REGION_SIZE, (x + 1) * REGION_SIZE, 64, (z + 1) * REGION_SIZE));
+            }
+        }
+    }
+
+    @Test
+    void slidingWindowMatchesStoreAndJournalReplay() {
+        SceneDatabase database = new SceneDatabase();
+        Map<Object, SceneProxy> mirror = new HashMap<>();
+        long cursor = database.journalCursor();
+        Random random = new Random(46L);
+        int cameraX = GRID_SIZE / 2;
+        int cameraZ = GRID_SIZE / 2;
+
+        for (int frame = 0; frame < 500; frame++) {
+            if (random.nextInt(50) == 0) {
+                cameraX = RADIUS + random.nextInt(GRID_SIZE - 2 * RADIUS);
+                cameraZ = RADIUS + random.nextInt(GRID_SIZE - 2 * RADIUS);
+            } else {
+                cameraX = clamp(cameraX + random.nextInt(3) - 1);
+                cameraZ = clamp(cameraZ + random.nextInt(3) - 1);
+            }
+            List<RegionSource> window = window(cameraX, cameraZ);
+            database.replaceTerrainRegionProxies(window);
+
+            assertEquals(keys(window), keys(database.snapshotTerrainRegions()), "frame " + frame);
+            SceneDatabase.ChangeBatch batch = database.changesSince(cursor);
+            assertTrue(batch.complete());
+            long previous = cursor;
+            for (SceneChange change : batch.changes()) {
+                assertEquals(previous + 1L, change.sequence(), "journal sequences are contiguous");
+                previous = change.sequence();
+                apply(mirror, change);
+            }
+            cursor = batch.cursor();
+            assertEquals(database.journalCursor(), cursor);
+            assertEquals(byKey(database.snapshotTerrainRegions()), mirror, "frame " + frame);
+        }
+    }
+
+    @Test
+    void oneRegionSlideJournalsOnlyTheEdges() {
+        SceneDatabase database = new SceneDatabase();
+        int cameraZ = GRID_SIZE / 2;
+        database.replaceTerrainRegionProxies(window(RADIUS, cameraZ));
+
+        for (int cameraX = RADIUS + 1; cameraX < GRID_SIZE - RADIUS; cameraX++) {
+            long cursor = database.journalCursor();
+            List<SceneProxy> before = database.snapshotTerrainRegions();
+            database.replaceTerrainRegionProxies(window(cameraX, cameraZ));
+
+            List<SceneChange> changes = database.changesSince(cursor).changes();
+            assertEquals(2 * WINDOW_EDGE, changes.size(), "camera x " + cameraX);
+            assertEquals(WINDOW_EDGE, count(changes, SceneChange.Type.ADDED));
+            assertEquals(WINDOW_EDGE, count(changes, SceneChange.Type.REMOVED));
+            for (SceneChange change : changes) {
+                long hostKey = (Long) change.proxy().hostKey();
+                int expectedColumn = change.type() == SceneChange.Type.ADDED ? cameraX + RADIUS : cameraX - RADIUS - 1;
+                assertEquals(expectedColumn, (int) (hostKey % GRID_SIZE));
+            }
+
+            // Resubmitting the same window is free and keeps the published list
+            List<SceneProxy> published = database.snapshotTerrainRegions();
+            long settled = database.journalCursor();
+            database.replaceTerrainRegionProxies(window(cameraX, cameraZ));
+            assertEquals(settled, database.journalCursor());
+            assertSame(published, database.snapshotTerrainRegions());
+            assertNotSame(before, published);
+        }
+    }
+
+    @Test
+    void movedRegionJournalsOneUpdate() {
+        SceneDatabase database = new SceneDatabase();
+        List<RegionSource> window = window(GRID_SIZE / 2, GRID_SIZE / 2);
+        database.replaceTerrainRegionProxies(window);
+        long cursor = database.journalCursor();
+
+        List<RegionSource> moved = new ArrayList<>(window);
+        RegionSource original = moved.get(7);
+        AABBf raised = new AABBf(original.bounds()).translate(0.0f, 32.0f, 0.0f);
+        moved.set(7, new RegionSource(original.hostKey(), raised));
+        database.replaceTerrainRegionProxies(moved);
+
+        List<SceneChange> changes = database.changesSince(cursor).changes();
+        assertEquals(1, changes.size());
+        assertEquals(SceneChange.Type.UPDATED, changes.get(0).type());
+        assertEquals(raised, database.proxy(original.hostKey()).bounds());
+        assertEquals(keys(window), keys(database.snapshotTerrainRegions()));
+    }
+
+    @Test
+    void journalOverflowIsReportedAndSnapshotRecovers() {
+        int capacity = 4 * WINDOW_EDGE;
+        SceneDatabase database = new SceneDatabase(capacity);
+        Map<Object, SceneProxy> mirror = new HashMap<>();
+        long cursor = database.journalCursor();
+        int cameraZ = GRID_SIZE / 2;
+
+        // The first window alone overflows the journal
+        database.replaceTerrainRegionProxies(window(RADIUS, cameraZ));
+        SceneDatabase.ChangeBatch overflowed = database.changesSince(cursor);
+        assertFalse(overflowed.complete());
+        assertTrue(overflowed.changes().isEmpty());
+        assertEquals(database.journalCursor(), overflowed.cursor());
+        mirror.clear();
+        mirror.putAll(byKey(database.snapshotTerrainRegions()));
+        cursor = overflowed.cursor();
+
+        // Two slides fit exactly; the consumer still replays them
+        for (int cameraX = RADIUS + 1; cameraX <= RADIUS + 2; cameraX++) {
+            database.replaceTerrainRegionProxies(window(cameraX, cameraZ));
+        }
+        SceneDatabase.ChangeBatch exact = database.changesSince(cursor);
+        assertTrue(exact.complete());
+        assertEquals(capacity, exact.changes().size());
+        exact.changes().forEach(change -> apply(mirror, change));
+        cursor = exact.cursor();
+        assertEquals(byKey(database.snapshotTerrainRegions()), mirror);
+
+        // A consumer that falls three slides behind has lost the oldest changes
+        for (int cameraX = RADIUS + 3; cameraX <= RADIUS + 5; cameraX++) {
+            database.replaceTerrainRegionProxies(window(cameraX, cameraZ));
+        }
+        SceneDatabase.ChangeBatch behind = database.changesSince(cursor);
+        assertFalse(behind.complete());
+        assertTrue(behind.changes().isEmpty());
+        mirror.clear();
+        mirror.putAll(byKey(database.snapshotTerrainRegions()));
+        cursor = behind.cursor();
+
+        database.replaceTerrainRegionProxies(window(RADIUS + 6, cameraZ));
+        SceneDatabase.ChangeBatch caughtUp = database.changesSince(cursor);
+        assertTrue(caughtUp.complete());
+        caughtUp.changes().forEach(change -> apply(mirror, change));
+        assertEquals(byKey(database.snapshotTerrainRegions()), mirror);
+        assertEquals(keys(window(RADIUS + 6, cameraZ)), mirror.keySet());
+    }
+
+    @Test
+    void unchangedTouchesJournalNothing() {
+        SceneDatabase database = new SceneDatabase();
+        AABBf bounds = new AABBf(0, 0, 0, 1, 2, 1);
+        database.touchEntityProxy("zombie", bounds, 3, null);
+        long cursor = database.journalCursor();
+
+        database.touchEntityProxy("zombie", new AABBf(bounds), 3, null);
+        assertEquals(cursor, database.journalCursor());
+
+        database.touchEntityProxy("zombie", bounds, 4, null);
+        database.touchBlockEntityProxy("zombie", bounds, 4, null);
+        List<SceneChange> changes = database.changesSince(cursor).changes();
+        assertEquals(2, changes.size());
+        assertEquals(SceneChange.Type.UPDATED, changes.get(1).type());
+        assertTrue(database.snapshotEntities().isEmpty());
+        assertEquals(1, database.snapshotBlockEntities().size());
+
+        database.remove("zombie");
+        assertEquals(SceneChange.Type.REMOVED, database.changesSince(cursor + 2L).changes().get(0).type());
+        assertNull(database.proxy("zombie"));
+    }
+
+    private List<RegionSource> window(int centerX, int centerZ) {
+        List<RegionSource> window = new ArrayList<>(WINDOW_EDGE * WINDOW_EDGE);
+        for (int z = centerZ - RADIUS; z <= centerZ + RADIUS; z++) {
+            for (int x = centerX - RADIUS; x <= centerX + RADIUS; x++) {
+                window.add(grid[z * GRID_SIZE + x]);
+            }
+        }
+        return window;
+    }
+
+    private static int clamp(int center) {
+        return Math.max(RADIUS, Math.min(GRID_SIZE - RADIUS - 1, center));
+    }
+
+    private static void apply(Map<Object, SceneProxy> mirror, SceneChange change) {
+        if (change.type() == SceneChange.Type.REMOVED) {
+            mirror.remove(change.proxy().hostKey());
+        } else {
+            mirror.put(change.proxy().hostKey(), change.proxy());
+        }
+    }
+
+    private static int count(List<SceneChange> changes, SceneChange.Type type) {
+        int count = 0;
+        for (SceneChange change : changes) {
+            if (change.type() == type) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Set<Object> keys(List<?> regions) {
+        Set<Object> keys = new HashSet<>();
+        for (Object region : regions) {
+            keys.add(region instanceof SceneProxy proxy ? proxy.hostKey() : ((RegionSource) region).hostKey());
+        }
+        return keys;
+    }
+
+    private static Map<Object, SceneProxy> byKey(List<SceneProxy> proxies) {
+        Map<Object, SceneProxy> byKey = new HashMap<>();
+        for (SceneProxy proxy : proxies) {
+            byKey.put(proxy.hostKey(), proxy);
+        }
+        return byKey;
+    }
+
+    private record RegionSource(Object hostKey, AABBf bounds) implements SceneDatabase.TerrainRegionProxySource {
+    }
+}
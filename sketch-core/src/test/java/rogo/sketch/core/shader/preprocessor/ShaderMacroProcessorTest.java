@@ -0,0 +1,87 @@
+package rogo.sketch.core.shader.preprocessor;
+
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.util.KeyId;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@code #if} expression evaluation in {@link ShaderMacroProcessor}. Each
+ * case wraps the expression in an {@code #if}/{@code #else} block and reads
+ * back which branch survived.
+ */
+class ShaderMacroProcessorTest {
+    private static final KeyId SHADER_ID = KeyId.of("test", "macro_eval");
+
+    @Test
+    void logicalOperatorsParseTheirRightOperandWhenShortCircuiting() throws ShaderPreprocessorException {
+        assertEquals("no", branch("0 && UNDEFINED", Map.of()));
+        assertEquals("no", branch("defined(A) && B > 1", Map.of()));
+        assertEquals("yes", branch("1 || UNDEFINED", Map.of()));
+        assertEquals("yes", branch("defined(A) || (B + 1) * 2", Map.of("A", "1")));
+        assertEquals("yes", branch("0 && X || 1 && Y == 0", Map.of()));
+    }
+
+    @Test
+    void logicalOperatorsFollowCPrecedence() throws ShaderPreprocessorException {
+        // && binds tighter than ||
+        assertEquals("yes", branch("1 || 0 && 0", Map.of()));
+        assertEquals("no", branch("(1 || 0) && 0", Map.of()));
+        assertEquals("yes", branch("!defined(A) && !0", Map.of()));
+        assertEquals("yes", branch("A == 2 && B != 3 || 0", Map.of("A", "2", "B", "4")));
+    }
+
+    @Test
+    void arithmeticAndComparisonsUseMacroValues() throws ShaderPreprocessorException {
+        Map<String, String> macros = Map.of("MAX_LIGHTS", "8", "ENABLED", "true", "EMPTY", "");
+        assertEquals("yes", branch("MAX_LIGHTS > 4 && MAX_LIGHTS % 4 == 0", macros));
+        assertEquals("yes", branch("MAX_LIGHTS / 0 == 0", macros));
+        assertEquals("yes", branch("ENABLED && EMPTY", macros));
+        assertEquals("no", branch("MAX_LIGHTS - 8", macros));
+        assertEquals("yes", branch("-MAX_LIGHTS < 0 && 0x10 == 16", macros));
+    }
+
+    @Test
+    void macrosDefinedInSourceAffectLaterConditions() throws ShaderPreprocessorException {
+        String source = """
+                #version 450 core
+                #define LEVEL 3
+                #define HIGH (LEVEL >= 2)
+                #if HIGH && defined(LEVEL)
+                high
+                #elif LEVEL
+                mid
+                #else
+                low
+                #endif
+                """;
+
+        String out = ShaderMacroProcessor.process(source, SHADER_ID, Map.of()).source();
+
+        assertEquals(1, count(out, "high"));
+        assertEquals(0, count(out, "mid"));
+        assertEquals(0, count(out, "low"));
+    }
+
+    @Test
+    void trailingTokensAreRejected() {
+        assertThrows(ShaderPreprocessorException.class, () -> branch("1 2", Map.of()));
+        assertThrows(ShaderPreprocessorException.class, () -> branch("(1 || 0", Map.of()));
+    }
+
+    private static String branch(String expression, Map<String, String> macros) throws ShaderPreprocessorException {
+        String source = "#version 450 core\n#if " + expression + "\nyes\n#else\nno\n#endif\n";
+        String out = ShaderMacroProcessor.process(source, SHADER_ID, macros).source();
+        boolean yes = out.lines().anyMatch("yes"::equals);
+        boolean no = out.lines().anyMatch("no"::equals);
+        assertEquals(1, (yes ? 1 : 0) + (no ? 1 : 0), () -> "expected exactly one branch for '" + expression + "':\n" + out);
+        return yes ? "yes" : "no";
+    }
+
+    private static int count(String text, String line) {
+        return (int) text.lines().filter(line::equals).count();
+    }
+}
@@ -0,0 +1,252 @@
+package rogo.sketch.core.ui.layout;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.ui.geometry.UiRect;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A long-lived {@link LayoutNode} tree mutated through its setters, compared
+ * node for node with a tree rebuilt from scratch after every mutation.
+ */
+class LayoutNodeRetainedLayoutTest {
+    private static final int ROWS = 40;
+
+    private final String[] values = new String[ROWS];
+    private final int[] barWidths = new int[ROWS];
+    private String title = "Frame timings";
+    private double scroll;
+    private int gap = 3;
+    private LayoutViewportState viewport = LayoutViewportState.identity();
+    private int badgeOffset;
+    private LayoutAnchored.HorizontalAlign badgeAlign = LayoutAnchored.HorizontalAlign.LEFT;
+    private final List<String> measured = new ArrayList<>();
+    private int layoutCalls;
+
+    @Test
+    void retainedTreeMatchesFullRebuild() {
+        Random random = new Random(48L);
+        for (int i = 0; i < ROWS; i++) {
+            values[i] = Integer.toString(random.nextInt(1000));
+            barWidths[i] = random.nextInt(80);
+        }
+        Map<String, LayoutNode> retainedById = new HashMap<>();
+        LayoutNode retained = build(retainedById);
+        int width = 320;
+        int height = 240;
+        pass(retained, width, height);
+        long retainedMeasures = 0L;
+        long rebuiltMeasures = 0L;
+
+        for (int step = 0; step < 3000; step++) {
+            int op = random.nextInt(14);
+            switch (op) {
+                case 0, 1, 2, 3, 4 -> {
+                    int row = random.nextInt(ROWS);
+                    values[row] = Integer.toString(random.nextInt(op < 3 ? 1000 : 10_000_000));
+                    retainedById.get("value-" + row).payload(values[row]);
+                }
+                case 5 -> {
+                    int row = random.nextInt(ROWS);
+                    barWidths[row] = random.nextInt(80);
+                    retainedById.get("bar-" + row).preferredSize(barWidths[row], 6);
+                }
+                case 6 -> {
+                    scroll = random.nextInt(400);
+                    ((LayoutScrollPane) retainedById.get("scroll")).scrollOffset(scroll);
+                }
+                case 7 -> {
+                    gap = 1 + random.nextInt(6);
+                    ((LayoutContainer) retainedById.get("rows")).gap(gap);
+                }
+                case 8 -> {
+                    viewport = random.nextBoolean()
+                            ? viewport.translated(random.nextInt(21) - 10, random.nextInt(21) - 10)
+                            : viewport.zoomed(0.5D + random.nextInt(8) * 0.25D);
+                    ((LayoutViewport2D) retainedById.get("graph")).state(viewport);
+                }
+                case 9 -> {
+                    badgeOffset = random.nextInt(12);
+                    badgeAlign = LayoutAnchored.HorizontalAlign.values()[random.nextInt(3)];
+                    ((LayoutAnchored) retainedById.get("badge")).offset(badgeOffset, 2).horizontalAlign(badgeAlign);
+                }
+                case 10 -> {
+                    title = random.nextBoolean() ? "Frame timings" : "Frame timings (paused at tick " + step + ")";
+                    retainedById.get("title").payload(title);
+                }
+                case 11 -> width = 160 + random.nextInt(400);
+                case 12 -> height = 120 + random.nextInt(300);
+                default -> {
+                    // Nothing changes; the retained pass must be free
+                }
+            }
+
+            measured.clear();
+            layoutCalls = 0;
+            pass(retained, width, height);
+            if (op == 13) {
+                assertEquals(List.of(), measured, "step " + step);
+                assertEquals(0, layoutCalls, "step " + step);
+            }
+            retainedMeasures += measured.size();
+            retained.visit(node -> assertFalse(node.isDirty(), node.id()));
+
+            measured.clear();
+            LayoutNode rebuilt = build(new HashMap<>());
+            pass(rebuilt, width, height);
+            rebuiltMeasures += measured.size();
+            assertEquals(dump(rebuilt), dump(retained), "step " + step + " op " + op);
+        }
+        assertTrue(retainedMeasures * 5 < rebuiltMeasures,
+                "retained " + retainedMeasures + " vs rebuilt " + rebuiltMeasures + " measureSelf calls");
+    }
+
+    @Test
+    void layoutOnlyChangesKeepMeasurements() {
+        Map<String, LayoutNode> byId = new HashMap<>();
+        for (int i = 0; i < ROWS; i++) {
+            values[i] = Integer.toString(i * 37);
+        }
+        LayoutNode root = build(byId);
+        pass(root, 320, 240);
+
+        measured.clear();
+        ((LayoutScrollPane) byId.get("scroll")).scrollOffset(120.0D);
+        ((LayoutViewport2D) byId.get("graph")).state(LayoutViewportState.identity().translated(4, 4));
+        ((LayoutAnchored) byId.get("badge")).offset(6, 0);
+        assertTrue(root.isDirty());
+        pass(root, 320, 240);
+        assertEquals(List.of(), measured);
+
+        // Re-setting equal values does not dirty anything
+        byId.get("value-3").payload(values[3]);
+        ((LayoutContainer) byId.get("rows")).gap(gap);
+        byId.get("bar-0").preferredSize(0, 6);
+        assertFalse(root.isDirty());
+
+        measured.clear();
+        byId.get("value-3").payload("a much longer value than before");
+        assertTrue(byId.get("row-3").isDirty());
+        assertFalse(byId.get("row-4").isDirty());
+        pass(root, 320, 240);
+        // Only the edited leaf, once per constraint its row measures it under; its siblings answer from cache
+        assertEquals(List.of("value-3", "value-3", "value-3"), measured);
+    }
+
+    private LayoutNode build(Map<String, LayoutNode> byId) {
+        LayoutColumn root = new LayoutColumn("root");
+        root.padding(UiInsets.all(4)).gap(2);
+
+        LayoutRow header = new LayoutRow("header");
+        header.gap(4);
+        header.child(register(byId, new TextLeaf("title").payload(title)))
+                .child(register(byId, new CountingLeaf("spacer").growX(1.0f)))
+                .child(register(byId, new TextLeaf("clock").payload("12:00:00").alignY(UiAxisAlignment.START).fillY(false)));
+        root.child(register(byId, header));
+
+        LayoutColumn rows = new LayoutColumn("rows");
+        rows.gap(gap);
+        for (int i = 0; i < ROWS; i++) {
+            LayoutRow row = new LayoutRow("row-" + i);
+            row.gap(2).padding(new UiInsets(2, 1, 2, 1));
+            row.child(register(byId, new TextLeaf("label-" + i).payload("metric " + i)))
+                    .child(register(byId, new TextLeaf("value-" + i).payload(values[i]).growX(1.0f)))
+                    .child(register(byId, new CountingLeaf("bar-" + i)
+                            .preferredSize(barWidths[i], 6)
+                            .fillY(false)
+                            .alignY(UiAxisAlignment.values()[i % 3])
+                            .margin(new UiInsets(1, 0, 1, 0))));
+            rows.child(register(byId, row));
+        }
+        register(byId, rows);
+        LayoutScrollPane scrollPane = new LayoutScrollPane("scroll", rows, LayoutAxis.VERTICAL);
+        scrollPane.scrollOffset(scroll).growY(1.0f);
+        root.child(register(byId, scrollPane));
+
+        LayoutStack footer = new LayoutStack("footer");
+        footer.preferredHeight(80);
+        LayoutViewport2D graph = new LayoutViewport2D("graph", register(byId, new CountingLeaf("plot").preferredSize(400, 120)));
+        graph.state(viewport);
+        LayoutAnchored badge = new LayoutAnchored("badge", register(byId, new TextLeaf("badge-text").payload("GPU").fillX(false).fillY(false)));
+        badge.offset(badgeOffset, 2).horizontalAlign(badgeAlign);
+        footer.child(register(byId, graph)).child(register(byId, badge));
+        root.child(register(byId, footer.border(UiInsets.all(1))));
+        return register(byId, root);
+    }
+
+    private static LayoutNode register(Map<String, LayoutNode> byId, LayoutNode node) {
+        byId.put(node.id(), node);
+        return node;
+    }
+
+    private static void pass(LayoutNode root, int width, int height) {
+        root.measure(UiConstraints.of(width, height));
+        root.layout(new UiRect(0, 0, width, height), null);
+    }
+
+    private static List<Object> dump(LayoutNode root) {
+        List<Object> nodes = new ArrayList<>();
+        root.visit(node -> {
+            nodes.add(node.id());
+            nodes.add(node.bounds());
+            nodes.add(String.valueOf(node.clipRect()));
+            if (node instanceof LayoutScrollPane scrollPane) {
+                nodes.add(scrollPane.contentSize());
+            } else if (node instanceof LayoutViewport2D viewport2D) {
+                nodes.add(viewport2D.contentSize());
+                nodes.add(viewport2D.viewportBounds());
+                nodes.add(viewport2D.transform());
+            }
+        });
+        return nodes;
+    }
+
+    /**
+     * Leaf sized like a line-wrapped label of its payload, 6px per glyph.
+     */
+    private final class TextLeaf extends LayoutNode {
+        TextLeaf(String id) {
+            super(id);
+        }
+
+        @Override
+        protected UiSize measureSelf(UiConstraints constraints) {
+            measured.add(id());
+            int textWidth = String.valueOf(payload()).length() * 6;
+            int width = Math.min(constraints.maxWidth(), textWidth);
+            int lines = Math.max(1, (textWidth + Math.max(1, constraints.maxWidth()) - 1) / Math.max(1, constraints.maxWidth()));
+            return new UiSize(width, Math.min(constraints.maxHeight(), lines * 9));
+        }
+
+        @Override
+        protected void onLayout(UiRect bounds, @Nullable UiRect inheritedClipRect) {
+            layoutCalls++;
+        }
+    }
+
+    private final class CountingLeaf extends LayoutNode {
+        CountingLeaf(String id) {
+            super(id);
+        }
+
+        @Override
+        protected UiSize measureSelf(UiConstraints constraints) {
+            measured.add(id());
+            return super.measureSelf(constraints);
+        }
+
+        @Override
+        protected void onLayout(UiRect bounds, @Nullable UiRect inheritedClipRect) {
+            layoutCalls++;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package rogo.sketch.core.ui.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link UiTextLayoutCache} answers compared with uncached
+ * {@link UiTextLayouts} / {@link UiTextMetrics} calls while strings, widths
+ * and the font size change underneath it.
+ */
+class UiTextLayoutCacheTest {
+    private static final String[] WORDS = {"frame", "gpu", "upload", "wait", "ms", "i", "mmmm", "42.5", "lit", "shadow"};
+    private static final int[] WIDTHS = {0, 1, 12, 40, 80, 160, Integer.MAX_VALUE};
+
+    @Test
+    void cachedLayoutsMatchUncachedAcrossFontSizes() {
+        Random random = new Random(48L);
+        ScalingMetrics metrics = new ScalingMetrics();
+        UiTextLayoutCache cache = new UiTextLayoutCache(metrics, 64);
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            texts.add(randomText(random));
+        }
+
+        for (int step = 0; step < 20_000; step++) {
+            if (random.nextInt(500) == 0) {
+                // A font size change must not serve layouts of the old size
+                metrics.lineHeight = metrics.lineHeight == 9 ? 12 : 9;
+            }
+            String text = texts.get(random.nextInt(texts.size()));
+            int width = WIDTHS[random.nextInt(WIDTHS.length)];
+            String label = "step " + step + " '" + text + "' width " + width;
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    int lineGap = random.nextInt(3);
+                    assertEquals(UiTextLayouts.measureWrapped(metrics, text, width, lineGap), cache.measureWrapped(text, width, lineGap), label);
+                }
+                case 1 -> assertEquals(UiTextLayouts.clipWithEllipsis(metrics, text, width), cache.clipWithEllipsis(text, width), label);
+                case 2 -> assertEquals(metrics.wrap(UiText.literal(text), width), cache.wrap(text, width), label);
+                default -> assertEquals(metrics.width(text), cache.width(text), label);
+            }
+            assertTrue(cache.size() <= 64);
+        }
+    }
+
+    @Test
+    void repeatedQueriesStopCallingMetrics() {
+        ScalingMetrics metrics = new ScalingMetrics();
+        UiTextLayoutCache cache = new UiTextLayoutCache(metrics, 8);
+        UiMeasuredTextBlock block = cache.measureWrapped("gpu upload wait\nshadow", 40, 1);
+        String clipped = cache.clipWithEllipsis("frame gpu upload", 40);
+        int width = cache.width("frame");
+
+        long calls = metrics.calls;
+        for (int i = 0; i < 100; i++) {
+            assertEquals(block, cache.measureWrapped("gpu upload wait\nshadow", 40, 1));
+            assertEquals(clipped, cache.clipWithEllipsis("frame gpu upload", 40));
+            assertEquals(width, cache.width("frame"));
+        }
+        assertEquals(calls, metrics.calls);
+
+        // Least recently used entries go first once past capacity
+        for (int i = 0; i < 8; i++) {
+            cache.width("filler" + i);
+            cache.width("frame");
+        }
+        assertEquals(8, cache.size());
+        calls = metrics.calls;
+        cache.width("frame");
+        assertEquals(calls, metrics.calls);
+        cache.measureWrapped("gpu upload wait\nshadow", 40, 1);
+        assertTrue(metrics.calls > calls);
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void missingMetricsFallBackToFixedGlyphWidths() {
+        UiTextLayoutCache cache = new UiTextLayoutCache(null);
+        assertEquals(UiTextLayouts.measureWrapped(null, "frame gpu", 20, 2), cache.measureWrapped("frame gpu", 20, 2));
+        assertEquals(UiTextLayouts.clipWithEllipsis(null, "frame gpu upload", 50), cache.clipWithEllipsis("frame gpu upload", 50));
+        assertEquals(UiTextLayouts.clipWithEllipsis(null, null, 50), cache.clipWithEllipsis(null, 50));
+        assertEquals(54, cache.width("frame gpu"));
+        assertThrows(IllegalStateException.class, () -> cache.wrap("frame", 10));
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        int words = random.nextInt(6);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(random.nextInt(8) == 0 ? "\n" : " ");
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Proportional glyphs scaled by the line height, so layouts differ per font size.
+     */
+    private static final class ScalingMetrics implements UiTextMetrics {
+        private int lineHeight = 9;
+        private long calls;
+
+        @Override
+        public String resolve(UiText text) {
+            return text.value();
+        }
+
+        @Override
+        public int width(String resolvedText) {
+            calls++;
+            int width = 0;
+            for (int i = 0; i < resolvedText.length(); i++) {
+                char c = resolvedText.charAt(i);
+                width += (c == 'i' || c == 'l' ? 2 : c == 'm' ? 8 : 6) * lineHeight / 9;
+            }
+            return width;
+        }
+
+        @Override
+        public int lineHeight() {
+            return lineHeight;
+        }
+
+        @Override
+        public String clipWithEllipsis(UiText text, int maxWidth) {
+            calls++;
+            String resolved = text.value();
+            if (width(resolved) <= maxWidth) {
+                return resolved;
+            }
+            while (!resolved.isEmpty() && width(resolved + "...") > maxWidth) {
+                resolved = resolved.substring(0, resolved.length() - 1);
+            }
+            return resolved + "...";
+        }
+
+        @Override
+        public List<String> wrap(UiText text, int maxWidth) {
+            calls++;
+            List<String> lines = new ArrayList<>();
+            StringBuilder line = new StringBuilder();
+            for (String word : text.value().split(" ")) {
+                String candidate = line.length() == 0 ? word : line + " " + word;
+                if (line.length() > 0 && width(candidate) > maxWidth) {
+                    lines.add(line.toString());
+                    line = new StringBuilder(word);
+                } else {
+                    line = new StringBuilder(candidate);
+                }
+            }
+            lines.add(line.toString());
+            return lines;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package rogo.sketch.core.vertex;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rogo.sketch.core.backend.BackendGeometryBinding;
+import rogo.sketch.core.data.format.VertexBufferKey;
+import rogo.sketch.core.memory.MemoryBudget;
+import rogo.sketch.core.memory.MemoryDomain;
+import rogo.sketch.core.memory.UnifiedMemoryFabric;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * LRU bookkeeping, hit/miss accounting and budget eviction in
+ * {@link MeshResidencyPool}, using size-only fake bindings.
+ */
+class MeshResidencyPoolTest {
+    private static final long BINDING_BYTES = 1_000L;
+
+    private final UnifiedMemoryFabric fabric = UnifiedMemoryFabric.get();
+    private MemoryBudget previousBudget;
+    private MeshResidencyPool pool;
+
+    @BeforeEach
+    void setUp() {
+        previousBudget = fabric.budget(MemoryDomain.GPU_GEOMETRY_ARENA);
+        fabric.configureBudget(MemoryDomain.GPU_GEOMETRY_ARENA, MemoryBudget.unbounded());
+        pool = new MeshResidencyPool("test-residency");
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.clearAll();
+        fabric.configureBudget(MemoryDomain.GPU_GEOMETRY_ARENA, previousBudget);
+    }
+
+    @Test
+    void peekAndResidencyChecksAreNotLookups() {
+        VertexBufferKey key = key(1);
+        FakeBinding binding = new FakeBinding(BINDING_BYTES);
+        pool.registerInstalledBinding(key, binding);
+
+        assertSame(binding, pool.peek(key));
+        assertTrue(pool.isResident(key));
+        assertNull(pool.peek(key(2)));
+        assertEquals(0L, pool.hitCount());
+        assertEquals(1L, pool.missCount());
+
+        assertSame(binding, pool.getIfPresent(key));
+        assertSame(binding, pool.get(key));
+        assertEquals(2L, pool.hitCount());
+    }
+
+    @Test
+    void missingBindingIsQueuedOnceForMaterialization() {
+        VertexBufferKey key = key(1);
+        FakeBinding source = new FakeBinding(0L);
+
+        assertNull(pool.get(key));
+        assertNull(pool.get(key, source));
+        List<MeshResidencyPool.PendingResidencyRequest> requests = pool.drainPendingMaterializationRequests();
+
+        assertEquals(1, requests.size());
+        assertSame(source, requests.get(0).sourceProvider(), "a request with a source provider wins");
+        assertEquals(0L, pool.hitCount());
+        assertEquals(0, pool.pendingRequestCount());
+    }
+
+    @Test
+    void peekedBindingIsEvictedBeforeLookedUpBinding() {
+        VertexBufferKey looked = key(1);
+        VertexBufferKey peeked = key(2);
+        FakeBinding lookedBinding = new FakeBinding(BINDING_BYTES);
+        FakeBinding peekedBinding = new FakeBinding(BINDING_BYTES);
+        pool.registerInstalledBinding(looked, lookedBinding);
+        pool.registerInstalledBinding(peeked, peekedBinding);
+        for (int frame = 0; frame < 3; frame++) {
+            assertEquals(0, pool.beginFrame());
+        }
+
+        pool.getIfPresent(looked);
+        pool.peek(peeked);
+        assertTrue(pool.isResident(peeked));
+        // Over budget by less than one binding: exactly the least recently used goes
+        long reserved = fabric.reservedBytes(MemoryDomain.GPU_GEOMETRY_ARENA);
+        fabric.configureBudget(MemoryDomain.GPU_GEOMETRY_ARENA, MemoryBudget.ofBytes(reserved - BINDING_BYTES / 2));
+
+        assertEquals(1, pool.beginFrame());
+        assertFalse(pool.isResident(peeked));
+        assertTrue(peekedBinding.isDisposed());
+        assertTrue(pool.isResident(looked));
+        assertFalse(lookedBinding.isDisposed());
+        assertEquals(1L, pool.evictionCount());
+        assertEquals(BINDING_BYTES, pool.residentBytes());
+
+        assertNull(pool.get(peeked));
+        assertEquals(1, pool.drainPendingMaterializationRequests().size(), "an evicted mesh is re-requested");
+    }
+
+    @Test
+    void recentlyUsedBindingsAreNotEvictedEvenOverBudget() {
+        VertexBufferKey key = key(1);
+        pool.registerInstalledBinding(key, new FakeBinding(BINDING_BYTES));
+        pool.beginFrame();
+        pool.getIfPresent(key);
+        fabric.configureBudget(MemoryDomain.GPU_GEOMETRY_ARENA, MemoryBudget.ofBytes(1L));
+
+        assertEquals(0, pool.beginFrame());
+        assertTrue(pool.isResident(key));
+    }
+
+    @Test
+    void backendResidentBytesAreReportedButNotLeased() {
+        pool.registerInstalledBinding(key(1), new FakeBinding(BINDING_BYTES));
+        pool.beginFrame();
+        long leasedBefore = fabric.reservedBytes(MemoryDomain.GPU_GEOMETRY_ARENA);
+        long arenaBytes = 66L * 1024L * 1024L;
+
+        pool.bindBackendResidentBytes(() -> arenaBytes);
+        pool.beginFrame();
+
+        assertEquals(BINDING_BYTES + arenaBytes, pool.residentBytes());
+        assertTrue(pool.statsLine().contains((BINDING_BYTES + arenaBytes) / 1024L + " KiB"), pool.statsLine());
+        assertEquals(leasedBefore, fabric.reservedBytes(MemoryDomain.GPU_GEOMETRY_ARENA),
+                "backend arenas lease their own bytes");
+
+        pool.bindBackendResidentBytes(null);
+        assertEquals(BINDING_BYTES, pool.residentBytes());
+    }
+
+    @Test
+    void replacingABindingDisposesThePreviousOne() {
+        VertexBufferKey key = key(1);
+        FakeBinding first = new FakeBinding(BINDING_BYTES);
+        FakeBinding second = new FakeBinding(BINDING_BYTES);
+
+        pool.registerInstalledBinding(key, first);
+        pool.registerInstalledBinding(key, second);
+
+        assertTrue(first.isDisposed());
+        assertSame(second, pool.peek(key));
+        assertEquals(1L, pool.missCount());
+    }
+
+    private static VertexBufferKey key(long sourceId) {
+        return VertexBufferKey.fromParameter(null, sourceId);
+    }
+
+    private static final class FakeBinding implements BackendGeometryBinding {
+        private final long residentBytes;
+        private boolean disposed;
+
+        private FakeBinding(long residentBytes) {
+            this.residentBytes = residentBytes;
+        }
+
+        @Override
+        public long residentBytes() {
+            return residentBytes;
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+}
@@ -17,6 +17,12 @@ import rogo.sketch.core.util.KeyId;
 
 /**
  * Core-owned entity culling resource store.
+ * <p>
+ * Resource ownership is serialized on this store's monitor. Host visibility
+ * queries instead read the immutable {@link EntityVisibilityView} published at
+ * {@link #swapBuffers(int, EntitySourceRegistry)}, so they never block on
+ * uploads or swaps running on other threads.
+ * </p>
  */
 public final class EntityMaskStateStore {
     private static final int ENTITY_RESULT_GROUP_SIZE = 64;
@@ -31,6 +37,7 @@ public final class EntityMaskStateStore {
             ignored -> null,
             EntityMaskStateStore::disposeQuietly);
     private ResourceEpoch resultEpoch = new ResourceEpoch(1L);
+    private volatile EntityVisibilityView visibilityView = EntityVisibilityView.EMPTY;
 
     public synchronized void ensureAllocated(int requiredSubjects) {
         if (!GraphicsDriver.isBootstrapped()) {
@@ -124,30 +131,42 @@ public final class EntityMaskStateStore {
         if (!isAllocated() || registry == null) {
             return;
         }
+        // Pack the two most recent result frames before the older one is
+        // recycled as the next write target; queries see this view until the
+        // following swap.
+        EntityVisibilityView packedView = EntityVisibilityView.pack(
+                resultEpoch,
+                registry.subjectCount(),
+                resultBuffers.writeResource(),
+                resultBuffers.readResource());
         resultBuffers.promote(resultEpoch);
         resultEpoch = resultEpoch.next();
         clearReadbackBuffer(resultBuffers.writeResource());
+        // Publish before promoting: a query that observes a promoted sample
+        // then reads this view or a newer one, never the previous frame's.
+        visibilityView = packedView;
         registry.promotePendingSamples();
     }
 
-    public synchronized boolean isVisible(Object subjectKey, EntitySourceRegistry registry) {
-        if (subjectKey == null || registry == null || !isAllocated()) {
+    /**
+     * Wait-free host query. Subjects without a published sample, or whose
+     * slot was assigned after the current view was packed, stay visible.
+     */
+    public boolean isVisible(Object subjectKey, EntitySourceRegistry registry) {
+        if (subjectKey == null || registry == null) {
             return true;
         }
-        int subjectIndex = registry.indexOf(subjectKey);
-        if (subjectIndex < 0 || !registry.hasVisibilitySample(subjectKey)) {
+        // The sample flag is read before the view, pairing with the publish order in swapBuffers
+        int subjectIndex = registry.sampledSlotOf(subjectKey);
+        if (subjectIndex < 0) {
             return true;
         }
-        BackendReadbackBuffer currentResultBuffer = resultBuffers.writeResource();
-        BackendReadbackBuffer previousResultBuffer = resultBuffers.readResource();
-        if (currentResultBuffer != null
-                && subjectIndex < currentResultBuffer.getDataCount()
-                && currentResultBuffer.getUnsignedByte(subjectIndex) > 0) {
-            return true;
-        }
-        return previousResultBuffer != null
-                && subjectIndex < previousResultBuffer.getDataCount()
-                && previousResultBuffer.getUnsignedByte(subjectIndex) > 0;
+        EntityVisibilityView view = visibilityView;
+        return !view.isActive() || view.isVisible(subjectIndex);
+    }
+
+    public EntityVisibilityView visibilityView() {
+        return visibilityView;
     }
 
     public synchronized int subjectCount(EntitySourceRegistry registry) {
@@ -163,6 +182,7 @@ public final class EntityMaskStateStore {
     }
 
     public synchronized void dispose() {
+        visibilityView = EntityVisibilityView.EMPTY;
         disposeQuietly(entityDataBuffer);
         resultBuffers.close();
         entityDataBuffer = null;
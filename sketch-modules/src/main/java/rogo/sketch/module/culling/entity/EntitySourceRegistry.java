@@ -9,17 +9,22 @@ import rogo.sketch.module.culling.VisibilitySystem;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Host-agnostic registry for entity/block-entity culling subjects.
+ * <p>
+ * Mutations stay serialized on the registry monitor. Each subject record also
+ * carries its dense slot and sample state so host visibility queries can use
+ * {@link #sampledSlotOf(Object)} without taking the monitor.
+ * </p>
  */
 public final class EntitySourceRegistry {
     private final IndexPool<Object> subjectIndex = new IndexPool<>();
-    private final Map<Object, SubjectRecord> subjectRecords = new HashMap<>();
+    private final Map<Object, SubjectRecord> subjectRecords = new ConcurrentHashMap<>();
     private final SceneDatabase sceneDatabase;
 
     public EntitySourceRegistry(SceneDatabase sceneDatabase) {
@@ -40,6 +45,7 @@ public final class EntitySourceRegistry {
             subjectIndex.add(subjectKey);
         }
         SubjectRecord record = subjectRecords.computeIfAbsent(subjectKey, ignored -> new SubjectRecord());
+        record.slot = subjectIndex.indexOf(subjectKey);
         if (sameData(record.data, subjectKind, bounds, flags, transformEntityId)) {
             return;
         }
@@ -76,6 +82,23 @@ public final class EntitySourceRegistry {
         return record != null && record.visibilitySampled;
     }
 
+    /**
+     * Lock-free lookup used by the per-frame visibility query path.
+     *
+     * @return the subject's dense slot, or {@code -1} when the subject is
+     * unknown or has not received a visibility sample yet
+     */
+    public int sampledSlotOf(Object subjectKey) {
+        if (subjectKey == null) {
+            return -1;
+        }
+        SubjectRecord record = subjectRecords.get(subjectKey);
+        if (record == null || !record.visibilitySampled) {
+            return -1;
+        }
+        return record.slot;
+    }
+
     public synchronized List<IndexedSubject> snapshot() {
         List<IndexedSubject> subjects = new ArrayList<>(subjectIndex.size());
         subjectIndex.forEach((subject, slot) -> {
@@ -138,11 +161,17 @@ public final class EntitySourceRegistry {
             return;
         }
         subjectIndex.remove(subject);
-        subjectRecords.remove(subject);
+        SubjectRecord record = subjectRecords.remove(subject);
+        if (record != null) {
+            record.invalidate();
+        }
     }
 
     public synchronized void clear() {
         subjectIndex.clear();
+        for (SubjectRecord record : subjectRecords.values()) {
+            record.invalidate();
+        }
         subjectRecords.clear();
     }
 
@@ -154,8 +183,14 @@ public final class EntitySourceRegistry {
 
     private static final class SubjectRecord {
         private EntityFeatureSchema.SubjectData data;
-        private boolean visibilitySampled;
+        private volatile int slot = -1;
+        private volatile boolean visibilitySampled;
         private boolean pendingSample;
+
+        private void invalidate() {
+            visibilitySampled = false;
+            slot = -1;
+        }
     }
 
     @FunctionalInterface
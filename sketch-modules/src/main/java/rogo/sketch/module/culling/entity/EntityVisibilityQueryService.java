@@ -40,7 +40,7 @@ public final class EntityVisibilityQueryService {
             AABBf bounds,
             int flags,
             int logicTick) {
-        if (subject == null || bounds == null || !stateStore.isAllocated()) {
+        if (subject == null || bounds == null) {
             return false;
         }
         return !stateStore.isVisible(subject, sourceRegistry);
@@ -0,0 +1,89 @@
+package rogo.sketch.module.culling.entity;
+
+import org.jetbrains.annotations.Nullable;
+import rogo.sketch.core.backend.BackendReadbackBuffer;
+import rogo.sketch.core.backend.ResourceEpoch;
+
+/**
+ * Immutable per-frame entity visibility view published by {@link EntityMaskStateStore}.
+ * <p>
+ * Built once per swap from the current/previous readback buffers and packed
+ * into one bit per subject slot, so host queries resolve with a plain array
+ * read instead of touching the readback buffers or any monitor.
+ * </p>
+ */
+public final class EntityVisibilityView {
+    public static final EntityVisibilityView EMPTY = new EntityVisibilityView(ResourceEpoch.ZERO, 0, new long[0], false);
+
+    private final ResourceEpoch epoch;
+    private final int subjectCount;
+    private final long[] visibleBits;
+    private final boolean active;
+
+    private EntityVisibilityView(ResourceEpoch epoch, int subjectCount, long[] visibleBits, boolean active) {
+        this.epoch = epoch;
+        this.subjectCount = subjectCount;
+        this.visibleBits = visibleBits;
+        this.active = active;
+    }
+
+    /**
+     * Packs {@code current || previous} for every slot below {@code subjectCount}.
+     * Slots not covered by either buffer are left invisible; callers decide
+     * whether a slot is eligible through the registry's sample state.
+     */
+    static EntityVisibilityView pack(
+            ResourceEpoch epoch,
+            int subjectCount,
+            @Nullable BackendReadbackBuffer currentResultBuffer,
+            @Nullable BackendReadbackBuffer previousResultBuffer) {
+        int normalizedSubjects = Math.max(0, subjectCount);
+        long[] bits = new long[(normalizedSubjects + 63) >>> 6];
+        orResults(bits, normalizedSubjects, currentResultBuffer);
+        orResults(bits, normalizedSubjects, previousResultBuffer);
+        return new EntityVisibilityView(epoch, normalizedSubjects, bits, true);
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public ResourceEpoch epoch() {
+        return epoch;
+    }
+
+    public int subjectCount() {
+        return subjectCount;
+    }
+
+    /**
+     * Slots outside the packed range were registered after this view was
+     * published and have no readback yet, so they resolve as visible.
+     */
+    public boolean isVisible(int subjectIndex) {
+        if (!active || subjectIndex < 0 || subjectIndex >= subjectCount) {
+            return true;
+        }
+        return (visibleBits[subjectIndex >>> 6] & (1L << subjectIndex)) != 0L;
+    }
+
+    public int visibleCount() {
+        int count = 0;
+        for (long word : visibleBits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static void orResults(long[] bits, int subjectCount, @Nullable BackendReadbackBuffer buffer) {
+        if (buffer == null || buffer.isDisposed()) {
+            return;
+        }
+        int limit = (int) Math.min(subjectCount, buffer.getDataCount());
+        for (int slot = 0; slot < limit; ++slot) {
+            if (buffer.getUnsignedByte(slot) > 0) {
+                bits[slot >>> 6] |= 1L << slot;
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package rogo.sketch.module.transform;
+
+import org.lwjgl.system.MemoryUtil;
+import rogo.sketch.module.transform.manager.TransformDispatchRange;
+import rogo.sketch.module.transform.manager.TransformUploadSnapshot;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * CPU fallback for the {@code transform_matrix} compute shader.
+ * <p>
+ * Reads the same 128-byte input records the compute passes read, walks the
+ * dispatch ranges depth layer by depth layer and writes column-major world
+ * matrices indexed by transform id, which is the layout of the transform output
+ * SSBO. Slots inside one layer only read parents from earlier layers, so large
+ * layers are split across the fork-join pool while layers stay ordered. Local
+ * matrices honour the identity-rotation, identity-scale and pivot flags the
+ * same way the shader does.
+ */
+public final class CpuTransformSolver {
+    public static final int MATRIX_FLOATS = 16;
+    private static final int INPUT_STRIDE = TransformUploadSnapshot.INPUT_STRIDE;
+    private static final int SPLIT_THRESHOLD = 512;
+
+    private final ForkJoinPool pool;
+    private float[] worldMatrices = new float[64 * MATRIX_FLOATS];
+    private int transformExtent;
+
+    public CpuTransformSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public CpuTransformSolver(ForkJoinPool pool) {
+        this.pool = pool != null ? pool : ForkJoinPool.commonPool();
+    }
+
+    public void solve(TransformUploadSnapshot snapshot, float partialTicks) {
+        solve(snapshot.inputBuilder().getBaseAddress(), snapshot.dispatchRanges(), partialTicks);
+    }
+
+    /**
+     * Solve every slot of {@code dispatchRanges} from the input records at
+     * {@code inputAddress}. Matrices of transforms outside the ranges keep
+     * their previous values, so several streams can be solved into one output.
+     */
+    public void solve(long inputAddress, List<TransformDispatchRange> dispatchRanges, float partialTicks) {
+        if (inputAddress == MemoryUtil.NULL || dispatchRanges.isEmpty()) {
+            return;
+        }
+        int maxTransformId = -1;
+        for (TransformDispatchRange range : dispatchRanges) {
+            for (int slot = range.offset(); slot < range.offset() + range.count(); slot++) {
+                maxTransformId = Math.max(maxTransformId, MemoryUtil.memGetInt(slotAddress(inputAddress, slot) + 116));
+            }
+        }
+        ensureExtent(maxTransformId + 1);
+
+        for (TransformDispatchRange range : dispatchRanges) {
+            if (range.count() <= SPLIT_THRESHOLD) {
+                solveSlots(inputAddress, range.offset(), range.offset() + range.count(), partialTicks);
+            } else {
+                pool.invoke(new LayerTask(inputAddress, range.offset(), range.offset() + range.count(), partialTicks));
+            }
+        }
+    }
+
+    /**
+     * Column-major world matrices, {@value #MATRIX_FLOATS} floats per transform id.
+     */
+    public float[] worldMatrices() {
+        return worldMatrices;
+    }
+
+    /**
+     * One past the highest transform id solved so far.
+     */
+    public int transformExtent() {
+        return transformExtent;
+    }
+
+    /**
+     * Copy the first {@code transformCount} matrices to {@code address} using
+     * the 64-byte stride of the transform output SSBO.
+     */
+    public void writeTo(long address, int transformCount) {
+        int count = Math.min(transformCount, transformExtent);
+        if (address == MemoryUtil.NULL || count <= 0) {
+            return;
+        }
+        MemoryUtil.memFloatBuffer(address, count * MATRIX_FLOATS).put(worldMatrices, 0, count * MATRIX_FLOATS);
+    }
+
+    private void ensureExtent(int requiredExtent) {
+        if (requiredExtent <= transformExtent) {
+            return;
+        }
+        transformExtent = requiredExtent;
+        if ((long) requiredExtent * MATRIX_FLOATS > worldMatrices.length) {
+            int capacity = Math.max(requiredExtent, worldMatrices.length / MATRIX_FLOATS * 3 / 2);
+            int previousLength = worldMatrices.length;
+            worldMatrices = Arrays.copyOf(worldMatrices, capacity * MATRIX_FLOATS);
+            for (int offset = previousLength; offset < worldMatrices.length; offset += MATRIX_FLOATS) {
+                worldMatrices[offset] = 1.0f;
+                worldMatrices[offset + 5] = 1.0f;
+                worldMatrices[offset + 10] = 1.0f;
+                worldMatrices[offset + 15] = 1.0f;
+            }
+        }
+    }
+
+    private void solveSlots(long inputAddress, int fromSlot, int toSlot, float partialTicks) {
+        float[] world = worldMatrices;
+        float keep = 1.0f - partialTicks;
+        for (int slot = fromSlot; slot < toSlot; slot++) {
+            long record = slotAddress(inputAddress, slot);
+            int parentId = MemoryUtil.memGetInt(record + 112);
+            int selfId = MemoryUtil.memGetInt(record + 116);
+            int flags = MemoryUtil.memGetInt(record + 120);
+            if (selfId < 0) {
+                continue;
+            }
+
+            // mix(prev, curr, t) as prev * (1 - t) + curr * t
+            float px = MemoryUtil.memGetFloat(record) * keep + MemoryUtil.memGetFloat(record + 48) * partialTicks;
+            float py = MemoryUtil.memGetFloat(record + 4) * keep + MemoryUtil.memGetFloat(record + 52) * partialTicks;
+            float pz = MemoryUtil.memGetFloat(record + 8) * keep + MemoryUtil.memGetFloat(record + 56) * partialTicks;
+
+            // Rotation columns of Rx(pitch) * Ry(yaw) * Rz(roll)
+            float r00 = 1.0f, r01 = 0.0f, r02 = 0.0f;
+            float r10 = 0.0f, r11 = 1.0f, r12 = 0.0f;
+            float r20 = 0.0f, r21 = 0.0f, r22 = 1.0f;
+            if ((flags & TransformData.FLAG_IDENTITY_ROTATION) == 0) {
+                float pitch = MemoryUtil.memGetFloat(record + 16) * keep + MemoryUtil.memGetFloat(record + 64) * partialTicks;
+                float yaw = MemoryUtil.memGetFloat(record + 20) * keep + MemoryUtil.memGetFloat(record + 68) * partialTicks;
+                float roll = MemoryUtil.memGetFloat(record + 24) * keep + MemoryUtil.memGetFloat(record + 72) * partialTicks;
+                float cx = (float) Math.cos(pitch), sx = (float) Math.sin(pitch);
+                float cy = (float) Math.cos(yaw), sy = (float) Math.sin(yaw);
+                float cz = (float) Math.cos(roll), sz = (float) Math.sin(roll);
+                // rCR = row R of column C
+                r00 = cy * cz;
+                r01 = cx * sz + sx * sy * cz;
+                r02 = sx * sz - cx * sy * cz;
+                r10 = -cy * sz;
+                r11 = cx * cz - sx * sy * sz;
+                r12 = sx * cz + cx * sy * sz;
+                r20 = sy;
+                r21 = -sx * cy;
+                r22 = cx * cy;
+            }
+
+            float tx = px, ty = py, tz = pz;
+            if ((flags & TransformData.FLAG_HAS_PIVOT) != 0 && (flags & TransformData.FLAG_IDENTITY_ROTATION) == 0) {
+                // T * T(pivot) * R * T(-pivot): translation gains pivot - R * pivot
+                float vx = MemoryUtil.memGetFloat(record + 96);
+                float vy = MemoryUtil.memGetFloat(record + 100);
+                float vz = MemoryUtil.memGetFloat(record + 104);
+                tx += vx - (r00 * vx + r10 * vy + r20 * vz);
+                ty += vy - (r01 * vx + r11 * vy + r21 * vz);
+                tz += vz - (r02 * vx + r12 * vy + r22 * vz);
+            }
+
+            if ((flags & TransformData.FLAG_IDENTITY_SCALE) == 0) {
+                float sclX = MemoryUtil.memGetFloat(record + 32) * keep + MemoryUtil.memGetFloat(record + 80) * partialTicks;
+                float sclY = MemoryUtil.memGetFloat(record + 36) * keep + MemoryUtil.memGetFloat(record + 84) * partialTicks;
+                float sclZ = MemoryUtil.memGetFloat(record + 40) * keep + MemoryUtil.memGetFloat(record + 88) * partialTicks;
+                r00 *= sclX;
+                r01 *= sclX;
+                r02 *= sclX;
+                r10 *= sclY;
+                r11 *= sclY;
+                r12 *= sclY;
+                r20 *= sclZ;
+                r21 *= sclZ;
+                r22 *= sclZ;
+            }
+
+            int out = selfId * MATRIX_FLOATS;
+            if ((flags & TransformData.FLAG_HAS_PARENT) != 0 && parentId >= 0 && parentId < transformExtent) {
+                int p = parentId * MATRIX_FLOATS;
+                float p00 = world[p], p01 = world[p + 1], p02 = world[p + 2];
+                float p10 = world[p + 4], p11 = world[p + 5], p12 = world[p + 6];
+                float p20 = world[p + 8], p21 = world[p + 9], p22 = world[p + 10];
+                float p30 = world[p + 12], p31 = world[p + 13], p32 = world[p + 14];
+                world[out] = p00 * r00 + p10 * r01 + p20 * r02;
+                world[out + 1] = p01 * r00 + p11 * r01 + p21 * r02;
+                world[out + 2] = p02 * r00 + p12 * r01 + p22 * r02;
+                world[out + 4] = p00 * r10 + p10 * r11 + p20 * r12;
+                world[out + 5] = p01 * r10 + p11 * r11 + p21 * r12;
+                world[out + 6] = p02 * r10 + p12 * r11 + p22 * r12;
+                world[out + 8] = p00 * r20 + p10 * r21 + p20 * r22;
+                world[out + 9] = p01 * r20 + p11 * r21 + p21 * r22;
+                world[out + 10] = p02 * r20 + p12 * r21 + p22 * r22;
+                world[out + 12] = p00 * tx + p10 * ty + p20 * tz + p30;
+                world[out + 13] = p01 * tx + p11 * ty + p21 * tz + p31;
+                world[out + 14] = p02 * tx + p12 * ty + p22 * tz + p32;
+            } else {
+                world[out] = r00;
+                world[out + 1] = r01;
+                world[out + 2] = r02;
+                world[out + 4] = r10;
+                world[out + 5] = r11;
+                world[out + 6] = r12;
+                world[out + 8] = r20;
+                world[out + 9] = r21;
+                world[out + 10] = r22;
+                world[out + 12] = tx;
+                world[out + 13] = ty;
+                world[out + 14] = tz;
+            }
+            world[out + 3] = 0.0f;
+            world[out + 7] = 0.0f;
+            world[out + 11] = 0.0f;
+            world[out + 15] = 1.0f;
+        }
+    }
+
+    private static long slotAddress(long inputAddress, int slot) {
+        return inputAddress + (long) slot * INPUT_STRIDE;
+    }
+
+    private final class LayerTask extends RecursiveAction {
+        private final long inputAddress;
+        private final int fromSlot;
+        private final int toSlot;
+        private final float partialTicks;
+
+        private LayerTask(long inputAddress, int fromSlot, int toSlot, float partialTicks) {
+            this.inputAddress = inputAddress;
+            this.fromSlot = fromSlot;
+            this.toSlot = toSlot;
+            this.partialTicks = partialTicks;
+        }
+
+        @Override
+        protected void compute() {
+            if (toSlot - fromSlot <= SPLIT_THRESHOLD) {
+                solveSlots(inputAddress, fromSlot, toSlot, partialTicks);
+                return;
+            }
+            int middle = (fromSlot + toSlot) >>> 1;
+            invokeAll(
+                    new LayerTask(inputAddress, fromSlot, middle, partialTicks),
+                    new LayerTask(inputAddress, middle, toSlot, partialTicks));
+        }
+    }
+}
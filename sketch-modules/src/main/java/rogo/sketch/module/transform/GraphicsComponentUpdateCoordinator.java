@@ -183,8 +183,8 @@ public final class GraphicsComponentUpdateCoordinator {
         transformManager.prepareFrameBuffer(passExecutionContext);
     }
 
-    public void uploadFrameBuffers(PassExecutionContext passExecutionContext) {
-        transformManager.uploadFrameBuffers(passExecutionContext);
+    public void uploadFrameBuffers(PassExecutionContext passExecutionContext, float partialTicks) {
+        transformManager.uploadFrameBuffers(passExecutionContext, partialTicks);
     }
 
     public TransformManager transformManager() {
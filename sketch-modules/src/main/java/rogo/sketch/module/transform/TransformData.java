@@ -121,6 +121,16 @@ public class TransformData extends GraphicsData<TransformData> implements Transf
         this.pivot.set(other.pivot);
     }
 
+    /**
+     * Whether {@code other} holds exactly the same TRS and pivot components.
+     */
+    public boolean contentEquals(TransformData other) {
+        return pos.equals(other.pos)
+                && rot.equals(other.rot)
+                && scale.equals(other.scale)
+                && pivot.equals(other.pivot);
+    }
+
     /**
      * Reset to identity transform.
      */
@@ -166,30 +176,37 @@ public class TransformData extends GraphicsData<TransformData> implements Transf
         unsafe.putFloat(base + 0, previous.pos.x);
         unsafe.putFloat(base + 4, previous.pos.y);
         unsafe.putFloat(base + 8, previous.pos.z);
+        unsafe.putInt(base + 12, 0);
 
         unsafe.putFloat(base + 16, previous.rot.x);
         unsafe.putFloat(base + 20, previous.rot.y);
         unsafe.putFloat(base + 24, previous.rot.z);
+        unsafe.putInt(base + 28, 0);
 
         unsafe.putFloat(base + 32, previous.scale.x);
         unsafe.putFloat(base + 36, previous.scale.y);
         unsafe.putFloat(base + 40, previous.scale.z);
+        unsafe.putInt(base + 44, 0);
 
         unsafe.putFloat(base + 48, current.pos.x);
         unsafe.putFloat(base + 52, current.pos.y);
         unsafe.putFloat(base + 56, current.pos.z);
+        unsafe.putInt(base + 60, 0);
 
         unsafe.putFloat(base + 64, current.rot.x);
         unsafe.putFloat(base + 68, current.rot.y);
         unsafe.putFloat(base + 72, current.rot.z);
+        unsafe.putInt(base + 76, 0);
 
         unsafe.putFloat(base + 80, current.scale.x);
         unsafe.putFloat(base + 84, current.scale.y);
         unsafe.putFloat(base + 88, current.scale.z);
+        unsafe.putInt(base + 92, 0);
 
         unsafe.putFloat(base + 96, current.pivot.x);
         unsafe.putFloat(base + 100, current.pivot.y);
         unsafe.putFloat(base + 104, current.pivot.z);
+        unsafe.putInt(base + 108, 0);
 
         unsafe.putInt(base + 112, parentId);
         unsafe.putInt(base + 116, selfId);
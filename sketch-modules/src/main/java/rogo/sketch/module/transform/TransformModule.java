@@ -19,6 +19,7 @@ import rogo.sketch.core.pipeline.kernel.annotation.AsyncOnly;
 import rogo.sketch.core.pipeline.kernel.annotation.SyncOnly;
 import rogo.sketch.core.pipeline.module.runtime.ModuleGraphAssemblyContext;
 import rogo.sketch.core.pipeline.module.metric.MetricDescriptor;
+import rogo.sketch.core.pipeline.module.metric.MetricHistogram;
 import rogo.sketch.core.pipeline.module.metric.MetricKind;
 import rogo.sketch.core.pipeline.module.runtime.EntityAttachContext;
 import rogo.sketch.core.pipeline.module.runtime.GraphicsComponentFilter;
@@ -53,6 +54,8 @@ public class TransformModule implements ModuleRuntime {
     private static final String PASS_FRAME_UPLOAD = "transform_frame_upload";
 
     private GraphicsComponentUpdateCoordinator updateCoordinator;
+    // CPU time of the frame upload pass, in nanoseconds
+    private @Nullable MetricHistogram uploadTime;
 
     @Override
     public String id() {
@@ -69,6 +72,12 @@ public class TransformModule implements ModuleRuntime {
                 MetricKind.COUNT,
                 "metric." + MODULE_NAME + ".active_count",
                 "metric." + MODULE_NAME + ".active_count.detail"), this::getActiveCount);
+        this.uploadTime = context.registerHistogram(new MetricDescriptor(
+                TransformModuleDescriptor.UPLOAD_TIME_METRIC,
+                MODULE_NAME,
+                MetricKind.HISTOGRAM,
+                "metric." + MODULE_NAME + ".upload_time",
+                "metric." + MODULE_NAME + ".upload_time.detail"), MetricKind.DURATION);
         context.registerBuiltInResource(ResourceTypes.SHADER_STORAGE_BUFFER,
                 KeyId.of("sketch_render", "transform_input_async"),
                 () -> matrixManager() != null ? matrixManager().getAsyncPipeline().inputSSBO() : null);
@@ -201,6 +210,7 @@ public class TransformModule implements ModuleRuntime {
             updateCoordinator.cleanup();
             updateCoordinator = null;
         }
+        uploadTime = null;
     }
 
     public TransformManager matrixManager() {
@@ -318,8 +328,13 @@ public class TransformModule implements ModuleRuntime {
         @SyncOnly("Upload transform SSBOs after frame collect")
         public void execute(FrameContext<C> ctx) {
             if (updateCoordinator != null) {
+                long start = System.nanoTime();
                 PassExecutionContext passExecutionContext = ctx.passExecutionContext(MODULE_NAME, PASS_FRAME_UPLOAD);
-                updateCoordinator.uploadFrameBuffers(passExecutionContext);
+                updateCoordinator.uploadFrameBuffers(passExecutionContext, ctx.renderContext().partialTicks());
+                MetricHistogram histogram = uploadTime;
+                if (histogram != null) {
+                    histogram.record(System.nanoTime() - start);
+                }
             }
         }
     }
@@ -9,6 +9,7 @@ import rogo.sketch.core.util.KeyId;
 
 public class TransformModuleDescriptor implements ModuleDescriptor {
     public static final KeyId ACTIVE_COUNT_METRIC = KeyId.of("sketch_render", "transform_active_count");
+    public static final KeyId UPLOAD_TIME_METRIC = KeyId.of("sketch_render", "transform_upload_time");
 
     @Override
     public String id() {
@@ -28,6 +29,12 @@ public class TransformModuleDescriptor implements ModuleDescriptor {
                 MetricKind.COUNT,
                 "metric." + id() + ".active_count",
                 "metric." + id() + ".active_count.detail"));
+        context.registerMetricDescriptor(new MetricDescriptor(
+                UPLOAD_TIME_METRIC,
+                id(),
+                MetricKind.HISTOGRAM,
+                "metric." + id() + ".upload_time",
+                "metric." + id() + ".upload_time.detail"));
     }
 
     @Override
@@ -21,6 +21,8 @@ public final class TransformBinding {
     private final TransformData frameData = new TransformData();
     private int parentTransformId = -1;
     private int depth = 0;
+    private long stateVersion;
+    private boolean tickStateSettled;
 
     public TransformBinding(
             GraphicsEntityId entityId,
@@ -72,6 +74,26 @@ public final class TransformBinding {
         this.depth = depth;
     }
 
+    /**
+     * Version of the current/pending tick pair; changes whenever the serialized
+     * tick input of this binding may have changed.
+     */
+    public long stateVersion() {
+        return stateVersion;
+    }
+
+    void setStateVersion(long stateVersion) {
+        this.stateVersion = stateVersion;
+    }
+
+    boolean tickStateSettled() {
+        return tickStateSettled;
+    }
+
+    void setTickStateSettled(boolean tickStateSettled) {
+        this.tickStateSettled = tickStateSettled;
+    }
+
     public TransformData previousTickData() {
         return tickBuffers.getPrev();
     }
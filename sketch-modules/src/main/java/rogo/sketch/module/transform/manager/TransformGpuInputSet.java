@@ -11,55 +11,100 @@ import rogo.sketch.core.util.KeyId;
 import rogo.sketch.module.transform.TransformData;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 /**
  * Render-owned GPU input resources and staging buffers for one transform stream.
+ * <p>
+ * The staging buffer mirrors what the GPU input buffer holds. Loading a
+ * snapshot that was built against the previously loaded one only copies its
+ * changed slots, frame overrides patch single slots, and both restore slots
+ * overridden on the previous frame. Only slots whose bytes actually changed
+ * are marked dirty, and {@link #upload()} writes them as coalesced byte ranges,
+ * merging neighbouring ranges separated by at most the configured gap.
  */
 public class TransformGpuInputSet {
+    public static final long DEFAULT_UPLOAD_MERGE_GAP_BYTES = 4L * TransformUploadSnapshot.INPUT_STRIDE;
+
     private final KeyId bufferId;
     private BackendStorageBuffer inputSSBO;
     private NativeWriteBuffer inputBuilder;
+    private NativeWriteBuffer overrideScratch;
     private final List<TransformDispatchRange> dispatchRanges = new ArrayList<>();
+    private final BitSet dirtySlots = new BitSet();
+    private final BitSet overriddenSlots = new BitSet();
+    private final BitSet pendingRestoreSlots = new BitSet();
+    private TransformUploadSnapshot restoreSource;
+    private long loadedGeneration = TransformUploadSnapshot.NO_GENERATION;
+    private long uploadMergeGapBytes = DEFAULT_UPLOAD_MERGE_GAP_BYTES;
+    private int activeCount = 0;
     private int maxDepth = 0;
     private int capacity;
-    private boolean inputDirty = false;
+    private long lastUploadBytes = 0L;
+    private int lastUploadRangeCount = 0;
 
     public TransformGpuInputSet(int initialCapacity) {
         capacity = Math.max(1, initialCapacity);
         bufferId = KeyId.of("sketch_render:transform_input_runtime_" + Integer.toUnsignedString(System.identityHashCode(this)));
         inputSSBO = BackendBufferFactory.createStorageBuffer(bufferId, descriptorFor(capacity), null);
         inputBuilder = NativeWriteBuffer.createInternal((long) capacity * TransformUploadSnapshot.INPUT_STRIDE);
+        overrideScratch = NativeWriteBuffer.createInternal(TransformUploadSnapshot.INPUT_STRIDE);
     }
 
     public void loadSnapshot(TransformUploadSnapshot snapshot) {
-        ensureCapacity(Math.max(snapshot.activeCount(), 1));
+        boolean reallocated = ensureCapacity(Math.max(snapshot.activeCount(), 1));
 
-        inputBuilder.reset();
         dispatchRanges.clear();
         dispatchRanges.addAll(snapshot.dispatchRanges());
         maxDepth = snapshot.maxDepth();
+        activeCount = snapshot.activeCount();
+        inputBuilder.setWriteOffset(snapshot.inputSizeBytes());
+
+        long previousGeneration = loadedGeneration;
+        long generation = snapshot.generation();
+        boolean incremental = !reallocated && previousGeneration != TransformUploadSnapshot.NO_GENERATION
+                && (generation == previousGeneration || snapshot.baseGeneration() == previousGeneration);
+        loadedGeneration = generation;
+
+        if (!incremental) {
+            if (snapshot.inputSizeBytes() > 0) {
+                MemoryUtil.memCopy(
+                        snapshot.inputBuilder().getBaseAddress(),
+                        inputBuilder.getBaseAddress(),
+                        snapshot.inputSizeBytes());
+            }
+            dirtySlots.clear();
+            dirtySlots.set(0, activeCount);
+            overriddenSlots.clear();
+            pendingRestoreSlots.clear();
+            restoreSource = snapshot;
+            return;
+        }
 
-        if (snapshot.inputSizeBytes() > 0) {
-            MemoryUtil.memCopy(
-                    snapshot.inputBuilder().getBaseAddress(),
-                    inputBuilder.getBaseAddress(),
-                    snapshot.inputSizeBytes());
-            inputBuilder.setWriteOffset(snapshot.inputSizeBytes());
+        long sourceBase = snapshot.inputBuilder().getBaseAddress();
+        if (generation != previousGeneration) {
+            BitSet changedSlots = snapshot.changedSlots();
+            for (int slot = changedSlots.nextSetBit(0); slot >= 0 && slot < activeCount; slot = changedSlots.nextSetBit(slot + 1)) {
+                copySlotIfChanged(sourceBase + (long) slot * TransformUploadSnapshot.INPUT_STRIDE, slot);
+            }
         }
 
-        inputDirty = true;
+        // Slots overridden last frame are restored unless this frame overrides them again
+        pendingRestoreSlots.or(overriddenSlots);
+        overriddenSlots.clear();
+        restoreSource = snapshot;
     }
 
     public void applyFrameOverrides(List<TransformBinding> frameBindings, TransformUploadSnapshot baseSnapshot) {
-        if (baseSnapshot == null || frameBindings.isEmpty()) {
+        if (baseSnapshot == null) {
             return;
         }
 
-        boolean patched = false;
+        long scratch = overrideScratch.getBaseAddress();
         for (TransformBinding binding : frameBindings) {
-            Integer offset = baseSnapshot.bindingOffset(binding.transformId());
-            if (offset == null) {
+            int slot = baseSnapshot.bindingSlot(binding.transformId());
+            if (slot < 0 || slot >= activeCount) {
                 continue;
             }
 
@@ -68,27 +113,75 @@ public class TransformGpuInputSet {
                     binding.frameData(),
                     binding.parentTransformId());
 
-            long ptr = inputBuilder.getBaseAddress() + (long) offset * TransformUploadSnapshot.INPUT_STRIDE;
             TransformData.writeToBuffer(
                     binding.frameData(),
                     binding.frameData(),
-                    ptr,
+                    scratch,
                     binding.parentTransformId(),
                     binding.transformId(),
                     flags);
-            patched = true;
-        }
-
-        if (patched) {
-            inputDirty = true;
+            copySlotIfChanged(scratch, slot);
+            overriddenSlots.set(slot);
+            pendingRestoreSlots.clear(slot);
         }
+        restorePendingSlots();
     }
 
     public void upload() {
-        if (inputDirty) {
-            inputSSBO.upload(inputBuilder.getBaseAddress(), inputBuilder.getWriteOffset());
-            inputDirty = false;
+        restorePendingSlots();
+        lastUploadBytes = 0L;
+        lastUploadRangeCount = 0;
+        if (dirtySlots.isEmpty()) {
+            return;
         }
+
+        long stride = TransformUploadSnapshot.INPUT_STRIDE;
+        long baseAddress = inputBuilder.getBaseAddress();
+        int start = dirtySlots.nextSetBit(0);
+        while (start >= 0 && start < activeCount) {
+            int end = dirtySlots.nextClearBit(start);
+            int next = dirtySlots.nextSetBit(end);
+            while (next >= 0 && next < activeCount && (next - end) * stride <= uploadMergeGapBytes) {
+                end = dirtySlots.nextClearBit(next);
+                next = dirtySlots.nextSetBit(end);
+            }
+            end = Math.min(end, activeCount);
+
+            long byteOffset = start * stride;
+            long byteCount = (end - start) * stride;
+            inputSSBO.uploadRange(baseAddress + byteOffset, byteOffset, byteCount);
+            lastUploadBytes += byteCount;
+            lastUploadRangeCount++;
+            start = next;
+        }
+        dirtySlots.clear();
+    }
+
+    /**
+     * Largest run of clean bytes that may be uploaded anyway to merge two dirty
+     * ranges into one write.
+     */
+    public void setUploadMergeGapBytes(long uploadMergeGapBytes) {
+        this.uploadMergeGapBytes = Math.max(0L, uploadMergeGapBytes);
+    }
+
+    public long uploadMergeGapBytes() {
+        return uploadMergeGapBytes;
+    }
+
+    public long lastUploadBytes() {
+        return lastUploadBytes;
+    }
+
+    public int lastUploadRangeCount() {
+        return lastUploadRangeCount;
+    }
+
+    /**
+     * Host address of the staged input records, including frame overrides.
+     */
+    public long inputAddress() {
+        return inputBuilder.getBaseAddress();
     }
 
     public BackendStorageBuffer inputSSBO() {
@@ -105,6 +198,11 @@ public class TransformGpuInputSet {
 
     public void cleanup() {
         dispatchRanges.clear();
+        dirtySlots.clear();
+        overriddenSlots.clear();
+        pendingRestoreSlots.clear();
+        restoreSource = null;
+        loadedGeneration = TransformUploadSnapshot.NO_GENERATION;
         if (inputSSBO != null) {
             inputSSBO.dispose();
             inputSSBO = null;
@@ -113,12 +211,38 @@ public class TransformGpuInputSet {
             inputBuilder.close();
             inputBuilder = null;
         }
+        if (overrideScratch != null) {
+            overrideScratch.close();
+            overrideScratch = null;
+        }
     }
 
-    private void ensureCapacity(int requiredCount) {
-        if (requiredCount <= capacity) {
+    private void restorePendingSlots() {
+        if (pendingRestoreSlots.isEmpty()) {
             return;
         }
+        long sourceBase = restoreSource.inputBuilder().getBaseAddress();
+        for (int slot = pendingRestoreSlots.nextSetBit(0); slot >= 0 && slot < activeCount; slot = pendingRestoreSlots.nextSetBit(slot + 1)) {
+            copySlotIfChanged(sourceBase + (long) slot * TransformUploadSnapshot.INPUT_STRIDE, slot);
+        }
+        pendingRestoreSlots.clear();
+    }
+
+    private void copySlotIfChanged(long sourceAddress, int slot) {
+        long targetAddress = inputBuilder.getBaseAddress() + (long) slot * TransformUploadSnapshot.INPUT_STRIDE;
+        for (int offset = 0; offset < TransformUploadSnapshot.INPUT_STRIDE; offset += Long.BYTES) {
+            if (MemoryUtil.memGetLong(sourceAddress + offset) != MemoryUtil.memGetLong(targetAddress + offset)) {
+                MemoryUtil.memCopy(sourceAddress, targetAddress, TransformUploadSnapshot.INPUT_STRIDE);
+                dirtySlots.set(slot);
+                return;
+            }
+        }
+    }
+
+    private boolean ensureCapacity(int requiredCount) {
+        if (requiredCount <= capacity) {
+            return false;
+        }
 
         int newCapacity = Math.max(requiredCount, (int) (capacity * 1.5f));
         newCapacity = ((newCapacity + 63) / 64) * 64;
@@ -127,6 +251,7 @@ public class TransformGpuInputSet {
 
         inputBuilder.close();
         inputBuilder = NativeWriteBuffer.createInternal((long) capacity * TransformUploadSnapshot.INPUT_STRIDE);
+        return true;
     }
 
     private ResolvedBufferResource descriptorFor(int elementCount) {
@@ -141,4 +266,3 @@ public class TransformGpuInputSet {
                 safeCount * stride);
     }
 }
-
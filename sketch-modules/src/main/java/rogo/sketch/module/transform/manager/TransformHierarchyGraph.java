@@ -4,22 +4,61 @@ import rogo.sketch.core.graphics.ecs.GraphicsEntityId;
 import rogo.sketch.core.graphics.ecs.GraphicsUpdateDomain;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 /**
  * Resolves parent linkage and hierarchy depth for transform bindings.
+ * <p>
+ * Parent, child, sibling and depth links are kept in primitive arrays indexed
+ * by transform id. {@link #attach}, {@link #detach} and {@link #reparent}
+ * update only the edited binding's subtree and move it between depth layers;
+ * layers stay ordered by registration so their output matches a full rebuild.
+ * Parent resolvers are plain callbacks without change notification;
+ * {@link #reparentChanged} polls them and reparents the bindings whose parent
+ * entity moved since they were last linked.
+ * Any edit that would close a cycle, and every edit while a cycle is present,
+ * falls back to the full rebuild, whose cycle handling is unchanged.
  */
 public class TransformHierarchyGraph {
+    private static final int NONE = -1;
+    private static final byte UNVISITED = 0;
+    private static final byte VISITING = 1;
+    private static final byte RESOLVED = 2;
+    private static final int BATCH_MOVE_THRESHOLD = 32;
+
     private final List<List<TransformBinding>> syncLayers = new ArrayList<>();
     private final List<List<TransformBinding>> asyncLayers = new ArrayList<>();
+    /**
+     * First child waiting for each unregistered parent entity; linked through the sibling arrays.
+     */
+    private final Map<GraphicsEntityId, Integer> orphanHeads = new HashMap<>();
     private boolean dirty = true;
+    private boolean cyclic = false;
     private int syncMaxDepth = 0;
     private int asyncMaxDepth = 0;
 
+    private TransformBinding[] nodes = new TransformBinding[0];
+    private GraphicsEntityId[] parentEntities = new GraphicsEntityId[0];
+    private int[] parents = new int[0];
+    private int[] depths = new int[0];
+    private int[] firstChildren = new int[0];
+    private int[] nextSiblings = new int[0];
+    private int[] prevSiblings = new int[0];
+    private long[] sequences = new long[0];
+    private byte[] visitStates = new byte[0];
+    private boolean[] moving = new boolean[0];
+    private int[] walkStack = new int[16];
+    private int[] movedIds = new int[16];
+    private long nextSequence = 0L;
+
     public void markDirty() {
         dirty = true;
     }
@@ -28,28 +67,128 @@ public class TransformHierarchyGraph {
         if (!dirty) {
             return;
         }
+        rebuild(registry);
+        dirty = false;
+    }
 
-        syncLayers.clear();
-        asyncLayers.clear();
-        syncMaxDepth = 0;
-        asyncMaxDepth = 0;
+    /**
+     * Link a newly registered binding under its parent and adopt any bindings
+     * that were waiting for its entity.
+     */
+    public void attach(TransformBinding binding, TransformRegistry registry) {
+        if (binding == null || dirty || cyclic) {
+            dirty = true;
+            return;
+        }
+        int id = binding.transformId();
+        ensureCapacity(id + 1);
+        nodes[id] = binding;
+        sequences[id] = nextSequence++;
+        firstChildren[id] = NONE;
+        if (!link(id, resolveParentEntity(binding), registry)) {
+            dirty = true;
+            return;
+        }
+        setDepth(id, parents[id] != NONE ? depths[parents[id]] + 1 : 0);
+        placeInLayer(id);
 
-        Map<Integer, Integer> resolvedDepths = new HashMap<>();
-        for (TransformBinding binding : registry.activeBindings()) {
-            resolveParentAndDepth(binding, registry, new HashSet<>(), resolvedDepths);
+        Integer orphanHead = orphanHeads.get(binding.entityId());
+        if (orphanHead != null) {
+            int root = rootOf(id);
+            for (int orphan = orphanHead; orphan != NONE; orphan = nextSiblings[orphan]) {
+                if (orphan == root) {
+                    // Adopting this orphan would close a cycle through the new binding
+                    dirty = true;
+                    return;
+                }
+            }
+            orphanHeads.remove(binding.entityId());
+            int orphan = orphanHead;
+            while (orphan != NONE) {
+                int next = nextSiblings[orphan];
+                addChild(id, orphan);
+                relayerSubtree(orphan);
+                orphan = next;
+            }
         }
+        trimLayers();
+    }
 
+    /**
+     * Unlink a binding before it is unregistered. Its children become roots
+     * waiting for the entity to be registered again.
+     */
+    public void detach(TransformBinding binding, TransformRegistry registry) {
+        if (binding == null || dirty || cyclic) {
+            dirty = true;
+            return;
+        }
+        int id = binding.transformId();
+        if (id < 0 || id >= nodes.length || nodes[id] != binding) {
+            dirty = true;
+            return;
+        }
+        removeFromLayer(id);
+        unlink(id);
+
+        int child = firstChildren[id];
+        while (child != NONE) {
+            int next = nextSiblings[child];
+            addOrphan(binding.entityId(), child);
+            relayerSubtree(child);
+            child = next;
+        }
+        clearNode(id);
+        trimLayers();
+    }
+
+    /**
+     * Re-evaluate a binding's parent resolver and move its subtree if the parent changed.
+     */
+    public void reparent(TransformBinding binding, TransformRegistry registry) {
+        if (binding == null || dirty || cyclic) {
+            dirty = true;
+            return;
+        }
+        int id = binding.transformId();
+        if (id < 0 || id >= nodes.length || nodes[id] != binding) {
+            dirty = true;
+            return;
+        }
+        GraphicsEntityId parentEntityId = resolveParentEntity(binding);
+        TransformBinding parentBinding = parentEntityId != null ? registry.bindingFor(parentEntityId) : null;
+        int parentId = parentBinding != null ? parentBinding.transformId() : NONE;
+        if (Objects.equals(parentEntityId, parentEntities[id]) && parentId == parents[id]) {
+            return;
+        }
+        unlink(id);
+        if (!link(id, parentEntityId, registry)) {
+            dirty = true;
+            return;
+        }
+        relayerSubtree(id);
+        trimLayers();
+    }
+
+    /**
+     * Re-evaluate every binding's parent resolver and {@link #reparent} those
+     * whose parent entity changed. A pending full rebuild re-resolves all
+     * parents itself, so nothing is polled while the graph is dirty.
+     */
+    public void reparentChanged(TransformRegistry registry) {
+        if (dirty) {
+            return;
+        }
         for (TransformBinding binding : registry.activeBindings()) {
-            if (binding.updateDomain() == GraphicsUpdateDomain.ASYNC_TICK) {
-                placeBinding(asyncLayers, binding);
-                asyncMaxDepth = Math.max(asyncMaxDepth, binding.depth());
-            } else {
-                placeBinding(syncLayers, binding);
-                syncMaxDepth = Math.max(syncMaxDepth, binding.depth());
+            int id = binding.transformId();
+            if (id < nodes.length && Objects.equals(resolveParentEntity(binding), parentEntities[id])) {
+                continue;
+            }
+            reparent(binding, registry);
+            if (dirty) {
+                return;
             }
         }
-
-        dirty = false;
     }
 
     public List<List<TransformBinding>> syncLayers() {
@@ -68,58 +207,379 @@ public class TransformHierarchyGraph {
         return asyncMaxDepth;
     }
 
-    private void placeBinding(List<List<TransformBinding>> layers, TransformBinding binding) {
-        while (layers.size() <= binding.depth()) {
-            layers.add(new ArrayList<>());
+    private void rebuild(TransformRegistry registry) {
+        syncLayers.clear();
+        asyncLayers.clear();
+        orphanHeads.clear();
+        syncMaxDepth = 0;
+        asyncMaxDepth = 0;
+        cyclic = false;
+        nextSequence = 0L;
+
+        ensureCapacity(registry.maxAllocatedId() + 1);
+        Arrays.fill(nodes, null);
+        Arrays.fill(parentEntities, null);
+        Arrays.fill(parents, NONE);
+        Arrays.fill(depths, 0);
+        Arrays.fill(firstChildren, NONE);
+        Arrays.fill(nextSiblings, NONE);
+        Arrays.fill(prevSiblings, NONE);
+        Arrays.fill(visitStates, UNVISITED);
+
+        for (TransformBinding binding : registry.activeBindings()) {
+            int id = binding.transformId();
+            ensureCapacity(id + 1);
+            nodes[id] = binding;
+            sequences[id] = nextSequence++;
+            parentEntities[id] = resolveParentEntity(binding);
+        }
+        for (TransformBinding binding : registry.activeBindings()) {
+            resolveParentAndDepth(binding.transformId(), registry);
         }
-        layers.get(binding.depth()).add(binding);
-    }
 
-    private int resolveParentAndDepth(
-            TransformBinding binding,
-            TransformRegistry registry,
-            Set<Integer> visiting,
-            Map<Integer, Integer> resolvedDepths
-    ) {
-        Integer cachedDepth = resolvedDepths.get(binding.transformId());
-        if (cachedDepth != null) {
-            return cachedDepth;
+        if (!cyclic) {
+            for (TransformBinding binding : registry.activeBindings()) {
+                int id = binding.transformId();
+                if (parents[id] != NONE) {
+                    addChild(parents[id], id);
+                } else if (parentEntities[id] != null) {
+                    addOrphan(parentEntities[id], id);
+                }
+            }
         }
 
-        if (!visiting.add(binding.transformId())) {
-            detachParent(binding);
-            resolvedDepths.put(binding.transformId(), 0);
-            return 0;
+        for (TransformBinding binding : registry.activeBindings()) {
+            List<List<TransformBinding>> layers = layersFor(binding);
+            while (layers.size() <= binding.depth()) {
+                layers.add(new ArrayList<>());
+            }
+            layers.get(binding.depth()).add(binding);
         }
+        trimLayers();
+    }
 
-        GraphicsEntityId parentEntityId = binding.hierarchyComponent() != null
-                ? binding.hierarchyComponent().parentEntityId()
-                : null;
-        if (parentEntityId == null) {
-            detachParent(binding);
-            resolvedDepths.put(binding.transformId(), 0);
-            visiting.remove(binding.transformId());
+    /**
+     * Depth-first parent resolution matching the original recursive rebuild,
+     * including which binding of a cycle is detached.
+     */
+    private int resolveParentAndDepth(int id, TransformRegistry registry) {
+        if (visitStates[id] == RESOLVED) {
+            return depths[id];
+        }
+        if (visitStates[id] == VISITING) {
+            cyclic = true;
+            setParentAndDepth(id, NONE, 0);
+            visitStates[id] = RESOLVED;
             return 0;
         }
 
-        TransformBinding parentBinding = registry.bindingFor(parentEntityId);
+        GraphicsEntityId parentEntityId = parentEntities[id];
+        TransformBinding parentBinding = parentEntityId != null ? registry.bindingFor(parentEntityId) : null;
         if (parentBinding == null) {
-            detachParent(binding);
-            resolvedDepths.put(binding.transformId(), 0);
-            visiting.remove(binding.transformId());
+            setParentAndDepth(id, NONE, 0);
+            visitStates[id] = RESOLVED;
             return 0;
         }
 
-        int parentDepth = resolveParentAndDepth(parentBinding, registry, visiting, resolvedDepths);
-        binding.setParentTransformId(parentBinding.transformId());
-        binding.setDepth(parentDepth + 1);
-        visiting.remove(binding.transformId());
-        resolvedDepths.put(binding.transformId(), binding.depth());
-        return binding.depth();
+        visitStates[id] = VISITING;
+        int parentDepth = resolveParentAndDepth(parentBinding.transformId(), registry);
+        setParentAndDepth(id, parentBinding.transformId(), parentDepth + 1);
+        visitStates[id] = RESOLVED;
+        return depths[id];
     }
 
-    private void detachParent(TransformBinding binding) {
-        binding.setParentTransformId(-1);
+    /**
+     * Link {@code id} under the binding of {@code parentEntityId}, or as a
+     * waiting root when that entity is not registered.
+     *
+     * @return false when the link would close a cycle
+     */
+    private boolean link(int id, GraphicsEntityId parentEntityId, TransformRegistry registry) {
+        parentEntities[id] = parentEntityId;
+        TransformBinding parentBinding = parentEntityId != null ? registry.bindingFor(parentEntityId) : null;
+        if (parentBinding == null) {
+            if (parentEntityId != null) {
+                addOrphan(parentEntityId, id);
+            } else {
+                nextSiblings[id] = NONE;
+                prevSiblings[id] = NONE;
+            }
+            setParent(id, NONE);
+            return true;
+        }
+        int parentId = parentBinding.transformId();
+        for (int ancestor = parentId; ancestor != NONE; ancestor = parents[ancestor]) {
+            if (ancestor == id) {
+                return false;
+            }
+        }
+        addChild(parentId, id);
+        return true;
+    }
+
+    private void unlink(int id) {
+        int parentId = parents[id];
+        int prev = prevSiblings[id];
+        int next = nextSiblings[id];
+        if (prev != NONE) {
+            nextSiblings[prev] = next;
+        } else if (parentId != NONE) {
+            firstChildren[parentId] = next;
+        } else if (parentEntities[id] != null) {
+            if (next != NONE) {
+                orphanHeads.put(parentEntities[id], next);
+            } else {
+                orphanHeads.remove(parentEntities[id]);
+            }
+        }
+        if (next != NONE) {
+            prevSiblings[next] = prev;
+        }
+        nextSiblings[id] = NONE;
+        prevSiblings[id] = NONE;
+    }
+
+    private void addChild(int parentId, int childId) {
+        int head = firstChildren[parentId];
+        prevSiblings[childId] = NONE;
+        nextSiblings[childId] = head;
+        if (head != NONE) {
+            prevSiblings[head] = childId;
+        }
+        firstChildren[parentId] = childId;
+        setParent(childId, parentId);
+    }
+
+    private void addOrphan(GraphicsEntityId parentEntityId, int id) {
+        Integer head = orphanHeads.put(parentEntityId, id);
+        prevSiblings[id] = NONE;
+        nextSiblings[id] = head != null ? head : NONE;
+        if (head != null) {
+            prevSiblings[head] = id;
+        }
+        parentEntities[id] = parentEntityId;
+        setParent(id, NONE);
+    }
+
+    /**
+     * Move {@code rootId} and its descendants to the layers matching their
+     * parent links. Descendants of a binding whose depth is unchanged are
+     * already in place and are skipped.
+     */
+    private void relayerSubtree(int rootId) {
+        int movedCount = 0;
+        int stackSize = 0;
+        walkStack[stackSize++] = rootId;
+        while (stackSize > 0) {
+            int id = walkStack[--stackSize];
+            int newDepth = parents[id] != NONE ? depths[parents[id]] + 1 : 0;
+            if (newDepth == depths[id]) {
+                continue;
+            }
+            // depths[] leads; the binding keeps its placed depth until the layers are updated
+            depths[id] = newDepth;
+            if (movedCount == movedIds.length) {
+                movedIds = Arrays.copyOf(movedIds, movedIds.length * 2);
+            }
+            movedIds[movedCount++] = id;
+            for (int child = firstChildren[id]; child != NONE; child = nextSiblings[child]) {
+                if (stackSize == walkStack.length) {
+                    walkStack = Arrays.copyOf(walkStack, walkStack.length * 2);
+                }
+                walkStack[stackSize++] = child;
+            }
+        }
+        applyLayerMoves(movedCount);
+    }
+
+    /**
+     * Small moves shift bindings one at a time; larger ones sweep each source
+     * layer once and merge the sorted arrivals into each target layer, so a
+     * subtree move never costs more than one pass over the layers it touches.
+     */
+    private void applyLayerMoves(int movedCount) {
+        if (movedCount <= BATCH_MOVE_THRESHOLD) {
+            for (int i = 0; i < movedCount; i++) {
+                int id = movedIds[i];
+                removeFromLayer(id);
+                nodes[id].setDepth(depths[id]);
+                placeInLayer(id);
+            }
+            return;
+        }
+
+        Set<List<TransformBinding>> sourceLayers = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < movedCount; i++) {
+            TransformBinding binding = nodes[movedIds[i]];
+            List<List<TransformBinding>> layers = layersFor(binding);
+            moving[movedIds[i]] = true;
+            if (binding.depth() < layers.size()) {
+                sourceLayers.add(layers.get(binding.depth()));
+            }
+        }
+        for (List<TransformBinding> layer : sourceLayers) {
+            layer.removeIf(binding -> moving[binding.transformId()]);
+        }
+
+        Map<List<TransformBinding>, List<TransformBinding>> arrivals = new IdentityHashMap<>();
+        for (int i = 0; i < movedCount; i++) {
+            int id = movedIds[i];
+            TransformBinding binding = nodes[id];
+            moving[id] = false;
+            binding.setDepth(depths[id]);
+            List<List<TransformBinding>> layers = layersFor(binding);
+            while (layers.size() <= depths[id]) {
+                layers.add(new ArrayList<>());
+            }
+            arrivals.computeIfAbsent(layers.get(depths[id]), ignored -> new ArrayList<>()).add(binding);
+        }
+        Comparator<TransformBinding> bySequence = Comparator.comparingLong(binding -> sequences[binding.transformId()]);
+        for (Map.Entry<List<TransformBinding>, List<TransformBinding>> entry : arrivals.entrySet()) {
+            List<TransformBinding> layer = entry.getKey();
+            List<TransformBinding> incoming = entry.getValue();
+            incoming.sort(bySequence);
+            List<TransformBinding> merged = new ArrayList<>(layer.size() + incoming.size());
+            int existingIndex = 0;
+            int incomingIndex = 0;
+            while (existingIndex < layer.size() || incomingIndex < incoming.size()) {
+                if (incomingIndex == incoming.size()
+                        || (existingIndex < layer.size()
+                        && bySequence.compare(layer.get(existingIndex), incoming.get(incomingIndex)) < 0)) {
+                    merged.add(layer.get(existingIndex++));
+                } else {
+                    merged.add(incoming.get(incomingIndex++));
+                }
+            }
+            layer.clear();
+            layer.addAll(merged);
+        }
+    }
+
+    private void setParentAndDepth(int id, int parentId, int depth) {
+        setParent(id, parentId);
+        setDepth(id, depth);
+    }
+
+    private void setParent(int id, int parentId) {
+        parents[id] = parentId;
+        nodes[id].setParentTransformId(parentId);
+    }
+
+    /**
+     * Layer placement follows {@link TransformBinding#depth()}, so a placed
+     * binding must be removed from its layer before its depth changes.
+     */
+    private void setDepth(int id, int depth) {
+        depths[id] = depth;
+        nodes[id].setDepth(depth);
+    }
+
+    private int rootOf(int id) {
+        int root = id;
+        while (parents[root] != NONE) {
+            root = parents[root];
+        }
+        return root;
+    }
+
+    private void placeInLayer(int id) {
+        TransformBinding binding = nodes[id];
+        List<List<TransformBinding>> layers = layersFor(binding);
+        while (layers.size() <= binding.depth()) {
+            layers.add(new ArrayList<>());
+        }
+        List<TransformBinding> layer = layers.get(binding.depth());
+        int index = indexInLayer(layer, sequences[id]);
+        layer.add(index < 0 ? -index - 1 : index, binding);
+    }
+
+    private void removeFromLayer(int id) {
+        TransformBinding binding = nodes[id];
+        List<List<TransformBinding>> layers = layersFor(binding);
+        if (binding.depth() >= layers.size()) {
+            return;
+        }
+        List<TransformBinding> layer = layers.get(binding.depth());
+        int index = indexInLayer(layer, sequences[id]);
+        if (index >= 0 && layer.get(index) == binding) {
+            layer.remove(index);
+        }
+    }
+
+    /**
+     * Binary search by registration sequence, returning {@code -(insertion point) - 1} when absent.
+     */
+    private int indexInLayer(List<TransformBinding> layer, long sequence) {
+        int low = 0;
+        int high = layer.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midSequence = sequences[layer.get(mid).transformId()];
+            if (midSequence < sequence) {
+                low = mid + 1;
+            } else if (midSequence > sequence) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private List<List<TransformBinding>> layersFor(TransformBinding binding) {
+        return binding.updateDomain() == GraphicsUpdateDomain.ASYNC_TICK ? asyncLayers : syncLayers;
+    }
+
+    private void trimLayers() {
+        syncMaxDepth = trimLayers(syncLayers);
+        asyncMaxDepth = trimLayers(asyncLayers);
+    }
+
+    private int trimLayers(List<List<TransformBinding>> layers) {
+        while (!layers.isEmpty() && layers.get(layers.size() - 1).isEmpty()) {
+            layers.remove(layers.size() - 1);
+        }
+        return Math.max(0, layers.size() - 1);
+    }
+
+    private void clearNode(int id) {
+        TransformBinding binding = nodes[id];
+        binding.setParentTransformId(NONE);
         binding.setDepth(0);
+        nodes[id] = null;
+        parentEntities[id] = null;
+        parents[id] = NONE;
+        depths[id] = 0;
+        firstChildren[id] = NONE;
+        nextSiblings[id] = NONE;
+        prevSiblings[id] = NONE;
+    }
+
+    private static GraphicsEntityId resolveParentEntity(TransformBinding binding) {
+        return binding.hierarchyComponent() != null ? binding.hierarchyComponent().parentEntityId() : null;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= nodes.length) {
+            return;
+        }
+        int oldLength = nodes.length;
+        int newLength = Math.max(capacity, Math.max(64, oldLength * 2));
+        nodes = Arrays.copyOf(nodes, newLength);
+        parentEntities = Arrays.copyOf(parentEntities, newLength);
+        parents = grow(parents, oldLength, newLength);
+        depths = Arrays.copyOf(depths, newLength);
+        firstChildren = grow(firstChildren, oldLength, newLength);
+        nextSiblings = grow(nextSiblings, oldLength, newLength);
+        prevSiblings = grow(prevSiblings, oldLength, newLength);
+        sequences = Arrays.copyOf(sequences, newLength);
+        visitStates = Arrays.copyOf(visitStates, newLength);
+        moving = Arrays.copyOf(moving, newLength);
+    }
+
+    private static int[] grow(int[] values, int oldLength, int newLength) {
+        int[] grown = Arrays.copyOf(values, newLength);
+        Arrays.fill(grown, oldLength, newLength, NONE);
+        return grown;
     }
 }
@@ -1,6 +1,7 @@
 package rogo.sketch.module.transform.manager;
 
 import rogo.sketch.core.api.ResourceObject;
+import rogo.sketch.core.driver.GraphicsDriver;
 import rogo.sketch.core.graphics.ecs.GraphicsBuiltinComponents;
 import rogo.sketch.core.graphics.ecs.GraphicsEntityId;
 import rogo.sketch.core.graphics.ecs.GraphicsWorld;
@@ -8,6 +9,7 @@ import rogo.sketch.core.pipeline.kernel.FrameResourceHandle;
 import rogo.sketch.core.pipeline.kernel.PassExecutionContext;
 import rogo.sketch.core.pipeline.kernel.PublishedFrameResource;
 import rogo.sketch.core.util.KeyId;
+import rogo.sketch.module.transform.CpuTransformSolver;
 
 /**
  * Transform system facade coordinating registration, CPU state, hierarchy, snapshots, and GPU upload.
@@ -28,15 +30,19 @@ public class TransformManager {
     private final TransformPipeline asyncPipeline = new TransformPipeline(1024);
     private final TransformMatrixOutputBuffer outputBuffer = new TransformMatrixOutputBuffer();
     private TransformPreparedTickSnapshot activeTickSnapshot;
+    private CpuTransformSolver cpuSolver;
 
     public TransformBinding registerBinding(
             GraphicsWorld world,
             GraphicsEntityId entityId,
             GraphicsBuiltinComponents.TransformBindingComponent bindingComponent,
             GraphicsBuiltinComponents.TransformHierarchyComponent hierarchyComponent) {
+        boolean newlyRegistered = !registry.isRegistered(entityId);
         TransformBinding binding = registry.registerBinding(entityId, bindingComponent, hierarchyComponent);
         stateStore.initializeBinding(binding);
-        hierarchyGraph.markDirty();
+        if (newlyRegistered) {
+            hierarchyGraph.attach(binding, registry);
+        }
         outputBuffer.ensureCapacityForMaxId(registry.maxAllocatedId());
         if (world != null && bindingComponent != null) {
             world.replaceComponent(entityId, GraphicsBuiltinComponents.TRANSFORM_BINDING,
@@ -49,8 +55,20 @@ public class TransformManager {
     }
 
     public void unregisterBinding(TransformBinding binding) {
+        hierarchyGraph.detach(binding, registry);
         registry.unregisterBinding(binding);
-        hierarchyGraph.markDirty();
+    }
+
+    /**
+     * Re-evaluate the parent of {@code entityId} now, for callers that know its
+     * hierarchy resolver changed. Changes are otherwise picked up by the poll
+     * at the start of {@link #prepareAndPublishTickSnapshot}.
+     */
+    public void reparentBinding(GraphicsEntityId entityId) {
+        TransformBinding binding = registry.bindingFor(entityId);
+        if (binding != null) {
+            hierarchyGraph.reparent(binding, registry);
+        }
     }
 
     public TransformBinding bindingFor(GraphicsEntityId entityId) {
@@ -86,6 +104,7 @@ public class TransformManager {
     }
 
     public void prepareAndPublishTickSnapshot(PassExecutionContext passExecutionContext) {
+        hierarchyGraph.reparentChanged(registry);
         hierarchyGraph.resolveIfNeeded(registry);
         outputBuffer.ensureCapacityForMaxId(registry.maxAllocatedId());
         long logicTickEpoch = passExecutionContext != null ? passExecutionContext.logicTickEpoch() : -1L;
@@ -103,6 +122,7 @@ public class TransformManager {
         if (published != null) {
             activeTickSnapshot = published.payload();
         } else if (activeTickSnapshot == null) {
+            hierarchyGraph.reparentChanged(registry);
             hierarchyGraph.resolveIfNeeded(registry);
             activeTickSnapshot = snapshotBuilder.buildTickSnapshot(-1L, registry, hierarchyGraph);
         }
@@ -116,12 +136,34 @@ public class TransformManager {
         syncPipeline.applyFrameOverrides(registry.frameBindings(), activeTickSnapshot.syncSnapshot());
     }
 
-    public void uploadFrameBuffers(PassExecutionContext passExecutionContext) {
+    /**
+     * Upload the staged inputs. When the backend does not execute compute
+     * dispatches the output SSBO is filled by {@link CpuTransformSolver}
+     * instead of the {@code transform_matrix} passes.
+     */
+    public void uploadFrameBuffers(PassExecutionContext passExecutionContext, float partialTicks) {
         if (passExecutionContext != null) {
             passExecutionContext.peek(TICK_SNAPSHOT_HANDLE);
         }
         syncPipeline.upload();
         asyncPipeline.upload();
+        if (!GraphicsDriver.capabilities().computeShadersSupported()) {
+            if (cpuSolver == null) {
+                cpuSolver = new CpuTransformSolver();
+            }
+            solveFrameOnCpu(cpuSolver, partialTicks);
+        }
+    }
+
+    /**
+     * Solve the staged sync and async inputs on the CPU and upload the result
+     * to the transform output SSBO, for backends that skip the
+     * {@code transform_matrix} compute passes.
+     */
+    public void solveFrameOnCpu(CpuTransformSolver solver, float partialTicks) {
+        solver.solve(syncPipeline.inputAddress(), syncPipeline.getDispatchRanges(), partialTicks);
+        solver.solve(asyncPipeline.inputAddress(), asyncPipeline.getDispatchRanges(), partialTicks);
+        outputBuffer.write(solver);
     }
 
     public ResourceObject getOutputSSBO() {
@@ -138,9 +180,11 @@ public class TransformManager {
 
     public void cleanup() {
         registry.clear();
+        hierarchyGraph.markDirty();
         syncPipeline.cleanup();
         asyncPipeline.cleanup();
         outputBuffer.cleanup();
         snapshotBuilder.cleanup();
+        cpuSolver = null;
     }
 }
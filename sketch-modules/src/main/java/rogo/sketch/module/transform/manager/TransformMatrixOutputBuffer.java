@@ -7,6 +7,7 @@ import rogo.sketch.core.resource.descriptor.BufferRole;
 import rogo.sketch.core.resource.descriptor.BufferUpdatePolicy;
 import rogo.sketch.core.resource.descriptor.ResolvedBufferResource;
 import rogo.sketch.core.util.KeyId;
+import rogo.sketch.module.transform.CpuTransformSolver;
 
 /**
  * GPU output SSBO for computed transform matrices.
@@ -33,6 +34,19 @@ public class TransformMatrixOutputBuffer {
         currentCapacity = newCapacity;
     }
 
+    /**
+     * Upload matrices solved on the CPU in place of the compute dispatch.
+     */
+    public void write(CpuTransformSolver solver) {
+        int transformCount = Math.min(solver.transformExtent(), currentCapacity);
+        if (transformCount <= 0) {
+            return;
+        }
+        solver.writeTo(outputSSBO.memoryAddress(), transformCount);
+        outputSSBO.position((long) transformCount * OUTPUT_STRIDE);
+        outputSSBO.upload();
+    }
+
     public ResourceObject resource() {
         return outputSSBO;
     }
@@ -26,6 +26,18 @@ public class TransformPipeline {
         gpuInputSet.upload();
     }
 
+    public void setUploadMergeGapBytes(long uploadMergeGapBytes) {
+        gpuInputSet.setUploadMergeGapBytes(uploadMergeGapBytes);
+    }
+
+    public long lastUploadBytes() {
+        return gpuInputSet.lastUploadBytes();
+    }
+
+    public long inputAddress() {
+        return gpuInputSet.inputAddress();
+    }
+
     public BackendStorageBuffer inputSSBO() {
         return gpuInputSet.inputSSBO();
     }
@@ -1,7 +1,5 @@
 package rogo.sketch.module.transform.manager;
 
-import rogo.sketch.module.transform.TransformData;
-
 import java.util.List;
 
 /**
@@ -13,6 +11,7 @@ public class TransformSnapshotBuilder {
             new TransformPreparedTickSnapshot(64, 64)
     };
     private int nextSnapshotIndex = 0;
+    private TransformPreparedTickSnapshot lastBuiltSnapshot;
 
     public TransformPreparedTickSnapshot buildTickSnapshot(
             long logicTickEpoch,
@@ -22,11 +21,21 @@ public class TransformSnapshotBuilder {
         hierarchyGraph.resolveIfNeeded(registry);
 
         TransformPreparedTickSnapshot snapshot = tickSnapshots[nextSnapshotIndex];
+        TransformPreparedTickSnapshot previous = lastBuiltSnapshot;
         nextSnapshotIndex = (nextSnapshotIndex + 1) % tickSnapshots.length;
 
         snapshot.setLogicTickEpoch(logicTickEpoch);
-        buildPipelineSnapshot(snapshot.syncSnapshot(), hierarchyGraph.syncLayers(), hierarchyGraph.syncMaxDepth());
-        buildPipelineSnapshot(snapshot.asyncSnapshot(), hierarchyGraph.asyncLayers(), hierarchyGraph.asyncMaxDepth());
+        buildPipelineSnapshot(
+                snapshot.syncSnapshot(),
+                previous != null ? previous.syncSnapshot() : null,
+                hierarchyGraph.syncLayers(),
+                hierarchyGraph.syncMaxDepth());
+        buildPipelineSnapshot(
+                snapshot.asyncSnapshot(),
+                previous != null ? previous.asyncSnapshot() : null,
+                hierarchyGraph.asyncLayers(),
+                hierarchyGraph.asyncMaxDepth());
+        lastBuiltSnapshot = snapshot;
         return snapshot;
     }
 
@@ -34,10 +43,12 @@ public class TransformSnapshotBuilder {
         for (TransformPreparedTickSnapshot snapshot : tickSnapshots) {
             snapshot.cleanup();
         }
+        lastBuiltSnapshot = null;
     }
 
     private void buildPipelineSnapshot(
             TransformUploadSnapshot snapshot,
+            TransformUploadSnapshot previous,
             List<List<TransformBinding>> layers,
             int maxDepth
     ) {
@@ -46,37 +57,23 @@ public class TransformSnapshotBuilder {
             activeCount += layer.size();
         }
 
-        snapshot.beginBuild(activeCount, maxDepth);
+        snapshot.beginBuild(activeCount, maxDepth, previous);
         if (activeCount == 0) {
+            snapshot.endBuild();
             return;
         }
 
-        long inputPtr = snapshot.inputBuilder().getBaseAddress();
         int flattenedOffset = 0;
         for (int depth = 0; depth <= maxDepth; depth++) {
             List<TransformBinding> layer = depth < layers.size() ? layers.get(depth) : List.of();
             snapshot.addDispatchRange(flattenedOffset, layer.size());
 
             for (TransformBinding binding : layer) {
-                snapshot.putBindingOffset(binding.transformId(), flattenedOffset);
-                int flags = TransformData.computeFlags(
-                        binding.currentTickData(),
-                        binding.pendingTickData(),
-                        binding.parentTransformId());
-
-                TransformData.writeToBuffer(
-                        binding.currentTickData(),
-                        binding.pendingTickData(),
-                        inputPtr,
-                        binding.parentTransformId(),
-                        binding.transformId(),
-                        flags);
-
-                inputPtr += TransformUploadSnapshot.INPUT_STRIDE;
+                snapshot.putBinding(flattenedOffset, binding, previous);
                 flattenedOffset++;
             }
         }
 
-        snapshot.inputBuilder().setWriteOffset((long) activeCount * TransformUploadSnapshot.INPUT_STRIDE);
+        snapshot.endBuild();
     }
 }
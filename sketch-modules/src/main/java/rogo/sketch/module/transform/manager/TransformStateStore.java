@@ -3,10 +3,20 @@ package rogo.sketch.module.transform.manager;
 import rogo.sketch.core.graphics.ecs.GraphicsUpdateDomain;
 import rogo.sketch.module.transform.TransformData;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Owns CPU-side authored transform state collection.
+ * <p>
+ * Every swap and collection also refreshes the binding's
+ * {@link TransformBinding#stateVersion() state version}. A binding whose
+ * current and pending tick data were equal before and are equal again keeps
+ * its version, so snapshot builds can tell which serialized slots are
+ * unchanged without comparing their bytes.
  */
 public class TransformStateStore {
+    private final AtomicLong stateVersions = new AtomicLong();
+
     public void initializeBinding(TransformBinding binding) {
         if (binding.updateDomain() == GraphicsUpdateDomain.STATIC
                 && binding.bindingComponent().authoring() != null) {
@@ -19,12 +29,16 @@ public class TransformStateStore {
         if (binding.updateDomain() == GraphicsUpdateDomain.SYNC_FRAME) {
             binding.frameData().reset();
         }
+
+        binding.setStateVersion(stateVersions.incrementAndGet());
+        binding.setTickStateSettled(isTickStateSettled(binding));
     }
 
     public void swapTickBuffers(TransformRegistry registry) {
         for (TransformBinding binding : registry.activeBindings()) {
             if (binding.updateDomain() != GraphicsUpdateDomain.SYNC_FRAME) {
                 binding.swapTickBuffers();
+                trackTickState(binding);
             }
         }
     }
@@ -33,6 +47,7 @@ public class TransformStateStore {
         for (TransformBinding binding : registry.syncTickBindings()) {
             if (binding.bindingComponent().authoring() != null) {
                 binding.bindingComponent().authoring().writeTransform(binding.pendingTickData());
+                trackTickState(binding);
             }
         }
     }
@@ -41,6 +56,7 @@ public class TransformStateStore {
         for (TransformBinding binding : registry.asyncTickBindings()) {
             if (binding.bindingComponent().authoring() != null) {
                 binding.bindingComponent().authoring().writeTransform(binding.pendingTickData());
+                trackTickState(binding);
             }
         }
     }
@@ -52,4 +68,21 @@ public class TransformStateStore {
             }
         }
     }
+
+    /**
+     * A settled pair (current equals pending) that is still settled after an
+     * edit holds the same data it held before, since the new current tick is
+     * the old pending one. Every other transition gets a fresh version.
+     */
+    private void trackTickState(TransformBinding binding) {
+        boolean settled = isTickStateSettled(binding);
+        if (!settled || !binding.tickStateSettled()) {
+            binding.setStateVersion(stateVersions.incrementAndGet());
+        }
+        binding.setTickStateSettled(settled);
+    }
+
+    private static boolean isTickStateSettled(TransformBinding binding) {
+        return binding.currentTickData().contentEquals(binding.pendingTickData());
+    }
 }
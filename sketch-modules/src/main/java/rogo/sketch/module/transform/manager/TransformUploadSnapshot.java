@@ -1,37 +1,117 @@
 package rogo.sketch.module.transform.manager;
 
+import org.jetbrains.annotations.Nullable;
 import rogo.sketch.core.data.builder.NativeWriteBuffer;
+import rogo.sketch.module.transform.TransformData;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * CPU-side serialized transform snapshot for one compute stream.
+ * <p>
+ * Each slot remembers the binding, parent and {@link TransformBinding#stateVersion()
+ * state version} it was serialized from. Rebuilding skips slots that already
+ * hold the same input, and {@link #changedSlots()} lists the slots that differ
+ * from the snapshot with generation {@link #baseGeneration()}, so consumers
+ * holding that earlier snapshot only need to copy those slots.
  */
 public class TransformUploadSnapshot {
     public static final int INPUT_STRIDE = 128;
+    public static final long NO_GENERATION = -1L;
+
+    private static final AtomicLong GENERATIONS = new AtomicLong();
 
     private NativeWriteBuffer inputBuilder;
     private final List<TransformDispatchRange> dispatchRanges = new ArrayList<>();
-    private final Map<Integer, Integer> bindingOffsets = new HashMap<>();
+    private final BitSet changedSlots = new BitSet();
+    private int[] slotTransformIds = new int[0];
+    private int[] slotParentIds = new int[0];
+    private long[] slotStateVersions = new long[0];
+    private int[] slotByTransformId = new int[0];
     private int capacity;
     private int activeCount;
+    private int writtenSlotCount;
     private int maxDepth;
+    private long generation = NO_GENERATION;
+    private long baseGeneration = NO_GENERATION;
 
     public TransformUploadSnapshot(int initialCapacity) {
         capacity = Math.max(1, initialCapacity);
         inputBuilder = NativeWriteBuffer.createInternal((long) capacity * INPUT_STRIDE);
+        growSlotState(capacity);
     }
 
-    public void beginBuild(int requiredCount, int maxDepth) {
+    /**
+     * Start a rebuild. Slot changes are tracked against {@code base}, normally
+     * the previously built snapshot of the same stream, or against nothing when
+     * it is {@code null}.
+     */
+    public void beginBuild(int requiredCount, int maxDepth, @Nullable TransformUploadSnapshot base) {
         ensureCapacity(Math.max(requiredCount, 1));
+        for (int slot = 0; slot < activeCount; slot++) {
+            int transformId = slotTransformIds[slot];
+            if (transformId >= 0 && transformId < slotByTransformId.length) {
+                slotByTransformId[transformId] = -1;
+            }
+        }
         inputBuilder.reset();
         dispatchRanges.clear();
-        bindingOffsets.clear();
+        changedSlots.clear();
         activeCount = requiredCount;
         this.maxDepth = maxDepth;
+        generation = GENERATIONS.incrementAndGet();
+        baseGeneration = base != null ? base.generation : NO_GENERATION;
+    }
+
+    /**
+     * Serialize {@code binding} into {@code slot}, skipping the write when the
+     * slot already holds the same input.
+     */
+    public void putBinding(int slot, TransformBinding binding, @Nullable TransformUploadSnapshot base) {
+        int transformId = binding.transformId();
+        int parentId = binding.parentTransformId();
+        long stateVersion = binding.stateVersion();
+
+        if (!holdsSlot(slot, writtenSlotCount, transformId, parentId, stateVersion)) {
+            int flags = TransformData.computeFlags(
+                    binding.currentTickData(),
+                    binding.pendingTickData(),
+                    parentId);
+            TransformData.writeToBuffer(
+                    binding.currentTickData(),
+                    binding.pendingTickData(),
+                    inputBuilder.getBaseAddress() + (long) slot * INPUT_STRIDE,
+                    parentId,
+                    transformId,
+                    flags);
+            slotTransformIds[slot] = transformId;
+            slotParentIds[slot] = parentId;
+            slotStateVersions[slot] = stateVersion;
+        }
+
+        if (base == null || !base.holdsSlot(slot, base.activeCount, transformId, parentId, stateVersion)) {
+            changedSlots.set(slot);
+        }
+        if (transformId >= 0) {
+            if (transformId >= slotByTransformId.length) {
+                int previousLength = slotByTransformId.length;
+                slotByTransformId = Arrays.copyOf(slotByTransformId, Math.max(transformId + 1, previousLength * 2));
+                Arrays.fill(slotByTransformId, previousLength, slotByTransformId.length, -1);
+            }
+            slotByTransformId[transformId] = slot;
+        }
+    }
+
+    /**
+     * Finish a rebuild started by {@link #beginBuild}.
+     */
+    public void endBuild() {
+        writtenSlotCount = Math.max(writtenSlotCount, activeCount);
+        inputBuilder.setWriteOffset((long) activeCount * INPUT_STRIDE);
     }
 
     public NativeWriteBuffer inputBuilder() {
@@ -46,12 +126,27 @@ public class TransformUploadSnapshot {
         return dispatchRanges;
     }
 
-    public void putBindingOffset(int transformId, int flattenedIndex) {
-        bindingOffsets.put(transformId, flattenedIndex);
+    /**
+     * Flattened slot of {@code transformId}, or {@code -1} when it is not part
+     * of this snapshot.
+     */
+    public int bindingSlot(int transformId) {
+        return transformId >= 0 && transformId < slotByTransformId.length ? slotByTransformId[transformId] : -1;
     }
 
-    public Integer bindingOffset(int transformId) {
-        return bindingOffsets.get(transformId);
+    public long generation() {
+        return generation;
+    }
+
+    public long baseGeneration() {
+        return baseGeneration;
+    }
+
+    /**
+     * Slots whose bytes may differ from the snapshot of {@link #baseGeneration()}.
+     */
+    public BitSet changedSlots() {
+        return changedSlots;
     }
 
     public int activeCount() {
@@ -72,7 +167,18 @@ public class TransformUploadSnapshot {
             inputBuilder = null;
         }
         dispatchRanges.clear();
-        bindingOffsets.clear();
+        changedSlots.clear();
+        Arrays.fill(slotByTransformId, -1);
+        activeCount = 0;
+        writtenSlotCount = 0;
+        generation = NO_GENERATION;
+    }
+
+    private boolean holdsSlot(int slot, int limit, int transformId, int parentId, long stateVersion) {
+        return slot < limit
+                && slotTransformIds[slot] == transformId
+                && slotParentIds[slot] == parentId
+                && slotStateVersions[slot] == stateVersion;
     }
 
     private void ensureCapacity(int requiredCount) {
@@ -86,6 +192,14 @@ public class TransformUploadSnapshot {
 
         inputBuilder.close();
         inputBuilder = NativeWriteBuffer.createInternal((long) capacity * INPUT_STRIDE);
+        // The new native buffer holds none of the previously serialized slots
+        writtenSlotCount = 0;
+        growSlotState(capacity);
     }
-}
 
+    private void growSlotState(int slotCapacity) {
+        slotTransformIds = Arrays.copyOf(slotTransformIds, slotCapacity);
+        slotParentIds = Arrays.copyOf(slotParentIds, slotCapacity);
+        slotStateVersions = Arrays.copyOf(slotStateVersions, slotCapacity);
+    }
+}
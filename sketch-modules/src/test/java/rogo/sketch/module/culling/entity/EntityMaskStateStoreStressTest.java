@@ -0,0 +1,150 @@
+package rogo.sketch.module.culling.entity;
+
+import org.joml.primitives.AABBf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.system.MemoryUtil;
+import rogo.sketch.backend.headless.HeadlessBackendBootstrap;
+import rogo.sketch.core.backend.BackendKind;
+import rogo.sketch.core.backend.BackendReadbackBuffer;
+import rogo.sketch.core.driver.GraphicsDriver;
+import rogo.sketch.core.scene.SceneDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Host visibility queries racing {@link EntityMaskStateStore#swapBuffers}.
+ * Every generation replaces the single subject, so its slot is reused, and
+ * writes a readback pattern whose packed bit differs from the previous
+ * generation's view; pairing a fresh sample with the previous view shows up
+ * as a culled subject that must be visible.
+ */
+class EntityMaskStateStoreStressTest {
+    private static final int GENERATIONS = 50_000;
+    private static final int READERS = 4;
+
+    @BeforeEach
+    void bootstrap() {
+        if (GraphicsDriver.isBootstrapped()) {
+            GraphicsDriver.shutdown();
+        }
+        if (!GraphicsDriver.hasBackendBootstrap(BackendKind.HEADLESS)) {
+            GraphicsDriver.registerBackendBootstrap(new HeadlessBackendBootstrap());
+        }
+        GraphicsDriver.bootstrap(BackendKind.HEADLESS, HeadlessBackendBootstrap.context("test/entity-mask", 64, 64));
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (GraphicsDriver.isBootstrapped()) {
+            GraphicsDriver.shutdown();
+        }
+    }
+
+    @Test
+    void queriesNeverPairSamplesWithAStaleView() throws InterruptedException {
+        EntitySourceRegistry registry = new EntitySourceRegistry(new SceneDatabase());
+        EntityMaskStateStore store = new EntityMaskStateStore();
+        AABBf bounds = new AABBf(0.0f, 0.0f, 0.0f, 1.0f, 1.0f, 1.0f);
+        AtomicReference<Subject> current = new AtomicReference<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong violations = new AtomicLong();
+        AtomicLong culledQueries = new AtomicLong();
+        CountDownLatch started = new CountDownLatch(READERS);
+
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            Thread reader = new Thread(() -> {
+                started.countDown();
+                while (running.get()) {
+                    Subject subject = current.get();
+                    if (subject == null) {
+                        continue;
+                    }
+                    boolean visible = store.isVisible(subject, registry);
+                    // A reader stalled past the next swap may resolve the reused slot against a
+                    // newer view; only answers given while the subject was still current count
+                    if (subject.mustStayVisible() && !visible && current.get() == subject) {
+                        violations.incrementAndGet();
+                    }
+                    if (!visible) {
+                        culledQueries.incrementAndGet();
+                    }
+                }
+            }, "entity-visibility-reader-" + i);
+            reader.start();
+            readers.add(reader);
+        }
+        started.await();
+
+        Subject previous = null;
+        for (int generation = 0; generation < GENERATIONS; generation++) {
+            Subject subject = new Subject(generation);
+            if (previous != null) {
+                registry.remove(previous);
+            }
+            registry.upsert(subject, EntityFeatureSchema.SubjectKind.ENTITY, bounds, 0, null, generation);
+            current.set(subject);
+            store.refreshEntityInputs(registry);
+            BackendReadbackBuffer result = store.currentResultBuffer();
+            MemoryUtil.memPutByte(result.getMemoryAddress(), (byte) (Subject.writesVisible(generation) ? 1 : 0));
+            store.swapBuffers(generation, registry);
+            previous = subject;
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertEquals(0L, violations.get(), "subjects were resolved against the view published before their sample");
+        assertTrue(culledQueries.get() > 0L, "readers never observed a culled subject");
+        store.dispose();
+    }
+
+    @Test
+    void unsampledAndRemovedSubjectsStayVisible() {
+        EntitySourceRegistry registry = new EntitySourceRegistry(new SceneDatabase());
+        EntityMaskStateStore store = new EntityMaskStateStore();
+        AABBf bounds = new AABBf(0.0f, 0.0f, 0.0f, 1.0f, 1.0f, 1.0f);
+        Subject culled = new Subject(2);
+        registry.upsert(culled, EntityFeatureSchema.SubjectKind.ENTITY, bounds, 0, null, 0);
+        store.refreshEntityInputs(registry);
+        assertTrue(store.isVisible(culled, registry));
+
+        store.swapBuffers(0, registry);
+        assertFalse(store.isVisible(culled, registry));
+
+        Subject late = new Subject(3);
+        registry.upsert(late, EntityFeatureSchema.SubjectKind.ENTITY, bounds, 0, null, 1);
+        assertTrue(store.isVisible(late, registry));
+
+        registry.remove(culled);
+        assertTrue(store.isVisible(culled, registry));
+        store.dispose();
+    }
+
+    /**
+     * The packed view ORs the two newest result frames, so with a period of
+     * four generations views 0 and 1 (mod 4) see a set bit and views 2 and 3
+     * do not.
+     */
+    private record Subject(int generation) {
+        static boolean writesVisible(int generation) {
+            return (generation & 3) == 0;
+        }
+
+        boolean mustStayVisible() {
+            return (generation & 3) <= 1;
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package rogo.sketch.module.transform;
+
+import org.joml.Matrix4f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.system.MemoryUtil;
+import rogo.sketch.backend.headless.HeadlessBackendBootstrap;
+import rogo.sketch.core.backend.BackendBufferFactory;
+import rogo.sketch.core.backend.BackendInstalledBuffer;
+import rogo.sketch.core.backend.BackendKind;
+import rogo.sketch.core.backend.BackendReadbackBuffer;
+import rogo.sketch.core.driver.GraphicsDriver;
+import rogo.sketch.core.graphics.ecs.GraphicsBuiltinComponents;
+import rogo.sketch.core.graphics.ecs.GraphicsEntityId;
+import rogo.sketch.core.graphics.ecs.GraphicsUpdateDomain;
+import rogo.sketch.core.graphics.ecs.TransformWriter;
+import rogo.sketch.core.resource.descriptor.BufferRole;
+import rogo.sketch.core.resource.descriptor.BufferUpdatePolicy;
+import rogo.sketch.core.resource.descriptor.ResolvedBufferResource;
+import rogo.sketch.core.util.KeyId;
+import rogo.sketch.module.transform.manager.TransformBinding;
+import rogo.sketch.module.transform.manager.TransformDispatchRange;
+import rogo.sketch.module.transform.manager.TransformManager;
+import rogo.sketch.module.transform.manager.TransformUploadSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * {@link CpuTransformSolver} checked against a literal port of the
+ * {@code transform_matrix} compute shader's matrix composition, and the
+ * {@link TransformManager} fallback that fills the output SSBO when the
+ * backend does not execute compute dispatches.
+ */
+class CpuTransformSolverTest {
+    private static final int STRIDE = TransformUploadSnapshot.INPUT_STRIDE;
+    private static final float TOLERANCE = 1.0e-4f;
+
+    @BeforeEach
+    void bootstrap() {
+        if (GraphicsDriver.isBootstrapped()) {
+            GraphicsDriver.shutdown();
+        }
+        if (!GraphicsDriver.hasBackendBootstrap(BackendKind.HEADLESS)) {
+            GraphicsDriver.registerBackendBootstrap(new HeadlessBackendBootstrap());
+        }
+        GraphicsDriver.bootstrap(BackendKind.HEADLESS, HeadlessBackendBootstrap.context("test/cpu-transform", 64, 64));
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (GraphicsDriver.isBootstrapped()) {
+            GraphicsDriver.shutdown();
+        }
+    }
+
+    @Test
+    void solverMatchesShaderCompositionOverRandomHierarchy() {
+        Random random = new Random(43L);
+        // The 1500-slot layer goes through the fork-join split
+        int[] layerSizes = {40, 1500, 300, 7, 120};
+        int total = 0;
+        for (int size : layerSizes) {
+            total += size;
+        }
+        int[] ids = new int[total];
+        for (int i = 0; i < total; i++) {
+            ids[i] = i;
+        }
+        for (int i = total - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+
+        long input = MemoryUtil.nmemCalloc(total, STRIDE);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<TransformDispatchRange> ranges = new ArrayList<>();
+            int slot = 0;
+            for (int layer = 0; layer < layerSizes.length; layer++) {
+                ranges.add(new TransformDispatchRange(slot, layerSizes[layer]));
+                for (int i = 0; i < layerSizes[layer]; i++, slot++) {
+                    int parent = layer == 0 ? -1 : ids[random.nextInt(slot - i)];
+                    writeRandomRecord(random, input + (long) slot * STRIDE, parent, ids[slot]);
+                }
+            }
+
+            for (float partialTicks : new float[]{0.0f, 0.37f, 1.0f}) {
+                CpuTransformSolver solver = new CpuTransformSolver(pool);
+                solver.solve(input, ranges, partialTicks);
+                float[] expected = shaderReference(input, total, total, partialTicks);
+                assertEquals(total, solver.transformExtent());
+                assertMatrices(expected, solver.worldMatrices(), total, "partialTicks " + partialTicks);
+            }
+        } finally {
+            pool.shutdown();
+            MemoryUtil.nmemFree(input);
+        }
+    }
+
+    @Test
+    void separateStreamsSolveIntoOneOutput() {
+        Random random = new Random(7L);
+        long sync = MemoryUtil.nmemCalloc(2, STRIDE);
+        long async = MemoryUtil.nmemCalloc(2, STRIDE);
+        try {
+            writeRandomRecord(random, sync, -1, 0);
+            writeRandomRecord(random, sync + STRIDE, 0, 3);
+            writeRandomRecord(random, async, -1, 1);
+            writeRandomRecord(random, async + STRIDE, 1, 2);
+
+            CpuTransformSolver solver = new CpuTransformSolver();
+            solver.solve(sync, List.of(new TransformDispatchRange(0, 1), new TransformDispatchRange(1, 1)), 0.5f);
+            solver.solve(async, List.of(new TransformDispatchRange(0, 1), new TransformDispatchRange(1, 1)), 0.5f);
+
+            float[] expectedSync = shaderReference(sync, 2, 4, 0.5f);
+            float[] expectedAsync = shaderReference(async, 2, 4, 0.5f);
+            float[] actual = solver.worldMatrices();
+            for (int id : new int[]{0, 3}) {
+                assertMatrix(expectedSync, actual, id, "sync id " + id);
+            }
+            for (int id : new int[]{1, 2}) {
+                assertMatrix(expectedAsync, actual, id, "async id " + id);
+            }
+        } finally {
+            MemoryUtil.nmemFree(sync);
+            MemoryUtil.nmemFree(async);
+        }
+    }
+
+    @Test
+    void managerFillsOutputOnCpuWhenComputeIsUnavailable() {
+        assertFalse(GraphicsDriver.capabilities().computeShadersSupported());
+        TransformManager manager = new TransformManager();
+        KeyId readbackId = KeyId.of("test:cpu_transform_readback");
+        int readbackBytes = 3 * CpuTransformSolver.MATRIX_FLOATS * Float.BYTES;
+        BackendReadbackBuffer readback = BackendBufferFactory.createReadbackBuffer(
+                readbackId,
+                new ResolvedBufferResource(readbackId, BufferRole.STAGING, BufferUpdatePolicy.DYNAMIC, readbackBytes, 1L, readbackBytes),
+                readbackBytes);
+        try {
+            GraphicsEntityId root = new GraphicsEntityId(0, 0);
+            GraphicsEntityId arm = new GraphicsEntityId(1, 0);
+            GraphicsEntityId hand = new GraphicsEntityId(2, 0);
+            TransformBinding rootBinding = register(manager, root, null, writer -> {
+                writer.setPosition(1.0f, 2.0f, 3.0f);
+                writer.setRotation(0.0f, 0.5f, 0.0f);
+            });
+            TransformBinding armBinding = register(manager, arm, root, writer -> {
+                writer.setPosition(0.0f, 1.0f, 0.0f);
+                writer.setRotation(0.3f, 0.0f, -0.2f);
+                writer.setPivot(0.5f, 0.0f, 0.0f);
+                writer.setScale(2.0f);
+            });
+            TransformBinding handBinding = register(manager, hand, arm, writer -> writer.setPosition(1.0f, 0.0f, 0.0f));
+
+            // Two ticks so previous and current data agree
+            for (int tick = 0; tick < 2; tick++) {
+                manager.swapTickBuffers();
+                manager.collectSyncTickTransforms();
+                manager.collectAsyncTickTransforms();
+            }
+            manager.collectFrameTransforms();
+            manager.prepareFrameBuffer(null);
+            manager.uploadFrameBuffers(null, 0.5f);
+
+            Matrix4f rootWorld = new Matrix4f().translate(1.0f, 2.0f, 3.0f).mul(rotateZYX(0.0f, 0.5f, 0.0f));
+            Matrix4f armWorld = new Matrix4f(rootWorld)
+                    .translate(0.0f, 1.0f, 0.0f)
+                    .translate(0.5f, 0.0f, 0.0f)
+                    .mul(rotateZYX(0.3f, 0.0f, -0.2f))
+                    .translate(-0.5f, 0.0f, 0.0f)
+                    .scale(2.0f);
+            Matrix4f handWorld = new Matrix4f(armWorld).translate(1.0f, 0.0f, 0.0f);
+
+            GraphicsDriver.commandEncoderFactory().create("cpu-transform-readback")
+                    .copyBuffer((BackendInstalledBuffer) manager.getOutputSSBO(), 0L, readback, 0L, readbackBytes);
+            float[] device = new float[3 * CpuTransformSolver.MATRIX_FLOATS];
+            MemoryUtil.memFloatBuffer(readback.getMemoryAddress(), device.length).get(device);
+            float[] expected = new float[device.length];
+            rootWorld.get(expected, rootBinding.transformId() * CpuTransformSolver.MATRIX_FLOATS);
+            armWorld.get(expected, armBinding.transformId() * CpuTransformSolver.MATRIX_FLOATS);
+            handWorld.get(expected, handBinding.transformId() * CpuTransformSolver.MATRIX_FLOATS);
+            assertMatrices(expected, device, 3, "output SSBO");
+        } finally {
+            readback.dispose();
+            manager.cleanup();
+        }
+    }
+
+    private static TransformBinding register(
+            TransformManager manager,
+            GraphicsEntityId entityId,
+            GraphicsEntityId parentId,
+            Consumer<TransformWriter> authoring) {
+        return manager.registerBinding(
+                null,
+                entityId,
+                new GraphicsBuiltinComponents.TransformBindingComponent(GraphicsUpdateDomain.SYNC_TICK, authoring::accept, -1),
+                new GraphicsBuiltinComponents.TransformHierarchyComponent(() -> parentId));
+    }
+
+    private static void writeRandomRecord(Random random, long record, int parentId, int selfId) {
+        for (int vector = 0; vector < 6; vector++) {
+            long base = record + vector * 16L;
+            boolean scale = vector == 2 || vector == 5;
+            for (int c = 0; c < 3; c++) {
+                float value = scale ? 0.5f + random.nextFloat() : (random.nextFloat() - 0.5f) * 4.0f;
+                MemoryUtil.memPutFloat(base + c * 4L, value);
+            }
+        }
+        for (int c = 0; c < 3; c++) {
+            MemoryUtil.memPutFloat(record + 96 + c * 4L, random.nextFloat() - 0.5f);
+        }
+        int flags = random.nextInt(1 << 4) & ~TransformData.FLAG_HAS_PARENT;
+        if (parentId >= 0) {
+            flags |= TransformData.FLAG_HAS_PARENT;
+        }
+        MemoryUtil.memPutInt(record + 112, parentId);
+        MemoryUtil.memPutInt(record + 116, selfId);
+        MemoryUtil.memPutInt(record + 120, flags);
+    }
+
+    /**
+     * Slot-order port of {@code transform_matrix.comp}'s {@code main}.
+     */
+    private static float[] shaderReference(long input, int slots, int extent, float partialTicks) {
+        Matrix4f[] world = new Matrix4f[extent];
+        for (int slot = 0; slot < slots; slot++) {
+            long record = input + (long) slot * STRIDE;
+            int parentId = MemoryUtil.memGetInt(record + 112);
+            int selfId = MemoryUtil.memGetInt(record + 116);
+            int flags = MemoryUtil.memGetInt(record + 120);
+            boolean hasParent = (flags & TransformData.FLAG_HAS_PARENT) != 0;
+            boolean hasPivot = (flags & TransformData.FLAG_HAS_PIVOT) != 0;
+            boolean identityRotation = (flags & TransformData.FLAG_IDENTITY_ROTATION) != 0;
+            boolean identityScale = (flags & TransformData.FLAG_IDENTITY_SCALE) != 0;
+
+            float[] pos = mix(record, 0, 48, partialTicks);
+            float[] rot = mix(record, 16, 64, partialTicks);
+            float[] scl = mix(record, 32, 80, partialTicks);
+            float[] pivot = {
+                    MemoryUtil.memGetFloat(record + 96),
+                    MemoryUtil.memGetFloat(record + 100),
+                    MemoryUtil.memGetFloat(record + 104)};
+
+            Matrix4f t = translate(pos[0], pos[1], pos[2]);
+            Matrix4f local;
+            if (identityRotation && identityScale) {
+                local = t;
+            } else if (!hasPivot) {
+                if (identityRotation) {
+                    local = t.mul(scale(scl));
+                } else if (identityScale) {
+                    local = t.mul(rotateZYX(rot[0], rot[1], rot[2]));
+                } else {
+                    local = t.mul(rotateZYX(rot[0], rot[1], rot[2])).mul(scale(scl));
+                }
+            } else {
+                Matrix4f r = identityRotation ? new Matrix4f() : rotateZYX(rot[0], rot[1], rot[2]);
+                Matrix4f s = identityScale ? new Matrix4f() : scale(scl);
+                local = t.mul(translate(pivot[0], pivot[1], pivot[2]))
+                        .mul(r)
+                        .mul(translate(-pivot[0], -pivot[1], -pivot[2]))
+                        .mul(s);
+            }
+            if (hasParent) {
+                local = new Matrix4f(world[parentId]).mul(local);
+            }
+            world[selfId] = local;
+        }
+
+        float[] out = new float[extent * CpuTransformSolver.MATRIX_FLOATS];
+        for (int id = 0; id < extent; id++) {
+            if (world[id] != null) {
+                world[id].get(out, id * CpuTransformSolver.MATRIX_FLOATS);
+            }
+        }
+        return out;
+    }
+
+    private static float[] mix(long record, int prevOffset, int currOffset, float t) {
+        float[] out = new float[3];
+        for (int c = 0; c < 3; c++) {
+            float prev = MemoryUtil.memGetFloat(record + prevOffset + c * 4L);
+            float curr = MemoryUtil.memGetFloat(record + currOffset + c * 4L);
+            out[c] = prev * (1.0f - t) + curr * t;
+        }
+        return out;
+    }
+
+    // GLSL mat4 constructors take columns, like JOML's 16-float constructor
+
+    private static Matrix4f rotateZYX(float pitch, float yaw, float roll) {
+        return rotateX(pitch).mul(rotateY(yaw)).mul(rotateZ(roll));
+    }
+
+    private static Matrix4f rotateX(float angle) {
+        float c = (float) Math.cos(angle);
+        float s = (float) Math.sin(angle);
+        return new Matrix4f(
+                1.0f, 0.0f, 0.0f, 0.0f,
+                0.0f, c, s, 0.0f,
+                0.0f, -s, c, 0.0f,
+                0.0f, 0.0f, 0.0f, 1.0f);
+    }
+
+    private static Matrix4f rotateY(float angle) {
+        float c = (float) Math.cos(angle);
+        float s = (float) Math.sin(angle);
+        return new Matrix4f(
+                c, 0.0f, -s, 0.0f,
+                0.0f, 1.0f, 0.0f, 0.0f,
+                s, 0.0f, c, 0.0f,
+                0.0f, 0.0f, 0.0f, 1.0f);
+    }
+
+    private static Matrix4f rotateZ(float angle) {
+        float c = (float) Math.cos(angle);
+        float s = (float) Math.sin(angle);
+        return new Matrix4f(
+                c, s, 0.0f, 0.0f,
+                -s, c, 0.0f, 0.0f,
+                0.0f, 0.0f, 1.0f, 0.0f,
+                0.0f, 0.0f, 0.0f, 1.0f);
+    }
+
+    private static Matrix4f translate(float x, float y, float z) {
+        return new Matrix4f(
+                1.0f, 0.0f, 0.0f, 0.0f,
+                0.0f, 1.0f, 0.0f, 0.0f,
+                0.0f, 0.0f, 1.0f, 0.0f,
+                x, y, z, 1.0f);
+    }
+
+    private static Matrix4f scale(float[] s) {
+        return new Matrix4f(
+                s[0], 0.0f, 0.0f, 0.0f,
+                0.0f, s[1], 0.0f, 0.0f,
+                0.0f, 0.0f, s[2], 0.0f,
+                0.0f, 0.0f, 0.0f, 1.0f);
+    }
+
+    private static void assertMatrices(float[] expected, float[] actual, int count, String label) {
+        for (int id = 0; id < count; id++) {
+            assertMatrix(expected, actual, id, label + " id " + id);
+        }
+    }
+
+    private static void assertMatrix(float[] expected, float[] actual, int id, String label) {
+        int base = id * CpuTransformSolver.MATRIX_FLOATS;
+        for (int i = 0; i < CpuTransformSolver.MATRIX_FLOATS; i++) {
+            float e = expected[base + i];
+            float a = actual[base + i];
+            if (Math.abs(e - a) > TOLERANCE * Math.max(1.0f, Math.abs(e))) {
+                fail(label + " element " + i + ": expected " + e + " but was " + a);
+            }
+        }
+    }
+}
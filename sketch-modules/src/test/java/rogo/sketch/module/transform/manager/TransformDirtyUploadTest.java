@@ -0,0 +1,295 @@
+package rogo.sketch.module.transform.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.system.MemoryUtil;
+import rogo.sketch.backend.headless.HeadlessBackendBootstrap;
+import rogo.sketch.core.backend.BackendBufferFactory;
+import rogo.sketch.core.backend.BackendKind;
+import rogo.sketch.core.backend.BackendReadbackBuffer;
+import rogo.sketch.core.backend.CommandEncoder;
+import rogo.sketch.core.driver.GraphicsDriver;
+import rogo.sketch.core.graphics.ecs.GraphicsBuiltinComponents;
+import rogo.sketch.core.graphics.ecs.GraphicsEntityId;
+import rogo.sketch.core.graphics.ecs.GraphicsUpdateDomain;
+import rogo.sketch.core.resource.descriptor.BufferRole;
+import rogo.sketch.core.resource.descriptor.BufferUpdatePolicy;
+import rogo.sketch.core.resource.descriptor.ResolvedBufferResource;
+import rogo.sketch.core.util.KeyId;
+import rogo.sketch.module.transform.TransformData;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Dirty-range transform uploads checked against a full copy. Each frame
+ * applies random edits, reparents, registrations and frame overrides, uploads
+ * through {@link TransformGpuInputSet}'s coalesced
+ * {@code BackendStorageBuffer.uploadRange} writes, reads the headless device
+ * buffer back and compares it with a snapshot built from scratch plus the
+ * frame overrides.
+ */
+class TransformDirtyUploadTest {
+    private static final int STRIDE = TransformUploadSnapshot.INPUT_STRIDE;
+    private static final int MAX_ENTITIES = 160;
+    private static final int INITIAL_ENTITIES = 96;
+    private static final int FRAMES = 200;
+    private static final int NONE = -1;
+    private static final GraphicsUpdateDomain[] DOMAINS = {
+            GraphicsUpdateDomain.SYNC_TICK,
+            GraphicsUpdateDomain.ASYNC_TICK,
+            GraphicsUpdateDomain.SYNC_FRAME,
+            GraphicsUpdateDomain.STATIC
+    };
+
+    private BackendReadbackBuffer readback;
+
+    @BeforeEach
+    void bootstrap() {
+        if (GraphicsDriver.isBootstrapped()) {
+            GraphicsDriver.shutdown();
+        }
+        if (!GraphicsDriver.hasBackendBootstrap(BackendKind.HEADLESS)) {
+            GraphicsDriver.registerBackendBootstrap(new HeadlessBackendBootstrap());
+        }
+        GraphicsDriver.bootstrap(BackendKind.HEADLESS, HeadlessBackendBootstrap.context("test/transform-upload", 64, 64));
+        KeyId readbackId = KeyId.of("test:transform_upload_readback");
+        int readbackBytes = MAX_ENTITIES * STRIDE;
+        readback = BackendBufferFactory.createReadbackBuffer(
+                readbackId,
+                new ResolvedBufferResource(readbackId, BufferRole.STAGING, BufferUpdatePolicy.DYNAMIC, readbackBytes, 1L, readbackBytes),
+                readbackBytes);
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (readback != null) {
+            readback.dispose();
+        }
+        if (GraphicsDriver.isBootstrapped()) {
+            GraphicsDriver.shutdown();
+        }
+    }
+
+    @Test
+    void randomizedEditsUploadTheSameBytesAsAFullCopy() {
+        long[] gaps = {0L, TransformGpuInputSet.DEFAULT_UPLOAD_MERGE_GAP_BYTES, 64L * STRIDE};
+        for (int seed = 0; seed < 12; seed++) {
+            runScene(seed, gaps[seed % gaps.length], 0.1D);
+        }
+    }
+
+    @Test
+    void sparseEditsUploadFarLessThanAFullCopy() {
+        Scene scene = runScene(99, TransformGpuInputSet.DEFAULT_UPLOAD_MERGE_GAP_BYTES, 0.0D);
+        assertTrue(scene.uploadedBytes * 2 < scene.fullCopyBytes,
+                () -> "uploaded " + scene.uploadedBytes + " of " + scene.fullCopyBytes + " full-copy bytes");
+    }
+
+    @Test
+    void unchangedFrameUploadsNothing() {
+        Scene scene = new Scene(new Random(7L), TransformGpuInputSet.DEFAULT_UPLOAD_MERGE_GAP_BYTES);
+        try {
+            for (int i = 0; i < INITIAL_ENTITIES; i++) {
+                scene.register(i);
+            }
+            // Two settled frames so current and pending tick data agree everywhere
+            for (int frame = 0; frame < 3; frame++) {
+                scene.frame();
+            }
+            scene.frame();
+            assertEquals(0L, scene.syncPipeline.lastUploadBytes());
+            assertEquals(0L, scene.asyncPipeline.lastUploadBytes());
+            verify(scene, "settled");
+        } finally {
+            scene.cleanup();
+        }
+    }
+
+    private Scene runScene(int seed, long mergeGapBytes, double churn) {
+        Random random = new Random(seed);
+        Scene scene = new Scene(random, mergeGapBytes);
+        try {
+            for (int i = 0; i < INITIAL_ENTITIES; i++) {
+                scene.register(i);
+            }
+            for (int frame = 0; frame < FRAMES; frame++) {
+                scene.randomEdits(churn);
+                scene.frame();
+                verify(scene, "seed " + seed + " gap " + mergeGapBytes + " frame " + frame);
+            }
+            return scene;
+        } finally {
+            scene.cleanup();
+        }
+    }
+
+    private void verify(Scene scene, String label) {
+        TransformSnapshotBuilder referenceBuilder = new TransformSnapshotBuilder();
+        try {
+            TransformPreparedTickSnapshot reference = referenceBuilder.buildTickSnapshot(-1L, scene.registry, scene.graph);
+            assertDeviceMatches(scene.syncPipeline, reference.syncSnapshot(), scene.registry.frameBindings(), label + " sync");
+            assertDeviceMatches(scene.asyncPipeline, reference.asyncSnapshot(), List.of(), label + " async");
+            scene.fullCopyBytes += (long) (reference.syncSnapshot().activeCount() + reference.asyncSnapshot().activeCount()) * STRIDE;
+        } finally {
+            referenceBuilder.cleanup();
+        }
+    }
+
+    private void assertDeviceMatches(
+            TransformPipeline pipeline,
+            TransformUploadSnapshot reference,
+            List<TransformBinding> overrides,
+            String label) {
+        int count = reference.activeCount();
+        long bytes = (long) count * STRIDE;
+        if (bytes == 0L) {
+            return;
+        }
+        long expected = MemoryUtil.nmemCalloc(1L, bytes);
+        try {
+            MemoryUtil.memCopy(reference.inputBuilder().getBaseAddress(), expected, bytes);
+            for (TransformBinding binding : overrides) {
+                int slot = reference.bindingSlot(binding.transformId());
+                if (slot < 0 || slot >= count) {
+                    continue;
+                }
+                TransformData.writeToBuffer(
+                        binding.frameData(),
+                        binding.frameData(),
+                        expected + (long) slot * STRIDE,
+                        binding.parentTransformId(),
+                        binding.transformId(),
+                        TransformData.computeFlags(binding.frameData(), binding.frameData(), binding.parentTransformId()));
+            }
+
+            readback.ensureCapacity((int) bytes, false);
+            CommandEncoder encoder = GraphicsDriver.commandEncoderFactory().create("transform-upload-readback");
+            encoder.copyBuffer(pipeline.inputSSBO(), 0L, readback, 0L, bytes);
+            long device = readback.getMemoryAddress();
+            for (long offset = 0L; offset < bytes; offset += Integer.BYTES) {
+                if (MemoryUtil.memGetInt(expected + offset) != MemoryUtil.memGetInt(device + offset)) {
+                    fail(label + ": slot " + offset / STRIDE + " differs at byte " + offset % STRIDE);
+                }
+            }
+        } finally {
+            MemoryUtil.nmemFree(expected);
+        }
+    }
+
+    private static final class Scene {
+        private final Random random;
+        private final TransformRegistry registry = new TransformRegistry();
+        private final TransformStateStore stateStore = new TransformStateStore();
+        private final TransformHierarchyGraph graph = new TransformHierarchyGraph();
+        private final TransformSnapshotBuilder builder = new TransformSnapshotBuilder();
+        private final TransformPipeline syncPipeline = new TransformPipeline(16);
+        private final TransformPipeline asyncPipeline = new TransformPipeline(16);
+        private final GraphicsEntityId[] entityIds = new GraphicsEntityId[MAX_ENTITIES];
+        private final int[] generations = new int[MAX_ENTITIES];
+        private final int[] parents = new int[MAX_ENTITIES];
+        private final float[][] positions = new float[MAX_ENTITIES][3];
+        private final float[] yaws = new float[MAX_ENTITIES];
+        private final float[] scales = new float[MAX_ENTITIES];
+        private final TransformBinding[] bindings = new TransformBinding[MAX_ENTITIES];
+        private long uploadedBytes;
+        private long fullCopyBytes;
+
+        private Scene(Random random, long mergeGapBytes) {
+            this.random = random;
+            syncPipeline.setUploadMergeGapBytes(mergeGapBytes);
+            asyncPipeline.setUploadMergeGapBytes(mergeGapBytes);
+            for (int i = 0; i < MAX_ENTITIES; i++) {
+                parents[i] = NONE;
+                scales[i] = 1.0f;
+            }
+        }
+
+        private void register(int index) {
+            entityIds[index] = new GraphicsEntityId(index, generations[index]++);
+            parents[index] = index > 0 && random.nextInt(3) != 0 ? random.nextInt(index) : NONE;
+            positions[index][0] = random.nextFloat() * 100.0f;
+            positions[index][1] = random.nextFloat() * 10.0f;
+            positions[index][2] = random.nextFloat() * 100.0f;
+            GraphicsBuiltinComponents.TransformBindingComponent component = new GraphicsBuiltinComponents.TransformBindingComponent(
+                    DOMAINS[random.nextInt(DOMAINS.length)],
+                    writer -> {
+                        writer.setPosition(positions[index][0], positions[index][1], positions[index][2]);
+                        writer.setRotation(0.0f, yaws[index], 0.0f);
+                        writer.setScale(scales[index]);
+                    },
+                    -1);
+            TransformBinding binding = registry.registerBinding(
+                    entityIds[index],
+                    component,
+                    new GraphicsBuiltinComponents.TransformHierarchyComponent(
+                            () -> parents[index] >= 0 && entityIds[parents[index]] != null ? entityIds[parents[index]] : null));
+            stateStore.initializeBinding(binding);
+            graph.attach(binding, registry);
+            bindings[index] = binding;
+        }
+
+        private void unregister(int index) {
+            graph.detach(bindings[index], registry);
+            registry.unregisterBinding(bindings[index]);
+            bindings[index] = null;
+            entityIds[index] = null;
+        }
+
+        private void randomEdits(double churn) {
+            int edits = random.nextInt(8);
+            for (int e = 0; e < edits; e++) {
+                int index = random.nextInt(MAX_ENTITIES);
+                if (bindings[index] == null) {
+                    continue;
+                }
+                positions[index][random.nextInt(3)] += random.nextFloat() - 0.5f;
+                if (random.nextInt(4) == 0) {
+                    yaws[index] = random.nextFloat();
+                }
+                if (random.nextInt(8) == 0) {
+                    scales[index] = 0.5f + random.nextFloat();
+                }
+            }
+            if (random.nextDouble() < churn * 3.0D) {
+                int index = 1 + random.nextInt(MAX_ENTITIES - 1);
+                parents[index] = random.nextInt(3) == 0 ? NONE : random.nextInt(index);
+            }
+            if (random.nextDouble() < churn) {
+                int index = random.nextInt(MAX_ENTITIES);
+                if (bindings[index] == null) {
+                    register(index);
+                } else {
+                    unregister(index);
+                }
+            }
+        }
+
+        private void frame() {
+            stateStore.swapTickBuffers(registry);
+            stateStore.collectSyncTickTransforms(registry);
+            stateStore.collectAsyncTickTransforms(registry);
+            stateStore.collectFrameTransforms(registry);
+            graph.reparentChanged(registry);
+            TransformPreparedTickSnapshot snapshot = builder.buildTickSnapshot(-1L, registry, graph);
+
+            syncPipeline.loadSnapshot(snapshot.syncSnapshot());
+            asyncPipeline.loadSnapshot(snapshot.asyncSnapshot());
+            syncPipeline.applyFrameOverrides(registry.frameBindings(), snapshot.syncSnapshot());
+            syncPipeline.upload();
+            asyncPipeline.upload();
+            uploadedBytes += syncPipeline.lastUploadBytes() + asyncPipeline.lastUploadBytes();
+        }
+
+        private void cleanup() {
+            syncPipeline.cleanup();
+            asyncPipeline.cleanup();
+            builder.cleanup();
+        }
+    }
+}
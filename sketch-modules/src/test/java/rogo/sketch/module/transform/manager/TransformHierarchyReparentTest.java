@@ -0,0 +1,175 @@
+package rogo.sketch.module.transform.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rogo.sketch.backend.headless.HeadlessBackendBootstrap;
+import rogo.sketch.core.backend.BackendKind;
+import rogo.sketch.core.driver.GraphicsDriver;
+import rogo.sketch.core.graphics.ecs.GraphicsBuiltinComponents;
+import rogo.sketch.core.graphics.ecs.GraphicsEntityId;
+import rogo.sketch.core.graphics.ecs.GraphicsUpdateDomain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Parent resolver changes reaching {@link TransformHierarchyGraph} without an
+ * explicit reparent call, checked against a full rebuild of the same registry.
+ */
+class TransformHierarchyReparentTest {
+    private static final int NONE = -1;
+
+    private GraphicsEntityId[] entityIds;
+    private int[] parentIndices;
+
+    @BeforeEach
+    void bootstrap() {
+        if (GraphicsDriver.isBootstrapped()) {
+            GraphicsDriver.shutdown();
+        }
+        if (!GraphicsDriver.hasBackendBootstrap(BackendKind.HEADLESS)) {
+            GraphicsDriver.registerBackendBootstrap(new HeadlessBackendBootstrap());
+        }
+        GraphicsDriver.bootstrap(BackendKind.HEADLESS, HeadlessBackendBootstrap.context("test/transform-hierarchy", 64, 64));
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (GraphicsDriver.isBootstrapped()) {
+            GraphicsDriver.shutdown();
+        }
+    }
+
+    @Test
+    void managerPicksUpResolverChangesOnTheNextTick() {
+        allocateEntities(3);
+        TransformManager manager = new TransformManager();
+        try {
+            parentIndices[2] = 0;
+            TransformBinding[] bindings = new TransformBinding[3];
+            for (int i = 0; i < 3; i++) {
+                bindings[i] = manager.registerBinding(null, entityIds[i], bindingComponent(i), hierarchyComponent(i));
+            }
+            manager.prepareAndPublishTickSnapshot(null);
+            assertEquals(bindings[0].transformId(), bindings[2].parentTransformId());
+            assertEquals(1, bindings[2].depth());
+
+            parentIndices[2] = 1;
+            parentIndices[1] = 0;
+            manager.prepareAndPublishTickSnapshot(null);
+
+            assertEquals(bindings[1].transformId(), bindings[2].parentTransformId());
+            assertEquals(1, bindings[1].depth());
+            assertEquals(2, bindings[2].depth());
+
+            parentIndices[1] = NONE;
+            manager.prepareAndPublishTickSnapshot(null);
+            assertEquals(NONE, bindings[1].parentTransformId());
+            assertEquals(1, bindings[2].depth());
+        } finally {
+            manager.cleanup();
+        }
+    }
+
+    @Test
+    void polledReparentsMatchAFullRebuild() {
+        int count = 96;
+        allocateEntities(count);
+        Random random = new Random(41L);
+        for (int i = 1; i < count; i++) {
+            parentIndices[i] = random.nextInt(4) == 0 ? NONE : random.nextInt(i);
+        }
+        TransformRegistry registry = new TransformRegistry();
+        for (int i = 0; i < count; i++) {
+            registry.registerBinding(entityIds[i], bindingComponent(i), hierarchyComponent(i));
+        }
+        TransformHierarchyGraph graph = new TransformHierarchyGraph();
+        graph.resolveIfNeeded(registry);
+
+        for (int round = 0; round < 200; round++) {
+            int edits = 1 + random.nextInt(4);
+            for (int e = 0; e < edits; e++) {
+                int child = 1 + random.nextInt(count - 1);
+                // Mostly acyclic edits; the occasional cycle exercises the rebuild fallback
+                parentIndices[child] = random.nextInt(5) == 0
+                        ? NONE
+                        : random.nextInt(10) == 0 ? random.nextInt(count) : random.nextInt(child);
+            }
+            graph.reparentChanged(registry);
+            graph.resolveIfNeeded(registry);
+            Layout incremental = Layout.of(graph, registry);
+
+            TransformHierarchyGraph rebuilt = new TransformHierarchyGraph();
+            rebuilt.resolveIfNeeded(registry);
+            assertEquals(Layout.of(rebuilt, registry), incremental, "round " + round);
+        }
+    }
+
+    @Test
+    void unchangedResolversLeaveTheGraphInPlace() {
+        allocateEntities(4);
+        parentIndices[1] = 0;
+        parentIndices[2] = 1;
+        parentIndices[3] = 0;
+        TransformRegistry registry = new TransformRegistry();
+        for (int i = 0; i < 4; i++) {
+            registry.registerBinding(entityIds[i], bindingComponent(i), hierarchyComponent(i));
+        }
+        TransformHierarchyGraph graph = new TransformHierarchyGraph();
+        graph.resolveIfNeeded(registry);
+        Layout before = Layout.of(graph, registry);
+
+        graph.reparentChanged(registry);
+        graph.resolveIfNeeded(registry);
+
+        assertEquals(before, Layout.of(graph, registry));
+        assertEquals(2, graph.syncMaxDepth());
+    }
+
+    private void allocateEntities(int count) {
+        entityIds = new GraphicsEntityId[count];
+        parentIndices = new int[count];
+        for (int i = 0; i < count; i++) {
+            entityIds[i] = new GraphicsEntityId(i, 0);
+            parentIndices[i] = NONE;
+        }
+    }
+
+    private static GraphicsBuiltinComponents.TransformBindingComponent bindingComponent(int index) {
+        return new GraphicsBuiltinComponents.TransformBindingComponent(
+                (index & 1) == 0 ? GraphicsUpdateDomain.SYNC_TICK : GraphicsUpdateDomain.ASYNC_TICK,
+                writer -> {
+                },
+                -1);
+    }
+
+    private GraphicsBuiltinComponents.TransformHierarchyComponent hierarchyComponent(int index) {
+        return new GraphicsBuiltinComponents.TransformHierarchyComponent(() -> parentIndices[index] >= 0
+                ? entityIds[parentIndices[index]]
+                : null);
+    }
+
+    private record Layout(List<List<Integer>> sync, List<List<Integer>> async, List<Integer> parents, List<Integer> depths) {
+        static Layout of(TransformHierarchyGraph graph, TransformRegistry registry) {
+            List<Integer> parents = new ArrayList<>();
+            List<Integer> depths = new ArrayList<>();
+            for (TransformBinding binding : registry.activeBindings()) {
+                parents.add(binding.parentTransformId());
+                depths.add(binding.depth());
+            }
+            return new Layout(ids(graph.syncLayers()), ids(graph.asyncLayers()), parents, depths);
+        }
+
+        private static List<List<Integer>> ids(List<List<TransformBinding>> layers) {
+            List<List<Integer>> ids = new ArrayList<>();
+            for (List<TransformBinding> layer : layers) {
+                ids.add(layer.stream().map(TransformBinding::transformId).toList());
+            }
+            return ids;
+        }
+    }
+}
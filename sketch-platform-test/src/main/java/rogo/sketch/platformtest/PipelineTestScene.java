@@ -1290,15 +1290,20 @@ final class PipelineTestScene implements AutoCloseable {
                 },
                 true);
         if (imageData == null || imageData.buffer == null || imageData.width <= 0 || imageData.height <= 0) {
+            if (imageData != null) {
+                imageData.close();
+            }
             realSceneTextureIdsByPath.put(normalized, REAL_SCENE_FALLBACK_TEXTURE);
             return REAL_SCENE_FALLBACK_TEXTURE;
         }
-        installRealSceneTextureResource(
-                resourceId,
-                imageData.width,
-                imageData.height,
-                imageData.buffer,
-                normalized.toString());
+        try (imageData) {
+            installRealSceneTextureResource(
+                    resourceId,
+                    imageData.width,
+                    imageData.height,
+                    imageData.buffer,
+                    normalized.toString());
+        }
         realSceneTextureIdsByPath.put(normalized, resourceId);
         return resourceId;
     }